@@ -1,18 +1,25 @@
 package de.unifreiburg.informatik.cobweb;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongToIntFunction;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import ch.qos.logback.classic.util.ContextInitializer;
 import de.unifreiburg.informatik.cobweb.benchmark.BenchmarkSuite;
+import de.unifreiburg.informatik.cobweb.bundle.EBundleArtifact;
+import de.unifreiburg.informatik.cobweb.bundle.ModelBundle;
 import de.unifreiburg.informatik.cobweb.commands.CommandData;
 import de.unifreiburg.informatik.cobweb.commands.CommandParser;
 import de.unifreiburg.informatik.cobweb.commands.ECommand;
@@ -20,22 +27,34 @@ import de.unifreiburg.informatik.cobweb.config.ConfigLoader;
 import de.unifreiburg.informatik.cobweb.config.ConfigStore;
 import de.unifreiburg.informatik.cobweb.db.ADatabase;
 import de.unifreiburg.informatik.cobweb.db.ExternalDatabase;
+import de.unifreiburg.informatik.cobweb.db.INameSearchDatabase;
 import de.unifreiburg.informatik.cobweb.db.MemoryDatabase;
+import de.unifreiburg.informatik.cobweb.db.NodeNameData;
 import de.unifreiburg.informatik.cobweb.db.OsmDatabaseHandler;
 import de.unifreiburg.informatik.cobweb.parsing.DataParser;
 import de.unifreiburg.informatik.cobweb.parsing.ParseException;
 import de.unifreiburg.informatik.cobweb.parsing.osm.IOsmFileHandler;
 import de.unifreiburg.informatik.cobweb.parsing.osm.OsmReducer;
-import de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.INearestNeighborComputation;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.matching.HmmMapMatcher;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.SegmentIndex;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.ShortestPathComputationFactory;
+import de.unifreiburg.informatik.cobweb.routing.model.ERoutingModelMode;
 import de.unifreiburg.informatik.cobweb.routing.model.RoutingModel;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.IGetNodeById;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.IGraph;
 import de.unifreiburg.informatik.cobweb.routing.parsing.osm.OsmRoadFilter;
 import de.unifreiburg.informatik.cobweb.routing.server.RoutingServer;
+import de.unifreiburg.informatik.cobweb.searching.name.model.AutocompleteSearcher;
+import de.unifreiburg.informatik.cobweb.searching.name.model.NodeNameCache;
 import de.unifreiburg.informatik.cobweb.searching.name.server.NameSearchServer;
+import de.unifreiburg.informatik.cobweb.searching.matching.server.MapMatchingServer;
 import de.unifreiburg.informatik.cobweb.searching.nearest.server.NearestSearchServer;
+import de.unifreiburg.informatik.cobweb.searching.reverse.model.NamedFeatureIndex;
+import de.unifreiburg.informatik.cobweb.searching.reverse.server.ReverseGeocodingServer;
 import de.unifreiburg.informatik.cobweb.util.CleanUtil;
+import de.unifreiburg.informatik.cobweb.util.http.HttpServer;
 
 /**
  * The whole application. Supports various commands, see the documentation of
@@ -45,8 +64,11 @@ import de.unifreiburg.informatik.cobweb.util.CleanUtil;
  * operated using {@link #start()} and {@link #shutdown()}.<br>
  * <br>
  * The application consists of a routing server which offers a REST API, a
- * database that stores meta information and two search servers used as utility
- * which offer a REST API too.
+ * database that stores meta information, two search servers used as utility,
+ * a map matching server and a reverse geocoding server, which all offer a REST
+ * API too. While running, the model of the application can be built again from
+ * updated data and swapped into the servers without interrupting them, see
+ * {@link #reload()}.
  *
  * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
  */
@@ -55,6 +77,11 @@ public final class Application {
    * Path to the configuration of the logger.
    */
   private static final Path LOGGER_CONFIG = Paths.get("res", "logging", "logConfig.xml");
+  /**
+   * The names of all nodes loaded from a model bundle or <tt>null</tt> if the
+   * model was not loaded from a bundle.
+   */
+  private List<NodeNameData> mBundleNodeNames;
   /**
    * Parsed argument data used to determine the commands to use.
    */
@@ -71,22 +98,35 @@ public final class Application {
    * Database to use for storing meta data.
    */
   private ADatabase mDatabase;
+  /**
+   * HTTP server shared by all servers, serves their REST APIs.
+   */
+  private HttpServer mHttpServer;
+  /**
+   * Whether a reload of the model is currently in progress.
+   */
+  private final AtomicBoolean mIsReloading;
   /**
    * Logger to use for logging.
    */
   private Logger mLogger;
   /**
-   * Server to use for responding to name search requests. Offers a REST API.
+   * Server to use for responding to map matching requests. Offers a REST API.
    */
-  private NameSearchServer mNameSearchServer;
+  private MapMatchingServer mMapMatchingServer;
   /**
-   * Algorithm used to compute nearest neighbors.
+   * Server to use for responding to name search requests. Offers a REST API.
    */
-  private INearestNeighborComputation<ICoreNode> mNearestNeighborComputation;
+  private NameSearchServer mNameSearchServer;
   /**
    * Server to use for responding to nearest search requests. Offers a REST API.
    */
   private NearestSearchServer mNearestSearchServer;
+  /**
+   * Server to use for responding to reverse geocoding requests. Offers a REST
+   * API.
+   */
+  private ReverseGeocodingServer mReverseGeocodingServer;
   /**
    * The model to use for routing.
    */
@@ -108,11 +148,15 @@ public final class Application {
    * Supported commands are
    * <ul>
    * <li><b><tt>empty</tt></b> or <b><tt>args[0] = start</tt></b>: Starts the
-   * default service which answers routing requests over a REST API.</li>
+   * default service which answers routing requests over a REST API. Uses the
+   * model bundle created by <tt>precompute</tt> if present.</li>
    * <li><b><tt>args[0] = reduce</tt></b>: Reduces all input data such that the
    * default service will run faster.</li>
    * <li><b><tt>args[0] = clean</tt></b>: Clears the database and all cached and
    * serialized data.</li>
+   * <li><b><tt>args[0] = precompute</tt></b>: Initializes the API and writes
+   * all precomputed artifacts into a model bundle, without starting the
+   * service.</li>
    * <li><b><tt>args[0] = benchmark</tt></b>: Initializes the API and benchmarks
    * the routing model.</li>
    * <li><b><tt>args[1+]</tt></b>: Paths to data files that should be used by
@@ -124,6 +168,8 @@ public final class Application {
    * <li><tt>reduce</tt>: Reduces the given unreduced data files (OSM, GTFS)
    * instead of the unreduced files in the set directories.</li>
    * <li><tt>clean</tt>: Not supported, will ignore paths.</li>
+   * <li><tt>precompute</tt>: Uses the given files as data files (OSM, GTFS)
+   * instead of the set directories.</li>
    * <li><tt>benchmark</tt>: Uses the given files as data files (OSM, GTFS)
    * instead of the set directories.</li>
    * </ul>
@@ -134,6 +180,7 @@ public final class Application {
    */
   public Application(final String[] args) {
     mWasShutdownRequested = false;
+    mIsReloading = new AtomicBoolean(false);
     mCommandData = CommandParser.parseCommands(args);
   }
 
@@ -157,7 +204,8 @@ public final class Application {
       // Save to ensure old configuration files get new default parameter
       mConfigLoader.saveConfig(mConfig);
 
-      if (mCommandData.getCommand() == ECommand.START || mCommandData.getCommand() == ECommand.BENCHMARK) {
+      final ECommand command = mCommandData.getCommand();
+      if (command == ECommand.START || command == ECommand.BENCHMARK || command == ECommand.PRECOMPUTE) {
         initializeApi();
       }
       final Instant initEndTime = Instant.now();
@@ -168,6 +216,97 @@ public final class Application {
     }
   }
 
+  /**
+   * Reloads the model of the application. The database, routing model, shortest
+   * path computation factory, name index and spatial index are built again from
+   * the current data, the same way as at initialization, and then swapped into
+   * the running servers. The servers continue to answer requests with the
+   * previous model meanwhile and requests that are already being handled
+   * finish with it.<br>
+   * <br>
+   * Only supported by the service started with the <tt>start</tt> command and
+   * neither with an external database nor with a tiled graph, since those are
+   * modified in place while the previous model still uses them. A reload
+   * requested while another reload is in progress is ignored. The reload can
+   * be triggered by creating the file set as reload trigger in the
+   * configuration.
+   *
+   * @return <tt>True</tt> if the model was reloaded, <tt>false</tt> if the
+   *         reload was ignored
+   * @throws ParseException If an exception occurred while parsing data, the
+   *                        servers continue with the previous model then
+   */
+  public boolean reload() throws ParseException {
+    if (mCommandData.getCommand() != ECommand.START || mRoutingServer == null) {
+      mLogger.warn("Ignoring reload request, only the running service can be reloaded");
+      return false;
+    }
+    if (mConfig.useExternalDb() || mConfig.useTiledGraph()) {
+      mLogger.warn("Ignoring reload request, not supported with an external database or a tiled graph");
+      return false;
+    }
+    if (!mIsReloading.compareAndSet(false, true)) {
+      mLogger.warn("Ignoring reload request, a reload is already in progress");
+      return false;
+    }
+
+    LoadedModel model = null;
+    try {
+      mLogger.info("Reloading model");
+      final Instant reloadStartTime = Instant.now();
+
+      // Build everything in the background, the servers and the fields still
+      // use the previous model
+      model = createModel();
+      final RoutingModel routingModel = model.mRoutingModel;
+      final ADatabase database = model.mDatabase;
+      final IGetNodeById<ICoreNode> nodeProvider = routingModel.getNodeProvider();
+      final ShortestPathComputationFactory computationFactory = routingModel.createShortestPathComputationFactory();
+      final AutocompleteSearcher nameSearcher = mNameSearchServer.createSearcher(
+          createNameSearchDatabase(database, model.mBundleNodeNames), createNameImportance(database, routingModel));
+      final NamedFeatureIndex namedFeatureIndex = createNamedFeatureIndex(database, routingModel);
+      final HmmMapMatcher<ICoreNode, ICoreEdge<ICoreNode>> mapMatcher = createMapMatcher(routingModel);
+
+      // Swap everything at once, such that a failed reload leaves all servers
+      // with the previous model
+      final ADatabase previousDatabase;
+      synchronized (this) {
+        if (mWasShutdownRequested) {
+          mLogger.info("Discarding reloaded model, the application is shutting down");
+          database.shutdown();
+          return false;
+        }
+        mNameSearchServer.reload(nameSearcher);
+        mRoutingServer.reload(nodeProvider, computationFactory, database);
+        mNearestSearchServer.reload(routingModel.getRoadSnapping(), database);
+        mMapMatchingServer.reload(mapMatcher, database);
+        mReverseGeocodingServer.reload(namedFeatureIndex);
+
+        previousDatabase = mDatabase;
+        mDatabase = database;
+        mRoutingModel = routingModel;
+        mBundleNodeNames = model.mBundleNodeNames;
+      }
+      // The new model is in use now and must not be shut down on failure
+      model = null;
+      // Requests still being handled with the previous model do not need the
+      // database to be open, shutting it down only releases its resources
+      previousDatabase.shutdown();
+
+      final Instant reloadEndTime = Instant.now();
+      mLogger.info("Reload took: {}", Duration.between(reloadStartTime, reloadEndTime));
+      return true;
+    } catch (final Throwable e) {
+      mLogger.error("Error while reloading, continuing with the previous model", e);
+      if (model != null) {
+        model.mDatabase.shutdown();
+      }
+      throw e;
+    } finally {
+      mIsReloading.set(false);
+    }
+  }
+
   /**
    * Shuts the application down. Use this method after {@link #start()} has been
    * called. The application should not be used anymore after this method.
@@ -185,6 +324,9 @@ public final class Application {
       if (mRoutingServer != null) {
         mRoutingServer.shutdown();
       }
+      if (mHttpServer != null) {
+        mHttpServer.shutdown();
+      }
       if (mDatabase != null) {
         mDatabase.shutdown();
       }
@@ -212,9 +354,13 @@ public final class Application {
           mRoutingServer.start();
           mNameSearchServer.start();
           mNearestSearchServer.start();
+          mMapMatchingServer.start();
+          mReverseGeocodingServer.start();
+          mHttpServer.start();
+          new ReloadWatcher(this, mConfig.getReloadTrigger()).start();
           break;
         case CLEAN:
-          CleanUtil.clean(mConfig, mConfig);
+          CleanUtil.clean(mConfig, mConfig, mConfig);
           break;
         case REDUCE:
           startReducer();
@@ -222,6 +368,9 @@ public final class Application {
         case BENCHMARK:
           startBenchmark();
           break;
+        case PRECOMPUTE:
+          startPrecompute();
+          break;
         default:
           throw new AssertionError();
       }
@@ -241,16 +390,151 @@ public final class Application {
     return mWasShutdownRequested;
   }
 
+  /**
+   * Creates the database which stores meta data used for routing and
+   * initializes it. Depending on the configuration this may create tables in
+   * an external database or create an internal in-memory database.
+   *
+   * @return The initialized database
+   * @throws ParseException If an exception occurred while parsing data like
+   *                        configuration files. Or when a problem with an
+   *                        external database occurred like passing invalid SQL
+   *                        or if a connection could not be established.
+   */
+  private ADatabase createDatabase() throws ParseException {
+    mLogger.info("Initializing database");
+
+    final ADatabase database;
+    if (mConfig.useExternalDb()) {
+      database = new ExternalDatabase(mConfig);
+    } else {
+      database = new MemoryDatabase();
+    }
+
+    database.initialize();
+    return database;
+  }
+
+  /**
+   * Creates the map matcher which matches traces onto the road graph of the
+   * given routing model.
+   *
+   * @param routingModel The routing model to match onto
+   * @return The map matcher or <tt>null</tt> if the routing model offers no
+   *         index of its road segments, for example when using the tiled graph
+   */
+  private static HmmMapMatcher<ICoreNode, ICoreEdge<ICoreNode>> createMapMatcher(final RoutingModel routingModel) {
+    final SegmentIndex<ICoreNode, ICoreEdge<ICoreNode>> roadSegmentIndex = routingModel.getRoadSegmentIndex();
+    if (roadSegmentIndex == null) {
+      return null;
+    }
+    return new HmmMapMatcher<>(routingModel.getQueryGraph(), roadSegmentIndex);
+  }
+
+  /**
+   * Creates the database and the routing model from the current data. Loads the
+   * routing model from the model bundle if possible, otherwise reads in all
+   * data. The fields of the application are not changed, such that a model can
+   * be built while the servers still use the previous one. If building fails,
+   * the created database is shut down again.
+   *
+   * @return The created model
+   * @throws ParseException If an exception occurred while parsing data
+   */
+  private LoadedModel createModel() throws ParseException {
+    final ADatabase database = createDatabase();
+    try {
+      LoadedModel model = null;
+      if (mCommandData.getCommand() == ECommand.START) {
+        model = loadModelFromBundle(database).orElse(null);
+      }
+      if (model != null) {
+        // The database is not part of the bundle
+        parseData(database, null);
+      } else {
+        final RoutingModel routingModel = new RoutingModel(database, mConfig);
+        routingModel.prepareModelBeforeData();
+        parseData(database, routingModel);
+        routingModel.prepareModelAfterData();
+        routingModel.finishModel();
+        model = new LoadedModel(database, routingModel, null);
+      }
+      mLogger.info("Model size: {}", model.mRoutingModel.getSizeInformation());
+      return model;
+    } catch (final Throwable e) {
+      database.shutdown();
+      throw e;
+    }
+  }
+
+  /**
+   * Creates the index of all named nodes and ways used for reverse geocoding.
+   * Named ways are only found if the routing model offers an index of its road
+   * segments.
+   *
+   * @param database     The database providing the names
+   * @param routingModel The routing model providing the road segments
+   * @return The created index
+   */
+  private NamedFeatureIndex createNamedFeatureIndex(final ADatabase database, final RoutingModel routingModel) {
+    final NamedFeatureIndex index = NamedFeatureIndex.build(database, routingModel.getRoadSegmentIndex());
+    mLogger.info("Named feature index: {}", index);
+    return index;
+  }
+
+  /**
+   * Creates the function providing the importance of named nodes for the name
+   * search. That is the amount of edges incident to the node in the query
+   * graph, <tt>0</tt> for nodes not contained in it.<br>
+   * <br>
+   * With an external database or a tiled graph all nodes are equally important,
+   * the lookups would issue a database query or load a tile per name.
+   *
+   * @param database     The database mapping OSM IDs to internal IDs
+   * @param routingModel The routing model providing the query graph
+   * @return The function providing the importance of a node by its OSM ID
+   */
+  private LongToIntFunction createNameImportance(final ADatabase database, final RoutingModel routingModel) {
+    if (mConfig.useExternalDb() || mConfig.useTiledGraph()) {
+      return osmId -> 0;
+    }
+    final IGetNodeById<ICoreNode> nodeProvider = routingModel.getNodeProvider();
+    final IGraph<ICoreNode, ICoreEdge<ICoreNode>> graph = routingModel.getQueryGraph();
+    return osmId -> database.getInternalNodeByOsm(osmId).flatMap(nodeProvider::getNodeById)
+        .map(node -> (int) (graph.getOutgoingEdges(node).count() + graph.getIncomingEdges(node).count()))
+        .orElse(0);
+  }
+
+  /**
+   * Creates the database which provides the name data-set for the name search.
+   * That are the names loaded from the model bundle or, if the model was not
+   * loaded from a bundle, the database of the application.
+   *
+   * @param database        The database of the application
+   * @param bundleNodeNames The names loaded from the model bundle or
+   *                        <tt>null</tt> if the model was not loaded from a
+   *                        bundle
+   * @return The database to use for name search
+   */
+  private static INameSearchDatabase createNameSearchDatabase(final ADatabase database,
+      final List<NodeNameData> bundleNodeNames) {
+    if (bundleNodeNames == null) {
+      return database;
+    }
+    return () -> bundleNodeNames;
+  }
+
   /**
    * Creates file handler that handle OSM files for the database. If they are
    * notified when parsing OSM data, they will adjust the database accordingly.
    *
+   * @param database The database to adjust
    * @return An iterable consisting of all OSM file handlers that adjust the
    *         database
    */
-  private Iterable<IOsmFileHandler> createOsmDatabaseHandler() {
+  private Iterable<IOsmFileHandler> createOsmDatabaseHandler(final ADatabase database) {
     try {
-      final IOsmFileHandler databaseHandler = new OsmDatabaseHandler(mDatabase, mConfig);
+      final IOsmFileHandler databaseHandler = new OsmDatabaseHandler(database, mConfig);
       return Collections.singletonList(databaseHandler);
     } catch (final IOException e) {
       throw new ParseException(e);
@@ -268,44 +552,18 @@ public final class Application {
   private void initializeApi() throws ParseException {
     final Instant initStartTime = Instant.now();
 
-    initializeDatabase();
-    mRoutingModel = new RoutingModel(mDatabase, mConfig);
-    mRoutingModel.prepareModelBeforeData();
-
-    // Prepare data parsing
-    final Collection<Path> paths = mCommandData.getPaths();
-    final DataParser dataParser;
-    if (paths.isEmpty()) {
-      // Use configuration file
-      dataParser = new DataParser(mConfig, null);
-    } else {
-      // Override settings with the given paths
-      dataParser = new DataParser(mConfig, paths);
-    }
-
-    // Add OSM handler
-    createOsmDatabaseHandler().forEach(dataParser::addOsmHandler);
-    mRoutingModel.createOsmHandler().forEach(dataParser::addOsmHandler);
-    // Add GTFS handler
-    mRoutingModel.createGtfsHandler().forEach(dataParser::addGtfsHandler);
-
-    // Parse all data
-    final Instant parseStartTime = Instant.now();
-    dataParser.parseData();
-    final Instant parseEndTime = Instant.now();
-    mLogger.info("Parsing took: {}", Duration.between(parseStartTime, parseEndTime));
-    dataParser.clearHandler();
-
-    mRoutingModel.prepareModelAfterData();
-    mNearestNeighborComputation = mRoutingModel.getNearestRoadNodeComputation();
-
-    mRoutingModel.finishModel();
-    mLogger.info("Model size: {}", mRoutingModel.getSizeInformation());
+    final LoadedModel model = createModel();
+    mDatabase = model.mDatabase;
+    mRoutingModel = model.mRoutingModel;
+    mBundleNodeNames = model.mBundleNodeNames;
 
     if (mCommandData.getCommand() == ECommand.START) {
+      initializeHttpServer();
       initializeRouting();
       initializeNameSearch();
       initializeNearestSearch();
+      initializeMapMatching();
+      initializeReverseGeocoding();
     }
 
     final Instant initEndTime = Instant.now();
@@ -313,25 +571,18 @@ public final class Application {
   }
 
   /**
-   * Initializes the database which stores meta data used for routing. Depending
-   * on the configuration this may create tables in an external database or
-   * create an internal in-memory database.
+   * Initializes the HTTP server shared by all servers to offer their REST APIs.
+   * The servers bind their ports and register their handlers at it.
    *
-   * @throws ParseException If an exception occurred while parsing data like
-   *                        configuration files. Or when a problem with an
-   *                        external database occurred like passing invalid SQL
-   *                        or if a connection could not be established.
+   * @throws UncheckedIOException If an I/O exception occurred while opening the
+   *                              server
    */
-  private void initializeDatabase() throws ParseException {
-    mLogger.info("Initializing database");
-
-    if (mConfig.useExternalDb()) {
-      mDatabase = new ExternalDatabase(mConfig);
-    } else {
-      mDatabase = new MemoryDatabase();
+  private void initializeHttpServer() throws UncheckedIOException {
+    try {
+      mHttpServer = new HttpServer();
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
     }
-
-    mDatabase.initialize();
   }
 
   /**
@@ -345,6 +596,16 @@ public final class Application {
     mLogger = LoggerFactory.getLogger(Application.class);
   }
 
+  /**
+   * Initializes the map matching server and algorithms used to answer map
+   * matching requests.
+   */
+  private void initializeMapMatching() {
+    mLogger.info("Initializing map matching");
+    mMapMatchingServer = new MapMatchingServer(mConfig, mHttpServer, createMapMatcher(mRoutingModel), mDatabase);
+    mMapMatchingServer.initialize();
+  }
+
   /**
    * Initializes the name search server and algorithms used to answer name
    * search requests. Depending on the used algorithms this method may take a
@@ -352,7 +613,8 @@ public final class Application {
    */
   private void initializeNameSearch() {
     mLogger.info("Initializing name search");
-    mNameSearchServer = new NameSearchServer(mConfig, mDatabase);
+    mNameSearchServer = new NameSearchServer(mConfig, mHttpServer,
+        createNameSearchDatabase(mDatabase, mBundleNodeNames), createNameImportance(mDatabase, mRoutingModel));
     mNameSearchServer.initialize();
   }
 
@@ -363,10 +625,20 @@ public final class Application {
    */
   private void initializeNearestSearch() {
     mLogger.info("Initializing nearest search");
-    mNearestSearchServer = new NearestSearchServer(mConfig, mNearestNeighborComputation, mDatabase);
+    mNearestSearchServer = new NearestSearchServer(mConfig, mHttpServer, mRoutingModel.getRoadSnapping(), mDatabase);
     mNearestSearchServer.initialize();
   }
 
+  /**
+   * Initializes the reverse geocoding server and the index of named features
+   * used to answer reverse geocoding requests.
+   */
+  private void initializeReverseGeocoding() {
+    mLogger.info("Initializing reverse geocoding");
+    mReverseGeocodingServer = new ReverseGeocodingServer(mConfig, mHttpServer, createNamedFeatureIndex(mDatabase, mRoutingModel));
+    mReverseGeocodingServer.initialize();
+  }
+
   /**
    * Initializes the routing server and algorithms used to answer routing
    * requests. Depending on the size of the graph and the used algorithms this
@@ -378,10 +650,72 @@ public final class Application {
     final IGetNodeById<ICoreNode> nodeProvider = mRoutingModel.getNodeProvider();
     final ShortestPathComputationFactory computationFactory = mRoutingModel.createShortestPathComputationFactory();
 
-    mRoutingServer = new RoutingServer(mConfig, nodeProvider, computationFactory, mDatabase);
+    mRoutingServer = new RoutingServer(mConfig, mHttpServer, nodeProvider, computationFactory, mDatabase);
     mRoutingServer.initialize();
   }
 
+  /**
+   * Loads the routing model from the model bundle set in the configuration, if
+   * a valid bundle exists. A bundle which can not be loaded is ignored.
+   *
+   * @param database The database of the model, it is not part of the bundle
+   * @return The loaded model or empty if no valid bundle exists
+   */
+  private Optional<LoadedModel> loadModelFromBundle(final ADatabase database) {
+    final RoutingModel routingModel = new RoutingModel(database, mConfig);
+    final Optional<ModelBundle> bundle = ModelBundle.open(mConfig.getModelBundle(), routingModel.getMode());
+    if (!bundle.isPresent()) {
+      return Optional.empty();
+    }
+
+    try {
+      routingModel.loadFromBundle(bundle.get());
+      final List<NodeNameData> nodeNames =
+          NodeNameCache.map(bundle.get().getArtifact(EBundleArtifact.NAMES)).materialize();
+      return Optional.of(new LoadedModel(database, routingModel, nodeNames));
+    } catch (final ParseException | IOException e) {
+      mLogger.warn("Ignoring model bundle which could not be loaded", e);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Parses all data files using handlers for the database and, if desired, for
+   * the routing model.
+   *
+   * @param database     The database to read in the data
+   * @param routingModel The routing model to read in the data or <tt>null</tt>
+   *                     if only the database should read it
+   * @throws ParseException If an exception occurred while parsing data
+   */
+  private void parseData(final ADatabase database, final RoutingModel routingModel) throws ParseException {
+    // Prepare data parsing
+    final Collection<Path> paths = mCommandData.getPaths();
+    final DataParser dataParser;
+    if (paths.isEmpty()) {
+      // Use configuration file
+      dataParser = new DataParser(mConfig, null);
+    } else {
+      // Override settings with the given paths
+      dataParser = new DataParser(mConfig, paths);
+    }
+
+    // Add OSM handler
+    createOsmDatabaseHandler(database).forEach(dataParser::addOsmHandler);
+    if (routingModel != null) {
+      routingModel.createOsmHandler().forEach(dataParser::addOsmHandler);
+      // Add GTFS handler
+      routingModel.createGtfsHandler().forEach(dataParser::addGtfsHandler);
+    }
+
+    // Parse all data
+    final Instant parseStartTime = Instant.now();
+    dataParser.parseData();
+    final Instant parseEndTime = Instant.now();
+    mLogger.info("Parsing took: {}", Duration.between(parseStartTime, parseEndTime));
+    dataParser.clearHandler();
+  }
+
   /**
    * Starts the benchmark command.
    */
@@ -390,6 +724,34 @@ public final class Application {
     suite.start();
   }
 
+  /**
+   * Starts the precompute command. Writes the routing model, its landmarks and
+   * spatial index and the names of all nodes into the model bundle set in the
+   * configuration.
+   *
+   * @throws ParseException If an I/O exception occurred while writing the
+   *                        bundle
+   */
+  private void startPrecompute() throws ParseException {
+    if (mRoutingModel.getMode() != ERoutingModelMode.GRAPH_WITH_TIMETABLE) {
+      throw new IllegalStateException(
+          "Model bundles are only supported in mode " + ERoutingModelMode.GRAPH_WITH_TIMETABLE);
+    }
+    final Instant precomputeStartTime = Instant.now();
+    final ShortestPathComputationFactory computationFactory = mRoutingModel.createShortestPathComputationFactory();
+
+    try {
+      final ModelBundle bundle = ModelBundle.create(mConfig.getModelBundle(), mRoutingModel.getMode());
+      mRoutingModel.writeToBundle(bundle, computationFactory);
+      NodeNameCache.write(mDatabase.getAllNodeNameData(), bundle.getArtifact(EBundleArtifact.NAMES));
+      bundle.commit();
+    } catch (final IOException e) {
+      throw new ParseException(e);
+    }
+    final Instant precomputeEndTime = Instant.now();
+    mLogger.info("Precomputing bundle took: {}", Duration.between(precomputeStartTime, precomputeEndTime));
+  }
+
   /**
    * Starts the reducer command.
    */
@@ -415,4 +777,41 @@ public final class Application {
     mLogger.info("Parsing took: {}", Duration.between(parseStartTime, parseEndTime));
   }
 
+  /**
+   * A model built from the current data, consisting of the database, the
+   * routing model and the names loaded from a model bundle.
+   *
+   * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+   */
+  private static final class LoadedModel {
+    /**
+     * The names of all nodes loaded from a model bundle or <tt>null</tt> if the
+     * model was not loaded from a bundle.
+     */
+    private final List<NodeNameData> mBundleNodeNames;
+    /**
+     * The database storing the meta data of the model.
+     */
+    private final ADatabase mDatabase;
+    /**
+     * The model to use for routing.
+     */
+    private final RoutingModel mRoutingModel;
+
+    /**
+     * Creates a new model consisting of the given parts.
+     *
+     * @param database        The database storing the meta data of the model
+     * @param routingModel    The model to use for routing
+     * @param bundleNodeNames The names of all nodes loaded from a model bundle
+     *                        or <tt>null</tt> if the model was not loaded from
+     *                        a bundle
+     */
+    public LoadedModel(final ADatabase database, final RoutingModel routingModel,
+        final List<NodeNameData> bundleNodeNames) {
+      mDatabase = database;
+      mRoutingModel = routingModel;
+      mBundleNodeNames = bundleNodeNames;
+    }
+  }
 }
@@ -0,0 +1,71 @@
+package de.unifreiburg.informatik.cobweb;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Thread that, once started, watches for a trigger file and reloads the model
+ * of the given application whenever the file is created. The file is deleted
+ * before each reload. The thread stops once the application was requested to
+ * shutdown.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class ReloadWatcher extends Thread {
+  /**
+   * Logger used for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(ReloadWatcher.class);
+  /**
+   * The interval in which the trigger file is checked, in milliseconds.
+   */
+  private static final int POLL_INTERVAL = 2_000;
+  /**
+   * Application to reload on trigger.
+   */
+  private final Application mApplication;
+  /**
+   * The file whose creation triggers a reload.
+   */
+  private final Path mTrigger;
+
+  /**
+   * Creates a new reload watcher that will reload the given application
+   * whenever the given trigger file is created.
+   *
+   * @param application The application to reload on trigger
+   * @param trigger     The file whose creation triggers a reload
+   */
+  public ReloadWatcher(final Application application, final Path trigger) {
+    super("ReloadWatcher");
+    mApplication = application;
+    mTrigger = trigger;
+    setDaemon(true);
+  }
+
+  @Override
+  public void run() {
+    LOGGER.info("Watching for reload trigger: {}", mTrigger);
+    while (!mApplication.wasShutdownRequested()) {
+      try {
+        if (Files.deleteIfExists(mTrigger)) {
+          mApplication.reload();
+        }
+        Thread.sleep(POLL_INTERVAL);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (final IOException e) {
+        LOGGER.error("Unable to delete the reload trigger: {}", mTrigger, e);
+        return;
+      } catch (final Exception e) {
+        // Log every exception and try to stay alive
+        LOGGER.error("Unknown exception while reloading", e);
+      }
+    }
+  }
+}
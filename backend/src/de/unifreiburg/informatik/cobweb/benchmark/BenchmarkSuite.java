@@ -26,7 +26,7 @@ import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import de.unifreiburg.informatik.cobweb.routing.algorithms.metrics.AsTheCrowFliesMetric;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.metrics.PlanarMetric;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.CoverTree;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.IHasPathCost;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.IShortestPathComputation;
@@ -460,7 +460,7 @@ public final class BenchmarkSuite implements IQueryNodeProvider {
 
     writeLine("#Nearest neighbor, size " + mQueryNodes.length + ", averaged over " + NEAREST_NEIGHBOR_AVERAGING);
     writeLine("Size\tTime(ns)");
-    final CoverTree<ICoreNode> tree = new CoverTree<>(new AsTheCrowFliesMetric<>());
+    final CoverTree<ICoreNode> tree = new CoverTree<>(new PlanarMetric<>(mModel.getPlanarProjection()));
 
     // Insert first node
     List<ICoreNode> nodes = Arrays.asList(mQueryNodes);
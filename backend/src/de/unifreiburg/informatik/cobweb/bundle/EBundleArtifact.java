@@ -0,0 +1,57 @@
+package de.unifreiburg.informatik.cobweb.bundle;
+
+/**
+ * Enumeration of artifacts stored in a {@link ModelBundle}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public enum EBundleArtifact {
+  /**
+   * The road graph, stored as
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.cache.RoadGraphCache}.
+   */
+  GRAPH("graph.bin"),
+  /**
+   * The landmarks of the landmark heuristic, stored as
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.cache.LandmarkCache}.
+   */
+  LANDMARKS("landmarks.bin"),
+  /**
+   * The names of all nodes, stored as
+   * {@link de.unifreiburg.informatik.cobweb.searching.name.model.NodeNameCache}.
+   */
+  NAMES("names.bin"),
+  /**
+   * The spatial index used for nearest road node computation, stored as
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.cache.KdTreeCache}.
+   */
+  SPATIAL_INDEX("spatialIndex.bin"),
+  /**
+   * The timetable including the corrected footpath model, stored as
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.cache.TimetableCache}.
+   */
+  TIMETABLE("timetable.bin");
+
+  /**
+   * The name of the file of the artifact inside the bundle.
+   */
+  private final String mFileName;
+
+  /**
+   * Creates a new artifact with the given file name.
+   *
+   * @param fileName The name of the file of the artifact inside the bundle
+   */
+  private EBundleArtifact(final String fileName) {
+    mFileName = fileName;
+  }
+
+  /**
+   * Gets the name of the file of the artifact inside the bundle.
+   *
+   * @return The name of the file
+   */
+  public String getFileName() {
+    return mFileName;
+  }
+}
@@ -0,0 +1,208 @@
+package de.unifreiburg.informatik.cobweb.bundle;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Properties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.unifreiburg.informatik.cobweb.routing.model.ERoutingModelMode;
+
+/**
+ * A directory which contains all precomputed artifacts of the application,
+ * see {@link EBundleArtifact}, together with a manifest.<br>
+ * <br>
+ * The manifest stores the version of the bundle, the routing model mode it was
+ * computed for and the size of each artifact. It is written last by
+ * {@link #commit()}, a bundle without a valid manifest is thus never used.
+ * Artifacts themselves are checksummed binary files which verify their content
+ * when being mapped.<br>
+ * <br>
+ * Use {@link #create(Path, ERoutingModelMode)} to write a new bundle and
+ * {@link #open(Path, ERoutingModelMode)} to load an existing one.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class ModelBundle {
+  /**
+   * The name of the manifest file inside the bundle.
+   */
+  public static final String MANIFEST = "manifest.properties";
+  /**
+   * The current version of the bundle.
+   */
+  public static final int VERSION = 2;
+  /**
+   * Prefix of the manifest keys which store the size of an artifact.
+   */
+  private static final String KEY_ARTIFACT_PREFIX = "artifact.";
+  /**
+   * Manifest key of the time the bundle was created at.
+   */
+  private static final String KEY_CREATED = "created";
+  /**
+   * Manifest key of the routing model mode.
+   */
+  private static final String KEY_MODE = "mode";
+  /**
+   * Manifest key of the version.
+   */
+  private static final String KEY_VERSION = "version";
+  /**
+   * Logger to use for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(ModelBundle.class);
+
+  /**
+   * Creates a new bundle in the given directory. The directory is created if
+   * it does not exist yet, a manifest of a previous bundle is deleted.<br>
+   * <br>
+   * Write all artifacts to the paths given by
+   * {@link #getArtifact(EBundleArtifact)} and then use {@link #commit()}.
+   *
+   * @param directory The directory of the bundle
+   * @param mode      The routing model mode the bundle is computed for
+   * @return The created bundle
+   * @throws IOException If an I/O exception occurred while preparing the
+   *                     directory
+   */
+  public static ModelBundle create(final Path directory, final ERoutingModelMode mode) throws IOException {
+    Files.createDirectories(directory);
+    Files.deleteIfExists(directory.resolve(MANIFEST));
+    return new ModelBundle(directory, mode);
+  }
+
+  /**
+   * Opens the bundle in the given directory. The bundle is only opened if its
+   * manifest is of the current version, matches the given mode and lists all
+   * artifacts with their correct size.
+   *
+   * @param directory The directory of the bundle
+   * @param mode      The routing model mode the bundle must be computed for
+   * @return The opened bundle or an empty optional if the directory contains
+   *         no valid bundle
+   */
+  public static Optional<ModelBundle> open(final Path directory, final ERoutingModelMode mode) {
+    final Path manifestPath = directory.resolve(MANIFEST);
+    if (!Files.isRegularFile(manifestPath)) {
+      return Optional.empty();
+    }
+
+    final Properties manifest = new Properties();
+    try (BufferedReader reader = Files.newBufferedReader(manifestPath, StandardCharsets.UTF_8)) {
+      manifest.load(reader);
+    } catch (final IOException e) {
+      LOGGER.warn("Ignoring unreadable model bundle: {}", e.getMessage());
+      return Optional.empty();
+    }
+
+    if (!String.valueOf(VERSION).equals(manifest.getProperty(KEY_VERSION))) {
+      LOGGER.warn("Ignoring model bundle of version {}, expected {}", manifest.getProperty(KEY_VERSION), VERSION);
+      return Optional.empty();
+    }
+    if (!mode.name().equals(manifest.getProperty(KEY_MODE))) {
+      LOGGER.warn("Ignoring model bundle of mode {}, expected {}", manifest.getProperty(KEY_MODE), mode);
+      return Optional.empty();
+    }
+
+    final ModelBundle bundle = new ModelBundle(directory, mode);
+    for (final EBundleArtifact artifact : EBundleArtifact.values()) {
+      final String expectedSize = manifest.getProperty(KEY_ARTIFACT_PREFIX + artifact.name());
+      final Path artifactPath = bundle.getArtifact(artifact);
+      try {
+        if (expectedSize == null || !Files.isRegularFile(artifactPath)
+            || Long.parseLong(expectedSize) != Files.size(artifactPath)) {
+          LOGGER.warn("Ignoring model bundle with missing or modified artifact: {}", artifactPath);
+          return Optional.empty();
+        }
+      } catch (NumberFormatException | IOException e) {
+        LOGGER.warn("Ignoring model bundle with unreadable artifact: {}", artifactPath);
+        return Optional.empty();
+      }
+    }
+    return Optional.of(bundle);
+  }
+
+  /**
+   * The directory of the bundle.
+   */
+  private final Path mDirectory;
+  /**
+   * The routing model mode the bundle is computed for.
+   */
+  private final ERoutingModelMode mMode;
+
+  /**
+   * Creates a new bundle for the given directory.
+   *
+   * @param directory The directory of the bundle
+   * @param mode      The routing model mode the bundle is computed for
+   */
+  private ModelBundle(final Path directory, final ERoutingModelMode mode) {
+    mDirectory = directory;
+    mMode = mode;
+  }
+
+  /**
+   * Commits the bundle by writing its manifest. Must be called after all
+   * artifacts have been written. The manifest is first written to a temporary
+   * file and then moved to its destination such that a partially written
+   * manifest is never read.
+   *
+   * @throws IOException If an I/O exception occurred while writing or if an
+   *                     artifact is missing
+   */
+  public void commit() throws IOException {
+    final Properties manifest = new Properties();
+    manifest.setProperty(KEY_VERSION, String.valueOf(VERSION));
+    manifest.setProperty(KEY_MODE, mMode.name());
+    manifest.setProperty(KEY_CREATED, Instant.now().toString());
+    for (final EBundleArtifact artifact : EBundleArtifact.values()) {
+      manifest.setProperty(KEY_ARTIFACT_PREFIX + artifact.name(),
+          String.valueOf(Files.size(getArtifact(artifact))));
+    }
+
+    final Path manifestPath = mDirectory.resolve(MANIFEST);
+    final Path temporaryManifest = mDirectory.resolve(MANIFEST + ".tmp");
+    try (BufferedWriter writer = Files.newBufferedWriter(temporaryManifest, StandardCharsets.UTF_8)) {
+      manifest.store(writer, "Cobweb model bundle");
+    }
+    Files.move(temporaryManifest, manifestPath, StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  /**
+   * Gets the path of the given artifact inside the bundle.
+   *
+   * @param artifact The artifact to get the path of
+   * @return The path of the artifact
+   */
+  public Path getArtifact(final EBundleArtifact artifact) {
+    return mDirectory.resolve(artifact.getFileName());
+  }
+
+  /**
+   * Gets the directory of the bundle.
+   *
+   * @return The directory of the bundle
+   */
+  public Path getDirectory() {
+    return mDirectory;
+  }
+
+  /**
+   * Gets the routing model mode the bundle is computed for.
+   *
+   * @return The routing model mode
+   */
+  public ERoutingModelMode getMode() {
+    return mMode;
+  }
+}
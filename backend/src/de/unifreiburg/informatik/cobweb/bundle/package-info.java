@@ -0,0 +1,7 @@
+/**
+ * The package contains classes relevant for storing all precomputed artifacts
+ * of the application in a single, versioned model bundle.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+package de.unifreiburg.informatik.cobweb.bundle;
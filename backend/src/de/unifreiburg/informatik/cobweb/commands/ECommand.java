@@ -14,6 +14,11 @@ public enum ECommand {
    * Command which clears the database and all cached and serialized data.
    */
   CLEAN("clean"),
+  /**
+   * Command which parses all input data and precomputes all artifacts of the
+   * default service into a model bundle, without starting the service.
+   */
+  PRECOMPUTE("precompute"),
   /**
    * Command which reduces all input data such that the default service will run
    * faster.
@@ -20,7 +20,8 @@ import de.unifreiburg.informatik.cobweb.routing.model.ERoutingModelMode;
  * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
  */
 public final class ConfigStore implements IConfigProvider, IParseConfigProvider, IRoutingConfigProvider,
-    INameSearchConfigProvider, IDatabaseConfigProvider, INearestSearchConfigProvider {
+    INameSearchConfigProvider, IDatabaseConfigProvider, INearestSearchConfigProvider, IMapMatchingConfigProvider,
+    IReverseGeocodingConfigProvider {
   /**
    * The logger to use for logging.
    */
@@ -104,21 +105,81 @@ public final class ConfigStore implements IConfigProvider, IParseConfigProvider,
     return getSetting(ConfigUtil.KEY_JDBC_URL);
   }
 
+  @Override
+  public int getMapMatchingServerPort() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_MAP_MATCHING_SERVER_PORT));
+  }
+
+  @Override
+  public int getMapMatchingServerQueueLimit() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_MAP_MATCHING_SERVER_QUEUE_LIMIT));
+  }
+
+  @Override
+  public int getMapMatchingServerWorkers() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_MAP_MATCHING_SERVER_WORKERS));
+  }
+
   @Override
   public int getMatchLimit() {
     return Integer.valueOf(getSetting(ConfigUtil.KEY_NAME_SEARCH_SERVER_MATCH_LIMIT));
   }
 
+  @Override
+  public int getMaxResidentTiles() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_MAX_RESIDENT_TILES));
+  }
+
+  @Override
+  public Path getModelBundle() {
+    return Paths.get(getSetting(ConfigUtil.KEY_MODEL_BUNDLE));
+  }
+
+  @Override
+  public Path getNameSearchIndex() {
+    return Paths.get(getSetting(ConfigUtil.KEY_NAME_SEARCH_INDEX));
+  }
+
+  @Override
+  public int getNameSearchPrefixCacheSize() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_NAME_SEARCH_PREFIX_CACHE_SIZE));
+  }
+
   @Override
   public int getNameSearchServerPort() {
     return Integer.valueOf(getSetting(ConfigUtil.KEY_NAME_SEARCH_SERVER_PORT));
   }
 
+  @Override
+  public int getNameSearchServerQueueLimit() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_NAME_SEARCH_SERVER_QUEUE_LIMIT));
+  }
+
+  @Override
+  public int getNameSearchServerWorkers() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_NAME_SEARCH_SERVER_WORKERS));
+  }
+
+  @Override
+  public int getNameSearchSessionLimit() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_NAME_SEARCH_SESSION_LIMIT));
+  }
+
   @Override
   public int getNearestSearchServerPort() {
     return Integer.valueOf(getSetting(ConfigUtil.KEY_NEAREST_SEARCH_SERVER_PORT));
   }
 
+  @Override
+  public int getNearestSearchServerQueueLimit() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_NEAREST_SEARCH_SERVER_QUEUE_LIMIT));
+  }
+
+  @Override
+  public int getNearestSearchServerWorkers() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_NEAREST_SEARCH_SERVER_WORKERS));
+  }
+
   @Override
   public Path getOsmDirectory() {
     return Paths.get(getSetting(ConfigUtil.KEY_OSM_DIRECTORY));
@@ -129,6 +190,46 @@ public final class ConfigStore implements IConfigProvider, IParseConfigProvider,
     return Paths.get(getSetting(ConfigUtil.KEY_OSM_ROAD_FILTER));
   }
 
+  @Override
+  public Path getReloadTrigger() {
+    return Paths.get(getSetting(ConfigUtil.KEY_RELOAD_TRIGGER));
+  }
+
+  @Override
+  public double getReverseGeocodingMaxDistance() {
+    return Double.valueOf(getSetting(ConfigUtil.KEY_REVERSE_GEOCODING_MAX_DISTANCE));
+  }
+
+  @Override
+  public int getReverseGeocodingServerPort() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_REVERSE_GEOCODING_SERVER_PORT));
+  }
+
+  @Override
+  public int getReverseGeocodingServerQueueLimit() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_REVERSE_GEOCODING_SERVER_QUEUE_LIMIT));
+  }
+
+  @Override
+  public int getReverseGeocodingServerWorkers() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_REVERSE_GEOCODING_SERVER_WORKERS));
+  }
+
+  @Override
+  public int getRoutingCacheEdges() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_ROUTING_CACHE_EDGES));
+  }
+
+  @Override
+  public int getRoutingCacheSize() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_ROUTING_CACHE_SIZE));
+  }
+
+  @Override
+  public int getRoutingCacheTimeBucket() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_ROUTING_CACHE_TIME_BUCKET));
+  }
+
   @Override
   public ERoutingModelMode getRoutingModelMode() {
     return ERoutingModelMode.valueOf(getSetting(ConfigUtil.KEY_ROUTING_MODEL_MODE));
@@ -139,6 +240,21 @@ public final class ConfigStore implements IConfigProvider, IParseConfigProvider,
     return Integer.valueOf(getSetting(ConfigUtil.KEY_ROUTING_SERVER_PORT));
   }
 
+  @Override
+  public int getRoutingServerQueueLimit() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_ROUTING_SERVER_QUEUE_LIMIT));
+  }
+
+  @Override
+  public int getRoutingServerWorkers() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_ROUTING_SERVER_WORKERS));
+  }
+
+  @Override
+  public int getServerQueueTimeout() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_SERVER_QUEUE_TIMEOUT));
+  }
+
   @Override
   public String getSetting(final String key) {
     final String value = mSettings.get(key);
@@ -148,6 +264,26 @@ public final class ConfigStore implements IConfigProvider, IParseConfigProvider,
     return value;
   }
 
+  @Override
+  public Path getTiledGraph() {
+    return Paths.get(getSetting(ConfigUtil.KEY_TILED_GRAPH));
+  }
+
+  @Override
+  public double getTileSize() {
+    return Double.valueOf(getSetting(ConfigUtil.KEY_TILE_SIZE));
+  }
+
+  @Override
+  public Path getTimetableCache() {
+    return Paths.get(getSetting(ConfigUtil.KEY_TIMETABLE_CACHE));
+  }
+
+  @Override
+  public Path getTimetableCacheInfo() {
+    return Paths.get(getSetting(ConfigUtil.KEY_TIMETABLE_CACHE_INFO));
+  }
+
   @Override
   public int getTransferDelay() {
     return Integer.valueOf(getSetting(ConfigUtil.KEY_TRANSFER_DELAY));
@@ -176,6 +312,16 @@ public final class ConfigStore implements IConfigProvider, IParseConfigProvider,
     return Boolean.valueOf(getSetting(ConfigUtil.KEY_USE_GRAPH_CACHE));
   }
 
+  @Override
+  public boolean useNameCompletion() {
+    return Boolean.valueOf(getSetting(ConfigUtil.KEY_USE_NAME_COMPLETION));
+  }
+
+  @Override
+  public boolean useTiledGraph() {
+    return Boolean.valueOf(getSetting(ConfigUtil.KEY_USE_TILED_GRAPH));
+  }
+
   /**
    * Gets the default value stored for the given key or <tt>null</tt> if there
    * is no.
@@ -194,6 +340,9 @@ public final class ConfigStore implements IConfigProvider, IParseConfigProvider,
     if (LOGGER.isDebugEnabled()) {
       LOGGER.debug("Loading default settings");
     }
+    // Server settings
+    mDefaultSettings.put(ConfigUtil.KEY_SERVER_QUEUE_TIMEOUT, String.valueOf(ConfigUtil.VALUE_SERVER_QUEUE_TIMEOUT));
+
     // Database settings
     mDefaultSettings.put(ConfigUtil.KEY_JDBC_URL, ConfigUtil.VALUE_JDBC_URL);
     mDefaultSettings.put(ConfigUtil.KEY_INIT_DB_SCRIPT, ConfigUtil.VALUE_INIT_DB_SCRIPT.toString());
@@ -209,7 +358,23 @@ public final class ConfigStore implements IConfigProvider, IParseConfigProvider,
     mDefaultSettings.put(ConfigUtil.KEY_GRAPH_CACHE, ConfigUtil.VALUE_GRAPH_CACHE.toString());
     mDefaultSettings.put(ConfigUtil.KEY_USE_GRAPH_CACHE, String.valueOf(ConfigUtil.VALUE_USE_GRAPH_CACHE));
     mDefaultSettings.put(ConfigUtil.KEY_GRAPH_CACHE_INFO, ConfigUtil.VALUE_GRAPH_CACHE_INFO.toString());
+    mDefaultSettings.put(ConfigUtil.KEY_TIMETABLE_CACHE, ConfigUtil.VALUE_TIMETABLE_CACHE.toString());
+    mDefaultSettings.put(ConfigUtil.KEY_TIMETABLE_CACHE_INFO, ConfigUtil.VALUE_TIMETABLE_CACHE_INFO.toString());
+    mDefaultSettings.put(ConfigUtil.KEY_MODEL_BUNDLE, ConfigUtil.VALUE_MODEL_BUNDLE.toString());
+    mDefaultSettings.put(ConfigUtil.KEY_USE_TILED_GRAPH, String.valueOf(ConfigUtil.VALUE_USE_TILED_GRAPH));
+    mDefaultSettings.put(ConfigUtil.KEY_TILED_GRAPH, ConfigUtil.VALUE_TILED_GRAPH.toString());
+    mDefaultSettings.put(ConfigUtil.KEY_TILE_SIZE, String.valueOf(ConfigUtil.VALUE_TILE_SIZE));
+    mDefaultSettings.put(ConfigUtil.KEY_MAX_RESIDENT_TILES, String.valueOf(ConfigUtil.VALUE_MAX_RESIDENT_TILES));
+    mDefaultSettings.put(ConfigUtil.KEY_RELOAD_TRIGGER, ConfigUtil.VALUE_RELOAD_TRIGGER.toString());
     mDefaultSettings.put(ConfigUtil.KEY_ROUTING_SERVER_PORT, String.valueOf(ConfigUtil.VALUE_ROUTING_SERVER_PORT));
+    mDefaultSettings.put(ConfigUtil.KEY_ROUTING_SERVER_WORKERS,
+        String.valueOf(ConfigUtil.VALUE_ROUTING_SERVER_WORKERS));
+    mDefaultSettings.put(ConfigUtil.KEY_ROUTING_SERVER_QUEUE_LIMIT,
+        String.valueOf(ConfigUtil.VALUE_ROUTING_SERVER_QUEUE_LIMIT));
+    mDefaultSettings.put(ConfigUtil.KEY_ROUTING_CACHE_SIZE, String.valueOf(ConfigUtil.VALUE_ROUTING_CACHE_SIZE));
+    mDefaultSettings.put(ConfigUtil.KEY_ROUTING_CACHE_EDGES, String.valueOf(ConfigUtil.VALUE_ROUTING_CACHE_EDGES));
+    mDefaultSettings.put(ConfigUtil.KEY_ROUTING_CACHE_TIME_BUCKET,
+        String.valueOf(ConfigUtil.VALUE_ROUTING_CACHE_TIME_BUCKET));
     mDefaultSettings.put(ConfigUtil.KEY_OSM_ROAD_FILTER, ConfigUtil.VALUE_OSM_ROAD_FILTER.toString());
     mDefaultSettings.put(ConfigUtil.KEY_ROUTING_MODEL_MODE, ConfigUtil.VALUE_ROUTING_MODEL_MODE);
     mDefaultSettings.put(ConfigUtil.KEY_ACCESS_NODES_MAXIMUM, String.valueOf(ConfigUtil.VALUE_ACCESS_NODES_MAXIMUM));
@@ -222,12 +387,44 @@ public final class ConfigStore implements IConfigProvider, IParseConfigProvider,
     // Name search settings
     mDefaultSettings.put(ConfigUtil.KEY_NAME_SEARCH_SERVER_PORT,
         String.valueOf(ConfigUtil.VALUE_NAME_SEARCH_SERVER_PORT));
+    mDefaultSettings.put(ConfigUtil.KEY_NAME_SEARCH_SERVER_WORKERS,
+        String.valueOf(ConfigUtil.VALUE_NAME_SEARCH_SERVER_WORKERS));
+    mDefaultSettings.put(ConfigUtil.KEY_NAME_SEARCH_SERVER_QUEUE_LIMIT,
+        String.valueOf(ConfigUtil.VALUE_NAME_SEARCH_SERVER_QUEUE_LIMIT));
     mDefaultSettings.put(ConfigUtil.KEY_NAME_SEARCH_SERVER_MATCH_LIMIT,
         String.valueOf(ConfigUtil.VALUE_NAME_SEARCH_SERVER_MATCH_LIMIT));
+    mDefaultSettings.put(ConfigUtil.KEY_NAME_SEARCH_INDEX, ConfigUtil.VALUE_NAME_SEARCH_INDEX.toString());
+    mDefaultSettings.put(ConfigUtil.KEY_NAME_SEARCH_SESSION_LIMIT,
+        String.valueOf(ConfigUtil.VALUE_NAME_SEARCH_SESSION_LIMIT));
+    mDefaultSettings.put(ConfigUtil.KEY_NAME_SEARCH_PREFIX_CACHE_SIZE,
+        String.valueOf(ConfigUtil.VALUE_NAME_SEARCH_PREFIX_CACHE_SIZE));
+    mDefaultSettings.put(ConfigUtil.KEY_USE_NAME_COMPLETION, String.valueOf(ConfigUtil.VALUE_USE_NAME_COMPLETION));
 
     // Nearest search settings
     mDefaultSettings.put(ConfigUtil.KEY_NEAREST_SEARCH_SERVER_PORT,
         String.valueOf(ConfigUtil.VALUE_NEAREST_SEARCH_SERVER_PORT));
+    mDefaultSettings.put(ConfigUtil.KEY_NEAREST_SEARCH_SERVER_WORKERS,
+        String.valueOf(ConfigUtil.VALUE_NEAREST_SEARCH_SERVER_WORKERS));
+    mDefaultSettings.put(ConfigUtil.KEY_NEAREST_SEARCH_SERVER_QUEUE_LIMIT,
+        String.valueOf(ConfigUtil.VALUE_NEAREST_SEARCH_SERVER_QUEUE_LIMIT));
+
+    // Map matching settings
+    mDefaultSettings.put(ConfigUtil.KEY_MAP_MATCHING_SERVER_PORT,
+        String.valueOf(ConfigUtil.VALUE_MAP_MATCHING_SERVER_PORT));
+    mDefaultSettings.put(ConfigUtil.KEY_MAP_MATCHING_SERVER_WORKERS,
+        String.valueOf(ConfigUtil.VALUE_MAP_MATCHING_SERVER_WORKERS));
+    mDefaultSettings.put(ConfigUtil.KEY_MAP_MATCHING_SERVER_QUEUE_LIMIT,
+        String.valueOf(ConfigUtil.VALUE_MAP_MATCHING_SERVER_QUEUE_LIMIT));
+
+    // Reverse geocoding settings
+    mDefaultSettings.put(ConfigUtil.KEY_REVERSE_GEOCODING_SERVER_PORT,
+        String.valueOf(ConfigUtil.VALUE_REVERSE_GEOCODING_SERVER_PORT));
+    mDefaultSettings.put(ConfigUtil.KEY_REVERSE_GEOCODING_SERVER_WORKERS,
+        String.valueOf(ConfigUtil.VALUE_REVERSE_GEOCODING_SERVER_WORKERS));
+    mDefaultSettings.put(ConfigUtil.KEY_REVERSE_GEOCODING_SERVER_QUEUE_LIMIT,
+        String.valueOf(ConfigUtil.VALUE_REVERSE_GEOCODING_SERVER_QUEUE_LIMIT));
+    mDefaultSettings.put(ConfigUtil.KEY_REVERSE_GEOCODING_MAX_DISTANCE,
+        String.valueOf(ConfigUtil.VALUE_REVERSE_GEOCODING_MAX_DISTANCE));
   }
 
 }
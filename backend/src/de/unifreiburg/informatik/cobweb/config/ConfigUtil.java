@@ -62,6 +62,38 @@ final class ConfigUtil {
    * external database.
    */
   static final String KEY_JDBC_URL = "jdbcUrl";
+  /**
+   * Name of the key that stores the port the map matching server should use.
+   */
+  static final String KEY_MAP_MATCHING_SERVER_PORT = "mapMatchingServerPort";
+  /**
+   * Name of the key that stores the maximal amount of requests waiting for a
+   * worker of the map matching server.
+   */
+  static final String KEY_MAP_MATCHING_SERVER_QUEUE_LIMIT = "mapMatchingServerQueueLimit";
+  /**
+   * Name of the key that stores the amount of workers of the map matching
+   * server.
+   */
+  static final String KEY_MAP_MATCHING_SERVER_WORKERS = "mapMatchingServerWorkers";
+  /**
+   * Name of the key that stores the maximal amount of tiles of the tiled graph
+   * that are kept in memory at the same time.
+   */
+  static final String KEY_MAX_RESIDENT_TILES = "maxResidentTiles";
+  /**
+   * Name of the key that stores the path to the model bundle directory.
+   */
+  static final String KEY_MODEL_BUNDLE = "modelBundle";
+  /**
+   * Name of the key that stores the path to the persisted name search index.
+   */
+  static final String KEY_NAME_SEARCH_INDEX = "nameSearchIndex";
+  /**
+   * Name of the key that stores the maximal amount of prefixes the name search
+   * server caches the best matches of.
+   */
+  static final String KEY_NAME_SEARCH_PREFIX_CACHE_SIZE = "nameSearchPrefixCacheSize";
   /**
    * Name of the key that stores the maximal amount of matches the name search
    * server should send.
@@ -71,10 +103,35 @@ final class ConfigUtil {
    * Name of the key that stores the port the name search server should use.
    */
   static final String KEY_NAME_SEARCH_SERVER_PORT = "nameSearchServerPort";
+  /**
+   * Name of the key that stores the maximal amount of requests waiting for a
+   * worker of the name search server.
+   */
+  static final String KEY_NAME_SEARCH_SERVER_QUEUE_LIMIT = "nameSearchServerQueueLimit";
+  /**
+   * Name of the key that stores the amount of workers of the name search
+   * server.
+   */
+  static final String KEY_NAME_SEARCH_SERVER_WORKERS = "nameSearchServerWorkers";
+  /**
+   * Name of the key that stores the maximal amount of autocomplete sessions the
+   * name search server remembers.
+   */
+  static final String KEY_NAME_SEARCH_SESSION_LIMIT = "nameSearchSessionLimit";
   /**
    * Name of the key that stores the port the nearest search server should use.
    */
   static final String KEY_NEAREST_SEARCH_SERVER_PORT = "nearestSearchServerPort";
+  /**
+   * Name of the key that stores the maximal amount of requests waiting for a
+   * worker of the nearest search server.
+   */
+  static final String KEY_NEAREST_SEARCH_SERVER_QUEUE_LIMIT = "nearestSearchServerQueueLimit";
+  /**
+   * Name of the key that stores the amount of workers of the nearest search
+   * server.
+   */
+  static final String KEY_NEAREST_SEARCH_SERVER_WORKERS = "nearestSearchServerWorkers";
   /**
    * Name of the key that stores the path to the directory where all OSM input
    * data are stored.
@@ -85,6 +142,46 @@ final class ConfigUtil {
    * ways in OSM data.
    */
   static final String KEY_OSM_ROAD_FILTER = "osmRoadFilter";
+  /**
+   * Name of the key that stores the path to the file whose creation triggers a
+   * reload of the model.
+   */
+  static final String KEY_RELOAD_TRIGGER = "reloadTrigger";
+  /**
+   * Name of the key that stores the maximal distance of a named feature found
+   * by the reverse geocoding server, in metres.
+   */
+  static final String KEY_REVERSE_GEOCODING_MAX_DISTANCE = "reverseGeocodingMaxDistance";
+  /**
+   * Name of the key that stores the port the reverse geocoding server should
+   * use.
+   */
+  static final String KEY_REVERSE_GEOCODING_SERVER_PORT = "reverseGeocodingServerPort";
+  /**
+   * Name of the key that stores the maximal amount of requests waiting for a
+   * worker of the reverse geocoding server.
+   */
+  static final String KEY_REVERSE_GEOCODING_SERVER_QUEUE_LIMIT = "reverseGeocodingServerQueueLimit";
+  /**
+   * Name of the key that stores the amount of workers of the reverse geocoding
+   * server.
+   */
+  static final String KEY_REVERSE_GEOCODING_SERVER_WORKERS = "reverseGeocodingServerWorkers";
+  /**
+   * Name of the key that stores the maximal total amount of edges of the paths
+   * cached by the routing server.
+   */
+  static final String KEY_ROUTING_CACHE_EDGES = "routingCacheEdges";
+  /**
+   * Name of the key that stores the maximal amount of paths cached by the
+   * routing server.
+   */
+  static final String KEY_ROUTING_CACHE_SIZE = "routingCacheSize";
+  /**
+   * Name of the key that stores the width of the time buckets departure times
+   * of time-dependent routing requests are rounded down to, in seconds.
+   */
+  static final String KEY_ROUTING_CACHE_TIME_BUCKET = "routingCacheTimeBucket";
   /**
    * Name of the key that stores the mode to use for the routing model.
    */
@@ -93,6 +190,37 @@ final class ConfigUtil {
    * Name of the key that stores the port the routing server should use.
    */
   static final String KEY_ROUTING_SERVER_PORT = "routingServerPort";
+  /**
+   * Name of the key that stores the maximal amount of requests waiting for a
+   * worker of the routing server.
+   */
+  static final String KEY_ROUTING_SERVER_QUEUE_LIMIT = "routingServerQueueLimit";
+  /**
+   * Name of the key that stores the amount of workers of the routing server.
+   */
+  static final String KEY_ROUTING_SERVER_WORKERS = "routingServerWorkers";
+  /**
+   * Name of the key that stores the maximal time requests wait for a worker of
+   * a server before they are rejected, in milliseconds.
+   */
+  static final String KEY_SERVER_QUEUE_TIMEOUT = "serverQueueTimeout";
+  /**
+   * Name of the key that stores the path to the directory of the tiled graph.
+   */
+  static final String KEY_TILED_GRAPH = "tiledGraph";
+  /**
+   * Name of the key that stores the size of the tiles of the tiled graph, in
+   * degrees.
+   */
+  static final String KEY_TILE_SIZE = "tileSize";
+  /**
+   * Name of the key that stores the path to the timetable cache.
+   */
+  static final String KEY_TIMETABLE_CACHE = "timetableCache";
+  /**
+   * Name of the key that stores the path to the timetable cache info object.
+   */
+  static final String KEY_TIMETABLE_CACHE_INFO = "timetableCacheInfo";
   /**
    * Name of the key that stores the amount in seconds a transfer at the same
    * stop takes.
@@ -107,6 +235,16 @@ final class ConfigUtil {
    * Name of the key that stores whether or not the graph cache should be used.
    */
   static final String KEY_USE_GRAPH_CACHE = "useGraphCache";
+  /**
+   * Name of the key that stores whether or not the name search server should
+   * answer exact prefix completions ranked by importance first.
+   */
+  static final String KEY_USE_NAME_COMPLETION = "useNameCompletion";
+  /**
+   * Name of the key that stores whether or not the road graph should be routed
+   * on as tiled graph which is loaded on demand.
+   */
+  static final String KEY_USE_TILED_GRAPH = "useTiledGraph";
   /**
    * Default travel time in seconds after which to abort shortest path
    * computation to access nodes.
@@ -155,6 +293,36 @@ final class ConfigUtil {
    * Default JDBC URL to use when connecting to the external database.
    */
   static final String VALUE_JDBC_URL = "jdbc:sqlite:res/cache/db/routing.db";
+  /**
+   * Default port to use by the map matching server.
+   */
+  static final int VALUE_MAP_MATCHING_SERVER_PORT = 2848;
+  /**
+   * Default maximal amount of requests waiting for a worker of the map matching
+   * server.
+   */
+  static final int VALUE_MAP_MATCHING_SERVER_QUEUE_LIMIT = 16;
+  /**
+   * Default amount of workers of the map matching server.
+   */
+  static final int VALUE_MAP_MATCHING_SERVER_WORKERS = 2;
+  /**
+   * Default maximal amount of tiles of the tiled graph kept in memory.
+   */
+  static final int VALUE_MAX_RESIDENT_TILES = 64;
+  /**
+   * Default path to the model bundle directory.
+   */
+  static final Path VALUE_MODEL_BUNDLE = Paths.get("res", "cache", "bundle");
+  /**
+   * Default path to the persisted name search index.
+   */
+  static final Path VALUE_NAME_SEARCH_INDEX = Paths.get("res", "cache", "names", "nameIndex.bin");
+  /**
+   * Default maximal amount of prefixes the name search server caches the best
+   * matches of.
+   */
+  static final int VALUE_NAME_SEARCH_PREFIX_CACHE_SIZE = 256;
   /**
    * Default maximal amount of matches the name search server sends.
    */
@@ -163,10 +331,33 @@ final class ConfigUtil {
    * Default port to use by the name search server.
    */
   static final int VALUE_NAME_SEARCH_SERVER_PORT = 2846;
+  /**
+   * Default maximal amount of requests waiting for a worker of the name search
+   * server.
+   */
+  static final int VALUE_NAME_SEARCH_SERVER_QUEUE_LIMIT = 128;
+  /**
+   * Default amount of workers of the name search server.
+   */
+  static final int VALUE_NAME_SEARCH_SERVER_WORKERS = 2;
+  /**
+   * Default maximal amount of autocomplete sessions the name search server
+   * remembers.
+   */
+  static final int VALUE_NAME_SEARCH_SESSION_LIMIT = 1_000;
   /**
    * Default port to use by the nearest search server.
    */
   static final int VALUE_NEAREST_SEARCH_SERVER_PORT = 2847;
+  /**
+   * Default maximal amount of requests waiting for a worker of the nearest
+   * search server.
+   */
+  static final int VALUE_NEAREST_SEARCH_SERVER_QUEUE_LIMIT = 128;
+  /**
+   * Default amount of workers of the nearest search server.
+   */
+  static final int VALUE_NEAREST_SEARCH_SERVER_WORKERS = 2;
   /**
    * Default path to the directory that contains all OSM data.
    */
@@ -175,6 +366,42 @@ final class ConfigUtil {
    * Default path to the filter file used to filter road ways in OSM data.
    */
   static final Path VALUE_OSM_ROAD_FILTER = Paths.get("res", "filter", "osm", "road.filter");
+  /**
+   * Default path to the file whose creation triggers a reload of the model.
+   */
+  static final Path VALUE_RELOAD_TRIGGER = Paths.get("res", "reload");
+  /**
+   * Default maximal distance of a named feature found by the reverse geocoding
+   * server, in metres.
+   */
+  static final double VALUE_REVERSE_GEOCODING_MAX_DISTANCE = 250.0;
+  /**
+   * Default port to use by the reverse geocoding server.
+   */
+  static final int VALUE_REVERSE_GEOCODING_SERVER_PORT = 2849;
+  /**
+   * Default maximal amount of requests waiting for a worker of the reverse
+   * geocoding server.
+   */
+  static final int VALUE_REVERSE_GEOCODING_SERVER_QUEUE_LIMIT = 128;
+  /**
+   * Default amount of workers of the reverse geocoding server.
+   */
+  static final int VALUE_REVERSE_GEOCODING_SERVER_WORKERS = 2;
+  /**
+   * Default maximal total amount of edges of the paths cached by the routing
+   * server.
+   */
+  static final int VALUE_ROUTING_CACHE_EDGES = 2_000_000;
+  /**
+   * Default maximal amount of paths cached by the routing server.
+   */
+  static final int VALUE_ROUTING_CACHE_SIZE = 10_000;
+  /**
+   * Default width of the time buckets departure times of time-dependent
+   * routing requests are rounded down to, in seconds.
+   */
+  static final int VALUE_ROUTING_CACHE_TIME_BUCKET = 60;
   /**
    * The default mode to use for the routing model.
    */
@@ -183,6 +410,36 @@ final class ConfigUtil {
    * Default port to use by the routing server.
    */
   static final int VALUE_ROUTING_SERVER_PORT = 2845;
+  /**
+   * Default maximal amount of requests waiting for a worker of the routing
+   * server.
+   */
+  static final int VALUE_ROUTING_SERVER_QUEUE_LIMIT = 32;
+  /**
+   * Default amount of workers of the routing server.
+   */
+  static final int VALUE_ROUTING_SERVER_WORKERS = 4;
+  /**
+   * Default maximal time requests wait for a worker of a server before they
+   * are rejected, in milliseconds.
+   */
+  static final int VALUE_SERVER_QUEUE_TIMEOUT = 5_000;
+  /**
+   * Default path to the directory of the tiled graph.
+   */
+  static final Path VALUE_TILED_GRAPH = Paths.get("res", "cache", "tiles");
+  /**
+   * Default size of the tiles of the tiled graph, in degrees.
+   */
+  static final double VALUE_TILE_SIZE = 0.25;
+  /**
+   * Default path to the timetable cache.
+   */
+  static final Path VALUE_TIMETABLE_CACHE = Paths.get("res", "cache", "timetable", "timetableCache.bin");
+  /**
+   * Default path to the timetable cache info object.
+   */
+  static final Path VALUE_TIMETABLE_CACHE_INFO = Paths.get("res", "cache", "timetable", "timetableCache.info");
   /**
    * Default amount in seconds a transfer at the same stop takes.
    */
@@ -195,6 +452,15 @@ final class ConfigUtil {
    * Whether or not the graph cache should be used.
    */
   static final boolean VALUE_USE_GRAPH_CACHE = true;
+  /**
+   * Whether or not the name search server should answer exact prefix
+   * completions first.
+   */
+  static final boolean VALUE_USE_NAME_COMPLETION = true;
+  /**
+   * Whether or not the road graph should be routed on as tiled graph.
+   */
+  static final boolean VALUE_USE_TILED_GRAPH = false;
 
   /**
    * Utility class. No implementation.
@@ -0,0 +1,40 @@
+package de.unifreiburg.informatik.cobweb.config;
+
+/**
+ * Interface for classes that provide map matching related configuration
+ * settings.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public interface IMapMatchingConfigProvider {
+  /**
+   * Gets the port used by the map matching server.
+   *
+   * @return The port used by the map matching server
+   */
+  int getMapMatchingServerPort();
+
+  /**
+   * Gets the maximal amount of requests waiting for a worker of the map
+   * matching server. Further requests are rejected.
+   *
+   * @return The maximal amount of waiting requests
+   */
+  int getMapMatchingServerQueueLimit();
+
+  /**
+   * Gets the amount of workers of the map matching server, i.e. the maximal
+   * amount of requests handled at the same time.
+   *
+   * @return The amount of workers
+   */
+  int getMapMatchingServerWorkers();
+
+  /**
+   * Gets the maximal time requests wait for a worker of a server before they
+   * are rejected.
+   *
+   * @return The maximal time in milliseconds
+   */
+  int getServerQueueTimeout();
+}
@@ -1,5 +1,7 @@
 package de.unifreiburg.informatik.cobweb.config;
 
+import java.nio.file.Path;
+
 /**
  * Interface for classes that provide name search related configuration
  * settings.
@@ -15,10 +17,67 @@ public interface INameSearchConfigProvider {
    */
   int getMatchLimit();
 
+  /**
+   * Gets the path to the persisted index used by the name search server.
+   *
+   * @return The path to the name search index
+   */
+  Path getNameSearchIndex();
+
+  /**
+   * Gets the maximal amount of prefixes the name search server caches the best
+   * matches of.
+   *
+   * @return The maximal amount of cached prefixes
+   */
+  int getNameSearchPrefixCacheSize();
+
   /**
    * Gets the port used by the name search server.
    *
    * @return The port used by the name search server
    */
   int getNameSearchServerPort();
+
+  /**
+   * Gets the maximal amount of requests waiting for a worker of the name search
+   * server. Further requests are rejected.
+   *
+   * @return The maximal amount of waiting requests
+   */
+  int getNameSearchServerQueueLimit();
+
+  /**
+   * Gets the amount of workers of the name search server, i.e. the maximal
+   * amount of requests handled at the same time.
+   *
+   * @return The amount of workers
+   */
+  int getNameSearchServerWorkers();
+
+  /**
+   * Gets the maximal amount of autocomplete sessions the name search server
+   * remembers.
+   *
+   * @return The maximal amount of sessions
+   */
+  int getNameSearchSessionLimit();
+
+  /**
+   * Gets the maximal time requests wait for a worker of a server before they
+   * are rejected.
+   *
+   * @return The maximal time in milliseconds
+   */
+  int getServerQueueTimeout();
+
+  /**
+   * Whether or not the name search server should answer exact prefix
+   * completions, ranked by the importance of the named nodes, first. The fuzzy
+   * search is then only used if there are too few completions.
+   *
+   * @return <tt>True</tt> if exact prefix completions should be used,
+   *         <tt>false</tt> if only the fuzzy search should be used
+   */
+  boolean useNameCompletion();
 }
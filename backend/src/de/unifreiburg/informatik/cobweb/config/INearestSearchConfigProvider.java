@@ -13,4 +13,28 @@ public interface INearestSearchConfigProvider {
    * @return The port used by the nearest search server
    */
   int getNearestSearchServerPort();
+
+  /**
+   * Gets the maximal amount of requests waiting for a worker of the nearest
+   * search server. Further requests are rejected.
+   *
+   * @return The maximal amount of waiting requests
+   */
+  int getNearestSearchServerQueueLimit();
+
+  /**
+   * Gets the amount of workers of the nearest search server, i.e. the maximal
+   * amount of requests handled at the same time.
+   *
+   * @return The amount of workers
+   */
+  int getNearestSearchServerWorkers();
+
+  /**
+   * Gets the maximal time requests wait for a worker of a server before they
+   * are rejected.
+   *
+   * @return The maximal time in milliseconds
+   */
+  int getServerQueueTimeout();
 }
@@ -0,0 +1,48 @@
+package de.unifreiburg.informatik.cobweb.config;
+
+/**
+ * Interface for classes that provide reverse geocoding related configuration
+ * settings.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public interface IReverseGeocodingConfigProvider {
+  /**
+   * Gets the maximal distance between a requested location and the named
+   * feature found for it.
+   *
+   * @return The maximal distance, in <tt>metres</tt>
+   */
+  double getReverseGeocodingMaxDistance();
+
+  /**
+   * Gets the port used by the reverse geocoding server.
+   *
+   * @return The port used by the reverse geocoding server
+   */
+  int getReverseGeocodingServerPort();
+
+  /**
+   * Gets the maximal amount of requests waiting for a worker of the reverse
+   * geocoding server. Further requests are rejected.
+   *
+   * @return The maximal amount of waiting requests
+   */
+  int getReverseGeocodingServerQueueLimit();
+
+  /**
+   * Gets the amount of workers of the reverse geocoding server, i.e. the
+   * maximal amount of requests handled at the same time.
+   *
+   * @return The amount of workers
+   */
+  int getReverseGeocodingServerWorkers();
+
+  /**
+   * Gets the maximal time requests wait for a worker of a server before they
+   * are rejected.
+   *
+   * @return The maximal time in milliseconds
+   */
+  int getServerQueueTimeout();
+}
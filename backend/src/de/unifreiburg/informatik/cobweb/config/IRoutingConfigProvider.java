@@ -60,6 +60,23 @@ public interface IRoutingConfigProvider {
    */
   Path getGraphCacheInfo();
 
+  /**
+   * Gets the maximal amount of tiles of the tiled graph that are kept in memory
+   * at the same time, see {@link #useTiledGraph()}.
+   *
+   * @return The maximal amount of resident tiles
+   */
+  int getMaxResidentTiles();
+
+  /**
+   * Gets the path to the model bundle directory. The bundle is written by the
+   * precompute command and contains all artifacts of the routing model such
+   * that starting the service does not need to compute them again.
+   *
+   * @return The path to the model bundle directory
+   */
+  Path getModelBundle();
+
   /**
    * Gets the path to the filter used to filter OSM roads.
    *
@@ -67,6 +84,42 @@ public interface IRoutingConfigProvider {
    */
   Path getOsmRoadFilter();
 
+  /**
+   * Gets the path to the file whose creation triggers a reload of the model.
+   * The running service then builds the model again from the current data and
+   * swaps it into its servers without interrupting them. The file is deleted
+   * once the reload starts.
+   *
+   * @return The path to the reload trigger file
+   */
+  Path getReloadTrigger();
+
+  /**
+   * Gets the maximal total amount of edges of the paths cached by the routing
+   * server.
+   *
+   * @return The maximal amount of cached edges
+   */
+  int getRoutingCacheEdges();
+
+  /**
+   * Gets the maximal amount of paths cached by the routing server. If not
+   * positive, paths are not cached.
+   *
+   * @return The maximal amount of cached paths
+   */
+  int getRoutingCacheSize();
+
+  /**
+   * Gets the width of the time buckets the departure times of time-dependent
+   * routing requests are rounded down to. Requests departing in the same bucket
+   * share their cached path, as long as it does not depart before them.
+   *
+   * @return The width of the time buckets in seconds, not positive if
+   *         departure times must match exactly
+   */
+  int getRoutingCacheTimeBucket();
+
   /**
    * The mode to use for the routing model.
    *
@@ -81,6 +134,64 @@ public interface IRoutingConfigProvider {
    */
   int getRoutingServerPort();
 
+  /**
+   * Gets the maximal amount of requests waiting for a worker of the routing
+   * server. Further requests are rejected.
+   *
+   * @return The maximal amount of waiting requests
+   */
+  int getRoutingServerQueueLimit();
+
+  /**
+   * Gets the amount of workers of the routing server, i.e. the maximal amount
+   * of requests handled at the same time.
+   *
+   * @return The amount of workers
+   */
+  int getRoutingServerWorkers();
+
+  /**
+   * Gets the maximal time requests wait for a worker of a server before they
+   * are rejected.
+   *
+   * @return The maximal time in milliseconds
+   */
+  int getServerQueueTimeout();
+
+  /**
+   * Gets the path to the directory of the tiled graph, see
+   * {@link #useTiledGraph()}.
+   *
+   * @return The path to the directory of the tiled graph
+   */
+  Path getTiledGraph();
+
+  /**
+   * Gets the size of the tiles of the tiled graph in degrees, see
+   * {@link #useTiledGraph()}.
+   *
+   * @return The size of the tiles in degrees
+   */
+  double getTileSize();
+
+  /**
+   * Gets the path to the timetable cache. Is used to store and load a snapshot
+   * of the timetable if the graph cache is used, see {@link #useGraphCache()}.
+   *
+   * @return The path to the timetable cache
+   */
+  Path getTimetableCache();
+
+  /**
+   * Gets the path to the timetable cache info object that stores information
+   * about the content of the timetable cache. Can be used to determine which
+   * GTFS files need to be considered when parsing in order to avoid pushing the
+   * same data again.
+   *
+   * @return The path to the timetable cache info object
+   */
+  Path getTimetableCacheInfo();
+
   /**
    * Gets the amount in seconds a transfer at the same stop takes.
    *
@@ -95,4 +206,13 @@ public interface IRoutingConfigProvider {
    *         otherwise
    */
   boolean useGraphCache();
+
+  /**
+   * Whether or not the road graph should be partitioned into geographic tiles
+   * which are memory-mapped and loaded on demand when routing.
+   *
+   * @return <tt>True</tt> if the tiled graph should be used, <tt>false</tt>
+   *         otherwise
+   */
+  boolean useTiledGraph();
 }
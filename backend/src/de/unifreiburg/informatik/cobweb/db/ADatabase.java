@@ -13,7 +13,9 @@ import de.unifreiburg.informatik.cobweb.routing.parsing.osm.IdMapping;
  *
  * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
  */
-public abstract class ADatabase implements IRoutingDatabase, INameSearchDatabase, INearestSearchDatabase {
+public abstract class ADatabase
+    implements IRoutingDatabase, INameSearchDatabase, INearestSearchDatabase, IMapMatchingDatabase,
+    IReverseGeocodingDatabase {
   /*
    * (non-Javadoc)
    * @see
@@ -12,10 +12,33 @@ import java.sql.Types;
  */
 public final class DatabaseUtil {
   /**
-   * SQL query to fetch all node name data. This selects node IDs and names of
-   * entries that have a name.
+   * SQL query to fetch the names of all nodes that have an internal ID. This
+   * selects internal node IDs and names of entries that have a name.
    */
-  static final String QUERY_ALL_NODE_NAME_DATA = "SELECT id, name FROM osm_node_tags WHERE name IS NOT NULL";
+  static final String QUERY_ALL_INTERNAL_NODE_NAMES =
+      "SELECT osm_node_mappings.internal_id, osm_node_tags.name FROM osm_node_tags JOIN osm_node_mappings "
+          + "ON osm_node_tags.id = osm_node_mappings.osm_id WHERE osm_node_tags.name IS NOT NULL";
+  /**
+   * SQL query to fetch all named node data. This selects node IDs, names,
+   * latitudes and longitudes of entries that have a name.
+   */
+  static final String QUERY_ALL_NAMED_NODE_DATA =
+      "SELECT osm_node_tags.id, osm_node_tags.name, osm_nodes.latitude, osm_nodes.longitude FROM osm_node_tags "
+          + "JOIN osm_nodes ON osm_node_tags.id = osm_nodes.id WHERE osm_node_tags.name IS NOT NULL";
+  /**
+   * SQL query to fetch all node name data. This selects node IDs, names and, if
+   * known, latitudes and longitudes of entries that have a name.
+   */
+  static final String QUERY_ALL_NODE_NAME_DATA =
+      "SELECT osm_node_tags.id, osm_node_tags.name, osm_nodes.latitude, osm_nodes.longitude FROM osm_node_tags "
+          + "LEFT JOIN osm_nodes ON osm_node_tags.id = osm_nodes.id WHERE osm_node_tags.name IS NOT NULL";
+  /**
+   * SQL query to fetch all way name data. This selects internal way IDs, OSM way
+   * IDs and names of entries that have a name and an internal ID.
+   */
+  static final String QUERY_ALL_WAY_NAME_DATA =
+      "SELECT osm_way_mappings.internal_id, osm_way_tags.id, osm_way_tags.name FROM osm_way_tags "
+          + "JOIN osm_way_mappings ON osm_way_tags.id = osm_way_mappings.osm_id WHERE osm_way_tags.name IS NOT NULL";
   /**
    * Delimiter used in SQL insert statements to separate the data that is to be
    * inserted.
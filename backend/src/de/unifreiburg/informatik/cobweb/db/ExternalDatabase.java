@@ -8,6 +8,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -40,7 +41,11 @@ import de.unifreiburg.informatik.cobweb.routing.parsing.osm.IdMapping;
  * {@link #shutdown()} when finished using the it.<br>
  * <br>
  * Push data to the database by using {@link #offerOsmEntities(Iterable, int)}
- * and similar methods.
+ * and similar methods.<br>
+ * <br>
+ * Names of nodes are additionally kept in memory by their internal ID, see
+ * {@link #prepareNodeNames()}, since they are needed for every routing
+ * response and a query per node would be too slow.
  *
  * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
  */
@@ -153,6 +158,11 @@ public final class ExternalDatabase extends ADatabase {
    * The configuration provider.
    */
   private final IDatabaseConfigProvider mConfig;
+  /**
+   * The names of nodes by their internal ID, <tt>null</tt> for nodes without
+   * name. Is <tt>null</tt> if not prepared yet or outdated.
+   */
+  private volatile String[] mInternalToNodeName;
 
   /**
    * Creates a new external database object which uses the configuration given
@@ -167,6 +177,37 @@ public final class ExternalDatabase extends ADatabase {
     mConfig = config;
   }
 
+  /*
+   * (non-Javadoc)
+   * @see de.unifreiburg.informatik.cobweb.db.IReverseGeocodingDatabase#
+   * getAllNamedNodeData()
+   */
+  @Override
+  public Collection<NamedNodeData> getAllNamedNodeData() {
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Getting all named node data");
+    }
+    final List<NamedNodeData> nodeData = new ArrayList<>();
+    try (Connection connection = createConnection()) {
+      try (PreparedStatement statement = connection.prepareStatement(DatabaseUtil.QUERY_ALL_NAMED_NODE_DATA)) {
+        // Execute the statement and collect the result
+        try (ResultSet result = statement.executeQuery()) {
+          while (result.next()) {
+            final long id = result.getLong(1);
+            final String name = result.getString(2);
+            final float latitude = result.getFloat(3);
+            final float longitude = result.getFloat(4);
+            nodeData.add(new NamedNodeData(id, name, latitude, longitude));
+          }
+        }
+      }
+    } catch (final SQLException e) {
+      LOGGER.error("Error getting named node data, current result is {}", nodeData, e);
+    }
+
+    return nodeData;
+  }
+
   /*
    * (non-Javadoc)
    * @see
@@ -186,7 +227,16 @@ public final class ExternalDatabase extends ADatabase {
           while (result.next()) {
             final long id = result.getLong(1);
             final String name = result.getString(2);
-            nodeData.add(new NodeNameData(id, name));
+            // The position is unknown if the node is not contained in the table
+            float latitude = result.getFloat(3);
+            if (result.wasNull()) {
+              latitude = Float.NaN;
+            }
+            float longitude = result.getFloat(4);
+            if (result.wasNull()) {
+              longitude = Float.NaN;
+            }
+            nodeData.add(new NodeNameData(id, name, latitude, longitude));
           }
         }
       }
@@ -197,6 +247,37 @@ public final class ExternalDatabase extends ADatabase {
     return nodeData;
   }
 
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IReverseGeocodingDatabase#getAllWayNameData
+   * ()
+   */
+  @Override
+  public Collection<WayNameData> getAllWayNameData() {
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Getting all way name data");
+    }
+    final List<WayNameData> wayData = new ArrayList<>();
+    try (Connection connection = createConnection()) {
+      try (PreparedStatement statement = connection.prepareStatement(DatabaseUtil.QUERY_ALL_WAY_NAME_DATA)) {
+        // Execute the statement and collect the result
+        try (ResultSet result = statement.executeQuery()) {
+          while (result.next()) {
+            final int id = result.getInt(1);
+            final long osmId = result.getLong(2);
+            final String name = result.getString(3);
+            wayData.add(new WayNameData(id, osmId, name));
+          }
+        }
+      }
+    } catch (final SQLException e) {
+      LOGGER.error("Error getting way name data, current result is {}", wayData, e);
+    }
+
+    return wayData;
+  }
+
   /*
    * (non-Javadoc)
    * @see
@@ -341,6 +422,34 @@ public final class ExternalDatabase extends ADatabase {
     }
   }
 
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getNodeNamesByInternal(
+   * int[])
+   */
+  @Override
+  public String[] getNodeNamesByInternal(final int[] internalIds) {
+    String[] internalToNodeName = mInternalToNodeName;
+    if (internalToNodeName == null) {
+      prepareNodeNames();
+      internalToNodeName = mInternalToNodeName;
+    }
+
+    final String[] names = new String[internalIds.length];
+    if (internalToNodeName == null) {
+      // Preparing failed, it was logged already
+      return names;
+    }
+    for (int i = 0; i < internalIds.length; i++) {
+      final int internalId = internalIds[i];
+      if (internalId >= 0 && internalId < internalToNodeName.length) {
+        names[i] = internalToNodeName[internalId];
+      }
+    }
+    return names;
+  }
+
   /*
    * (non-Javadoc)
    * @see
@@ -512,6 +621,8 @@ public final class ExternalDatabase extends ADatabase {
     if (LOGGER.isDebugEnabled()) {
       LOGGER.debug("Offering {} ID mappings to the database", size);
     }
+    // Node names are resolved by internal IDs, which may change
+    mInternalToNodeName = null;
     try (Connection connection = createConnection()) {
       connection.setAutoCommit(false);
 
@@ -543,6 +654,7 @@ public final class ExternalDatabase extends ADatabase {
     if (LOGGER.isDebugEnabled()) {
       LOGGER.debug("Offering {} entities to the database", size);
     }
+    mInternalToNodeName = null;
     try (Connection connection = createConnection()) {
       connection.setAutoCommit(false);
 
@@ -567,6 +679,41 @@ public final class ExternalDatabase extends ADatabase {
     }
   }
 
+  /*
+   * (non-Javadoc)
+   * @see de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#prepareNodeNames()
+   */
+  @Override
+  public synchronized void prepareNodeNames() {
+    if (mInternalToNodeName != null) {
+      return;
+    }
+    LOGGER.info("Loading node names into memory");
+    String[] internalToNodeName = new String[0];
+    try (Connection connection = createConnection()) {
+      try (PreparedStatement statement = connection.prepareStatement(DatabaseUtil.QUERY_ALL_INTERNAL_NODE_NAMES)) {
+        // Execute the statement and collect the result
+        try (ResultSet result = statement.executeQuery()) {
+          while (result.next()) {
+            final int internalId = result.getInt(1);
+            if (internalId < 0) {
+              continue;
+            }
+            if (internalId >= internalToNodeName.length) {
+              internalToNodeName =
+                  Arrays.copyOf(internalToNodeName, Math.max(internalId + 1, 2 * internalToNodeName.length));
+            }
+            internalToNodeName[internalId] = result.getString(2);
+          }
+        }
+      }
+    } catch (final SQLException e) {
+      LOGGER.error("Error loading node names into memory", e);
+      return;
+    }
+    mInternalToNodeName = internalToNodeName;
+  }
+
   /*
    * (non-Javadoc)
    * @see de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#shutdown()
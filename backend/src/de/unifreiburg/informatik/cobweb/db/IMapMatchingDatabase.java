@@ -0,0 +1,19 @@
+package de.unifreiburg.informatik.cobweb.db;
+
+import java.util.Optional;
+
+/**
+ * Interface for databases that provide data relevant for map matching.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public interface IMapMatchingDatabase {
+  /**
+   * Attempts to get the unique OSM ID of a node by its internal ID.
+   *
+   * @param internalId The unique internal ID of the node
+   * @return The unique OSM ID of the node or empty if no node with that
+   *         internal ID could be found
+   */
+  Optional<Long> getOsmNodeByInternal(int internalId);
+}
@@ -0,0 +1,25 @@
+package de.unifreiburg.informatik.cobweb.db;
+
+import java.util.Collection;
+
+/**
+ * Interface for databases that provide data relevant for reverse geocoding.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public interface IReverseGeocodingDatabase {
+  /**
+   * Gets the data of all nodes that have a name, including their position.
+   *
+   * @return A collection of the data of all named nodes
+   */
+  Collection<NamedNodeData> getAllNamedNodeData();
+
+  /**
+   * Gets the data of all ways that have a name and are known to the routing
+   * model, i.e. that have an internal ID.
+   *
+   * @return A collection of the data of all named ways
+   */
+  Collection<WayNameData> getAllWayNameData();
+}
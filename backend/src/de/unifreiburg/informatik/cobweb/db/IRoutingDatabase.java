@@ -80,6 +80,17 @@ public interface IRoutingDatabase {
    */
   Optional<String> getNodeName(long id);
 
+  /**
+   * Gets the names of the nodes with the given internal IDs. All names are
+   * resolved at once, which is much cheaper than resolving them one by one
+   * using {@link #getOsmNodeByInternal(int)} and {@link #getNodeName(long)}.
+   *
+   * @param internalIds The unique internal IDs of the nodes
+   * @return The names of the nodes, at the same index as their ID. Contains
+   *         <tt>null</tt> for nodes without name.
+   */
+  String[] getNodeNamesByInternal(int[] internalIds);
+
   /**
    * Attempts to get the unique OSM ID of a node by its internal ID.
    *
@@ -205,6 +216,15 @@ public interface IRoutingDatabase {
    */
   void offerOsmEntities(Stream<OsmEntity> entities, int size);
 
+  /**
+   * Prepares the database for resolving names of nodes by their internal ID,
+   * see {@link #getNodeNamesByInternal(int[])}. Should be called after all
+   * data was offered and before requests are answered, such that the first
+   * requests do not have to wait for it. Data offered afterwards makes the
+   * preparation void.
+   */
+  void prepareNodeNames();
+
   /**
    * Shuts the database down. Call this method when finished using it. Once the
    * database was shutdown it should not be used anymore. Instead create a new
@@ -106,6 +106,23 @@ public class MemoryDatabase extends ADatabase {
     mOsmToWayId = LongIntMaps.mutable.empty();
   }
 
+  /*
+   * (non-Javadoc)
+   * @see de.unifreiburg.informatik.cobweb.db.IReverseGeocodingDatabase#
+   * getAllNamedNodeData()
+   */
+  @Override
+  public Collection<NamedNodeData> getAllNamedNodeData() {
+    final List<NamedNodeData> result = new ArrayList<>(mNodeToName.size());
+    mNodeToName.forEachKeyValue((id, name) -> {
+      final SpatialNodeData spatialData = mNodeToSpatialData.get(id);
+      if (spatialData != null) {
+        result.add(new NamedNodeData(id, name, spatialData.getLatitude(), spatialData.getLongitude()));
+      }
+    });
+    return result;
+  }
+
   /*
    * (non-Javadoc)
    * @see
@@ -114,7 +131,33 @@ public class MemoryDatabase extends ADatabase {
    */
   @Override
   public Collection<NodeNameData> getAllNodeNameData() {
-    return mNodeToName.keyValuesView().collect(entry -> new NodeNameData(entry.getOne(), entry.getTwo())).toList();
+    final List<NodeNameData> result = new ArrayList<>(mNodeToName.size());
+    mNodeToName.forEachKeyValue((id, name) -> {
+      final SpatialNodeData spatialData = mNodeToSpatialData.get(id);
+      if (spatialData == null) {
+        result.add(new NodeNameData(id, name));
+      } else {
+        result.add(new NodeNameData(id, name, spatialData.getLatitude(), spatialData.getLongitude()));
+      }
+    });
+    return result;
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IReverseGeocodingDatabase#getAllWayNameData
+   * ()
+   */
+  @Override
+  public Collection<WayNameData> getAllWayNameData() {
+    final List<WayNameData> result = new ArrayList<>(mWayToName.size());
+    mWayToName.forEachKeyValue((osmId, name) -> {
+      if (mOsmToWayId.containsKey(osmId)) {
+        result.add(new WayNameData(mOsmToWayId.get(osmId), osmId, name));
+      }
+    });
+    return result;
   }
 
   /*
@@ -184,6 +227,23 @@ public class MemoryDatabase extends ADatabase {
     return Optional.ofNullable(mNodeToName.get(id));
   }
 
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getNodeNamesByInternal(
+   * int[])
+   */
+  @Override
+  public String[] getNodeNamesByInternal(final int[] internalIds) {
+    final String[] names = new String[internalIds.length];
+    for (int i = 0; i < internalIds.length; i++) {
+      if (mInternalToNodeId.containsKey(internalIds[i])) {
+        names[i] = mNodeToName.get(mInternalToNodeId.get(internalIds[i]));
+      }
+    }
+    return names;
+  }
+
   /*
    * (non-Javadoc)
    * @see
@@ -309,6 +369,15 @@ public class MemoryDatabase extends ADatabase {
     });
   }
 
+  /*
+   * (non-Javadoc)
+   * @see de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#prepareNodeNames()
+   */
+  @Override
+  public void prepareNodeNames() {
+    // Do nothing, the names are in memory already
+  }
+
   /*
    * (non-Javadoc)
    * @see de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#shutdown()
@@ -0,0 +1,77 @@
+package de.unifreiburg.informatik.cobweb.db;
+
+/**
+ * POJO for named node data. Stores information about a node like its ID, name,
+ * latitude and longitude.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class NamedNodeData {
+  /**
+   * Unique OSM ID of the node.
+   */
+  private final long mId;
+  /**
+   * Latitude of the node.
+   */
+  private final float mLatitude;
+  /**
+   * Longitude of the node.
+   */
+  private final float mLongitude;
+  /**
+   * Name of the node.
+   */
+  private final String mName;
+
+  /**
+   * Creates a new named node data object with the given attributes.
+   *
+   * @param id        Unique OSM ID of the node
+   * @param name      Name of the node
+   * @param latitude  Latitude of the node
+   * @param longitude Longitude of the node
+   */
+  public NamedNodeData(final long id, final String name, final float latitude, final float longitude) {
+    mId = id;
+    mName = name;
+    mLatitude = latitude;
+    mLongitude = longitude;
+  }
+
+  /**
+   * Gets the unique OSM ID of the node.
+   *
+   * @return The node ID
+   */
+  public long getId() {
+    return mId;
+  }
+
+  /**
+   * Gets the latitude of the node.
+   *
+   * @return The latitude of the node
+   */
+  public float getLatitude() {
+    return mLatitude;
+  }
+
+  /**
+   * Gets the longitude of the node.
+   *
+   * @return The longitude of the node
+   */
+  public float getLongitude() {
+    return mLongitude;
+  }
+
+  /**
+   * Gets the name of the node.
+   *
+   * @return The name of the node
+   */
+  public String getName() {
+    return mName;
+  }
+}
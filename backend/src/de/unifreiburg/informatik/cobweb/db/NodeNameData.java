@@ -1,8 +1,8 @@
 package de.unifreiburg.informatik.cobweb.db;
 
 /**
- * POJO for node name data. Stores information about a node like its ID and
- * name.
+ * POJO for node name data. Stores information about a node like its ID, name
+ * and, if known, its position.
  *
  * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
  */
@@ -11,20 +11,43 @@ public final class NodeNameData {
    * Unique OSM ID of the node.
    */
   private final long mId;
+  /**
+   * Latitude of the node or {@link Float#NaN} if unknown.
+   */
+  private final float mLatitude;
+  /**
+   * Longitude of the node or {@link Float#NaN} if unknown.
+   */
+  private final float mLongitude;
   /**
    * Name of the node.
    */
   private final String mName;
 
   /**
-   * Creates a new node name data object with the given attributes.
+   * Creates a new node name data object with the given attributes. The
+   * position of the node is unknown.
    *
    * @param id   Unique OSM ID of the node
    * @param name Name of the node
    */
   public NodeNameData(final long id, final String name) {
+    this(id, name, Float.NaN, Float.NaN);
+  }
+
+  /**
+   * Creates a new node name data object with the given attributes.
+   *
+   * @param id        Unique OSM ID of the node
+   * @param name      Name of the node
+   * @param latitude  Latitude of the node or {@link Float#NaN} if unknown
+   * @param longitude Longitude of the node or {@link Float#NaN} if unknown
+   */
+  public NodeNameData(final long id, final String name, final float latitude, final float longitude) {
     mId = id;
     mName = name;
+    mLatitude = latitude;
+    mLongitude = longitude;
   }
 
   /**
@@ -36,6 +59,24 @@ public final class NodeNameData {
     return mId;
   }
 
+  /**
+   * Gets the latitude of the node.
+   *
+   * @return The latitude of the node or {@link Float#NaN} if unknown
+   */
+  public float getLatitude() {
+    return mLatitude;
+  }
+
+  /**
+   * Gets the longitude of the node.
+   *
+   * @return The longitude of the node or {@link Float#NaN} if unknown
+   */
+  public float getLongitude() {
+    return mLongitude;
+  }
+
   /**
    * Gets the name of the node.
    *
@@ -0,0 +1,62 @@
+package de.unifreiburg.informatik.cobweb.db;
+
+/**
+ * POJO for way name data. Stores information about a way like its internal ID,
+ * OSM ID and name.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class WayNameData {
+  /**
+   * Unique ID of the way used by the graph.
+   */
+  private final int mId;
+  /**
+   * Unique OSM ID of the way.
+   */
+  private final long mIdOsm;
+  /**
+   * Name of the way.
+   */
+  private final String mName;
+
+  /**
+   * Creates a new way name data object with the given attributes.
+   *
+   * @param id    Unique ID of the way used by the graph
+   * @param idOsm Unique OSM ID of the way
+   * @param name  Name of the way
+   */
+  public WayNameData(final int id, final long idOsm, final String name) {
+    mId = id;
+    mIdOsm = idOsm;
+    mName = name;
+  }
+
+  /**
+   * Gets the unique ID of the way used by the graph.
+   *
+   * @return The way ID
+   */
+  public int getId() {
+    return mId;
+  }
+
+  /**
+   * Gets the name of the way.
+   *
+   * @return The name of the way
+   */
+  public String getName() {
+    return mName;
+  }
+
+  /**
+   * Gets the unique OSM ID of the way.
+   *
+   * @return The way ID
+   */
+  public long getOsmId() {
+    return mIdOsm;
+  }
+}
@@ -0,0 +1,109 @@
+package de.unifreiburg.informatik.cobweb.routing.algorithms.matching;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.EdgePath;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.EdgeCost;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.IEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.INode;
+
+/**
+ * Emits the edges of decided sequences of {@link MatchState}s to a consumer,
+ * used by {@link HmmMapMatcher} to stream the matched edges.<br>
+ * <br>
+ * Every state is emitted at most once, consecutive occurrences of the same
+ * edge are emitted only once. The edge of a state which starts a sequence is
+ * held back until the sequence is finished, since the path of the next state
+ * already starts with it or, if the position was ambiguous, with its reversed
+ * edge. The class is not thread-safe, each trace uses its own instance.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ * @param <N> Type of the node
+ * @param <E> Type of the edge
+ */
+final class EdgeEmitter<N extends INode, E extends IEdge<N>> {
+  /**
+   * The consumer to emit the edges to.
+   */
+  private final Consumer<? super E> mConsumer;
+  /**
+   * The last emitted edge or <tt>null</tt> if no edge was emitted yet.
+   */
+  private E mLastEdge;
+  /**
+   * The edge of the state which started the current sequence, if no path
+   * followed it yet, or <tt>null</tt>.
+   */
+  private E mPendingEdge;
+
+  /**
+   * Creates a new emitter which emits to the given consumer.
+   *
+   * @param consumer The consumer to emit the edges to
+   */
+  EdgeEmitter(final Consumer<? super E> consumer) {
+    mConsumer = consumer;
+  }
+
+  /**
+   * Emits the edges of the sequence ending in the given state, starting after
+   * the last already emitted state of the sequence.
+   *
+   * @param state The last state of the sequence to emit
+   */
+  void emit(final MatchState<N, E> state) {
+    // Collect the states which were not emitted yet, in reverse order
+    final List<MatchState<N, E>> states = new ArrayList<>();
+    MatchState<N, E> currentState = state;
+    while (currentState != null && !currentState.isEmitted()) {
+      states.add(currentState);
+      currentState = currentState.getParent();
+    }
+
+    for (int i = states.size() - 1; i >= 0; i--) {
+      final MatchState<N, E> stateToEmit = states.get(i);
+      final EdgePath<N, E> path = stateToEmit.getPath();
+      if (path == null) {
+        // The state starts a sequence
+        mPendingEdge = stateToEmit.getPosition().getEdge();
+      } else {
+        mPendingEdge = null;
+        for (final EdgeCost<N, E> edgeCost : path) {
+          accept(edgeCost.getEdge());
+        }
+      }
+      stateToEmit.setEmitted();
+    }
+  }
+
+  /**
+   * Emits the sequence ending in the given state, like
+   * {@link #emit(MatchState)}, and finishes it. Must be called at the end of
+   * every sequence.
+   *
+   * @param state The last state of the sequence
+   */
+  void finish(final MatchState<N, E> state) {
+    emit(state);
+    // The sequence consists of a single state only
+    if (mPendingEdge != null) {
+      accept(mPendingEdge);
+      mPendingEdge = null;
+    }
+  }
+
+  /**
+   * Emits the given edge, unless it was the last emitted edge.
+   *
+   * @param edge The edge to emit
+   */
+  private void accept(final E edge) {
+    if (edge.equals(mLastEdge)) {
+      return;
+    }
+    mLastEdge = edge;
+    mConsumer.accept(edge);
+  }
+}
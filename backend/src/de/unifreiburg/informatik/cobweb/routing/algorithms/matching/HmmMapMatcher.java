@@ -0,0 +1,240 @@
+package de.unifreiburg.informatik.cobweb.routing.algorithms.matching;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.SegmentIndex;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.EdgePosition;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.IEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.IGraph;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.INode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ISpatial;
+import de.unifreiburg.informatik.cobweb.util.RoutingUtil;
+
+/**
+ * Matches traces of recorded positions, like GPS traces, onto the edges of a
+ * graph using a hidden Markov model.<br>
+ * <br>
+ * The states of the model are the positions on edges near a measurement, as
+ * found by the given {@link SegmentIndex}. The emission probability of a state
+ * decreases with the distance of the measurement to the position, the
+ * transition probability with the difference between the length of the
+ * shortest path between two states and the distance between their
+ * measurements. The most likely sequence of states is computed using the
+ * Viterbi algorithm.<br>
+ * <br>
+ * The matched edges are streamed to a consumer as soon as they are decided,
+ * that is when the most likely sequences of all current states share them. If
+ * the model breaks, since no state of a measurement is reachable from the
+ * states of the previous measurement, the most likely sequence so far is
+ * finished and a new one is started. Measurements without any nearby edge
+ * are skipped. The class is thread-safe, multiple traces can be matched
+ * concurrently.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ * @param <N> Type of the node which must offer spatial data
+ * @param <E> Type of the edge
+ */
+public final class HmmMapMatcher<N extends INode & ISpatial, E extends IEdge<N>> {
+  /**
+   * The maximal amount of candidate positions for a measurement.
+   */
+  private static final int MAX_CANDIDATES = 8;
+  /**
+   * The factor by which a transition may be longer than the distance between
+   * the measurements.
+   */
+  private static final double MAX_DETOUR_FACTOR = 2.0;
+  /**
+   * The length, in <tt>metres</tt>, by which a transition may be longer than
+   * the distance between the measurements, in addition to the factor. Covers
+   * candidates which lie on the other side of the measurement.
+   */
+  private static final double MAX_DETOUR_SLACK = 100.0;
+  /**
+   * The standard deviation of the measurement noise, in <tt>metres</tt>.
+   */
+  private static final double MEASUREMENT_SIGMA = 10.0;
+  /**
+   * The maximal distance of candidate positions to a measurement, in
+   * <tt>metres</tt>.
+   */
+  private static final double SEARCH_RADIUS = 50.0;
+  /**
+   * The scale of the exponential distribution of the difference between the
+   * length of a transition and the distance between the measurements, in
+   * <tt>metres</tt>.
+   */
+  private static final double TRANSITION_BETA = 3.0;
+
+  /**
+   * Gets the latest state which is part of the most likely sequences of all
+   * given states, if it was not emitted yet.
+   *
+   * @param <N>    Type of the node
+   * @param <E>    Type of the edge
+   * @param states The states of the current measurement, not empty
+   * @return The latest common state or empty if there is none or it was
+   *         already emitted
+   */
+  private static <N extends INode, E extends IEdge<N>> Optional<MatchState<N, E>> getCommonAncestor(
+      final List<MatchState<N, E>> states) {
+    // Follow all sequences backwards in lockstep until they meet
+    List<MatchState<N, E>> currentStates = states;
+    while (true) {
+      final MatchState<N, E> firstState = currentStates.get(0);
+      if (firstState.isEmitted()) {
+        return Optional.empty();
+      }
+      if (currentStates.stream().allMatch(state -> state == firstState)) {
+        return Optional.of(firstState);
+      }
+
+      final List<MatchState<N, E>> parents = new ArrayList<>(currentStates.size());
+      for (final MatchState<N, E> state : currentStates) {
+        final MatchState<N, E> parent = state.getParent();
+        // The sequences start at different states or meet at an emitted state
+        if (parent == null) {
+          return Optional.empty();
+        }
+        if (!parents.contains(parent)) {
+          parents.add(parent);
+        }
+      }
+      currentStates = parents;
+    }
+  }
+
+  /**
+   * Gets the state with the most likely sequence ending in it.
+   *
+   * @param <N>    Type of the node
+   * @param <E>    Type of the edge
+   * @param states The states to choose from, not empty
+   * @return The most likely state
+   */
+  private static <N extends INode, E extends IEdge<N>> MatchState<N, E> getMostLikely(
+      final List<MatchState<N, E>> states) {
+    return Collections.max(states, Comparator.comparingDouble(MatchState::getScore));
+  }
+
+  /**
+   * The graph to match onto.
+   */
+  private final IGraph<N, E> mGraph;
+  /**
+   * The index of the edges of the graph used to find candidate positions.
+   */
+  private final SegmentIndex<N, E> mSegmentIndex;
+
+  /**
+   * Creates a new map matcher which matches onto the given graph.
+   *
+   * @param graph        The graph to match onto
+   * @param segmentIndex The index of the edges of the graph, used to find
+   *                     candidate positions for measurements
+   */
+  public HmmMapMatcher(final IGraph<N, E> graph, final SegmentIndex<N, E> segmentIndex) {
+    mGraph = graph;
+    mSegmentIndex = segmentIndex;
+  }
+
+  /**
+   * Matches the given trace onto the graph. The matched edges are given to the
+   * consumer in order of traversal, as soon as they are decided. The same edge
+   * is not given multiple times in a row.
+   *
+   * @param trace        The measurements of the trace in order, as pairs of
+   *                     latitude and longitude
+   * @param edgeConsumer The consumer to give the matched edges to
+   */
+  public void match(final List<float[]> trace, final Consumer<? super E> edgeConsumer) {
+    // The scratch space of the router is reused for all transitions of the
+    // trace
+    final TransitionRouter<N, E> router = new TransitionRouter<>(mGraph);
+    final EdgeEmitter<N, E> emitter = new EdgeEmitter<>(edgeConsumer);
+
+    List<MatchState<N, E>> states = Collections.emptyList();
+    float[] previousMeasurement = null;
+    for (final float[] measurement : trace) {
+      List<MatchState<N, E>> nextStates = createStates(measurement);
+      if (nextStates.isEmpty()) {
+        // Outlier which is too far away from any edge
+        continue;
+      }
+
+      if (!states.isEmpty()) {
+        computeTransitions(router, states, previousMeasurement, measurement, nextStates);
+        final List<MatchState<N, E>> reachedStates =
+            nextStates.stream().filter(state -> state.getParent() != null).collect(Collectors.toList());
+        if (reachedStates.isEmpty()) {
+          // The model breaks, finish the current sequence and start a new one
+          emitter.finish(HmmMapMatcher.getMostLikely(states));
+        } else {
+          nextStates = reachedStates;
+        }
+      }
+
+      states = nextStates;
+      previousMeasurement = measurement;
+      HmmMapMatcher.getCommonAncestor(states).ifPresent(emitter::emit);
+    }
+
+    if (!states.isEmpty()) {
+      emitter.finish(HmmMapMatcher.getMostLikely(states));
+    }
+  }
+
+  /**
+   * Offers the states of the previous measurement as predecessors to the
+   * states of the next measurement.
+   *
+   * @param router              The router to compute the transitions with
+   * @param states              The states of the previous measurement
+   * @param previousMeasurement The previous measurement
+   * @param nextMeasurement     The next measurement
+   * @param nextStates          The states of the next measurement
+   */
+  private void computeTransitions(final TransitionRouter<N, E> router, final List<MatchState<N, E>> states,
+      final float[] previousMeasurement, final float[] nextMeasurement, final List<MatchState<N, E>> nextStates) {
+    final double distance = RoutingUtil.distanceEquiRect(previousMeasurement[0], previousMeasurement[1],
+        nextMeasurement[0], nextMeasurement[1]);
+    final double bound = distance * HmmMapMatcher.MAX_DETOUR_FACTOR + HmmMapMatcher.MAX_DETOUR_SLACK;
+
+    // One bounded search per previous state answers the paths to all next
+    // states
+    for (final MatchState<N, E> state : states) {
+      router.computeDistances(state.getPosition(), bound);
+      for (final MatchState<N, E> nextState : nextStates) {
+        router.getPath(nextState.getPosition()).ifPresent(path -> {
+          final double transition = -Math.abs(path.getTotalCost() - distance) / HmmMapMatcher.TRANSITION_BETA;
+          nextState.offerParent(state, path, transition);
+        });
+      }
+    }
+  }
+
+  /**
+   * Creates the states for the candidate positions of the given measurement.
+   *
+   * @param measurement The measurement as pair of latitude and longitude
+   * @return The states, empty if there is no edge near the measurement
+   */
+  private List<MatchState<N, E>> createStates(final float[] measurement) {
+    final List<EdgePosition<N, E>> positions = mSegmentIndex.getNearestEdges(measurement[0], measurement[1],
+        HmmMapMatcher.MAX_CANDIDATES, HmmMapMatcher.SEARCH_RADIUS);
+    final List<MatchState<N, E>> states = new ArrayList<>(positions.size());
+    for (final EdgePosition<N, E> position : positions) {
+      final double distance = RoutingUtil.distanceEquiRect(measurement[0], measurement[1], position.getLatitude(),
+          position.getLongitude());
+      final double normalizedDistance = distance / HmmMapMatcher.MEASUREMENT_SIGMA;
+      states.add(new MatchState<>(position, -0.5 * normalizedDistance * normalizedDistance));
+    }
+    return states;
+  }
+}
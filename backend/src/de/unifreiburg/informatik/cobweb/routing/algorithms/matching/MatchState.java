@@ -0,0 +1,141 @@
+package de.unifreiburg.informatik.cobweb.routing.algorithms.matching;
+
+import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.EdgePath;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.EdgePosition;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.IEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.INode;
+
+/**
+ * State of the hidden Markov model used by {@link HmmMapMatcher}. A state is a
+ * candidate position for a measurement of the trace, together with the score
+ * of the most likely sequence of states ending in it.<br>
+ * <br>
+ * States point to their predecessor in the most likely sequence and hold the
+ * path from it. Thus, the states of a trace form a tree whose branches are
+ * released once they are not the most likely sequence of any state anymore.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ * @param <N> Type of the node
+ * @param <E> Type of the edge
+ */
+final class MatchState<N extends INode, E extends IEdge<N>> {
+  /**
+   * The logarithmic probability of the measurement given the position.
+   */
+  private final double mEmission;
+  /**
+   * Whether the edges of the state were already emitted.
+   */
+  private boolean mIsEmitted;
+  /**
+   * The predecessor in the most likely sequence or <tt>null</tt> if the state
+   * starts a sequence.
+   */
+  private MatchState<N, E> mParent;
+  /**
+   * The path from the position of the predecessor to the position of this
+   * state or <tt>null</tt> if the state starts a sequence.
+   */
+  private EdgePath<N, E> mPath;
+  /**
+   * The candidate position of the measurement.
+   */
+  private final EdgePosition<N, E> mPosition;
+  /**
+   * The logarithmic probability of the most likely sequence ending in this
+   * state.
+   */
+  private double mScore;
+
+  /**
+   * Creates a new state which starts a sequence.
+   *
+   * @param position The candidate position of the measurement
+   * @param emission The logarithmic probability of the measurement given the
+   *                 position
+   */
+  MatchState(final EdgePosition<N, E> position, final double emission) {
+    mPosition = position;
+    mEmission = emission;
+    mScore = emission;
+  }
+
+  /**
+   * Gets the predecessor in the most likely sequence.
+   *
+   * @return The predecessor or <tt>null</tt> if the state starts a sequence or
+   *         was already emitted
+   */
+  MatchState<N, E> getParent() {
+    return mParent;
+  }
+
+  /**
+   * Gets the path from the position of the predecessor to the position of
+   * this state.
+   *
+   * @return The path or <tt>null</tt> if the state starts a sequence
+   */
+  EdgePath<N, E> getPath() {
+    return mPath;
+  }
+
+  /**
+   * Gets the candidate position of the measurement.
+   *
+   * @return The candidate position
+   */
+  EdgePosition<N, E> getPosition() {
+    return mPosition;
+  }
+
+  /**
+   * Gets the logarithmic probability of the most likely sequence ending in
+   * this state.
+   *
+   * @return The logarithmic probability
+   */
+  double getScore() {
+    return mScore;
+  }
+
+  /**
+   * Whether the edges of the state were already emitted.
+   *
+   * @return <tt>True</tt> if the edges were emitted, <tt>false</tt> otherwise
+   */
+  boolean isEmitted() {
+    return mIsEmitted;
+  }
+
+  /**
+   * Offers the given predecessor. It is accepted if the resulting sequence is
+   * more likely than the current one.
+   *
+   * @param parent     The predecessor to offer
+   * @param path       The path from the position of the predecessor to the
+   *                   position of this state
+   * @param transition The logarithmic probability of the transition from the
+   *                   predecessor to this state
+   */
+  void offerParent(final MatchState<N, E> parent, final EdgePath<N, E> path, final double transition) {
+    final double score = parent.getScore() + transition + mEmission;
+    if (mParent != null && score <= mScore) {
+      return;
+    }
+    mParent = parent;
+    mPath = path;
+    mScore = score;
+  }
+
+  /**
+   * Marks the edges of the state as emitted. The predecessor and the path from
+   * it are not needed anymore afterwards and released, such that the states
+   * of the emitted part of the trace can be garbage collected.
+   */
+  void setEmitted() {
+    mIsEmitted = true;
+    mParent = null;
+    mPath = null;
+  }
+}
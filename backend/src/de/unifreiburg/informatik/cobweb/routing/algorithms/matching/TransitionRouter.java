@@ -0,0 +1,272 @@
+package de.unifreiburg.informatik.cobweb.routing.algorithms.matching;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+
+import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.EdgePath;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.dijkstra.TentativeDistance;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.EdgePosition;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.IEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.IGraph;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.INode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ISpatial;
+import de.unifreiburg.informatik.cobweb.util.RoutingUtil;
+
+/**
+ * Computes bounded shortest paths from a position on an edge to many other
+ * positions on edges, used for the transitions of {@link HmmMapMatcher}.<br>
+ * <br>
+ * The cost of an edge is its length in <tt>metres</tt>, not its travel time.
+ * A single run of Dijkstra from the source, see
+ * {@link #computeDistances(EdgePosition, double)}, answers the paths to all
+ * targets, see {@link #getPath(EdgePosition)}. The search stops at the given
+ * bound, since transitions that are much longer than the distance between the
+ * measurements are implausible anyway.<br>
+ * <br>
+ * The scratch space of the search is kept between runs and only cleared,
+ * such that consecutive runs do not allocate it again. The class is not
+ * thread-safe, each trace uses its own instance.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ * @param <N> Type of the node which must offer spatial data
+ * @param <E> Type of the edge
+ */
+final class TransitionRouter<N extends INode & ISpatial, E extends IEdge<N>> {
+  /**
+   * Gets the length of the given edge.
+   *
+   * @param <N>  Type of the node
+   * @param <E>  Type of the edge
+   * @param edge The edge to get the length of
+   * @return The length in <tt>metres</tt>
+   */
+  static <N extends INode & ISpatial, E extends IEdge<N>> double getLength(final E edge) {
+    return RoutingUtil.distanceEquiRect(edge.getSource(), edge.getDestination());
+  }
+
+  /**
+   * Queue of the nodes which are not settled yet, part of the scratch space.
+   */
+  private final PriorityQueue<TentativeDistance<N, E>> mActiveNodes;
+  /**
+   * The seed leg to the destination of the source edge or <tt>null</tt> if
+   * not present.
+   */
+  private E mForwardSeed;
+  /**
+   * The graph to route on.
+   */
+  private final IGraph<N, E> mGraph;
+  /**
+   * The tentative distances of all visited nodes, part of the scratch space.
+   */
+  private final Map<N, TentativeDistance<N, E>> mNodeToDistance;
+  /**
+   * The distances of all settled nodes, part of the scratch space.
+   */
+  private final Map<N, TentativeDistance<N, E>> mNodeToSettledDistance;
+  /**
+   * The seed leg to the source of the source edge, along its reversed edge, or
+   * <tt>null</tt> if not present.
+   */
+  private E mReversedSeed;
+  /**
+   * The position the last run started at.
+   */
+  private EdgePosition<N, E> mSource;
+
+  /**
+   * Creates a new router on the given graph.
+   *
+   * @param graph The graph to route on
+   */
+  TransitionRouter(final IGraph<N, E> graph) {
+    mGraph = graph;
+    mNodeToDistance = new HashMap<>();
+    mNodeToSettledDistance = new HashMap<>();
+    mActiveNodes = new PriorityQueue<>();
+  }
+
+  /**
+   * Computes the shortest paths from the given position to all nodes within
+   * the given bound. Afterwards, the paths to positions on edges can be
+   * queried using {@link #getPath(EdgePosition)}.
+   *
+   * @param source The position to start at, must lie on an edge
+   * @param bound  The maximal length of the paths, in <tt>metres</tt>
+   */
+  void computeDistances(final EdgePosition<N, E> source, final double bound) {
+    mNodeToDistance.clear();
+    mNodeToSettledDistance.clear();
+    mActiveNodes.clear();
+    mSource = source;
+
+    // Seed the nodes of the edge with the remaining part of the edge
+    final E edge = source.getEdge();
+    mForwardSeed = edge;
+    relax(edge, (1.0 - source.getFraction()) * TransitionRouter.getLength(edge));
+    mReversedSeed = getReversedEdge(edge).orElse(null);
+    if (mReversedSeed != null) {
+      relax(mReversedSeed, source.getFraction() * TransitionRouter.getLength(mReversedSeed));
+    }
+
+    while (!mActiveNodes.isEmpty()) {
+      final TentativeDistance<N, E> distance = mActiveNodes.poll();
+      if (distance.getTentativeDistance() > bound) {
+        break;
+      }
+      final N node = distance.getNode();
+      if (mNodeToSettledDistance.containsKey(node)) {
+        continue;
+      }
+      mNodeToSettledDistance.put(node, distance);
+
+      final double tentativeDistance = distance.getTentativeDistance();
+      mGraph.getOutgoingEdges(node)
+          .forEach(outgoing -> relax(outgoing, tentativeDistance + TransitionRouter.getLength(outgoing)));
+    }
+  }
+
+  /**
+   * Gets the shortest path from the source of the last run to the given
+   * position. The first and last edge of the path are only traversed
+   * partially, their cost is the corresponding part of their length.
+   *
+   * @param target The position to end at, must lie on an edge
+   * @return The shortest path or empty if the target is not reachable within
+   *         the bound of the last run
+   */
+  Optional<EdgePath<N, E>> getPath(final EdgePosition<N, E> target) {
+    final E edge = target.getEdge();
+    final double length = TransitionRouter.getLength(edge);
+
+    // Enter the target from the source of its edge
+    EdgePath<N, E> bestPath = null;
+    final TentativeDistance<N, E> sourceDistance = mNodeToSettledDistance.get(edge.getSource());
+    if (sourceDistance != null) {
+      bestPath = buildPath(sourceDistance);
+      bestPath.addEdge(edge, target.getFraction() * length);
+    }
+
+    // Enter the target from the destination of its edge, along its reversed
+    // edge
+    final TentativeDistance<N, E> destinationDistance = mNodeToSettledDistance.get(edge.getDestination());
+    if (destinationDistance != null && (bestPath == null
+        || destinationDistance.getTentativeDistance() + (1.0 - target.getFraction()) * length < bestPath
+            .getTotalCost())) {
+      final Optional<E> reversed = getReversedEdge(edge);
+      if (reversed.isPresent()) {
+        bestPath = buildPath(destinationDistance);
+        bestPath.addEdge(reversed.get(), (1.0 - target.getFraction()) * length);
+      }
+    }
+
+    // Travel directly along the edge of the source
+    final Optional<EdgePath<N, E>> directPath = getDirectPath(target);
+    if (directPath.isPresent() && (bestPath == null || directPath.get().getTotalCost() <= bestPath.getTotalCost())) {
+      return directPath;
+    }
+    return Optional.ofNullable(bestPath);
+  }
+
+  /**
+   * Builds the shortest path from the source of the last run to the node of
+   * the given distance, including the partially traversed edge of the source.
+   *
+   * @param destinationDistance The distance container of the node to end at
+   * @return The shortest path
+   */
+  private EdgePath<N, E> buildPath(final TentativeDistance<N, E> destinationDistance) {
+    // Build the path reversely by following the pointers to the seed legs
+    final EdgePath<N, E> reversedPath = new EdgePath<>(true);
+    TentativeDistance<N, E> currentDistance = destinationDistance;
+    while (true) {
+      // Seed legs are never improved by relaxing the same edge again, since
+      // that would include the whole edge
+      final E parentEdge = currentDistance.getParentEdge();
+      if (parentEdge.equals(mForwardSeed) || parentEdge.equals(mReversedSeed)) {
+        reversedPath.addEdge(parentEdge, currentDistance.getTentativeDistance());
+        break;
+      }
+      final TentativeDistance<N, E> parentDistance = mNodeToSettledDistance.get(parentEdge.getSource());
+      reversedPath.addEdge(parentEdge, currentDistance.getTentativeDistance() - parentDistance.getTentativeDistance());
+      currentDistance = parentDistance;
+    }
+
+    // Copy in forward order, such that further edges can be appended
+    final EdgePath<N, E> path = new EdgePath<>();
+    reversedPath.forEach(edgeCost -> path.addEdge(edgeCost.getEdge(), edgeCost.getCost()));
+    return path;
+  }
+
+  /**
+   * Gets the path from the source of the last run to the given position
+   * directly along the edge of the source, without visiting any node. Only
+   * possible if both positions lie on the same edge, or on an edge and its
+   * reversed edge.
+   *
+   * @param target The position to end at
+   * @return The direct path or empty if there is none
+   */
+  private Optional<EdgePath<N, E>> getDirectPath(final EdgePosition<N, E> target) {
+    final E edge = mSource.getEdge();
+    final E targetEdge = target.getEdge();
+    // Fraction of the target relative to the edge of the source
+    final double targetFraction;
+    if (targetEdge.equals(edge)) {
+      targetFraction = target.getFraction();
+    } else if (targetEdge.getSource().equals(edge.getDestination())
+        && targetEdge.getDestination().equals(edge.getSource())) {
+      targetFraction = 1.0 - target.getFraction();
+    } else {
+      return Optional.empty();
+    }
+
+    final double sourceFraction = mSource.getFraction();
+    final EdgePath<N, E> path = new EdgePath<>();
+    if (targetFraction >= sourceFraction) {
+      path.addEdge(edge, (targetFraction - sourceFraction) * TransitionRouter.getLength(edge));
+      return Optional.of(path);
+    }
+    if (mReversedSeed == null) {
+      return Optional.empty();
+    }
+    path.addEdge(mReversedSeed, (sourceFraction - targetFraction) * TransitionRouter.getLength(mReversedSeed));
+    return Optional.of(path);
+  }
+
+  /**
+   * Gets the reversed edge of the given edge, i.e. the edge of the graph that
+   * connects the same nodes in the opposite direction.
+   *
+   * @param edge The edge to get the reversed edge of
+   * @return The reversed edge or empty if the graph contains none
+   */
+  private Optional<E> getReversedEdge(final E edge) {
+    final N source = edge.getSource();
+    return mGraph.getOutgoingEdges(edge.getDestination()).filter(candidate -> candidate.getDestination().equals(source))
+        .findFirst();
+  }
+
+  /**
+   * Relaxes the given edge, i.e. offers the given distance to its destination.
+   *
+   * @param edge     The edge to relax
+   * @param distance The distance of the destination when using the edge
+   */
+  private void relax(final E edge, final double distance) {
+    final N destination = edge.getDestination();
+    if (mNodeToSettledDistance.containsKey(destination)) {
+      return;
+    }
+    final TentativeDistance<N, E> previousDistance = mNodeToDistance.get(destination);
+    if (previousDistance != null && previousDistance.getTentativeDistance() <= distance) {
+      return;
+    }
+    final TentativeDistance<N, E> newDistance = new TentativeDistance<>(destination, edge, distance);
+    mNodeToDistance.put(destination, newDistance);
+    mActiveNodes.add(newDistance);
+  }
+}
@@ -0,0 +1,7 @@
+/**
+ * Contains algorithms used to match recorded traces of positions, like GPS
+ * traces, onto the edges of the graph model.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+package de.unifreiburg.informatik.cobweb.routing.algorithms.matching;
\ No newline at end of file
@@ -0,0 +1,56 @@
+package de.unifreiburg.informatik.cobweb.routing.algorithms.metrics;
+
+import de.unifreiburg.informatik.cobweb.routing.model.PlanarProjection;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ISpatial;
+import de.unifreiburg.informatik.cobweb.util.RoutingUtil;
+
+/**
+ * Implements the <i>as-the-crow-flies</i> metric for {@link ISpatial} objects
+ * on a {@link PlanarProjection}.<br>
+ * <br>
+ * Given two objects it computes the direct, straight-line, distance of both
+ * objects on the plane of the projection. The distance is measured as travel
+ * time in <tt>seconds</tt>. In contrast to {@link AsTheCrowFliesMetric} no
+ * trigonometry is needed, which makes the metric cheap enough for hot paths
+ * like the heuristic of A-star. For objects within the projected model it
+ * never exceeds {@link AsTheCrowFliesMetric}, it is thus <i>admissible</i>
+ * and <i>monotone</i> as well.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ * @param <N> The type of objects the metric operates on, must implement
+ *        {@link ISpatial}
+ */
+public final class PlanarMetric<N extends ISpatial> implements IMetric<N> {
+  /**
+   * Factor to multiply projected distances in <tt>metres</tt> with to get the
+   * travel time in <tt>seconds</tt>.
+   */
+  private final double mDistanceToTravelTime;
+  /**
+   * The projection to compute distances on.
+   */
+  private final PlanarProjection mProjection;
+
+  /**
+   * Creates a new metric which computes distances on the given projection.
+   *
+   * @param projection The projection to compute distances on
+   */
+  public PlanarMetric(final PlanarProjection projection) {
+    mProjection = projection;
+    mDistanceToTravelTime = RoutingUtil.travelTime(1.0, RoutingUtil.maximalRoadSpeed());
+  }
+
+  /**
+   * The distance between both given objects, measured as travel time in
+   * <tt>seconds</tt>.
+   */
+  @Override
+  public double distance(final N first, final N second) {
+    if (first == second) {
+      return 0.0;
+    }
+    return mProjection.distance(first, second) * mDistanceToTravelTime;
+  }
+
+}
@@ -73,6 +73,27 @@ public final class LandmarkMetric<N extends INode, E extends IEdge<N>, G extends
     initialize(amount, graph, landmarkProvider, new Dijkstra<>(graph));
   }
 
+  /**
+   * Creates a new landmark metric which uses the given, already computed,
+   * landmarks and distances. Can be used to restore a metric, see
+   * {@link #getLandmarks()}, {@link #getLandmarkToNodeDistances()} and
+   * {@link #getNodeToLandmarkDistances()}.
+   *
+   * @param landmarks              The landmarks to use
+   * @param landmarkToNodeDistance Nested map that connects landmarks to all
+   *                               nodes they reach and the corresponding
+   *                               shortest path distance
+   * @param nodeToLandmarkDistance Nested map that connects all nodes to the
+   *                               landmarks they reach and the corresponding
+   *                               shortest path distance
+   */
+  public LandmarkMetric(final Collection<N> landmarks, final NestedDoubleMap<N, N> landmarkToNodeDistance,
+      final NestedDoubleMap<N, N> nodeToLandmarkDistance) {
+    mLandmarks = landmarks;
+    mLandmarkToNodeDistance = landmarkToNodeDistance;
+    mNodeToLandmarkDistance = nodeToLandmarkDistance;
+  }
+
   /**
    * Approximates the distance between the given two nodes by comparing shortest
    * paths from the nodes to the landmarks. The distance depends on the
@@ -106,6 +127,37 @@ public final class LandmarkMetric<N extends INode, E extends IEdge<N>, G extends
     return greatestDistance;
   }
 
+  /**
+   * Gets the landmarks used by this metric.
+   *
+   * @return The landmarks used by this metric
+   */
+  public Collection<N> getLandmarks() {
+    return mLandmarks;
+  }
+
+  /**
+   * Gets the nested map that connects landmarks to all nodes they reach and the
+   * corresponding shortest path distance. The map is backed by the metric and
+   * must not be modified.
+   *
+   * @return The distances from landmarks to nodes
+   */
+  public NestedDoubleMap<N, N> getLandmarkToNodeDistances() {
+    return mLandmarkToNodeDistance;
+  }
+
+  /**
+   * Gets the nested map that connects all nodes to the landmarks they reach and
+   * the corresponding shortest path distance. The map is backed by the metric
+   * and must not be modified.
+   *
+   * @return The distances from nodes to landmarks
+   */
+  public NestedDoubleMap<N, N> getNodeToLandmarkDistances() {
+    return mNodeToLandmarkDistance;
+  }
+
   /**
    * Initializes this metric. It generates landmarks using the given provider
    * and computes shortest path distances from the landmarks to all nodes and
@@ -1,11 +1,14 @@
 package de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor;
 
+import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
 import java.util.PriorityQueue;
+import java.util.function.ObjIntConsumer;
 import java.util.stream.Collectors;
 
 import org.eclipse.collections.impl.block.factory.Comparators;
@@ -165,6 +168,15 @@ public final class CoverTree<E extends ISpatial> implements INearestNeighborComp
     this(DEFAULT_BASE, metric);
   }
 
+  /**
+   * Gets the base of the tree.
+   *
+   * @return The base of the tree
+   */
+  public double getBase() {
+    return mBase;
+  }
+
   /**
    * Get the cover of the given level. All points at this level are guaranteed
    * to be <tt>2^level</tt> apart from one another.
@@ -216,6 +228,27 @@ public final class CoverTree<E extends ISpatial> implements INearestNeighborComp
 
   }
 
+  /**
+   * Gets the amount of nodes per level, indexed by the level minus the minimum
+   * number of levels. Together with {@link #visitPreOrder(ObjIntConsumer)} it
+   * describes the structure of the tree, see
+   * {@link #restore(int, int, int, int[], List, int[])}.
+   *
+   * @return A copy of the amount of nodes per level
+   */
+  public int[] getLevelSizes() {
+    return mNumLevels.clone();
+  }
+
+  /**
+   * Gets the maximal minimum level of the tree.
+   *
+   * @return The maximal minimum level
+   */
+  public int getMaxMinLevel() {
+    return mMaxMinLevel;
+  }
+
   @Override
   public synchronized Collection<E> getKNearestNeighbors(final E point, final int k) {
     if (size() == 0 || k == 0) {
@@ -512,6 +545,80 @@ public final class CoverTree<E extends ISpatial> implements INearestNeighborComp
     return mMinLevel;
   }
 
+  /**
+   * Restores the structure of a tree into this initially empty tree. This is
+   * considerably faster than inserting all elements again.<br>
+   * <br>
+   * The structure is given by the elements of all nodes in pre-order together
+   * with the amount of children of each node, as reported by
+   * {@link #visitPreOrder(ObjIntConsumer)}.
+   *
+   * @param maxLevel         The maximal level of the tree
+   * @param minLevel         The minimal level of the tree
+   * @param maxMinLevel      The maximal minimum level of the tree
+   * @param levelSizes       The amount of nodes per level, see
+   *                         {@link #getLevelSizes()}
+   * @param elements         The elements of all nodes in pre-order
+   * @param amountOfChildren The amount of children of all nodes in pre-order
+   * @throws IllegalStateException    If the tree is not empty
+   * @throws IllegalArgumentException If the given structure is inconsistent
+   */
+  public synchronized void restore(final int maxLevel, final int minLevel, final int maxMinLevel,
+      final int[] levelSizes, final List<E> elements, final int[] amountOfChildren)
+      throws IllegalStateException, IllegalArgumentException {
+    if (mRootNode != null) {
+      throw new IllegalStateException("Only empty trees can be restored");
+    }
+    if (levelSizes.length != mNumLevels.length || elements.size() != amountOfChildren.length
+        || maxLevel - mMinNumLevels >= mNumLevels.length || minLevel < mMinNumLevels) {
+      throw new IllegalArgumentException("Structure does not fit the tree");
+    }
+    if (elements.isEmpty()) {
+      return;
+    }
+
+    // Rebuild the nodes in pre-order, the stacks contain all nodes which still
+    // miss children together with the amount of missing children
+    final Deque<Node<E>> parents = new ArrayDeque<>();
+    final Deque<Integer> missingChildren = new ArrayDeque<>();
+    Node<E> root = null;
+    for (int i = 0; i < amountOfChildren.length; i++) {
+      final Node<E> parent = parents.peek();
+      if (parent == null && root != null) {
+        throw new IllegalArgumentException("Structure contains more than one root");
+      }
+      final Node<E> node = new Node<>(parent, elements.get(i));
+      if (parent == null) {
+        root = node;
+      } else {
+        parent.addChild(node);
+        final int missing = missingChildren.pop() - 1;
+        if (missing == 0) {
+          parents.pop();
+        } else {
+          missingChildren.push(missing);
+        }
+      }
+
+      if (amountOfChildren[i] < 0) {
+        throw new IllegalArgumentException("Negative amount of children");
+      }
+      if (amountOfChildren[i] > 0) {
+        parents.push(node);
+        missingChildren.push(amountOfChildren[i]);
+      }
+    }
+    if (!parents.isEmpty()) {
+      throw new IllegalArgumentException("Structure misses children");
+    }
+
+    mRootNode = root;
+    mMaxLevel = maxLevel;
+    mMinLevel = minLevel;
+    mMaxMinLevel = maxMinLevel;
+    System.arraycopy(levelSizes, 0, mNumLevels, 0, levelSizes.length);
+  }
+
   /**
    * Sets bounds for the tree.<br>
    * <br>
@@ -574,6 +681,35 @@ public final class CoverTree<E extends ISpatial> implements INearestNeighborComp
     return sum;
   }
 
+  /**
+   * Visits all nodes of the tree in pre-order. The visitor receives the element
+   * of the node together with its amount of children. Children which have not
+   * been added yet, i.e. implicit children with the same element, are not
+   * visited.
+   *
+   * @param visitor The visitor to call for each node
+   */
+  public synchronized void visitPreOrder(final ObjIntConsumer<E> visitor) {
+    if (mRootNode == null) {
+      return;
+    }
+    final Deque<Node<E>> nodesToVisit = new ArrayDeque<>();
+    nodesToVisit.push(mRootNode);
+    while (!nodesToVisit.isEmpty()) {
+      final Node<E> node = nodesToVisit.pop();
+      if (!node.hasChildren()) {
+        visitor.accept(node.getElement(), 0);
+        continue;
+      }
+      final List<Node<E>> children = node.getChildren();
+      visitor.accept(node.getElement(), children.size());
+      // Push in reverse order such that the first child is visited first
+      for (int i = children.size() - 1; i >= 0; i--) {
+        nodesToVisit.push(children.get(i));
+      }
+    }
+  }
+
   /**
    * Returns whether two elements are at the same location.
    *
@@ -774,4 +910,4 @@ public final class CoverTree<E extends ISpatial> implements INearestNeighborComp
     return coverset;
   }
 
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,478 @@
+package de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntPredicate;
+
+import org.eclipse.collections.api.list.primitive.MutableIntList;
+import org.eclipse.collections.impl.list.mutable.FastList;
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
+
+import de.unifreiburg.informatik.cobweb.routing.algorithms.metrics.PlanarMetric;
+import de.unifreiburg.informatik.cobweb.routing.model.PlanarProjection;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ISpatial;
+import de.unifreiburg.informatik.cobweb.util.RoutingUtil;
+
+/**
+ * Static, read-only implementation of a KD-tree (see
+ * <a href="https://en.wikipedia.org/wiki/K-d_tree">Wikipedia</a>) over the
+ * coordinates of spatial objects which solves nearest neighbor computation
+ * queries.<br>
+ * <br>
+ * The tree is bulk-built once from all elements, in parallel for large
+ * amounts of elements, and can not be modified afterwards. It is stored
+ * implicitly in arrays: the element at the middle of a range is the root of
+ * the subtree of that range, splitting it into the left and right half.
+ * Levels alternate between splitting by latitude and by longitude.
+ * Coordinates are kept in primitive <tt>float</tt> arrays.<br>
+ * <br>
+ * Since the tree is immutable, queries do not need any synchronization and can
+ * be answered by any amount of threads in parallel. Distances and ranges are
+ * measured the same as by a {@link PlanarMetric} on the
+ * {@link PlanarProjection} of the elements of the tree. Distance checks thus
+ * only compare squared planar distances, without trigonometry or square
+ * roots.<br>
+ * <br>
+ * Nearest neighbor queries can be restricted to a subset of the elements, see
+ * {@link #getNearestNeighbor(ISpatial, IntPredicate)}. Filtered queries use
+ * the same tree, no extra tree is needed per subset.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ * @param <E> Type of the objects contained in the tree which must offer spatial
+ *        data
+ */
+public final class KdTree<E extends ISpatial> implements INearestNeighborComputation<E> {
+  /**
+   * Filter which accepts all elements, used by unfiltered queries.
+   */
+  private static final IntPredicate ACCEPT_ALL = index -> true;
+
+  /**
+   * Restores a tree from its elements in tree order, as given by
+   * {@link #getElements()} of the tree to restore. The tree is not built
+   * again.
+   *
+   * @param <E>      Type of the objects contained in the tree
+   * @param elements The elements of the tree to restore, in tree order
+   * @return The restored tree
+   */
+  public static <E extends ISpatial> KdTree<E> restore(final List<? extends E> elements) {
+    final KdTree<E> tree = new KdTree<>(elements.size());
+    tree.mElements.addAll(elements);
+    for (int i = 0; i < elements.size(); i++) {
+      tree.mLatitudes[i] = elements.get(i).getLatitude();
+      tree.mLongitudes[i] = elements.get(i).getLongitude();
+    }
+    tree.initializeProjection();
+    return tree;
+  }
+
+  /**
+   * Builds the subtree of the given range sequentially by arranging the
+   * elements of the range in tree order.
+   *
+   * @param elements   The elements to arrange
+   * @param latitudes  The latitudes of the elements, arranged the same way
+   * @param longitudes The longitudes of the elements, arranged the same way
+   * @param from       The first index of the range, inclusive
+   * @param to         The last index of the range, exclusive
+   * @param depth      The depth of the subtree, determines the split axis
+   */
+  static void buildSubtree(final Object[] elements, final float[] latitudes, final float[] longitudes,
+      final int from, final int to, final int depth) {
+    if (to - from <= 1) {
+      return;
+    }
+    final int middle = (from + to) >>> 1;
+    KdTree.select(elements, latitudes, longitudes, from, to, middle, KdTree.isLatitudeSplit(depth));
+    KdTree.buildSubtree(elements, latitudes, longitudes, from, middle, depth + 1);
+    KdTree.buildSubtree(elements, latitudes, longitudes, middle + 1, to, depth + 1);
+  }
+
+  /**
+   * Whether nodes of the given depth split by latitude or by longitude.
+   *
+   * @param depth The depth of the node
+   * @return <tt>True</tt> if nodes of the given depth split by latitude,
+   *         <tt>false</tt> if by longitude
+   */
+  static boolean isLatitudeSplit(final int depth) {
+    return (depth & 1) == 0;
+  }
+
+  /**
+   * Partially sorts the given range such that the element at the given index
+   * is the one that would be there if the range was sorted by the given axis.
+   * All elements before have a smaller or equal, all elements after a greater
+   * or equal coordinate.
+   *
+   * @param elements   The elements to arrange
+   * @param latitudes  The latitudes of the elements, arranged the same way
+   * @param longitudes The longitudes of the elements, arranged the same way
+   * @param from       The first index of the range, inclusive
+   * @param to         The last index of the range, exclusive
+   * @param index      The index of the element to select
+   * @param byLatitude Whether to select by latitude or by longitude
+   */
+  static void select(final Object[] elements, final float[] latitudes, final float[] longitudes,
+      final int from, final int to, final int index, final boolean byLatitude) {
+    final float[] keys;
+    if (byLatitude) {
+      keys = latitudes;
+    } else {
+      keys = longitudes;
+    }
+
+    int left = from;
+    int right = to - 1;
+    while (right > left) {
+      // Use the median of three as pivot
+      final float first = keys[left];
+      final float second = keys[(left + right) >>> 1];
+      final float third = keys[right];
+      final float pivot = Math.max(Math.min(first, second), Math.min(Math.max(first, second), third));
+
+      int i = left;
+      int j = right;
+      while (i <= j) {
+        while (keys[i] < pivot) {
+          i++;
+        }
+        while (keys[j] > pivot) {
+          j--;
+        }
+        if (i <= j) {
+          KdTree.swap(elements, latitudes, longitudes, i, j);
+          i++;
+          j--;
+        }
+      }
+
+      if (index <= j) {
+        right = j;
+      } else if (index >= i) {
+        left = i;
+      } else {
+        // The element is between both partitions and thus equal to the pivot
+        return;
+      }
+    }
+  }
+
+  /**
+   * Swaps the elements at the given indices together with their coordinates.
+   *
+   * @param elements   The elements
+   * @param latitudes  The latitudes of the elements
+   * @param longitudes The longitudes of the elements
+   * @param first      The index of the first element to swap
+   * @param second     The index of the second element to swap
+   */
+  private static void swap(final Object[] elements, final float[] latitudes, final float[] longitudes,
+      final int first, final int second) {
+    final Object element = elements[first];
+    elements[first] = elements[second];
+    elements[second] = element;
+    final float latitude = latitudes[first];
+    latitudes[first] = latitudes[second];
+    latitudes[second] = latitude;
+    final float longitude = longitudes[first];
+    longitudes[first] = longitudes[second];
+    longitudes[second] = longitude;
+  }
+
+  /**
+   * Converts the given range, in the unit of {@link PlanarMetric}, into the
+   * corresponding squared distance in <tt>square metres</tt>.
+   *
+   * @param range The range to convert
+   * @return The squared distance of the range
+   */
+  private static double toSquaredDistance(final double range) {
+    final double distance = range / RoutingUtil.travelTime(1.0, RoutingUtil.maximalRoadSpeed());
+    return distance * distance;
+  }
+
+  /**
+   * The elements of the tree, in tree order.
+   */
+  private final List<E> mElements;
+  /**
+   * The latitudes of the elements, in tree order.
+   */
+  private final float[] mLatitudes;
+  /**
+   * The longitudes of the elements, in tree order.
+   */
+  private final float[] mLongitudes;
+  /**
+   * The projection distances are measured on, computed for the elements of the
+   * tree.
+   */
+  private PlanarProjection mProjection;
+
+  /**
+   * Builds a new tree containing the given elements. The tree can not be
+   * modified afterwards. Large trees are built in parallel using the common
+   * fork join pool.
+   *
+   * @param elements The elements to build the tree of
+   */
+  @SuppressWarnings("unchecked")
+  public KdTree(final Collection<? extends E> elements) {
+    this(elements.size());
+    final Object[] elementsInTreeOrder = elements.toArray();
+    for (int i = 0; i < elementsInTreeOrder.length; i++) {
+      final E element = (E) elementsInTreeOrder[i];
+      mLatitudes[i] = element.getLatitude();
+      mLongitudes[i] = element.getLongitude();
+    }
+    if (elementsInTreeOrder.length <= KdTreeBuildTask.SEQUENTIAL_THRESHOLD) {
+      KdTree.buildSubtree(elementsInTreeOrder, mLatitudes, mLongitudes, 0, elementsInTreeOrder.length, 0);
+    } else {
+      ForkJoinPool.commonPool()
+          .invoke(new KdTreeBuildTask(elementsInTreeOrder, mLatitudes, mLongitudes, 0, elementsInTreeOrder.length, 0));
+    }
+    for (final Object element : elementsInTreeOrder) {
+      mElements.add((E) element);
+    }
+    initializeProjection();
+  }
+
+  /**
+   * Creates a new empty tree with space for the given amount of elements.
+   *
+   * @param size The amount of elements of the tree
+   */
+  private KdTree(final int size) {
+    mElements = FastList.newList(size);
+    mLatitudes = new float[size];
+    mLongitudes = new float[size];
+  }
+
+  /**
+   * Gets the elements of the tree in tree order. The order can be used to
+   * restore the tree using {@link #restore(List)}.
+   *
+   * @return An unmodifiable view on the elements of the tree, in tree order
+   */
+  public List<E> getElements() {
+    return Collections.unmodifiableList(mElements);
+  }
+
+  /**
+   * Gets an estimate of the memory used by the tree in bytes, excluding the
+   * elements themselves.
+   *
+   * @return The estimated memory in bytes
+   */
+  public long getEstimatedMemory() {
+    // Two coordinate arrays and the references of the element list
+    return (long) size() * (2 * Float.BYTES + Long.BYTES);
+  }
+
+  @Override
+  public Collection<E> getKNearestNeighbors(final E point, final int k) {
+    if (size() == 0 || k == 0) {
+      return Collections.emptyList();
+    }
+
+    final NearestCandidates candidates = new NearestCandidates(Math.min(k, size()));
+    searchNearest(0, size(), 0, point.getLatitude(), point.getLongitude(), KdTree.ACCEPT_ALL, candidates);
+    final int[] indices = candidates.toSortedIndices();
+    final List<E> neighbors = FastList.newList(indices.length);
+    for (final int index : indices) {
+      neighbors.add(mElements.get(index));
+    }
+    return neighbors;
+  }
+
+  @Override
+  public Optional<E> getNearestNeighbor(final E point) {
+    return getNearestNeighbor(point, KdTree.ACCEPT_ALL);
+  }
+
+  /**
+   * Gets the nearest element to the given point which is accepted by the given
+   * filter. The filter is tested on the indices of the elements in tree order,
+   * see {@link #getElements()}, such that callers can keep per element data in
+   * primitive arrays aligned with the tree.
+   *
+   * @param point  The point to get the nearest element of
+   * @param filter Tests whether the element at the given index in tree order
+   *               may be returned
+   * @return The nearest accepted element or empty if there is none
+   */
+  public Optional<E> getNearestNeighbor(final E point, final IntPredicate filter) {
+    if (size() == 0) {
+      return Optional.empty();
+    }
+
+    final NearestCandidates candidates = new NearestCandidates(1);
+    searchNearest(0, size(), 0, point.getLatitude(), point.getLongitude(), filter, candidates);
+    if (candidates.size() == 0) {
+      return Optional.empty();
+    }
+    return Optional.of(mElements.get(candidates.toSortedIndices()[0]));
+  }
+
+  @Override
+  public Collection<E> getNeighborhood(final E point, final double range) {
+    if (size() == 0) {
+      return Collections.emptyList();
+    }
+
+    final MutableIntList indices = new IntArrayList();
+    searchNeighborhood(0, size(), 0, point.getLatitude(), point.getLongitude(), KdTree.toSquaredDistance(range),
+        indices);
+    final List<E> neighbors = FastList.newList(indices.size());
+    indices.forEach(index -> neighbors.add(mElements.get(index)));
+    return neighbors;
+  }
+
+  /**
+   * Gets the amount of elements contained in the tree.
+   *
+   * @return The amount of elements
+   */
+  public int size() {
+    return mElements.size();
+  }
+
+  /**
+   * Gets the squared projected distance of the element at the given index to
+   * the given coordinates.
+   *
+   * @param index     The index of the element
+   * @param latitude  The latitude to get the distance to
+   * @param longitude The longitude to get the distance to
+   * @return The squared distance in <tt>square metres</tt>
+   */
+  private double squaredDistance(final int index, final float latitude, final float longitude) {
+    return mProjection.squaredDistance(mLatitudes[index], mLongitudes[index], latitude, longitude);
+  }
+
+  /**
+   * Gets the squared projected distance of the given coordinates to the split
+   * of the element at the given index. Since the projection is planar, it is a
+   * lower bound for the squared distance to all elements on the other side of
+   * the split.
+   *
+   * @param index      The index of the splitting element
+   * @param isLatitude Whether the element splits by latitude or by longitude
+   * @param latitude   The latitude of the query
+   * @param longitude  The longitude of the query
+   * @return The squared distance to the split in <tt>square metres</tt>
+   */
+  private double squaredDistanceToSplit(final int index, final boolean isLatitude, final float latitude,
+      final float longitude) {
+    if (isLatitude) {
+      return mProjection.squaredDistance(latitude, longitude, mLatitudes[index], longitude);
+    }
+    return mProjection.squaredDistance(latitude, longitude, latitude, mLongitudes[index]);
+  }
+
+  /**
+   * Initializes the projection distances are measured on, using the greatest
+   * absolute latitude of all elements.
+   */
+  private void initializeProjection() {
+    float maxAbsoluteLatitude = 0.0F;
+    for (final float latitude : mLatitudes) {
+      maxAbsoluteLatitude = Math.max(maxAbsoluteLatitude, Math.abs(latitude));
+    }
+    mProjection = new PlanarProjection(maxAbsoluteLatitude);
+  }
+
+  /**
+   * Searches the subtree of the given range for the elements nearest to the
+   * given coordinates.
+   *
+   * @param from       The first index of the range, inclusive
+   * @param to         The last index of the range, exclusive
+   * @param depth      The depth of the subtree
+   * @param latitude   The latitude of the query
+   * @param longitude  The longitude of the query
+   * @param filter     Tests whether the element at the given index may be a
+   *                   candidate
+   * @param candidates The nearest candidates found so far by their squared
+   *                   distance, will be updated
+   */
+  private void searchNearest(final int from, final int to, final int depth, final float latitude,
+      final float longitude, final IntPredicate filter, final NearestCandidates candidates) {
+    if (from >= to) {
+      return;
+    }
+    final int middle = (from + to) >>> 1;
+    if (filter.test(middle)) {
+      candidates.offer(middle, squaredDistance(middle, latitude, longitude));
+    }
+
+    final boolean isLatitude = KdTree.isLatitudeSplit(depth);
+    final boolean isLeftNear;
+    if (isLatitude) {
+      isLeftNear = latitude < mLatitudes[middle];
+    } else {
+      isLeftNear = longitude < mLongitudes[middle];
+    }
+
+    // Search the side of the query first, the other side only if it may
+    // contain closer elements
+    if (isLeftNear) {
+      searchNearest(from, middle, depth + 1, latitude, longitude, filter, candidates);
+    } else {
+      searchNearest(middle + 1, to, depth + 1, latitude, longitude, filter, candidates);
+    }
+    if (squaredDistanceToSplit(middle, isLatitude, latitude, longitude) >= candidates.getBound()) {
+      return;
+    }
+    if (isLeftNear) {
+      searchNearest(middle + 1, to, depth + 1, latitude, longitude, filter, candidates);
+    } else {
+      searchNearest(from, middle, depth + 1, latitude, longitude, filter, candidates);
+    }
+  }
+
+  /**
+   * Searches the subtree of the given range for all elements within the given
+   * range to the given coordinates.
+   *
+   * @param from         The first index of the range, inclusive
+   * @param to           The last index of the range, exclusive
+   * @param depth        The depth of the subtree
+   * @param latitude     The latitude of the query
+   * @param longitude    The longitude of the query
+   * @param squaredRange The squared range around the query, inclusive, in
+   *                     <tt>square metres</tt>
+   * @param indices      The indices of the elements found so far, will be
+   *                     updated
+   */
+  private void searchNeighborhood(final int from, final int to, final int depth, final float latitude,
+      final float longitude, final double squaredRange, final MutableIntList indices) {
+    if (from >= to) {
+      return;
+    }
+    final int middle = (from + to) >>> 1;
+    if (squaredDistance(middle, latitude, longitude) <= squaredRange) {
+      indices.add(middle);
+    }
+
+    final boolean isLatitude = KdTree.isLatitudeSplit(depth);
+    final boolean isLeftNear;
+    if (isLatitude) {
+      isLeftNear = latitude < mLatitudes[middle];
+    } else {
+      isLeftNear = longitude < mLongitudes[middle];
+    }
+    final boolean isFarInRange = squaredDistanceToSplit(middle, isLatitude, latitude, longitude) <= squaredRange;
+    if (isLeftNear || isFarInRange) {
+      searchNeighborhood(from, middle, depth + 1, latitude, longitude, squaredRange, indices);
+    }
+    if (!isLeftNear || isFarInRange) {
+      searchNeighborhood(middle + 1, to, depth + 1, latitude, longitude, squaredRange, indices);
+    }
+  }
+}
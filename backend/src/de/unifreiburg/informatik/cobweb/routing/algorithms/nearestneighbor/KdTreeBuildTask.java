@@ -0,0 +1,79 @@
+package de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Task which builds the subtree of a given range of a {@link KdTree} in
+ * parallel. After selecting the root of the range, both halves are built by
+ * forked tasks. Ranges below a threshold are built sequentially.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+final class KdTreeBuildTask extends RecursiveAction {
+  /**
+   * The size of ranges which are built sequentially instead of forking further
+   * tasks.
+   */
+  static final int SEQUENTIAL_THRESHOLD = 8_192;
+  /**
+   * The serial version UID.
+   */
+  private static final long serialVersionUID = 1L;
+  /**
+   * The depth of the subtree, determines the split axis.
+   */
+  private final int mDepth;
+  /**
+   * The elements to arrange.
+   */
+  private final Object[] mElements;
+  /**
+   * The first index of the range, inclusive.
+   */
+  private final int mFrom;
+  /**
+   * The latitudes of the elements, arranged the same way.
+   */
+  private final float[] mLatitudes;
+  /**
+   * The longitudes of the elements, arranged the same way.
+   */
+  private final float[] mLongitudes;
+  /**
+   * The last index of the range, exclusive.
+   */
+  private final int mTo;
+
+  /**
+   * Creates a new task which builds the subtree of the given range.
+   *
+   * @param elements   The elements to arrange
+   * @param latitudes  The latitudes of the elements, arranged the same way
+   * @param longitudes The longitudes of the elements, arranged the same way
+   * @param from       The first index of the range, inclusive
+   * @param to         The last index of the range, exclusive
+   * @param depth      The depth of the subtree, determines the split axis
+   */
+  KdTreeBuildTask(final Object[] elements, final float[] latitudes, final float[] longitudes, final int from,
+      final int to, final int depth) {
+    mElements = elements;
+    mLatitudes = latitudes;
+    mLongitudes = longitudes;
+    mFrom = from;
+    mTo = to;
+    mDepth = depth;
+  }
+
+  @Override
+  protected void compute() {
+    if (mTo - mFrom <= SEQUENTIAL_THRESHOLD) {
+      KdTree.buildSubtree(mElements, mLatitudes, mLongitudes, mFrom, mTo, mDepth);
+      return;
+    }
+    final int middle = (mFrom + mTo) >>> 1;
+    KdTree.select(mElements, mLatitudes, mLongitudes, mFrom, mTo, middle, KdTree.isLatitudeSplit(mDepth));
+    // The halves are disjoint and can be built independently
+    RecursiveAction.invokeAll(new KdTreeBuildTask(mElements, mLatitudes, mLongitudes, mFrom, middle, mDepth + 1),
+        new KdTreeBuildTask(mElements, mLatitudes, mLongitudes, middle + 1, mTo, mDepth + 1));
+  }
+}
@@ -0,0 +1,138 @@
+package de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor;
+
+/**
+ * Bounded collection of the nearest candidates found so far by a query on a
+ * {@link KdTree}. Keeps at most a given amount of candidates, the candidate
+ * with the greatest distance is replaced first. Candidates are identified by
+ * their index in the tree.<br>
+ * <br>
+ * Implemented as binary max-heap on primitive arrays. The class is not
+ * thread-safe, each query uses its own instance.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+final class NearestCandidates {
+  /**
+   * The distances of the candidates, in heap order.
+   */
+  private final double[] mDistances;
+  /**
+   * The indices of the candidates, in heap order.
+   */
+  private final int[] mIndices;
+  /**
+   * The current amount of candidates.
+   */
+  private int mSize;
+
+  /**
+   * Creates a new empty collection of candidates.
+   *
+   * @param capacity The maximal amount of candidates to keep, must be positive
+   */
+  NearestCandidates(final int capacity) {
+    mDistances = new double[capacity];
+    mIndices = new int[capacity];
+  }
+
+  /**
+   * Gets the greatest distance of all candidates or infinity if not yet all
+   * places are occupied. A candidate must be closer than this distance to be
+   * accepted.
+   *
+   * @return The distance a candidate must undercut
+   */
+  double getBound() {
+    if (mSize < mIndices.length) {
+      return Double.POSITIVE_INFINITY;
+    }
+    return mDistances[0];
+  }
+
+  /**
+   * Offers the given candidate. It is accepted if not all places are occupied
+   * yet or if it is closer than the greatest distance of all candidates, which
+   * is dropped then.
+   *
+   * @param index    The index of the candidate
+   * @param distance The distance of the candidate
+   */
+  void offer(final int index, final double distance) {
+    if (mSize < mIndices.length) {
+      // Sift up
+      int child = mSize;
+      mSize++;
+      while (child > 0) {
+        final int parent = (child - 1) >>> 1;
+        if (mDistances[parent] >= distance) {
+          break;
+        }
+        mDistances[child] = mDistances[parent];
+        mIndices[child] = mIndices[parent];
+        child = parent;
+      }
+      mDistances[child] = distance;
+      mIndices[child] = index;
+      return;
+    }
+    if (distance >= mDistances[0]) {
+      return;
+    }
+    siftDown(index, distance);
+  }
+
+  /**
+   * Gets the amount of candidates.
+   *
+   * @return The amount of candidates
+   */
+  int size() {
+    return mSize;
+  }
+
+  /**
+   * Removes all candidates and gets their indices, ascending in distance.
+   *
+   * @return The indices of all candidates, ascending in distance
+   */
+  int[] toSortedIndices() {
+    final int[] sortedIndices = new int[mSize];
+    while (mSize > 0) {
+      // Remove the greatest candidate and put it at the end
+      mSize--;
+      sortedIndices[mSize] = mIndices[0];
+      if (mSize > 0) {
+        siftDown(mIndices[mSize], mDistances[mSize]);
+      }
+    }
+    return sortedIndices;
+  }
+
+  /**
+   * Replaces the root of the heap by the given candidate and restores the heap
+   * property.
+   *
+   * @param index    The index of the candidate
+   * @param distance The distance of the candidate
+   */
+  private void siftDown(final int index, final double distance) {
+    int parent = 0;
+    while (true) {
+      int child = 2 * parent + 1;
+      if (child >= mSize) {
+        break;
+      }
+      if (child + 1 < mSize && mDistances[child + 1] > mDistances[child]) {
+        child++;
+      }
+      if (mDistances[child] <= distance) {
+        break;
+      }
+      mDistances[parent] = mDistances[child];
+      mIndices[parent] = mIndices[child];
+      parent = child;
+    }
+    mDistances[parent] = distance;
+    mIndices[parent] = index;
+  }
+}
@@ -103,6 +103,16 @@ public final class Node<E> implements Comparable<Node<E>> {
     return mParent;
   }
 
+  /**
+   * Whether the node has children. Other than {@link #getChildren()} this does
+   * not add a child to the node.
+   *
+   * @return <tt>True</tt> if the node has children, <tt>false</tt> otherwise
+   */
+  public boolean hasChildren() {
+    return !mChildren.isEmpty();
+  }
+
   /**
    * Removes the given child from the node.<br>
    * <br>
@@ -140,4 +150,4 @@ public final class Node<E> implements Comparable<Node<E>> {
     mParent = parent;
   }
 
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,148 @@
+package de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor;
+
+/**
+ * Bounded collection of the nearest segments found so far by a query on a
+ * {@link SegmentIndex}, together with the projection of the query onto them.
+ * Keeps at most a given amount of segments that are closer than a given
+ * distance, the segment with the greatest distance is replaced first. Segments
+ * are identified by their index in the tree.<br>
+ * <br>
+ * Distances are squared and measured in an equirectangular projection around
+ * the query. The segments are kept sorted ascending by their distance, which
+ * is efficient for the small capacities used for snapping. The class is not
+ * thread-safe, each query uses its own instance.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+final class SegmentCandidates {
+  /**
+   * The squared distances of the query to the segments, sorted ascending.
+   */
+  private final double[] mDistances;
+  /**
+   * The fractions of the segments between their source and the projection of
+   * the query, in the order of the distances.
+   */
+  private final double[] mFractions;
+  /**
+   * The squared distance a segment must undercut to be accepted.
+   */
+  private final double mMaxDistance;
+  /**
+   * The indices of the segments, in the order of the distances.
+   */
+  private final int[] mSegments;
+  /**
+   * The current amount of segments.
+   */
+  private int mSize;
+
+  /**
+   * Creates a new empty collection of candidates.
+   *
+   * @param capacity    The maximal amount of segments to keep, must be
+   *                    positive
+   * @param maxDistance The squared distance a segment must undercut to be
+   *                    accepted, can be infinity
+   */
+  SegmentCandidates(final int capacity, final double maxDistance) {
+    mDistances = new double[capacity];
+    mFractions = new double[capacity];
+    mSegments = new int[capacity];
+    mMaxDistance = maxDistance;
+  }
+
+  /**
+   * Gets the squared distance a segment must undercut to be accepted. That is
+   * the greatest distance of all segments or the maximal distance if not yet
+   * all places are occupied.
+   *
+   * @return The squared distance a segment must undercut
+   */
+  double getBound() {
+    if (mSize < mSegments.length) {
+      return mMaxDistance;
+    }
+    return mDistances[mSize - 1];
+  }
+
+  /**
+   * Gets the fraction of the segment at the given position between its source
+   * and the projection of the query.
+   *
+   * @param position The position of the segment, <tt>0</tt> for the nearest
+   * @return The fraction, between <tt>0.0</tt> and <tt>1.0</tt>
+   */
+  double getFraction(final int position) {
+    return mFractions[position];
+  }
+
+  /**
+   * Gets the index of the segment at the given position.
+   *
+   * @param position The position of the segment, <tt>0</tt> for the nearest
+   * @return The index of the segment
+   */
+  int getSegment(final int position) {
+    return mSegments[position];
+  }
+
+  /**
+   * Offers the given segment. The query is projected onto the segment, it is
+   * accepted if it is closer than the bound, see {@link #getBound()}.
+   *
+   * @param segment              The index of the segment
+   * @param sourceLatitude       The latitude of the source of the segment
+   * @param sourceLongitude      The longitude of the source of the segment
+   * @param destinationLatitude  The latitude of the destination of the
+   *                             segment
+   * @param destinationLongitude The longitude of the destination of the
+   *                             segment
+   * @param latitude             The latitude of the query
+   * @param longitude            The longitude of the query
+   * @param longitudeScale       The factor to scale longitude differences with
+   */
+  void offer(final int segment, final float sourceLatitude, final float sourceLongitude,
+      final float destinationLatitude, final float destinationLongitude, final float latitude,
+      final float longitude, final double longitudeScale) {
+    // Work in a local planar projection with the source as origin
+    final double segmentY = destinationLatitude - sourceLatitude;
+    final double segmentX = (destinationLongitude - sourceLongitude) * longitudeScale;
+    final double queryY = latitude - sourceLatitude;
+    final double queryX = (longitude - sourceLongitude) * longitudeScale;
+
+    final double squaredLength = segmentX * segmentX + segmentY * segmentY;
+    double fraction = 0.0;
+    if (squaredLength > 0.0) {
+      fraction = Math.max(0.0, Math.min(1.0, (queryX * segmentX + queryY * segmentY) / squaredLength));
+    }
+    final double diffY = queryY - fraction * segmentY;
+    final double diffX = queryX - fraction * segmentX;
+    final double distance = diffX * diffX + diffY * diffY;
+    if (distance >= getBound()) {
+      return;
+    }
+
+    // Insertion sort, drops the farthest segment if all places are occupied
+    int position = Math.min(mSize, mSegments.length - 1);
+    while (position > 0 && mDistances[position - 1] > distance) {
+      mDistances[position] = mDistances[position - 1];
+      mFractions[position] = mFractions[position - 1];
+      mSegments[position] = mSegments[position - 1];
+      position--;
+    }
+    mDistances[position] = distance;
+    mFractions[position] = fraction;
+    mSegments[position] = segment;
+    mSize = Math.min(mSize + 1, mSegments.length);
+  }
+
+  /**
+   * Gets the amount of segments.
+   *
+   * @return The amount of segments
+   */
+  int size() {
+    return mSize;
+  }
+}
@@ -0,0 +1,368 @@
+package de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import org.eclipse.collections.impl.list.mutable.FastList;
+
+import de.unifreiburg.informatik.cobweb.routing.model.graph.EdgePosition;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.IEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.INode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ISpatial;
+import de.unifreiburg.informatik.cobweb.util.RoutingUtil;
+
+/**
+ * Static, read-only spatial index over the straight line segments of edges
+ * which projects arbitrary coordinates onto the nearest edge.<br>
+ * <br>
+ * The index is a packed R-tree (see
+ * <a href="https://en.wikipedia.org/wiki/R-tree">Wikipedia</a>) that is
+ * bulk-built once using <i>Sort-Tile-Recursive</i> packing and can not be
+ * modified afterwards. Segments and bounding boxes are stored in primitive
+ * <tt>float</tt> arrays, the tree structure is implicit.<br>
+ * <br>
+ * Distances are measured in an equirectangular projection around the latitude
+ * of the query, which is accurate for the short distances relevant for
+ * snapping. Since the index is immutable, queries do not need any
+ * synchronization.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ * @param <N> Type of the node which must offer spatial data
+ * @param <E> Type of the edge
+ */
+public final class SegmentIndex<N extends INode & ISpatial, E extends IEdge<N>> {
+  /**
+   * The maximal amount of children per node of the tree.
+   */
+  private static final int NODE_CAPACITY = 16;
+
+  /**
+   * Gets the squared distance of the given coordinates to the bounding box of
+   * the given node, in the projection of the query.
+   *
+   * @param boxes          The bounding boxes of the level of the node
+   * @param node           The index of the node in its level
+   * @param latitude       The latitude of the query
+   * @param longitude      The longitude of the query
+   * @param longitudeScale The factor to scale longitude differences with
+   * @return The squared distance
+   */
+  private static double boxDistance(final float[] boxes, final int node, final float latitude,
+      final float longitude, final double longitudeScale) {
+    final int offset = 4 * node;
+    final double latitudeDiff = Math.max(0.0, Math.max(boxes[offset] - latitude, latitude - boxes[offset + 2]));
+    final double longitudeDiff =
+        Math.max(0.0, Math.max(boxes[offset + 1] - longitude, longitude - boxes[offset + 3])) * longitudeScale;
+    return latitudeDiff * latitudeDiff + longitudeDiff * longitudeDiff;
+  }
+
+  /**
+   * Sorts the given range of indices ascending by the keys the indices refer
+   * to.
+   *
+   * @param indices The indices to sort
+   * @param from    The first index of the range, inclusive
+   * @param to      The last index of the range, exclusive
+   * @param keys    The keys the indices refer to
+   */
+  private static void sortByKey(final int[] indices, final int from, final int to, final float[] keys) {
+    // Pack key and index into longs, the key is converted such that its bits
+    // sort the same as the float
+    final long[] packed = new long[to - from];
+    for (int i = from; i < to; i++) {
+      final int bits = Float.floatToIntBits(keys[indices[i]]);
+      final int sortableBits = bits ^ ((bits >> 31) & 0x7FFFFFFF);
+      packed[i - from] = ((long) sortableBits << 32) | (indices[i] & 0xFFFFFFFFL);
+    }
+    Arrays.sort(packed);
+    for (int i = from; i < to; i++) {
+      indices[i] = (int) packed[i - from];
+    }
+  }
+
+  /**
+   * The bounding boxes of the nodes per level, starting with the leaves. Each
+   * box consists of minimal latitude, minimal longitude, maximal latitude and
+   * maximal longitude.
+   */
+  private final List<float[]> mBoxes;
+  /**
+   * The latitudes of the destinations of the segments, in tree order.
+   */
+  private final float[] mDestinationLatitudes;
+  /**
+   * The longitudes of the destinations of the segments, in tree order.
+   */
+  private final float[] mDestinationLongitudes;
+  /**
+   * The edges of the segments, in tree order.
+   */
+  private final List<E> mEdges;
+  /**
+   * The latitudes of the sources of the segments, in tree order.
+   */
+  private final float[] mSourceLatitudes;
+  /**
+   * The longitudes of the sources of the segments, in tree order.
+   */
+  private final float[] mSourceLongitudes;
+
+  /**
+   * Builds a new index containing the segments of the given edges. The index
+   * can not be modified afterwards.
+   *
+   * @param edges The edges to build the index of
+   */
+  public SegmentIndex(final Collection<? extends E> edges) {
+    final int size = edges.size();
+    final List<E> unorderedEdges = FastList.newList(edges);
+    final float[] centerLatitudes = new float[size];
+    final float[] centerLongitudes = new float[size];
+    for (int i = 0; i < size; i++) {
+      final E edge = unorderedEdges.get(i);
+      centerLatitudes[i] = (edge.getSource().getLatitude() + edge.getDestination().getLatitude()) / 2;
+      centerLongitudes[i] = (edge.getSource().getLongitude() + edge.getDestination().getLongitude()) / 2;
+    }
+
+    // Sort-Tile-Recursive: sort by longitude into vertical slices, then each
+    // slice by latitude
+    final int[] order = new int[size];
+    for (int i = 0; i < size; i++) {
+      order[i] = i;
+    }
+    SegmentIndex.sortByKey(order, 0, size, centerLongitudes);
+    final int amountOfLeaves = (size + NODE_CAPACITY - 1) / NODE_CAPACITY;
+    final int amountOfSlices = (int) Math.ceil(Math.sqrt(amountOfLeaves));
+    final int sliceSize = Math.max(1, amountOfSlices * NODE_CAPACITY);
+    for (int from = 0; from < size; from += sliceSize) {
+      SegmentIndex.sortByKey(order, from, Math.min(from + sliceSize, size), centerLatitudes);
+    }
+
+    mEdges = FastList.newList(size);
+    mSourceLatitudes = new float[size];
+    mSourceLongitudes = new float[size];
+    mDestinationLatitudes = new float[size];
+    mDestinationLongitudes = new float[size];
+    for (int i = 0; i < size; i++) {
+      final E edge = unorderedEdges.get(order[i]);
+      mEdges.add(edge);
+      mSourceLatitudes[i] = edge.getSource().getLatitude();
+      mSourceLongitudes[i] = edge.getSource().getLongitude();
+      mDestinationLatitudes[i] = edge.getDestination().getLatitude();
+      mDestinationLongitudes[i] = edge.getDestination().getLongitude();
+    }
+
+    mBoxes = FastList.newList();
+    initializeBoxes();
+  }
+
+  /**
+   * Projects the given coordinates onto the nearest edge of the index.
+   *
+   * @param latitude  The latitude to project
+   * @param longitude The longitude to project
+   * @return The position on the nearest edge or empty if the index is empty
+   */
+  public Optional<EdgePosition<N, E>> getNearestEdge(final float latitude, final float longitude) {
+    return getNearestEdge(latitude, longitude, edge -> true);
+  }
+
+  /**
+   * Projects the given coordinates onto the nearest edge of the index which is
+   * accepted by the given filter, for example since it can be used with a
+   * given transportation mode. Rejected edges are skipped while searching, the
+   * search continues until the nearest accepted edge is found.
+   *
+   * @param latitude  The latitude to project
+   * @param longitude The longitude to project
+   * @param filter    The filter edges must be accepted by
+   * @return The position on the nearest accepted edge or empty if the index
+   *         contains no accepted edge
+   */
+  public Optional<EdgePosition<N, E>> getNearestEdge(final float latitude, final float longitude,
+      final Predicate<? super E> filter) {
+    return getNearestEdge(latitude, longitude, Double.POSITIVE_INFINITY, filter);
+  }
+
+  /**
+   * Projects the given coordinates onto the nearest edge of the index which is
+   * accepted by the given filter and within the given distance. Subtrees
+   * farther away than the distance are pruned, the search thus stays cheap even
+   * if accepted edges are rare.
+   *
+   * @param latitude    The latitude to project
+   * @param longitude   The longitude to project
+   * @param maxDistance The maximal distance of the coordinates to the edge, in
+   *                    <tt>metres</tt>
+   * @param filter      The filter edges must be accepted by
+   * @return The position on the nearest accepted edge or empty if the index
+   *         contains no accepted edge within the distance
+   */
+  public Optional<EdgePosition<N, E>> getNearestEdge(final float latitude, final float longitude,
+      final double maxDistance, final Predicate<? super E> filter) {
+    if (size() == 0) {
+      return Optional.empty();
+    }
+
+    final double longitudeScale = Math.cos(Math.toRadians(latitude));
+    final double maxDegrees = RoutingUtil.distanceToDegrees(maxDistance);
+    final SegmentCandidates candidates = new SegmentCandidates(1, maxDegrees * maxDegrees);
+    searchNearest(mBoxes.size() - 1, 0, latitude, longitude, longitudeScale, filter, candidates);
+    if (candidates.size() == 0) {
+      return Optional.empty();
+    }
+    return Optional.of(createPosition(candidates.getSegment(0), candidates.getFraction(0)));
+  }
+
+  /**
+   * Projects the given coordinates onto the nearest edges of the index which
+   * are within the given distance.
+   *
+   * @param latitude    The latitude to project
+   * @param longitude   The longitude to project
+   * @param amount      The maximal amount of edges to get, must be positive
+   * @param maxDistance The maximal distance of the coordinates to the edges,
+   *                    in <tt>metres</tt>
+   * @return The positions on the nearest edges, sorted ascending by their
+   *         distance to the coordinates
+   */
+  public List<EdgePosition<N, E>> getNearestEdges(final float latitude, final float longitude, final int amount,
+      final double maxDistance) {
+    if (size() == 0) {
+      return Collections.emptyList();
+    }
+
+    final double longitudeScale = Math.cos(Math.toRadians(latitude));
+    final double maxDegrees = RoutingUtil.distanceToDegrees(maxDistance);
+    final SegmentCandidates candidates = new SegmentCandidates(amount, maxDegrees * maxDegrees);
+    searchNearest(mBoxes.size() - 1, 0, latitude, longitude, longitudeScale, edge -> true, candidates);
+
+    final List<EdgePosition<N, E>> positions = FastList.newList(candidates.size());
+    for (int i = 0; i < candidates.size(); i++) {
+      positions.add(createPosition(candidates.getSegment(i), candidates.getFraction(i)));
+    }
+    return positions;
+  }
+
+  /**
+   * Gets the amount of segments contained in the index.
+   *
+   * @return The amount of segments
+   */
+  public int size() {
+    return mEdges.size();
+  }
+
+  /**
+   * Creates the position on the given segment.
+   *
+   * @param segment  The index of the segment
+   * @param fraction The fraction of the segment between its source and the
+   *                 position
+   * @return The position on the edge of the segment
+   */
+  private EdgePosition<N, E> createPosition(final int segment, final double fraction) {
+    final float projectedLatitude = (float) (mSourceLatitudes[segment]
+        + fraction * (mDestinationLatitudes[segment] - mSourceLatitudes[segment]));
+    final float projectedLongitude = (float) (mSourceLongitudes[segment]
+        + fraction * (mDestinationLongitudes[segment] - mSourceLongitudes[segment]));
+    return new EdgePosition<>(mEdges.get(segment), fraction, projectedLatitude, projectedLongitude);
+  }
+
+  /**
+   * Initializes the bounding boxes of all levels, starting with the leaves
+   * which group consecutive segments, up to a single root.
+   */
+  private void initializeBoxes() {
+    int amountOfChildren = size();
+    float[] childBoxes = null;
+    do {
+      final int amountOfNodes = Math.max(1, (amountOfChildren + NODE_CAPACITY - 1) / NODE_CAPACITY);
+      final float[] boxes = new float[4 * amountOfNodes];
+      for (int node = 0; node < amountOfNodes; node++) {
+        float minLatitude = Float.POSITIVE_INFINITY;
+        float minLongitude = Float.POSITIVE_INFINITY;
+        float maxLatitude = Float.NEGATIVE_INFINITY;
+        float maxLongitude = Float.NEGATIVE_INFINITY;
+        final int lastChild = Math.min((node + 1) * NODE_CAPACITY, amountOfChildren);
+        for (int child = node * NODE_CAPACITY; child < lastChild; child++) {
+          if (childBoxes == null) {
+            minLatitude = Math.min(minLatitude, Math.min(mSourceLatitudes[child], mDestinationLatitudes[child]));
+            minLongitude = Math.min(minLongitude, Math.min(mSourceLongitudes[child], mDestinationLongitudes[child]));
+            maxLatitude = Math.max(maxLatitude, Math.max(mSourceLatitudes[child], mDestinationLatitudes[child]));
+            maxLongitude = Math.max(maxLongitude, Math.max(mSourceLongitudes[child], mDestinationLongitudes[child]));
+          } else {
+            minLatitude = Math.min(minLatitude, childBoxes[4 * child]);
+            minLongitude = Math.min(minLongitude, childBoxes[4 * child + 1]);
+            maxLatitude = Math.max(maxLatitude, childBoxes[4 * child + 2]);
+            maxLongitude = Math.max(maxLongitude, childBoxes[4 * child + 3]);
+          }
+        }
+        boxes[4 * node] = minLatitude;
+        boxes[4 * node + 1] = minLongitude;
+        boxes[4 * node + 2] = maxLatitude;
+        boxes[4 * node + 3] = maxLongitude;
+      }
+      mBoxes.add(boxes);
+      childBoxes = boxes;
+      amountOfChildren = amountOfNodes;
+    } while (amountOfChildren > 1);
+  }
+
+  /**
+   * Searches the subtree of the given node for the segments nearest to the
+   * given coordinates. Children are visited in ascending distance of their
+   * bounding boxes, subtrees that can not contain a nearer segment are pruned.
+   *
+   * @param level          The level of the node, <tt>0</tt> for leaves
+   * @param node           The index of the node in its level
+   * @param latitude       The latitude of the query
+   * @param longitude      The longitude of the query
+   * @param longitudeScale The factor to scale longitude differences with
+   * @param filter         The filter segments must be accepted by
+   * @param candidates     The nearest segments found so far, will be updated
+   */
+  private void searchNearest(final int level, final int node, final float latitude, final float longitude,
+      final double longitudeScale, final Predicate<? super E> filter, final SegmentCandidates candidates) {
+    final int firstChild = node * NODE_CAPACITY;
+    if (level == 0) {
+      final int lastChild = Math.min(firstChild + NODE_CAPACITY, size());
+      for (int segment = firstChild; segment < lastChild; segment++) {
+        if (!filter.test(mEdges.get(segment))) {
+          continue;
+        }
+        candidates.offer(segment, mSourceLatitudes[segment], mSourceLongitudes[segment],
+            mDestinationLatitudes[segment], mDestinationLongitudes[segment], latitude, longitude, longitudeScale);
+      }
+      return;
+    }
+
+    final float[] childBoxes = mBoxes.get(level - 1);
+    final int amountOfChildren = Math.min(NODE_CAPACITY, childBoxes.length / 4 - firstChild);
+    final int[] children = new int[amountOfChildren];
+    final double[] distances = new double[amountOfChildren];
+    for (int i = 0; i < amountOfChildren; i++) {
+      final double distance = SegmentIndex.boxDistance(childBoxes, firstChild + i, latitude, longitude, longitudeScale);
+      // Insertion sort by distance
+      int position = i;
+      while (position > 0 && distances[position - 1] > distance) {
+        distances[position] = distances[position - 1];
+        children[position] = children[position - 1];
+        position--;
+      }
+      distances[position] = distance;
+      children[position] = firstChild + i;
+    }
+
+    for (int i = 0; i < amountOfChildren; i++) {
+      if (distances[i] >= candidates.getBound()) {
+        return;
+      }
+      searchNearest(level - 1, children[i], latitude, longitude, longitudeScale, filter, candidates);
+    }
+  }
+}
@@ -0,0 +1,122 @@
+package de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath;
+
+import java.util.Iterator;
+
+import de.unifreiburg.informatik.cobweb.routing.model.graph.EdgeCost;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.EdgePosition;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.IEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.INode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.IPath;
+
+/**
+ * Path between two positions in a graph, which may lie on edges instead of
+ * nodes, see {@link EdgePosition}.<br>
+ * <br>
+ * The first and last edge of the path may only be traversed partially, their
+ * cost is the corresponding fraction of the edge cost. Thus, the source of the
+ * first edge and the destination of the last edge are not necessarily part of
+ * the route, use {@link #getSourcePosition()} and
+ * {@link #getDestinationPosition()} instead. If both positions lie on the same
+ * edge, the path may consist of a single, partially traversed, edge. If both
+ * positions are at the same node, the path is empty and {@link #getSource()}
+ * and {@link #getDestination()} are not supported.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ * @param <N> Type of the node
+ * @param <E> Type of the edge
+ */
+public final class PartialEdgePath<N extends INode, E extends IEdge<N>> implements IPath<N, E> {
+  /**
+   * The position the path ends at.
+   */
+  private final EdgePosition<N, E> mDestinationPosition;
+  /**
+   * The edges of the path, including the partially traversed first and last
+   * edge.
+   */
+  private final EdgePath<N, E> mEdges;
+  /**
+   * The position the path starts at.
+   */
+  private final EdgePosition<N, E> mSourcePosition;
+
+  /**
+   * Creates a new path between the given positions.
+   *
+   * @param sourcePosition      The position the path starts at
+   * @param destinationPosition The position the path ends at
+   * @param edges               The edges of the path in order, including the
+   *                            partially traversed first and last edge with
+   *                            their partial cost
+   */
+  public PartialEdgePath(final EdgePosition<N, E> sourcePosition, final EdgePosition<N, E> destinationPosition,
+      final EdgePath<N, E> edges) {
+    mSourcePosition = sourcePosition;
+    mDestinationPosition = destinationPosition;
+    mEdges = edges;
+  }
+
+  /**
+   * Gets the destination of the last edge, which is only traversed partially
+   * if the path ends on an edge.
+   */
+  @Override
+  public N getDestination() {
+    return mEdges.getDestination();
+  }
+
+  /**
+   * Gets the position the path ends at.
+   *
+   * @return The position the path ends at
+   */
+  public EdgePosition<N, E> getDestinationPosition() {
+    return mDestinationPosition;
+  }
+
+  /**
+   * Gets the source of the first edge, which is only traversed partially if
+   * the path starts on an edge.
+   */
+  @Override
+  public N getSource() {
+    return mEdges.getSource();
+  }
+
+  /**
+   * Gets the position the path starts at.
+   *
+   * @return The position the path starts at
+   */
+  public EdgePosition<N, E> getSourcePosition() {
+    return mSourcePosition;
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see de.unifreiburg.informatik.cobweb.routing.model.graph.IPath#
+   * getTotalCost()
+   */
+  @Override
+  public double getTotalCost() {
+    return mEdges.getTotalCost();
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see java.lang.Iterable#iterator()
+   */
+  @Override
+  public Iterator<EdgeCost<N, E>> iterator() {
+    return mEdges.iterator();
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see de.unifreiburg.informatik.cobweb.routing.model.graph.IPath#length()
+   */
+  @Override
+  public int length() {
+    return mEdges.length();
+  }
+}
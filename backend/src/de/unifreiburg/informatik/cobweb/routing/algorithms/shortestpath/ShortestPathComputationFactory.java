@@ -1,9 +1,11 @@
 package de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath;
 
+import java.util.Optional;
 import java.util.Set;
 
 import de.unifreiburg.informatik.cobweb.routing.algorithms.metrics.AsTheCrowFliesMetric;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.metrics.IMetric;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.metrics.PlanarMetric;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.metrics.landmark.ILandmarkProvider;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.metrics.landmark.LandmarkMetric;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.metrics.landmark.RandomLandmarks;
@@ -18,6 +20,8 @@ import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.dijkstra
 import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.hybridmodel.HybridRoadTimetable;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.hybridmodel.IAccessNodeComputation;
 import de.unifreiburg.informatik.cobweb.routing.model.ERoutingModelMode;
+import de.unifreiburg.informatik.cobweb.routing.model.PlanarProjection;
+import de.unifreiburg.informatik.cobweb.routing.model.RoadSnapping;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
@@ -63,6 +67,16 @@ public final class ShortestPathComputationFactory {
    * choose.
    */
   private final ERoutingModelMode mMode;
+  /**
+   * The planar projection of the graph used for the as-the-crow-flies metric,
+   * or <tt>null</tt> if not used.
+   */
+  private final PlanarProjection mProjection;
+  /**
+   * The snapping of coordinates onto the road graph, or <tt>null</tt> if not
+   * used.
+   */
+  private final RoadSnapping mRoadSnapping;
   /**
    * Object to use for retrieving the nearest road node to a given stop, or
    * <tt>null</tt> if not used.
@@ -87,6 +101,12 @@ public final class ShortestPathComputationFactory {
    * @param stopToNearestRoadNode        Object to use for retrieving the
    *                                     nearest road node to a given stop, or
    *                                     <tt>null</tt> if not used.
+   * @param roadSnapping                 The snapping of coordinates onto the
+   *                                     road graph, or <tt>null</tt> if not
+   *                                     used.
+   * @param projection                   The planar projection of the graph
+   *                                     used for the as-the-crow-flies
+   *                                     metric, or <tt>null</tt> if not used
    * @param mode                         The mode to use for the routing model
    * @param abortTravelTimeToAccessNodes The travel time in seconds after which
    *                                     to abort shortest path computation to
@@ -96,12 +116,15 @@ public final class ShortestPathComputationFactory {
    */
   public ShortestPathComputationFactory(final IGraph<ICoreNode, ICoreEdge<ICoreNode>> graph, final Timetable table,
       final IAccessNodeComputation<ICoreNode, ICoreNode> accessNodeComputation,
-      final INearestNeighborComputation<ICoreNode> stopToNearestRoadNode, final ERoutingModelMode mode,
+      final INearestNeighborComputation<ICoreNode> stopToNearestRoadNode,
+      final RoadSnapping roadSnapping, final PlanarProjection projection, final ERoutingModelMode mode,
       final int abortTravelTimeToAccessNodes, final int amountOfLandmarks) {
     mGraph = graph;
     mTable = table;
     mAccessNodeComputation = accessNodeComputation;
     mStopToNearestRoadNode = stopToNearestRoadNode;
+    mRoadSnapping = roadSnapping;
+    mProjection = projection;
     mMode = mode;
     mAbortTravelTimeToAccessNodes = abortTravelTimeToAccessNodes;
     mAmountOfLandmarks = amountOfLandmarks;
@@ -154,12 +177,18 @@ public final class ShortestPathComputationFactory {
 
   /**
    * Creates an instance of the A-star algorithm using the as-the-crow-flies
-   * metric.
+   * metric. The metric is computed on the planar projection of the graph, if
+   * available, see {@link PlanarMetric}.
    *
    * @return The created algorithm
    */
   public IShortestPathComputation<ICoreNode, ICoreEdge<ICoreNode>> createAlgorithmAStarAsTheCrowFlies() {
-    final IMetric<ICoreNode> metric = new AsTheCrowFliesMetric<>();
+    final IMetric<ICoreNode> metric;
+    if (mProjection != null) {
+      metric = new PlanarMetric<>(mProjection);
+    } else {
+      metric = new AsTheCrowFliesMetric<>();
+    }
     return ModuleDijkstra.of(mGraph, AStarModule.of(metric));
   }
 
@@ -181,6 +210,36 @@ public final class ShortestPathComputationFactory {
     return new Dijkstra<>(mGraph);
   }
 
+  /**
+   * Creates a shortest path algorithm which respects the given departure time
+   * and transportation mode restrictions and supports positions on edges as
+   * source and destination, see {@link Dijkstra}.<br>
+   * <br>
+   * Not available for the hybrid approach connecting road and timetable
+   * models if trams are allowed, since the transit part of the route is
+   * computed on the timetable which only knows nodes.
+   *
+   * @param depTime The departure time in milliseconds since epoch
+   * @param modes   The transportation mode restrictions
+   * @return A shortest path algorithm with the given constraints or empty if
+   *         not available
+   */
+  public Optional<Dijkstra<ICoreNode, ICoreEdge<ICoreNode>>> createAlgorithmEdgePositions(final long depTime,
+      final Set<ETransportationMode> modes) {
+    switch (mMode) {
+      case GRAPH_WITH_TIMETABLE:
+        if (modes.contains(ETransportationMode.TRAM)) {
+          return Optional.empty();
+        }
+        return Optional.of(ModuleDijkstra.of(mGraph, AStarModule.of(mMetric), MultiModalModule.of(modes)));
+      case LINK_GRAPH:
+        return Optional.of(ModuleDijkstra.of(mGraph, AStarModule.of(mMetric), TransitModule.of(depTime),
+            MultiModalModule.of(modes)));
+      default:
+        throw new AssertionError();
+    }
+  }
+
   /**
    * Creates an instance of an algorithm for a hybrid approach connecting road
    * and timetable models.
@@ -229,6 +288,26 @@ public final class ShortestPathComputationFactory {
     return mAccessNodeComputation;
   }
 
+  /**
+   * Gets the metric used by this factory for the {@link AStarModule} module.
+   * Only available after {@link #initialize()}.
+   *
+   * @return The metric used by this factory
+   */
+  public IMetric<ICoreNode> getMetric() {
+    return mMetric;
+  }
+
+  /**
+   * Gets the snapping used by this factory to snap coordinates onto the road
+   * graph.
+   *
+   * @return The snapping used by this factory, or <tt>null</tt> if not used
+   */
+  public RoadSnapping getRoadSnapping() {
+    return mRoadSnapping;
+  }
+
   /**
    * Gets the object used by this factory for retrieving the nearest road node
    * to a given stop.
@@ -245,7 +324,17 @@ public final class ShortestPathComputationFactory {
    */
   public void initialize() {
     final ILandmarkProvider<ICoreNode> landmarkProvider = new RandomLandmarks<>(mGraph);
-    mMetric = new LandmarkMetric<>(mAmountOfLandmarks, mGraph, landmarkProvider);
+    initialize(new LandmarkMetric<>(mAmountOfLandmarks, mGraph, landmarkProvider));
+  }
+
+  /**
+   * Initializes the factory using the given, already computed, metric instead
+   * of computing landmarks. Can be used instead of {@link #initialize()}.
+   *
+   * @param metric The metric to use for the {@link AStarModule} module
+   */
+  public void initialize(final IMetric<ICoreNode> metric) {
+    mMetric = metric;
     mBaseComputation = ModuleDijkstra.of(mGraph, AStarModule.of(mMetric));
   }
 }
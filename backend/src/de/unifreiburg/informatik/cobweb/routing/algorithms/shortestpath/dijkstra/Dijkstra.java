@@ -1,8 +1,11 @@
 package de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.dijkstra;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.PriorityQueue;
 import java.util.stream.Stream;
@@ -11,6 +14,9 @@ import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.AShortes
 import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.EdgePath;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.EmptyPath;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.IHasPathCost;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.PartialEdgePath;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.EdgeCost;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.EdgePosition;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.IEdge;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.IGraph;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.INode;
@@ -26,7 +32,12 @@ import de.unifreiburg.informatik.cobweb.routing.model.graph.IPath;
  * <br>
  * Subclasses can override {@link #considerEdgeForRelaxation(IEdge, INode)} and
  * {@link #getEstimatedDistance(INode, INode)} to speedup the algorithm by
- * giving it a sense of goal direction or exploiting precomputed knowledge.
+ * giving it a sense of goal direction or exploiting precomputed knowledge.<br>
+ * <br>
+ * Besides nodes, the algorithm also supports positions on edges as source and
+ * destination, see
+ * {@link #computeShortestPath(EdgePosition, EdgePosition)}. The nodes of such
+ * an edge are then seeded with the corresponding fraction of the edge cost.
  *
  * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
  * @param <N> Type of the node
@@ -80,25 +91,96 @@ public class Dijkstra<N extends INode, E extends IEdge<N>> extends AShortestPath
       return Optional.of(new EmptyPath<>(destination));
     }
 
-    // Build the path reversely by following the pointers from the destination
-    // to one of the sources
-    final EdgePath<N, E> path = new EdgePath<>(true);
-    TentativeDistance<N, E> currentDistanceContainer = destinationDistance;
-    E currentEdge = parentEdge;
-    while (currentEdge != null) {
-      // Add the edge
-      final double distance = currentDistanceContainer.getTentativeDistance();
-      final N parent = currentEdge.getSource();
-      final TentativeDistance<N, E> parentDistanceContainer = nodeToDistance.get(parent);
-      final double parentDistance = parentDistanceContainer.getTentativeDistance();
+    return Optional.of(buildPath(nodeToDistance, destinationDistance));
+  }
 
-      path.addEdge(currentEdge, distance - parentDistance);
+  /**
+   * Computes the shortest path between the given positions, which may lie on
+   * edges instead of nodes.<br>
+   * <br>
+   * A position on an edge is left along the edge to its destination or, if the
+   * graph contains the reversed edge, to its source. Both nodes are seeded with
+   * the corresponding fraction of the edge cost. Likewise, a destination
+   * position on an edge is reached from the nodes of its edge, paying the
+   * corresponding fraction. If both positions lie on the same edge, or on an
+   * edge and its reversed edge, the direct way along the edge is considered
+   * too. The estimate of subclasses is respected for all destination nodes,
+   * thus the method also works with A-star and ALT.
+   *
+   * @param source      The position to start at
+   * @param destination The position to end at
+   * @return The shortest path between the positions, including the partially
+   *         traversed edges, or empty if there is no path
+   */
+  public Optional<PartialEdgePath<N, E>> computeShortestPath(final EdgePosition<N, E> source,
+      final EdgePosition<N, E> destination) {
+    final Map<N, EdgeCost<N, E>> sourceLegs = new HashMap<>(2);
+    final Map<N, Double> sourceCosts = new LinkedHashMap<>(2);
+    if (source.isAtNode()) {
+      sourceCosts.put(source.getNode(), 0.0);
+    } else {
+      // Leave the position along the edge or along its reversed edge
+      final E edge = source.getEdge();
+      addLeg(edge.getDestination(), edge, 1.0 - source.getFraction(), sourceLegs, sourceCosts);
+      getReversedEdge(edge)
+          .ifPresent(reversed -> addLeg(edge.getSource(), reversed, source.getFraction(), sourceLegs, sourceCosts));
+    }
 
-      // Prepare next round
-      currentEdge = parentDistanceContainer.getParentEdge();
-      currentDistanceContainer = parentDistanceContainer;
+    final Map<N, EdgeCost<N, E>> destinationLegs = new HashMap<>(2);
+    final Map<N, Double> destinationCosts = new LinkedHashMap<>(2);
+    if (destination.isAtNode()) {
+      destinationCosts.put(destination.getNode(), 0.0);
+    } else {
+      // Enter the position along the edge or along its reversed edge
+      final E edge = destination.getEdge();
+      addLeg(edge.getSource(), edge, destination.getFraction(), destinationLegs, destinationCosts);
+      getReversedEdge(edge).ifPresent(reversed -> addLeg(edge.getDestination(), reversed,
+          1.0 - destination.getFraction(), destinationLegs, destinationCosts));
     }
-    return Optional.of(path);
+
+    // Find the destination node with the cheapest total cost
+    TentativeDistance<N, E> bestDistance = null;
+    double bestCost = Double.POSITIVE_INFINITY;
+    if (!sourceCosts.isEmpty() && !destinationCosts.isEmpty()) {
+      final Map<N, TentativeDistance<N, E>> nodeToDistance =
+          computeShortestPathCostHelper(sourceCosts, destinationCosts);
+      for (final Entry<N, Double> destinationCost : destinationCosts.entrySet()) {
+        final TentativeDistance<N, E> distance = nodeToDistance.get(destinationCost.getKey());
+        if (distance != null && distance.getTentativeDistance() + destinationCost.getValue() < bestCost) {
+          bestDistance = distance;
+          bestCost = distance.getTentativeDistance() + destinationCost.getValue();
+        }
+      }
+
+      if (bestDistance != null) {
+        final Optional<EdgeCost<N, E>> directLeg = computeDirectLeg(source, destination);
+        if (!directLeg.isPresent() || directLeg.get().getCost() > bestCost) {
+          // Assemble the path out of the legs and the path between the nodes
+          final EdgePath<N, E> nodePath = buildPath(nodeToDistance, bestDistance);
+          N sourceNode = bestDistance.getNode();
+          if (nodePath.length() > 0) {
+            sourceNode = nodePath.getSource();
+          }
+          final EdgePath<N, E> path = new EdgePath<>();
+          final EdgeCost<N, E> sourceLeg = sourceLegs.get(sourceNode);
+          if (sourceLeg != null) {
+            path.addEdge(sourceLeg.getEdge(), sourceLeg.getCost());
+          }
+          nodePath.forEach(edgeCost -> path.addEdge(edgeCost.getEdge(), edgeCost.getCost()));
+          final EdgeCost<N, E> destinationLeg = destinationLegs.get(bestDistance.getNode());
+          if (destinationLeg != null) {
+            path.addEdge(destinationLeg.getEdge(), destinationLeg.getCost());
+          }
+          return Optional.of(new PartialEdgePath<>(source, destination, path));
+        }
+      }
+    }
+
+    return computeDirectLeg(source, destination).map(directLeg -> {
+      final EdgePath<N, E> path = new EdgePath<>();
+      path.addEdge(directLeg.getEdge(), directLeg.getCost());
+      return new PartialEdgePath<>(source, destination, path);
+    });
   }
 
   /*
@@ -127,9 +209,11 @@ public class Dijkstra<N extends INode, E extends IEdge<N>> extends AShortestPath
   /**
    * Creates a tentative distance container for the given node.<br>
    * <br>
-   * If the <tt>pathDestination</tt> is not <tt>null</tt> the container will
-   * also include an estimated distance from the node to the destination. This
-   * is computed using {@link #getEstimatedDistance(INode, INode)}.
+   * If the <tt>destinationCosts</tt> are not <tt>null</tt> the container will
+   * also include an estimated distance from the node to the destinations. This
+   * is the minimum over all destinations of the estimate computed using
+   * {@link #getEstimatedDistance(INode, INode)} plus the final cost of the
+   * destination.
    *
    * @param node              The node to create the container for
    * @param parentEdge        The parent edge that lead to that node, used for
@@ -137,17 +221,22 @@ public class Dijkstra<N extends INode, E extends IEdge<N>> extends AShortestPath
    * @param tentativeDistance The tentative distance from the source to that
    *                          node, i.e. the total cost of backtracking the
    *                          given parent edges to the source
-   * @param pathDestination   The destination of the shortest path computation
-   *                          or <tt>null</tt> if not present
+   * @param destinationCosts  The destinations of the shortest path computation
+   *                          together with their final costs or <tt>null</tt>
+   *                          if not present
    * @return A tentative distance container for the given node
    */
   private TentativeDistance<N, E> createDistance(final N node, final E parentEdge, final double tentativeDistance,
-      final N pathDestination) {
-    if (pathDestination == null) {
+      final Map<N, Double> destinationCosts) {
+    if (destinationCosts == null) {
       return new TentativeDistance<>(node, parentEdge, tentativeDistance);
     }
 
-    final double estimatedDistance = getEstimatedDistance(node, pathDestination);
+    double estimatedDistance = Double.POSITIVE_INFINITY;
+    for (final Entry<N, Double> destinationCost : destinationCosts.entrySet()) {
+      estimatedDistance = Math.min(estimatedDistance,
+          getEstimatedDistance(node, destinationCost.getKey()) + destinationCost.getValue());
+    }
     return new TentativeDistance<>(node, parentEdge, tentativeDistance, estimatedDistance);
   }
 
@@ -168,29 +257,181 @@ public class Dijkstra<N extends INode, E extends IEdge<N>> extends AShortestPath
    */
   protected Map<N, TentativeDistance<N, E>> computeShortestPathCostHelper(final Collection<N> sources,
       final N pathDestination) {
+    final Map<N, Double> sourceCosts = new LinkedHashMap<>(sources.size());
+    for (final N source : sources) {
+      sourceCosts.put(source, 0.0);
+    }
+    Map<N, Double> destinationCosts = null;
+    if (pathDestination != null) {
+      destinationCosts = Collections.singletonMap(pathDestination, 0.0);
+    }
+    return computeShortestPathCostHelper(sourceCosts, destinationCosts);
+  }
+
+  /**
+   * Adds a leg between a position on an edge and a node of the edge. The leg
+   * is not added if the edge should not be considered for relaxation or if the
+   * node already has a cheaper leg. A position that coincides with the node is
+   * added without a leg.
+   *
+   * @param node     The node of the edge the leg connects to
+   * @param edge     The edge the leg runs along
+   * @param fraction The fraction of the edge covered by the leg
+   * @param legs     The legs by node to add the leg to
+   * @param costs    The costs of the legs by node to add the cost to
+   */
+  private void addLeg(final N node, final E edge, final double fraction, final Map<N, EdgeCost<N, E>> legs,
+      final Map<N, Double> costs) {
+    if (fraction == 0.0) {
+      legs.remove(node);
+      costs.put(node, 0.0);
+      return;
+    }
+    if (!considerEdgeForRelaxation(edge, null)) {
+      return;
+    }
+    final double cost = fraction * provideEdgeCost(edge, 0.0);
+    final Double previousCost = costs.get(node);
+    if (previousCost != null && previousCost <= cost) {
+      return;
+    }
+    legs.put(node, new EdgeCost<>(edge, cost));
+    costs.put(node, cost);
+  }
+
+  /**
+   * Builds the shortest path to the given destination by following the parent
+   * edges back to one of the sources.
+   *
+   * @param nodeToDistance      The tentative distance containers of all
+   *                            settled nodes
+   * @param destinationDistance The container of the destination
+   * @return The path from one of the sources to the destination, empty if the
+   *         destination is a source
+   */
+  private EdgePath<N, E> buildPath(final Map<N, TentativeDistance<N, E>> nodeToDistance,
+      final TentativeDistance<N, E> destinationDistance) {
+    // Build the path reversely by following the pointers from the destination
+    // to one of the sources
+    final EdgePath<N, E> path = new EdgePath<>(true);
+    TentativeDistance<N, E> currentDistanceContainer = destinationDistance;
+    E currentEdge = destinationDistance.getParentEdge();
+    while (currentEdge != null) {
+      // Add the edge
+      final double distance = currentDistanceContainer.getTentativeDistance();
+      final N parent = currentEdge.getSource();
+      final TentativeDistance<N, E> parentDistanceContainer = nodeToDistance.get(parent);
+      final double parentDistance = parentDistanceContainer.getTentativeDistance();
+
+      path.addEdge(currentEdge, distance - parentDistance);
+
+      // Prepare next round
+      currentEdge = parentDistanceContainer.getParentEdge();
+      currentDistanceContainer = parentDistanceContainer;
+    }
+    return path;
+  }
+
+  /**
+   * Computes the leg directly connecting the given positions along a single
+   * edge, without visiting any node. Only possible if both positions lie on
+   * the same edge, or on an edge and its reversed edge.
+   *
+   * @param source      The position to start at
+   * @param destination The position to end at
+   * @return The partially traversed edge with its cost or empty if the
+   *         positions are not directly connected
+   */
+  private Optional<EdgeCost<N, E>> computeDirectLeg(final EdgePosition<N, E> source,
+      final EdgePosition<N, E> destination) {
+    if (source.isAtNode() || destination.isAtNode()) {
+      return Optional.empty();
+    }
+    final E edge = source.getEdge();
+    final E destinationEdge = destination.getEdge();
+    // Fraction of the destination relative to the edge of the source
+    final double destinationFraction;
+    if (destinationEdge.equals(edge)) {
+      destinationFraction = destination.getFraction();
+    } else if (destinationEdge.getSource().equals(edge.getDestination())
+        && destinationEdge.getDestination().equals(edge.getSource())) {
+      destinationFraction = 1.0 - destination.getFraction();
+    } else {
+      return Optional.empty();
+    }
+
+    final double sourceFraction = source.getFraction();
+    if (destinationFraction >= sourceFraction) {
+      if (!considerEdgeForRelaxation(edge, null)) {
+        return Optional.empty();
+      }
+      return Optional.of(new EdgeCost<>(edge, (destinationFraction - sourceFraction) * provideEdgeCost(edge, 0.0)));
+    }
+    return getReversedEdge(edge).filter(reversed -> considerEdgeForRelaxation(reversed, null))
+        .map(reversed -> new EdgeCost<>(reversed,
+            (sourceFraction - destinationFraction) * provideEdgeCost(reversed, 0.0)));
+  }
+
+  /**
+   * Computes the shortest path from the given sources to the given
+   * destinations and to all other nodes that were visited in the mean
+   * time.<br>
+   * <br>
+   * Sources start with the given initial costs. Destinations are reached by
+   * paying the given final costs, the computation stops once no path can
+   * improve the cheapest destination anymore. The estimate towards multiple
+   * destinations is the minimum of the estimates to each of them, plus its
+   * final cost. If the destinations are <tt>null</tt> the shortest paths to
+   * all nodes in the graph are computed.
+   *
+   * @param sourceCosts      The sources to compute the shortest path from,
+   *                         together with their initial costs
+   * @param destinationCosts The destinations to compute the shortest path to,
+   *                         together with their final costs, or <tt>null</tt>
+   *                         if not present
+   * @return A map connecting all visited nodes to their tentative distance
+   *         container. The container represent the shortest path from the
+   *         sources to that given node as destination.
+   */
+  private Map<N, TentativeDistance<N, E>> computeShortestPathCostHelper(final Map<N, Double> sourceCosts,
+      final Map<N, Double> destinationCosts) {
     // TODO Evaluate if maps should be exchanged against IdMap if Dijkstra is
     // about to settle all reachable nodes. Note that node IDs may have gaps
     // since the set of reachable nodes is in general not equal to all nodes of
     // the graph.
-    final Map<N, TentativeDistance<N, E>> nodeToDistance = new HashMap<>(sources.size());
-    final Map<N, TentativeDistance<N, E>> nodeToSettledDistance = new HashMap<>(sources.size());
-    final PriorityQueue<TentativeDistance<N, E>> activeNodes = new PriorityQueue<>(sources.size());
+    final Map<N, TentativeDistance<N, E>> nodeToDistance = new HashMap<>(sourceCosts.size());
+    final Map<N, TentativeDistance<N, E>> nodeToSettledDistance = new HashMap<>(sourceCosts.size());
+    final PriorityQueue<TentativeDistance<N, E>> activeNodes = new PriorityQueue<>(sourceCosts.size());
+    // Modules only know a single destination
+    N pathDestination = null;
+    if (destinationCosts != null && destinationCosts.size() == 1) {
+      pathDestination = destinationCosts.keySet().iterator().next();
+    }
 
     // Sources are initial active nodes
-    for (final N source : sources) {
+    for (final Entry<N, Double> sourceCost : sourceCosts.entrySet()) {
       // Create a container for the node
-      final TentativeDistance<N, E> distance = createDistance(source, null, 0.0, pathDestination);
+      final TentativeDistance<N, E> distance =
+          createDistance(sourceCost.getKey(), null, sourceCost.getValue(), destinationCosts);
       // Put the distance as active node
-      nodeToDistance.put(source, distance);
+      nodeToDistance.put(sourceCost.getKey(), distance);
       activeNodes.add(distance);
     }
 
     // Poll and settle all active nodes
+    double bestDestinationCost = Double.POSITIVE_INFINITY;
+    int amountOfSettledDestinations = 0;
     while (!activeNodes.isEmpty()) {
       final TentativeDistance<N, E> distance = activeNodes.poll();
       final N node = distance.getNode();
       final double tentativeDistance = distance.getTentativeDistance();
 
+      // End the algorithm if no remaining path can improve the cheapest
+      // destination
+      if (tentativeDistance + distance.getEstimatedDistance() >= bestDestinationCost) {
+        break;
+      }
+
       // Skip the element if the node was already settled before. In that case
       // there was a better path to this node around and this path was
       // abandoned.
@@ -201,16 +442,26 @@ public class Dijkstra<N extends INode, E extends IEdge<N>> extends AShortestPath
       // Settle the current node
       nodeToSettledDistance.put(node, distance);
 
-      // End the algorithm if destination was settled or a subclass
+      if (destinationCosts != null) {
+        final Double destinationCost = destinationCosts.get(node);
+        if (destinationCost != null) {
+          bestDestinationCost = Math.min(bestDestinationCost, tentativeDistance + destinationCost);
+          amountOfSettledDestinations++;
+        }
+      }
+
+      // End the algorithm if all destinations were settled or a subclass
       // implementation demands it
-      if ((pathDestination != null && node.equals(pathDestination)) || shouldAbort(distance)) {
+      if ((destinationCosts != null && amountOfSettledDestinations == destinationCosts.size())
+          || shouldAbort(distance)) {
         break;
       }
 
       // Relax all outgoing edges
+      final N edgeDestinationFilter = pathDestination;
       provideEdgesToRelax(distance).forEach(edge -> {
         // Skip the edge if it should not be considered
-        if (!considerEdgeForRelaxation(edge, pathDestination)) {
+        if (!considerEdgeForRelaxation(edge, edgeDestinationFilter)) {
           return;
         }
 
@@ -221,7 +472,7 @@ public class Dijkstra<N extends INode, E extends IEdge<N>> extends AShortestPath
         TentativeDistance<N, E> destinationDistance = nodeToDistance.get(destination);
         if (destinationDistance == null) {
           // Create a container for the destination
-          destinationDistance = createDistance(destination, edge, tentativeEdgeDistance, pathDestination);
+          destinationDistance = createDistance(destination, edge, tentativeEdgeDistance, destinationCosts);
 
           // Put the distance as active node
           nodeToDistance.put(destination, destinationDistance);
@@ -245,7 +496,7 @@ public class Dijkstra<N extends INode, E extends IEdge<N>> extends AShortestPath
 
         // Improve the distance by replacing the old container with a new one
         // representing the path taken by this edge
-        destinationDistance = createDistance(destination, edge, tentativeEdgeDistance, pathDestination);
+        destinationDistance = createDistance(destination, edge, tentativeEdgeDistance, destinationCosts);
         // Replace the old distance by the new one and set as active
         nodeToDistance.put(destination, destinationDistance);
         activeNodes.add(destinationDistance);
@@ -255,6 +506,19 @@ public class Dijkstra<N extends INode, E extends IEdge<N>> extends AShortestPath
     return nodeToSettledDistance;
   }
 
+  /**
+   * Gets the reversed edge of the given edge, i.e. the edge of the graph that
+   * connects the same nodes in the opposite direction.
+   *
+   * @param edge The edge to get the reversed edge of
+   * @return The reversed edge or empty if the graph contains none
+   */
+  private Optional<E> getReversedEdge(final E edge) {
+    final N source = edge.getSource();
+    return mGraph.getOutgoingEdges(edge.getDestination()).filter(candidate -> candidate.getDestination().equals(source))
+        .findFirst();
+  }
+
   /**
    * Whether or not the given edge should be considered for relaxation. The
    * algorithm will ignore the edge and not follow it if this method returns
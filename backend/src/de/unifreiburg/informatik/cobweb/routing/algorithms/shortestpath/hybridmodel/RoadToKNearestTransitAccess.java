@@ -3,9 +3,8 @@ package de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.hybridm
 import java.util.Collection;
 import java.util.Collections;
 
-import de.unifreiburg.informatik.cobweb.routing.algorithms.metrics.AsTheCrowFliesMetric;
-import de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.CoverTree;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.INearestNeighborComputation;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.KdTree;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.road.IRoadNode;
 import de.unifreiburg.informatik.cobweb.routing.model.timetable.Stop;
@@ -18,19 +17,6 @@ import de.unifreiburg.informatik.cobweb.routing.model.timetable.Timetable;
  * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
  */
 public class RoadToKNearestTransitAccess implements IAccessNodeComputation<ICoreNode, ICoreNode> {
-  /**
-   * Creates a data-structure for fast computation of nearest stops based on the
-   * stops contained in the given timetable.
-   *
-   * @param table The timetable containing the stops to consider
-   * @return The constructed data-structure for fast nearest stop computation
-   */
-  private static INearestNeighborComputation<Stop> createNearestStopComputation(final Timetable table) {
-    final CoverTree<Stop> nearestStopComputation = new CoverTree<>(new AsTheCrowFliesMetric<>());
-    table.getStops().forEach(nearestStopComputation::insert);
-    return nearestStopComputation;
-  }
-
   /**
    * The maximal amount of access nodes to search.
    */
@@ -42,14 +28,32 @@ public class RoadToKNearestTransitAccess implements IAccessNodeComputation<ICore
 
   /**
    * Creates a new translation that translates to the stops contained in the
-   * given timetable.
+   * given nearest stop computation. The computation is shared, it can for
+   * example be obtained from a
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.SpatialIndexRegistry}.
+   *
+   * @param nearestStopComputation The data-structure to use for fast nearest
+   *                               stop computation, containing the stops to
+   *                               consider
+   * @param amount                 The maximal amount of access nodes to search
+   */
+  public RoadToKNearestTransitAccess(final INearestNeighborComputation<Stop> nearestStopComputation,
+      final int amount) {
+    mNearestStopComputation = nearestStopComputation;
+    mAmount = amount;
+  }
+
+  /**
+   * Creates a new translation that translates to the stops contained in the
+   * given timetable. Builds its own data-structure for nearest stop
+   * computation, consider sharing one instead, see
+   * {@link #RoadToKNearestTransitAccess(INearestNeighborComputation, int)}.
    *
    * @param table  The timetable that contains the stops to consider
    * @param amount The maximal amount of access nodes to search
    */
   public RoadToKNearestTransitAccess(final Timetable table, final int amount) {
-    mNearestStopComputation = RoadToKNearestTransitAccess.createNearestStopComputation(table);
-    mAmount = amount;
+    this(new KdTree<>(table.getStops()), amount);
   }
 
   @Override
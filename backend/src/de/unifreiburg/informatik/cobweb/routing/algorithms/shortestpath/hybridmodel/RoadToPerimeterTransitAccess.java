@@ -3,9 +3,8 @@ package de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.hybridm
 import java.util.Collection;
 import java.util.Collections;
 
-import de.unifreiburg.informatik.cobweb.routing.algorithms.metrics.AsTheCrowFliesMetric;
-import de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.CoverTree;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.INearestNeighborComputation;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.KdTree;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.road.IRoadNode;
 import de.unifreiburg.informatik.cobweb.routing.model.timetable.Stop;
@@ -19,19 +18,6 @@ import de.unifreiburg.informatik.cobweb.util.RoutingUtil;
  * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
  */
 public class RoadToPerimeterTransitAccess implements IAccessNodeComputation<ICoreNode, ICoreNode> {
-  /**
-   * Creates a data-structure for fast computation of nearest stops based on the
-   * stops contained in the given timetable.
-   *
-   * @param table The timetable containing the stops to consider
-   * @return The constructed data-structure for fast nearest stop computation
-   */
-  private static INearestNeighborComputation<Stop> createNearestStopComputation(final Timetable table) {
-    final CoverTree<Stop> nearestStopComputation = new CoverTree<>(new AsTheCrowFliesMetric<>());
-    table.getStops().forEach(nearestStopComputation::insert);
-    return nearestStopComputation;
-  }
-
   /**
    * The data-structure to use for fast nearest stop computation.
    */
@@ -44,18 +30,37 @@ public class RoadToPerimeterTransitAccess implements IAccessNodeComputation<ICor
 
   /**
    * Creates a new translation that translates to the stops contained in the
-   * given timetable.
+   * given nearest stop computation. The computation is shared, it can for
+   * example be obtained from a
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.SpatialIndexRegistry}.
    *
-   * @param table The timetable that contains the stops to consider
-   * @param range The range to search access nodes in, in metres
+   * @param nearestStopComputation The data-structure to use for fast nearest
+   *                               stop computation, containing the stops to
+   *                               consider
+   * @param range                  The range to search access nodes in, in
+   *                               metres
    */
-  public RoadToPerimeterTransitAccess(final Timetable table, final int range) {
-    mNearestStopComputation = RoadToPerimeterTransitAccess.createNearestStopComputation(table);
+  public RoadToPerimeterTransitAccess(final INearestNeighborComputation<Stop> nearestStopComputation,
+      final int range) {
+    mNearestStopComputation = nearestStopComputation;
 
     final double maximalSpeed = RoutingUtil.maximalRoadSpeed();
     mRangeInTravelTime = RoutingUtil.travelTime(range, maximalSpeed);
   }
 
+  /**
+   * Creates a new translation that translates to the stops contained in the
+   * given timetable. Builds its own data-structure for nearest stop
+   * computation, consider sharing one instead, see
+   * {@link #RoadToPerimeterTransitAccess(INearestNeighborComputation, int)}.
+   *
+   * @param table The timetable that contains the stops to consider
+   * @param range The range to search access nodes in, in metres
+   */
+  public RoadToPerimeterTransitAccess(final Timetable table, final int range) {
+    this(new KdTree<>(table.getStops()), range);
+  }
+
   @Override
   public Collection<ICoreNode> computeAccessNodes(final ICoreNode element) {
     if (!(element instanceof IRoadNode)) {
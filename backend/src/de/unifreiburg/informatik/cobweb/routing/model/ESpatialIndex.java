@@ -0,0 +1,19 @@
+package de.unifreiburg.informatik.cobweb.routing.model;
+
+/**
+ * Spatial indices managed by a {@link SpatialIndexRegistry}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public enum ESpatialIndex {
+  /**
+   * Index over all nodes of the road graph, used for computing nearest road
+   * nodes.
+   */
+  ROAD_NODES,
+  /**
+   * Index over all stops of the timetable, used for computing access nodes of
+   * the transit network.
+   */
+  TRANSIT_STOPS
+}
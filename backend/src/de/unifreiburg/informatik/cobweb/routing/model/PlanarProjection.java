@@ -0,0 +1,152 @@
+package de.unifreiburg.informatik.cobweb.routing.model;
+
+import java.util.stream.Stream;
+
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ISpatial;
+import de.unifreiburg.informatik.cobweb.util.RoutingUtil;
+
+/**
+ * Projection of coordinates onto a plane, measured in <tt>metres</tt>, such
+ * that distances can be computed with plain Euclidean math instead of
+ * trigonometry.<br>
+ * <br>
+ * The projection is equirectangular with one fixed scale for longitudes which
+ * is computed once for the whole model, see {@link #of(Stream)}. The
+ * scale is the cosine of the greatest absolute latitude of the model, which is
+ * the smallest scale any pair of positions of the model has in
+ * {@link RoutingUtil#distanceEquiRect(ISpatial, ISpatial)}. Projected
+ * distances thus never exceed the equirectangular distance of positions within
+ * the model, heuristics based on them stay <i>admissible</i>. Since the
+ * projected distance is Euclidean, it also fulfills the triangle inequality
+ * and heuristics stay <i>monotone</i>.<br>
+ * <br>
+ * Projecting a coordinate only consists of a multiplication, the projection
+ * thus does not store projected coordinates but computes them on demand from
+ * the coordinates the objects already carry. The class is immutable and
+ * thread-safe.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class PlanarProjection {
+  /**
+   * Creates a projection for the given objects, for example all nodes of a
+   * graph. The projected distance of any two of the objects does not exceed
+   * their equirectangular distance.
+   *
+   * @param objects The objects to create the projection for
+   * @return The created projection
+   */
+  public static PlanarProjection of(final Stream<? extends ISpatial> objects) {
+    final double maxAbsoluteLatitude =
+        objects.mapToDouble(object -> Math.abs(object.getLatitude())).max().orElse(0.0);
+    return new PlanarProjection((float) maxAbsoluteLatitude);
+  }
+
+  /**
+   * Factor to multiply latitudes with to get the projected y coordinate, in
+   * <tt>metres per degree</tt>.
+   */
+  private final double mLatitudeFactor;
+  /**
+   * Factor to multiply longitudes with to get the projected x coordinate, in
+   * <tt>metres per degree</tt>.
+   */
+  private final double mLongitudeFactor;
+  /**
+   * The greatest absolute latitude the scale of longitudes was computed for.
+   */
+  private final float mMaxAbsoluteLatitude;
+
+  /**
+   * Creates a new projection which scales longitudes for the given latitude.
+   *
+   * @param maxAbsoluteLatitude The greatest absolute latitude of all positions
+   *                            the projection is used for, in degrees
+   */
+  public PlanarProjection(final float maxAbsoluteLatitude) {
+    mMaxAbsoluteLatitude = maxAbsoluteLatitude;
+    mLatitudeFactor = RoutingUtil.degreesToDistance(1.0);
+    mLongitudeFactor = mLatitudeFactor * Math.cos(RoutingUtil.degToRad(maxAbsoluteLatitude));
+  }
+
+  /**
+   * Computes the projected distance between the given objects.
+   *
+   * @param first  The first object
+   * @param second The second object
+   * @return The projected distance in <tt>metres</tt>
+   */
+  public double distance(final ISpatial first, final ISpatial second) {
+    return Math.sqrt(squaredDistance(first, second));
+  }
+
+  /**
+   * Gets the greatest absolute latitude the scale of longitudes was computed
+   * for.
+   *
+   * @return The latitude in degrees
+   */
+  public float getMaxAbsoluteLatitude() {
+    return mMaxAbsoluteLatitude;
+  }
+
+  /**
+   * Gets the projected x coordinate of the given longitude.
+   *
+   * @param longitude The longitude to project, in degrees
+   * @return The x coordinate in <tt>metres</tt>
+   */
+  public double getX(final float longitude) {
+    return longitude * mLongitudeFactor;
+  }
+
+  /**
+   * Gets the projected y coordinate of the given latitude.
+   *
+   * @param latitude The latitude to project, in degrees
+   * @return The y coordinate in <tt>metres</tt>
+   */
+  public double getY(final float latitude) {
+    return latitude * mLatitudeFactor;
+  }
+
+  /**
+   * Computes the squared projected distance between the given coordinates.
+   * Can be used instead of {@link #distance(ISpatial, ISpatial)} if distances
+   * are only compared.
+   *
+   * @param firstLatitude   The latitude of the first position, in degrees
+   * @param firstLongitude  The longitude of the first position, in degrees
+   * @param secondLatitude  The latitude of the second position, in degrees
+   * @param secondLongitude The longitude of the second position, in degrees
+   * @return The squared projected distance in <tt>square metres</tt>
+   */
+  public double squaredDistance(final float firstLatitude, final float firstLongitude, final float secondLatitude,
+      final float secondLongitude) {
+    final double x = ((double) secondLongitude - firstLongitude) * mLongitudeFactor;
+    final double y = ((double) secondLatitude - firstLatitude) * mLatitudeFactor;
+    return x * x + y * y;
+  }
+
+  /**
+   * Computes the squared projected distance between the given objects. Can be
+   * used instead of {@link #distance(ISpatial, ISpatial)} if distances are
+   * only compared.
+   *
+   * @param first  The first object
+   * @param second The second object
+   * @return The squared projected distance in <tt>square metres</tt>
+   */
+  public double squaredDistance(final ISpatial first, final ISpatial second) {
+    return squaredDistance(first.getLatitude(), first.getLongitude(), second.getLatitude(), second.getLongitude());
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder();
+    builder.append("PlanarProjection [maxAbsoluteLatitude=");
+    builder.append(mMaxAbsoluteLatitude);
+    builder.append("]");
+    return builder.toString();
+  }
+}
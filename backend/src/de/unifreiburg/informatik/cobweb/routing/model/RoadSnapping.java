@@ -0,0 +1,163 @@
+package de.unifreiburg.informatik.cobweb.routing.model;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.KdTree;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.SegmentIndex;
+import de.unifreiburg.informatik.cobweb.routing.model.cache.RoadGraphCache;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.EdgePosition;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.IGraph;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadNode;
+
+/**
+ * Snaps coordinates onto the road graph, restricted to the transportation
+ * modes of a request.<br>
+ * <br>
+ * A snapped node always has an incident edge that can be used with any of the
+ * requested modes, a snapped edge can be used with any of them itself.
+ * Otherwise, a request by foot could for example be snapped onto a motorway,
+ * after which the search explores the whole graph before discovering that
+ * there is no admissible path. Nodes are snapped by a filtered query on the
+ * index over all nodes, using a bitmask of the modes of the incident edges per
+ * node, see {@link RoadGraphCache#encodeModes(Set)}. Edges are snapped by
+ * filtering the index over the edges of the road graph.<br>
+ * <br>
+ * Modes that are not used by any edge of the road graph, like
+ * {@link ETransportationMode#TRAM}, do not restrict the snapping. If none of
+ * the requested modes is used by the road graph, the snapping is not
+ * restricted at all. The class is thread-safe, it only queries immutable
+ * indices.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class RoadSnapping {
+  /**
+   * Gets the bitmask of the modes of all edges incident to the given node.
+   *
+   * @param graph The graph the node belongs to
+   * @param node  The node to get the modes of
+   * @return The bitmask of the modes, see
+   *         {@link RoadGraphCache#encodeModes(Set)}
+   */
+  private static int getIncidentModes(final IGraph<ICoreNode, ICoreEdge<ICoreNode>> graph, final ICoreNode node) {
+    return Stream.concat(graph.getOutgoingEdges(node), graph.getIncomingEdges(node))
+        .mapToInt(edge -> RoadGraphCache.encodeModes(edge.getTransportationModes())).reduce(0, (a, b) -> a | b);
+  }
+
+  /**
+   * The bitmasks of the modes of the incident edges of the nodes, aligned with
+   * the elements of {@link #mNodes} in tree order.
+   */
+  private final byte[] mNodeModes;
+  /**
+   * The index over all nodes of the road graph.
+   */
+  private final KdTree<ICoreNode> mNodes;
+  /**
+   * The bitmask of the modes used by any edge of the road graph.
+   */
+  private final int mRoadModes;
+  /**
+   * The index over the edges of the road graph or <tt>null</tt> if not
+   * available.
+   */
+  private final SegmentIndex<ICoreNode, ICoreEdge<ICoreNode>> mSegmentIndex;
+
+  /**
+   * Creates a new snapping which uses the given indices. The modes of the
+   * nodes are collected from the given graph.
+   *
+   * @param nodes        The index over all nodes of the road graph
+   * @param graph        The road graph the nodes belong to
+   * @param segmentIndex The index over the edges of the road graph or
+   *                     <tt>null</tt> if not available
+   */
+  public RoadSnapping(final KdTree<ICoreNode> nodes, final IGraph<ICoreNode, ICoreEdge<ICoreNode>> graph,
+      final SegmentIndex<ICoreNode, ICoreEdge<ICoreNode>> segmentIndex) {
+    mNodes = nodes;
+    mSegmentIndex = segmentIndex;
+
+    final List<ICoreNode> elements = nodes.getElements();
+    mNodeModes = new byte[elements.size()];
+    IntStream.range(0, elements.size()).parallel()
+        .forEach(i -> mNodeModes[i] = (byte) RoadSnapping.getIncidentModes(graph, elements.get(i)));
+    int roadModes = 0;
+    for (final byte modes : mNodeModes) {
+      roadModes |= modes;
+    }
+    mRoadModes = roadModes;
+  }
+
+  /**
+   * Projects the given coordinates onto the nearest edge of the road graph
+   * that can be used with any of the given modes.
+   *
+   * @param latitude  The latitude to project
+   * @param longitude The longitude to project
+   * @param modes     The transportation modes of the request
+   * @return The position on the nearest admissible edge or empty if there is
+   *         none or no index over the edges is available, see
+   *         {@link #hasSegmentIndex()}
+   */
+  public Optional<EdgePosition<ICoreNode, ICoreEdge<ICoreNode>>> getNearestEdge(final float latitude,
+      final float longitude, final Set<ETransportationMode> modes) {
+    if (mSegmentIndex == null) {
+      return Optional.empty();
+    }
+    final int roadModes = getRoadModes(modes);
+    if (roadModes == 0) {
+      return mSegmentIndex.getNearestEdge(latitude, longitude);
+    }
+    return mSegmentIndex.getNearestEdge(latitude, longitude,
+        edge -> (RoadGraphCache.encodeModes(edge.getTransportationModes()) & roadModes) != 0);
+  }
+
+  /**
+   * Gets the nearest node of the road graph to the given coordinates that has
+   * an incident edge which can be used with any of the given modes.
+   *
+   * @param latitude  The latitude of the coordinates
+   * @param longitude The longitude of the coordinates
+   * @param modes     The transportation modes of the request
+   * @return The nearest admissible node or empty if there is none
+   */
+  public Optional<ICoreNode> getNearestNode(final float latitude, final float longitude,
+      final Set<ETransportationMode> modes) {
+    final ICoreNode point = new RoadNode(-1, latitude, longitude);
+    final int roadModes = getRoadModes(modes);
+    if (roadModes == 0) {
+      return mNodes.getNearestNeighbor(point);
+    }
+    return mNodes.getNearestNeighbor(point, index -> (mNodeModes[index] & roadModes) != 0);
+  }
+
+  /**
+   * Whether an index over the edges of the road graph is available, which is
+   * needed by {@link #getNearestEdge(float, float, Set)}.
+   *
+   * @return <tt>True</tt> if the index is available, <tt>false</tt> otherwise
+   */
+  public boolean hasSegmentIndex() {
+    return mSegmentIndex != null;
+  }
+
+  /**
+   * Gets the given modes which restrict the snapping, i.e. the modes that are
+   * used by any edge of the road graph.
+   *
+   * @param modes The transportation modes of the request
+   * @return The bitmask of the modes which restrict the snapping, see
+   *         {@link RoadGraphCache#encodeModes(Set)}, <tt>0</tt> if the
+   *         snapping is not restricted
+   */
+  private int getRoadModes(final Set<ETransportationMode> modes) {
+    return RoadGraphCache.encodeModes(modes) & mRoadModes;
+  }
+}
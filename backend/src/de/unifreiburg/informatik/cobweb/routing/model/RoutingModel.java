@@ -8,22 +8,32 @@ import java.time.Instant;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import de.unifreiburg.informatik.cobweb.bundle.EBundleArtifact;
+import de.unifreiburg.informatik.cobweb.bundle.ModelBundle;
 import de.unifreiburg.informatik.cobweb.config.IRoutingConfigProvider;
 import de.unifreiburg.informatik.cobweb.db.IRoutingDatabase;
 import de.unifreiburg.informatik.cobweb.parsing.ParseException;
 import de.unifreiburg.informatik.cobweb.parsing.gtfs.IGtfsFileHandler;
 import de.unifreiburg.informatik.cobweb.parsing.osm.IOsmFileHandler;
 import de.unifreiburg.informatik.cobweb.parsing.osm.IOsmFilter;
-import de.unifreiburg.informatik.cobweb.routing.algorithms.metrics.AsTheCrowFliesMetric;
-import de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.CoverTree;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.metrics.IMetric;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.metrics.landmark.LandmarkMetric;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.INearestNeighborComputation;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.SegmentIndex;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.ShortestPathComputationFactory;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.hybridmodel.IAccessNodeComputation;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.hybridmodel.RoadToKNearestTransitAccess;
+import de.unifreiburg.informatik.cobweb.routing.model.cache.KdTreeCache;
+import de.unifreiburg.informatik.cobweb.routing.model.cache.LandmarkCache;
+import de.unifreiburg.informatik.cobweb.routing.model.cache.RoadGraphCache;
+import de.unifreiburg.informatik.cobweb.routing.model.cache.TiledRoadGraphCache;
+import de.unifreiburg.informatik.cobweb.routing.model.cache.TimetableCache;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.IGetNodeById;
@@ -31,8 +41,10 @@ import de.unifreiburg.informatik.cobweb.routing.model.graph.IGraph;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.link.LinkGraph;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadGraph;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadNode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.tiled.TiledRoadGraph;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.transit.TransitGraph;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.transit.TransitStop;
+import de.unifreiburg.informatik.cobweb.routing.model.timetable.Stop;
 import de.unifreiburg.informatik.cobweb.routing.model.timetable.Timetable;
 import de.unifreiburg.informatik.cobweb.routing.parsing.gtfs.GtfsConnectionBuilder;
 import de.unifreiburg.informatik.cobweb.routing.parsing.gtfs.GtfsRealisticTimeExpandedHandler;
@@ -69,6 +81,12 @@ public final class RoutingModel {
    * mode.
    */
   private int mGraphSizeBeforeData;
+  /**
+   * The metric of the landmark heuristic loaded from a model bundle or
+   * <tt>null</tt> if the landmarks need to be computed, see
+   * {@link #loadFromBundle(ModelBundle)}.
+   */
+  private IMetric<ICoreNode> mLandmarkMetric;
   /**
    * Link graph to route on or <tt>null</tt> if not used according to the mode.
    */
@@ -78,18 +96,47 @@ public final class RoutingModel {
    */
   private final ERoutingModelMode mMode;
   /**
-   * The algorithm to use for computing nearest road nodes.
+   * The planar projection of the graph to route on, used for distance
+   * computations without trigonometry.
    */
-  private INearestNeighborComputation<ICoreNode> mNearestRoadNodeComputation;
+  private PlanarProjection mPlanarProjection;
   /**
    * Road graph to route on.
    */
   private RoadGraph<ICoreNode, ICoreEdge<ICoreNode>> mRoadGraph;
+  /**
+   * The index used to snap coordinates onto the edges of the road graph, or
+   * <tt>null</tt> if not available since the configuration has set the use of
+   * a tiled graph.
+   */
+  private SegmentIndex<ICoreNode, ICoreEdge<ICoreNode>> mRoadSegmentIndex;
+  /**
+   * The snapping of coordinates onto the road graph, restricted to
+   * transportation modes.
+   */
+  private RoadSnapping mRoadSnapping;
+  /**
+   * The registry of the spatial indices used by the model, providing for
+   * example the nearest road node computation.
+   */
+  private final SpatialIndexRegistry mSpatialIndices;
+  /**
+   * The tiled road graph used instead of the road graph, if the configuration
+   * has set the use of a tiled graph. Only used in mode
+   * {@link ERoutingModelMode#GRAPH_WITH_TIMETABLE}, <tt>null</tt> otherwise.
+   */
+  private TiledRoadGraph mTiledGraph;
   /**
    * The timetable to route on or <tt>null</tt> if not used according to the
    * mode.
    */
   private Timetable mTimetable;
+  /**
+   * The size of the timetable before data was read, i.e. after loading it from
+   * the cache but before reading in new data. Only used if the mode uses a
+   * timetable, see {@link #getTimetableSize()}.
+   */
+  private int mTimetableSizeBeforeData;
   /**
    * Transit graph to route on or <tt>null</tt> if not used according to the
    * mode.
@@ -106,6 +153,7 @@ public final class RoutingModel {
     mDatabase = database;
     mConfig = config;
     mMode = config.getRoutingModelMode();
+    mSpatialIndices = new SpatialIndexRegistry();
   }
 
   /**
@@ -121,8 +169,12 @@ public final class RoutingModel {
   public Iterable<IGtfsFileHandler> createGtfsHandler() throws ParseException {
     switch (mMode) {
       case GRAPH_WITH_TIMETABLE:
-        final IGtfsFileHandler timetableHandler = new GtfsTimetableHandler(mTimetable, mTimetable);
-        return Collections.singletonList(timetableHandler);
+        try {
+          final IGtfsFileHandler timetableHandler = new GtfsTimetableHandler(mTimetable, mTimetable, mConfig);
+          return Collections.singletonList(timetableHandler);
+        } catch (final IOException e) {
+          throw new ParseException(e);
+        }
       case LINK_GRAPH:
         final IGtfsConnectionBuilder<ICoreNode, ICoreEdge<ICoreNode>> connectionBuilder =
             new GtfsConnectionBuilder(mTransitGraph);
@@ -171,19 +223,24 @@ public final class RoutingModel {
     switch (mMode) {
       case GRAPH_WITH_TIMETABLE:
         final IAccessNodeComputation<ICoreNode, ICoreNode> accessNodeComputation =
-            new RoadToKNearestTransitAccess(mTimetable, mConfig.getAccessNodesMaximum());
-        factory = new ShortestPathComputationFactory(mRoadGraph, mTimetable, accessNodeComputation,
-            mNearestRoadNodeComputation, mMode, mConfig.getAbortTravelTimeToAccessNodes(),
-            mConfig.getAmountOfLandmarks());
+            new RoadToKNearestTransitAccess(mSpatialIndices.<Stop> get(ESpatialIndex.TRANSIT_STOPS),
+                mConfig.getAccessNodesMaximum());
+        factory = new ShortestPathComputationFactory(getQueryGraph(), mTimetable, accessNodeComputation,
+            getNearestRoadNodeComputation(), mRoadSnapping, mPlanarProjection, mMode,
+            mConfig.getAbortTravelTimeToAccessNodes(), mConfig.getAmountOfLandmarks());
         break;
       case LINK_GRAPH:
-        factory = new ShortestPathComputationFactory(mLinkGraph, null, null, null, mMode,
-            mConfig.getAbortTravelTimeToAccessNodes(), mConfig.getAmountOfLandmarks());
+        factory = new ShortestPathComputationFactory(mLinkGraph, null, null, null, mRoadSnapping,
+            mPlanarProjection, mMode, mConfig.getAbortTravelTimeToAccessNodes(), mConfig.getAmountOfLandmarks());
         break;
       default:
         throw new AssertionError();
     }
-    factory.initialize();
+    if (mLandmarkMetric == null) {
+      factory.initialize();
+    } else {
+      factory.initialize(mLandmarkMetric);
+    }
 
     final Instant preCompTimeEnd = Instant.now();
     LOGGER.info("Precomputation took: {}", Duration.between(preCompTimeStart, preCompTimeEnd));
@@ -192,13 +249,23 @@ public final class RoutingModel {
   }
 
   /**
-   * Finishes the preparation of the model. This may serialize the model.
+   * Finishes the preparation of the model. This may serialize the model.<br>
+   * <br>
+   * If the configuration has set the use of a tiled graph, the road graph is
+   * written as {@link TiledRoadGraphCache}, unless an up-to-date one exists
+   * already, and replaced by a {@link TiledRoadGraph} which loads its tiles on
+   * demand. The fully materialized road graph is released afterwards.
    *
    * @throws ParseException If an exception occurred while parsing data like
    *                        configuration files or if an exception at
    *                        serialization occurred
    */
   public void finishModel() throws ParseException {
+    if (mMode == ERoutingModelMode.GRAPH_WITH_TIMETABLE && mConfig.useGraphCache()
+        && getTimetableSize() != mTimetableSizeBeforeData) {
+      writeTimetable();
+    }
+
     final int currentGraphSize;
     switch (mMode) {
       case GRAPH_WITH_TIMETABLE:
@@ -210,34 +277,13 @@ public final class RoutingModel {
       default:
         throw new AssertionError();
     }
-    if (!mConfig.useGraphCache() || currentGraphSize == mGraphSizeBeforeData) {
-      return;
+    final boolean hasGraphChanged = currentGraphSize != mGraphSizeBeforeData;
+    if (mConfig.useGraphCache() && hasGraphChanged) {
+      writeGraphCache();
     }
-
-    final Path graphCache = mConfig.getGraphCache();
-    LOGGER.info("Serializing model to: {}", graphCache);
-    final Instant serializeStartTime = Instant.now();
-
-    try {
-      switch (mMode) {
-        case GRAPH_WITH_TIMETABLE:
-          final SerializationUtil<RoadGraph<ICoreNode, ICoreEdge<ICoreNode>>> serializationUtilRoad =
-              new SerializationUtil<>();
-          serializationUtilRoad.serialize(mRoadGraph, graphCache);
-          break;
-        case LINK_GRAPH:
-          final SerializationUtil<LinkGraph> serializationUtilLink = new SerializationUtil<>();
-          serializationUtilLink.serialize(mLinkGraph, graphCache);
-          break;
-        default:
-          throw new AssertionError();
-      }
-    } catch (final IOException e) {
-      throw new ParseException(e);
+    if (mMode == ERoutingModelMode.GRAPH_WITH_TIMETABLE && mConfig.useTiledGraph()) {
+      initializeTiledGraph(hasGraphChanged);
     }
-
-    final Instant serializeEndTime = Instant.now();
-    LOGGER.info("Serialization took: {}", Duration.between(serializeStartTime, serializeEndTime));
   }
 
   /**
@@ -255,7 +301,7 @@ public final class RoutingModel {
    * @return The algorithm to use for nearest road node computation
    */
   public INearestNeighborComputation<ICoreNode> getNearestRoadNodeComputation() {
-    return mNearestRoadNodeComputation;
+    return mSpatialIndices.get(ESpatialIndex.ROAD_NODES);
   }
 
   /**
@@ -266,6 +312,9 @@ public final class RoutingModel {
   public IGetNodeById<ICoreNode> getNodeProvider() {
     switch (mMode) {
       case GRAPH_WITH_TIMETABLE:
+        if (mTiledGraph != null) {
+          return mTiledGraph;
+        }
         return mRoadGraph;
       case LINK_GRAPH:
         return mLinkGraph;
@@ -281,6 +330,9 @@ public final class RoutingModel {
    * @return The query graph used by this model
    */
   public IGraph<ICoreNode, ICoreEdge<ICoreNode>> getQueryGraph() {
+    if (mTiledGraph != null) {
+      return mTiledGraph;
+    }
     return mRoadGraph;
   }
 
@@ -293,18 +345,108 @@ public final class RoutingModel {
     return toString();
   }
 
+  /**
+   * Gets the index used to snap coordinates onto the edges of the road graph.
+   * Available after {@link #prepareModelAfterData()} or
+   * {@link #loadFromBundle(ModelBundle)}.
+   *
+   * @return The index or <tt>null</tt> if not available since the
+   *         configuration has set the use of a tiled graph
+   */
+  public SegmentIndex<ICoreNode, ICoreEdge<ICoreNode>> getRoadSegmentIndex() {
+    return mRoadSegmentIndex;
+  }
+
+  /**
+   * Gets the planar projection of the graph to route on, which allows
+   * computing distances without trigonometry. Available after
+   * {@link #prepareModelAfterData()} or {@link #loadFromBundle(ModelBundle)}.
+   *
+   * @return The planar projection of the graph to route on
+   */
+  public PlanarProjection getPlanarProjection() {
+    return mPlanarProjection;
+  }
+
+  /**
+   * Gets the snapping of coordinates onto the road graph, which is restricted
+   * to the transportation modes of a request. Available after
+   * {@link #prepareModelAfterData()} or {@link #loadFromBundle(ModelBundle)}.
+   *
+   * @return The snapping of coordinates onto the road graph
+   */
+  public RoadSnapping getRoadSnapping() {
+    return mRoadSnapping;
+  }
+
+  /**
+   * Gets the registry of the spatial indices used by the model. Consumers
+   * should use the indices of the registry instead of building their own.
+   * Available after {@link #prepareModelAfterData()} or
+   * {@link #loadFromBundle(ModelBundle)}.
+   *
+   * @return The registry of the spatial indices
+   */
+  public SpatialIndexRegistry getSpatialIndices() {
+    return mSpatialIndices;
+  }
+
+  /**
+   * Loads the whole model from the given bundle instead of reading in data.
+   * This replaces {@link #prepareModelBeforeData()},
+   * {@link #prepareModelAfterData()} and {@link #finishModel()}. The bundle
+   * also provides the landmarks used by
+   * {@link #createShortestPathComputationFactory()}, such that no
+   * precomputation is necessary. See
+   * {@link #writeToBundle(ModelBundle, ShortestPathComputationFactory)} for
+   * creating a bundle.<br>
+   * <br>
+   * Only supported in mode {@link ERoutingModelMode#GRAPH_WITH_TIMETABLE}.
+   *
+   * @param bundle The bundle to load the model from
+   * @throws ParseException If an exception occurred while loading an artifact
+   *                        of the bundle, for example since it is corrupted
+   */
+  public void loadFromBundle(final ModelBundle bundle) throws ParseException {
+    if (mMode != ERoutingModelMode.GRAPH_WITH_TIMETABLE) {
+      throw new IllegalStateException(
+          "Model bundles are only supported in mode " + ERoutingModelMode.GRAPH_WITH_TIMETABLE);
+    }
+    LOGGER.info("Loading model from bundle: {}", bundle.getDirectory());
+    final Instant loadStartTime = Instant.now();
+
+    try {
+      mRoadGraph = RoadGraphCache.map(bundle.getArtifact(EBundleArtifact.GRAPH)).materialize();
+      mTimetable = TimetableCache.map(bundle.getArtifact(EBundleArtifact.TIMETABLE)).materialize();
+      mSpatialIndices.put(ESpatialIndex.ROAD_NODES,
+          KdTreeCache.map(bundle.getArtifact(EBundleArtifact.SPATIAL_INDEX)).materialize(mRoadGraph));
+      mLandmarkMetric = LandmarkCache.map(bundle.getArtifact(EBundleArtifact.LANDMARKS)).materialize(mRoadGraph);
+    } catch (final IOException e) {
+      throw new ParseException(e);
+    }
+    mGraphSizeBeforeData = mRoadGraph.size();
+    mTimetableSizeBeforeData = getTimetableSize();
+    initializeSpatialIndices();
+
+    final Instant loadEndTime = Instant.now();
+    LOGGER.info("Loading bundle took: {}", Duration.between(loadStartTime, loadEndTime));
+  }
+
   /**
    * Prepares the model after reading in new data. Should be called after
    * {@link #prepareModelBeforeData()} and before {@link #finishModel()}.
    */
   public void prepareModelAfterData() {
-    initializeNearestRoadNodeComputation();
+    initializeSpatialIndices();
     switch (mMode) {
       case GRAPH_WITH_TIMETABLE:
         // Road graph is implicitly linked by access node computation which is
         // done on-the-fly
-        // Correct the footpath model of the timetable
-        mTimetable.correctFootpaths(mConfig.getTransferDelay(), mConfig.getFootpathReachability());
+        // Correct the footpath model of the timetable, a cached timetable is
+        // already corrected
+        if (getTimetableSize() != mTimetableSizeBeforeData) {
+          mTimetable.correctFootpaths(mConfig.getTransferDelay(), mConfig.getFootpathReachability());
+        }
         break;
       case LINK_GRAPH:
         linkGraphs();
@@ -319,14 +461,17 @@ public final class RoutingModel {
    * {@link #prepareModelAfterData()} and before {@link #finishModel()}.<br>
    * <br>
    * This may deserialize the model which might take a while depending on the
-   * size of the model.
+   * size of the model. In mode {@link ERoutingModelMode#GRAPH_WITH_TIMETABLE}
+   * the road graph is loaded from a memory-mapped {@link RoadGraphCache} and
+   * the timetable from a {@link TimetableCache}. A cache which is invalid, for
+   * example of an older version or corrupted, is discarded together with its
+   * info object such that all data is read in again.
    */
   public void prepareModelBeforeData() {
     LOGGER.info("Initializing model");
 
     if (mMode == ERoutingModelMode.GRAPH_WITH_TIMETABLE) {
-      // TODO Timetable may be cached too
-      mTimetable = new Timetable();
+      loadTimetable();
     }
 
     final Path graphCache = mConfig.getGraphCache();
@@ -345,9 +490,14 @@ public final class RoutingModel {
     try {
       switch (mMode) {
         case GRAPH_WITH_TIMETABLE:
-          final SerializationUtil<RoadGraph<ICoreNode, ICoreEdge<ICoreNode>>> serializationUtilRoad =
-              new SerializationUtil<>();
-          mRoadGraph = serializationUtilRoad.deserialize(graphCache);
+          try {
+            mRoadGraph = RoadGraphCache.map(graphCache).materialize();
+          } catch (final IOException e) {
+            LOGGER.warn("Discarding invalid graph cache: {}", e.getMessage());
+            discardGraphCache();
+            mRoadGraph = new RoadGraph<>();
+            return;
+          }
           break;
         case LINK_GRAPH:
           final SerializationUtil<LinkGraph> serializationUtilLink = new SerializationUtil<>();
@@ -384,6 +534,9 @@ public final class RoutingModel {
   public String toString() {
     switch (mMode) {
       case GRAPH_WITH_TIMETABLE:
+        if (mTiledGraph != null) {
+          return mTiledGraph.getSizeInformation() + ", " + mTimetable.getSizeInformation();
+        }
         return mRoadGraph.getSizeInformation() + ", " + mTimetable.getSizeInformation();
       case LINK_GRAPH:
         return mLinkGraph.getSizeInformation();
@@ -393,21 +546,168 @@ public final class RoutingModel {
   }
 
   /**
-   * Initializes the nearest road node computation.
+   * Writes the routing artifacts of the model to the given bundle. That is the
+   * road graph, the timetable with its corrected footpath model, the spatial
+   * index used for nearest road node computation and the landmarks of the
+   * given factory. Must be called after {@link #finishModel()}, the bundle is
+   * not committed.<br>
+   * <br>
+   * Only supported in mode {@link ERoutingModelMode#GRAPH_WITH_TIMETABLE} and
+   * if the model does not use a tiled graph.
+   *
+   * @param bundle  The bundle to write to
+   * @param factory The initialized factory whose landmarks to write, as created
+   *                by {@link #createShortestPathComputationFactory()}
+   * @throws ParseException If an I/O exception occurred while writing
+   */
+  public void writeToBundle(final ModelBundle bundle, final ShortestPathComputationFactory factory)
+      throws ParseException {
+    if (mMode != ERoutingModelMode.GRAPH_WITH_TIMETABLE) {
+      throw new IllegalStateException(
+          "Model bundles are only supported in mode " + ERoutingModelMode.GRAPH_WITH_TIMETABLE);
+    }
+    if (mTiledGraph != null) {
+      throw new IllegalStateException("Model bundles are not supported for tiled graphs");
+    }
+    if (!(factory.getMetric() instanceof LandmarkMetric)) {
+      throw new IllegalStateException("The model uses artifacts which are not supported by model bundles");
+    }
+    LOGGER.info("Writing model to bundle: {}", bundle.getDirectory());
+    final Instant writeStartTime = Instant.now();
+
+    try {
+      RoadGraphCache.write(mRoadGraph, bundle.getArtifact(EBundleArtifact.GRAPH));
+      TimetableCache.write(mTimetable, bundle.getArtifact(EBundleArtifact.TIMETABLE));
+      KdTreeCache.write(mSpatialIndices.get(ESpatialIndex.ROAD_NODES),
+          bundle.getArtifact(EBundleArtifact.SPATIAL_INDEX));
+      LandmarkCache.write((LandmarkMetric<ICoreNode, ?, ?>) factory.getMetric(),
+          bundle.getArtifact(EBundleArtifact.LANDMARKS));
+    } catch (final IOException e) {
+      throw new ParseException(e);
+    }
+
+    final Instant writeEndTime = Instant.now();
+    LOGGER.info("Writing bundle took: {}", Duration.between(writeStartTime, writeEndTime));
+  }
+
+  /**
+   * Discards the graph cache and its info object such that all data files are
+   * considered again when reading in data.
+   *
+   * @throws ParseException If an I/O exception occurred while deleting the
+   *                        files
+   */
+  private void discardGraphCache() throws ParseException {
+    try {
+      Files.deleteIfExists(mConfig.getGraphCache());
+      Files.deleteIfExists(mConfig.getGraphCacheInfo());
+    } catch (final IOException e) {
+      throw new ParseException(e);
+    }
+  }
+
+  /**
+   * Discards the timetable cache and its info object such that all GTFS files
+   * are considered again when reading in data.
+   *
+   * @throws ParseException If an I/O exception occurred while deleting the
+   *                        files
+   */
+  private void discardTimetableCache() throws ParseException {
+    try {
+      Files.deleteIfExists(mConfig.getTimetableCache());
+      Files.deleteIfExists(mConfig.getTimetableCacheInfo());
+    } catch (final IOException e) {
+      throw new ParseException(e);
+    }
+  }
+
+  /**
+   * Gets the size of the timetable, used to determine whether new data was
+   * added to it. Footpaths are not considered since they also change when
+   * correcting the footpath model.
+   *
+   * @return The size of the timetable
+   */
+  private int getTimetableSize() {
+    return mTimetable.getStops().size() + mTimetable.getConnections().size();
+  }
+
+  /**
+   * Initializes the spatial indices used by the model which are not available
+   * yet. The indices are built in parallel, see
+   * {@link SpatialIndexRegistry#buildAll()}. The index over the edges of the
+   * road graph is not built if the configuration has set the use of a tiled
+   * graph, since it would keep the whole graph in memory.
    */
-  private void initializeNearestRoadNodeComputation() {
-    LOGGER.info("Initializing nearest road node computation");
-    final Instant nearestNeighborsStartTime = Instant.now();
+  private void initializeSpatialIndices() {
+    if (!mSpatialIndices.has(ESpatialIndex.ROAD_NODES)) {
+      mSpatialIndices.register(ESpatialIndex.ROAD_NODES, mRoadGraph.getNodes());
+    }
+    if (mMode == ERoutingModelMode.GRAPH_WITH_TIMETABLE && !mSpatialIndices.has(ESpatialIndex.TRANSIT_STOPS)) {
+      mSpatialIndices.register(ESpatialIndex.TRANSIT_STOPS, mTimetable.getStops());
+    }
+    mSpatialIndices.buildAll();
+
+    if (mRoadSegmentIndex == null && !mConfig.useTiledGraph()) {
+      final Instant segmentStartTime = Instant.now();
+      mRoadSegmentIndex = new SegmentIndex<>(mRoadGraph.getEdges().collect(Collectors.toList()));
+      LOGGER.info("Road segment index with {} segments took: {}", mRoadSegmentIndex.size(),
+          Duration.between(segmentStartTime, Instant.now()));
+    }
+
+    final Instant snappingStartTime = Instant.now();
+    mRoadSnapping = new RoadSnapping(mSpatialIndices.get(ESpatialIndex.ROAD_NODES), mRoadGraph, mRoadSegmentIndex);
+    LOGGER.info("Road snapping took: {}", Duration.between(snappingStartTime, Instant.now()));
 
-    final CoverTree<ICoreNode> nearestRoadNodeComputation = new CoverTree<>(new AsTheCrowFliesMetric<>());
-    for (final ICoreNode node : mRoadGraph.getNodes()) {
-      nearestRoadNodeComputation.insert(node);
+    Stream<ICoreNode> projectedNodes = mRoadGraph.getNodes().stream();
+    if (mMode == ERoutingModelMode.LINK_GRAPH) {
+      projectedNodes = Stream.concat(projectedNodes, mTransitGraph.getNodes().stream());
     }
+    mPlanarProjection = PlanarProjection.of(projectedNodes);
+    LOGGER.info("Planar projection: {}", mPlanarProjection);
+  }
+
+  /**
+   * Initializes the tiled graph and releases the fully materialized road graph.
+   * The tiles are written again if the graph has changed or if the existing
+   * tiles are invalid or do not match the graph or the configured tile size.
+   * Must only be called if the routing model mode is
+   * {@link ERoutingModelMode#GRAPH_WITH_TIMETABLE}.
+   *
+   * @param hasGraphChanged Whether the road graph has changed since it was
+   *                        loaded
+   * @throws ParseException If an I/O exception occurred while writing or
+   *                        mapping the tiles
+   */
+  private void initializeTiledGraph(final boolean hasGraphChanged) throws ParseException {
+    final Path tiledGraph = mConfig.getTiledGraph();
+    final double tileSize = mConfig.getTileSize();
+    LOGGER.info("Initializing tiled graph at: {}", tiledGraph);
+    final Instant tileStartTime = Instant.now();
 
-    mNearestRoadNodeComputation = nearestRoadNodeComputation;
+    try {
+      TiledRoadGraphCache cache = null;
+      if (!hasGraphChanged && Files.isRegularFile(tiledGraph.resolve(TiledRoadGraphCache.INDEX))) {
+        try {
+          cache = TiledRoadGraphCache.map(tiledGraph);
+        } catch (final IOException e) {
+          LOGGER.warn("Discarding invalid tiled graph: {}", e.getMessage());
+        }
+      }
+      if (cache == null || cache.getAmountOfNodes() != mRoadGraph.size()
+          || cache.getAmountOfEdges() != mRoadGraph.getAmountOfEdges() || cache.getTileSize() != tileSize) {
+        TiledRoadGraphCache.write(mRoadGraph, tiledGraph, tileSize);
+        cache = TiledRoadGraphCache.map(tiledGraph);
+      }
+      mTiledGraph = new TiledRoadGraph(cache, mConfig.getMaxResidentTiles());
+    } catch (final IOException e) {
+      throw new ParseException(e);
+    }
+    mRoadGraph = null;
 
-    final Instant nearestNeighborsEndTime = Instant.now();
-    LOGGER.info("Nearest road node took: {}", Duration.between(nearestNeighborsStartTime, nearestNeighborsEndTime));
+    final Instant tileEndTime = Instant.now();
+    LOGGER.info("Tiled graph took: {}", Duration.between(tileStartTime, tileEndTime));
   }
 
   /**
@@ -422,12 +722,13 @@ public final class RoutingModel {
     final Instant hubStartTime = Instant.now();
 
     final Map<ICoreNode, TransitStop<ICoreNode>> hubConnections = new HashMap<>();
+    final INearestNeighborComputation<ICoreNode> nearestRoadNodeComputation = getNearestRoadNodeComputation();
     // For each transit stop retrieve the nearest road node
     final RoadNode stopLocationWrapper = new RoadNode(-1, 0, 0);
     for (final TransitStop<ICoreNode> stop : mTransitGraph.getStops()) {
       stopLocationWrapper.setLatitude(stop.getLatitude());
       stopLocationWrapper.setLongitude(stop.getLongitude());
-      final ICoreNode hubNode = mNearestRoadNodeComputation.getNearestNeighbor(stopLocationWrapper).get();
+      final ICoreNode hubNode = nearestRoadNodeComputation.getNearestNeighbor(stopLocationWrapper).get();
       hubConnections.put(hubNode, stop);
     }
     mLinkGraph.initializeHubConnections(hubConnections);
@@ -435,4 +736,84 @@ public final class RoutingModel {
     final Instant hubEndTime = Instant.now();
     LOGGER.info("Hub connections took: {}", Duration.between(hubStartTime, hubEndTime));
   }
+
+  /**
+   * Loads the timetable from its cache, if the configuration has set the use
+   * of a graph cache and the cache exists. Otherwise a new empty timetable is
+   * created. Must only be called if the routing model mode is
+   * {@link ERoutingModelMode#GRAPH_WITH_TIMETABLE}.
+   */
+  private void loadTimetable() {
+    final Path timetableCache = mConfig.getTimetableCache();
+    if (!mConfig.useGraphCache() || !Files.isRegularFile(timetableCache)) {
+      mTimetable = new Timetable();
+      mTimetableSizeBeforeData = 0;
+      return;
+    }
+
+    LOGGER.info("Loading timetable from: {}", timetableCache);
+    final Instant loadStartTime = Instant.now();
+    try {
+      mTimetable = TimetableCache.map(timetableCache).materialize();
+    } catch (final IOException e) {
+      LOGGER.warn("Discarding invalid timetable cache: {}", e.getMessage());
+      discardTimetableCache();
+      mTimetable = new Timetable();
+    }
+    mTimetableSizeBeforeData = getTimetableSize();
+
+    final Instant loadEndTime = Instant.now();
+    LOGGER.info("Loading timetable took: {}", Duration.between(loadStartTime, loadEndTime));
+  }
+
+  /**
+   * Writes the graph to its cache.
+   *
+   * @throws ParseException If an I/O exception occurred while writing
+   */
+  private void writeGraphCache() throws ParseException {
+    final Path graphCache = mConfig.getGraphCache();
+    LOGGER.info("Serializing model to: {}", graphCache);
+    final Instant serializeStartTime = Instant.now();
+
+    try {
+      switch (mMode) {
+        case GRAPH_WITH_TIMETABLE:
+          RoadGraphCache.write(mRoadGraph, graphCache);
+          break;
+        case LINK_GRAPH:
+          final SerializationUtil<LinkGraph> serializationUtilLink = new SerializationUtil<>();
+          serializationUtilLink.serialize(mLinkGraph, graphCache);
+          break;
+        default:
+          throw new AssertionError();
+      }
+    } catch (final IOException e) {
+      throw new ParseException(e);
+    }
+
+    final Instant serializeEndTime = Instant.now();
+    LOGGER.info("Serialization took: {}", Duration.between(serializeStartTime, serializeEndTime));
+  }
+
+  /**
+   * Writes the timetable to its cache. Must only be called if the routing model
+   * mode is {@link ERoutingModelMode#GRAPH_WITH_TIMETABLE}.
+   *
+   * @throws ParseException If an I/O exception occurred while writing
+   */
+  private void writeTimetable() throws ParseException {
+    final Path timetableCache = mConfig.getTimetableCache();
+    LOGGER.info("Writing timetable to: {}", timetableCache);
+    final Instant writeStartTime = Instant.now();
+
+    try {
+      TimetableCache.write(mTimetable, timetableCache);
+    } catch (final IOException e) {
+      throw new ParseException(e);
+    }
+
+    final Instant writeEndTime = Instant.now();
+    LOGGER.info("Writing timetable took: {}", Duration.between(writeStartTime, writeEndTime));
+  }
 }
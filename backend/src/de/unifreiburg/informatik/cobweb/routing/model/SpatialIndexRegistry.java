@@ -0,0 +1,160 @@
+package de.unifreiburg.informatik.cobweb.routing.model;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.KdTree;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ISpatial;
+
+/**
+ * Registry that builds every spatial index of the model exactly once and hands
+ * the same instance to all of its consumers.<br>
+ * <br>
+ * Indices are first registered together with their elements using
+ * {@link #register(ESpatialIndex, Collection)} and then built all at once by
+ * {@link #buildAll()}. The indices are bulk-built in parallel to each other,
+ * each index additionally builds itself in parallel, see {@link KdTree}. Build
+ * time and estimated memory are logged per index. Indices that are already
+ * available, for example since they were loaded from a cache, can be added
+ * using {@link #put(ESpatialIndex, KdTree)}.<br>
+ * <br>
+ * The class is thread-safe. The indices themselves can be queried lock-free.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class SpatialIndexRegistry {
+  /**
+   * Logger used for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(SpatialIndexRegistry.class);
+  /**
+   * Bytes per mebibyte, used for logging.
+   */
+  private static final double BYTES_PER_MEBIBYTE = 1024.0 * 1024.0;
+
+  /**
+   * Logs the build time and the estimated memory of the given index.
+   *
+   * @param index     The index to log
+   * @param tree      The built index
+   * @param startTime The time the build started
+   */
+  private static void logBuild(final ESpatialIndex index, final KdTree<?> tree, final Instant startTime) {
+    LOGGER.info("Spatial index {} took: {}", index, Duration.between(startTime, Instant.now()));
+    if (LOGGER.isInfoEnabled()) {
+      LOGGER.info("Spatial index {} has {} elements, using about {} MiB", index, tree.size(),
+          String.format("%.2f", tree.getEstimatedMemory() / BYTES_PER_MEBIBYTE));
+    }
+  }
+
+  /**
+   * The built indices.
+   */
+  private final Map<ESpatialIndex, KdTree<?>> mIndices;
+  /**
+   * The elements of indices which are registered but not built yet.
+   */
+  private final Map<ESpatialIndex, Collection<? extends ISpatial>> mPendingIndices;
+
+  /**
+   * Creates a new empty registry.
+   */
+  public SpatialIndexRegistry() {
+    mIndices = new EnumMap<>(ESpatialIndex.class);
+    mPendingIndices = new EnumMap<>(ESpatialIndex.class);
+  }
+
+  /**
+   * Builds all registered indices which are not built yet. The indices are
+   * built in parallel and the method blocks until all are built.
+   */
+  public void buildAll() {
+    final Map<ESpatialIndex, Collection<? extends ISpatial>> pendingIndices;
+    synchronized (this) {
+      if (mPendingIndices.isEmpty()) {
+        return;
+      }
+      pendingIndices = new EnumMap<>(mPendingIndices);
+      mPendingIndices.clear();
+    }
+    LOGGER.info("Building spatial indices {}", pendingIndices.keySet());
+    final Instant buildStartTime = Instant.now();
+
+    final Map<ESpatialIndex, CompletableFuture<KdTree<ISpatial>>> builds = new EnumMap<>(ESpatialIndex.class);
+    for (final Entry<ESpatialIndex, Collection<? extends ISpatial>> entry : pendingIndices.entrySet()) {
+      builds.put(entry.getKey(), CompletableFuture.supplyAsync(() -> {
+        final Instant startTime = Instant.now();
+        final KdTree<ISpatial> tree = new KdTree<>(entry.getValue());
+        SpatialIndexRegistry.logBuild(entry.getKey(), tree, startTime);
+        return tree;
+      }));
+    }
+    for (final Entry<ESpatialIndex, CompletableFuture<KdTree<ISpatial>>> entry : builds.entrySet()) {
+      put(entry.getKey(), entry.getValue().join());
+    }
+
+    final Instant buildEndTime = Instant.now();
+    LOGGER.info("Spatial indices took: {}", Duration.between(buildStartTime, buildEndTime));
+  }
+
+  /**
+   * Gets the given index. The index must have been built or put before.
+   *
+   * @param <E>   Type of the elements of the index, must match the type of the
+   *              elements the index was registered with
+   * @param index The index to get
+   * @return The index
+   * @throws IllegalStateException If the index is not available
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized <E extends ISpatial> KdTree<E> get(final ESpatialIndex index) throws IllegalStateException {
+    final KdTree<?> tree = mIndices.get(index);
+    if (tree == null) {
+      throw new IllegalStateException("The spatial index is not built: " + index);
+    }
+    return (KdTree<E>) tree;
+  }
+
+  /**
+   * Whether the given index is available, i.e. it was built or put.
+   *
+   * @param index The index in question
+   * @return <tt>True</tt> if the index is available, <tt>false</tt> otherwise
+   */
+  public synchronized boolean has(final ESpatialIndex index) {
+    return mIndices.containsKey(index);
+  }
+
+  /**
+   * Puts the given already built index into the registry, replacing any
+   * previous instance of it.
+   *
+   * @param index The index to put
+   * @param tree  The built index
+   */
+  public synchronized void put(final ESpatialIndex index, final KdTree<?> tree) {
+    mPendingIndices.remove(index);
+    mIndices.put(index, tree);
+  }
+
+  /**
+   * Registers the given index to be built over the given elements by the next
+   * call of {@link #buildAll()}. Replaces any previous instance of the index.
+   * The elements must not be modified until the index is built.
+   *
+   * @param index    The index to register
+   * @param elements The elements to build the index of
+   */
+  public synchronized void register(final ESpatialIndex index, final Collection<? extends ISpatial> elements) {
+    mIndices.remove(index);
+    mPendingIndices.put(index, elements);
+  }
+}
@@ -0,0 +1,219 @@
+package de.unifreiburg.informatik.cobweb.routing.model.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import org.eclipse.collections.api.list.primitive.MutableIntList;
+import org.eclipse.collections.impl.list.mutable.FastList;
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
+
+import de.unifreiburg.informatik.cobweb.routing.algorithms.metrics.IMetric;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.CoverTree;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.IGetNodeById;
+import de.unifreiburg.informatik.cobweb.util.BinaryFileUtil;
+
+/**
+ * Binary, memory-mapped cache format for the structure of {@link CoverTree}s
+ * over nodes.<br>
+ * <br>
+ * Nodes are referenced by their ID. The tree is stored as the elements of its
+ * nodes in pre-order together with the amount of children of each node, see
+ * {@link CoverTree#visitPreOrder(java.util.function.ObjIntConsumer)}. The
+ * payload, following the header of {@link BinaryFileUtil}, is
+ * <ol>
+ * <li>The base of the tree, a <tt>double</tt></li>
+ * <li>The maximal, minimal and maximal minimum level of the tree, three
+ * <tt>int</tt>s</li>
+ * <li>The amount of levels <tt>l</tt> and of tree nodes <tt>k</tt>, two
+ * <tt>int</tt>s</li>
+ * <li>The amount of nodes per level, <tt>l</tt> <tt>int</tt>s</li>
+ * <li>Element IDs and amount of children of each tree node, <tt>2k</tt>
+ * <tt>int</tt>s</li>
+ * </ol>
+ * Use {@link #write(CoverTree, Path)} to create a cache and {@link #map(Path)}
+ * followed by {@link #materialize(IGetNodeById, IMetric)} to load it.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class CoverTreeCache {
+  /**
+   * The magic identifying the format, <tt>CWCT</tt> in ASCII.
+   */
+  public static final int MAGIC = 0x43574354;
+  /**
+   * The current version of the format.
+   */
+  public static final int VERSION = 1;
+  /**
+   * The size of the fixed part of the payload in bytes.
+   */
+  private static final int FIXED_SIZE = Double.BYTES + 5 * Integer.BYTES;
+  /**
+   * The size of the payload per tree node in bytes.
+   */
+  private static final int SIZE_PER_TREE_NODE = 2 * Integer.BYTES;
+
+  /**
+   * Maps the cache stored at the given path into memory. The content is
+   * verified but not materialized, use
+   * {@link #materialize(IGetNodeById, IMetric)} for that.
+   *
+   * @param path The path of the cache
+   * @return The mapped cache
+   * @throws IOException If an I/O exception occurred while mapping or if the
+   *                     file is not a valid cache of the current version
+   */
+  public static CoverTreeCache map(final Path path) throws IOException {
+    return new CoverTreeCache(BinaryFileUtil.map(path, MAGIC, VERSION));
+  }
+
+  /**
+   * Writes the structure of the given tree as cache to the given path.
+   *
+   * @param tree The tree to write
+   * @param path The path to write to, an existing file is overwritten
+   * @throws IOException If an I/O exception occurred while writing
+   */
+  public static void write(final CoverTree<ICoreNode> tree, final Path path) throws IOException {
+    final int[] levelSizes = tree.getLevelSizes();
+    final MutableIntList elementIds = new IntArrayList(tree.size());
+    final MutableIntList amountOfChildren = new IntArrayList(tree.size());
+    tree.visitPreOrder((element, children) -> {
+      elementIds.add(element.getId());
+      amountOfChildren.add(children);
+    });
+
+    final long payloadSize =
+        FIXED_SIZE + (long) levelSizes.length * Integer.BYTES + (long) elementIds.size() * SIZE_PER_TREE_NODE;
+    final MappedByteBuffer buffer = BinaryFileUtil.create(path, MAGIC, VERSION, payloadSize);
+    buffer.putDouble(tree.getBase());
+    buffer.putInt(tree.maxLevel());
+    buffer.putInt(tree.minLevel());
+    buffer.putInt(tree.getMaxMinLevel());
+    buffer.putInt(levelSizes.length);
+    buffer.putInt(elementIds.size());
+    for (final int levelSize : levelSizes) {
+      buffer.putInt(levelSize);
+    }
+    elementIds.forEach(buffer::putInt);
+    amountOfChildren.forEach(buffer::putInt);
+
+    BinaryFileUtil.finish(buffer);
+  }
+
+  /**
+   * The amount of children of each tree node, in pre-order.
+   */
+  private final IntBuffer mAmountOfChildren;
+  /**
+   * The amount of tree nodes in the cache.
+   */
+  private final int mAmountOfTreeNodes;
+  /**
+   * The base of the cached tree.
+   */
+  private final double mBase;
+  /**
+   * The element ID of each tree node, in pre-order.
+   */
+  private final IntBuffer mElementIds;
+  /**
+   * The amount of nodes per level of the cached tree.
+   */
+  private final int[] mLevelSizes;
+  /**
+   * The maximal level of the cached tree.
+   */
+  private final int mMaxLevel;
+  /**
+   * The maximal minimum level of the cached tree.
+   */
+  private final int mMaxMinLevel;
+  /**
+   * The minimal level of the cached tree.
+   */
+  private final int mMinLevel;
+
+  /**
+   * Creates a new cache view over the given payload.
+   *
+   * @param payload The payload of the cache file, positioned at its start
+   * @throws IOException If the payload is inconsistent
+   */
+  private CoverTreeCache(final ByteBuffer payload) throws IOException {
+    if (payload.remaining() < FIXED_SIZE) {
+      throw new IOException("Payload is too small");
+    }
+    mBase = payload.getDouble();
+    mMaxLevel = payload.getInt();
+    mMinLevel = payload.getInt();
+    mMaxMinLevel = payload.getInt();
+    final int amountOfLevels = payload.getInt();
+    mAmountOfTreeNodes = payload.getInt();
+    final long expectedSize =
+        FIXED_SIZE + (long) amountOfLevels * Integer.BYTES + (long) mAmountOfTreeNodes * SIZE_PER_TREE_NODE;
+    if (amountOfLevels < 0 || mAmountOfTreeNodes < 0 || expectedSize != payload.limit()) {
+      throw new IOException("Payload size does not match the amount of levels and tree nodes");
+    }
+
+    mLevelSizes = new int[amountOfLevels];
+    payload.asIntBuffer().get(mLevelSizes);
+    payload.position(payload.position() + amountOfLevels * Integer.BYTES);
+    final ByteBuffer elementIds = payload.slice();
+    elementIds.limit(mAmountOfTreeNodes * Integer.BYTES);
+    mElementIds = elementIds.asIntBuffer();
+    payload.position(payload.position() + mAmountOfTreeNodes * Integer.BYTES);
+    mAmountOfChildren = payload.slice().asIntBuffer();
+  }
+
+  /**
+   * Gets the amount of tree nodes in the cache. Note that a tree may contain
+   * multiple tree nodes for the same element.
+   *
+   * @return The amount of tree nodes
+   */
+  public int getAmountOfTreeNodes() {
+    return mAmountOfTreeNodes;
+  }
+
+  /**
+   * Materializes the cache into a new cover tree whose elements are provided by
+   * the given provider.
+   *
+   * @param nodeProvider The provider to use for resolving node IDs, typically
+   *                     the graph whose nodes the tree was built of
+   * @param metric       The metric to use for the tree, should be the metric
+   *                     the cached tree was built with
+   * @return The materialized tree
+   * @throws IOException If the content of the cache is inconsistent or refers
+   *                     to nodes not known by the provider
+   */
+  public CoverTree<ICoreNode> materialize(final IGetNodeById<ICoreNode> nodeProvider,
+      final IMetric<ICoreNode> metric) throws IOException {
+    final List<ICoreNode> elements = FastList.newList(mAmountOfTreeNodes);
+    final int[] amountOfChildren = new int[mAmountOfTreeNodes];
+    for (int i = 0; i < mAmountOfTreeNodes; i++) {
+      final int id = mElementIds.get(i);
+      final Optional<ICoreNode> element = nodeProvider.getNodeById(id);
+      if (!element.isPresent()) {
+        throw new IOException("Cache refers to an unknown node: " + id);
+      }
+      elements.add(element.get());
+      amountOfChildren[i] = mAmountOfChildren.get(i);
+    }
+
+    final CoverTree<ICoreNode> tree = new CoverTree<>(mBase, metric);
+    try {
+      tree.restore(mMaxLevel, mMinLevel, mMaxMinLevel, mLevelSizes, elements, amountOfChildren);
+    } catch (final IllegalArgumentException e) {
+      throw new IOException(e);
+    }
+    return tree;
+  }
+}
@@ -0,0 +1,139 @@
+package de.unifreiburg.informatik.cobweb.routing.model.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import org.eclipse.collections.impl.list.mutable.FastList;
+
+import de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.KdTree;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.IGetNodeById;
+import de.unifreiburg.informatik.cobweb.util.BinaryFileUtil;
+
+/**
+ * Binary, memory-mapped cache format for the structure of {@link KdTree}s over
+ * nodes.<br>
+ * <br>
+ * Nodes are referenced by their ID. The tree is stored as its elements in tree
+ * order, see {@link KdTree#getElements()}, such that it can be restored
+ * without building it again. The payload, following the header of
+ * {@link BinaryFileUtil}, is
+ * <ol>
+ * <li>The amount of elements <tt>n</tt>, an <tt>int</tt></li>
+ * <li>Element IDs in tree order, <tt>n</tt> <tt>int</tt>s</li>
+ * </ol>
+ * Use {@link #write(KdTree, Path)} to create a cache and {@link #map(Path)}
+ * followed by {@link #materialize(IGetNodeById)} to load it.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class KdTreeCache {
+  /**
+   * The magic identifying the format, <tt>CWKD</tt> in ASCII.
+   */
+  public static final int MAGIC = 0x43574B44;
+  /**
+   * The current version of the format.
+   */
+  public static final int VERSION = 1;
+  /**
+   * The size of the fixed part of the payload in bytes.
+   */
+  private static final int FIXED_SIZE = Integer.BYTES;
+
+  /**
+   * Maps the cache stored at the given path into memory. The content is
+   * verified but not materialized, use {@link #materialize(IGetNodeById)} for
+   * that.
+   *
+   * @param path The path of the cache
+   * @return The mapped cache
+   * @throws IOException If an I/O exception occurred while mapping or if the
+   *                     file is not a valid cache of the current version
+   */
+  public static KdTreeCache map(final Path path) throws IOException {
+    return new KdTreeCache(BinaryFileUtil.map(path, MAGIC, VERSION));
+  }
+
+  /**
+   * Writes the structure of the given tree as cache to the given path.
+   *
+   * @param tree The tree to write
+   * @param path The path to write to, an existing file is overwritten
+   * @throws IOException If an I/O exception occurred while writing
+   */
+  public static void write(final KdTree<ICoreNode> tree, final Path path) throws IOException {
+    final List<ICoreNode> elements = tree.getElements();
+    final long payloadSize = FIXED_SIZE + (long) elements.size() * Integer.BYTES;
+    final MappedByteBuffer buffer = BinaryFileUtil.create(path, MAGIC, VERSION, payloadSize);
+    buffer.putInt(elements.size());
+    for (final ICoreNode element : elements) {
+      buffer.putInt(element.getId());
+    }
+
+    BinaryFileUtil.finish(buffer);
+  }
+
+  /**
+   * The amount of elements in the cache.
+   */
+  private final int mAmountOfElements;
+  /**
+   * The element IDs, in tree order.
+   */
+  private final IntBuffer mElementIds;
+
+  /**
+   * Creates a new cache view over the given payload.
+   *
+   * @param payload The payload of the cache file, positioned at its start
+   * @throws IOException If the payload is inconsistent
+   */
+  private KdTreeCache(final ByteBuffer payload) throws IOException {
+    if (payload.remaining() < FIXED_SIZE) {
+      throw new IOException("Payload is too small");
+    }
+    mAmountOfElements = payload.getInt();
+    final long expectedSize = FIXED_SIZE + (long) mAmountOfElements * Integer.BYTES;
+    if (mAmountOfElements < 0 || expectedSize != payload.limit()) {
+      throw new IOException("Payload size does not match the amount of elements");
+    }
+    mElementIds = payload.slice().asIntBuffer();
+  }
+
+  /**
+   * Gets the amount of elements in the cache.
+   *
+   * @return The amount of elements
+   */
+  public int getAmountOfElements() {
+    return mAmountOfElements;
+  }
+
+  /**
+   * Materializes the cache into a new KD-tree whose elements are provided by
+   * the given provider.
+   *
+   * @param nodeProvider The provider to use for resolving node IDs, typically
+   *                     the graph whose nodes the tree was built of
+   * @return The materialized tree
+   * @throws IOException If the cache refers to nodes not known by the provider
+   */
+  public KdTree<ICoreNode> materialize(final IGetNodeById<ICoreNode> nodeProvider) throws IOException {
+    final List<ICoreNode> elements = FastList.newList(mAmountOfElements);
+    for (int i = 0; i < mAmountOfElements; i++) {
+      final int id = mElementIds.get(i);
+      final Optional<ICoreNode> element = nodeProvider.getNodeById(id);
+      if (!element.isPresent()) {
+        throw new IOException("Cache refers to an unknown node: " + id);
+      }
+      elements.add(element.get());
+    }
+    return KdTree.restore(elements);
+  }
+}
@@ -0,0 +1,313 @@
+package de.unifreiburg.informatik.cobweb.routing.model.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import org.eclipse.collections.api.map.primitive.MutableObjectIntMap;
+import org.eclipse.collections.api.map.primitive.ObjectDoubleMap;
+import org.eclipse.collections.api.tuple.primitive.ObjectDoublePair;
+import org.eclipse.collections.impl.list.mutable.FastList;
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap;
+
+import de.unifreiburg.informatik.cobweb.routing.algorithms.metrics.landmark.LandmarkMetric;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.IGetNodeById;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.IGraph;
+import de.unifreiburg.informatik.cobweb.util.BinaryFileUtil;
+import de.unifreiburg.informatik.cobweb.util.collections.NestedDoubleMap;
+
+/**
+ * Binary, memory-mapped cache format for {@link LandmarkMetric}s.<br>
+ * <br>
+ * Nodes are referenced by their ID. The distances are grouped by landmark,
+ * once for the distances from the landmark to all nodes it reaches and once for
+ * the distances from all nodes that reach the landmark. The payload, following
+ * the header of {@link BinaryFileUtil}, is
+ * <ol>
+ * <li>The amount of landmarks <tt>l</tt>, of distances from landmarks
+ * <tt>f</tt> and of distances to landmarks <tt>b</tt>, three
+ * <tt>int</tt>s</li>
+ * <li>Landmark IDs, <tt>l</tt> <tt>int</tt>s</li>
+ * <li>Offsets of the first distance of each landmark for both directions,
+ * <tt>2(l + 1)</tt> <tt>int</tt>s</li>
+ * <li>Node IDs of the distances from landmarks, <tt>f</tt> <tt>int</tt>s</li>
+ * <li>Node IDs of the distances to landmarks, <tt>b</tt> <tt>int</tt>s</li>
+ * <li>Distances from and to landmarks, <tt>f + b</tt> <tt>double</tt>s</li>
+ * </ol>
+ * Use {@link #write(LandmarkMetric, Path)} to create a cache and
+ * {@link #map(Path)} followed by {@link #materialize(IGetNodeById)} to load
+ * it.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class LandmarkCache {
+  /**
+   * The magic identifying the format, <tt>CWLM</tt> in ASCII.
+   */
+  public static final int MAGIC = 0x43574C4D;
+  /**
+   * The current version of the format.
+   */
+  public static final int VERSION = 1;
+  /**
+   * The size of the fixed part of the payload in bytes.
+   */
+  private static final int FIXED_SIZE = 3 * Integer.BYTES;
+  /**
+   * The size of the payload per distance in bytes.
+   */
+  private static final int SIZE_PER_DISTANCE = Integer.BYTES + Double.BYTES;
+  /**
+   * The size of the payload per landmark in bytes, excluding the additional
+   * offsets.
+   */
+  private static final int SIZE_PER_LANDMARK = 3 * Integer.BYTES;
+
+  /**
+   * Maps the cache stored at the given path into memory. The content is
+   * verified but not materialized, use {@link #materialize(IGetNodeById)} for
+   * that.
+   *
+   * @param path The path of the cache
+   * @return The mapped cache
+   * @throws IOException If an I/O exception occurred while mapping or if the
+   *                     file is not a valid cache of the current version
+   */
+  public static LandmarkCache map(final Path path) throws IOException {
+    return new LandmarkCache(BinaryFileUtil.map(path, MAGIC, VERSION));
+  }
+
+  /**
+   * Writes the given metric as cache to the given path.
+   *
+   * @param metric The metric to write
+   * @param path   The path to write to, an existing file is overwritten
+   * @throws IOException If an I/O exception occurred while writing
+   */
+  public static void write(final LandmarkMetric<ICoreNode, ?, ?> metric, final Path path) throws IOException {
+    final ICoreNode[] landmarks = metric.getLandmarks().toArray(new ICoreNode[0]);
+    final MutableObjectIntMap<ICoreNode> landmarkToIndex = new ObjectIntHashMap<>(landmarks.length);
+    for (int i = 0; i < landmarks.length; i++) {
+      landmarkToIndex.put(landmarks[i], i);
+    }
+    final NestedDoubleMap<ICoreNode, ICoreNode> landmarkToNode = metric.getLandmarkToNodeDistances();
+    final NestedDoubleMap<ICoreNode, ICoreNode> nodeToLandmark = metric.getNodeToLandmarkDistances();
+
+    // Count the distances per landmark in both directions
+    final int[] forwardOffsets = new int[landmarks.length + 1];
+    for (int i = 0; i < landmarks.length; i++) {
+      final ObjectDoubleMap<ICoreNode> distances = landmarkToNode.get(landmarks[i]);
+      forwardOffsets[i + 1] = forwardOffsets[i] + (distances == null ? 0 : distances.size());
+    }
+    final int[] backwardOffsets = new int[landmarks.length + 1];
+    for (final ICoreNode node : nodeToLandmark.keySet()) {
+      nodeToLandmark.get(node).forEachKey(landmark -> backwardOffsets[landmarkToIndex.getOrThrow(landmark) + 1]++);
+    }
+    for (int i = 0; i < landmarks.length; i++) {
+      backwardOffsets[i + 1] += backwardOffsets[i];
+    }
+    final int amountOfForward = forwardOffsets[landmarks.length];
+    final int amountOfBackward = backwardOffsets[landmarks.length];
+
+    final long payloadSize = FIXED_SIZE + (long) landmarks.length * SIZE_PER_LANDMARK + 2 * Integer.BYTES
+        + ((long) amountOfForward + amountOfBackward) * SIZE_PER_DISTANCE;
+    final MappedByteBuffer buffer = BinaryFileUtil.create(path, MAGIC, VERSION, payloadSize);
+    buffer.putInt(landmarks.length);
+    buffer.putInt(amountOfForward);
+    buffer.putInt(amountOfBackward);
+    for (final ICoreNode landmark : landmarks) {
+      buffer.putInt(landmark.getId());
+    }
+    for (final int offset : forwardOffsets) {
+      buffer.putInt(offset);
+    }
+    for (final int offset : backwardOffsets) {
+      buffer.putInt(offset);
+    }
+
+    // Node and distance columns are written at their absolute positions
+    final int forwardIdsStart = buffer.position();
+    final int backwardIdsStart = forwardIdsStart + amountOfForward * Integer.BYTES;
+    final int forwardDistancesStart = backwardIdsStart + amountOfBackward * Integer.BYTES;
+    final int backwardDistancesStart = forwardDistancesStart + amountOfForward * Double.BYTES;
+
+    for (int i = 0; i < landmarks.length; i++) {
+      final ObjectDoubleMap<ICoreNode> distances = landmarkToNode.get(landmarks[i]);
+      if (distances == null) {
+        continue;
+      }
+      int position = forwardOffsets[i];
+      for (final ObjectDoublePair<ICoreNode> entry : distances.keyValuesView()) {
+        buffer.putInt(forwardIdsStart + position * Integer.BYTES, entry.getOne().getId());
+        buffer.putDouble(forwardDistancesStart + position * Double.BYTES, entry.getTwo());
+        position++;
+      }
+    }
+    // Fill the groups of each landmark successively
+    final int[] backwardPositions = backwardOffsets.clone();
+    for (final ICoreNode node : nodeToLandmark.keySet()) {
+      for (final ObjectDoublePair<ICoreNode> entry : nodeToLandmark.get(node).keyValuesView()) {
+        final int position = backwardPositions[landmarkToIndex.getOrThrow(entry.getOne())]++;
+        buffer.putInt(backwardIdsStart + position * Integer.BYTES, node.getId());
+        buffer.putDouble(backwardDistancesStart + position * Double.BYTES, entry.getTwo());
+      }
+    }
+
+    BinaryFileUtil.finish(buffer);
+  }
+
+  /**
+   * Resolves the node with the given ID using the given provider.
+   *
+   * @param nodeProvider The provider to use
+   * @param id           The ID of the node to resolve
+   * @return The resolved node
+   * @throws IOException If the provider does not know the node
+   */
+  private static ICoreNode resolveNode(final IGetNodeById<ICoreNode> nodeProvider, final int id) throws IOException {
+    final Optional<ICoreNode> node = nodeProvider.getNodeById(id);
+    if (!node.isPresent()) {
+      throw new IOException("Cache refers to an unknown node: " + id);
+    }
+    return node.get();
+  }
+
+  /**
+   * Slices a column of the given size from the given buffer and advances the
+   * position of the buffer behind the column.
+   *
+   * @param buffer The buffer to slice from
+   * @param size   The size of the column in bytes
+   * @return A buffer over the column
+   */
+  private static ByteBuffer sliceColumn(final ByteBuffer buffer, final int size) {
+    final ByteBuffer column = buffer.slice();
+    column.limit(size);
+    buffer.position(buffer.position() + size);
+    return column;
+  }
+
+  /**
+   * The amount of distances to landmarks in the cache.
+   */
+  private final int mAmountOfBackward;
+  /**
+   * The amount of distances from landmarks in the cache.
+   */
+  private final int mAmountOfForward;
+  /**
+   * The amount of landmarks in the cache.
+   */
+  private final int mAmountOfLandmarks;
+  /**
+   * The distances to landmarks, grouped by landmark.
+   */
+  private final DoubleBuffer mBackwardDistances;
+  /**
+   * The IDs of the nodes of the distances to landmarks, grouped by landmark.
+   */
+  private final IntBuffer mBackwardNodeIds;
+  /**
+   * The index of the first distance to each landmark. Has one additional entry
+   * at the end which marks the end of the last landmark.
+   */
+  private final IntBuffer mBackwardOffsets;
+  /**
+   * The distances from landmarks, grouped by landmark.
+   */
+  private final DoubleBuffer mForwardDistances;
+  /**
+   * The IDs of the nodes of the distances from landmarks, grouped by landmark.
+   */
+  private final IntBuffer mForwardNodeIds;
+  /**
+   * The index of the first distance from each landmark. Has one additional
+   * entry at the end which marks the end of the last landmark.
+   */
+  private final IntBuffer mForwardOffsets;
+  /**
+   * The ID of each landmark.
+   */
+  private final IntBuffer mLandmarkIds;
+
+  /**
+   * Creates a new cache view over the given payload.
+   *
+   * @param payload The payload of the cache file, positioned at its start
+   * @throws IOException If the payload is inconsistent
+   */
+  private LandmarkCache(final ByteBuffer payload) throws IOException {
+    if (payload.remaining() < FIXED_SIZE) {
+      throw new IOException("Payload is too small");
+    }
+    mAmountOfLandmarks = payload.getInt();
+    mAmountOfForward = payload.getInt();
+    mAmountOfBackward = payload.getInt();
+    final long expectedSize = FIXED_SIZE + (long) mAmountOfLandmarks * SIZE_PER_LANDMARK + 2 * Integer.BYTES
+        + ((long) mAmountOfForward + mAmountOfBackward) * SIZE_PER_DISTANCE;
+    if (mAmountOfLandmarks < 0 || mAmountOfForward < 0 || mAmountOfBackward < 0 || expectedSize != payload.limit()) {
+      throw new IOException("Payload size does not match the amount of landmarks and distances");
+    }
+
+    mLandmarkIds = LandmarkCache.sliceColumn(payload, mAmountOfLandmarks * Integer.BYTES).asIntBuffer();
+    mForwardOffsets = LandmarkCache.sliceColumn(payload, (mAmountOfLandmarks + 1) * Integer.BYTES).asIntBuffer();
+    mBackwardOffsets = LandmarkCache.sliceColumn(payload, (mAmountOfLandmarks + 1) * Integer.BYTES).asIntBuffer();
+    mForwardNodeIds = LandmarkCache.sliceColumn(payload, mAmountOfForward * Integer.BYTES).asIntBuffer();
+    mBackwardNodeIds = LandmarkCache.sliceColumn(payload, mAmountOfBackward * Integer.BYTES).asIntBuffer();
+    mForwardDistances = LandmarkCache.sliceColumn(payload, mAmountOfForward * Double.BYTES).asDoubleBuffer();
+    mBackwardDistances = LandmarkCache.sliceColumn(payload, mAmountOfBackward * Double.BYTES).asDoubleBuffer();
+  }
+
+  /**
+   * Gets the amount of landmarks in the cache.
+   *
+   * @return The amount of landmarks
+   */
+  public int getAmountOfLandmarks() {
+    return mAmountOfLandmarks;
+  }
+
+  /**
+   * Materializes the cache into a new landmark metric whose nodes are provided
+   * by the given provider.
+   *
+   * @param nodeProvider The provider to use for resolving node IDs, typically
+   *                     the graph the metric was computed on
+   * @return The materialized metric
+   * @throws IOException If the content of the cache is inconsistent or refers
+   *                     to nodes not known by the provider
+   */
+  public LandmarkMetric<ICoreNode, ICoreEdge<ICoreNode>, IGraph<ICoreNode, ICoreEdge<ICoreNode>>>
+      materialize(final IGetNodeById<ICoreNode> nodeProvider) throws IOException {
+    final List<ICoreNode> landmarks = FastList.newList(mAmountOfLandmarks);
+    for (int i = 0; i < mAmountOfLandmarks; i++) {
+      landmarks.add(LandmarkCache.resolveNode(nodeProvider, mLandmarkIds.get(i)));
+    }
+
+    final NestedDoubleMap<ICoreNode, ICoreNode> landmarkToNode = new NestedDoubleMap<>(mAmountOfLandmarks);
+    final NestedDoubleMap<ICoreNode, ICoreNode> nodeToLandmark =
+        new NestedDoubleMap<>(mAmountOfLandmarks == 0 ? 0 : mAmountOfBackward / mAmountOfLandmarks);
+    nodeToLandmark.setNestedInitialCapacity(mAmountOfLandmarks);
+    for (int i = 0; i < mAmountOfLandmarks; i++) {
+      final ICoreNode landmark = landmarks.get(i);
+      final int forwardEnd = mForwardOffsets.get(i + 1);
+      for (int entry = mForwardOffsets.get(i); entry < forwardEnd; entry++) {
+        landmarkToNode.put(landmark, LandmarkCache.resolveNode(nodeProvider, mForwardNodeIds.get(entry)),
+            mForwardDistances.get(entry));
+      }
+      final int backwardEnd = mBackwardOffsets.get(i + 1);
+      for (int entry = mBackwardOffsets.get(i); entry < backwardEnd; entry++) {
+        nodeToLandmark.put(LandmarkCache.resolveNode(nodeProvider, mBackwardNodeIds.get(entry)), landmark,
+            mBackwardDistances.get(entry));
+      }
+    }
+    return new LandmarkMetric<>(landmarks, landmarkToNode, nodeToLandmark);
+  }
+}
@@ -0,0 +1,454 @@
+package de.unifreiburg.informatik.cobweb.routing.model.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.eclipse.collections.api.map.primitive.MutableIntIntMap;
+import org.eclipse.collections.impl.map.mutable.primitive.IntIntHashMap;
+
+import de.unifreiburg.informatik.cobweb.parsing.osm.EHighwayType;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadGraph;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadNode;
+import de.unifreiburg.informatik.cobweb.util.BinaryFileUtil;
+
+/**
+ * Binary, memory-mapped cache format for {@link RoadGraph}s consisting of
+ * {@link RoadNode}s and {@link RoadEdge}s.<br>
+ * <br>
+ * The graph is stored as primitive columns. Nodes are identified by their index
+ * in the node columns, edges are grouped by their source node in a compressed
+ * sparse row layout. The payload, following the header of
+ * {@link BinaryFileUtil}, is
+ * <ol>
+ * <li>The unique node and way ID used last by the graph, two <tt>int</tt>s</li>
+ * <li>The amount of nodes <tt>n</tt> and edges <tt>m</tt>, two
+ * <tt>int</tt>s</li>
+ * <li>Node IDs, latitudes and longitudes, <tt>n</tt> <tt>int</tt>s and
+ * <tt>2n</tt> <tt>float</tt>s</li>
+ * <li>Offsets of the first outgoing edge of each node, <tt>n + 1</tt>
+ * <tt>int</tt>s</li>
+ * <li>Edge way IDs, destination node indices and maximal speeds, <tt>3m</tt>
+ * <tt>int</tt>s</li>
+ * <li>Edge highway types and transportation mode bitmasks, <tt>2m</tt>
+ * <tt>byte</tt>s. A highway type is its ordinal or {@link #NO_TYPE} if the edge
+ * has no type.</li>
+ * </ol>
+ * Use {@link #write(RoadGraph, Path)} to create a cache and
+ * {@link #map(Path)} followed by {@link #materialize()} to load it. The node
+ * columns can be read directly from the mapped memory, objects are only created
+ * when materializing.<br>
+ * <br>
+ * The format has two limits. Mapping reads the whole file once to verify its
+ * checksum and materializing copies all nodes and edges into heap objects,
+ * thus loading takes time and memory linear in the size of the graph. Further,
+ * a file is mapped as one buffer and can not exceed {@link Integer#MAX_VALUE}
+ * bytes, about 2 GB, writing bigger graphs fails. Such graphs should be stored
+ * using {@link TiledRoadGraphCache}, which splits them into one file per tile
+ * that is only mapped and materialized on demand.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class RoadGraphCache {
+  /**
+   * The magic identifying the format, <tt>CWRG</tt> in ASCII.
+   */
+  public static final int MAGIC = 0x43575247;
+  /**
+   * The current version of the format.
+   */
+  public static final int VERSION = 1;
+  /**
+   * The value written as highway type of edges without a type.
+   */
+  private static final byte NO_TYPE = (byte) 0xFF;
+  /**
+   * The size of the fixed part of the payload in bytes.
+   */
+  private static final int FIXED_SIZE = 4 * Integer.BYTES;
+  /**
+   * The size of the payload per edge in bytes.
+   */
+  private static final int SIZE_PER_EDGE = 3 * Integer.BYTES + 2 * Byte.BYTES;
+  /**
+   * The size of the payload per node in bytes, excluding the additional edge
+   * offset.
+   */
+  private static final int SIZE_PER_NODE = 2 * Integer.BYTES + 2 * Float.BYTES;
+
+  /**
+   * Decodes the given bitmask into a set of transportation modes.
+   *
+   * @param mask The bitmask to decode, see {@link #encodeModes(Set)}
+   * @return The decoded transportation modes
+   */
+  public static Set<ETransportationMode> decodeModes(final int mask) {
+    final Set<ETransportationMode> modes = EnumSet.noneOf(ETransportationMode.class);
+    for (final ETransportationMode mode : ETransportationMode.values()) {
+      if ((mask & 1 << mode.ordinal()) != 0) {
+        modes.add(mode);
+      }
+    }
+    return modes;
+  }
+
+  /**
+   * Encodes the given transportation modes into a bitmask. The bit at the
+   * position of the ordinal of a mode is set if it is contained.
+   *
+   * @param modes The modes to encode
+   * @return The encoded bitmask
+   */
+  public static int encodeModes(final Set<ETransportationMode> modes) {
+    int mask = 0;
+    for (final ETransportationMode mode : modes) {
+      mask |= 1 << mode.ordinal();
+    }
+    return mask;
+  }
+
+  /**
+   * Maps the cache stored at the given path into memory. The content is
+   * verified, which reads the whole file, but not materialized, use
+   * {@link #materialize()} for that.
+   *
+   * @param path The path of the cache
+   * @return The mapped cache
+   * @throws IOException If an I/O exception occurred while mapping or if the
+   *                     file is not a valid cache of the current version
+   */
+  public static RoadGraphCache map(final Path path) throws IOException {
+    return new RoadGraphCache(BinaryFileUtil.map(path, MAGIC, VERSION));
+  }
+
+  /**
+   * Writes the given graph as cache to the given path. Edges are written in the
+   * direction of the current view of the graph, i.e. respecting its reversed
+   * state.
+   *
+   * @param graph The graph to write, must only consist of {@link RoadEdge}s
+   * @param path  The path to write to, an existing file is overwritten
+   * @throws IOException              If an I/O exception occurred while writing
+   *                                  or if the cache would exceed
+   *                                  {@link Integer#MAX_VALUE} bytes
+   * @throws IllegalArgumentException If the graph contains edges which are not
+   *                                  {@link RoadEdge}s
+   * @throws IllegalStateException    If the amount of edges reported by the
+   *                                  graph does not match its content
+   */
+  public static void write(final RoadGraph<ICoreNode, ICoreEdge<ICoreNode>> graph, final Path path)
+      throws IOException, IllegalArgumentException, IllegalStateException {
+    RoadGraphCache.write(graph.getNodes(), graph::getOutgoingEdges, graph.getAmountOfEdges(),
+        graph.getLastUsedNodeId(), graph.getLastUsedWayId(), path);
+  }
+
+  /**
+   * Writes the graph given by its nodes and outgoing edges as cache to the
+   * given path. Can be used to write parts of a graph, the destinations of all
+   * given edges must be contained in the given nodes.
+   *
+   * @param graphNodes     The nodes of the graph
+   * @param outgoingEdges  Function that provides the outgoing edges to write for
+   *                       each of the given nodes, must only provide
+   *                       {@link RoadEdge}s
+   * @param amountOfEdges  The total amount of edges provided by the function
+   * @param lastUsedNodeId The last node ID used by the graph
+   * @param lastUsedWayId  The last way ID used by the graph
+   * @param path           The path to write to, an existing file is overwritten
+   * @throws IOException              If an I/O exception occurred while writing
+   *                                  or if the cache would exceed
+   *                                  {@link Integer#MAX_VALUE} bytes
+   * @throws IllegalArgumentException If an edge is not a {@link RoadEdge}
+   * @throws IllegalStateException    If the given amount of edges does not
+   *                                  match the provided edges
+   */
+  public static void write(final Collection<ICoreNode> graphNodes,
+      final Function<ICoreNode, Stream<ICoreEdge<ICoreNode>>> outgoingEdges, final int amountOfEdges,
+      final int lastUsedNodeId, final int lastUsedWayId, final Path path)
+      throws IOException, IllegalArgumentException, IllegalStateException {
+    final int amountOfNodes = graphNodes.size();
+    final long payloadSize = FIXED_SIZE + (long) amountOfNodes * SIZE_PER_NODE + Integer.BYTES
+        + (long) amountOfEdges * SIZE_PER_EDGE;
+
+    // Assign indices to all nodes
+    final ICoreNode[] nodes = graphNodes.toArray(new ICoreNode[amountOfNodes]);
+    final MutableIntIntMap idToIndex = new IntIntHashMap(amountOfNodes);
+    for (int i = 0; i < amountOfNodes; i++) {
+      idToIndex.put(nodes[i].getId(), i);
+    }
+
+    final MappedByteBuffer buffer = BinaryFileUtil.create(path, MAGIC, VERSION, payloadSize);
+    buffer.putInt(lastUsedNodeId);
+    buffer.putInt(lastUsedWayId);
+    buffer.putInt(amountOfNodes);
+    buffer.putInt(amountOfEdges);
+
+    for (final ICoreNode node : nodes) {
+      buffer.putInt(node.getId());
+    }
+    for (final ICoreNode node : nodes) {
+      buffer.putFloat(node.getLatitude());
+    }
+    for (final ICoreNode node : nodes) {
+      buffer.putFloat(node.getLongitude());
+    }
+
+    // Edge columns are written at their absolute positions while iterating the
+    // nodes once
+    final int offsetsStart = buffer.position();
+    final int wayIdsStart = offsetsStart + (amountOfNodes + 1) * Integer.BYTES;
+    final int destinationsStart = wayIdsStart + amountOfEdges * Integer.BYTES;
+    final int maxSpeedsStart = destinationsStart + amountOfEdges * Integer.BYTES;
+    final int typesStart = maxSpeedsStart + amountOfEdges * Integer.BYTES;
+    final int modesStart = typesStart + amountOfEdges;
+
+    int edgeIndex = 0;
+    for (int i = 0; i < amountOfNodes; i++) {
+      buffer.putInt(offsetsStart + i * Integer.BYTES, edgeIndex);
+      final Iterator<ICoreEdge<ICoreNode>> edges = outgoingEdges.apply(nodes[i]).iterator();
+      while (edges.hasNext()) {
+        final ICoreEdge<ICoreNode> edge = edges.next();
+        if (!(edge instanceof RoadEdge)) {
+          throw new IllegalArgumentException("Only road edges are supported, got: " + edge);
+        }
+        if (edgeIndex == amountOfEdges) {
+          throw new IllegalStateException("Graph contains more edges than it reports");
+        }
+        final RoadEdge<ICoreNode> roadEdge = (RoadEdge<ICoreNode>) edge;
+        buffer.putInt(wayIdsStart + edgeIndex * Integer.BYTES, roadEdge.getId());
+        buffer.putInt(destinationsStart + edgeIndex * Integer.BYTES,
+            idToIndex.getOrThrow(roadEdge.getDestination().getId()));
+        buffer.putInt(maxSpeedsStart + edgeIndex * Integer.BYTES, roadEdge.getMaxSpeed());
+        final EHighwayType type = roadEdge.getType();
+        buffer.put(typesStart + edgeIndex, type == null ? NO_TYPE : (byte) type.ordinal());
+        buffer.put(modesStart + edgeIndex, (byte) encodeModes(roadEdge.getTransportationModes()));
+        edgeIndex++;
+      }
+    }
+    if (edgeIndex != amountOfEdges) {
+      throw new IllegalStateException("Graph contains less edges than it reports");
+    }
+    buffer.putInt(offsetsStart + amountOfNodes * Integer.BYTES, edgeIndex);
+
+    BinaryFileUtil.finish(buffer);
+  }
+
+  /**
+   * Slices a column of the given size from the given buffer and advances the
+   * position of the buffer behind the column.
+   *
+   * @param buffer The buffer to slice from
+   * @param size   The size of the column in bytes
+   * @return A buffer over the column
+   */
+  private static ByteBuffer sliceColumn(final ByteBuffer buffer, final int size) {
+    final ByteBuffer column = buffer.slice();
+    column.limit(size);
+    buffer.position(buffer.position() + size);
+    return column;
+  }
+
+  /**
+   * The amount of edges in the cache.
+   */
+  private final int mAmountOfEdges;
+  /**
+   * The amount of nodes in the cache.
+   */
+  private final int mAmountOfNodes;
+  /**
+   * The destination node index of each edge.
+   */
+  private final IntBuffer mEdgeDestinations;
+  /**
+   * The maximal speed of each edge.
+   */
+  private final IntBuffer mEdgeMaxSpeeds;
+  /**
+   * The transportation mode bitmask of each edge, one byte per edge.
+   */
+  private final ByteBuffer mEdgeModes;
+  /**
+   * The highway type ordinal of each edge, one byte per edge.
+   */
+  private final ByteBuffer mEdgeTypes;
+  /**
+   * The way ID of each edge.
+   */
+  private final IntBuffer mEdgeWayIds;
+  /**
+   * The unique node ID used last by the cached graph.
+   */
+  private final int mLastUsedNodeId;
+  /**
+   * The unique way ID used last by the cached graph.
+   */
+  private final int mLastUsedWayId;
+  /**
+   * The ID of each node.
+   */
+  private final IntBuffer mNodeIds;
+  /**
+   * The latitude of each node.
+   */
+  private final FloatBuffer mNodeLatitudes;
+  /**
+   * The longitude of each node.
+   */
+  private final FloatBuffer mNodeLongitudes;
+  /**
+   * The index of the first outgoing edge of each node. Has one additional entry
+   * at the end which marks the end of the last node.
+   */
+  private final IntBuffer mOutgoingEdgeOffsets;
+
+  /**
+   * Creates a new cache view over the given payload.
+   *
+   * @param payload The payload of the cache file, positioned at its start
+   * @throws IOException If the payload is inconsistent
+   */
+  private RoadGraphCache(final ByteBuffer payload) throws IOException {
+    if (payload.remaining() < FIXED_SIZE) {
+      throw new IOException("Payload is too small");
+    }
+    mLastUsedNodeId = payload.getInt();
+    mLastUsedWayId = payload.getInt();
+    mAmountOfNodes = payload.getInt();
+    mAmountOfEdges = payload.getInt();
+    final long expectedSize = FIXED_SIZE + (long) mAmountOfNodes * SIZE_PER_NODE + Integer.BYTES
+        + (long) mAmountOfEdges * SIZE_PER_EDGE;
+    if (mAmountOfNodes < 0 || mAmountOfEdges < 0 || expectedSize != payload.limit()) {
+      throw new IOException("Payload size does not match the amount of nodes and edges");
+    }
+
+    mNodeIds = RoadGraphCache.sliceColumn(payload, mAmountOfNodes * Integer.BYTES).asIntBuffer();
+    mNodeLatitudes = RoadGraphCache.sliceColumn(payload, mAmountOfNodes * Float.BYTES).asFloatBuffer();
+    mNodeLongitudes = RoadGraphCache.sliceColumn(payload, mAmountOfNodes * Float.BYTES).asFloatBuffer();
+    mOutgoingEdgeOffsets = RoadGraphCache.sliceColumn(payload, (mAmountOfNodes + 1) * Integer.BYTES).asIntBuffer();
+    mEdgeWayIds = RoadGraphCache.sliceColumn(payload, mAmountOfEdges * Integer.BYTES).asIntBuffer();
+    mEdgeDestinations = RoadGraphCache.sliceColumn(payload, mAmountOfEdges * Integer.BYTES).asIntBuffer();
+    mEdgeMaxSpeeds = RoadGraphCache.sliceColumn(payload, mAmountOfEdges * Integer.BYTES).asIntBuffer();
+    mEdgeTypes = RoadGraphCache.sliceColumn(payload, mAmountOfEdges);
+    mEdgeModes = RoadGraphCache.sliceColumn(payload, mAmountOfEdges);
+  }
+
+  /**
+   * Gets the amount of edges in the cache.
+   *
+   * @return The amount of edges
+   */
+  public int getAmountOfEdges() {
+    return mAmountOfEdges;
+  }
+
+  /**
+   * Gets the amount of nodes in the cache.
+   *
+   * @return The amount of nodes
+   */
+  public int getAmountOfNodes() {
+    return mAmountOfNodes;
+  }
+
+  /**
+   * Gets the latitude of the node with the given index.
+   *
+   * @param index The index of the node
+   * @return The latitude of the node, in degrees
+   */
+  public float getLatitude(final int index) {
+    return mNodeLatitudes.get(index);
+  }
+
+  /**
+   * Gets the longitude of the node with the given index.
+   *
+   * @param index The index of the node
+   * @return The longitude of the node, in degrees
+   */
+  public float getLongitude(final int index) {
+    return mNodeLongitudes.get(index);
+  }
+
+  /**
+   * Gets the ID of the node with the given index.
+   *
+   * @param index The index of the node
+   * @return The ID of the node
+   */
+  public int getNodeId(final int index) {
+    return mNodeIds.get(index);
+  }
+
+  /**
+   * Materializes the cache into a new road graph consisting of
+   * {@link RoadNode}s and {@link RoadEdge}s.
+   *
+   * @return The materialized graph
+   * @throws IOException If the content of the cache is inconsistent
+   */
+  public RoadGraph<ICoreNode, ICoreEdge<ICoreNode>> materialize() throws IOException {
+    final RoadGraph<ICoreNode, ICoreEdge<ICoreNode>> graph = new RoadGraph<>(mLastUsedNodeId, mLastUsedWayId);
+    materialize(graph::addNode, graph::addEdge);
+    return graph;
+  }
+
+  /**
+   * Materializes the cache into new {@link RoadNode}s and {@link RoadEdge}s and
+   * passes them to the given consumers, without building a graph. All nodes are
+   * passed before the first edge, nodes in the order of their index. Edges are
+   * passed grouped by the index of their source.
+   *
+   * @param nodeConsumer Consumer to pass the materialized nodes to
+   * @param edgeConsumer Consumer to pass the materialized edges to
+   * @throws IOException If the content of the cache is inconsistent
+   */
+  public void materialize(final Consumer<? super RoadNode> nodeConsumer,
+      final Consumer<? super RoadEdge<ICoreNode>> edgeConsumer) throws IOException {
+    final RoadNode[] nodes = new RoadNode[mAmountOfNodes];
+    for (int i = 0; i < mAmountOfNodes; i++) {
+      nodes[i] = new RoadNode(mNodeIds.get(i), mNodeLatitudes.get(i), mNodeLongitudes.get(i));
+      nodeConsumer.accept(nodes[i]);
+    }
+
+    final EHighwayType[] types = EHighwayType.values();
+    // Share the mode sets, edges copy them anyways
+    final int amountOfMasks = 1 << ETransportationMode.values().length;
+    final List<Set<ETransportationMode>> maskToModes = new ArrayList<>(amountOfMasks);
+    for (int mask = 0; mask < amountOfMasks; mask++) {
+      maskToModes.add(RoadGraphCache.decodeModes(mask));
+    }
+    for (int i = 0; i < mAmountOfNodes; i++) {
+      final int edgesEnd = mOutgoingEdgeOffsets.get(i + 1);
+      for (int edge = mOutgoingEdgeOffsets.get(i); edge < edgesEnd; edge++) {
+        final int destination = mEdgeDestinations.get(edge);
+        final byte type = mEdgeTypes.get(edge);
+        final int mask = mEdgeModes.get(edge) & 0xFF;
+        if (destination < 0 || destination >= mAmountOfNodes || type != NO_TYPE && (type < 0 || type >= types.length)
+            || mask >= amountOfMasks) {
+          throw new IOException("Inconsistent edge data at edge " + edge);
+        }
+
+        edgeConsumer.accept(new RoadEdge<>(mEdgeWayIds.get(edge), nodes[i], nodes[destination],
+            type == NO_TYPE ? null : types[type], mEdgeMaxSpeeds.get(edge), maskToModes.get(mask)));
+      }
+    }
+  }
+}
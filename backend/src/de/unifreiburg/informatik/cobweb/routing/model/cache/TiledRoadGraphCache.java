@@ -0,0 +1,395 @@
+package de.unifreiburg.informatik.cobweb.routing.model.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.list.primitive.MutableIntList;
+import org.eclipse.collections.api.map.primitive.MutableIntIntMap;
+import org.eclipse.collections.impl.list.mutable.FastList;
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
+import org.eclipse.collections.impl.map.mutable.primitive.IntIntHashMap;
+import org.eclipse.collections.impl.set.mutable.UnifiedSet;
+
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadGraph;
+import de.unifreiburg.informatik.cobweb.util.BinaryFileUtil;
+
+/**
+ * Binary, memory-mapped cache format for road graphs which are partitioned
+ * into geographic tiles.<br>
+ * <br>
+ * The cache is a directory that contains one {@link RoadGraphCache} file per
+ * tile and an index. Tiles are cells of a regular latitude and longitude grid,
+ * see {@link #computeTileKey(float, float, double)}. A tile contains its nodes
+ * together with all edges leaving or entering them. Nodes of other tiles that
+ * are connected to the tile by an edge are contained as well, such that each
+ * tile can be materialized on its own.<br>
+ * <br>
+ * The payload of the index, following the header of {@link BinaryFileUtil},
+ * is
+ * <ol>
+ * <li>The size of the tiles in degrees, a <tt>double</tt></li>
+ * <li>The last used node and way ID, the amount of nodes and edges, the
+ * amount of tiles <tt>t</tt> and the length <tt>n</tt> of the node tile
+ * column, six <tt>int</tt>s</li>
+ * <li>The key of each tile, <tt>t</tt> <tt>int</tt>s</li>
+ * <li>The index of the tile of each node, indexed by the node ID or
+ * <tt>-1</tt> if there is no node with that ID, <tt>n</tt>
+ * <tt>int</tt>s</li>
+ * </ol>
+ * The index is written last. Use {@link #write(RoadGraph, Path, double)} to
+ * create a cache and {@link #map(Path)} to load its index. Tiles are loaded by
+ * mapping the files given by {@link #getTilePath(int)}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class TiledRoadGraphCache {
+  /**
+   * The name of the index file inside the cache directory.
+   */
+  public static final String INDEX = "index.bin";
+  /**
+   * The magic identifying the format of the index, <tt>CWTI</tt> in ASCII.
+   */
+  public static final int MAGIC = 0x43575449;
+  /**
+   * The current version of the format.
+   */
+  public static final int VERSION = 1;
+  /**
+   * The size of the fixed part of the payload in bytes.
+   */
+  private static final int FIXED_SIZE = Double.BYTES + 6 * Integer.BYTES;
+  /**
+   * Glob pattern matching the names of all tile files, see
+   * {@link #getTileFileName(int)}.
+   */
+  private static final String TILE_FILE_PATTERN = "tile*.bin";
+
+  /**
+   * Computes the key of the tile which contains the given location. Tiles are
+   * numbered row-wise, starting at latitude <tt>-90</tt> and longitude
+   * <tt>-180</tt>.
+   *
+   * @param latitude  The latitude of the location
+   * @param longitude The longitude of the location
+   * @param tileSize  The size of the tiles in degrees
+   * @return The key of the tile containing the location
+   */
+  public static int computeTileKey(final float latitude, final float longitude, final double tileSize) {
+    final int columns = (int) Math.ceil(360.0 / tileSize);
+    final int rows = (int) Math.ceil(180.0 / tileSize);
+    final int row = Math.min(Math.max((int) Math.floor((latitude + 90.0) / tileSize), 0), rows - 1);
+    final int column = Math.min(Math.max((int) Math.floor((longitude + 180.0) / tileSize), 0), columns - 1);
+    return row * columns + column;
+  }
+
+  /**
+   * Maps the index of the cache stored in the given directory into memory.
+   *
+   * @param directory The directory of the cache
+   * @return The mapped cache
+   * @throws IOException If an I/O exception occurred while mapping or if the
+   *                     index is not valid for the current version
+   */
+  public static TiledRoadGraphCache map(final Path directory) throws IOException {
+    return new TiledRoadGraphCache(directory, BinaryFileUtil.map(directory.resolve(INDEX), MAGIC, VERSION));
+  }
+
+  /**
+   * Writes the given graph as tiled cache to the given directory. The index and
+   * the tiles of a previous cache in the directory are deleted first and the
+   * new index is written after all tiles, such that an interrupted write
+   * leaves no valid cache behind and no stale tiles remain.
+   *
+   * @param graph     The graph to write, must only consist of road edges and
+   *                  not be reversed
+   * @param directory The directory to write to
+   * @param tileSize  The size of the tiles in degrees, must be positive and
+   *                  big enough such that all tile keys fit into an
+   *                  <tt>int</tt>
+   * @throws IOException If an I/O exception occurred while writing
+   */
+  public static void write(final RoadGraph<ICoreNode, ICoreEdge<ICoreNode>> graph, final Path directory,
+      final double tileSize) throws IOException {
+    if (!(tileSize > 0.0) || Math.ceil(360.0 / tileSize) * Math.ceil(180.0 / tileSize) > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Tile size not supported: " + tileSize);
+    }
+    Files.createDirectories(directory);
+    final Path index = directory.resolve(INDEX);
+    Files.deleteIfExists(index);
+    // Tiles of a previous cache may have other keys, they are not overwritten
+    try (DirectoryStream<Path> previousTiles = Files.newDirectoryStream(directory, TILE_FILE_PATTERN)) {
+      for (final Path previousTile : previousTiles) {
+        Files.delete(previousTile);
+      }
+    }
+
+    // Assign all nodes to their tile
+    final int[] nodeTiles = new int[graph.getLastUsedNodeId() + 1];
+    Arrays.fill(nodeTiles, -1);
+    final MutableIntIntMap keyToTile = new IntIntHashMap();
+    final MutableIntList tileKeys = new IntArrayList();
+    final MutableList<List<ICoreNode>> tileNodes = FastList.newList();
+    for (final ICoreNode node : graph.getNodes()) {
+      final int key = TiledRoadGraphCache.computeTileKey(node.getLatitude(), node.getLongitude(), tileSize);
+      final int tile = keyToTile.getIfAbsentPut(key, tileKeys.size());
+      if (tile == tileKeys.size()) {
+        tileKeys.add(key);
+        tileNodes.add(FastList.newList());
+      }
+      tileNodes.get(tile).add(node);
+      nodeTiles[node.getId()] = tile;
+    }
+
+    for (int tile = 0; tile < tileKeys.size(); tile++) {
+      TiledRoadGraphCache.writeTile(graph, tile, tileNodes.get(tile), nodeTiles,
+          directory.resolve(TiledRoadGraphCache.getTileFileName(tileKeys.get(tile))));
+      // Release the nodes of written tiles early
+      tileNodes.set(tile, null);
+    }
+
+    final long payloadSize =
+        FIXED_SIZE + (long) tileKeys.size() * Integer.BYTES + (long) nodeTiles.length * Integer.BYTES;
+    final MappedByteBuffer buffer = BinaryFileUtil.create(index, MAGIC, VERSION, payloadSize);
+    buffer.putDouble(tileSize);
+    buffer.putInt(graph.getLastUsedNodeId());
+    buffer.putInt(graph.getLastUsedWayId());
+    buffer.putInt(graph.size());
+    buffer.putInt(graph.getAmountOfEdges());
+    buffer.putInt(tileKeys.size());
+    buffer.putInt(nodeTiles.length);
+    tileKeys.forEach(buffer::putInt);
+    for (final int nodeTile : nodeTiles) {
+      buffer.putInt(nodeTile);
+    }
+
+    BinaryFileUtil.finish(buffer);
+  }
+
+  /**
+   * Gets the name of the file of the tile with the given key.
+   *
+   * @param tileKey The key of the tile
+   * @return The name of the file of the tile
+   */
+  private static String getTileFileName(final int tileKey) {
+    return "tile" + tileKey + ".bin";
+  }
+
+  /**
+   * Slices a column of the given size from the given buffer and advances the
+   * position of the buffer behind the column.
+   *
+   * @param buffer The buffer to slice from
+   * @param size   The size of the column in bytes
+   * @return A buffer over the column
+   */
+  private static ByteBuffer sliceColumn(final ByteBuffer buffer, final int size) {
+    final ByteBuffer column = buffer.slice();
+    column.limit(size);
+    buffer.position(buffer.position() + size);
+    return column;
+  }
+
+  /**
+   * Writes a single tile of the given graph as {@link RoadGraphCache}. The tile
+   * consists of its nodes, all their outgoing edges and all edges from other
+   * tiles entering them. Nodes of other tiles which are endpoints of such
+   * edges are added to the tile.
+   *
+   * @param graph     The graph to write a tile of
+   * @param tile      The index of the tile to write
+   * @param nodes     The nodes of the tile
+   * @param nodeTiles The index of the tile of each node, indexed by node ID
+   * @param path      The path to write the tile to
+   * @throws IOException If an I/O exception occurred while writing
+   */
+  private static void writeTile(final RoadGraph<ICoreNode, ICoreEdge<ICoreNode>> graph, final int tile,
+      final Collection<ICoreNode> nodes, final int[] nodeTiles, final Path path) throws IOException {
+    final UnifiedSet<ICoreNode> foreignNodes = UnifiedSet.newSet();
+    int amountOfEdges = 0;
+    for (final ICoreNode node : nodes) {
+      final List<ICoreEdge<ICoreNode>> outgoingEdges = graph.getOutgoingEdges(node).collect(Collectors.toList());
+      amountOfEdges += outgoingEdges.size();
+      for (final ICoreEdge<ICoreNode> edge : outgoingEdges) {
+        if (nodeTiles[edge.getDestination().getId()] != tile) {
+          foreignNodes.add(edge.getDestination());
+        }
+      }
+      final Iterable<ICoreEdge<ICoreNode>> incomingEdges = graph.getIncomingEdges(node)::iterator;
+      for (final ICoreEdge<ICoreNode> edge : incomingEdges) {
+        if (nodeTiles[edge.getSource().getId()] != tile) {
+          foreignNodes.add(edge.getSource());
+          amountOfEdges++;
+        }
+      }
+    }
+
+    final List<ICoreNode> allNodes = FastList.newList(nodes.size() + foreignNodes.size());
+    allNodes.addAll(nodes);
+    allNodes.addAll(foreignNodes);
+    RoadGraphCache.write(allNodes, node -> {
+      final Stream<ICoreEdge<ICoreNode>> edges = graph.getOutgoingEdges(node);
+      if (nodeTiles[node.getId()] == tile) {
+        return edges;
+      }
+      // Only edges of foreign nodes entering the tile belong to it
+      return edges.filter(edge -> nodeTiles[edge.getDestination().getId()] == tile);
+    }, amountOfEdges, graph.getLastUsedNodeId(), graph.getLastUsedWayId(), path);
+  }
+
+  /**
+   * The amount of edges of the cached graph.
+   */
+  private final int mAmountOfEdges;
+  /**
+   * The amount of nodes of the cached graph.
+   */
+  private final int mAmountOfNodes;
+  /**
+   * The directory of the cache.
+   */
+  private final Path mDirectory;
+  /**
+   * The unique node ID used last by the cached graph.
+   */
+  private final int mLastUsedNodeId;
+  /**
+   * The unique way ID used last by the cached graph.
+   */
+  private final int mLastUsedWayId;
+  /**
+   * The index of the tile of each node, indexed by node ID.
+   */
+  private final IntBuffer mNodeTiles;
+  /**
+   * The key of each tile.
+   */
+  private final int[] mTileKeys;
+  /**
+   * The size of the tiles in degrees.
+   */
+  private final double mTileSize;
+
+  /**
+   * Creates a new cache view over the given index payload.
+   *
+   * @param directory The directory of the cache
+   * @param payload   The payload of the index file, positioned at its start
+   * @throws IOException If the payload is inconsistent
+   */
+  private TiledRoadGraphCache(final Path directory, final ByteBuffer payload) throws IOException {
+    if (payload.remaining() < FIXED_SIZE) {
+      throw new IOException("Payload is too small");
+    }
+    mDirectory = directory;
+    mTileSize = payload.getDouble();
+    mLastUsedNodeId = payload.getInt();
+    mLastUsedWayId = payload.getInt();
+    mAmountOfNodes = payload.getInt();
+    mAmountOfEdges = payload.getInt();
+    final int amountOfTiles = payload.getInt();
+    final int amountOfNodeTiles = payload.getInt();
+    final long expectedSize =
+        FIXED_SIZE + (long) amountOfTiles * Integer.BYTES + (long) amountOfNodeTiles * Integer.BYTES;
+    if (amountOfTiles < 0 || amountOfNodeTiles < 0 || expectedSize != payload.limit()) {
+      throw new IOException("Payload size does not match the amount of tiles and nodes");
+    }
+
+    mTileKeys = new int[amountOfTiles];
+    TiledRoadGraphCache.sliceColumn(payload, amountOfTiles * Integer.BYTES).asIntBuffer().get(mTileKeys);
+    mNodeTiles = TiledRoadGraphCache.sliceColumn(payload, amountOfNodeTiles * Integer.BYTES).asIntBuffer();
+  }
+
+  /**
+   * Gets the amount of edges of the cached graph.
+   *
+   * @return The amount of edges
+   */
+  public int getAmountOfEdges() {
+    return mAmountOfEdges;
+  }
+
+  /**
+   * Gets the amount of nodes of the cached graph.
+   *
+   * @return The amount of nodes
+   */
+  public int getAmountOfNodes() {
+    return mAmountOfNodes;
+  }
+
+  /**
+   * Gets the amount of tiles of the cached graph.
+   *
+   * @return The amount of tiles
+   */
+  public int getAmountOfTiles() {
+    return mTileKeys.length;
+  }
+
+  /**
+   * Gets the unique node ID used last by the cached graph.
+   *
+   * @return The last used node ID
+   */
+  public int getLastUsedNodeId() {
+    return mLastUsedNodeId;
+  }
+
+  /**
+   * Gets the unique way ID used last by the cached graph.
+   *
+   * @return The last used way ID
+   */
+  public int getLastUsedWayId() {
+    return mLastUsedWayId;
+  }
+
+  /**
+   * Gets the index of the tile that contains the node with the given ID.
+   *
+   * @param nodeId The ID of the node
+   * @return The index of the tile or <tt>-1</tt> if the graph contains no node
+   *         with the given ID
+   */
+  public int getTileOfNode(final int nodeId) {
+    if (nodeId < 0 || nodeId >= mNodeTiles.limit()) {
+      return -1;
+    }
+    return mNodeTiles.get(nodeId);
+  }
+
+  /**
+   * Gets the path of the file of the tile with the given index. The file is a
+   * {@link RoadGraphCache}.
+   *
+   * @param tile The index of the tile
+   * @return The path of the tile file
+   */
+  public Path getTilePath(final int tile) {
+    return mDirectory.resolve(TiledRoadGraphCache.getTileFileName(mTileKeys[tile]));
+  }
+
+  /**
+   * Gets the size of the tiles in degrees.
+   *
+   * @return The size of the tiles
+   */
+  public double getTileSize() {
+    return mTileSize;
+  }
+}
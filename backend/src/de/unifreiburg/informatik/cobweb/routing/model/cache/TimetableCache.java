@@ -0,0 +1,417 @@
+package de.unifreiburg.informatik.cobweb.routing.model.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import de.unifreiburg.informatik.cobweb.routing.model.timetable.Connection;
+import de.unifreiburg.informatik.cobweb.routing.model.timetable.Footpath;
+import de.unifreiburg.informatik.cobweb.routing.model.timetable.Stop;
+import de.unifreiburg.informatik.cobweb.routing.model.timetable.Timetable;
+import de.unifreiburg.informatik.cobweb.routing.model.timetable.Trip;
+import de.unifreiburg.informatik.cobweb.util.BinaryFileUtil;
+
+/**
+ * Binary, memory-mapped cache format for {@link Timetable}s.<br>
+ * <br>
+ * The table is stored as primitive columns. Connections are stored in the
+ * sorted order of the table and are referenced by trips using their index in
+ * the connection columns. The payload, following the header of
+ * {@link BinaryFileUtil}, is
+ * <ol>
+ * <li>The unique stop and trip ID used last by the table, two
+ * <tt>int</tt>s</li>
+ * <li>The amount of stops <tt>s</tt>, trips <tt>t</tt>, connections
+ * <tt>c</tt>, footpaths <tt>f</tt> and the total length of all trip sequences
+ * <tt>q</tt>, five <tt>int</tt>s</li>
+ * <li>Stop IDs, latitudes and longitudes, <tt>s</tt> <tt>int</tt>s and
+ * <tt>2s</tt> <tt>float</tt>s</li>
+ * <li>Connection trip IDs, sequence indices, departure and arrival stop IDs,
+ * departure and arrival times, <tt>6c</tt> <tt>int</tt>s</li>
+ * <li>Trip IDs, <tt>t</tt> <tt>int</tt>s</li>
+ * <li>Offsets of the first sequence entry of each trip, <tt>t + 1</tt>
+ * <tt>int</tt>s</li>
+ * <li>Connection indices of all trip sequences, <tt>q</tt> <tt>int</tt>s</li>
+ * <li>Footpath departure and arrival stop IDs and durations, <tt>3f</tt>
+ * <tt>int</tt>s</li>
+ * </ol>
+ * Use {@link #write(Timetable, Path)} to create a cache and {@link #map(Path)}
+ * followed by {@link #materialize()} to load it.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class TimetableCache {
+  /**
+   * The magic identifying the format, <tt>CWTT</tt> in ASCII.
+   */
+  public static final int MAGIC = 0x43575454;
+  /**
+   * The current version of the format.
+   */
+  public static final int VERSION = 1;
+  /**
+   * The size of the fixed part of the payload in bytes.
+   */
+  private static final int FIXED_SIZE = 7 * Integer.BYTES;
+  /**
+   * The size of the payload per connection in bytes.
+   */
+  private static final int SIZE_PER_CONNECTION = 6 * Integer.BYTES;
+  /**
+   * The size of the payload per footpath in bytes.
+   */
+  private static final int SIZE_PER_FOOTPATH = 3 * Integer.BYTES;
+  /**
+   * The size of the payload per trip sequence entry in bytes.
+   */
+  private static final int SIZE_PER_SEQUENCE_ENTRY = Integer.BYTES;
+  /**
+   * The size of the payload per stop in bytes.
+   */
+  private static final int SIZE_PER_STOP = Integer.BYTES + 2 * Float.BYTES;
+  /**
+   * The size of the payload per trip in bytes, excluding the additional
+   * sequence offset.
+   */
+  private static final int SIZE_PER_TRIP = 2 * Integer.BYTES;
+
+  /**
+   * Maps the cache stored at the given path into memory. The content is
+   * verified but not materialized, use {@link #materialize()} for that.
+   *
+   * @param path The path of the cache
+   * @return The mapped cache
+   * @throws IOException If an I/O exception occurred while mapping or if the
+   *                     file is not a valid cache of the current version
+   */
+  public static TimetableCache map(final Path path) throws IOException {
+    return new TimetableCache(BinaryFileUtil.map(path, MAGIC, VERSION));
+  }
+
+  /**
+   * Writes the given timetable as cache to the given path.
+   *
+   * @param table The timetable to write
+   * @param path  The path to write to, an existing file is overwritten
+   * @throws IOException           If an I/O exception occurred while writing
+   * @throws IllegalStateException If a trip contains a connection which is not
+   *                               contained in the table
+   */
+  public static void write(final Timetable table, final Path path) throws IOException, IllegalStateException {
+    final Stop[] stops = table.getStops().toArray(new Stop[0]);
+    final Trip[] trips = table.getTrips().toArray(new Trip[0]);
+    final List<Connection> connections = table.getConnections();
+    final Footpath[] footpaths = table.getFootpaths().toArray(Footpath[]::new);
+    int amountOfSequenceEntries = 0;
+    for (final Trip trip : trips) {
+      amountOfSequenceEntries += trip.getSequence().size();
+    }
+    final long payloadSize = FIXED_SIZE + (long) stops.length * SIZE_PER_STOP
+        + (long) connections.size() * SIZE_PER_CONNECTION + (long) trips.length * SIZE_PER_TRIP + Integer.BYTES
+        + (long) amountOfSequenceEntries * SIZE_PER_SEQUENCE_ENTRY + (long) footpaths.length * SIZE_PER_FOOTPATH;
+
+    final MappedByteBuffer buffer = BinaryFileUtil.create(path, MAGIC, VERSION, payloadSize);
+    buffer.putInt(table.getLastUsedStopId());
+    buffer.putInt(table.getLastUsedTripId());
+    buffer.putInt(stops.length);
+    buffer.putInt(trips.length);
+    buffer.putInt(connections.size());
+    buffer.putInt(footpaths.length);
+    buffer.putInt(amountOfSequenceEntries);
+
+    for (final Stop stop : stops) {
+      buffer.putInt(stop.getId());
+    }
+    for (final Stop stop : stops) {
+      buffer.putFloat(stop.getLatitude());
+    }
+    for (final Stop stop : stops) {
+      buffer.putFloat(stop.getLongitude());
+    }
+
+    for (final Connection connection : connections) {
+      buffer.putInt(connection.getTripId());
+    }
+    for (final Connection connection : connections) {
+      buffer.putInt(connection.getSequenceIndex());
+    }
+    for (final Connection connection : connections) {
+      buffer.putInt(connection.getDepStopId());
+    }
+    for (final Connection connection : connections) {
+      buffer.putInt(connection.getArrStopId());
+    }
+    for (final Connection connection : connections) {
+      buffer.putInt(connection.getDepTime());
+    }
+    for (final Connection connection : connections) {
+      buffer.putInt(connection.getArrTime());
+    }
+
+    for (final Trip trip : trips) {
+      buffer.putInt(trip.getId());
+    }
+    int sequenceOffset = 0;
+    for (final Trip trip : trips) {
+      buffer.putInt(sequenceOffset);
+      sequenceOffset += trip.getSequence().size();
+    }
+    buffer.putInt(sequenceOffset);
+    // Connections are sorted and their order is total, the index can thus be
+    // found by binary search
+    for (final Trip trip : trips) {
+      for (final Connection connection : trip.getSequence()) {
+        final int index = Collections.binarySearch(connections, connection);
+        if (index < 0) {
+          throw new IllegalStateException("Trip contains a connection which is not in the table: " + connection);
+        }
+        buffer.putInt(index);
+      }
+    }
+
+    for (final Footpath footpath : footpaths) {
+      buffer.putInt(footpath.getDepStopId());
+    }
+    for (final Footpath footpath : footpaths) {
+      buffer.putInt(footpath.getArrStopId());
+    }
+    for (final Footpath footpath : footpaths) {
+      buffer.putInt(footpath.getDuration());
+    }
+
+    BinaryFileUtil.finish(buffer);
+  }
+
+  /**
+   * Slices a column of the given size from the given buffer and advances the
+   * position of the buffer behind the column.
+   *
+   * @param buffer The buffer to slice from
+   * @param size   The size of the column in bytes
+   * @return A buffer over the column
+   */
+  private static ByteBuffer sliceColumn(final ByteBuffer buffer, final int size) {
+    final ByteBuffer column = buffer.slice();
+    column.limit(size);
+    buffer.position(buffer.position() + size);
+    return column;
+  }
+
+  /**
+   * The amount of connections in the cache.
+   */
+  private final int mAmountOfConnections;
+  /**
+   * The amount of footpaths in the cache.
+   */
+  private final int mAmountOfFootpaths;
+  /**
+   * The total length of all trip sequences in the cache.
+   */
+  private final int mAmountOfSequenceEntries;
+  /**
+   * The amount of stops in the cache.
+   */
+  private final int mAmountOfStops;
+  /**
+   * The amount of trips in the cache.
+   */
+  private final int mAmountOfTrips;
+  /**
+   * The arrival stop ID of each connection.
+   */
+  private final IntBuffer mConnectionArrStopIds;
+  /**
+   * The arrival time of each connection.
+   */
+  private final IntBuffer mConnectionArrTimes;
+  /**
+   * The departure stop ID of each connection.
+   */
+  private final IntBuffer mConnectionDepStopIds;
+  /**
+   * The departure time of each connection.
+   */
+  private final IntBuffer mConnectionDepTimes;
+  /**
+   * The sequence index of each connection.
+   */
+  private final IntBuffer mConnectionSequenceIndices;
+  /**
+   * The trip ID of each connection.
+   */
+  private final IntBuffer mConnectionTripIds;
+  /**
+   * The arrival stop ID of each footpath.
+   */
+  private final IntBuffer mFootpathArrStopIds;
+  /**
+   * The departure stop ID of each footpath.
+   */
+  private final IntBuffer mFootpathDepStopIds;
+  /**
+   * The duration of each footpath.
+   */
+  private final IntBuffer mFootpathDurations;
+  /**
+   * The unique stop ID used last by the cached table.
+   */
+  private final int mLastUsedStopId;
+  /**
+   * The unique trip ID used last by the cached table.
+   */
+  private final int mLastUsedTripId;
+  /**
+   * The ID of each stop.
+   */
+  private final IntBuffer mStopIds;
+  /**
+   * The latitude of each stop.
+   */
+  private final FloatBuffer mStopLatitudes;
+  /**
+   * The longitude of each stop.
+   */
+  private final FloatBuffer mStopLongitudes;
+  /**
+   * The ID of each trip.
+   */
+  private final IntBuffer mTripIds;
+  /**
+   * The index of the first sequence entry of each trip. Has one additional
+   * entry at the end which marks the end of the last trip.
+   */
+  private final IntBuffer mTripSequenceOffsets;
+  /**
+   * The connection indices of all trip sequences.
+   */
+  private final IntBuffer mTripSequences;
+
+  /**
+   * Creates a new cache view over the given payload.
+   *
+   * @param payload The payload of the cache file, positioned at its start
+   * @throws IOException If the payload is inconsistent
+   */
+  private TimetableCache(final ByteBuffer payload) throws IOException {
+    if (payload.remaining() < FIXED_SIZE) {
+      throw new IOException("Payload is too small");
+    }
+    mLastUsedStopId = payload.getInt();
+    mLastUsedTripId = payload.getInt();
+    mAmountOfStops = payload.getInt();
+    mAmountOfTrips = payload.getInt();
+    mAmountOfConnections = payload.getInt();
+    mAmountOfFootpaths = payload.getInt();
+    mAmountOfSequenceEntries = payload.getInt();
+    final long expectedSize = FIXED_SIZE + (long) mAmountOfStops * SIZE_PER_STOP
+        + (long) mAmountOfConnections * SIZE_PER_CONNECTION + (long) mAmountOfTrips * SIZE_PER_TRIP + Integer.BYTES
+        + (long) mAmountOfSequenceEntries * SIZE_PER_SEQUENCE_ENTRY
+        + (long) mAmountOfFootpaths * SIZE_PER_FOOTPATH;
+    if (mAmountOfStops < 0 || mAmountOfTrips < 0 || mAmountOfConnections < 0 || mAmountOfFootpaths < 0
+        || mAmountOfSequenceEntries < 0 || expectedSize != payload.limit()) {
+      throw new IOException("Payload size does not match the amount of stops, trips, connections and footpaths");
+    }
+
+    mStopIds = TimetableCache.sliceColumn(payload, mAmountOfStops * Integer.BYTES).asIntBuffer();
+    mStopLatitudes = TimetableCache.sliceColumn(payload, mAmountOfStops * Float.BYTES).asFloatBuffer();
+    mStopLongitudes = TimetableCache.sliceColumn(payload, mAmountOfStops * Float.BYTES).asFloatBuffer();
+    mConnectionTripIds = TimetableCache.sliceColumn(payload, mAmountOfConnections * Integer.BYTES).asIntBuffer();
+    mConnectionSequenceIndices =
+        TimetableCache.sliceColumn(payload, mAmountOfConnections * Integer.BYTES).asIntBuffer();
+    mConnectionDepStopIds = TimetableCache.sliceColumn(payload, mAmountOfConnections * Integer.BYTES).asIntBuffer();
+    mConnectionArrStopIds = TimetableCache.sliceColumn(payload, mAmountOfConnections * Integer.BYTES).asIntBuffer();
+    mConnectionDepTimes = TimetableCache.sliceColumn(payload, mAmountOfConnections * Integer.BYTES).asIntBuffer();
+    mConnectionArrTimes = TimetableCache.sliceColumn(payload, mAmountOfConnections * Integer.BYTES).asIntBuffer();
+    mTripIds = TimetableCache.sliceColumn(payload, mAmountOfTrips * Integer.BYTES).asIntBuffer();
+    mTripSequenceOffsets = TimetableCache.sliceColumn(payload, (mAmountOfTrips + 1) * Integer.BYTES).asIntBuffer();
+    mTripSequences = TimetableCache.sliceColumn(payload, mAmountOfSequenceEntries * Integer.BYTES).asIntBuffer();
+    mFootpathDepStopIds = TimetableCache.sliceColumn(payload, mAmountOfFootpaths * Integer.BYTES).asIntBuffer();
+    mFootpathArrStopIds = TimetableCache.sliceColumn(payload, mAmountOfFootpaths * Integer.BYTES).asIntBuffer();
+    mFootpathDurations = TimetableCache.sliceColumn(payload, mAmountOfFootpaths * Integer.BYTES).asIntBuffer();
+  }
+
+  /**
+   * Gets the amount of connections in the cache.
+   *
+   * @return The amount of connections
+   */
+  public int getAmountOfConnections() {
+    return mAmountOfConnections;
+  }
+
+  /**
+   * Gets the amount of footpaths in the cache.
+   *
+   * @return The amount of footpaths
+   */
+  public int getAmountOfFootpaths() {
+    return mAmountOfFootpaths;
+  }
+
+  /**
+   * Gets the amount of stops in the cache.
+   *
+   * @return The amount of stops
+   */
+  public int getAmountOfStops() {
+    return mAmountOfStops;
+  }
+
+  /**
+   * Gets the amount of trips in the cache.
+   *
+   * @return The amount of trips
+   */
+  public int getAmountOfTrips() {
+    return mAmountOfTrips;
+  }
+
+  /**
+   * Materializes the cache into a new timetable.
+   *
+   * @return The materialized timetable
+   * @throws IOException If the content of the cache is inconsistent
+   */
+  public Timetable materialize() throws IOException {
+    final Timetable table = new Timetable(mLastUsedStopId, mLastUsedTripId);
+
+    for (int i = 0; i < mAmountOfStops; i++) {
+      table.addStop(new Stop(mStopIds.get(i), mStopLatitudes.get(i), mStopLongitudes.get(i)));
+    }
+
+    final Connection[] connections = new Connection[mAmountOfConnections];
+    for (int i = 0; i < mAmountOfConnections; i++) {
+      connections[i] = new Connection(mConnectionTripIds.get(i), mConnectionSequenceIndices.get(i),
+          mConnectionDepStopIds.get(i), mConnectionArrStopIds.get(i), mConnectionDepTimes.get(i),
+          mConnectionArrTimes.get(i));
+    }
+    // Connections are already sorted, the sort of the table is thus linear
+    table.addConnections(Arrays.asList(connections));
+
+    for (int i = 0; i < mAmountOfTrips; i++) {
+      final Trip trip = new Trip(mTripIds.get(i));
+      final int sequenceEnd = mTripSequenceOffsets.get(i + 1);
+      for (int entry = mTripSequenceOffsets.get(i); entry < sequenceEnd; entry++) {
+        final int connection = mTripSequences.get(entry);
+        if (connection < 0 || connection >= mAmountOfConnections) {
+          throw new IOException("Inconsistent trip sequence data at entry " + entry);
+        }
+        trip.addConnectionToSequence(connections[connection]);
+      }
+      table.addTrip(trip);
+    }
+
+    for (int i = 0; i < mAmountOfFootpaths; i++) {
+      table.addFootpath(
+          new Footpath(mFootpathDepStopIds.get(i), mFootpathArrStopIds.get(i), mFootpathDurations.get(i)));
+    }
+    return table;
+  }
+}
@@ -0,0 +1,7 @@
+/**
+ * Package containing compact binary formats used to cache routing models on
+ * disk and to load them via memory mapping.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+package de.unifreiburg.informatik.cobweb.routing.model.cache;
@@ -0,0 +1,158 @@
+package de.unifreiburg.informatik.cobweb.routing.model.graph;
+
+/**
+ * A position in a graph, either on an edge or exactly at a node. A position on
+ * an edge is given by the fraction of the edge that lies between the source of
+ * the edge and the position. The position also stores its coordinates.<br>
+ * <br>
+ * Positions on edges are typically obtained by projecting arbitrary
+ * coordinates onto the nearest edge, see
+ * {@link de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.SegmentIndex}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ * @param <N> Type of the node
+ * @param <E> Type of the edge
+ */
+public final class EdgePosition<N extends INode, E extends IEdge<N>> {
+  /**
+   * The edge the position lies on or <tt>null</tt> if the position is at a
+   * node.
+   */
+  private final E mEdge;
+  /**
+   * The fraction of the edge between its source and the position, between
+   * <tt>0.0</tt> and <tt>1.0</tt>. <tt>0.0</tt> if the position is at a node.
+   */
+  private final double mFraction;
+  /**
+   * The latitude of the position.
+   */
+  private final float mLatitude;
+  /**
+   * The longitude of the position.
+   */
+  private final float mLongitude;
+  /**
+   * The node the position is at or <tt>null</tt> if the position lies on an
+   * edge.
+   */
+  private final N mNode;
+
+  /**
+   * Creates a new position on the given edge.
+   *
+   * @param edge      The edge the position lies on
+   * @param fraction  The fraction of the edge between its source and the
+   *                  position, between <tt>0.0</tt> and <tt>1.0</tt>
+   * @param latitude  The latitude of the position
+   * @param longitude The longitude of the position
+   */
+  public EdgePosition(final E edge, final double fraction, final float latitude, final float longitude) {
+    if (fraction < 0.0 || fraction > 1.0) {
+      throw new IllegalArgumentException("The fraction must be between 0.0 and 1.0: " + fraction);
+    }
+    mEdge = edge;
+    mNode = null;
+    mFraction = fraction;
+    mLatitude = latitude;
+    mLongitude = longitude;
+  }
+
+  /**
+   * Creates a new position exactly at the given node.
+   *
+   * @param node      The node the position is at
+   * @param latitude  The latitude of the node
+   * @param longitude The longitude of the node
+   */
+  public EdgePosition(final N node, final float latitude, final float longitude) {
+    mEdge = null;
+    mNode = node;
+    mFraction = 0.0;
+    mLatitude = latitude;
+    mLongitude = longitude;
+  }
+
+  /**
+   * Gets the edge the position lies on.
+   *
+   * @return The edge or <tt>null</tt> if the position is at a node, see
+   *         {@link #isAtNode()}
+   */
+  public E getEdge() {
+    return mEdge;
+  }
+
+  /**
+   * Gets the fraction of the edge between its source and the position.
+   *
+   * @return The fraction, between <tt>0.0</tt> and <tt>1.0</tt>. <tt>0.0</tt>
+   *         if the position is at a node.
+   */
+  public double getFraction() {
+    return mFraction;
+  }
+
+  /**
+   * Gets the latitude of the position.
+   *
+   * @return The latitude
+   */
+  public float getLatitude() {
+    return mLatitude;
+  }
+
+  /**
+   * Gets the longitude of the position.
+   *
+   * @return The longitude
+   */
+  public float getLongitude() {
+    return mLongitude;
+  }
+
+  /**
+   * Gets the node the position is at.
+   *
+   * @return The node or <tt>null</tt> if the position lies on an edge, see
+   *         {@link #isAtNode()}
+   */
+  public N getNode() {
+    return mNode;
+  }
+
+  /**
+   * Whether the position is exactly at a node or lies on an edge.
+   *
+   * @return <tt>True</tt> if the position is at a node, <tt>false</tt> if it
+   *         lies on an edge
+   */
+  public boolean isAtNode() {
+    return mNode != null;
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder();
+    builder.append("EdgePosition [");
+    if (isAtNode()) {
+      builder.append("node=");
+      builder.append(mNode);
+    } else {
+      builder.append("edge=");
+      builder.append(mEdge);
+      builder.append(", fraction=");
+      builder.append(mFraction);
+    }
+    builder.append(", latitude=");
+    builder.append(mLatitude);
+    builder.append(", longitude=");
+    builder.append(mLongitude);
+    builder.append("]");
+    return builder.toString();
+  }
+}
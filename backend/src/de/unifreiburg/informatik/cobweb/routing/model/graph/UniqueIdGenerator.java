@@ -27,7 +27,17 @@ public final class UniqueIdGenerator implements Serializable {
    * Creates a new unique ID generator.
    */
   public UniqueIdGenerator() {
-    mLastUsedId = LAST_ID;
+    this(LAST_ID);
+  }
+
+  /**
+   * Creates a new unique ID generator which continues after the given ID. Can
+   * be used to restore the state of a previous generator.
+   *
+   * @param lastUsedId The unique ID used last, see {@link #getLastUsedId()}
+   */
+  public UniqueIdGenerator(final int lastUsedId) {
+    mLastUsedId = lastUsedId;
   }
 
   /**
@@ -44,4 +54,14 @@ public final class UniqueIdGenerator implements Serializable {
     }
     return mLastUsedId;
   }
+
+  /**
+   * Gets the unique ID used last. Can be used together with
+   * {@link #UniqueIdGenerator(int)} to restore the state of this generator.
+   *
+   * @return The unique ID used last
+   */
+  public int getLastUsedId() {
+    return mLastUsedId;
+  }
 }
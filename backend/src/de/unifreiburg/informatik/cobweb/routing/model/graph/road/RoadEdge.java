@@ -177,6 +177,15 @@ public final class RoadEdge<N extends ICoreNode> implements ICoreEdge<N>, IRoadE
     return mId;
   }
 
+  /**
+   * Gets the maximal speed allowed on this edge.
+   *
+   * @return The maximal speed allowed on this edge, in <tt>km/h</tt>
+   */
+  public int getMaxSpeed() {
+    return mMaxSpeed;
+  }
+
   /*
    * (non-Javadoc)
    * @see de.unifreiburg.informatik.cobweb.model.graph.IEdge#getSource()
@@ -194,6 +203,15 @@ public final class RoadEdge<N extends ICoreNode> implements ICoreEdge<N>, IRoadE
     return mCost.keySet();
   }
 
+  /**
+   * Gets the highway type of this edge.
+   *
+   * @return The highway type of this edge
+   */
+  public EHighwayType getType() {
+    return mType;
+  }
+
   /*
    * (non-Javadoc)
    * @see java.lang.Object#hashCode()
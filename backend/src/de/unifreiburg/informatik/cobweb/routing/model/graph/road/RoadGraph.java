@@ -72,13 +72,36 @@ public final class RoadGraph<N extends INode & IHasId & ISpatial & Serializable,
    * Creates a new initially empty road graph.
    */
   public RoadGraph() {
+    this(new UniqueIdGenerator(), new UniqueIdGenerator());
+  }
+
+  /**
+   * Creates a new initially empty road graph whose ID generators continue after
+   * the given IDs. Can be used to restore a graph, see
+   * {@link #getLastUsedNodeId()} and {@link #getLastUsedWayId()}.
+   *
+   * @param lastUsedNodeId The unique node ID used last
+   * @param lastUsedWayId  The unique way ID used last
+   */
+  public RoadGraph(final int lastUsedNodeId, final int lastUsedWayId) {
+    this(new UniqueIdGenerator(lastUsedNodeId), new UniqueIdGenerator(lastUsedWayId));
+  }
+
+  /**
+   * Creates a new initially empty road graph which uses the given ID
+   * generators.
+   *
+   * @param nodeIdGenerator The unique ID generator to use for nodes
+   * @param wayIdGenerator  The unique ID generator to use for ways
+   */
+  private RoadGraph(final UniqueIdGenerator nodeIdGenerator, final UniqueIdGenerator wayIdGenerator) {
     // TODO The map could be exchanged by an array. However, from a design-view
     // it is problematic that IDs could have gaps and thus methods like
     // getNodes() which return a Collection and not only a Stream get
     // problematic due to possible null values encoding gaps.
     mIdToNode = IntObjectMaps.mutable.empty();
-    mNodeIdGenerator = new UniqueIdGenerator();
-    mWayIdGenerator = new UniqueIdGenerator();
+    mNodeIdGenerator = nodeIdGenerator;
+    mWayIdGenerator = wayIdGenerator;
 
     // Assume node IDs are close to each other and have no, or only few, gaps.
     mNodeToIncomingEdges = new IdMap<>();
@@ -126,6 +149,24 @@ public final class RoadGraph<N extends INode & IHasId & ISpatial & Serializable,
     return super.getEdges();
   }
 
+  /**
+   * Gets the unique node ID generated last by {@link #generateUniqueNodeId()}.
+   *
+   * @return The unique node ID generated last
+   */
+  public int getLastUsedNodeId() {
+    return mNodeIdGenerator.getLastUsedId();
+  }
+
+  /**
+   * Gets the unique way ID generated last by {@link #generateUniqueWayId()}.
+   *
+   * @return The unique way ID generated last
+   */
+  public int getLastUsedWayId() {
+    return mWayIdGenerator.getLastUsedId();
+  }
+
   @Override
   public Optional<N> getNodeById(final int id) {
     return Optional.ofNullable(mIdToNode.get(id));
@@ -0,0 +1,215 @@
+package de.unifreiburg.informatik.cobweb.routing.model.graph.tiled;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.eclipse.collections.api.map.primitive.MutableIntIntMap;
+import org.eclipse.collections.impl.list.mutable.FastList;
+import org.eclipse.collections.impl.map.mutable.primitive.IntIntHashMap;
+
+import de.unifreiburg.informatik.cobweb.routing.model.cache.RoadGraphCache;
+import de.unifreiburg.informatik.cobweb.routing.model.cache.TiledRoadGraphCache;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.IReversedProvider;
+
+/**
+ * A single tile of a {@link TiledRoadGraph} which is resident in memory.<br>
+ * <br>
+ * The tile stores its nodes and edges in compact arrays, indexed by a local
+ * node index. Edges are grouped by their source, an additional index groups
+ * them by their destination. The tile itself is not aware of the reversed
+ * state of the graph, edges are always given in their original direction.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+final class RoadTile {
+  /**
+   * Loads the tile with the given index from the given cache.
+   *
+   * @param cache            The cache of the tiled graph
+   * @param tile             The index of the tile to load
+   * @param reversedProvider The provider of the reversed state to set at all
+   *                         edges of the tile
+   * @return The loaded tile
+   * @throws IOException If an I/O exception occurred while loading the tile or
+   *                     if the tile is inconsistent
+   */
+  static RoadTile load(final TiledRoadGraphCache cache, final int tile, final IReversedProvider reversedProvider)
+      throws IOException {
+    final RoadGraphCache tileCache = RoadGraphCache.map(cache.getTilePath(tile));
+    final int amountOfNodes = tileCache.getAmountOfNodes();
+    final int amountOfEdges = tileCache.getAmountOfEdges();
+
+    final ICoreNode[] nodes = new ICoreNode[amountOfNodes];
+    final boolean[] isOwnNode = new boolean[amountOfNodes];
+    final MutableIntIntMap idToIndex = new IntIntHashMap(amountOfNodes);
+    final List<ICoreEdge<ICoreNode>> edges = FastList.newList(amountOfEdges);
+    final int[] edgeDestinations = new int[amountOfEdges];
+    final int[] outgoingOffsets = new int[amountOfNodes + 1];
+    tileCache.materialize(node -> {
+      final int index = idToIndex.size();
+      nodes[index] = node;
+      isOwnNode[index] = cache.getTileOfNode(node.getId()) == tile;
+      idToIndex.put(node.getId(), index);
+    }, edge -> {
+      // Edges arrive grouped by their source and without reversed provider
+      final int edgeIndex = edges.size();
+      outgoingOffsets[idToIndex.get(edge.getSource().getId()) + 1]++;
+      edgeDestinations[edgeIndex] = idToIndex.get(edge.getDestination().getId());
+      edge.setReversedProvider(reversedProvider);
+      edges.add(edge);
+    });
+    for (int i = 0; i < amountOfNodes; i++) {
+      outgoingOffsets[i + 1] += outgoingOffsets[i];
+    }
+
+    // Group edges by their destination
+    final int[] incomingOffsets = new int[amountOfNodes + 1];
+    for (final int destination : edgeDestinations) {
+      incomingOffsets[destination + 1]++;
+    }
+    for (int i = 0; i < amountOfNodes; i++) {
+      incomingOffsets[i + 1] += incomingOffsets[i];
+    }
+    final int[] incomingEdges = new int[amountOfEdges];
+    final int[] positions = incomingOffsets.clone();
+    for (int edge = 0; edge < amountOfEdges; edge++) {
+      incomingEdges[positions[edgeDestinations[edge]]++] = edge;
+    }
+
+    return new RoadTile(nodes, isOwnNode, idToIndex, edges, outgoingOffsets, incomingEdges, incomingOffsets);
+  }
+
+  /**
+   * All edges of the tile, grouped by their source.
+   */
+  private final List<ICoreEdge<ICoreNode>> mEdges;
+  /**
+   * Map connecting node IDs to their local index.
+   */
+  private final MutableIntIntMap mIdToIndex;
+  /**
+   * Indices of all edges of the tile, grouped by their destination.
+   */
+  private final int[] mIncomingEdges;
+  /**
+   * The index into {@link #mIncomingEdges} of the first incoming edge of each
+   * node. Has one additional entry at the end.
+   */
+  private final int[] mIncomingOffsets;
+  /**
+   * Whether the node with the local index belongs to this tile or to another
+   * tile and is only contained since it is connected to the tile.
+   */
+  private final boolean[] mIsOwnNode;
+  /**
+   * The nodes of the tile by their local index.
+   */
+  private final ICoreNode[] mNodes;
+  /**
+   * The index of the first outgoing edge of each node. Has one additional entry
+   * at the end.
+   */
+  private final int[] mOutgoingOffsets;
+
+  /**
+   * Creates a new tile with the given data.
+   *
+   * @param nodes           The nodes of the tile by their local index
+   * @param isOwnNode       Whether the node belongs to this tile
+   * @param idToIndex       Map connecting node IDs to their local index
+   * @param edges           All edges of the tile, grouped by their source
+   * @param outgoingOffsets The index of the first outgoing edge of each node
+   * @param incomingEdges   Indices of all edges grouped by their destination
+   * @param incomingOffsets The index of the first incoming edge of each node
+   */
+  private RoadTile(final ICoreNode[] nodes, final boolean[] isOwnNode, final MutableIntIntMap idToIndex,
+      final List<ICoreEdge<ICoreNode>> edges, final int[] outgoingOffsets, final int[] incomingEdges,
+      final int[] incomingOffsets) {
+    mNodes = nodes;
+    mIsOwnNode = isOwnNode;
+    mIdToIndex = idToIndex;
+    mEdges = edges;
+    mOutgoingOffsets = outgoingOffsets;
+    mIncomingEdges = incomingEdges;
+    mIncomingOffsets = incomingOffsets;
+  }
+
+  /**
+   * Gets all edges whose original source belongs to this tile.
+   *
+   * @return A stream over the edges
+   */
+  Stream<ICoreEdge<ICoreNode>> getEdges() {
+    return IntStream.range(0, mNodes.length).filter(index -> mIsOwnNode[index]).boxed()
+        .flatMap(this::getOutgoingEdgesByIndex);
+  }
+
+  /**
+   * Gets the edges whose original destination is the node with the given ID.
+   * The result is only complete for nodes belonging to this tile.
+   *
+   * @param nodeId The ID of the node
+   * @return A stream over the edges
+   */
+  Stream<ICoreEdge<ICoreNode>> getIncomingEdges(final int nodeId) {
+    final int index = mIdToIndex.getIfAbsent(nodeId, -1);
+    if (index == -1) {
+      return Stream.empty();
+    }
+    return IntStream.range(mIncomingOffsets[index], mIncomingOffsets[index + 1])
+        .mapToObj(position -> mEdges.get(mIncomingEdges[position]));
+  }
+
+  /**
+   * Gets the node with the given ID.
+   *
+   * @param nodeId The ID of the node
+   * @return The node or <tt>null</tt> if the tile does not contain the node
+   */
+  ICoreNode getNode(final int nodeId) {
+    final int index = mIdToIndex.getIfAbsent(nodeId, -1);
+    if (index == -1) {
+      return null;
+    }
+    return mNodes[index];
+  }
+
+  /**
+   * Gets all nodes belonging to this tile.
+   *
+   * @return A stream over the nodes
+   */
+  Stream<ICoreNode> getNodes() {
+    return IntStream.range(0, mNodes.length).filter(index -> mIsOwnNode[index]).mapToObj(index -> mNodes[index]);
+  }
+
+  /**
+   * Gets the edges whose original source is the node with the given ID. The
+   * result is only complete for nodes belonging to this tile.
+   *
+   * @param nodeId The ID of the node
+   * @return A stream over the edges
+   */
+  Stream<ICoreEdge<ICoreNode>> getOutgoingEdges(final int nodeId) {
+    final int index = mIdToIndex.getIfAbsent(nodeId, -1);
+    if (index == -1) {
+      return Stream.empty();
+    }
+    return getOutgoingEdgesByIndex(index);
+  }
+
+  /**
+   * Gets the edges whose original source is the node with the given local
+   * index.
+   *
+   * @param index The local index of the node
+   * @return A stream over the edges
+   */
+  private Stream<ICoreEdge<ICoreNode>> getOutgoingEdgesByIndex(final int index) {
+    return mEdges.subList(mOutgoingOffsets[index], mOutgoingOffsets[index + 1]).stream();
+  }
+}
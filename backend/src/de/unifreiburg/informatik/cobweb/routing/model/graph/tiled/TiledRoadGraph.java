@@ -0,0 +1,415 @@
+package de.unifreiburg.informatik.cobweb.routing.model.graph.tiled;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.unifreiburg.informatik.cobweb.routing.model.cache.TiledRoadGraphCache;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.IGetNodeById;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.IGraph;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.IReversedProvider;
+
+/**
+ * Read-only road graph which is partitioned into geographic tiles, see
+ * {@link TiledRoadGraphCache}. Tiles are memory-mapped and loaded on demand
+ * when nodes or edges of them are accessed. At most a given amount of tiles is
+ * kept in memory, approximately the least recently used tile is evicted
+ * first.<br>
+ * <br>
+ * Since each tile also contains the edges connecting it to other tiles,
+ * shortest path algorithms like Dijkstra or ALT work across tile boundaries
+ * without further adjustments. Nodes are compared by their ID, it is thus
+ * irrelevant that a node loaded again after eviction is a different
+ * instance.<br>
+ * <br>
+ * Memory used by the edges scales with the set of tiles that is currently
+ * worked on instead of with the size of the whole graph. Note that methods
+ * which iterate the whole graph, like {@link #getNodes()} and
+ * {@link #getEdges()}, load every tile successively.<br>
+ * <br>
+ * The class is thread-safe. Tiles are loaded without holding a lock shared
+ * with other tiles, each tile is loaded only once while concurrent accesses
+ * wait for it. Tiles exceeding the limit are evicted after loading, tiles
+ * that are still being loaded are never evicted. However, like other graphs,
+ * reversing it affects all concurrent users.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class TiledRoadGraph
+    implements IGraph<ICoreNode, ICoreEdge<ICoreNode>>, IGetNodeById<ICoreNode>, IReversedProvider {
+  /**
+   * Logger used for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(TiledRoadGraph.class);
+  /**
+   * The serial version UID.
+   */
+  private static final long serialVersionUID = 1L;
+  /**
+   * The cache providing the tiles of the graph.
+   */
+  private final transient TiledRoadGraphCache mCache;
+  /**
+   * Whether tiles are currently evicted by a thread.
+   */
+  private final AtomicBoolean mIsEvicting;
+  /**
+   * Whether the graph is reversed.
+   */
+  private volatile boolean mIsReversed;
+  /**
+   * The amount of tiles loaded so far, including tiles loaded again after
+   * eviction.
+   */
+  private final AtomicLong mLoadedTiles;
+  /**
+   * The maximal amount of tiles kept in memory at the same time.
+   */
+  private final int mMaxResidentTiles;
+  /**
+   * The resident tiles by their index, including tiles that are still being
+   * loaded.
+   */
+  private final transient ConcurrentMap<Integer, ResidentTile> mTiles;
+
+  /**
+   * Creates a new tiled graph over the given cache.
+   *
+   * @param cache            The cache providing the tiles of the graph
+   * @param maxResidentTiles The maximal amount of tiles kept in memory at the
+   *                         same time, must be positive
+   */
+  public TiledRoadGraph(final TiledRoadGraphCache cache, final int maxResidentTiles) {
+    if (maxResidentTiles <= 0) {
+      throw new IllegalArgumentException("The amount of resident tiles must be positive: " + maxResidentTiles);
+    }
+    mCache = cache;
+    mMaxResidentTiles = maxResidentTiles;
+    mTiles = new ConcurrentHashMap<>();
+    mLoadedTiles = new AtomicLong();
+    mIsEvicting = new AtomicBoolean();
+  }
+
+  /**
+   * Not supported, the graph is read-only.
+   *
+   * @throws UnsupportedOperationException Always
+   */
+  @Override
+  public boolean addEdge(final ICoreEdge<ICoreNode> edge) {
+    throw new UnsupportedOperationException("Tiled graphs are read-only");
+  }
+
+  /**
+   * Not supported, the graph is read-only.
+   *
+   * @throws UnsupportedOperationException Always
+   */
+  @Override
+  public boolean addNode(final ICoreNode node) {
+    throw new UnsupportedOperationException("Tiled graphs are read-only");
+  }
+
+  @Override
+  public boolean containsEdge(final ICoreEdge<ICoreNode> edge) {
+    return getOutgoingEdges(edge.getSource()).anyMatch(edge::equals);
+  }
+
+  @Override
+  public boolean containsNodeWithId(final int id) {
+    return mCache.getTileOfNode(id) != -1;
+  }
+
+  @Override
+  public int getAmountOfEdges() {
+    return mCache.getAmountOfEdges();
+  }
+
+  /**
+   * Gets the amount of tiles loaded so far, including tiles that were loaded
+   * again after they have been evicted.
+   *
+   * @return The amount of loaded tiles
+   */
+  public long getAmountOfLoadedTiles() {
+    return mLoadedTiles.get();
+  }
+
+  /**
+   * Gets the amount of tiles currently kept in memory, including tiles that are
+   * still being loaded.
+   *
+   * @return The amount of resident tiles
+   */
+  public int getAmountOfResidentTiles() {
+    return mTiles.size();
+  }
+
+  /**
+   * Gets the amount of tiles of the graph.
+   *
+   * @return The amount of tiles
+   */
+  public int getAmountOfTiles() {
+    return mCache.getAmountOfTiles();
+  }
+
+  /**
+   * Streams all edges of the graph. Loads every tile successively.
+   */
+  @Override
+  public Stream<ICoreEdge<ICoreNode>> getEdges() {
+    return IntStream.range(0, mCache.getAmountOfTiles()).boxed().flatMap(tile -> getTile(tile).getEdges());
+  }
+
+  @Override
+  public Stream<ICoreEdge<ICoreNode>> getIncomingEdges(final ICoreNode destination) {
+    final int id = destination.getId();
+    final RoadTile tile = getTileOfNode(id);
+    if (tile == null) {
+      return Stream.empty();
+    }
+    if (mIsReversed) {
+      return tile.getOutgoingEdges(id);
+    }
+    return tile.getIncomingEdges(id);
+  }
+
+  @Override
+  public Optional<ICoreNode> getNodeById(final int id) {
+    final RoadTile tile = getTileOfNode(id);
+    if (tile == null) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(tile.getNode(id));
+  }
+
+  /**
+   * Gets all nodes of the graph. Loads every tile successively, the resulting
+   * collection holds all nodes in memory.
+   */
+  @Override
+  public Collection<ICoreNode> getNodes() {
+    return IntStream.range(0, mCache.getAmountOfTiles()).boxed().flatMap(tile -> getTile(tile).getNodes())
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public Stream<ICoreEdge<ICoreNode>> getOutgoingEdges(final ICoreNode source) {
+    final int id = source.getId();
+    final RoadTile tile = getTileOfNode(id);
+    if (tile == null) {
+      return Stream.empty();
+    }
+    if (mIsReversed) {
+      return tile.getIncomingEdges(id);
+    }
+    return tile.getOutgoingEdges(id);
+  }
+
+  /**
+   * Gets a human readable information about the size of the graph.
+   *
+   * @return Human readable information about the size of the graph
+   */
+  public String getSizeInformation() {
+    return toString();
+  }
+
+  @Override
+  public boolean isReversed() {
+    return mIsReversed;
+  }
+
+  /**
+   * Not supported, the graph is read-only.
+   *
+   * @throws UnsupportedOperationException Always
+   */
+  @Override
+  public boolean removeEdge(final ICoreEdge<ICoreNode> edge) {
+    throw new UnsupportedOperationException("Tiled graphs are read-only");
+  }
+
+  /**
+   * Not supported, the graph is read-only.
+   *
+   * @throws UnsupportedOperationException Always
+   */
+  @Override
+  public boolean removeNode(final ICoreNode node) {
+    throw new UnsupportedOperationException("Tiled graphs are read-only");
+  }
+
+  @Override
+  public synchronized void reverse() {
+    mIsReversed = !mIsReversed;
+  }
+
+  @Override
+  public int size() {
+    return mCache.getAmountOfNodes();
+  }
+
+  @Override
+  public String toString() {
+    final StringJoiner sj = new StringJoiner(", ", getClass().getSimpleName() + "[", "]");
+    sj.add("nodes=" + size());
+    sj.add("edges=" + getAmountOfEdges());
+    sj.add("tiles=" + getAmountOfTiles());
+    sj.add("residentTiles=" + getAmountOfResidentTiles());
+    return sj.toString();
+  }
+
+  /**
+   * Evicts the least recently used tiles until at most the maximal amount of
+   * tiles is resident. Tiles that are still being loaded are skipped. Only one
+   * thread evicts at a time, others return immediately since the evicting
+   * thread already takes care of the limit.
+   */
+  private void evictTiles() {
+    while (mTiles.size() > mMaxResidentTiles && mIsEvicting.compareAndSet(false, true)) {
+      try {
+        while (mTiles.size() > mMaxResidentTiles) {
+          Map.Entry<Integer, ResidentTile> leastRecentlyUsed = null;
+          for (final Map.Entry<Integer, ResidentTile> entry : mTiles.entrySet()) {
+            if (entry.getValue().mTile.isDone() && (leastRecentlyUsed == null
+                || entry.getValue().mLastAccess < leastRecentlyUsed.getValue().mLastAccess)) {
+              leastRecentlyUsed = entry;
+            }
+          }
+          if (leastRecentlyUsed == null) {
+            // All resident tiles are still being loaded
+            return;
+          }
+          mTiles.remove(leastRecentlyUsed.getKey(), leastRecentlyUsed.getValue());
+        }
+      } finally {
+        mIsEvicting.set(false);
+      }
+    }
+  }
+
+  /**
+   * Gets the tile with the given index. Loads the tile if it is not resident,
+   * possibly evicting the least recently used tiles afterwards. If the tile is
+   * already being loaded by another thread, waits for it instead.
+   *
+   * @param tile The index of the tile
+   * @return The tile
+   * @throws UncheckedIOException If an I/O exception occurred while loading the
+   *                              tile
+   */
+  private RoadTile getTile(final int tile) throws UncheckedIOException {
+    ResidentTile residentTile = mTiles.get(tile);
+    if (residentTile == null) {
+      final ResidentTile loadingTile = new ResidentTile();
+      residentTile = mTiles.putIfAbsent(tile, loadingTile);
+      if (residentTile == null) {
+        residentTile = loadingTile;
+        loadTile(tile, loadingTile);
+        evictTiles();
+      }
+    }
+    residentTile.mLastAccess = System.nanoTime();
+
+    try {
+      return residentTile.mTile.join();
+    } catch (final CompletionException e) {
+      // Throw the exception of the loading thread itself
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Gets the tile that contains the node with the given ID. Loads the tile if
+   * it is not resident.
+   *
+   * @param nodeId The ID of the node
+   * @return The tile or <tt>null</tt> if the graph contains no node with the
+   *         given ID
+   */
+  private RoadTile getTileOfNode(final int nodeId) {
+    final int tile = mCache.getTileOfNode(nodeId);
+    if (tile == -1) {
+      return null;
+    }
+    return getTile(tile);
+  }
+
+  /**
+   * Loads the tile with the given index into the given resident tile. If
+   * loading fails, the resident tile is removed again, such that the next
+   * access tries to load it again.
+   *
+   * @param tile         The index of the tile
+   * @param residentTile The resident tile to load into, already added to the
+   *                     resident tiles
+   */
+  private void loadTile(final int tile, final ResidentTile residentTile) {
+    try {
+      residentTile.mTile.complete(RoadTile.load(mCache, tile, this));
+    } catch (final IOException e) {
+      mTiles.remove(tile, residentTile);
+      residentTile.mTile.completeExceptionally(new UncheckedIOException(e));
+      return;
+    } catch (final RuntimeException | Error e) {
+      mTiles.remove(tile, residentTile);
+      residentTile.mTile.completeExceptionally(e);
+      return;
+    }
+    final long loadedTiles = mLoadedTiles.incrementAndGet();
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Loaded tile {}, {} tiles loaded so far", tile, loadedTiles);
+    }
+  }
+
+  /**
+   * A tile kept in memory together with the time it was last accessed.
+   *
+   * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+   */
+  private static final class ResidentTile {
+    /**
+     * The time the tile was last accessed, as given by
+     * {@link System#nanoTime()}. Written without synchronization, eviction
+     * only needs an approximate order.
+     */
+    private volatile long mLastAccess;
+    /**
+     * The tile, completed once it is loaded.
+     */
+    private final CompletableFuture<RoadTile> mTile;
+
+    /**
+     * Creates a new resident tile which is not loaded yet.
+     */
+    public ResidentTile() {
+      mTile = new CompletableFuture<>();
+      mLastAccess = System.nanoTime();
+    }
+  }
+}
@@ -0,0 +1,7 @@
+/**
+ * The package contains classes related to road graphs which are partitioned
+ * into geographic tiles that are loaded on demand.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+package de.unifreiburg.informatik.cobweb.routing.model.graph.tiled;
@@ -93,8 +93,32 @@ public final class Timetable implements ITimetableIdGenerator, Serializable {
    * Creates a new initially empty timetable.
    */
   public Timetable() {
-    mStopIdGenerator = new UniqueIdGenerator();
-    mTripIdGenerator = new UniqueIdGenerator();
+    this(new UniqueIdGenerator(), new UniqueIdGenerator());
+  }
+
+  /**
+   * Creates a new initially empty timetable whose ID generators continue after
+   * the given IDs. Can be used to restore a table, see
+   * {@link #getLastUsedStopId()} and {@link #getLastUsedTripId()}.
+   *
+   * @param lastUsedStopId The unique stop ID used last
+   * @param lastUsedTripId The unique trip ID used last
+   */
+  public Timetable(final int lastUsedStopId, final int lastUsedTripId) {
+    this(new UniqueIdGenerator(lastUsedStopId), new UniqueIdGenerator(lastUsedTripId));
+    mGreatestStopId = Math.max(mGreatestStopId, lastUsedStopId);
+    mGreatestTripId = Math.max(mGreatestTripId, lastUsedTripId);
+  }
+
+  /**
+   * Creates a new initially empty timetable which uses the given ID generators.
+   *
+   * @param stopIdGenerator The unique ID generator to use for stops
+   * @param tripIdGenerator The unique ID generator to use for trips
+   */
+  private Timetable(final UniqueIdGenerator stopIdGenerator, final UniqueIdGenerator tripIdGenerator) {
+    mStopIdGenerator = stopIdGenerator;
+    mTripIdGenerator = tripIdGenerator;
     mConnections = new ArrayList<>();
     mIdToStop = IntObjectMaps.mutable.empty();
     mIdToTrip = IntObjectMaps.mutable.empty();
@@ -279,6 +303,16 @@ public final class Timetable implements ITimetableIdGenerator, Serializable {
     return id;
   }
 
+  /**
+   * Gets an unmodifiable view on all connections of this table, sorted
+   * ascending in departure time.
+   *
+   * @return An unmodifiable list of all connections
+   */
+  public List<Connection> getConnections() {
+    return Collections.unmodifiableList(mConnections);
+  }
+
   /**
    * Creates an iterator which returns all connections of this table, starting
    * with the first connection departing after, or exactly at, the given
@@ -305,6 +339,15 @@ public final class Timetable implements ITimetableIdGenerator, Serializable {
     return new RangedOverflowListIterator<>(mConnections, indexOfNext);
   }
 
+  /**
+   * Gets a stream over all footpaths contained in the table.
+   *
+   * @return A stream over all footpaths
+   */
+  public Stream<Footpath> getFootpaths() {
+    return mStopIdToOutgoingFootpaths.stream().flatMap(Collection::stream);
+  }
+
   /**
    * Gets the greatest ID currently in use for a stop in this table.
    *
@@ -323,6 +366,24 @@ public final class Timetable implements ITimetableIdGenerator, Serializable {
     return mGreatestTripId;
   }
 
+  /**
+   * Gets the unique stop ID generated last by {@link #generateUniqueStopId()}.
+   *
+   * @return The unique stop ID generated last
+   */
+  public int getLastUsedStopId() {
+    return mStopIdGenerator.getLastUsedId();
+  }
+
+  /**
+   * Gets the unique trip ID generated last by {@link #generateUniqueTripId()}.
+   *
+   * @return The unique trip ID generated last
+   */
+  public int getLastUsedTripId() {
+    return mTripIdGenerator.getLastUsedId();
+  }
+
   /**
    * Gets a stream over all footpaths going out of the given stop.
    *
@@ -372,6 +433,15 @@ public final class Timetable implements ITimetableIdGenerator, Serializable {
     return mIdToTrip.get(id);
   }
 
+  /**
+   * Gets a collection of all trips contained in the table.
+   *
+   * @return A collection of all trips contained in the table
+   */
+  public Collection<Trip> getTrips() {
+    return mIdToTrip.values();
+  }
+
   /*
    * (non-Javadoc)
    * @see java.lang.Object#toString()
@@ -25,6 +25,8 @@ import org.onebusaway.gtfs.model.Transfer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import de.unifreiburg.informatik.cobweb.config.IRoutingConfigProvider;
+import de.unifreiburg.informatik.cobweb.parsing.RecentHandler;
 import de.unifreiburg.informatik.cobweb.parsing.gtfs.GtfsEntityForwarder;
 import de.unifreiburg.informatik.cobweb.parsing.gtfs.IGtfsFileHandler;
 import de.unifreiburg.informatik.cobweb.routing.model.timetable.Connection;
@@ -61,6 +63,12 @@ public final class GtfsTimetableHandler extends GtfsEntityForwarder implements I
    * The generator to use for ID generation.
    */
   private final ITimetableIdGenerator mIdGenerator;
+  /**
+   * The handler to use which determines the GTFS files that contain more recent
+   * or new data than the data already stored in the timetable. Will only be
+   * used if the configuration has set the use of a graph cache.
+   */
+  private final RecentHandler mRecentHandler;
   /**
    * The timetable to fill with data.
    */
@@ -73,20 +81,38 @@ public final class GtfsTimetableHandler extends GtfsEntityForwarder implements I
    * Map connecting trip IDs to sequence stop times in the sequence of the trip.
    */
   private final MutableMap<AgencyAndId, List<SequenceStopTime>> mTripToSequence;
+  /**
+   * Whether or not a graph cache is to be used. This determines if GTFS files
+   * should be filtered by a {@link RecentHandler} or not.
+   */
+  private final boolean mUseGraphCache;
 
   /**
-   * Creates a new handler that fills the given table.
+   * Creates a new handler that fills the given table using the given
+   * configuration.
    *
    * @param table       The timetable to fill with data
    * @param idGenerator The generator to use for ID generation
+   * @param config      Configuration provider which provides timetable cache
+   *                    information
+   * @throws IOException If an I/O exception occurred while reading the
+   *                     timetable cache information
    */
-  public GtfsTimetableHandler(final Timetable table, final ITimetableIdGenerator idGenerator) {
+  public GtfsTimetableHandler(final Timetable table, final ITimetableIdGenerator idGenerator,
+      final IRoutingConfigProvider config) throws IOException {
     mTable = table;
     mIdGenerator = idGenerator;
     mExtIdToStop = Maps.mutable.empty();
     mExtIdToTrip = Maps.mutable.empty();
     mTripToSequence = Maps.mutable.empty();
     mTransfers = FastList.newList();
+
+    mUseGraphCache = config.useGraphCache();
+    if (mUseGraphCache) {
+      mRecentHandler = new RecentHandler(config.getTimetableCacheInfo());
+    } else {
+      mRecentHandler = null;
+    }
   }
 
   @Override
@@ -159,6 +185,11 @@ public final class GtfsTimetableHandler extends GtfsEntityForwarder implements I
     mExtIdToStop.clear();
     mExtIdToTrip.clear();
     mTripToSequence.clear();
+
+    // Update cache information
+    if (mUseGraphCache) {
+      mRecentHandler.updateInfo();
+    }
   }
 
   @Override
@@ -267,6 +298,11 @@ public final class GtfsTimetableHandler extends GtfsEntityForwarder implements I
 
   @Override
   public boolean isAcceptingFile(final Path file) {
+    // Check if the files content is not already included in the cache
+    if (mUseGraphCache && !mRecentHandler.isAcceptingFile(file)) {
+      return false;
+    }
+
     // Accept all GTFS files
     LOGGER.info("Accepts file {}", file);
     return true;
@@ -0,0 +1,279 @@
+package de.unifreiburg.informatik.cobweb.routing.server;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.routing.server.model.ERouteElementType;
+import de.unifreiburg.informatik.cobweb.routing.server.model.Journey;
+import de.unifreiburg.informatik.cobweb.routing.server.model.RouteElement;
+import de.unifreiburg.informatik.cobweb.routing.server.model.RoutingResponse;
+import de.unifreiburg.informatik.cobweb.util.collections.CoordinateList;
+
+/**
+ * Utility class which encodes routing responses into a compact binary format
+ * and decodes them again. It is offered as alternative to JSON for clients
+ * that parse large responses.<br>
+ * <br>
+ * The response is laid out as one flat buffer. Integers are written as
+ * variable-length quantities using 7 bits per byte, least significant group
+ * first, signed values are zigzag encoded beforehand. The layout is:
+ * <ul>
+ * <li>The magic bytes <tt>CWRB</tt> and the version {@link #VERSION} as single
+ * byte</li>
+ * <li>The signed values time, computation time, from and to of the
+ * response</li>
+ * <li>The string table, its amount of strings followed by each string as its
+ * amount of bytes and the bytes in UTF-8. Names are written as their index in
+ * the table, such that each name is written only once.</li>
+ * <li>The amount of journeys, followed by each journey as its signed departure
+ * time, its signed duration and its amount of route elements</li>
+ * <li>Each route element as type and transportation mode in a single signed
+ * byte each, the index of its name and its amount of coordinates, followed by
+ * the coordinates</li>
+ * </ul>
+ * Coordinates are fixed-point numbers in {@link #COORDINATE_SCALE} of a
+ * degree, written as signed latitude and longitude. Each coordinate is written
+ * as difference to the previous coordinate of the journey, the first to
+ * <tt>0</tt>. Consecutive coordinates are close, so the differences are small
+ * and written using few bytes.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class BinaryResponseCodec {
+  /**
+   * The amount of fixed-point units per degree of a coordinate. Coordinates
+   * are precise to about <tt>0.1</tt> meters.
+   */
+  public static final int COORDINATE_SCALE = 1_000_000;
+  /**
+   * The bytes every encoded response starts with.
+   */
+  private static final byte[] MAGIC = "CWRB".getBytes(StandardCharsets.US_ASCII);
+  /**
+   * The version of the format, written after the magic bytes.
+   */
+  public static final int VERSION = 1;
+
+  /**
+   * Decodes the given binary routing response.
+   *
+   * @param input The buffer containing the encoded response, starting at its
+   *              position. The position is advanced past the response.
+   * @return The decoded response. Coordinates are rounded to the precision of
+   *         the format.
+   * @throws IllegalArgumentException If the buffer does not contain a valid
+   *                                  encoded response
+   */
+  public static RoutingResponse decode(final ByteBuffer input) throws IllegalArgumentException {
+    try {
+      for (final byte magicByte : MAGIC) {
+        if (input.get() != magicByte) {
+          throw new IllegalArgumentException("The input is not a binary routing response");
+        }
+      }
+      final int version = input.get();
+      if (version != VERSION) {
+        throw new IllegalArgumentException("Unsupported version: " + version);
+      }
+
+      final long time = BinaryResponseCodec.readSigned(input);
+      final long compTime = BinaryResponseCodec.readSigned(input);
+      final long from = BinaryResponseCodec.readSigned(input);
+      final long to = BinaryResponseCodec.readSigned(input);
+
+      final int stringAmount = BinaryResponseCodec.readSize(input);
+      final String[] strings = new String[stringAmount];
+      for (int i = 0; i < stringAmount; i++) {
+        final byte[] stringRaw = new byte[BinaryResponseCodec.readSize(input)];
+        input.get(stringRaw);
+        strings[i] = new String(stringRaw, StandardCharsets.UTF_8);
+      }
+
+      final int journeyAmount = BinaryResponseCodec.readSize(input);
+      final List<Journey> journeys = new ArrayList<>(journeyAmount);
+      for (int i = 0; i < journeyAmount; i++) {
+        final long depTime = BinaryResponseCodec.readSigned(input);
+        final long arrTime = depTime + BinaryResponseCodec.readSigned(input);
+
+        final int elementAmount = BinaryResponseCodec.readSize(input);
+        final List<RouteElement> route = new ArrayList<>(elementAmount);
+        long latitude = 0;
+        long longitude = 0;
+        for (int j = 0; j < elementAmount; j++) {
+          final ERouteElementType type = ERouteElementType.fromValue(input.get());
+          final ETransportationMode mode = ETransportationMode.fromValue(input.get());
+          if (type == null || mode == null) {
+            throw new IllegalArgumentException("Unknown type or transportation mode of a route element");
+          }
+          final int nameIndex = BinaryResponseCodec.readSize(input);
+          if (nameIndex >= stringAmount) {
+            throw new IllegalArgumentException("Name index out of bounds: " + nameIndex);
+          }
+
+          final int coordinateAmount = BinaryResponseCodec.readSize(input);
+          final CoordinateList geom = new CoordinateList(coordinateAmount);
+          for (int k = 0; k < coordinateAmount; k++) {
+            latitude += BinaryResponseCodec.readSigned(input);
+            longitude += BinaryResponseCodec.readSigned(input);
+            geom.add((float) ((double) latitude / COORDINATE_SCALE), (float) ((double) longitude / COORDINATE_SCALE));
+          }
+          route.add(new RouteElement(type, mode, strings[nameIndex], geom));
+        }
+        journeys.add(new Journey(depTime, arrTime, route));
+      }
+      return new RoutingResponse(time, compTime, from, to, journeys);
+    } catch (final BufferUnderflowException e) {
+      throw new IllegalArgumentException("The input ended before the response was complete", e);
+    }
+  }
+
+  /**
+   * Encodes the given routing response into the binary format.
+   *
+   * @param response The response to encode
+   * @return The encoded response
+   */
+  public static byte[] encode(final RoutingResponse response) {
+    // Collect the string table
+    final List<String> strings = new ArrayList<>();
+    final Map<String, Integer> stringToIndex = new HashMap<>();
+    for (final Journey journey : response.getJourneys()) {
+      for (final RouteElement element : journey.getRoute()) {
+        if (!stringToIndex.containsKey(element.getName())) {
+          stringToIndex.put(element.getName(), strings.size());
+          strings.add(element.getName());
+        }
+      }
+    }
+
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    output.write(MAGIC, 0, MAGIC.length);
+    output.write(VERSION);
+    BinaryResponseCodec.writeSigned(output, response.getTime());
+    BinaryResponseCodec.writeSigned(output, response.getCompTime());
+    BinaryResponseCodec.writeSigned(output, response.getFrom());
+    BinaryResponseCodec.writeSigned(output, response.getTo());
+
+    BinaryResponseCodec.writeUnsigned(output, strings.size());
+    for (final String string : strings) {
+      final byte[] stringRaw = string.getBytes(StandardCharsets.UTF_8);
+      BinaryResponseCodec.writeUnsigned(output, stringRaw.length);
+      output.write(stringRaw, 0, stringRaw.length);
+    }
+
+    BinaryResponseCodec.writeUnsigned(output, response.getJourneys().size());
+    for (final Journey journey : response.getJourneys()) {
+      BinaryResponseCodec.writeSigned(output, journey.getDepTime());
+      BinaryResponseCodec.writeSigned(output, journey.getArrTime() - journey.getDepTime());
+
+      BinaryResponseCodec.writeUnsigned(output, journey.getRoute().size());
+      long latitude = 0;
+      long longitude = 0;
+      for (final RouteElement element : journey.getRoute()) {
+        output.write(element.getType().getValue());
+        output.write(element.getMode().getValue());
+        BinaryResponseCodec.writeUnsigned(output, stringToIndex.get(element.getName()));
+
+        final CoordinateList geom = element.getGeom();
+        BinaryResponseCodec.writeUnsigned(output, geom.size());
+        for (int i = 0; i < geom.size(); i++) {
+          final long nextLatitude = Math.round((double) geom.getLatitude(i) * COORDINATE_SCALE);
+          final long nextLongitude = Math.round((double) geom.getLongitude(i) * COORDINATE_SCALE);
+          BinaryResponseCodec.writeSigned(output, nextLatitude - latitude);
+          BinaryResponseCodec.writeSigned(output, nextLongitude - longitude);
+          latitude = nextLatitude;
+          longitude = nextLongitude;
+        }
+      }
+    }
+    return output.toByteArray();
+  }
+
+  /**
+   * Reads a zigzag encoded variable-length signed value.
+   *
+   * @param input The buffer to read from
+   * @return The read value
+   * @throws IllegalArgumentException If the value is too long
+   */
+  private static long readSigned(final ByteBuffer input) throws IllegalArgumentException {
+    final long value = BinaryResponseCodec.readUnsigned(input);
+    return value >>> 1 ^ -(value & 1);
+  }
+
+  /**
+   * Reads a variable-length unsigned value which represents a size or an
+   * index.
+   *
+   * @param input The buffer to read from
+   * @return The read value
+   * @throws IllegalArgumentException If the value does not fit into the
+   *                                  remaining buffer
+   */
+  private static int readSize(final ByteBuffer input) throws IllegalArgumentException {
+    final long size = BinaryResponseCodec.readUnsigned(input);
+    // Every counted item takes at least one byte
+    if (size > input.remaining()) {
+      throw new IllegalArgumentException("Size exceeds the input: " + size);
+    }
+    return (int) size;
+  }
+
+  /**
+   * Reads a variable-length unsigned value.
+   *
+   * @param input The buffer to read from
+   * @return The read value
+   * @throws IllegalArgumentException If the value is too long
+   */
+  private static long readUnsigned(final ByteBuffer input) throws IllegalArgumentException {
+    long value = 0;
+    for (int shift = 0; shift < Long.SIZE; shift += 7) {
+      final byte group = input.get();
+      value |= (long) (group & 0x7F) << shift;
+      if ((group & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Variable-length value is too long");
+  }
+
+  /**
+   * Writes the given signed value zigzag encoded as variable-length value.
+   *
+   * @param output The stream to write to
+   * @param value  The value to write
+   */
+  private static void writeSigned(final ByteArrayOutputStream output, final long value) {
+    BinaryResponseCodec.writeUnsigned(output, value << 1 ^ value >> Long.SIZE - 1);
+  }
+
+  /**
+   * Writes the given unsigned value as variable-length value.
+   *
+   * @param output The stream to write to
+   * @param value  The value to write, interpreted as unsigned
+   */
+  private static void writeUnsigned(final ByteArrayOutputStream output, final long value) {
+    long remaining = value;
+    while ((remaining & ~0x7FL) != 0) {
+      output.write((int) (remaining & 0x7F | 0x80));
+      remaining >>>= 7;
+    }
+    output.write((int) remaining);
+  }
+
+  /**
+   * Utility class. No implementation.
+   */
+  private BinaryResponseCodec() {
+
+  }
+}
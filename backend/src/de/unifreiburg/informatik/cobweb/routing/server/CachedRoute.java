@@ -0,0 +1,161 @@
+package de.unifreiburg.informatik.cobweb.routing.server;
+
+import java.util.Optional;
+
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.IPath;
+import de.unifreiburg.informatik.cobweb.routing.server.model.RoutingRequest;
+import de.unifreiburg.informatik.cobweb.util.RoutingUtil;
+
+/**
+ * Shortest path cached for a {@link RouteKey}, together with the absolute
+ * departure and arrival time of the journey it was computed for.<br>
+ * <br>
+ * Requests with time-dependent modes share their key with requests departing
+ * in the same time bucket. Their path is only valid for another request if the
+ * journey does not depart before the requested departure time, as it may use
+ * connections that left already. Such a request then departs and arrives at
+ * the times of the cached journey. Likewise, the absence of a path is only
+ * valid for requests departing later. Paths of other modes do not depend on
+ * the departure time, they are valid for all requests of the key.<br>
+ * <br>
+ * Use {@link #of(RoutingRequest, Optional)} to create routes.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+final class CachedRoute {
+  /**
+   * Creates the route computed for the given request.
+   *
+   * @param request The request the path was computed for
+   * @param path    The computed path, empty if there is no path
+   * @return The route to cache
+   */
+  static CachedRoute of(final RoutingRequest request, final Optional<IPath<ICoreNode, ICoreEdge<ICoreNode>>> path) {
+    final long depTime = request.getDepTime();
+    final long duration = path.map(p -> (long) Math.ceil(RoutingUtil.secondsToMillis(p.getTotalCost()))).orElse(0L);
+    return new CachedRoute(path.orElse(null), depTime, depTime + duration,
+        RouteKey.isTimeDependent(request.getModes()));
+  }
+
+  /**
+   * The absolute arrival time of the journey, in milliseconds since epoch.
+   */
+  private final long mArrTime;
+  /**
+   * The absolute departure time of the journey, in milliseconds since epoch.
+   */
+  private final long mDepTime;
+  /**
+   * Whether the path depends on the departure time.
+   */
+  private final boolean mIsTimeDependent;
+  /**
+   * The computed path or <tt>null</tt> if there is no path.
+   */
+  private final IPath<ICoreNode, ICoreEdge<ICoreNode>> mPath;
+
+  /**
+   * Creates a new route with the given values.
+   *
+   * @param path            The computed path or <tt>null</tt> if there is no
+   *                        path
+   * @param depTime         The absolute departure time of the journey, in
+   *                        milliseconds since epoch
+   * @param arrTime         The absolute arrival time of the journey, in
+   *                        milliseconds since epoch
+   * @param isTimeDependent Whether the path depends on the departure time
+   */
+  private CachedRoute(final IPath<ICoreNode, ICoreEdge<ICoreNode>> path, final long depTime, final long arrTime,
+      final boolean isTimeDependent) {
+    mPath = path;
+    mDepTime = depTime;
+    mArrTime = arrTime;
+    mIsTimeDependent = isTimeDependent;
+  }
+
+  /**
+   * Gets the arrival time of the journey when answering the given request.
+   *
+   * @param request The request to answer, the route must be valid for it
+   * @return The absolute arrival time, in milliseconds since epoch
+   */
+  long getArrTime(final RoutingRequest request) {
+    if (mIsTimeDependent) {
+      return mArrTime;
+    }
+    return request.getDepTime() + mArrTime - mDepTime;
+  }
+
+  /**
+   * Gets the departure time of the journey when answering the given request.
+   *
+   * @param request The request to answer, the route must be valid for it
+   * @return The absolute departure time, in milliseconds since epoch
+   */
+  long getDepTime(final RoutingRequest request) {
+    if (mIsTimeDependent) {
+      return mDepTime;
+    }
+    return request.getDepTime();
+  }
+
+  /**
+   * Gets the computed path.
+   *
+   * @return The path or empty if there is no path
+   */
+  Optional<IPath<ICoreNode, ICoreEdge<ICoreNode>>> getPath() {
+    return Optional.ofNullable(mPath);
+  }
+
+  /**
+   * Gets the weight of the route in a cache, which is the amount of edges of
+   * its path plus one. Thus, routes without edges are limited too.
+   *
+   * @return The weight of the route
+   */
+  int getWeight() {
+    return mPath == null ? 1 : mPath.length() + 1;
+  }
+
+  /**
+   * Whether the route can be used to answer the given request, which has the
+   * same key as the request the route was computed for.
+   *
+   * @param request The request to answer
+   * @return <tt>True</tt> if the route is valid for the request, <tt>false</tt>
+   *         otherwise
+   */
+  boolean isValidFor(final RoutingRequest request) {
+    if (!mIsTimeDependent) {
+      return true;
+    }
+    if (mPath == null) {
+      // Departing later does not make the destination reachable
+      return request.getDepTime() >= mDepTime;
+    }
+    // The journey must not use connections that leave before the request
+    return request.getDepTime() <= mDepTime;
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder();
+    builder.append("CachedRoute [depTime=");
+    builder.append(mDepTime);
+    builder.append(", arrTime=");
+    builder.append(mArrTime);
+    builder.append(", isTimeDependent=");
+    builder.append(mIsTimeDependent);
+    builder.append(", length=");
+    builder.append(mPath == null ? -1 : mPath.length());
+    builder.append("]");
+    return builder.toString();
+  }
+}
@@ -1,14 +1,11 @@
 package de.unifreiburg.informatik.cobweb.routing.server;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.net.Socket;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.JsonSyntaxException;
 
 import de.unifreiburg.informatik.cobweb.db.IRoutingDatabase;
@@ -16,40 +13,48 @@ import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.Shortest
 import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.IGetNodeById;
 import de.unifreiburg.informatik.cobweb.routing.server.model.RoutingRequest;
-import de.unifreiburg.informatik.cobweb.util.MemberFieldNamingStrategy;
+import de.unifreiburg.informatik.cobweb.util.JsonUtil;
 import de.unifreiburg.informatik.cobweb.util.http.EHttpContentType;
 import de.unifreiburg.informatik.cobweb.util.http.EHttpStatus;
 import de.unifreiburg.informatik.cobweb.util.http.HttpRequest;
 import de.unifreiburg.informatik.cobweb.util.http.HttpResponseBuilder;
 import de.unifreiburg.informatik.cobweb.util.http.HttpUtil;
+import de.unifreiburg.informatik.cobweb.util.http.IHttpHandler;
+import de.unifreiburg.informatik.cobweb.util.http.IHttpResponder;
 
 /**
  * Class that handles a routing client. It is designed to communicate with a
  * client via HTTP and serve routing requests.<br>
  * <br>
- * To handle the client call {@link #run()}. The method should only be called
- * once, the object should not be used anymore after the method has
- * finished.<br>
+ * The handler is registered for its resource at the HTTP server and handles
+ * any amount of requests in parallel.<br>
  * <br>
- * The client handler will close the client on its own. So it should not be
- * closed outside.
+ * Responses are sent as JSON. Clients can request the compact binary format of
+ * {@link BinaryResponseCodec} instead, by accepting the content type
+ * <tt>application/octet-stream</tt> or by adding the query parameter
+ * <tt>format=binary</tt> to the resource.
  *
  * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
  */
-public final class ClientHandler implements Runnable {
+public final class ClientHandler implements IHttpHandler {
   /**
    * Resource that is to be requested from a client if he submits a routing
    * query.
    */
-  private static final String API_RESOURCE = "/route";
+  static final String API_RESOURCE = "/route";
+  /**
+   * Value of the query parameter <tt>format</tt> that requests the binary
+   * format.
+   */
+  private static final String BINARY_FORMAT = "binary";
   /**
    * Logger used for logging.
    */
   private static final Logger LOGGER = LoggerFactory.getLogger(ClientHandler.class);
   /**
-   * The client to handle.
+   * The cache of the paths computed with the tools of this handler.
    */
-  private final Socket mClient;
+  private final RouteCache mCache;
   /**
    * The factory to use for generating algorithms for shortest path computation.
    */
@@ -58,138 +63,102 @@ public final class ClientHandler implements Runnable {
    * The database to use for fetching meta data for nodes and edges.
    */
   private final IRoutingDatabase mDatabase;
-  /**
-   * The unique ID of this client request.
-   */
-  private final int mId;
   /**
    * The object that provides nodes by their ID.
    */
   private final IGetNodeById<ICoreNode> mNodeProvider;
 
   /**
-   * Creates a new handler which handles the given client using the given
-   * tools.<br>
-   * <br>
-   * To handle the client call {@link #run()}. The method should only be called
-   * once, the object should not be used anymore after the method has finished.
+   * Creates a new handler which handles requests using the given tools.
    *
-   * @param id                 The unique ID of this client request
-   * @param client             The client to handle
    * @param nodeProvider       The object that provides nodes by their ID
    * @param computationFactory The factory to use for generating algorithms for
    *                           shortest path computation
    * @param database           The database to use for fetching meta data for
    *                           nodes and edges
+   * @param cache              The cache of the paths computed with the given
+   *                           tools
    */
-  public ClientHandler(final int id, final Socket client, final IGetNodeById<ICoreNode> nodeProvider,
-      final ShortestPathComputationFactory computationFactory, final IRoutingDatabase database) {
-    mId = id;
-    mClient = client;
+  public ClientHandler(final IGetNodeById<ICoreNode> nodeProvider,
+      final ShortestPathComputationFactory computationFactory, final IRoutingDatabase database,
+      final RouteCache cache) {
     mNodeProvider = nodeProvider;
     mComputationFactory = computationFactory;
     mDatabase = database;
-  }
-
-  /**
-   * Handles the clients request.<br>
-   * <br>
-   * The method should only be called once, the object should not be used
-   * anymore after the method has finished. The method catches and logs all
-   * errors and exceptions.<br>
-   * <br>
-   * The client handler will close the client on its own. So it should not be
-   * closed outside.
-   */
-  @Override
-  public void run() {
-    try {
-      // Handle the client
-      try (InputStream input = mClient.getInputStream()) {
-        handleRequest(HttpUtil.parseRequest(input));
-      }
-    } catch (final Throwable e) {
-      // Log every error
-      LOGGER.error("Unknown error while handling the client: {}", mId, e);
-    } finally {
-      try {
-        // Close the client
-        mClient.close();
-      } catch (final IOException e) {
-        LOGGER.error("Exception while closing the client socket", e);
-      }
-    }
+    mCache = cache;
   }
 
   /**
    * Handles the given HTTP request.
    *
-   * @param request The request to handle
+   * @param request   The request to handle
+   * @param responder The responder to send the response with
    * @throws IOException If an I/O exception occurred while sending the response
    *                     to the client
    */
-  private void handleRequest(final HttpRequest request) throws IOException {
+  @Override
+  public void handleRequest(final HttpRequest request, final IHttpResponder responder) throws IOException {
     // TODO Maybe don't log always
-    LOGGER.info("Handling routing HTTP request with id: {}", mId);
+    LOGGER.info("Handling routing HTTP request");
 
     // Method not allowed
     final String type = request.getType().toUpperCase();
     if (!type.equals("OPTIONS") && !type.equals("POST")) {
-      HttpUtil.sendHttpResponse(new HttpResponseBuilder().setStatus(EHttpStatus.METHOD_NOT_ALLOWED)
-          .putHeader("Allow", "OPTIONS, POST").build(), mClient);
+      responder.send(new HttpResponseBuilder().setStatus(EHttpStatus.METHOD_NOT_ALLOWED)
+          .putHeader("Allow", "OPTIONS, POST").build());
       return;
     }
 
     if (type.equals("OPTIONS")) {
-      serveOptionsRequest();
+      serveOptionsRequest(responder);
       return;
     }
 
     // Type is a post request
-    servePost(request);
+    servePost(request, responder);
   }
 
   /**
    * Serves a HTTP request of type <tt>OPTIONS</tt>.
    *
+   * @param responder The responder to send the response with
    * @throws IOException If an I/O exception occurred while sending the response
    *                     to the client
    */
-  private void serveOptionsRequest() throws IOException {
+  private void serveOptionsRequest(final IHttpResponder responder) throws IOException {
     // Send back the supported methods
-    HttpUtil.sendHttpResponse(new HttpResponseBuilder().setStatus(EHttpStatus.OK)
+    responder.send(new HttpResponseBuilder().setStatus(EHttpStatus.OK)
         .putHeader("Access-Control-Allow-Methods", "POST").putHeader("Access-Control-Allow-Headers", "Content-Type")
-        .putHeader("Access-Control-Max-Age", String.valueOf(86400)).putHeader("Connection", "Keep-Alive")
-        .putHeader("Keep-Alive", "timeout=5, max=100").build(), mClient);
+        .putHeader("Access-Control-Max-Age", String.valueOf(86400)).build());
   }
 
   /**
    * Serves a HTTP request of type <tt>POST</tt>.
    *
-   * @param request The request to serve
+   * @param request   The request to serve
+   * @param responder The responder to send the response with
    * @throws IOException If an I/O exception occurred while sending the response
    *                     to the client
    */
-  private void servePost(final HttpRequest request) throws IOException {
-    if (!request.getResource().equals(API_RESOURCE)) {
-      HttpUtil.sendHttpResponse(new HttpResponseBuilder().setStatus(EHttpStatus.NOT_IMPLEMENTED).build(), mClient);
-      return;
-    }
-
+  private void servePost(final HttpRequest request, final IHttpResponder responder) throws IOException {
     final EHttpContentType contentType = HttpUtil.parseContentType(request.getHeaders().get("Content-Type"));
     if (contentType == null || contentType != EHttpContentType.JSON) {
-      HttpUtil.sendHttpResponse(new HttpResponseBuilder().setStatus(EHttpStatus.BAD_REQUEST).build(), mClient);
+      responder.send(new HttpResponseBuilder().setStatus(EHttpStatus.BAD_REQUEST).build());
       return;
     }
 
+    final boolean isBinary = BINARY_FORMAT.equals(HttpUtil.parseQuery(request.getResource()).get("format"))
+        || HttpUtil.isAccepted(request.getHeaders().get("Accept"), EHttpContentType.BINARY);
+
     // Parse the JSON request and handle it
-    final Gson gson = new GsonBuilder().setFieldNamingStrategy(new MemberFieldNamingStrategy()).create();
+    final Gson gson = JsonUtil.getGson();
     try {
       final RoutingRequest routingRequest = gson.fromJson(request.getContent(), RoutingRequest.class);
-      final RequestHandler handler = new RequestHandler(mClient, gson, mNodeProvider, mComputationFactory, mDatabase);
+      final RequestHandler handler =
+          new RequestHandler(responder, gson, isBinary, mNodeProvider, mComputationFactory, mDatabase, mCache);
       handler.handleRequest(routingRequest);
     } catch (final JsonSyntaxException e) {
-      HttpUtil.sendHttpResponse(new HttpResponseBuilder().setStatus(EHttpStatus.BAD_REQUEST).build(), mClient);
+      responder.send(new HttpResponseBuilder().setStatus(EHttpStatus.BAD_REQUEST).build());
       return;
     }
   }
@@ -1,7 +1,7 @@
 package de.unifreiburg.informatik.cobweb.routing.server;
 
 import java.io.IOException;
-import java.net.Socket;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
@@ -10,17 +10,25 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.StringJoiner;
 
+import org.eclipse.collections.api.map.primitive.IntObjectMap;
+import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
+import org.eclipse.collections.impl.factory.primitive.IntObjectMaps;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
 
 import de.unifreiburg.informatik.cobweb.db.IRoutingDatabase;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.EdgePath;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.IShortestPathComputation;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.PartialEdgePath;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.ShortestPathComputationFactory;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.dijkstra.Dijkstra;
+import de.unifreiburg.informatik.cobweb.routing.model.RoadSnapping;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.EdgeCost;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.EdgePosition;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.IGetNodeById;
@@ -34,14 +42,31 @@ import de.unifreiburg.informatik.cobweb.routing.server.model.RouteElement;
 import de.unifreiburg.informatik.cobweb.routing.server.model.RoutingRequest;
 import de.unifreiburg.informatik.cobweb.routing.server.model.RoutingResponse;
 import de.unifreiburg.informatik.cobweb.util.RoutingUtil;
+import de.unifreiburg.informatik.cobweb.util.collections.CoordinateList;
 import de.unifreiburg.informatik.cobweb.util.http.EHttpContentType;
+import de.unifreiburg.informatik.cobweb.util.http.HttpResponse;
 import de.unifreiburg.informatik.cobweb.util.http.HttpResponseBuilder;
-import de.unifreiburg.informatik.cobweb.util.http.HttpUtil;
+import de.unifreiburg.informatik.cobweb.util.http.IHttpResponder;
 
 /**
  * Class that handles a routing request. It parses the request, computes
  * corresponding shortest paths and builds and sends a proper response.<br>
  * <br>
+ * Source and destination given as coordinates are snapped onto the nearest
+ * road segment, the journey then starts and ends at the projected points. If
+ * the algorithm does not support positions on edges, the nearer node of the
+ * segment is used instead.<br>
+ * <br>
+ * The response is sent as JSON or, if requested, in the compact binary format
+ * of {@link BinaryResponseCodec}. Path geometries are simplified to the
+ * tolerance of the request and, for JSON, optionally sent as encoded
+ * polylines.<br>
+ * <br>
+ * Computed paths are cached in a {@link RouteCache}. Repeated requests are
+ * answered from the cache without computing the path again, they report a
+ * computation time of nearly zero. Identical requests handled at the same
+ * time share a single computation.<br>
+ * <br>
  * To handle a request call {@link #handleRequest(RoutingRequest)}.
  *
  * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
@@ -51,10 +76,28 @@ public final class RequestHandler {
    * Logger used for logging
    */
   private static final Logger LOGGER = LoggerFactory.getLogger(RequestHandler.class);
+
+  /**
+   * Gets the node nearest to the given position, which is the node itself if
+   * the position is at a node or else the nearer node of its edge.
+   *
+   * @param position The position to get the nearest node of
+   * @return The nearest node
+   */
+  private static ICoreNode getNearestNode(final EdgePosition<ICoreNode, ICoreEdge<ICoreNode>> position) {
+    if (position.isAtNode()) {
+      return position.getNode();
+    }
+    if (position.getFraction() <= 0.5) {
+      return position.getEdge().getSource();
+    }
+    return position.getEdge().getDestination();
+  }
+
   /**
-   * The client whose request to handle.
+   * The cache of the paths computed with the tools of this handler.
    */
-  private final Socket mClient;
+  private final RouteCache mCache;
   /**
    * The factory to use for generating algorithms for shortest path computation.
    */
@@ -67,36 +110,50 @@ public final class RequestHandler {
    * The GSON object used to format JSON responses.
    */
   private final Gson mGson;
+  /**
+   * Whether the response is sent in the binary format instead of JSON.
+   */
+  private final boolean mIsBinary;
   /**
    * The object that provides nodes by their ID.
    */
   private final IGetNodeById<ICoreNode> mNodeProvider;
+  /**
+   * The responder to send the response to the client with.
+   */
+  private final IHttpResponder mResponder;
   /**
    * Comparator that sorts transportation modes ascending in their speed.
    */
   private final SpeedTransportationModeComparator mSpeedComparator;
 
   /**
-   * Creates a new handler which handles requests of the given client using the
-   * given tools.<br>
+   * Creates a new handler which handles a request using the given tools.<br>
    * <br>
    * To handle a request call {@link #handleRequest(RoutingRequest)}.
    *
-   * @param client             The client whose request to handle
+   * @param responder          The responder to send the response with
    * @param gson               The GSON object used to format JSON responses
+   * @param isBinary           Whether the response is sent in the binary format
+   *                           of {@link BinaryResponseCodec} instead of JSON
    * @param nodeProvider       The object that provides nodes by their ID
    * @param computationFactory The factory to use for generating algorithms for
    *                           shortest path computation
    * @param database           The database to use for fetching meta data for
    *                           nodes and edges
+   * @param cache              The cache of the paths computed with the given
+   *                           tools
    */
-  public RequestHandler(final Socket client, final Gson gson, final IGetNodeById<ICoreNode> nodeProvider,
-      final ShortestPathComputationFactory computationFactory, final IRoutingDatabase database) {
-    mClient = client;
+  public RequestHandler(final IHttpResponder responder, final Gson gson, final boolean isBinary,
+      final IGetNodeById<ICoreNode> nodeProvider, final ShortestPathComputationFactory computationFactory,
+      final IRoutingDatabase database, final RouteCache cache) {
+    mResponder = responder;
     mGson = gson;
+    mIsBinary = isBinary;
     mNodeProvider = nodeProvider;
     mComputationFactory = computationFactory;
     mDatabase = database;
+    mCache = cache;
     mSpeedComparator = new SpeedTransportationModeComparator();
   }
 
@@ -113,39 +170,42 @@ public final class RequestHandler {
     }
     final long startTime = System.nanoTime();
 
-    // Get the source and destination
-    final Optional<ICoreNode> sourceOptional =
-        mDatabase.getInternalNodeByOsm(request.getFrom()).flatMap(id -> mNodeProvider.getNodeById(id));
-    if (!sourceOptional.isPresent()) {
-      sendEmptyResponse(request, startTime);
-      return;
-    }
-    final Optional<ICoreNode> destinationOptional =
-        mDatabase.getInternalNodeByOsm(request.getTo()).flatMap(id -> mNodeProvider.getNodeById(id));
-    if (!destinationOptional.isPresent()) {
-      sendEmptyResponse(request, startTime);
-      return;
-    }
-
-    // Nodes are known, compute the path
-    final ICoreNode source = sourceOptional.get();
-    final ICoreNode destination = destinationOptional.get();
-
-    final IShortestPathComputation<ICoreNode, ICoreEdge<ICoreNode>> computation =
-        mComputationFactory.createAlgorithm(request.getDepTime(), request.getModes());
+    // Repeated requests are served from the cache
+    final RouteKey key = mCache.createKey(request);
+    CachedRoute cachedRoute = mCache.get(key, request);
+    final long startCompTime;
+    final long endCompTime;
+    if (cachedRoute == null) {
+      // Get the source and destination
+      final Optional<EdgePosition<ICoreNode, ICoreEdge<ICoreNode>>> sourceOptional =
+          getPosition(request.getFrom(), request.getFromCoordinates(), request.getModes());
+      if (!sourceOptional.isPresent()) {
+        sendEmptyResponse(request, startTime);
+        return;
+      }
+      final Optional<EdgePosition<ICoreNode, ICoreEdge<ICoreNode>>> destinationOptional =
+          getPosition(request.getTo(), request.getToCoordinates(), request.getModes());
+      if (!destinationOptional.isPresent()) {
+        sendEmptyResponse(request, startTime);
+        return;
+      }
 
-    final long startCompTime = System.nanoTime();
-    final Optional<IPath<ICoreNode, ICoreEdge<ICoreNode>>> pathOptional =
-        computation.computeShortestPath(source, destination);
-    final long endCompTime = System.nanoTime();
-    if (!pathOptional.isPresent()) {
+      // Positions are known, compute the path
+      startCompTime = System.nanoTime();
+      cachedRoute =
+          mCache.compute(key, request, () -> computePath(request, sourceOptional.get(), destinationOptional.get()));
+      endCompTime = System.nanoTime();
+    } else {
+      startCompTime = System.nanoTime();
+      endCompTime = startCompTime;
+    }
+    if (!cachedRoute.getPath().isPresent()) {
       sendNotReachableResponse(request, startTime, startCompTime);
       return;
     }
 
     // Path is present, build the resulting journey
-    final IPath<ICoreNode, ICoreEdge<ICoreNode>> path = pathOptional.get();
-    final Journey journey = buildJourney(request, path);
+    final Journey journey = buildJourney(request, cachedRoute);
 
     final long endTime = System.nanoTime();
 
@@ -161,105 +221,228 @@ public final class RequestHandler {
    *
    * @param subPath The sub-path to add
    * @param mode    The transportation mode to use for this sub-path
+   * @param names   The names of the nodes of the journey by their internal ID
    * @param route   The route to add the sub-path to
    */
   private void appendSubPath(final IPath<ICoreNode, ICoreEdge<ICoreNode>> subPath, final ETransportationMode mode,
-      final List<RouteElement> route) {
-    route.add(buildNode(subPath.getSource()));
-    route.add(buildPath(subPath, mode));
-    route.add(buildNode(subPath.getDestination()));
+      final IntObjectMap<String> names, final List<RouteElement> route) {
+    route.add(buildNode(subPath.getSource(), names));
+    route.add(buildPath(subPath, mode, names));
+    route.add(buildNode(subPath.getDestination(), names));
   }
 
   /**
-   * Builds a journey object which represents the given path.
+   * Builds a journey object which represents the path of the given route.
    *
-   * @param request The request the journey belongs to
-   * @param path    The path the journey represents
+   * @param request     The request the journey belongs to
+   * @param cachedRoute The route of the request, its path must be present
    * @return The resulting journey
    */
-  private Journey buildJourney(final RoutingRequest request, final IPath<ICoreNode, ICoreEdge<ICoreNode>> path) {
-    final long depTime = request.getDepTime();
-    final long duration = (long) Math.ceil(RoutingUtil.secondsToMillis(path.getTotalCost()));
-    final long arrTime = depTime + duration;
+  private Journey buildJourney(final RoutingRequest request, final CachedRoute cachedRoute) {
+    final IPath<ICoreNode, ICoreEdge<ICoreNode>> path = cachedRoute.getPath().get();
+    // Time-dependent journeys may depart later than requested
+    final long depTime = cachedRoute.getDepTime(request);
+    final long arrTime = cachedRoute.getArrTime(request);
 
     // The route needs place for at least all edges and
     // the source and destination node
     final List<RouteElement> route = new ArrayList<>(path.length() + 2);
 
+    PartialEdgePath<ICoreNode, ICoreEdge<ICoreNode>> partialPath = null;
+    if (path instanceof PartialEdgePath) {
+      partialPath = (PartialEdgePath<ICoreNode, ICoreEdge<ICoreNode>>) path;
+    }
+
     // Build the route
     // If path is empty we use a singleton node only
     if (path.length() == 0) {
-      route.add(buildNode(path.getSource()));
+      final ICoreNode source = partialPath != null && partialPath.getSourcePosition().isAtNode()
+          ? partialPath.getSourcePosition().getNode()
+          : path.getSource();
+      final IntObjectMap<String> names = resolveNames(new int[] { source.getId() });
+      if (partialPath != null) {
+        route.add(buildPosition(partialPath.getSourcePosition(), names));
+      } else {
+        route.add(buildNode(source, names));
+      }
       return new Journey(depTime, arrTime, route);
     }
 
+    // Collect sub paths that use a single transportation mode
+    final List<EdgePath<ICoreNode, ICoreEdge<ICoreNode>>> subPaths = new ArrayList<>();
+    final List<ETransportationMode> subPathModes = new ArrayList<>();
     EdgePath<ICoreNode, ICoreEdge<ICoreNode>> currentPath = null;
     ETransportationMode currentMode = null;
-    // Collect sub paths that use a single transportation mode
     for (final EdgeCost<ICoreNode, ICoreEdge<ICoreNode>> edgeCost : path) {
       final ICoreEdge<ICoreNode> edge = edgeCost.getEdge();
       final ETransportationMode edgeMode = getModeOfEdge(request.getModes(), edge);
 
-      // Mode differs
+      // Mode differs, prepare next path with new mode
       if (edgeMode != currentMode || currentPath == null) {
-        // Append current path
-        if (currentPath != null) {
-          appendSubPath(currentPath, currentMode, route);
-        }
-        // Prepare next path with new mode
         currentPath = new EdgePath<>();
         currentMode = edgeMode;
+        subPaths.add(currentPath);
+        subPathModes.add(currentMode);
       }
 
       // Collect edge to current path
       currentPath.addEdge(edge, edgeCost.getCost());
     }
-    // Append last path
-    appendSubPath(currentPath, currentMode, route);
 
+    // Resolve the names of all nodes of the journey at once
+    final int[] nodeIds = new int[2 * subPaths.size() + 2];
+    for (int i = 0; i < subPaths.size(); i++) {
+      nodeIds[2 * i] = subPaths.get(i).getSource().getId();
+      nodeIds[2 * i + 1] = subPaths.get(i).getDestination().getId();
+    }
+    nodeIds[nodeIds.length - 2] = nodeIds[0];
+    nodeIds[nodeIds.length - 1] = nodeIds[nodeIds.length - 3];
+    if (partialPath != null && partialPath.getSourcePosition().isAtNode()) {
+      nodeIds[nodeIds.length - 2] = partialPath.getSourcePosition().getNode().getId();
+    }
+    if (partialPath != null && partialPath.getDestinationPosition().isAtNode()) {
+      nodeIds[nodeIds.length - 1] = partialPath.getDestinationPosition().getNode().getId();
+    }
+    final IntObjectMap<String> names = resolveNames(nodeIds);
+
+    for (int i = 0; i < subPaths.size(); i++) {
+      appendSubPath(subPaths.get(i), subPathModes.get(i), names, route);
+    }
+
+    // Start and end at the exact positions instead of the nodes of the
+    // partially traversed edges
+    if (partialPath != null) {
+      final EdgePosition<ICoreNode, ICoreEdge<ICoreNode>> sourcePosition = partialPath.getSourcePosition();
+      final EdgePosition<ICoreNode, ICoreEdge<ICoreNode>> destinationPosition = partialPath.getDestinationPosition();
+      route.set(0, buildPosition(sourcePosition, names));
+      route.get(1).getGeom().set(0, sourcePosition.getLatitude(), sourcePosition.getLongitude());
+      final CoordinateList lastGeom = route.get(route.size() - 2).getGeom();
+      lastGeom.set(lastGeom.size() - 1, destinationPosition.getLatitude(), destinationPosition.getLongitude());
+      route.set(route.size() - 1, buildPosition(destinationPosition, names));
+    }
+
+    generalizeRoute(request, route);
     return new Journey(depTime, arrTime, route);
   }
 
   /**
    * Builds a route element which represents the given node.
    *
-   * @param node The node to represent
+   * @param node  The node to represent
+   * @param names The names of the nodes of the journey by their internal ID
+   * @return The resulting route element
+   */
+  private RouteElement buildNode(final ICoreNode node, final IntObjectMap<String> names) {
+    final String name = names.getIfAbsent(node.getId(), () -> "");
+    return new RouteElement(ERouteElementType.NODE, name, new CoordinateList(node.getLatitude(), node.getLongitude()));
+  }
+
+  /**
+   * Builds a route element which represents the given position. A position at
+   * a node is represented as the node itself.
+   *
+   * @param position The position to represent
+   * @param names    The names of the nodes of the journey by their internal ID
    * @return The resulting route element
    */
-  private RouteElement buildNode(final ICoreNode node) {
-    final String name = mDatabase.getOsmNodeByInternal(node.getId()).flatMap(mDatabase::getNodeName).orElse("");
-    final float[] coordinates = new float[] { node.getLatitude(), node.getLongitude() };
-    return new RouteElement(ERouteElementType.NODE, name, Collections.singletonList(coordinates));
+  private RouteElement buildPosition(final EdgePosition<ICoreNode, ICoreEdge<ICoreNode>> position,
+      final IntObjectMap<String> names) {
+    if (position.isAtNode()) {
+      return buildNode(position.getNode(), names);
+    }
+    return new RouteElement(ERouteElementType.NODE, "",
+        new CoordinateList(position.getLatitude(), position.getLongitude()));
   }
 
   /**
    * Builds a route element which represents the given path.
    *
-   * @param path The path to represent
-   * @param mode The transportation mode to use for this path
+   * @param path  The path to represent
+   * @param mode  The transportation mode to use for this path
+   * @param names The names of the nodes of the journey by their internal ID
    * @return The resulting route element
    */
-  private RouteElement buildPath(final IPath<ICoreNode, ICoreEdge<ICoreNode>> path, final ETransportationMode mode) {
+  private RouteElement buildPath(final IPath<ICoreNode, ICoreEdge<ICoreNode>> path, final ETransportationMode mode,
+      final IntObjectMap<String> names) {
     // TODO The current way of constructing a name may be inappropriate
     final StringJoiner nameJoiner = new StringJoiner(", ");
-    final List<float[]> geom = new ArrayList<>(path.length() + 1);
+    final CoordinateList geom = new CoordinateList(path.length() + 1);
 
     // Add the source
     final ICoreNode source = path.getSource();
-    geom.add(new float[] { source.getLatitude(), source.getLongitude() });
-    if (source instanceof IRoadNode) {
-      mDatabase.getOsmNodeByInternal(source.getId()).flatMap(mDatabase::getNodeName).ifPresent(nameJoiner::add);
+    geom.add(source.getLatitude(), source.getLongitude());
+    if (source instanceof IRoadNode && names.containsKey(source.getId())) {
+      nameJoiner.add(names.get(source.getId()));
     }
 
     // Add all edge destinations
     for (final EdgeCost<ICoreNode, ICoreEdge<ICoreNode>> edgeCost : path) {
       final ICoreNode edgeDestination = edgeCost.getEdge().getDestination();
-      geom.add(new float[] { edgeDestination.getLatitude(), edgeDestination.getLongitude() });
+      geom.add(edgeDestination.getLatitude(), edgeDestination.getLongitude());
     }
 
     return new RouteElement(ERouteElementType.PATH, mode, nameJoiner.toString(), geom);
   }
 
+  /**
+   * Computes the shortest path between the given positions.
+   *
+   * @param request     The request to compute the path for
+   * @param source      The position to start at
+   * @param destination The position to end at
+   * @return The shortest path or empty if the destination is not reachable
+   */
+  private Optional<IPath<ICoreNode, ICoreEdge<ICoreNode>>> computePath(final RoutingRequest request,
+      final EdgePosition<ICoreNode, ICoreEdge<ICoreNode>> source,
+      final EdgePosition<ICoreNode, ICoreEdge<ICoreNode>> destination) {
+    final Optional<Dijkstra<ICoreNode, ICoreEdge<ICoreNode>>> edgePositionComputation;
+    if (source.isAtNode() && destination.isAtNode()) {
+      edgePositionComputation = Optional.empty();
+    } else {
+      edgePositionComputation = mComputationFactory.createAlgorithmEdgePositions(request.getDepTime(),
+          request.getModes());
+    }
+    if (edgePositionComputation.isPresent()) {
+      return edgePositionComputation.get().computeShortestPath(source, destination).map(path -> path);
+    }
+    final IShortestPathComputation<ICoreNode, ICoreEdge<ICoreNode>> computation =
+        mComputationFactory.createAlgorithm(request.getDepTime(), request.getModes());
+    return computation
+        .computeShortestPath(RequestHandler.getNearestNode(source), RequestHandler.getNearestNode(destination))
+        .map(path -> path);
+  }
+
+  /**
+   * Generalizes the geometries of the paths of the given route as requested.
+   * The geometries are simplified to the tolerance of the request and encoded
+   * as polylines if requested. Polylines are not used for the binary format,
+   * it encodes coordinates compactly already.
+   *
+   * @param request The request the route belongs to
+   * @param route   The route to generalize, paths are simplified in place or
+   *                replaced by their encoded version
+   */
+  private void generalizeRoute(final RoutingRequest request, final List<RouteElement> route) {
+    final boolean usePolyline = request.isPolyline() && !mIsBinary;
+    if (request.getTolerance() <= 0.0f && !usePolyline) {
+      return;
+    }
+
+    for (int i = 0; i < route.size(); i++) {
+      final RouteElement element = route.get(i);
+      if (element.getType() != ERouteElementType.PATH) {
+        continue;
+      }
+
+      final CoordinateList geom = element.getGeom();
+      geom.simplify(request.getTolerance());
+      if (usePolyline) {
+        route.set(i, new RouteElement(ERouteElementType.PATH, element.getMode(), element.getName(),
+            geom.encodePolyline()));
+      }
+    }
+  }
+
   /**
    * Decides for the transportation mode to use for the given edge based on the
    * modes it offers and the given restrictions.<br>
@@ -280,6 +463,56 @@ public final class RequestHandler {
     return Collections.max(availableModes, mSpeedComparator);
   }
 
+  /**
+   * Gets the position to start or end a journey at. Coordinates are snapped
+   * onto the nearest road segment which can be used with any of the given
+   * modes, if the factory offers an index for that, or onto the nearest node
+   * with such a segment. Otherwise, the node with the given OSM ID is used.
+   *
+   * @param osmId       The unique OSM ID of the node to use if no coordinates
+   *                    are given
+   * @param coordinates The coordinates to snap, as latitude and longitude, if
+   *                    present
+   * @param modes       The transportation modes of the request
+   * @return The position or empty if it could not be determined
+   */
+  private Optional<EdgePosition<ICoreNode, ICoreEdge<ICoreNode>>> getPosition(final long osmId,
+      final Optional<float[]> coordinates, final Set<ETransportationMode> modes) {
+    final RoadSnapping snapping = mComputationFactory.getRoadSnapping();
+    if (coordinates.isPresent() && snapping != null) {
+      final float latitude = coordinates.get()[0];
+      final float longitude = coordinates.get()[1];
+      if (snapping.hasSegmentIndex()) {
+        return snapping.getNearestEdge(latitude, longitude, modes);
+      }
+      // The snapped node is resolved again, the graph may be tiled
+      return snapping.getNearestNode(latitude, longitude, modes)
+          .flatMap(node -> mNodeProvider.getNodeById(node.getId()))
+          .map(node -> new EdgePosition<>(node, node.getLatitude(), node.getLongitude()));
+    }
+    return mDatabase.getInternalNodeByOsm(osmId).flatMap(id -> mNodeProvider.getNodeById(id))
+        .map(node -> new EdgePosition<>(node, node.getLatitude(), node.getLongitude()));
+  }
+
+  /**
+   * Resolves the names of the nodes with the given internal IDs, using a
+   * single batched lookup.
+   *
+   * @param nodeIds The internal IDs of the nodes, may contain duplicates
+   * @return The names of the nodes by their internal ID, nodes without name are
+   *         not contained
+   */
+  private IntObjectMap<String> resolveNames(final int[] nodeIds) {
+    final String[] nodeNames = mDatabase.getNodeNamesByInternal(nodeIds);
+    final MutableIntObjectMap<String> names = IntObjectMaps.mutable.empty();
+    for (int i = 0; i < nodeIds.length; i++) {
+      if (nodeNames[i] != null) {
+        names.put(nodeIds[i], nodeNames[i]);
+      }
+    }
+    return names;
+  }
+
   /**
    * Sends an empty routing response. This is usually used if no shortest path
    * could be found.
@@ -327,8 +560,20 @@ public final class RequestHandler {
     if (LOGGER.isDebugEnabled()) {
       LOGGER.debug("Sending response: {}", response);
     }
-    final String content = mGson.toJson(response);
-    HttpUtil.sendHttpResponse(
-        new HttpResponseBuilder().setContentType(EHttpContentType.JSON).setContent(content).build(), mClient);
+    if (mIsBinary) {
+      final HttpResponse head =
+          new HttpResponseBuilder().setContentType(EHttpContentType.BINARY).putHeader("Vary", "Accept").build();
+      try (OutputStream output = mResponder.sendHeadRaw(head)) {
+        output.write(BinaryResponseCodec.encode(response));
+      }
+      return;
+    }
+
+    // Stream the response instead of building it as a whole, it may be large
+    final HttpResponse head =
+        new HttpResponseBuilder().setContentType(EHttpContentType.JSON).putHeader("Vary", "Accept").build();
+    try (JsonWriter jsonWriter = new JsonWriter(mResponder.sendHead(head))) {
+      mGson.toJson(response, RoutingResponse.class, jsonWriter);
+    }
   }
 }
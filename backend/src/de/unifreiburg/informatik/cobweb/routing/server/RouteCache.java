@@ -0,0 +1,169 @@
+package de.unifreiburg.informatik.cobweb.routing.server;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.IPath;
+import de.unifreiburg.informatik.cobweb.routing.server.model.RoutingRequest;
+import de.unifreiburg.informatik.cobweb.util.RequestCoalescer;
+import de.unifreiburg.informatik.cobweb.util.collections.WeightedLruCache;
+
+/**
+ * Cache for the shortest paths computed for routing requests, such that
+ * repeated requests do not need to compute them again.<br>
+ * <br>
+ * Paths are cached as {@link CachedRoute} by the {@link RouteKey} of their
+ * request. Requests using time-dependent modes that depart in the same time
+ * bucket share their key, a cached path is only used for them if it is valid
+ * for their departure time. Otherwise it is computed again and replaces the
+ * cached one. The cache evicts approximately the least recently used paths
+ * once it holds too many paths or too many edges in total. Requests without a
+ * path are cached too.<br>
+ * <br>
+ * Concurrent requests with the same key are coalesced, only one of them
+ * computes the path while the others wait for it. This bounds the work during
+ * bursts of identical requests, also if the path is not cached or the cache is
+ * disabled. Waiting requests for which the computed path is not valid compute
+ * their own.<br>
+ * <br>
+ * The paths belong to the routing model they were computed on, a cache must
+ * not be used anymore once the model is replaced. The cache is thread-safe.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class RouteCache {
+  /**
+   * The coalescer of concurrent computations of paths for the same key.
+   */
+  private final RequestCoalescer<RouteKey, CachedRoute> mCoalescer;
+  /**
+   * The cached paths by the keys of their requests.
+   */
+  private final WeightedLruCache<RouteKey, CachedRoute> mPaths;
+  /**
+   * The width of the time buckets departure times are rounded down to, in
+   * milliseconds.
+   */
+  private final long mTimeBucket;
+
+  /**
+   * Creates a new empty cache with the given limits.
+   *
+   * @param maxSize    The maximal amount of cached paths, if not positive
+   *                   nothing is cached
+   * @param maxEdges   The maximal total amount of edges of the cached paths
+   * @param timeBucket The width of the time buckets departure times of
+   *                   time-dependent requests are rounded down to, in
+   *                   seconds. If not positive, departure times must match
+   *                   exactly.
+   */
+  public RouteCache(final int maxSize, final long maxEdges, final int timeBucket) {
+    mPaths = new WeightedLruCache<>(maxSize, maxEdges, CachedRoute::getWeight);
+    mTimeBucket = TimeUnit.SECONDS.toMillis(timeBucket);
+    mCoalescer = new RequestCoalescer<>();
+  }
+
+  /**
+   * Computes the path for the given request and caches it. If the path of the
+   * key is already computed by another request, it waits for it instead of
+   * computing it again, unless that path is not valid for the request.
+   *
+   * @param key         The key of the request to compute the path for
+   * @param request     The request to compute the path for
+   * @param computation The computation of the path for the request, returns
+   *                    empty if there is no path
+   * @return The computed route, valid for the request
+   */
+  CachedRoute compute(final RouteKey key, final RoutingRequest request,
+      final Supplier<Optional<IPath<ICoreNode, ICoreEdge<ICoreNode>>>> computation) {
+    final CachedRoute route = mCoalescer.execute(key, () -> computeAndCache(key, request, computation));
+    if (route.isValidFor(request)) {
+      return route;
+    }
+    // Waited for a request of the same key departing at another time
+    return computeAndCache(key, request, computation);
+  }
+
+  /**
+   * Gets the key the path of the given request is cached by.
+   *
+   * @param request The request to get the key of
+   * @return The key of the request
+   */
+  RouteKey createKey(final RoutingRequest request) {
+    return RouteKey.of(request, mTimeBucket);
+  }
+
+  /**
+   * Gets the route cached for the given request.
+   *
+   * @param key     The key of the request to get the route of
+   * @param request The request to get the route of
+   * @return The cached route or <tt>null</tt> if nothing valid for the request
+   *         is cached for the key
+   */
+  CachedRoute get(final RouteKey key, final RoutingRequest request) {
+    final CachedRoute route = mPaths.get(key);
+    if (route == null || !route.isValidFor(request)) {
+      return null;
+    }
+    return route;
+  }
+
+  /**
+   * Gets the amount of requests that waited for the path computed by another
+   * request so far.
+   *
+   * @return The amount of coalesced requests
+   */
+  public long getCoalescedCount() {
+    return mCoalescer.getCoalescedCount();
+  }
+
+  /**
+   * Gets the amount of requests whose path was found in the cache so far.
+   *
+   * @return The amount of hits
+   */
+  public long getHitCount() {
+    return mPaths.getHitCount();
+  }
+
+  /**
+   * Gets the amount of requests whose path was not found in the cache so far.
+   *
+   * @return The amount of misses
+   */
+  public long getMissCount() {
+    return mPaths.getMissCount();
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    return "RouteCache " + mPaths + " " + mCoalescer;
+  }
+
+  /**
+   * Computes the path for the given request and caches it, replacing the route
+   * cached for the key.
+   *
+   * @param key         The key of the request to compute the path for
+   * @param request     The request to compute the path for
+   * @param computation The computation of the path for the request, returns
+   *                    empty if there is no path
+   * @return The computed route
+   */
+  private CachedRoute computeAndCache(final RouteKey key, final RoutingRequest request,
+      final Supplier<Optional<IPath<ICoreNode, ICoreEdge<ICoreNode>>>> computation) {
+    final CachedRoute route = CachedRoute.of(request, computation.get());
+    mPaths.put(key, route);
+    return route;
+  }
+}
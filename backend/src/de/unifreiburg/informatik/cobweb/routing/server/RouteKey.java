@@ -0,0 +1,178 @@
+package de.unifreiburg.informatik.cobweb.routing.server;
+
+import java.util.Arrays;
+import java.util.Set;
+
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.routing.server.model.RoutingRequest;
+
+/**
+ * Key identifying the shortest path a routing request asks for. Requests with
+ * equal keys are answered by the same path.<br>
+ * <br>
+ * The key consists of source, destination, the allowed transportation modes
+ * and the departure time. Source and destination are either given by their
+ * coordinates or, if absent, by their node. Only time-dependent modes, i.e.
+ * {@link ETransportationMode#TRAM}, depend on the departure time. For them it
+ * is rounded down to a time bucket, such that requests departing at nearly the
+ * same time share their key. A path cached for such a key must still be
+ * checked against the departure time of the request, see
+ * {@link CachedRoute#isValidFor(RoutingRequest)}. Otherwise the departure time
+ * is not part of the key at all.<br>
+ * <br>
+ * Use {@link #of(RoutingRequest, long)} to create keys.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+final class RouteKey {
+  /**
+   * Whether paths using the given transportation modes depend on the
+   * departure time.
+   *
+   * @param modes The allowed transportation modes
+   * @return <tt>True</tt> if the paths are time-dependent, <tt>false</tt>
+   *         otherwise
+   */
+  static boolean isTimeDependent(final Set<ETransportationMode> modes) {
+    return modes.contains(ETransportationMode.TRAM);
+  }
+
+  /**
+   * Creates the key of the given request.
+   *
+   * @param request    The request to create the key of
+   * @param timeBucket The width of the time buckets departure times are
+   *                   rounded down to, in milliseconds. If not positive,
+   *                   departure times are used exactly.
+   * @return The key of the request
+   */
+  static RouteKey of(final RoutingRequest request, final long timeBucket) {
+    final float[] fromCoordinates = request.getFromCoordinates().orElse(null);
+    final float[] toCoordinates = request.getToCoordinates().orElse(null);
+    final Set<ETransportationMode> modes = request.getModes();
+
+    long depTimeBucket = 0L;
+    if (RouteKey.isTimeDependent(modes)) {
+      depTimeBucket = request.getDepTime();
+      if (timeBucket > 0) {
+        depTimeBucket = Math.floorDiv(depTimeBucket, timeBucket);
+      }
+    }
+
+    // Nodes are ignored if coordinates are present
+    return new RouteKey(fromCoordinates == null ? request.getFrom() : 0L, fromCoordinates,
+        toCoordinates == null ? request.getTo() : 0L, toCoordinates, modes, depTimeBucket);
+  }
+
+  /**
+   * The bucket of the departure time or <tt>0</tt> if the modes are not
+   * time-dependent.
+   */
+  private final long mDepTimeBucket;
+  /**
+   * The ID of the source node, <tt>0</tt> if coordinates are present.
+   */
+  private final long mFrom;
+  /**
+   * The source coordinates or <tt>null</tt> if not present.
+   */
+  private final float[] mFromCoordinates;
+  /**
+   * The allowed transportation modes.
+   */
+  private final Set<ETransportationMode> mModes;
+  /**
+   * The ID of the destination node, <tt>0</tt> if coordinates are present.
+   */
+  private final long mTo;
+  /**
+   * The destination coordinates or <tt>null</tt> if not present.
+   */
+  private final float[] mToCoordinates;
+
+  /**
+   * Creates a new key with the given values.
+   *
+   * @param from            The ID of the source node, <tt>0</tt> if
+   *                        coordinates are present
+   * @param fromCoordinates The source coordinates or <tt>null</tt> if not
+   *                        present
+   * @param to              The ID of the destination node, <tt>0</tt> if
+   *                        coordinates are present
+   * @param toCoordinates   The destination coordinates or <tt>null</tt> if not
+   *                        present
+   * @param modes           The allowed transportation modes
+   * @param depTimeBucket   The bucket of the departure time or <tt>0</tt> if
+   *                        the modes are not time-dependent
+   */
+  private RouteKey(final long from, final float[] fromCoordinates, final long to, final float[] toCoordinates,
+      final Set<ETransportationMode> modes, final long depTimeBucket) {
+    mFrom = from;
+    mFromCoordinates = fromCoordinates;
+    mTo = to;
+    mToCoordinates = toCoordinates;
+    mModes = modes;
+    mDepTimeBucket = depTimeBucket;
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see java.lang.Object#equals(java.lang.Object)
+   */
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null) {
+      return false;
+    }
+    if (!(obj instanceof RouteKey)) {
+      return false;
+    }
+    final RouteKey other = (RouteKey) obj;
+    return mFrom == other.mFrom && mTo == other.mTo && mDepTimeBucket == other.mDepTimeBucket
+        && Arrays.equals(mFromCoordinates, other.mFromCoordinates)
+        && Arrays.equals(mToCoordinates, other.mToCoordinates) && mModes.equals(other.mModes);
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see java.lang.Object#hashCode()
+   */
+  @Override
+  public int hashCode() {
+    final int prime = 31;
+    int result = 1;
+    result = prime * result + Long.hashCode(mFrom);
+    result = prime * result + Arrays.hashCode(mFromCoordinates);
+    result = prime * result + Long.hashCode(mTo);
+    result = prime * result + Arrays.hashCode(mToCoordinates);
+    result = prime * result + mModes.hashCode();
+    result = prime * result + Long.hashCode(mDepTimeBucket);
+    return result;
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder();
+    builder.append("RouteKey [from=");
+    builder.append(mFrom);
+    builder.append(", fromCoordinates=");
+    builder.append(Arrays.toString(mFromCoordinates));
+    builder.append(", to=");
+    builder.append(mTo);
+    builder.append(", toCoordinates=");
+    builder.append(Arrays.toString(mToCoordinates));
+    builder.append(", modes=");
+    builder.append(mModes);
+    builder.append(", depTimeBucket=");
+    builder.append(mDepTimeBucket);
+    builder.append("]");
+    return builder.toString();
+  }
+}
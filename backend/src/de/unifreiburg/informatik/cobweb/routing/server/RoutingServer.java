@@ -2,11 +2,6 @@ package de.unifreiburg.informatik.cobweb.routing.server;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
-import java.net.ServerSocket;
-import java.net.Socket;
-import java.net.SocketTimeoutException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,6 +13,8 @@ import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.IGetNodeById;
 import de.unifreiburg.informatik.cobweb.routing.server.model.RoutingRequest;
 import de.unifreiburg.informatik.cobweb.routing.server.model.RoutingResponse;
+import de.unifreiburg.informatik.cobweb.util.http.HttpServer;
+import de.unifreiburg.informatik.cobweb.util.http.WorkerPool;
 
 /**
  * A server which offers a REST API that is able to answer routing requests.<br>
@@ -39,52 +36,73 @@ import de.unifreiburg.informatik.cobweb.routing.server.model.RoutingResponse;
  * <tt>OPTIONS</tt>. The server will send <tt>BAD REQUEST</tt> to invalid
  * requests.<br>
  * <br>
- * The server itself handles clients in parallel using a cached thread pool. For
- * construction it wants a configuration, a graph to route on, an algorithm to
- * compute shortest paths with and a database for retrieving meta-data.
+ * The API is served by a {@link HttpServer} shared with the other services.
+ * For construction it wants a configuration, the HTTP server, a graph to route
+ * on, an algorithm to compute shortest paths with and a database for
+ * retrieving meta-data.<br>
+ * <br>
+ * Computed paths are cached in a {@link RouteCache}, such that repeated
+ * requests are answered without computing them again. Identical requests
+ * handled at the same time share a single computation. The cache is replaced
+ * whenever the tools are reloaded.
  *
  * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
  */
-public final class RoutingServer implements Runnable {
+public final class RoutingServer {
   /**
    * Logger used for logging.
    */
   private static final Logger LOGGER = LoggerFactory.getLogger(RoutingServer.class);
+
   /**
-   * The timeout used when waiting for a client to connect, in milliseconds. The
-   * server status is checked after each timeout.
+   * Creates an empty cache with the limits of the given configuration.
+   *
+   * @param config Configuration provider which provides the limits of the
+   *               cache
+   * @return The created cache
    */
-  private static final int SOCKET_TIMEOUT = 2_000;
+  private static RouteCache createCache(final IRoutingConfigProvider config) {
+    return new RouteCache(config.getRoutingCacheSize(), config.getRoutingCacheEdges(),
+        config.getRoutingCacheTimeBucket());
+  }
+
+  /**
+   * The cache of the paths computed with the current tools. Guarded by this
+   * server.
+   */
+  private RouteCache mCache;
   /**
    * The factory to use for generating algorithms for shortest path computation.
+   * Guarded by this server, see
+   * {@link #reload(IGetNodeById, ShortestPathComputationFactory, IRoutingDatabase)}.
    */
-  private final ShortestPathComputationFactory mComputationFactory;
+  private ShortestPathComputationFactory mComputationFactory;
   /**
-   * Configuration provider which provides the port that should be used by the
-   * server.
+   * Configuration provider which provides the port and the worker limits that
+   * should be used by the server.
    */
   private final IRoutingConfigProvider mConfig;
   /**
    * Database used for retrieving meta-data about graph objects like nodes and
-   * edges.
+   * edges. Guarded by this server.
    */
-  private final IRoutingDatabase mDatabase;
+  private IRoutingDatabase mDatabase;
   /**
-   * The object that provides nodes by their ID.
+   * The HTTP server serving the API, shared with the other services.
    */
-  private final IGetNodeById<ICoreNode> mNodeProvider;
+  private final HttpServer mHttpServer;
   /**
-   * The server socket to use for communication.
+   * Whether or not the handler of the server is registered.
    */
-  private ServerSocket mServerSocket;
+  private volatile boolean mIsRunning;
   /**
-   * The thread to run this server on.
+   * The object that provides nodes by their ID. Guarded by this server.
    */
-  private Thread mServerThread;
+  private IGetNodeById<ICoreNode> mNodeProvider;
   /**
-   * Whether or not the server thread should run.
+   * The pool of workers handling the requests of the server.
    */
-  private volatile boolean mShouldRun;
+  private final WorkerPool mWorkerPool;
 
   /**
    * Creates a new routing server with the given configuration that works with
@@ -97,16 +115,24 @@ public final class RoutingServer implements Runnable {
    * anymore, instead create a new one.
    *
    * @param config             Configuration provider which provides the port
-   *                           that should be used by the server
+   *                           and the worker limits that should be used by the
+   *                           server
+   * @param httpServer         The HTTP server to serve the API on, shared with
+   *                           the other services
    * @param nodeProvider       The object that provides nodes by their ID
    * @param computationFactory The factory to use for generating algorithms for
    *                           shortest path computation
    * @param database           Database used for retrieving meta-data about
    *                           graph objects like nodes and edges
    */
-  public RoutingServer(final IRoutingConfigProvider config, final IGetNodeById<ICoreNode> nodeProvider,
-      final ShortestPathComputationFactory computationFactory, final IRoutingDatabase database) {
+  public RoutingServer(final IRoutingConfigProvider config, final HttpServer httpServer,
+      final IGetNodeById<ICoreNode> nodeProvider, final ShortestPathComputationFactory computationFactory,
+      final IRoutingDatabase database) {
     mConfig = config;
+    mHttpServer = httpServer;
+    mCache = createCache(config);
+    mWorkerPool = new WorkerPool("routing", config.getRoutingServerWorkers(), config.getRoutingServerQueueLimit(),
+        config.getServerQueueTimeout());
     mNodeProvider = nodeProvider;
     mComputationFactory = computationFactory;
     mDatabase = database;
@@ -114,21 +140,31 @@ public final class RoutingServer implements Runnable {
 
   /**
    * Initializes the server. Call this method prior to starting the server with
-   * {@link #start()}. Do not call it again afterwards.
+   * {@link #start()}. Do not call it again afterwards. The database must
+   * contain all data already, it is prepared for answering requests.
    *
-   * @throws UncheckedIOException If an I/O exception occurred while creating
-   *                              the server socket.
+   * @throws UncheckedIOException If an I/O exception occurred while binding
+   *                              the port.
    */
   public void initialize() throws UncheckedIOException {
-    mServerThread = new Thread(this);
+    mDatabase.prepareNodeNames();
     try {
-      mServerSocket = new ServerSocket(mConfig.getRoutingServerPort());
-      mServerSocket.setSoTimeout(SOCKET_TIMEOUT);
+      mHttpServer.bind(mConfig.getRoutingServerPort());
     } catch (final IOException e) {
       throw new UncheckedIOException(e);
     }
   }
 
+  /**
+   * Gets the cache of the paths computed with the current tools. It offers
+   * metrics like the amount of hits and misses.
+   *
+   * @return The current cache
+   */
+  public synchronized RouteCache getCache() {
+    return mCache;
+  }
+
   /**
    * Whether or not the server is currently running.<br>
    * <br>
@@ -137,41 +173,37 @@ public final class RoutingServer implements Runnable {
    * @return <tt>True</tt> if the server is running, <tt>false</tt> otherwise
    */
   public boolean isRunning() {
-    return mServerThread.isAlive();
+    return mIsRunning;
   }
 
-  /*
-   * (non-Javadoc)
-   * @see java.lang.Runnable#run()
-   */
-  @Override
-  public void run() {
-    final ExecutorService executor = Executors.newCachedThreadPool();
-    int requestId = -1;
-
-    LOGGER.info("Server ready and waiting for clients");
-    while (mShouldRun) {
-      try {
-        // Accept a client, the handler will close it
-        @SuppressWarnings("resource")
-        final Socket client = mServerSocket.accept();
-
-        // Handle the client
-        requestId++;
-        final ClientHandler handler =
-            new ClientHandler(requestId, client, mNodeProvider, mComputationFactory, mDatabase);
-        executor.execute(handler);
-      } catch (final SocketTimeoutException e) {
-        // Ignore the exception. The timeout is used to repeatedly check if the
-        // server should continue running.
-      } catch (final Exception e) {
-        // TODO Implement some limit of repeated exceptions
-        // Log every exception and try to stay alive
-        LOGGER.error("Unknown exception in routing server routine", e);
-      }
+  /**
+   * Replaces the tools used to answer routing requests, for example after the
+   * routing model was built again from updated data.<br>
+   * <br>
+   * Requests received afterwards are handled with the given tools, requests that
+   * are already being handled finish with the previous ones. The server does
+   * not need to be stopped for that. Paths cached for the previous tools are
+   * dropped.
+   *
+   * @param nodeProvider       The object that provides nodes by their ID
+   * @param computationFactory The factory to use for generating algorithms for
+   *                           shortest path computation
+   * @param database           Database used for retrieving meta-data about
+   *                           graph objects like nodes and edges, must match
+   *                           the given node provider
+   */
+  public synchronized void reload(final IGetNodeById<ICoreNode> nodeProvider,
+      final ShortestPathComputationFactory computationFactory, final IRoutingDatabase database) {
+    database.prepareNodeNames();
+    mNodeProvider = nodeProvider;
+    mComputationFactory = computationFactory;
+    mDatabase = database;
+    LOGGER.info("Dropping routing cache: {}", mCache);
+    mCache = createCache(mConfig);
+    if (mIsRunning) {
+      registerHandler();
     }
-
-    LOGGER.info("Routing server is shutting down");
+    LOGGER.info("Reloaded routing server");
   }
 
   /**
@@ -181,7 +213,9 @@ public final class RoutingServer implements Runnable {
    * was shutdown it should not be used anymore, instead create a new one.
    */
   public void shutdown() {
-    mShouldRun = false;
+    mHttpServer.unregister(ClientHandler.API_RESOURCE);
+    mIsRunning = false;
+    mWorkerPool.shutdown();
     LOGGER.info("Set shutdown request to routing server");
   }
 
@@ -198,8 +232,17 @@ public final class RoutingServer implements Runnable {
       return;
     }
     LOGGER.info("Starting routing server");
-    mShouldRun = true;
-    mServerThread.start();
+    registerHandler();
+    mIsRunning = true;
+  }
+
+  /**
+   * Registers a handler answering requests with the current tools at the HTTP
+   * server, running on the pool of the server, replacing the previous one.
+   */
+  private synchronized void registerHandler() {
+    mHttpServer.register(ClientHandler.API_RESOURCE,
+        new ClientHandler(mNodeProvider, mComputationFactory, mDatabase, mCache), mWorkerPool);
   }
 
 }
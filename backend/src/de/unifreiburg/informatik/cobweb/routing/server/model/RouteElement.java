@@ -1,15 +1,18 @@
 package de.unifreiburg.informatik.cobweb.routing.server.model;
 
-import java.util.List;
+import java.util.Optional;
 
 import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.util.collections.CoordinateList;
 
 /**
  * POJO that models a route element which can either represent a
  * {@link ERouteElementType#NODE} or {@link ERouteElementType#PATH}.<br>
  * <br>
  * A node consists of its coordinates and an optional name. A path consists of a
- * list of coordinates, a transportation mode and an optional name.<br>
+ * list of coordinates, a transportation mode and an optional name. The
+ * coordinates of a path may also be given as encoded polyline instead of a
+ * list.<br>
  * <br>
  * Is used in a {@link Journey} and usually decoded into JSON.
  *
@@ -17,10 +20,10 @@ import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
  */
 public final class RouteElement {
   /**
-   * A list of latitude and longitude coordinates belonging to this element.
-   * Thus, the size of the arrays is <tt>2</tt>.
+   * The latitude and longitude coordinates belonging to this element. Is
+   * <tt>null</tt> if the coordinates are given by {@link #mPolyline} instead.
    */
-  private List<float[]> mGeom;
+  private CoordinateList mGeom;
   /**
    * The transportation mode belonging to this element.
    */
@@ -29,6 +32,12 @@ public final class RouteElement {
    * The name of this element or empty if not present.
    */
   private String mName;
+  /**
+   * The coordinates belonging to this element in the encoded polyline
+   * algorithm format or <tt>null</tt> if they are given by {@link #mGeom}
+   * instead.
+   */
+  private String mPolyline;
   /**
    * The route element type of this element. Matches the values of the enum
    * {@link ERouteElementType}.
@@ -42,11 +51,11 @@ public final class RouteElement {
    * @param type The type of this route element
    * @param mode The transportation mode belonging to this element
    * @param name The name of this element or empty if not present
-   * @param geom A list of latitude and longitude coordinates belonging to this
+   * @param geom The latitude and longitude coordinates belonging to this
    *             element
    */
   public RouteElement(final ERouteElementType type, final ETransportationMode mode, final String name,
-      final List<float[]> geom) {
+      final CoordinateList geom) {
     mName = name;
     mGeom = geom;
 
@@ -54,6 +63,26 @@ public final class RouteElement {
     setMode(mode);
   }
 
+  /**
+   * Creates a new route element whose coordinates are given as encoded
+   * polyline. Should be used for {@link ERouteElementType#PATH} since only they
+   * have a transportation mode.
+   *
+   * @param type     The type of this route element
+   * @param mode     The transportation mode belonging to this element
+   * @param name     The name of this element or empty if not present
+   * @param polyline The latitude and longitude coordinates belonging to this
+   *                 element in the encoded polyline algorithm format
+   */
+  public RouteElement(final ERouteElementType type, final ETransportationMode mode, final String name,
+      final String polyline) {
+    mName = name;
+    mPolyline = polyline;
+
+    setType(type);
+    setMode(mode);
+  }
+
   /**
    * Creates a new route element. Should be used for
    * {@link ERouteElementType#NODE} since they do not have a transportation
@@ -61,10 +90,10 @@ public final class RouteElement {
    *
    * @param type The type of this route element
    * @param name The name of this element or empty if not present
-   * @param geom A list of latitude and longitude coordinates belonging to this
-   *             element. The size of the arrays must be <tt>2</tt>.
+   * @param geom The latitude and longitude coordinates belonging to this
+   *             element
    */
-  public RouteElement(final ERouteElementType type, final String name, final List<float[]> geom) {
+  public RouteElement(final ERouteElementType type, final String name, final CoordinateList geom) {
     this(type, ETransportationMode.IRRELEVANT, name, geom);
   }
 
@@ -78,12 +107,12 @@ public final class RouteElement {
   }
 
   /**
-   * Gets the list of latitude and longitude coordinates belonging to this
-   * element. Thus, the size of the arrays is <tt>2</tt>.
+   * Gets the latitude and longitude coordinates belonging to this element.
    *
-   * @return A list of latitude and longitude coordinates
+   * @return The coordinates or <tt>null</tt> if the coordinates are given as
+   *         encoded polyline, see {@link #getPolyline()}
    */
-  public List<float[]> getGeom() {
+  public CoordinateList getGeom() {
     return mGeom;
   }
 
@@ -105,6 +134,17 @@ public final class RouteElement {
     return mName;
   }
 
+  /**
+   * Gets the coordinates belonging to this element in the encoded polyline
+   * algorithm format, with a precision of five decimal places.
+   *
+   * @return The encoded polyline or empty if the coordinates are given as list,
+   *         see {@link #getGeom()}
+   */
+  public Optional<String> getPolyline() {
+    return Optional.ofNullable(mPolyline);
+  }
+
   /**
    * Gets the type of this route element.
    *
@@ -127,8 +167,13 @@ public final class RouteElement {
     builder.append(mMode);
     builder.append(", name=");
     builder.append(mName);
-    builder.append(", geomSize=");
-    builder.append(mGeom.size());
+    if (mGeom != null) {
+      builder.append(", geomSize=");
+      builder.append(mGeom.size());
+    } else {
+      builder.append(", polylineLength=");
+      builder.append(mPolyline.length());
+    }
     builder.append("]");
     return builder.toString();
   }
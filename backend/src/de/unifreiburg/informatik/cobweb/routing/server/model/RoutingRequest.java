@@ -2,6 +2,7 @@ package de.unifreiburg.informatik.cobweb.routing.server.model;
 
 import java.util.Arrays;
 import java.util.EnumSet;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -11,7 +12,13 @@ import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
  * POJO that models a routing request.<br>
  * <br>
  * A request consists of departure time, source and destination nodes and
- * meta-data like desired transportation modes.<br>
+ * meta-data like desired transportation modes. Instead of nodes, source and
+ * destination may also be given as coordinates, which are then snapped onto
+ * the nearest road segment.<br>
+ * <br>
+ * The geometry of the resulting routes can be simplified by giving a
+ * tolerance, for example derived from the zoom level the route is displayed
+ * at, and be requested as encoded polylines.<br>
  * <br>
  * It has the exact structure that is expected as request format for the REST
  * API. It is primarily used to be constructed from the clients JSON request.
@@ -27,16 +34,36 @@ public final class RoutingRequest {
    * The unique ID of the node to start the journey from.
    */
   private long mFrom;
+  /**
+   * The coordinates to start the journey from, as latitude and longitude, or
+   * <tt>null</tt> if the journey starts at the node given by {@link #mFrom}.
+   */
+  private float[] mFromCoordinates;
   /**
    * An array containing all allowed transportation modes. The values are to be
    * interpreted as values corresponding to the enum
    * {@link ETransportationMode}.
    */
   private int[] mModes;
+  /**
+   * Whether the coordinates of paths are to be sent in the encoded polyline
+   * algorithm format instead of as list.
+   */
+  private boolean mPolyline;
+  /**
+   * The maximal deviation of simplified route geometries from the original
+   * geometries, in metres. If not positive, geometries are not simplified.
+   */
+  private float mTolerance;
   /**
    * The unique ID of the node to end the journey at.
    */
   private long mTo;
+  /**
+   * The coordinates to end the journey at, as latitude and longitude, or
+   * <tt>null</tt> if the journey ends at the node given by {@link #mTo}.
+   */
+  private float[] mToCoordinates;
 
   /**
    * Creates a new routing request.
@@ -83,6 +110,16 @@ public final class RoutingRequest {
     return mFrom;
   }
 
+  /**
+   * Gets the coordinates to start the journey from. If present, they take
+   * precedence over the node given by {@link #getFrom()}.
+   *
+   * @return The coordinates as latitude and longitude or empty if not present
+   */
+  public Optional<float[]> getFromCoordinates() {
+    return Optional.ofNullable(mFromCoordinates);
+  }
+
   /**
    * Gets a set containing all allowed transportation modes.
    *
@@ -92,6 +129,18 @@ public final class RoutingRequest {
     return EnumSet.copyOf(Arrays.stream(mModes).mapToObj(ETransportationMode::fromValue).collect(Collectors.toSet()));
   }
 
+  /**
+   * Gets the maximal deviation of simplified route geometries from the
+   * original geometries. Coordinates of paths that are not needed to stay
+   * within this tolerance are dropped.
+   *
+   * @return The tolerance in metres, not positive if geometries are not to be
+   *         simplified
+   */
+  public float getTolerance() {
+    return mTolerance;
+  }
+
   /**
    * Gets the unique ID of the node to end the journey at.
    *
@@ -101,6 +150,27 @@ public final class RoutingRequest {
     return mTo;
   }
 
+  /**
+   * Gets the coordinates to end the journey at. If present, they take
+   * precedence over the node given by {@link #getTo()}.
+   *
+   * @return The coordinates as latitude and longitude or empty if not present
+   */
+  public Optional<float[]> getToCoordinates() {
+    return Optional.ofNullable(mToCoordinates);
+  }
+
+  /**
+   * Whether the coordinates of paths are to be sent in the encoded polyline
+   * algorithm format instead of as list.
+   *
+   * @return <tt>True</tt> if encoded polylines are requested, <tt>false</tt>
+   *         otherwise
+   */
+  public boolean isPolyline() {
+    return mPolyline;
+  }
+
   /*
    * (non-Javadoc)
    * @see java.lang.Object#toString()
@@ -110,12 +180,20 @@ public final class RoutingRequest {
     final StringBuilder builder = new StringBuilder();
     builder.append("RoutingRequest [from=");
     builder.append(mFrom);
+    builder.append(", fromCoordinates=");
+    builder.append(Arrays.toString(mFromCoordinates));
     builder.append(", to=");
     builder.append(mTo);
+    builder.append(", toCoordinates=");
+    builder.append(Arrays.toString(mToCoordinates));
     builder.append(", depTime=");
     builder.append(mDepTime);
     builder.append(", modes=");
     builder.append(Arrays.toString(mModes));
+    builder.append(", tolerance=");
+    builder.append(mTolerance);
+    builder.append(", polyline=");
+    builder.append(mPolyline);
     builder.append("]");
     return builder.toString();
   }
@@ -0,0 +1,18 @@
+package de.unifreiburg.informatik.cobweb.searching.matching;
+
+/**
+ * This class is a placeholder for an empty package.<br>
+ * <br>
+ * It is used to counter a bug in <tt>Javadoc</tt> (see <a href=
+ * "https://bugs.java.com/bugdatabase/view_bug.do?bug_id=4492654">JDK-4492654</a>).
+ * Where the tool fails to generate documentation for empty packages.<br>
+ * <br>
+ * The class should not be used and be removed as soon as the package is not
+ * empty anymore.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+final class EmptyPackagePlaceholder {
+  // The class is used as indicator class, it is empty.
+  // NOTE Remove this class as soon as the package is not empty anymore.
+}
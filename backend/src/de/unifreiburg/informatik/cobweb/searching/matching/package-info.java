@@ -0,0 +1,7 @@
+/**
+ * Package containing classes relevant for matching recorded traces of
+ * positions, like GPS traces, onto the road network.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+package de.unifreiburg.informatik.cobweb.searching.matching;
\ No newline at end of file
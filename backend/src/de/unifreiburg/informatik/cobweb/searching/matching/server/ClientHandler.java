@@ -0,0 +1,153 @@
+package de.unifreiburg.informatik.cobweb.searching.matching.server;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+
+import de.unifreiburg.informatik.cobweb.db.IMapMatchingDatabase;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.matching.HmmMapMatcher;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
+import de.unifreiburg.informatik.cobweb.searching.matching.server.model.MapMatchingRequest;
+import de.unifreiburg.informatik.cobweb.util.JsonUtil;
+import de.unifreiburg.informatik.cobweb.util.http.EHttpContentType;
+import de.unifreiburg.informatik.cobweb.util.http.EHttpStatus;
+import de.unifreiburg.informatik.cobweb.util.http.HttpRequest;
+import de.unifreiburg.informatik.cobweb.util.http.HttpResponseBuilder;
+import de.unifreiburg.informatik.cobweb.util.http.HttpUtil;
+import de.unifreiburg.informatik.cobweb.util.http.IHttpHandler;
+import de.unifreiburg.informatik.cobweb.util.http.IHttpResponder;
+
+/**
+ * Class that handles a map matching client. It is designed to communicate
+ * with a client via HTTP and serve map matching requests.<br>
+ * <br>
+ * The handler is registered for its resource at the HTTP server and handles
+ * any amount of requests in parallel.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class ClientHandler implements IHttpHandler {
+  /**
+   * Resource that is to be requested from a client if he submits a map
+   * matching query.
+   */
+  static final String API_RESOURCE = "/mapmatching";
+  /**
+   * Logger used for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(ClientHandler.class);
+
+  /**
+   * Whether the given request is valid, i.e. it has a trace whose positions
+   * all consist of a latitude and longitude.
+   *
+   * @param request The request to check
+   * @return <tt>True</tt> if the request is valid, <tt>false</tt> otherwise
+   */
+  private static boolean isValid(final MapMatchingRequest request) {
+    if (request == null || request.getTrace() == null) {
+      return false;
+    }
+    return request.getTrace().stream().allMatch(position -> position != null && position.length == 2);
+  }
+
+  /**
+   * The database to use for retrieving node data.
+   */
+  private final IMapMatchingDatabase mDatabase;
+  /**
+   * The map matcher to use or <tt>null</tt> if not available.
+   */
+  private final HmmMapMatcher<ICoreNode, ICoreEdge<ICoreNode>> mMapMatcher;
+
+  /**
+   * Creates a new handler which handles requests using the given map matcher.
+   *
+   * @param mapMatcher The map matcher to use or <tt>null</tt> if not available
+   * @param database   The database to use for retrieving node data
+   */
+  public ClientHandler(final HmmMapMatcher<ICoreNode, ICoreEdge<ICoreNode>> mapMatcher,
+      final IMapMatchingDatabase database) {
+    mMapMatcher = mapMatcher;
+    mDatabase = database;
+  }
+
+  /**
+   * Handles the given HTTP request.
+   *
+   * @param request   The request to handle
+   * @param responder The responder to send the response with
+   * @throws IOException If an I/O exception occurred while sending the response
+   *                     to the client
+   */
+  @Override
+  public void handleRequest(final HttpRequest request, final IHttpResponder responder) throws IOException {
+    LOGGER.debug("Handling map matching HTTP request");
+
+    // Method not allowed
+    final String type = request.getType().toUpperCase();
+    if (!type.equals("OPTIONS") && !type.equals("POST")) {
+      responder.send(new HttpResponseBuilder().setStatus(EHttpStatus.METHOD_NOT_ALLOWED)
+          .putHeader("Allow", "OPTIONS, POST").build());
+      return;
+    }
+
+    if (type.equals("OPTIONS")) {
+      serveOptionsRequest(responder);
+      return;
+    }
+
+    // Type is a post request
+    servePost(request, responder);
+  }
+
+  /**
+   * Serves a HTTP request of type <tt>OPTIONS</tt>.
+   *
+   * @param responder The responder to send the response with
+   * @throws IOException If an I/O exception occurred while sending the response
+   *                     to the client
+   */
+  private void serveOptionsRequest(final IHttpResponder responder) throws IOException {
+    // Send back the supported methods
+    responder.send(new HttpResponseBuilder().setStatus(EHttpStatus.OK)
+        .putHeader("Access-Control-Allow-Methods", "POST").putHeader("Access-Control-Allow-Headers", "Content-Type")
+        .putHeader("Access-Control-Max-Age", String.valueOf(86400)).build());
+  }
+
+  /**
+   * Serves a HTTP request of type <tt>POST</tt>.
+   *
+   * @param request   The request to serve
+   * @param responder The responder to send the response with
+   * @throws IOException If an I/O exception occurred while sending the response
+   *                     to the client
+   */
+  private void servePost(final HttpRequest request, final IHttpResponder responder) throws IOException {
+    final EHttpContentType contentType = HttpUtil.parseContentType(request.getHeaders().get("Content-Type"));
+    if (contentType == null || contentType != EHttpContentType.JSON) {
+      responder.send(new HttpResponseBuilder().setStatus(EHttpStatus.BAD_REQUEST).build());
+      return;
+    }
+
+    // Parse the JSON request and handle it
+    final Gson gson = JsonUtil.getGson();
+    try {
+      final MapMatchingRequest mapMatchingRequest = gson.fromJson(request.getContent(), MapMatchingRequest.class);
+      if (!isValid(mapMatchingRequest)) {
+        responder.send(new HttpResponseBuilder().setStatus(EHttpStatus.BAD_REQUEST).build());
+        return;
+      }
+      final RequestHandler handler = new RequestHandler(responder, gson, mMapMatcher, mDatabase);
+      handler.handleRequest(mapMatchingRequest);
+    } catch (final JsonSyntaxException e) {
+      responder.send(new HttpResponseBuilder().setStatus(EHttpStatus.BAD_REQUEST).build());
+      return;
+    }
+  }
+}
@@ -0,0 +1,195 @@
+package de.unifreiburg.informatik.cobweb.searching.matching.server;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.unifreiburg.informatik.cobweb.config.IMapMatchingConfigProvider;
+import de.unifreiburg.informatik.cobweb.db.IMapMatchingDatabase;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.matching.HmmMapMatcher;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
+import de.unifreiburg.informatik.cobweb.searching.matching.server.model.MapMatchingRequest;
+import de.unifreiburg.informatik.cobweb.searching.matching.server.model.MatchedEdge;
+import de.unifreiburg.informatik.cobweb.util.http.HttpServer;
+import de.unifreiburg.informatik.cobweb.util.http.WorkerPool;
+
+/**
+ * A server which offers a REST API that is able to match recorded traces of
+ * positions, like GPS traces, onto the road network.<br>
+ * <br>
+ * After construction the {@link #initialize()} method should be called.
+ * Afterwards it can be started by using {@link #start()}. Request the server to
+ * shutdown by using {@link #shutdown()}, the current status can be checked with
+ * {@link #isRunning()}. Once a server was shutdown it should not be used
+ * anymore, instead create a new one.<br>
+ * <br>
+ * A request consists of a trace of positions. A response consists of the
+ * sequence of road edges the trace was matched onto, each given by the unique
+ * OSM IDs of its nodes and its geometry. It also includes the time it needed
+ * to answer the query in milliseconds. The edges are streamed to the client
+ * while the remaining trace is still matched, such that long traces do not
+ * need to be matched completely before the response starts.<br>
+ * <br>
+ * The REST API communicates over HTTP by sending and receiving JSON objects.
+ * Requests are parsed into {@link MapMatchingRequest}, the edges of the
+ * response are encoded from {@link MatchedEdge}. Accepted HTTP methods are
+ * <tt>POST</tt> and <tt>OPTIONS</tt>. The server will send <tt>BAD
+ * REQUEST</tt> to invalid requests.<br>
+ * <br>
+ * The API is served by a {@link HttpServer} shared with the other services.
+ * For construction it wants a configuration, the HTTP server and a map matcher.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class MapMatchingServer {
+  /**
+   * Logger used for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(MapMatchingServer.class);
+  /**
+   * Configuration provider which provides the port and the worker limits that
+   * should be used by the server.
+   */
+  private final IMapMatchingConfigProvider mConfig;
+  /**
+   * The database to use for retrieving node data. Guarded by this server.
+   */
+  private IMapMatchingDatabase mDatabase;
+  /**
+   * The HTTP server serving the API, shared with the other services.
+   */
+  private final HttpServer mHttpServer;
+  /**
+   * Whether or not the handler of the server is registered.
+   */
+  private volatile boolean mIsRunning;
+  /**
+   * The map matcher to use or <tt>null</tt> if not available. Guarded by this
+   * server, see {@link #reload(HmmMapMatcher, IMapMatchingDatabase)}.
+   */
+  private HmmMapMatcher<ICoreNode, ICoreEdge<ICoreNode>> mMapMatcher;
+  /**
+   * The pool of workers handling the requests of the server.
+   */
+  private final WorkerPool mWorkerPool;
+
+  /**
+   * Creates a new map matching server with the given configuration that works
+   * with the given map matcher.<br>
+   * <br>
+   * After construction the {@link #initialize()} method should be called.
+   * Afterwards it can be started by using {@link #start()}. Request the server
+   * to shutdown by using {@link #shutdown()}, the current status can be checked
+   * with {@link #isRunning()}. Once a server was shutdown it should not be used
+   * anymore, instead create a new one.
+   *
+   * @param config     Configuration provider which provides the port and the
+   *                   worker limits that should be used by the server
+   * @param httpServer The HTTP server to serve the API on, shared with the
+   *                   other services
+   * @param mapMatcher The map matcher to use or <tt>null</tt> if not
+   *                   available, in which case traces are matched onto no
+   *                   edges
+   * @param database   The database to use for retrieving node data
+   */
+  public MapMatchingServer(final IMapMatchingConfigProvider config, final HttpServer httpServer,
+      final HmmMapMatcher<ICoreNode, ICoreEdge<ICoreNode>> mapMatcher, final IMapMatchingDatabase database) {
+    mConfig = config;
+    mHttpServer = httpServer;
+    mWorkerPool = new WorkerPool("mapMatching", config.getMapMatchingServerWorkers(),
+        config.getMapMatchingServerQueueLimit(), config.getServerQueueTimeout());
+    mMapMatcher = mapMatcher;
+    mDatabase = database;
+  }
+
+  /**
+   * Initializes the server. Call this method prior to starting the server with
+   * {@link #start()}. Do not call it again afterwards.
+   *
+   * @throws UncheckedIOException If an I/O exception occurred while binding
+   *                              the port.
+   */
+  public void initialize() throws UncheckedIOException {
+    try {
+      mHttpServer.bind(mConfig.getMapMatchingServerPort());
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Whether or not the server is currently running.<br>
+   * <br>
+   * A request to shutdown can be send using {@link #shutdown()}.
+   *
+   * @return <tt>True</tt> if the server is running, <tt>false</tt> otherwise
+   */
+  public boolean isRunning() {
+    return mIsRunning;
+  }
+
+  /**
+   * Replaces the map matcher and database used to answer map matching
+   * requests, for example after the routing model was built again from updated
+   * data.<br>
+   * <br>
+   * Requests received afterwards are handled with the given map matcher,
+   * requests that are already being handled finish with the previous ones. The
+   * server does not need to be stopped for that.
+   *
+   * @param mapMatcher The map matcher to use or <tt>null</tt> if not available
+   * @param database   The database to use for retrieving node data, must match
+   *                   the nodes of the given map matcher
+   */
+  public synchronized void reload(final HmmMapMatcher<ICoreNode, ICoreEdge<ICoreNode>> mapMatcher,
+      final IMapMatchingDatabase database) {
+    mMapMatcher = mapMatcher;
+    mDatabase = database;
+    if (mIsRunning) {
+      registerHandler();
+    }
+    LOGGER.info("Reloaded map matching server");
+  }
+
+  /**
+   * Requests the server to shutdown.<br>
+   * <br>
+   * The current status can be checked with {@link #isRunning()}. Once a server
+   * was shutdown it should not be used anymore, instead create a new one.
+   */
+  public void shutdown() {
+    mHttpServer.unregister(ClientHandler.API_RESOURCE);
+    mIsRunning = false;
+    mWorkerPool.shutdown();
+    LOGGER.info("Set shutdown request to map matching server");
+  }
+
+  /**
+   * Starts the server.<br>
+   * <br>
+   * Make sure {@link #initialize()} is called before. Request the server to
+   * shutdown by using {@link #shutdown()}, the current status can be checked
+   * with {@link #isRunning()}. Once a server was shutdown it should not be used
+   * anymore, instead create a new one.
+   */
+  public void start() {
+    if (isRunning()) {
+      return;
+    }
+    LOGGER.info("Starting map matching server");
+    registerHandler();
+    mIsRunning = true;
+  }
+
+  /**
+   * Registers a handler answering requests with the current tools at the HTTP
+   * server, running on the pool of the server, replacing the previous one.
+   */
+  private synchronized void registerHandler() {
+    mHttpServer.register(ClientHandler.API_RESOURCE, new ClientHandler(mMapMatcher, mDatabase), mWorkerPool);
+  }
+
+}
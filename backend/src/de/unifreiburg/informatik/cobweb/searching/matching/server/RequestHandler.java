@@ -0,0 +1,141 @@
+package de.unifreiburg.informatik.cobweb.searching.matching.server;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+
+import de.unifreiburg.informatik.cobweb.db.IMapMatchingDatabase;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.matching.HmmMapMatcher;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
+import de.unifreiburg.informatik.cobweb.searching.matching.server.model.MapMatchingRequest;
+import de.unifreiburg.informatik.cobweb.searching.matching.server.model.MatchedEdge;
+import de.unifreiburg.informatik.cobweb.util.RoutingUtil;
+import de.unifreiburg.informatik.cobweb.util.http.EHttpContentType;
+import de.unifreiburg.informatik.cobweb.util.http.HttpResponseBuilder;
+import de.unifreiburg.informatik.cobweb.util.http.IHttpResponder;
+
+/**
+ * Class that handles a map matching request. It matches the trace of the
+ * request and streams the matched edges to the client while they are
+ * computed.<br>
+ * <br>
+ * To handle a request call {@link #handleRequest(MapMatchingRequest)}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class RequestHandler {
+  /**
+   * Logger used for logging
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(RequestHandler.class);
+  /**
+   * The database to use for retrieving node data.
+   */
+  private final IMapMatchingDatabase mDatabase;
+  /**
+   * The GSON object used to format JSON responses.
+   */
+  private final Gson mGson;
+  /**
+   * The map matcher to use or <tt>null</tt> if not available.
+   */
+  private final HmmMapMatcher<ICoreNode, ICoreEdge<ICoreNode>> mMapMatcher;
+  /**
+   * The responder to send the response to the client with.
+   */
+  private final IHttpResponder mResponder;
+
+  /**
+   * Creates a new handler which handles a request using the given map
+   * matcher.<br>
+   * <br>
+   * To handle a request call {@link #handleRequest(MapMatchingRequest)}.
+   *
+   * @param responder  The responder to send the response with
+   * @param gson       The GSON object used to format JSON responses
+   * @param mapMatcher The map matcher to use or <tt>null</tt> if not available
+   * @param database   The database to use for retrieving node data
+   */
+  public RequestHandler(final IHttpResponder responder, final Gson gson,
+      final HmmMapMatcher<ICoreNode, ICoreEdge<ICoreNode>> mapMatcher, final IMapMatchingDatabase database) {
+    mResponder = responder;
+    mGson = gson;
+    mMapMatcher = mapMatcher;
+    mDatabase = database;
+  }
+
+  /**
+   * Handles the given map matching request. It matches the trace and sends
+   * each matched edge to the client as soon as it is decided. The response is
+   * a JSON object with the array of matched edges and the time the matching
+   * took, in milliseconds. If no map matcher is available, the array is empty.
+   *
+   * @param request The request to handle
+   * @throws IOException If an I/O exception occurred while sending the response
+   */
+  public void handleRequest(final MapMatchingRequest request) throws IOException {
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Handling request: {}", request);
+    }
+    final long startTime = System.nanoTime();
+
+    try (Writer writer = mResponder.sendHead(new HttpResponseBuilder().setContentType(EHttpContentType.JSON).build());
+        JsonWriter jsonWriter = new JsonWriter(writer)) {
+      jsonWriter.beginObject();
+      jsonWriter.name("edges");
+      jsonWriter.beginArray();
+      if (mMapMatcher != null) {
+        try {
+          mMapMatcher.match(request.getTrace(), edge -> writeEdge(edge, jsonWriter));
+        } catch (final UncheckedIOException e) {
+          throw e.getCause();
+        }
+      }
+      jsonWriter.endArray();
+
+      final long endTime = System.nanoTime();
+      jsonWriter.name("time");
+      jsonWriter.value(RoutingUtil.nanosToMillis(endTime - startTime));
+      jsonWriter.endObject();
+    }
+  }
+
+  /**
+   * Writes the given matched edge to the client and flushes it, such that the
+   * client receives it while the remaining trace is still matched. Edges whose
+   * nodes are unknown to the database are skipped.
+   *
+   * @param edge       The edge to write
+   * @param jsonWriter The writer to write to
+   * @throws UncheckedIOException If an I/O exception occurred while writing
+   *                              the edge
+   */
+  private void writeEdge(final ICoreEdge<ICoreNode> edge, final JsonWriter jsonWriter) throws UncheckedIOException {
+    final ICoreNode source = edge.getSource();
+    final ICoreNode destination = edge.getDestination();
+    final Optional<Long> possibleSourceId = mDatabase.getOsmNodeByInternal(source.getId());
+    final Optional<Long> possibleDestinationId = mDatabase.getOsmNodeByInternal(destination.getId());
+    if (!possibleSourceId.isPresent() || !possibleDestinationId.isPresent()) {
+      return;
+    }
+
+    final MatchedEdge matchedEdge = new MatchedEdge(possibleSourceId.get(), possibleDestinationId.get(),
+        Arrays.asList(new float[] { source.getLatitude(), source.getLongitude() },
+            new float[] { destination.getLatitude(), destination.getLongitude() }));
+    try {
+      mGson.toJson(matchedEdge, MatchedEdge.class, jsonWriter);
+      jsonWriter.flush();
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
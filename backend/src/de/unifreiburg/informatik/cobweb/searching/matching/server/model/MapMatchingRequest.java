@@ -0,0 +1,59 @@
+package de.unifreiburg.informatik.cobweb.searching.matching.server.model;
+
+import java.util.List;
+
+/**
+ * POJO that models a map matching request.<br>
+ * <br>
+ * A request consists of a trace, which is a list of recorded positions in the
+ * order they were recorded. Each position is a pair of latitude and
+ * longitude.<br>
+ * <br>
+ * It has the exact structure that is expected as request format for the REST
+ * API. It is primarily used to be constructed from the clients JSON request.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class MapMatchingRequest {
+  /**
+   * The recorded positions in order, as pairs of latitude and longitude.
+   */
+  private List<float[]> mTrace;
+
+  /**
+   * Creates a new map matching request.
+   *
+   * @param trace The recorded positions in order, as pairs of latitude and
+   *              longitude
+   */
+  public MapMatchingRequest(final List<float[]> trace) {
+    mTrace = trace;
+  }
+
+  /**
+   * Creates a new empty map matching request. Is used to construct the element
+   * via reflection.
+   */
+  @SuppressWarnings("unused")
+  private MapMatchingRequest() {
+    // Empty constructor for construction through reflection
+  }
+
+  /**
+   * Gets the recorded positions in order.
+   *
+   * @return The recorded positions, as pairs of latitude and longitude
+   */
+  public List<float[]> getTrace() {
+    return mTrace;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder();
+    builder.append("MapMatchingRequest [trace=");
+    builder.append(mTrace == null ? null : mTrace.size());
+    builder.append("]");
+    return builder.toString();
+  }
+}
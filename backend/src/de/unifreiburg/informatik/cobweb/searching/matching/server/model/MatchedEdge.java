@@ -0,0 +1,92 @@
+package de.unifreiburg.informatik.cobweb.searching.matching.server.model;
+
+import java.util.List;
+
+/**
+ * POJO that models an edge of the road network a trace was matched onto.<br>
+ * <br>
+ * An edge consists of the unique OSM IDs of its source and destination node
+ * and its geometry, which is a list of coordinates from the source to the
+ * destination.<br>
+ * <br>
+ * It has the exact structure that is expected as response format for the REST
+ * API. It is primarily used to be constructed and then encoded to JSON to be
+ * send to the client.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class MatchedEdge {
+  /**
+   * The unique ID of the OSM node the edge ends at.
+   */
+  private long mDestination;
+  /**
+   * The geometry of the edge, as pairs of latitude and longitude.
+   */
+  private List<float[]> mGeom;
+  /**
+   * The unique ID of the OSM node the edge starts at.
+   */
+  private long mSource;
+
+  /**
+   * Creates a new matched edge.
+   *
+   * @param source      The unique ID of the OSM node the edge starts at
+   * @param destination The unique ID of the OSM node the edge ends at
+   * @param geom        The geometry of the edge, as pairs of latitude and
+   *                    longitude
+   */
+  public MatchedEdge(final long source, final long destination, final List<float[]> geom) {
+    mSource = source;
+    mDestination = destination;
+    mGeom = geom;
+  }
+
+  /**
+   * Creates a new empty matched edge. Is used to construct the element via
+   * reflection.
+   */
+  @SuppressWarnings("unused")
+  private MatchedEdge() {
+    // Empty constructor for construction through reflection
+  }
+
+  /**
+   * Gets the unique ID of the OSM node the edge ends at.
+   *
+   * @return The unique OSM ID
+   */
+  public long getDestination() {
+    return mDestination;
+  }
+
+  /**
+   * Gets the geometry of the edge.
+   *
+   * @return The geometry, as pairs of latitude and longitude
+   */
+  public List<float[]> getGeom() {
+    return mGeom;
+  }
+
+  /**
+   * Gets the unique ID of the OSM node the edge starts at.
+   *
+   * @return The unique OSM ID
+   */
+  public long getSource() {
+    return mSource;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder();
+    builder.append("MatchedEdge [source=");
+    builder.append(mSource);
+    builder.append(", destination=");
+    builder.append(mDestination);
+    builder.append("]");
+    return builder.toString();
+  }
+}
@@ -0,0 +1,6 @@
+/**
+ * The data model used to communicate with clients.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+package de.unifreiburg.informatik.cobweb.searching.matching.server.model;
\ No newline at end of file
@@ -0,0 +1,7 @@
+/**
+ * Offers a server application defining a REST API that answers map matching
+ * requests.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+package de.unifreiburg.informatik.cobweb.searching.matching.server;
\ No newline at end of file
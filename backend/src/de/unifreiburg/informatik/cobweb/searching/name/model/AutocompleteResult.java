@@ -0,0 +1,67 @@
+package de.unifreiburg.informatik.cobweb.searching.name.model;
+
+import java.util.List;
+
+import de.zabuza.lexisearch.indexing.Posting;
+
+/**
+ * Result of a query answered by an {@link AutocompleteSearcher}. Consists of
+ * the best matches of the query and the token of the session the query was
+ * answered in.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class AutocompleteResult {
+  /**
+   * The best matches of the query, sorted by relevance (most relevant first).
+   */
+  private final List<Posting> mMatches;
+  /**
+   * The token of the session the query was answered in.
+   */
+  private final String mSessionToken;
+
+  /**
+   * Creates a new result.
+   *
+   * @param matches      The best matches of the query, sorted by relevance
+   *                     (most relevant first)
+   * @param sessionToken The token of the session the query was answered in
+   */
+  public AutocompleteResult(final List<Posting> matches, final String sessionToken) {
+    mMatches = matches;
+    mSessionToken = sessionToken;
+  }
+
+  /**
+   * Gets the best matches of the query, sorted by relevance (most relevant
+   * first). The record IDs of the postings refer to the index the query was
+   * answered on.
+   *
+   * @return The best matches, not modifiable
+   */
+  public List<Posting> getMatches() {
+    return mMatches;
+  }
+
+  /**
+   * Gets the token of the session the query was answered in. Can be used to
+   * continue the session with the next query.
+   *
+   * @return The token of the session
+   */
+  public String getSessionToken() {
+    return mSessionToken;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder();
+    builder.append("AutocompleteResult [matches=");
+    builder.append(mMatches.size());
+    builder.append(", sessionToken=");
+    builder.append(mSessionToken);
+    builder.append("]");
+    return builder.toString();
+  }
+}
@@ -0,0 +1,347 @@
+package de.unifreiburg.informatik.cobweb.searching.name.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import de.unifreiburg.informatik.cobweb.util.collections.Pair;
+import de.zabuza.lexisearch.indexing.Posting;
+import de.zabuza.lexisearch.indexing.qgram.QGramProvider;
+
+/**
+ * Answers fuzzy prefix queries of autocomplete clients on a {@link QGramIndex}
+ * which typically send one query per keystroke, each extending the previous
+ * one.<br>
+ * <br>
+ * A client can continue a session by sending the token it got with its
+ * previous answer. The session remembers all matches of the previous query. If
+ * the new query is a refinement of it, see
+ * {@link QGramIndex#isRefinement(String, String)}, only those matches are
+ * searched instead of the whole index, provided the viewport of the
+ * {@link SearchRegion} did not change. Additionally the best matches of
+ * recently requested prefixes and regions are kept, shared by all clients.<br>
+ * <br>
+ * Both, sessions and prefixes, are held in bounded caches which evict the
+ * least recently used entries. The results are always the same as searching
+ * the whole index with
+ * {@link QGramIndex#searchFuzzyPrefix(String, SearchRegion)}, sessions
+ * and prefixes only save work.<br>
+ * <br>
+ * Optionally a {@link PrefixCompletionIndex} is used for requests with a
+ * given amount of matches, see
+ * {@link #search(String, String, SearchRegion, int)}. Its exact prefix
+ * completions are answered first, the fuzzy search is only used as fallback if
+ * there are too few of them. The class is thread-safe.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class AutocompleteSearcher {
+  /**
+   * The maximal amount of matches remembered by a session. Sessions of queries
+   * with more matches do not remember them, the next query then searches the
+   * whole index again.
+   */
+  private static final int MAX_SESSION_CANDIDATES = 5_000;
+
+  /**
+   * Creates a map which holds at most the given amount of entries and evicts
+   * the least recently used entry if the limit is exceeded.
+   *
+   * @param <K>        The type of the keys
+   * @param <V>        The type of the values
+   * @param maxEntries The maximal amount of entries
+   * @return The created map, not synchronized
+   */
+  private static <K, V> Map<K, V> createLruMap(final int maxEntries) {
+    return new LinkedHashMap<K, V>(16, 0.75F, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+        return size() > maxEntries;
+      }
+    };
+  }
+
+  /**
+   * The index used for exact prefix completions or <tt>null</tt> if only the
+   * fuzzy search is used.
+   */
+  private final PrefixCompletionIndex mCompletionIndex;
+  /**
+   * The index to search.
+   */
+  private final QGramIndex mIndex;
+  /**
+   * The maximal amount of matches of a result.
+   */
+  private final int mMatchLimit;
+  /**
+   * The best matches of recently requested prefixes by their normalized form
+   * and region, at most {@link #mMatchLimit} per prefix. Guarded by itself.
+   */
+  private final Map<Pair<String, SearchRegion>, List<Posting>> mPrefixes;
+  /**
+   * The sessions of clients by their token. Guarded by itself.
+   */
+  private final Map<String, Session> mSessions;
+
+  /**
+   * Creates a new searcher on the given index.
+   *
+   * @param index           The index to search
+   * @param matchLimit      The maximal amount of matches of a result
+   * @param sessionLimit    The maximal amount of sessions to remember, must be
+   *                        positive
+   * @param prefixCacheSize The maximal amount of prefixes to remember the best
+   *                        matches of, must be positive
+   */
+  public AutocompleteSearcher(final QGramIndex index, final int matchLimit, final int sessionLimit,
+      final int prefixCacheSize) {
+    this(index, null, matchLimit, sessionLimit, prefixCacheSize);
+  }
+
+  /**
+   * Creates a new searcher on the given index which answers exact prefix
+   * completions first.
+   *
+   * @param index           The index to search
+   * @param completionIndex The index used for exact prefix completions, built
+   *                        on the given index, or <tt>null</tt> if only the
+   *                        fuzzy search should be used
+   * @param matchLimit      The maximal amount of matches of a result
+   * @param sessionLimit    The maximal amount of sessions to remember, must be
+   *                        positive
+   * @param prefixCacheSize The maximal amount of prefixes to remember the best
+   *                        matches of, must be positive
+   */
+  public AutocompleteSearcher(final QGramIndex index, final PrefixCompletionIndex completionIndex,
+      final int matchLimit, final int sessionLimit, final int prefixCacheSize) {
+    if (sessionLimit <= 0 || prefixCacheSize <= 0) {
+      throw new IllegalArgumentException(
+          "The limits must be positive, was: " + sessionLimit + " and " + prefixCacheSize);
+    }
+    mIndex = index;
+    mCompletionIndex = completionIndex;
+    mMatchLimit = matchLimit;
+    mSessions = AutocompleteSearcher.createLruMap(sessionLimit);
+    mPrefixes = AutocompleteSearcher.createLruMap(prefixCacheSize);
+  }
+
+  /**
+   * Gets the index which is searched.
+   *
+   * @return The index
+   */
+  public QGramIndex getIndex() {
+    return mIndex;
+  }
+
+  /**
+   * Searches the given query, continuing the given session if possible.
+   *
+   * @param query        The query to search, see
+   *                     {@link QGramIndex#searchFuzzyPrefix(String)}
+   * @param sessionToken The token of the session to continue or <tt>null</tt>
+   *                     to start a new one. Unknown tokens, for example of
+   *                     evicted sessions, start a new session as well.
+   * @return The result of the query, containing the token of the continued or
+   *         started session
+   */
+  public AutocompleteResult search(final String query, final String sessionToken) {
+    return search(query, sessionToken, SearchRegion.UNRESTRICTED);
+  }
+
+  /**
+   * Searches the given query within the given region, continuing the given
+   * session if possible.
+   *
+   * @param query        The query to search, see
+   *                     {@link QGramIndex#searchFuzzyPrefix(String, SearchRegion)}
+   * @param sessionToken The token of the session to continue or <tt>null</tt>
+   *                     to start a new one. Unknown tokens, for example of
+   *                     evicted sessions, start a new session as well.
+   * @param region       The region to search in
+   * @return The result of the query, containing the token of the continued or
+   *         started session
+   */
+  public AutocompleteResult search(final String query, final String sessionToken, final SearchRegion region) {
+    final String normalizedQuery = QGramProvider.normalizeRecord(query);
+    String token = sessionToken;
+    Session session = null;
+    if (token != null) {
+      synchronized (mSessions) {
+        session = mSessions.get(token);
+      }
+    }
+    if (session == null) {
+      token = UUID.randomUUID().toString();
+    }
+
+    final Pair<String, SearchRegion> prefix = new Pair<>(normalizedQuery, region);
+    List<Posting> matches;
+    synchronized (mPrefixes) {
+      matches = mPrefixes.get(prefix);
+    }
+    if (matches != null) {
+      // Keep the state of known sessions, their candidates stay valid
+      if (session == null) {
+        putSession(token, new Session(normalizedQuery, region, null));
+      }
+      return new AutocompleteResult(matches, token);
+    }
+
+    // Candidates of a different viewport may miss matches
+    final boolean isRefinement = session != null && session.mCandidates != null
+        && session.mRegion.hasSameViewport(region) && QGramIndex.isRefinement(session.mQuery, normalizedQuery);
+    if (isRefinement) {
+      matches = mIndex.searchFuzzyPrefix(normalizedQuery, session.mCandidates, region);
+    } else {
+      matches = mIndex.searchFuzzyPrefix(normalizedQuery, region);
+    }
+
+    // Remember the matches for refinements of the query
+    if (matches.size() <= MAX_SESSION_CANDIDATES) {
+      putSession(token,
+          new Session(normalizedQuery, region, matches.stream().mapToInt(Posting::getId).sorted().toArray()));
+    } else if (!isRefinement) {
+      putSession(token, new Session(normalizedQuery, region, null));
+    }
+    // Otherwise the candidates of the session still contain all matches
+
+    final List<Posting> bestMatches = Collections.unmodifiableList(
+        matches.size() <= mMatchLimit ? matches : new ArrayList<>(matches.subList(0, mMatchLimit)));
+    synchronized (mPrefixes) {
+      mPrefixes.put(prefix, bestMatches);
+    }
+    return new AutocompleteResult(bestMatches, token);
+  }
+
+  /**
+   * Searches the given query within the given region, preferring exact prefix
+   * completions, and continues the given session if possible.<br>
+   * <br>
+   * If the searcher has a {@link PrefixCompletionIndex} and it yields the
+   * requested amount of completions, they are the result, ranked by their
+   * importance, see
+   * {@link PrefixCompletionIndex#complete(String, int, SearchRegion)}.
+   * Otherwise the completions are followed by the remaining matches of the
+   * fuzzy search, see {@link #search(String, String, SearchRegion)}. Without a
+   * completion index this is the same as the fuzzy search.
+   *
+   * @param query        The query to search
+   * @param sessionToken The token of the session to continue or <tt>null</tt>
+   *                     to start a new one. Unknown tokens, for example of
+   *                     evicted sessions, start a new session as well.
+   * @param region       The region to search in
+   * @param amount       The amount of matches the client is interested in
+   * @return The result of the query, containing the token of the continued or
+   *         started session
+   */
+  public AutocompleteResult search(final String query, final String sessionToken, final SearchRegion region,
+      final int amount) {
+    if (mCompletionIndex == null) {
+      return search(query, sessionToken, region);
+    }
+    final int limit = Math.min(amount, mMatchLimit);
+    final List<Posting> completions = mCompletionIndex.complete(query, limit, region);
+    if (completions.size() >= limit) {
+      String token = sessionToken;
+      boolean isKnownSession = false;
+      if (token != null) {
+        synchronized (mSessions) {
+          isKnownSession = mSessions.get(token) != null;
+        }
+      }
+      // The candidates of a known session stay valid for its query
+      if (!isKnownSession) {
+        token = UUID.randomUUID().toString();
+        putSession(token, new Session(QGramProvider.normalizeRecord(query), region, null));
+      }
+      return new AutocompleteResult(Collections.unmodifiableList(completions), token);
+    }
+
+    // Too few exact completions, fill up with the fuzzy matches
+    final AutocompleteResult fuzzyResult = search(query, sessionToken, region);
+    final List<Posting> matches = new ArrayList<>(completions);
+    final Set<Integer> completedRecords = new HashSet<>();
+    for (final Posting completion : completions) {
+      completedRecords.add(completion.getId());
+    }
+    for (final Posting match : fuzzyResult.getMatches()) {
+      if (matches.size() >= mMatchLimit) {
+        break;
+      }
+      if (!completedRecords.contains(match.getId())) {
+        matches.add(match);
+      }
+    }
+    return new AutocompleteResult(Collections.unmodifiableList(matches), fuzzyResult.getSessionToken());
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder();
+    builder.append("AutocompleteSearcher [index=");
+    builder.append(mIndex);
+    builder.append(", withCompletions=");
+    builder.append(mCompletionIndex != null);
+    builder.append(", matchLimit=");
+    builder.append(mMatchLimit);
+    builder.append("]");
+    return builder.toString();
+  }
+
+  /**
+   * Remembers the given session state under the given token.
+   *
+   * @param token   The token of the session
+   * @param session The state of the session
+   */
+  private void putSession(final String token, final Session session) {
+    synchronized (mSessions) {
+      mSessions.put(token, session);
+    }
+  }
+
+  /**
+   * The state of a client session.
+   *
+   * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+   */
+  private static final class Session {
+    /**
+     * The IDs of records containing all matches of {@link #mQuery}, sorted
+     * ascending, or <tt>null</tt> if they are not remembered.
+     */
+    private final int[] mCandidates;
+    /**
+     * The normalized query the candidates belong to.
+     */
+    private final String mQuery;
+    /**
+     * The region the candidates belong to.
+     */
+    private final SearchRegion mRegion;
+
+    /**
+     * Creates a new session state.
+     *
+     * @param query      The normalized query the candidates belong to
+     * @param region     The region the candidates belong to
+     * @param candidates The IDs of records containing all matches of the query,
+     *                   sorted ascending, or <tt>null</tt> if they are not
+     *                   remembered
+     */
+    public Session(final String query, final SearchRegion region, final int[] candidates) {
+      mQuery = query;
+      mRegion = region;
+      mCandidates = candidates;
+    }
+  }
+}
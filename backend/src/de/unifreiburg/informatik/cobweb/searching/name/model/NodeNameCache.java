@@ -0,0 +1,211 @@
+package de.unifreiburg.informatik.cobweb.searching.name.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+
+import org.eclipse.collections.impl.list.mutable.FastList;
+
+import de.unifreiburg.informatik.cobweb.db.NodeNameData;
+import de.unifreiburg.informatik.cobweb.util.BinaryFileUtil;
+
+/**
+ * Binary, memory-mapped cache format for the names and positions of nodes, as
+ * used to build a {@link QGramIndex}.<br>
+ * <br>
+ * The payload, following the header of {@link BinaryFileUtil}, is
+ * <ol>
+ * <li>The amount of names <tt>n</tt> and the total length of all names in
+ * bytes <tt>b</tt>, two <tt>int</tt>s</li>
+ * <li>The node IDs, <tt>n</tt> <tt>long</tt>s</li>
+ * <li>The latitudes and then the longitudes of the nodes, <tt>2n</tt>
+ * <tt>float</tt>s, {@link Float#NaN} if unknown</li>
+ * <li>Offsets of the first byte of each name, <tt>n + 1</tt>
+ * <tt>int</tt>s</li>
+ * <li>The UTF-8 encoded names, <tt>b</tt> <tt>byte</tt>s</li>
+ * </ol>
+ * Use {@link #write(Collection, Path)} to create a cache and {@link #map(Path)}
+ * followed by {@link #materialize()} to load it.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class NodeNameCache {
+  /**
+   * The magic identifying the format, <tt>CWNN</tt> in ASCII.
+   */
+  public static final int MAGIC = 0x43574E4E;
+  /**
+   * The current version of the format.
+   */
+  public static final int VERSION = 2;
+  /**
+   * The size of the fixed part of the payload in bytes.
+   */
+  private static final int FIXED_SIZE = 2 * Integer.BYTES;
+  /**
+   * The size of the payload per name in bytes, excluding the name itself and
+   * the additional offset.
+   */
+  private static final int SIZE_PER_NAME = Long.BYTES + 2 * Float.BYTES + Integer.BYTES;
+
+  /**
+   * Maps the cache stored at the given path into memory. The content is
+   * verified but not materialized, use {@link #materialize()} for that.
+   *
+   * @param path The path of the cache
+   * @return The mapped cache
+   * @throws IOException If an I/O exception occurred while mapping or if the
+   *                     file is not a valid cache of the current version
+   */
+  public static NodeNameCache map(final Path path) throws IOException {
+    return new NodeNameCache(BinaryFileUtil.map(path, MAGIC, VERSION));
+  }
+
+  /**
+   * Writes the given node names as cache to the given path.
+   *
+   * @param nodeNames The node names to write
+   * @param path      The path to write to, an existing file is overwritten
+   * @throws IOException If an I/O exception occurred while writing
+   */
+  public static void write(final Collection<NodeNameData> nodeNames, final Path path) throws IOException {
+    final List<byte[]> encodedNames = FastList.newList(nodeNames.size());
+    long amountOfBytes = 0;
+    for (final NodeNameData nodeName : nodeNames) {
+      final byte[] encodedName = nodeName.getName().getBytes(StandardCharsets.UTF_8);
+      encodedNames.add(encodedName);
+      amountOfBytes += encodedName.length;
+    }
+    if (amountOfBytes > Integer.MAX_VALUE) {
+      throw new IOException("Names are too big to be cached: " + amountOfBytes);
+    }
+
+    final long payloadSize =
+        FIXED_SIZE + (long) encodedNames.size() * SIZE_PER_NAME + Integer.BYTES + amountOfBytes;
+    final MappedByteBuffer buffer = BinaryFileUtil.create(path, MAGIC, VERSION, payloadSize);
+    buffer.putInt(encodedNames.size());
+    buffer.putInt((int) amountOfBytes);
+    for (final NodeNameData nodeName : nodeNames) {
+      buffer.putLong(nodeName.getId());
+    }
+    for (final NodeNameData nodeName : nodeNames) {
+      buffer.putFloat(nodeName.getLatitude());
+    }
+    for (final NodeNameData nodeName : nodeNames) {
+      buffer.putFloat(nodeName.getLongitude());
+    }
+    int offset = 0;
+    for (final byte[] encodedName : encodedNames) {
+      buffer.putInt(offset);
+      offset += encodedName.length;
+    }
+    buffer.putInt(offset);
+    for (final byte[] encodedName : encodedNames) {
+      buffer.put(encodedName);
+    }
+
+    BinaryFileUtil.finish(buffer);
+  }
+
+  /**
+   * The amount of names in the cache.
+   */
+  private final int mAmountOfNames;
+  /**
+   * The ID of the node of each name.
+   */
+  private final LongBuffer mIds;
+  /**
+   * The latitude of the node of each name.
+   */
+  private final FloatBuffer mLatitudes;
+  /**
+   * The longitude of the node of each name.
+   */
+  private final FloatBuffer mLongitudes;
+  /**
+   * The UTF-8 encoded names.
+   */
+  private final ByteBuffer mNames;
+  /**
+   * The index of the first byte of each name. Has one additional entry at the
+   * end which marks the end of the last name.
+   */
+  private final IntBuffer mOffsets;
+
+  /**
+   * Creates a new cache view over the given payload.
+   *
+   * @param payload The payload of the cache file, positioned at its start
+   * @throws IOException If the payload is inconsistent
+   */
+  private NodeNameCache(final ByteBuffer payload) throws IOException {
+    if (payload.remaining() < FIXED_SIZE) {
+      throw new IOException("Payload is too small");
+    }
+    mAmountOfNames = payload.getInt();
+    final int amountOfBytes = payload.getInt();
+    final long expectedSize = FIXED_SIZE + (long) mAmountOfNames * SIZE_PER_NAME + Integer.BYTES + amountOfBytes;
+    if (mAmountOfNames < 0 || amountOfBytes < 0 || expectedSize != payload.limit()) {
+      throw new IOException("Payload size does not match the amount of names");
+    }
+
+    final ByteBuffer ids = payload.slice();
+    ids.limit(mAmountOfNames * Long.BYTES);
+    mIds = ids.asLongBuffer();
+    payload.position(payload.position() + mAmountOfNames * Long.BYTES);
+    final ByteBuffer latitudes = payload.slice();
+    latitudes.limit(mAmountOfNames * Float.BYTES);
+    mLatitudes = latitudes.asFloatBuffer();
+    payload.position(payload.position() + mAmountOfNames * Float.BYTES);
+    final ByteBuffer longitudes = payload.slice();
+    longitudes.limit(mAmountOfNames * Float.BYTES);
+    mLongitudes = longitudes.asFloatBuffer();
+    payload.position(payload.position() + mAmountOfNames * Float.BYTES);
+    final ByteBuffer offsets = payload.slice();
+    offsets.limit((mAmountOfNames + 1) * Integer.BYTES);
+    mOffsets = offsets.asIntBuffer();
+    payload.position(payload.position() + (mAmountOfNames + 1) * Integer.BYTES);
+    mNames = payload.slice();
+  }
+
+  /**
+   * Gets the amount of names in the cache.
+   *
+   * @return The amount of names
+   */
+  public int getAmountOfNames() {
+    return mAmountOfNames;
+  }
+
+  /**
+   * Materializes the cache into a list of node names.
+   *
+   * @return The materialized node names, in the order they were written
+   * @throws IOException If the content of the cache is inconsistent
+   */
+  public List<NodeNameData> materialize() throws IOException {
+    final List<NodeNameData> nodeNames = FastList.newList(mAmountOfNames);
+    final ByteBuffer names = mNames.duplicate();
+    for (int i = 0; i < mAmountOfNames; i++) {
+      final int start = mOffsets.get(i);
+      final int end = mOffsets.get(i + 1);
+      if (start < 0 || end < start || end > names.capacity()) {
+        throw new IOException("Inconsistent name data at name " + i);
+      }
+      final byte[] encodedName = new byte[end - start];
+      names.position(start);
+      names.get(encodedName);
+      nodeNames.add(new NodeNameData(mIds.get(i), new String(encodedName, StandardCharsets.UTF_8),
+          mLatitudes.get(i), mLongitudes.get(i)));
+    }
+    return nodeNames;
+  }
+}
@@ -0,0 +1,303 @@
+package de.unifreiburg.informatik.cobweb.searching.name.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.IntUnaryOperator;
+
+import de.zabuza.lexisearch.indexing.Posting;
+import de.zabuza.lexisearch.indexing.qgram.QGramProvider;
+
+/**
+ * Index answering exact prefix queries on the records of a {@link QGramIndex}
+ * with the most important records first.<br>
+ * <br>
+ * The records are sorted by their normalized name, see
+ * {@link QGramProvider#normalizeRecord(String)}. All records starting with a
+ * prefix then form a contiguous range, which corresponds to the subtree of the
+ * prefix in a trie over the names. The range is found by two binary searches.
+ * A segment tree over the importance of the sorted records yields the most
+ * important record of any range in logarithmic time. The best <tt>k</tt>
+ * completions are thus found by repeatedly splitting ranges at their most
+ * important record, without visiting the other records of the range.<br>
+ * <br>
+ * Besides the records of the index only two <tt>int</tt>s per record and the
+ * segment tree are held in memory, names are read from the index. The index
+ * can not be modified and queries can be answered by any amount of threads in
+ * parallel.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class PrefixCompletionIndex {
+  /**
+   * Value of the segment tree marking that a range has no record.
+   */
+  private static final int NO_RECORD = -1;
+
+  /**
+   * Builds the index over all records of the given index.
+   *
+   * @param index              The index whose records to complete
+   * @param recordToImportance Function providing the importance of a record,
+   *                           records with a higher importance are completed
+   *                           first
+   * @return The built index
+   */
+  public static PrefixCompletionIndex build(final QGramIndex index, final IntUnaryOperator recordToImportance) {
+    final int amountOfRecords = index.getAmountOfRecords();
+    final String[] normalizedNames = new String[amountOfRecords];
+    final int[] importances = new int[amountOfRecords];
+    final Integer[] sortedRecords = new Integer[amountOfRecords];
+    for (int recordId = 0; recordId < amountOfRecords; recordId++) {
+      normalizedNames[recordId] = QGramProvider.normalizeRecord(index.getName(recordId));
+      importances[recordId] = recordToImportance.applyAsInt(recordId);
+      sortedRecords[recordId] = recordId;
+    }
+    // The sort is stable, records of the same name stay sorted by their ID
+    Arrays.sort(sortedRecords, Comparator.comparing(recordId -> normalizedNames[recordId]));
+    return new PrefixCompletionIndex(index, importances,
+        Arrays.stream(sortedRecords).mapToInt(Integer::intValue).toArray());
+  }
+
+  /**
+   * Compares the given name with the given prefix, only considering the first
+   * characters of the name.
+   *
+   * @param name   The normalized name to compare
+   * @param prefix The normalized prefix to compare with
+   * @return A negative value if the name is smaller than the prefix, a positive
+   *         value if it is greater and <tt>0</tt> if it starts with the prefix
+   */
+  private static int comparePrefix(final String name, final String prefix) {
+    if (name.startsWith(prefix)) {
+      return 0;
+    }
+    return name.compareTo(prefix);
+  }
+
+  /**
+   * The importance of each record by its ID.
+   */
+  private final int[] mImportances;
+  /**
+   * The index containing the records.
+   */
+  private final QGramIndex mIndex;
+  /**
+   * The position of the first leaf in the segment tree, a power of two.
+   */
+  private final int mLeafOffset;
+  /**
+   * The IDs of all records, sorted by their normalized name.
+   */
+  private final int[] mSortedRecords;
+  /**
+   * Segment tree over the positions of {@link #mSortedRecords}. Each node
+   * contains the position of the most important record of its range, the
+   * smallest position if there are multiple, or {@link #NO_RECORD} if its range
+   * is empty. The root is at index <tt>1</tt>, the children of node <tt>i</tt>
+   * are at <tt>2i</tt> and <tt>2i + 1</tt>.
+   */
+  private final int[] mTree;
+
+  /**
+   * Creates a new index over the given records.
+   *
+   * @param index         The index containing the records
+   * @param importances   The importance of each record by its ID
+   * @param sortedRecords The IDs of all records, sorted by their normalized
+   *                      name
+   */
+  private PrefixCompletionIndex(final QGramIndex index, final int[] importances, final int[] sortedRecords) {
+    mIndex = index;
+    mImportances = importances;
+    mSortedRecords = sortedRecords;
+
+    int leafOffset = 1;
+    while (leafOffset < sortedRecords.length) {
+      leafOffset *= 2;
+    }
+    mLeafOffset = leafOffset;
+    mTree = new int[2 * leafOffset];
+    for (int position = 0; position < leafOffset; position++) {
+      mTree[leafOffset + position] = position < sortedRecords.length ? position : NO_RECORD;
+    }
+    for (int node = leafOffset - 1; node >= 1; node--) {
+      mTree[node] = moreImportant(mTree[2 * node], mTree[2 * node + 1]);
+    }
+  }
+
+  /**
+   * Searches the most important records within the given region whose
+   * normalized name starts with the normalized query.
+   *
+   * @param query  The query to complete
+   * @param amount The maximal amount of records to search
+   * @param region The region to search in. Records outside of its viewport
+   *               are skipped while selecting. Records are selected by their
+   *               importance, the selected records of equal importance are
+   *               then ranked by their distance to the bias of the region.
+   * @return Postings of at most <tt>amount</tt> matching records, sorted by
+   *         their importance, descending. The score of a posting is the prefix
+   *         edit distance, thus always <tt>0</tt>, the term frequency is not
+   *         computed and also <tt>0</tt>.
+   */
+  public List<Posting> complete(final String query, final int amount, final SearchRegion region) {
+    final String normalizedQuery = QGramProvider.normalizeRecord(query);
+    final List<Posting> postings = new ArrayList<>();
+    // Empty queries are not answered, consistent with the fuzzy search
+    if (normalizedQuery.isEmpty() || amount <= 0) {
+      return postings;
+    }
+    final int start = findFirst(normalizedQuery, false);
+    final int end = findFirst(normalizedQuery, true);
+    if (start >= end) {
+      return postings;
+    }
+
+    // Ranges ordered by their most important record, ranges are disjoint and
+    // thus never share it
+    final PriorityQueue<int[]> ranges =
+        new PriorityQueue<>((first, second) -> moreImportant(first[0], second[0]) == first[0] ? -1 : 1);
+    ranges.add(new int[] { findMostImportant(start, end), start, end });
+    while (!ranges.isEmpty() && postings.size() < amount) {
+      final int[] range = ranges.poll();
+      final int position = range[0];
+      final int recordId = mSortedRecords[position];
+      if (region == SearchRegion.UNRESTRICTED
+          || region.contains(mIndex.getLatitude(recordId), mIndex.getLongitude(recordId))) {
+        postings.add(new Posting(recordId, 0, 0.0));
+      }
+      if (range[1] < position) {
+        ranges.add(new int[] { findMostImportant(range[1], position), range[1], position });
+      }
+      if (position + 1 < range[2]) {
+        ranges.add(new int[] { findMostImportant(position + 1, range[2]), position + 1, range[2] });
+      }
+    }
+
+    if (region.hasBias()) {
+      final Map<Integer, Double> recordToBiasDistance = new HashMap<>(postings.size());
+      for (final Posting posting : postings) {
+        final int recordId = posting.getId();
+        recordToBiasDistance.put(recordId,
+            region.distanceToBias(mIndex.getLatitude(recordId), mIndex.getLongitude(recordId)));
+      }
+      // The sort is stable, the order of equally ranked records is kept
+      postings.sort(Comparator.<Posting>comparingInt(posting -> -mImportances[posting.getId()])
+          .thenComparingDouble(posting -> recordToBiasDistance.get(posting.getId())));
+    }
+    return postings;
+  }
+
+  /**
+   * Gets the importance of the given record.
+   *
+   * @param recordId The ID of the record
+   * @return The importance of the record
+   */
+  public int getImportance(final int recordId) {
+    return mImportances[recordId];
+  }
+
+  /**
+   * Gets the index containing the records.
+   *
+   * @return The index
+   */
+  public QGramIndex getIndex() {
+    return mIndex;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder();
+    builder.append("PrefixCompletionIndex [records=");
+    builder.append(mSortedRecords.length);
+    builder.append(", index=");
+    builder.append(mIndex);
+    builder.append("]");
+    return builder.toString();
+  }
+
+  /**
+   * Searches the first position whose normalized name is not smaller than the
+   * given prefix or, if requested, greater than it.
+   *
+   * @param normalizedPrefix The normalized prefix to search
+   * @param isGreater        Whether to search the first position whose name is
+   *                         greater than the prefix, i.e. which does not start
+   *                         with it
+   * @return The first position found or the amount of records if there is none
+   */
+  private int findFirst(final String normalizedPrefix, final boolean isGreater) {
+    int low = 0;
+    int high = mSortedRecords.length;
+    while (low < high) {
+      final int middle = (low + high) >>> 1;
+      final String name = QGramProvider.normalizeRecord(mIndex.getName(mSortedRecords[middle]));
+      final int comparison = PrefixCompletionIndex.comparePrefix(name, normalizedPrefix);
+      if (comparison < 0 || isGreater && comparison == 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Searches the position of the most important record in the given range,
+   * using the segment tree.
+   *
+   * @param start The first position of the range, inclusive
+   * @param end   The last position of the range, exclusive
+   * @return The position of the most important record of the range, the
+   *         smallest position if there are multiple
+   */
+  private int findMostImportant(final int start, final int end) {
+    int best = NO_RECORD;
+    int left = start + mLeafOffset;
+    int right = end + mLeafOffset;
+    while (left < right) {
+      if ((left & 1) == 1) {
+        best = moreImportant(best, mTree[left]);
+        left++;
+      }
+      if ((right & 1) == 1) {
+        right--;
+        best = moreImportant(best, mTree[right]);
+      }
+      left >>>= 1;
+      right >>>= 1;
+    }
+    return best;
+  }
+
+  /**
+   * Selects the position of the more important record of the given positions.
+   *
+   * @param first  The first position or {@link #NO_RECORD}
+   * @param second The second position or {@link #NO_RECORD}
+   * @return The position of the more important record, the smaller position if
+   *         both are equally important
+   */
+  private int moreImportant(final int first, final int second) {
+    if (first == NO_RECORD) {
+      return second;
+    }
+    if (second == NO_RECORD) {
+      return first;
+    }
+    final int firstImportance = mImportances[mSortedRecords[first]];
+    final int secondImportance = mImportances[mSortedRecords[second]];
+    if (firstImportance != secondImportance) {
+      return firstImportance > secondImportance ? first : second;
+    }
+    return Math.min(first, second);
+  }
+}
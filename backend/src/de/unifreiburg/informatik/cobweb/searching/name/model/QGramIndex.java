@@ -0,0 +1,803 @@
+package de.unifreiburg.informatik.cobweb.searching.name.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntUnaryOperator;
+
+import de.unifreiburg.informatik.cobweb.db.NodeNameData;
+import de.unifreiburg.informatik.cobweb.util.BinaryFileUtil;
+import de.zabuza.lexisearch.editdistance.PrefixLevenshtein;
+import de.zabuza.lexisearch.indexing.Posting;
+import de.zabuza.lexisearch.indexing.qgram.QGramProvider;
+
+/**
+ * Persisted <tt>q-gram</tt> inverted index over the names of nodes, used to
+ * answer fuzzy prefix queries directly on a memory-mapped file.<br>
+ * <br>
+ * Every name is a record, identified by its position in the collection the
+ * index was written from. The keys of a record are the <tt>q-grams</tt> of
+ * {@link QGramProvider}, the answers of {@link #searchFuzzyPrefix(String)} are
+ * the same as the ones of a <tt>FuzzyPrefixQuery</tt> with a
+ * <tt>PostingBeforeRecordRanking</tt> on a {@link NodeNameSet} of the same
+ * names.<br>
+ * <br>
+ * Every record also carries the position of its node. Queries can be
+ * restricted to a {@link SearchRegion}, postings of records outside of it are
+ * then dropped while merging the posting lists, before any record is ranked.
+ * <br>
+ * <br>
+ * The payload, following the header of {@link BinaryFileUtil}, is
+ * <ol>
+ * <li>The <tt>q</tt> of the <tt>q-grams</tt>, an <tt>int</tt></li>
+ * <li>The fingerprint of the indexed names, see
+ * {@link #fingerprint(Collection)}, a <tt>long</tt></li>
+ * <li>The amount of records <tt>n</tt>, the total length of all names in bytes
+ * <tt>b</tt>, the amount of keys <tt>k</tt>, the total length of all keys in
+ * bytes <tt>c</tt> and the total length of all posting lists in bytes
+ * <tt>p</tt>, five <tt>int</tt>s</li>
+ * <li>The node IDs, <tt>n</tt> <tt>long</tt>s</li>
+ * <li>The latitudes and then the longitudes of the nodes, <tt>2n</tt>
+ * <tt>float</tt>s, {@link Float#NaN} if unknown</li>
+ * <li>Offsets of the first byte of each name, <tt>n + 1</tt>
+ * <tt>int</tt>s</li>
+ * <li>The UTF-8 encoded names, <tt>b</tt> <tt>byte</tt>s</li>
+ * <li>Offsets of the first byte of each key, <tt>k + 1</tt> <tt>int</tt>s</li>
+ * <li>The UTF-8 encoded keys, sorted by their bytes, <tt>c</tt>
+ * <tt>byte</tt>s</li>
+ * <li>Offsets of the first byte of the posting list of each key, <tt>k + 1</tt>
+ * <tt>int</tt>s</li>
+ * <li>The posting lists, <tt>p</tt> <tt>byte</tt>s</li>
+ * </ol>
+ * A posting list consists of pairs of record ID and term frequency, sorted by
+ * record ID. Record IDs are stored as difference to the previous record ID of
+ * the list, the first as is. All values are written as variable-length
+ * integers, seven bits per byte with the highest bit marking that another byte
+ * follows.<br>
+ * <br>
+ * Use {@link #write(Collection, int, long, Path)} to create an index and
+ * {@link #map(Path)} to load it. The content is never copied onto the heap,
+ * the index only keeps views onto the mapped file. It can not be modified and
+ * queries can be answered by any amount of threads in parallel.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class QGramIndex {
+  /**
+   * The magic identifying the format, <tt>CWQG</tt> in ASCII.
+   */
+  public static final int MAGIC = 0x43575147;
+  /**
+   * The current version of the format.
+   */
+  public static final int VERSION = 2;
+  /**
+   * The size of the fixed part of the payload in bytes.
+   */
+  private static final int FIXED_SIZE = Integer.BYTES + Long.BYTES + 5 * Integer.BYTES;
+  /**
+   * The size of the fixed data stored per record in bytes, i.e. node ID,
+   * position and name offset.
+   */
+  private static final int SIZE_PER_RECORD = Long.BYTES + 2 * Float.BYTES + Integer.BYTES;
+  /**
+   * Mask of the bits of a byte of a variable-length integer that carry the
+   * value.
+   */
+  private static final int VARINT_VALUE_MASK = 0x7F;
+  /**
+   * Bit of a byte of a variable-length integer marking that another byte
+   * follows.
+   */
+  private static final int VARINT_CONTINUATION_BIT = 0x80;
+
+  /**
+   * Computes the fingerprint of the given node names. The fingerprint changes
+   * if any node ID, name, position or their order changes and is used to detect whether
+   * an index is outdated.
+   *
+   * @param nodeNames The node names to compute the fingerprint of
+   * @return The fingerprint of the node names
+   */
+  public static long fingerprint(final Collection<NodeNameData> nodeNames) {
+    long fingerprint = nodeNames.size();
+    for (final NodeNameData nodeName : nodeNames) {
+      fingerprint = 31 * fingerprint + nodeName.getId();
+      fingerprint = 31 * fingerprint + nodeName.getName().hashCode();
+      fingerprint = 31 * fingerprint + Float.floatToIntBits(nodeName.getLatitude());
+      fingerprint = 31 * fingerprint + Float.floatToIntBits(nodeName.getLongitude());
+    }
+    return fingerprint;
+  }
+
+  /**
+   * Whether the given query is a refinement of the previous query. That is the
+   * case if its normalized form extends the normalized previous query and both
+   * allow the same prefix edit distance. All matches of a refinement are then
+   * also matches of the previous query, since the prefix edit distance can
+   * only grow when extending a query. Empty queries have no refinements.
+   *
+   * @param previousQuery The previous query
+   * @param query         The query to check
+   * @return <tt>True</tt> if the query is a refinement of the previous query,
+   *         <tt>false</tt> otherwise
+   */
+  public static boolean isRefinement(final String previousQuery, final String query) {
+    final String normalizedPrevious = QGramProvider.normalizeRecord(previousQuery);
+    final String normalizedQuery = QGramProvider.normalizeRecord(query);
+    // Empty queries have no keys and thus never match anything
+    return !normalizedPrevious.isEmpty() && normalizedQuery.startsWith(normalizedPrevious)
+        && normalizedQuery.length() / 4 == normalizedPrevious.length() / 4;
+  }
+
+  /**
+   * Maps the index stored at the given path into memory. The content is
+   * verified but not copied.
+   *
+   * @param path The path of the index
+   * @return The mapped index
+   * @throws IOException If an I/O exception occurred while mapping or if the
+   *                     file is not a valid index of the current version
+   */
+  public static QGramIndex map(final Path path) throws IOException {
+    return new QGramIndex(BinaryFileUtil.map(path, MAGIC, VERSION));
+  }
+
+  /**
+   * Builds the index of the given node names and writes it to the given path.
+   *
+   * @param nodeNames   The node names to index, the position of a name is used
+   *                    as its record ID
+   * @param qParameter  The <tt>q</tt> of the <tt>q-grams</tt> to use as keys
+   * @param fingerprint The fingerprint of the node names, as computed by
+   *                    {@link #fingerprint(Collection)}
+   * @param path        The path to write to, an existing file is overwritten
+   * @throws IOException If an I/O exception occurred while writing
+   */
+  public static void write(final Collection<NodeNameData> nodeNames, final int qParameter, final long fingerprint,
+      final Path path) throws IOException {
+    final QGramProvider provider = new QGramProvider(qParameter);
+
+    // Encode names and collect the posting lists of all keys
+    final List<byte[]> encodedNames = new ArrayList<>(nodeNames.size());
+    final Map<String, PostingListWriter> keyToPostings = new HashMap<>();
+    long amountOfNameBytes = 0;
+    int recordId = 0;
+    for (final NodeNameData nodeName : nodeNames) {
+      final byte[] encodedName = nodeName.getName().getBytes(StandardCharsets.UTF_8);
+      encodedNames.add(encodedName);
+      amountOfNameBytes += encodedName.length;
+
+      // Keys are collected in order to keep the output deterministic
+      final Map<String, Integer> keyToFrequency = new TreeMap<>();
+      for (final String key : provider.getKeys(nodeName.getName())) {
+        keyToFrequency.merge(key, 1, Integer::sum);
+      }
+      for (final Map.Entry<String, Integer> entry : keyToFrequency.entrySet()) {
+        keyToPostings.computeIfAbsent(entry.getKey(), key -> new PostingListWriter()).add(recordId,
+            entry.getValue());
+      }
+      recordId++;
+    }
+
+    // Sort keys by their bytes such that they can be binary searched
+    final List<byte[]> encodedKeys = new ArrayList<>(keyToPostings.size());
+    for (final String key : keyToPostings.keySet()) {
+      encodedKeys.add(key.getBytes(StandardCharsets.UTF_8));
+    }
+    encodedKeys.sort(QGramIndex::compareUnsigned);
+    long amountOfKeyBytes = 0;
+    long amountOfPostingBytes = 0;
+    final List<byte[]> postingLists = new ArrayList<>(encodedKeys.size());
+    for (final byte[] encodedKey : encodedKeys) {
+      final byte[] postingList =
+          keyToPostings.get(new String(encodedKey, StandardCharsets.UTF_8)).toByteArray();
+      postingLists.add(postingList);
+      amountOfKeyBytes += encodedKey.length;
+      amountOfPostingBytes += postingList.length;
+    }
+    if (amountOfNameBytes > Integer.MAX_VALUE || amountOfKeyBytes > Integer.MAX_VALUE
+        || amountOfPostingBytes > Integer.MAX_VALUE) {
+      throw new IOException("Names are too big to be indexed");
+    }
+
+    final long payloadSize = FIXED_SIZE + (long) encodedNames.size() * SIZE_PER_RECORD + Integer.BYTES
+        + amountOfNameBytes + 2L * (encodedKeys.size() + 1) * Integer.BYTES + amountOfKeyBytes
+        + amountOfPostingBytes;
+    final MappedByteBuffer buffer = BinaryFileUtil.create(path, MAGIC, VERSION, payloadSize);
+    buffer.putInt(qParameter);
+    buffer.putLong(fingerprint);
+    buffer.putInt(encodedNames.size());
+    buffer.putInt((int) amountOfNameBytes);
+    buffer.putInt(encodedKeys.size());
+    buffer.putInt((int) amountOfKeyBytes);
+    buffer.putInt((int) amountOfPostingBytes);
+    for (final NodeNameData nodeName : nodeNames) {
+      buffer.putLong(nodeName.getId());
+    }
+    for (final NodeNameData nodeName : nodeNames) {
+      buffer.putFloat(nodeName.getLatitude());
+    }
+    for (final NodeNameData nodeName : nodeNames) {
+      buffer.putFloat(nodeName.getLongitude());
+    }
+    QGramIndex.putWithOffsets(buffer, encodedNames);
+    QGramIndex.putWithOffsets(buffer, encodedKeys);
+    QGramIndex.putWithOffsets(buffer, postingLists);
+
+    BinaryFileUtil.finish(buffer);
+  }
+
+  /**
+   * Compares the given byte arrays lexicographically, interpreting bytes as
+   * unsigned values.
+   *
+   * @param first  The first array
+   * @param second The second array
+   * @return A negative value if the first array is smaller, a positive value if
+   *         it is greater and <tt>0</tt> if both are equal
+   */
+  private static int compareUnsigned(final byte[] first, final byte[] second) {
+    final int length = Math.min(first.length, second.length);
+    for (int i = 0; i < length; i++) {
+      final int comparison = Integer.compare(first[i] & 0xFF, second[i] & 0xFF);
+      if (comparison != 0) {
+        return comparison;
+      }
+    }
+    return Integer.compare(first.length, second.length);
+  }
+
+  /**
+   * Writes the offsets of the given chunks followed by the chunks themselves
+   * to the given buffer. The offsets have one additional entry at the end
+   * which marks the end of the last chunk.
+   *
+   * @param buffer The buffer to write to
+   * @param chunks The chunks to write
+   */
+  private static void putWithOffsets(final ByteBuffer buffer, final List<byte[]> chunks) {
+    int offset = 0;
+    for (final byte[] chunk : chunks) {
+      buffer.putInt(offset);
+      offset += chunk.length;
+    }
+    buffer.putInt(offset);
+    for (final byte[] chunk : chunks) {
+      buffer.put(chunk);
+    }
+  }
+
+  /**
+   * Creates a view of the next bytes of the given buffer and advances the
+   * buffer behind them.
+   *
+   * @param buffer The buffer to slice
+   * @param length The amount of bytes of the view
+   * @return The view of the next bytes, positioned at its start
+   */
+  private static ByteBuffer sliceNext(final ByteBuffer buffer, final int length) {
+    final ByteBuffer slice = buffer.slice();
+    slice.limit(length);
+    buffer.position(buffer.position() + length);
+    return slice;
+  }
+
+  /**
+   * The amount of keys in the index.
+   */
+  private final int mAmountOfKeys;
+  /**
+   * The amount of records in the index.
+   */
+  private final int mAmountOfRecords;
+  /**
+   * The fingerprint of the indexed node names.
+   */
+  private final long mFingerprint;
+  /**
+   * The index of the first byte of each key. Has one additional entry at the
+   * end which marks the end of the last key.
+   */
+  private final ByteBuffer mKeyOffsets;
+  /**
+   * The UTF-8 encoded keys, sorted by their bytes.
+   */
+  private final ByteBuffer mKeys;
+  /**
+   * The latitude of the node of each record.
+   */
+  private final ByteBuffer mLatitudes;
+  /**
+   * The longitude of the node of each record.
+   */
+  private final ByteBuffer mLongitudes;
+  /**
+   * The index of the first byte of each name. Has one additional entry at the
+   * end which marks the end of the last name.
+   */
+  private final ByteBuffer mNameOffsets;
+  /**
+   * The UTF-8 encoded names.
+   */
+  private final ByteBuffer mNames;
+  /**
+   * The ID of the node of each record.
+   */
+  private final ByteBuffer mNodeIds;
+  /**
+   * The index of the first byte of the posting list of each key. Has one
+   * additional entry at the end which marks the end of the last list.
+   */
+  private final ByteBuffer mPostingOffsets;
+  /**
+   * The encoded posting lists.
+   */
+  private final ByteBuffer mPostings;
+  /**
+   * The provider of the keys of queries.
+   */
+  private final QGramProvider mProvider;
+
+  /**
+   * Creates a new index view over the given payload.
+   *
+   * @param payload The payload of the index file, positioned at its start
+   * @throws IOException If the payload is inconsistent
+   */
+  private QGramIndex(final ByteBuffer payload) throws IOException {
+    if (payload.remaining() < FIXED_SIZE) {
+      throw new IOException("Payload is too small");
+    }
+    final int qParameter = payload.getInt();
+    mFingerprint = payload.getLong();
+    mAmountOfRecords = payload.getInt();
+    final int amountOfNameBytes = payload.getInt();
+    mAmountOfKeys = payload.getInt();
+    final int amountOfKeyBytes = payload.getInt();
+    final int amountOfPostingBytes = payload.getInt();
+    if (qParameter < 1 || mAmountOfRecords < 0 || amountOfNameBytes < 0 || mAmountOfKeys < 0
+        || amountOfKeyBytes < 0 || amountOfPostingBytes < 0) {
+      throw new IOException("Payload contains invalid sizes");
+    }
+    final long expectedSize = FIXED_SIZE + (long) mAmountOfRecords * SIZE_PER_RECORD + Integer.BYTES
+        + amountOfNameBytes + 2L * (mAmountOfKeys + 1) * Integer.BYTES + amountOfKeyBytes + amountOfPostingBytes;
+    if (expectedSize != payload.limit()) {
+      throw new IOException("Payload size does not match the amount of records and keys");
+    }
+    mProvider = new QGramProvider(qParameter);
+
+    mNodeIds = QGramIndex.sliceNext(payload, mAmountOfRecords * Long.BYTES);
+    mLatitudes = QGramIndex.sliceNext(payload, mAmountOfRecords * Float.BYTES);
+    mLongitudes = QGramIndex.sliceNext(payload, mAmountOfRecords * Float.BYTES);
+    mNameOffsets = QGramIndex.sliceNext(payload, (mAmountOfRecords + 1) * Integer.BYTES);
+    mNames = QGramIndex.sliceNext(payload, amountOfNameBytes);
+    mKeyOffsets = QGramIndex.sliceNext(payload, (mAmountOfKeys + 1) * Integer.BYTES);
+    mKeys = QGramIndex.sliceNext(payload, amountOfKeyBytes);
+    mPostingOffsets = QGramIndex.sliceNext(payload, (mAmountOfKeys + 1) * Integer.BYTES);
+    mPostings = QGramIndex.sliceNext(payload, amountOfPostingBytes);
+  }
+
+  /**
+   * Gets the amount of keys, i.e. distinct <tt>q-grams</tt>, in the index.
+   *
+   * @return The amount of keys
+   */
+  public int getAmountOfKeys() {
+    return mAmountOfKeys;
+  }
+
+  /**
+   * Gets the amount of records, i.e. names, in the index.
+   *
+   * @return The amount of records
+   */
+  public int getAmountOfRecords() {
+    return mAmountOfRecords;
+  }
+
+  /**
+   * Gets the fingerprint of the node names the index was built from.
+   *
+   * @return The fingerprint, as computed by {@link #fingerprint(Collection)}
+   */
+  public long getFingerprint() {
+    return mFingerprint;
+  }
+
+  /**
+   * Gets the latitude of the node of the given record.
+   *
+   * @param recordId The ID of the record
+   * @return The latitude of the node, {@link Float#NaN} if unknown
+   */
+  public float getLatitude(final int recordId) {
+    return mLatitudes.getFloat(recordId * Float.BYTES);
+  }
+
+  /**
+   * Gets the longitude of the node of the given record.
+   *
+   * @param recordId The ID of the record
+   * @return The longitude of the node, {@link Float#NaN} if unknown
+   */
+  public float getLongitude(final int recordId) {
+    return mLongitudes.getFloat(recordId * Float.BYTES);
+  }
+
+  /**
+   * Gets the name of the given record.
+   *
+   * @param recordId The ID of the record
+   * @return The name of the record
+   */
+  public String getName(final int recordId) {
+    final int start = mNameOffsets.getInt(recordId * Integer.BYTES);
+    final int end = mNameOffsets.getInt((recordId + 1) * Integer.BYTES);
+    final byte[] encodedName = new byte[end - start];
+    for (int i = 0; i < encodedName.length; i++) {
+      encodedName[i] = mNames.get(start + i);
+    }
+    return new String(encodedName, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Gets the ID of the node of the given record.
+   *
+   * @param recordId The ID of the record
+   * @return The ID of the node
+   */
+  public long getNodeId(final int recordId) {
+    return mNodeIds.getLong(recordId * Long.BYTES);
+  }
+
+  /**
+   * Gets the <tt>q</tt> of the <tt>q-grams</tt> used as keys.
+   *
+   * @return The <tt>q</tt> of the <tt>q-grams</tt>
+   */
+  public int getQParameter() {
+    return mProvider.getQParameter();
+  }
+
+  /**
+   * Searches all records whose name starts with a prefix that is similar to the
+   * given query. A record matches if its prefix edit distance to the normalized
+   * query does not exceed a quarter of the length of the query.
+   *
+   * @param query The query to search
+   * @return Postings of all matching records, sorted by their prefix edit
+   *         distance, ascending. The score of a posting is its distance, the
+   *         term frequency the amount of shared keys.
+   */
+  public List<Posting> searchFuzzyPrefix(final String query) {
+    return searchFuzzyPrefix(query, SearchRegion.UNRESTRICTED);
+  }
+
+  /**
+   * Searches all records within the given region whose name starts with a
+   * prefix that is similar to the given query. Records outside of the viewport
+   * of the region are dropped while merging the posting lists, they are never
+   * ranked.
+   *
+   * @param query  The query to search
+   * @param region The region to search in
+   * @return Postings of all matching records, sorted by their prefix edit
+   *         distance, ascending, and then by the distance of their node to the
+   *         bias of the region. The score of a posting is its prefix edit
+   *         distance, the term frequency the amount of shared keys.
+   */
+  public List<Posting> searchFuzzyPrefix(final String query, final SearchRegion region) {
+    final String normalizedQuery = QGramProvider.normalizeRecord(query);
+
+    // Count the keys each record shares with the query
+    final Map<Integer, Integer> recordToFrequency = new HashMap<>();
+    for (final String key : mProvider.getKeys(query)) {
+      final int keyIndex = findKey(key.getBytes(StandardCharsets.UTF_8));
+      if (keyIndex < 0) {
+        continue;
+      }
+      int position = mPostingOffsets.getInt(keyIndex * Integer.BYTES);
+      final int end = mPostingOffsets.getInt((keyIndex + 1) * Integer.BYTES);
+      int recordId = 0;
+      while (position < end) {
+        final int gap = readVarint(position);
+        position = skipVarint(position);
+        final int termFrequency = readVarint(position);
+        position = skipVarint(position);
+        recordId += gap;
+        if (!isInRegion(recordId, region)) {
+          continue;
+        }
+        recordToFrequency.merge(recordId, termFrequency, Integer::sum);
+      }
+    }
+
+    final int[] candidates = recordToFrequency.keySet().stream().mapToInt(Integer::intValue).toArray();
+    Arrays.sort(candidates);
+    return rankCandidates(normalizedQuery, candidates, SearchRegion.UNRESTRICTED, recordToFrequency::get, region);
+  }
+
+  /**
+   * Searches all of the given candidate records whose name starts with a prefix
+   * that is similar to the given query. Yields the same results as
+   * {@link #searchFuzzyPrefix(String)} if the candidates contain all of its
+   * matches, for example the matches of a previous query which the query is a
+   * refinement of, see {@link #isRefinement(String, String)}.<br>
+   * <br>
+   * The posting lists are not used, the shared keys are counted on the names
+   * of the candidates instead. The cost thus only depends on the amount of
+   * candidates.
+   *
+   * @param query      The query to search
+   * @param candidates The IDs of the records to search in, sorted ascending
+   * @return Postings of all matching records, sorted by their prefix edit
+   *         distance, ascending. The score of a posting is its distance, the
+   *         term frequency the amount of shared keys.
+   */
+  public List<Posting> searchFuzzyPrefix(final String query, final int[] candidates) {
+    return searchFuzzyPrefix(query, candidates, SearchRegion.UNRESTRICTED);
+  }
+
+  /**
+   * Searches all of the given candidate records within the given region whose
+   * name starts with a prefix that is similar to the given query. Yields the
+   * same results as {@link #searchFuzzyPrefix(String, SearchRegion)} if the
+   * candidates contain all of its matches, see
+   * {@link #searchFuzzyPrefix(String, int[])}.
+   *
+   * @param query      The query to search
+   * @param candidates The IDs of the records to search in, sorted ascending
+   * @param region     The region to search in
+   * @return Postings of all matching records, sorted by their prefix edit
+   *         distance, ascending, and then by the distance of their node to the
+   *         bias of the region. The score of a posting is its prefix edit
+   *         distance, the term frequency the amount of shared keys.
+   */
+  public List<Posting> searchFuzzyPrefix(final String query, final int[] candidates, final SearchRegion region) {
+    final String[] queryKeys = mProvider.getKeys(query);
+    return rankCandidates(QGramProvider.normalizeRecord(query), candidates, region,
+        recordId -> countSharedKeys(queryKeys, recordId), region);
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder();
+    builder.append("QGramIndex [q=");
+    builder.append(getQParameter());
+    builder.append(", records=");
+    builder.append(mAmountOfRecords);
+    builder.append(", keys=");
+    builder.append(mAmountOfKeys);
+    builder.append(", fingerprint=");
+    builder.append(mFingerprint);
+    builder.append("]");
+    return builder.toString();
+  }
+
+  /**
+   * Counts the keys the given record shares with a query, with multiplicity.
+   * That is the term frequency the record would have in the union of the
+   * posting lists of all query keys.
+   *
+   * @param queryKeys The keys of the query
+   * @param recordId  The ID of the record
+   * @return The amount of shared keys
+   */
+  private int countSharedKeys(final String[] queryKeys, final int recordId) {
+    final Map<String, Integer> keyToFrequency = new HashMap<>();
+    for (final String key : mProvider.getKeys(getName(recordId))) {
+      keyToFrequency.merge(key, 1, Integer::sum);
+    }
+    int sharedKeys = 0;
+    for (final String key : queryKeys) {
+      sharedKeys += keyToFrequency.getOrDefault(key, 0);
+    }
+    return sharedKeys;
+  }
+
+  /**
+   * Searches the given key by binary search.
+   *
+   * @param encodedKey The UTF-8 encoded key to search
+   * @return The index of the key or <tt>-1</tt> if the index does not contain
+   *         it
+   */
+  private int findKey(final byte[] encodedKey) {
+    int low = 0;
+    int high = mAmountOfKeys - 1;
+    while (low <= high) {
+      final int middle = (low + high) >>> 1;
+      final int start = mKeyOffsets.getInt(middle * Integer.BYTES);
+      final int end = mKeyOffsets.getInt((middle + 1) * Integer.BYTES);
+      final byte[] middleKey = new byte[end - start];
+      for (int i = 0; i < middleKey.length; i++) {
+        middleKey[i] = mKeys.get(start + i);
+      }
+
+      final int comparison = QGramIndex.compareUnsigned(middleKey, encodedKey);
+      if (comparison < 0) {
+        low = middle + 1;
+      } else if (comparison > 0) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Whether the node of the given record lies within the viewport of the given
+   * region.
+   *
+   * @param recordId The ID of the record
+   * @param region   The region to check
+   * @return <tt>True</tt> if the record lies within the region, <tt>false</tt>
+   *         otherwise
+   */
+  private boolean isInRegion(final int recordId, final SearchRegion region) {
+    return region == SearchRegion.UNRESTRICTED || region.contains(getLatitude(recordId), getLongitude(recordId));
+  }
+
+  /**
+   * Ranks the given candidate records by their prefix edit distance to the
+   * given query. Candidates outside of the filter region, which share too few
+   * keys with the query or whose distance exceeds a quarter of the length of
+   * the query are dropped.
+   *
+   * @param normalizedQuery    The normalized query
+   * @param candidates         The IDs of the candidate records, sorted
+   *                           ascending
+   * @param filter             The region candidates have to lie in, before
+   *                           anything else is computed for them
+   * @param recordToSharedKeys Function providing the amount of keys a record
+   *                           shares with the query
+   * @param bias               The region whose bias is used to rank equally
+   *                           distant records
+   * @return Postings of all matching records, sorted by their prefix edit
+   *         distance, ascending, and then by their distance to the bias
+   */
+  private List<Posting> rankCandidates(final String normalizedQuery, final int[] candidates,
+      final SearchRegion filter, final IntUnaryOperator recordToSharedKeys, final SearchRegion bias) {
+    final int delta = normalizedQuery.length() / 4;
+    final int minimalFrequency = normalizedQuery.length() - 1 - getQParameter() * delta;
+    final PrefixLevenshtein prefixLevenshtein = new PrefixLevenshtein();
+    final List<Posting> postings = new ArrayList<>();
+    for (final int recordId : candidates) {
+      if (!isInRegion(recordId, filter)) {
+        continue;
+      }
+      final int termFrequency = recordToSharedKeys.applyAsInt(recordId);
+      if (termFrequency < minimalFrequency) {
+        continue;
+      }
+      final int distance = prefixLevenshtein.estimatedDistance(normalizedQuery,
+          QGramProvider.normalizeRecord(getName(recordId)), delta);
+      if (distance <= delta) {
+        postings.add(new Posting(recordId, termFrequency, distance));
+      }
+    }
+
+    // The sort is stable, equally ranked records stay sorted by their ID
+    if (!bias.hasBias()) {
+      postings.sort(Comparator.comparingDouble(Posting::getScore));
+      return postings;
+    }
+    final Map<Integer, Double> recordToBiasDistance = new HashMap<>(postings.size());
+    for (final Posting posting : postings) {
+      final int recordId = posting.getId();
+      recordToBiasDistance.put(recordId, bias.distanceToBias(getLatitude(recordId), getLongitude(recordId)));
+    }
+    postings.sort(Comparator.comparingDouble(Posting::getScore)
+        .thenComparingDouble(posting -> recordToBiasDistance.get(posting.getId())));
+    return postings;
+  }
+
+  /**
+   * Reads the variable-length integer of the posting lists starting at the
+   * given position.
+   *
+   * @param position The position of the first byte of the integer
+   * @return The value of the integer
+   */
+  private int readVarint(final int position) {
+    int value = 0;
+    int shift = 0;
+    int current = position;
+    byte data;
+    do {
+      data = mPostings.get(current);
+      value |= (data & VARINT_VALUE_MASK) << shift;
+      shift += 7;
+      current++;
+    } while ((data & VARINT_CONTINUATION_BIT) != 0);
+    return value;
+  }
+
+  /**
+   * Gets the position following the variable-length integer of the posting
+   * lists starting at the given position.
+   *
+   * @param position The position of the first byte of the integer
+   * @return The position of the first byte after the integer
+   */
+  private int skipVarint(final int position) {
+    int current = position;
+    while ((mPostings.get(current) & VARINT_CONTINUATION_BIT) != 0) {
+      current++;
+    }
+    return current + 1;
+  }
+
+  /**
+   * Encoder for the posting list of a key. Records have to be added in
+   * ascending order of their ID.
+   *
+   * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+   */
+  private static final class PostingListWriter {
+    /**
+     * The encoded postings.
+     */
+    private final ByteArrayOutputStream mBytes = new ByteArrayOutputStream();
+    /**
+     * The ID of the last added record.
+     */
+    private int mLastRecordId;
+
+    /**
+     * Creates a new empty posting list writer.
+     */
+    public PostingListWriter() {
+      // Nothing to initialize
+    }
+
+    /**
+     * Adds the given posting to the list.
+     *
+     * @param recordId      The ID of the record, greater than the ID of the
+     *                      previously added record
+     * @param termFrequency The amount of times the key occurs in the record
+     */
+    public void add(final int recordId, final int termFrequency) {
+      writeVarint(recordId - mLastRecordId);
+      writeVarint(termFrequency);
+      mLastRecordId = recordId;
+    }
+
+    /**
+     * Gets the encoded posting list.
+     *
+     * @return The encoded posting list
+     */
+    public byte[] toByteArray() {
+      return mBytes.toByteArray();
+    }
+
+    /**
+     * Writes the given value as variable-length integer.
+     *
+     * @param value The value to write, not negative
+     */
+    private void writeVarint(final int value) {
+      int remaining = value;
+      while ((remaining & ~VARINT_VALUE_MASK) != 0) {
+        mBytes.write(remaining & VARINT_VALUE_MASK | VARINT_CONTINUATION_BIT);
+        remaining >>>= 7;
+      }
+      mBytes.write(remaining);
+    }
+  }
+}
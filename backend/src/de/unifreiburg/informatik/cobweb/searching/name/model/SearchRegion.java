@@ -0,0 +1,148 @@
+package de.unifreiburg.informatik.cobweb.searching.name.model;
+
+import java.util.Arrays;
+
+import de.unifreiburg.informatik.cobweb.util.RoutingUtil;
+
+/**
+ * The region a name search is restricted to and biased towards.<br>
+ * <br>
+ * A region optionally consists of a viewport, a bounding box outside of which
+ * records are not matched at all, and of a bias position. Matches which are
+ * equally similar to the query are ranked by their distance to the bias
+ * position, nearest first. Instances are immutable.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class SearchRegion {
+  /**
+   * Region without viewport and bias, matching records everywhere.
+   */
+  public static final SearchRegion UNRESTRICTED = new SearchRegion(null, null);
+
+  /**
+   * The bias position as pair of latitude and longitude or <tt>null</tt> if
+   * there is no bias.
+   */
+  private final float[] mBias;
+  /**
+   * The viewport as minimal latitude, minimal longitude, maximal latitude and
+   * maximal longitude or <tt>null</tt> if there is no viewport.
+   */
+  private final float[] mViewport;
+
+  /**
+   * Creates a new search region.
+   *
+   * @param viewport The viewport as minimal latitude, minimal longitude,
+   *                 maximal latitude and maximal longitude or <tt>null</tt> if
+   *                 the search should not be restricted
+   * @param bias     The bias position as pair of latitude and longitude or
+   *                 <tt>null</tt> if matches should not be biased
+   */
+  public SearchRegion(final float[] viewport, final float[] bias) {
+    if (viewport != null && viewport.length != 4) {
+      throw new IllegalArgumentException("The viewport must consist of four values, was: " + viewport.length);
+    }
+    if (bias != null && bias.length != 2) {
+      throw new IllegalArgumentException("The bias must consist of two values, was: " + bias.length);
+    }
+    mViewport = viewport == null ? null : viewport.clone();
+    mBias = bias == null ? null : bias.clone();
+  }
+
+  /**
+   * Whether the given position lies within the viewport of the region. Every
+   * position, also unknown ones, lies within regions without viewport.
+   *
+   * @param latitude  The latitude of the position, {@link Float#NaN} if unknown
+   * @param longitude The longitude of the position, {@link Float#NaN} if
+   *                  unknown
+   * @return <tt>True</tt> if the position lies within the viewport,
+   *         <tt>false</tt> otherwise
+   */
+  public boolean contains(final float latitude, final float longitude) {
+    if (mViewport == null) {
+      return true;
+    }
+    // Comparisons with NaN are false, unknown positions are thus excluded
+    return latitude >= mViewport[0] && longitude >= mViewport[1] && latitude <= mViewport[2]
+        && longitude <= mViewport[3];
+  }
+
+  /**
+   * Gets the distance of the given position to the bias position.
+   *
+   * @param latitude  The latitude of the position, {@link Float#NaN} if unknown
+   * @param longitude The longitude of the position, {@link Float#NaN} if
+   *                  unknown
+   * @return The distance in <tt>metres</tt>, {@link Double#POSITIVE_INFINITY}
+   *         if the position is unknown and <tt>0.0</tt> if the region has no
+   *         bias
+   */
+  public double distanceToBias(final float latitude, final float longitude) {
+    if (mBias == null) {
+      return 0.0;
+    }
+    if (Float.isNaN(latitude) || Float.isNaN(longitude)) {
+      return Double.POSITIVE_INFINITY;
+    }
+    return RoutingUtil.distanceEquiRect(mBias[0], mBias[1], latitude, longitude);
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null) {
+      return false;
+    }
+    if (!(obj instanceof SearchRegion)) {
+      return false;
+    }
+    final SearchRegion other = (SearchRegion) obj;
+    return Arrays.equals(mViewport, other.mViewport) && Arrays.equals(mBias, other.mBias);
+  }
+
+  /**
+   * Whether the region has a bias position.
+   *
+   * @return <tt>True</tt> if the region has a bias, <tt>false</tt> otherwise
+   */
+  public boolean hasBias() {
+    return mBias != null;
+  }
+
+  @Override
+  public int hashCode() {
+    final int prime = 31;
+    int result = 1;
+    result = prime * result + Arrays.hashCode(mBias);
+    result = prime * result + Arrays.hashCode(mViewport);
+    return result;
+  }
+
+  /**
+   * Whether the region has the same viewport as the given region, i.e. whether
+   * both match the same records.
+   *
+   * @param other The region to compare with
+   * @return <tt>True</tt> if both regions have the same viewport,
+   *         <tt>false</tt> otherwise
+   */
+  public boolean hasSameViewport(final SearchRegion other) {
+    return Arrays.equals(mViewport, other.mViewport);
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder();
+    builder.append("SearchRegion [viewport=");
+    builder.append(Arrays.toString(mViewport));
+    builder.append(", bias=");
+    builder.append(Arrays.toString(mBias));
+    builder.append("]");
+    return builder.toString();
+  }
+}
@@ -2,26 +2,28 @@ package de.unifreiburg.informatik.cobweb.searching.name.server;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
-import java.net.ServerSocket;
-import java.net.Socket;
-import java.net.SocketTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.Collection;
+import java.util.function.LongToIntFunction;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import de.unifreiburg.informatik.cobweb.config.INameSearchConfigProvider;
 import de.unifreiburg.informatik.cobweb.db.INameSearchDatabase;
-import de.unifreiburg.informatik.cobweb.searching.name.model.NodeNameSet;
+import de.unifreiburg.informatik.cobweb.db.NodeNameData;
+import de.unifreiburg.informatik.cobweb.searching.name.model.AutocompleteSearcher;
+import de.unifreiburg.informatik.cobweb.searching.name.model.PrefixCompletionIndex;
+import de.unifreiburg.informatik.cobweb.searching.name.model.QGramIndex;
 import de.unifreiburg.informatik.cobweb.searching.name.server.model.NameSearchRequest;
 import de.unifreiburg.informatik.cobweb.searching.name.server.model.NameSearchResponse;
-import de.zabuza.lexisearch.indexing.IKeyRecord;
-import de.zabuza.lexisearch.indexing.qgram.QGramProvider;
-import de.zabuza.lexisearch.queries.FuzzyPrefixQuery;
-import de.zabuza.lexisearch.ranking.PostingBeforeRecordRanking;
+import de.unifreiburg.informatik.cobweb.util.http.HttpServer;
+import de.unifreiburg.informatik.cobweb.util.http.WorkerPool;
 
 /**
  * A server which offers a REST API that is able to answer name search
@@ -46,13 +48,27 @@ import de.zabuza.lexisearch.ranking.PostingBeforeRecordRanking;
  * <tt>OPTIONS</tt>. The server will send <tt>BAD REQUEST</tt> to invalid
  * requests.<br>
  * <br>
- * The server itself handles clients in parallel using a cached thread pool. For
- * construction it wants a configuration and a database for retrieving the name
- * data-set.
+ * Queries are answered on a {@link QGramIndex} which is persisted to the path
+ * given by the configuration and memory-mapped. It is only built again if the
+ * name data-set of the database changed since it was written.<br>
+ * <br>
+ * Responses contain a session token which clients can send with their next
+ * request. Queries which extend the previous query of the session only search
+ * its previous matches, see {@link AutocompleteSearcher}. The best matches of
+ * recently requested prefixes are cached as well.<br>
+ * <br>
+ * If enabled by the configuration, exact prefix completions are answered
+ * first using a {@link PrefixCompletionIndex}, ranked by the importance of the
+ * named nodes. The fuzzy search is only used if there are too few of
+ * them.<br>
+ * <br>
+ * The API is served by a {@link HttpServer} shared with the other services.
+ * For construction it wants a configuration, the HTTP server, a database for
+ * retrieving the name data-set and the importance of named nodes.
  *
  * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
  */
-public final class NameSearchServer implements Runnable {
+public final class NameSearchServer {
   /**
    * Logger used for logging.
    */
@@ -62,13 +78,8 @@ public final class NameSearchServer implements Runnable {
    */
   private static final int Q_GRAM_VALUE = 3;
   /**
-   * The timeout used when waiting for a client to connect, in milliseconds. The
-   * server status is checked after each timeout.
-   */
-  private static final int SOCKET_TIMEOUT = 2_000;
-  /**
-   * Configuration provider which provides the port that should be used by the
-   * server.
+   * Configuration provider which provides the port and the worker limits that
+   * should be used by the server.
    */
   private final INameSearchConfigProvider mConfig;
   /**
@@ -76,29 +87,30 @@ public final class NameSearchServer implements Runnable {
    */
   private final INameSearchDatabase mDatabase;
   /**
-   * The query object to use for answering fuzzy prefix queries.
+   * The HTTP server serving the API, shared with the other services.
    */
-  private FuzzyPrefixQuery<IKeyRecord<String>> mFuzzyQuery;
+  private final HttpServer mHttpServer;
   /**
-   * The maximal amount of matches to send in a response.
+   * Function providing the importance of a node by its OSM ID.
    */
-  private int mMatchLimit;
+  private final LongToIntFunction mImportance;
   /**
-   * The data-set of node names to query on.
+   * Whether or not the handler of the server is registered.
    */
-  private NodeNameSet mNodeNames;
+  private volatile boolean mIsRunning;
   /**
-   * The server socket to use for communication.
+   * The maximal amount of matches to send in a response.
    */
-  private ServerSocket mServerSocket;
+  private int mMatchLimit;
   /**
-   * The thread to run this server on.
+   * The searcher to use for answering queries, working on the index of node
+   * names. Guarded by this server, see {@link #reload(AutocompleteSearcher)}.
    */
-  private Thread mServerThread;
+  private AutocompleteSearcher mSearcher;
   /**
-   * Whether or not the server thread should run.
+   * The pool of workers handling the requests of the server.
    */
-  private volatile boolean mShouldRun;
+  private final WorkerPool mWorkerPool;
 
   /**
    * Creates a new name search server with the given configuration that works
@@ -110,29 +122,105 @@ public final class NameSearchServer implements Runnable {
    * with {@link #isRunning()}. Once a server was shutdown it should not be used
    * anymore, instead create a new one.
    *
-   * @param config   Configuration provider which provides the port that should
-   *                 be used by the server
-   * @param database Database used for retrieving the name data-set
+   * @param config     Configuration provider which provides the port and the
+   *                   worker limits that should be used by the server
+   * @param httpServer The HTTP server to serve the API on, shared with the
+   *                   other services
+   * @param database   Database used for retrieving the name data-set
+   * @param importance Function providing the importance of a node by its OSM
+   *                   ID, used to rank exact prefix completions
    */
-  public NameSearchServer(final INameSearchConfigProvider config, final INameSearchDatabase database) {
+  public NameSearchServer(final INameSearchConfigProvider config, final HttpServer httpServer,
+      final INameSearchDatabase database, final LongToIntFunction importance) {
     mConfig = config;
+    mHttpServer = httpServer;
+    mWorkerPool = new WorkerPool("nameSearch", config.getNameSearchServerWorkers(),
+        config.getNameSearchServerQueueLimit(), config.getServerQueueTimeout());
     mDatabase = database;
+    mImportance = importance;
+  }
+
+  /**
+   * Creates a searcher on the index which is used for answering fuzzy prefix
+   * queries. The persisted index is mapped if it was built from the same name
+   * data-set, otherwise it is built into a temporary file which is then moved
+   * over the persisted one. A searcher still mapping the previous index is thus
+   * not affected. The searcher starts without sessions and cached prefixes. It
+   * is built on the calling thread and not used by the server until given to
+   * {@link #reload(AutocompleteSearcher)}.
+   *
+   * @param database   Database used for retrieving the name data-set
+   * @param importance Function providing the importance of a node by its OSM
+   *                   ID, used to rank exact prefix completions
+   * @return The created searcher
+   * @throws UncheckedIOException If an I/O exception occurred while writing the
+   *                              index
+   */
+  public AutocompleteSearcher createSearcher(final INameSearchDatabase database, final LongToIntFunction importance)
+      throws UncheckedIOException {
+    LOGGER.info("Setting up name search index");
+    final Instant indexTimeStart = Instant.now();
+
+    final Collection<NodeNameData> nodeNames = database.getAllNodeNameData();
+    final long fingerprint = QGramIndex.fingerprint(nodeNames);
+    final Path path = mConfig.getNameSearchIndex();
+
+    QGramIndex index = null;
+    try {
+      index = QGramIndex.map(path);
+      if (index.getFingerprint() != fingerprint || index.getQParameter() != Q_GRAM_VALUE) {
+        LOGGER.info("Name search index is outdated, rebuilding");
+        index = null;
+      }
+    } catch (final NoSuchFileException e) {
+      LOGGER.info("No name search index found, building");
+    } catch (final IOException e) {
+      LOGGER.warn("Name search index is invalid, rebuilding", e);
+    }
+
+    if (index == null) {
+      try {
+        // The index at the path may still be mapped by the searcher currently in
+        // use, hence it is replaced by moving a complete file over it instead of
+        // writing into it
+        final Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+        QGramIndex.write(nodeNames, Q_GRAM_VALUE, fingerprint, temporaryPath);
+        Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        index = QGramIndex.map(path);
+      } catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+    PrefixCompletionIndex completionIndex = null;
+    if (mConfig.useNameCompletion()) {
+      final QGramIndex completedIndex = index;
+      completionIndex = PrefixCompletionIndex.build(index,
+          recordId -> importance.applyAsInt(completedIndex.getNodeId(recordId)));
+    }
+    final AutocompleteSearcher searcher = new AutocompleteSearcher(index, completionIndex, mMatchLimit,
+        mConfig.getNameSearchSessionLimit(), mConfig.getNameSearchPrefixCacheSize());
+    LOGGER.info("Name search index size: {} names, {} keys", index.getAmountOfRecords(), index.getAmountOfKeys());
+
+    final Instant indexTimeEnd = Instant.now();
+    LOGGER.info("Setup took: {}", Duration.between(indexTimeStart, indexTimeEnd));
+    return searcher;
   }
 
   /**
    * Initializes the server. Call this method prior to starting the server with
    * {@link #start()}. Do not call it again afterwards.
    *
-   * @throws UncheckedIOException If an I/O exception occurred while creating
-   *                              the server socket.
+   * @throws UncheckedIOException If an I/O exception occurred while binding
+   *                              the port or while writing the name index.
    */
   public void initialize() throws UncheckedIOException {
-    initializeFuzzyPrefixQuery();
     mMatchLimit = mConfig.getMatchLimit();
-    mServerThread = new Thread(this);
+    final AutocompleteSearcher searcher = createSearcher(mDatabase, mImportance);
+    synchronized (this) {
+      mSearcher = searcher;
+    }
     try {
-      mServerSocket = new ServerSocket(mConfig.getNameSearchServerPort());
-      mServerSocket.setSoTimeout(SOCKET_TIMEOUT);
+      mHttpServer.bind(mConfig.getNameSearchServerPort());
     } catch (final IOException e) {
       throw new UncheckedIOException(e);
     }
@@ -146,40 +234,27 @@ public final class NameSearchServer implements Runnable {
    * @return <tt>True</tt> if the server is running, <tt>false</tt> otherwise
    */
   public boolean isRunning() {
-    return mServerThread.isAlive();
+    return mIsRunning;
   }
 
-  /*
-   * (non-Javadoc)
-   * @see java.lang.Runnable#run()
+  /**
+   * Replaces the searcher used to answer name search requests, for example
+   * after the data was updated. Create the searcher beforehand using
+   * {@link #createSearcher(INameSearchDatabase, LongToIntFunction)}, such that
+   * only the swap happens here.<br>
+   * <br>
+   * Requests received afterwards are handled with the given searcher, requests
+   * that are already being handled finish with the previous one. The server
+   * does not need to be stopped for that.
+   *
+   * @param searcher The searcher to answer queries with
    */
-  @Override
-  public void run() {
-    final ExecutorService executor = Executors.newCachedThreadPool();
-    int requestId = -1;
-
-    LOGGER.info("Server ready and waiting for clients");
-    while (mShouldRun) {
-      try {
-        // Accept a client, the handler will close it
-        @SuppressWarnings("resource")
-        final Socket client = mServerSocket.accept();
-
-        // Handle the client
-        requestId++;
-        final ClientHandler handler = new ClientHandler(requestId, client, mFuzzyQuery, mNodeNames, mMatchLimit);
-        executor.execute(handler);
-      } catch (final SocketTimeoutException e) {
-        // Ignore the exception. The timeout is used to repeatedly check if the
-        // server should continue running.
-      } catch (final Exception e) {
-        // TODO Implement some limit of repeated exceptions
-        // Log every exception and try to stay alive
-        LOGGER.error("Unknown exception in name search server routine", e);
-      }
+  public synchronized void reload(final AutocompleteSearcher searcher) {
+    mSearcher = searcher;
+    if (mIsRunning) {
+      registerHandler();
     }
-
-    LOGGER.info("Name search server is shutting down");
+    LOGGER.info("Reloaded name search server");
   }
 
   /**
@@ -189,7 +264,9 @@ public final class NameSearchServer implements Runnable {
    * was shutdown it should not be used anymore, instead create a new one.
    */
   public void shutdown() {
-    mShouldRun = false;
+    mHttpServer.unregister(ClientHandler.API_RESOURCE);
+    mIsRunning = false;
+    mWorkerPool.shutdown();
     LOGGER.info("Set shutdown request to name search server");
   }
 
@@ -206,26 +283,16 @@ public final class NameSearchServer implements Runnable {
       return;
     }
     LOGGER.info("Starting name search server");
-    mShouldRun = true;
-    mServerThread.start();
+    registerHandler();
+    mIsRunning = true;
   }
 
   /**
-   * Initializes the query object which is used for answering fuzzy prefix
-   * queries.
+   * Registers a handler answering requests with the current tools at the HTTP
+   * server, running on the pool of the server, replacing the previous one.
    */
-  private void initializeFuzzyPrefixQuery() {
-    LOGGER.info("Setting up fuzzy prefix query");
-    final Instant fuzzyTimeStart = Instant.now();
-
-    final QGramProvider qGramProvider = new QGramProvider(Q_GRAM_VALUE);
-    final PostingBeforeRecordRanking<String> ranking = new PostingBeforeRecordRanking<>();
-    mNodeNames = NodeNameSet.buildFromNodeNameData(mDatabase.getAllNodeNameData(), qGramProvider);
-    mFuzzyQuery = new FuzzyPrefixQuery<>(mNodeNames, qGramProvider, ranking);
-    LOGGER.info("Inverted index size: {}", mNodeNames.size());
-
-    final Instant fuzzyTimeEnd = Instant.now();
-    LOGGER.info("Setup took: {}", Duration.between(fuzzyTimeStart, fuzzyTimeEnd));
+  private synchronized void registerHandler() {
+    mHttpServer.register(ClientHandler.API_RESOURCE, new ClientHandler(mSearcher, mMatchLimit), mWorkerPool);
   }
 
 }
@@ -1,7 +1,6 @@
 package de.unifreiburg.informatik.cobweb.searching.name.server;
 
 import java.io.IOException;
-import java.net.Socket;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
@@ -11,19 +10,20 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
 
-import de.unifreiburg.informatik.cobweb.searching.name.model.NodeName;
-import de.unifreiburg.informatik.cobweb.searching.name.model.NodeNameSet;
+import de.unifreiburg.informatik.cobweb.searching.name.model.AutocompleteResult;
+import de.unifreiburg.informatik.cobweb.searching.name.model.AutocompleteSearcher;
+import de.unifreiburg.informatik.cobweb.searching.name.model.QGramIndex;
+import de.unifreiburg.informatik.cobweb.searching.name.model.SearchRegion;
 import de.unifreiburg.informatik.cobweb.searching.name.server.model.Match;
 import de.unifreiburg.informatik.cobweb.searching.name.server.model.NameSearchRequest;
 import de.unifreiburg.informatik.cobweb.searching.name.server.model.NameSearchResponse;
 import de.unifreiburg.informatik.cobweb.util.RoutingUtil;
 import de.unifreiburg.informatik.cobweb.util.http.EHttpContentType;
 import de.unifreiburg.informatik.cobweb.util.http.HttpResponseBuilder;
-import de.unifreiburg.informatik.cobweb.util.http.HttpUtil;
-import de.zabuza.lexisearch.indexing.IKeyRecord;
+import de.unifreiburg.informatik.cobweb.util.http.IHttpResponder;
 import de.zabuza.lexisearch.indexing.Posting;
-import de.zabuza.lexisearch.queries.FuzzyPrefixQuery;
 
 /**
  * Class that handles a name search request. It parses the request, computes
@@ -38,14 +38,6 @@ public final class RequestHandler {
    * Logger used for logging
    */
   private static final Logger LOGGER = LoggerFactory.getLogger(RequestHandler.class);
-  /**
-   * The client whose request to handle.
-   */
-  private final Socket mClient;
-  /**
-   * The query object to use for answering the fuzzy prefix query.
-   */
-  private final FuzzyPrefixQuery<IKeyRecord<String>> mFuzzyQuery;
   /**
    * The GSON object used to format JSON responses.
    */
@@ -55,29 +47,29 @@ public final class RequestHandler {
    */
   private final int mMatchLimit;
   /**
-   * The data-set of node names to query on.
+   * The responder to send the response to the client with.
    */
-  private final NodeNameSet mNodeNames;
+  private final IHttpResponder mResponder;
+  /**
+   * The searcher to use for answering the query.
+   */
+  private final AutocompleteSearcher mSearcher;
 
   /**
-   * Creates a new handler which handles requests of the given client using the
-   * given tools.<br>
+   * Creates a new handler which handles a request using the given tools.<br>
    * <br>
    * To handle a request call {@link #handleRequest(NameSearchRequest)}.
    *
-   * @param client     The client whose request to handle
+   * @param responder  The responder to send the response with
    * @param gson       The GSON object used to format JSON responses
-   * @param fuzzyQuery The query object to use for answering the fuzzy prefix
-   *                   query
-   * @param nodeNames  The data-set of node names to query on
+   * @param searcher   The searcher to use for answering the query
    * @param matchLimit The maximal amount of matches to send
    */
-  public RequestHandler(final Socket client, final Gson gson, final FuzzyPrefixQuery<IKeyRecord<String>> fuzzyQuery,
-      final NodeNameSet nodeNames, final int matchLimit) {
-    mClient = client;
+  public RequestHandler(final IHttpResponder responder, final Gson gson, final AutocompleteSearcher searcher,
+      final int matchLimit) {
+    mResponder = responder;
     mGson = gson;
-    mFuzzyQuery = fuzzyQuery;
-    mNodeNames = nodeNames;
+    mSearcher = searcher;
     mMatchLimit = matchLimit;
   }
 
@@ -97,12 +89,12 @@ public final class RequestHandler {
     // Get the search request
     final String name = request.getName();
     if (name.trim().isEmpty()) {
-      sendEmptyResponse(startTime);
+      sendEmptyResponse(startTime, request.getSession());
       return;
     }
     int amount = request.getAmount();
     if (amount <= 0) {
-      sendEmptyResponse(startTime);
+      sendEmptyResponse(startTime, request.getSession());
       return;
     }
     if (amount > mMatchLimit) {
@@ -110,12 +102,16 @@ public final class RequestHandler {
     }
 
     // Compute matches
-    final List<Match> matches = buildMatches(mFuzzyQuery.searchOr(Collections.singletonList(name)), amount);
+    final SearchRegion region = request.getViewport() == null && request.getBias() == null ? SearchRegion.UNRESTRICTED
+        : new SearchRegion(request.getViewport(), request.getBias());
+    final AutocompleteResult result = mSearcher.search(name, request.getSession(), region, amount);
+    final List<Match> matches = buildMatches(result.getMatches(), amount);
 
     final long endTime = System.nanoTime();
 
     // Build and send response
-    final NameSearchResponse response = new NameSearchResponse(RoutingUtil.nanosToMillis(endTime - startTime), matches);
+    final NameSearchResponse response =
+        new NameSearchResponse(RoutingUtil.nanosToMillis(endTime - startTime), matches, result.getSessionToken());
     sendResponse(response);
   }
 
@@ -130,16 +126,14 @@ public final class RequestHandler {
    *         given postings
    */
   private List<Match> buildMatches(final List<Posting> postings, final int amount) {
+    final QGramIndex index = mSearcher.getIndex();
     final int resultingAmount = Math.min(amount, postings.size());
     final List<Match> matches = new ArrayList<>(resultingAmount);
 
     final Iterator<Posting> postingIter = postings.iterator();
     for (int i = 0; i < resultingAmount; i++) {
       final Posting posting = postingIter.next();
-      final IKeyRecord<String> record = mNodeNames.getKeyRecordById(posting.getId());
-      final long nodeId = ((NodeName) record).getNodeId();
-      final String name = record.getName();
-      matches.add(new Match(nodeId, name));
+      matches.add(new Match(index.getNodeId(posting.getId()), index.getName(posting.getId())));
     }
     return matches;
   }
@@ -150,12 +144,14 @@ public final class RequestHandler {
    *
    * @param startTime The time the computation started, in nanoseconds. Must be
    *                  compatible with {@link System#nanoTime()}.
+   * @param session   The token of the session of the request, is sent back
+   *                  unchanged, or <tt>null</tt> if there is none
    * @throws IOException If an I/O exception occurred while sending the response
    */
-  private void sendEmptyResponse(final long startTime) throws IOException {
+  private void sendEmptyResponse(final long startTime, final String session) throws IOException {
     final long endTime = System.nanoTime();
     final NameSearchResponse response =
-        new NameSearchResponse(RoutingUtil.nanosToMillis(endTime - startTime), Collections.emptyList());
+        new NameSearchResponse(RoutingUtil.nanosToMillis(endTime - startTime), Collections.emptyList(), session);
     sendResponse(response);
   }
 
@@ -169,8 +165,10 @@ public final class RequestHandler {
     if (LOGGER.isDebugEnabled()) {
       LOGGER.debug("Sending response: {}", response);
     }
-    final String content = mGson.toJson(response);
-    HttpUtil.sendHttpResponse(
-        new HttpResponseBuilder().setContentType(EHttpContentType.JSON).setContent(content).build(), mClient);
+    // Stream the response instead of building it as a whole, it may be large
+    try (JsonWriter jsonWriter = new JsonWriter(
+        mResponder.sendHead(new HttpResponseBuilder().setContentType(EHttpContentType.JSON).build()))) {
+      mGson.toJson(response, NameSearchResponse.class, jsonWriter);
+    }
   }
 }
@@ -1,11 +1,21 @@
 package de.unifreiburg.informatik.cobweb.searching.name.server.model;
 
+import java.util.Arrays;
+
 /**
  * POJO that models a name search request.<br>
  * <br>
  * A request consists of a name, which can be a prefix and fuzzy, and a maximal
  * amount of matches interested in. The response will not contain more matches
- * than specified.<br>
+ * than specified. Optionally it contains the session token of a previous
+ * response. Autocomplete clients should send it along such that queries
+ * extending the previous one can be answered faster.<br>
+ * <br>
+ * Further, a request can optionally contain a viewport, given as minimal
+ * latitude, minimal longitude, maximal latitude and maximal longitude. Only
+ * nodes within it are matched then. Also optional is a bias position, given as
+ * pair of latitude and longitude. Equally good matches are then ranked by their
+ * distance to it, nearest first.<br>
  * <br>
  * It has the exact structure that is expected as request format for the REST
  * API. It is primarily used to be constructed from the clients JSON request.
@@ -18,10 +28,24 @@ public final class NameSearchRequest {
    * more matches than specified.
    */
   private int mAmount;
+  /**
+   * The bias position as pair of latitude and longitude or <tt>null</tt> if
+   * there is none.
+   */
+  private float[] mBias;
   /**
    * The name to search, can be a prefix and fuzzy.
    */
   private String mName;
+  /**
+   * The token of the session to continue or <tt>null</tt> if there is none.
+   */
+  private String mSession;
+  /**
+   * The viewport as minimal latitude, minimal longitude, maximal latitude and
+   * maximal longitude or <tt>null</tt> if there is none.
+   */
+  private float[] mViewport;
 
   /**
    * Creates a new name search request.
@@ -35,6 +59,42 @@ public final class NameSearchRequest {
     mAmount = amount;
   }
 
+  /**
+   * Creates a new name search request which continues the given session.
+   *
+   * @param name    The name to search, can be a prefix and fuzzy
+   * @param amount  The maximal amount of matches interest in. The response will
+   *                not contain more matches than specified.
+   * @param session The token of the session to continue, as sent by a previous
+   *                response
+   */
+  public NameSearchRequest(final String name, final int amount, final String session) {
+    this(name, amount);
+    mSession = session;
+  }
+
+  /**
+   * Creates a new name search request which continues the given session and
+   * is restricted to the given viewport and biased towards the given position.
+   *
+   * @param name     The name to search, can be a prefix and fuzzy
+   * @param amount   The maximal amount of matches interest in. The response
+   *                 will not contain more matches than specified.
+   * @param session  The token of the session to continue, as sent by a
+   *                 previous response, or <tt>null</tt> if there is none
+   * @param viewport The viewport as minimal latitude, minimal longitude,
+   *                 maximal latitude and maximal longitude or <tt>null</tt> if
+   *                 there is none
+   * @param bias     The bias position as pair of latitude and longitude or
+   *                 <tt>null</tt> if there is none
+   */
+  public NameSearchRequest(final String name, final int amount, final String session, final float[] viewport,
+      final float[] bias) {
+    this(name, amount, session);
+    mViewport = viewport;
+    mBias = bias;
+  }
+
   /**
    * Creates a new empty name search request. Is used to construct the element
    * via reflection.
@@ -54,6 +114,17 @@ public final class NameSearchRequest {
     return mAmount;
   }
 
+  /**
+   * Gets the bias position. Equally good matches are ranked by their distance
+   * to it.
+   *
+   * @return The bias position as pair of latitude and longitude or
+   *         <tt>null</tt> if there is none
+   */
+  public float[] getBias() {
+    return mBias;
+  }
+
   /**
    * Gets the name to search, can be a prefix and fuzzy.
    *
@@ -63,6 +134,25 @@ public final class NameSearchRequest {
     return mName;
   }
 
+  /**
+   * Gets the token of the session to continue.
+   *
+   * @return The token of the session or <tt>null</tt> if there is none
+   */
+  public String getSession() {
+    return mSession;
+  }
+
+  /**
+   * Gets the viewport. Only nodes within it are matched.
+   *
+   * @return The viewport as minimal latitude, minimal longitude, maximal
+   *         latitude and maximal longitude or <tt>null</tt> if there is none
+   */
+  public float[] getViewport() {
+    return mViewport;
+  }
+
   /*
    * (non-Javadoc)
    * @see java.lang.Object#toString()
@@ -74,6 +164,12 @@ public final class NameSearchRequest {
     builder.append(mName);
     builder.append(", amount=");
     builder.append(mAmount);
+    builder.append(", session=");
+    builder.append(mSession);
+    builder.append(", viewport=");
+    builder.append(Arrays.toString(mViewport));
+    builder.append(", bias=");
+    builder.append(Arrays.toString(mBias));
     builder.append("]");
     return builder.toString();
   }
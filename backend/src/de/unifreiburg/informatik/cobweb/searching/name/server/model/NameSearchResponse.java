@@ -8,7 +8,8 @@ import java.util.List;
  * A response consists of a list of matches, sorted by relevance (most relevant
  * first). It also includes the time it needed to answer the query in
  * milliseconds. A match consists of the full name and the corresponding OSM
- * node ID.<br>
+ * node ID. The session token can be sent with the next request of the client
+ * to continue the session.<br>
  * <br>
  * It has the exact structure that is expected as response format for the REST
  * API. It is primarily used to be constructed and then encoded to JSON to be
@@ -21,6 +22,11 @@ public final class NameSearchResponse {
    * A list of all computed matches, sorted by relevance (most relevant first).
    */
   private List<Match> mMatches;
+  /**
+   * The token of the session the query was answered in or <tt>null</tt> if
+   * there is none.
+   */
+  private String mSession;
   /**
    * The duration answering the query took, in milliseconds.
    */
@@ -38,6 +44,19 @@ public final class NameSearchResponse {
     mMatches = matches;
   }
 
+  /**
+   * Creates a new name search response which belongs to the given session.
+   *
+   * @param time    The duration answering the query took, in milliseconds
+   * @param matches A list of all computed matches, sorted by relevance (most
+   *                relevant first)
+   * @param session The token of the session the query was answered in
+   */
+  public NameSearchResponse(final long time, final List<Match> matches, final String session) {
+    this(time, matches);
+    mSession = session;
+  }
+
   /**
    * Creates a new empty name search response. Is used to construct the element
    * via reflection.
@@ -58,6 +77,15 @@ public final class NameSearchResponse {
     return mMatches;
   }
 
+  /**
+   * Gets the token of the session the query was answered in.
+   *
+   * @return The token of the session or <tt>null</tt> if there is none
+   */
+  public String getSession() {
+    return mSession;
+  }
+
   /**
    * Gets the duration answering the query took, in milliseconds.
    *
@@ -76,6 +104,8 @@ public final class NameSearchResponse {
     final StringBuilder builder = new StringBuilder();
     builder.append("NameSearchResponse [matches=");
     builder.append(mMatches);
+    builder.append(", session=");
+    builder.append(mSession);
     builder.append("]");
     return builder.toString();
   }
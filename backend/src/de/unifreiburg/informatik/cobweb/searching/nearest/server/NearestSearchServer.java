@@ -2,21 +2,17 @@ package de.unifreiburg.informatik.cobweb.searching.nearest.server;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
-import java.net.ServerSocket;
-import java.net.Socket;
-import java.net.SocketTimeoutException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import de.unifreiburg.informatik.cobweb.config.INearestSearchConfigProvider;
 import de.unifreiburg.informatik.cobweb.db.INearestSearchDatabase;
-import de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.INearestNeighborComputation;
-import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
+import de.unifreiburg.informatik.cobweb.routing.model.RoadSnapping;
 import de.unifreiburg.informatik.cobweb.searching.nearest.server.model.NearestSearchRequest;
 import de.unifreiburg.informatik.cobweb.searching.nearest.server.model.NearestSearchResponse;
+import de.unifreiburg.informatik.cobweb.util.http.HttpServer;
+import de.unifreiburg.informatik.cobweb.util.http.WorkerPool;
 
 /**
  * A server which offers a REST API that is able to answer nearest neighboring
@@ -39,51 +35,47 @@ import de.unifreiburg.informatik.cobweb.searching.nearest.server.model.NearestSe
  * <tt>OPTIONS</tt>. The server will send <tt>BAD REQUEST</tt> to invalid
  * requests.<br>
  * <br>
- * The server itself handles clients in parallel using a cached thread pool. For
- * construction it wants a configuration and a nearest neighbor computation
- * object for retrieving the nodes.
+ * The API is served by a {@link HttpServer} shared with the other services.
+ * For construction it wants a configuration, the HTTP server and a nearest
+ * neighbor computation object for retrieving the nodes.
  *
  * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
  */
-public final class NearestSearchServer implements Runnable {
+public final class NearestSearchServer {
   /**
    * Logger used for logging.
    */
   private static final Logger LOGGER = LoggerFactory.getLogger(NearestSearchServer.class);
   /**
-   * The timeout used when waiting for a client to connect, in milliseconds. The
-   * server status is checked after each timeout.
-   */
-  private static final int SOCKET_TIMEOUT = 2_000;
-  /**
-   * Configuration provider which provides the port that should be used by the
-   * server.
+   * Configuration provider which provides the port and the worker limits that
+   * should be used by the server.
    */
   private final INearestSearchConfigProvider mConfig;
   /**
-   * The database to use for retrieving node data.
+   * The database to use for retrieving node data. Guarded by this server.
    */
-  private final INearestSearchDatabase mDatabase;
+  private INearestSearchDatabase mDatabase;
   /**
-   * The nearest neighbor computation algorithm to use.
+   * The HTTP server serving the API, shared with the other services.
    */
-  private final INearestNeighborComputation<ICoreNode> mNearestNeighborComputation;
+  private final HttpServer mHttpServer;
   /**
-   * The server socket to use for communication.
+   * Whether or not the handler of the server is registered.
    */
-  private ServerSocket mServerSocket;
+  private volatile boolean mIsRunning;
   /**
-   * The thread to run this server on.
+   * The snapping used to find the nearest node and road segment. Guarded by
+   * this server, see {@link #reload(RoadSnapping, INearestSearchDatabase)}.
    */
-  private Thread mServerThread;
+  private RoadSnapping mRoadSnapping;
   /**
-   * Whether or not the server thread should run.
+   * The pool of workers handling the requests of the server.
    */
-  private volatile boolean mShouldRun;
+  private final WorkerPool mWorkerPool;
 
   /**
    * Creates a new nearest search server with the given configuration that works
-   * with the given algorithm.<br>
+   * with the given snapping.<br>
    * <br>
    * After construction the {@link #initialize()} method should be called.
    * Afterwards it can be started by using {@link #start()}. Request the server
@@ -91,17 +83,21 @@ public final class NearestSearchServer implements Runnable {
    * with {@link #isRunning()}. Once a server was shutdown it should not be used
    * anymore, instead create a new one.
    *
-   * @param config                     Configuration provider which provides the
-   *                                   port that should be used by the server
-   * @param nearestNeighborComputation Nearest neighbor computation algorithm to
-   *                                   use
-   * @param database                   The database to use for retrieving node
-   *                                   data
+   * @param config       Configuration provider which provides the port and the
+   *                     worker limits that should be used by the server
+   * @param httpServer   The HTTP server to serve the API on, shared with the
+   *                     other services
+   * @param roadSnapping The snapping used to find the nearest node and road
+   *                     segment
+   * @param database     The database to use for retrieving node data
    */
-  public NearestSearchServer(final INearestSearchConfigProvider config,
-      final INearestNeighborComputation<ICoreNode> nearestNeighborComputation, final INearestSearchDatabase database) {
+  public NearestSearchServer(final INearestSearchConfigProvider config, final HttpServer httpServer,
+      final RoadSnapping roadSnapping, final INearestSearchDatabase database) {
     mConfig = config;
-    mNearestNeighborComputation = nearestNeighborComputation;
+    mHttpServer = httpServer;
+    mWorkerPool = new WorkerPool("nearestSearch", config.getNearestSearchServerWorkers(),
+        config.getNearestSearchServerQueueLimit(), config.getServerQueueTimeout());
+    mRoadSnapping = roadSnapping;
     mDatabase = database;
   }
 
@@ -109,14 +105,12 @@ public final class NearestSearchServer implements Runnable {
    * Initializes the server. Call this method prior to starting the server with
    * {@link #start()}. Do not call it again afterwards.
    *
-   * @throws UncheckedIOException If an I/O exception occurred while creating
-   *                              the server socket.
+   * @throws UncheckedIOException If an I/O exception occurred while binding
+   *                              the port.
    */
   public void initialize() throws UncheckedIOException {
-    mServerThread = new Thread(this);
     try {
-      mServerSocket = new ServerSocket(mConfig.getNearestSearchServerPort());
-      mServerSocket.setSoTimeout(SOCKET_TIMEOUT);
+      mHttpServer.bind(mConfig.getNearestSearchServerPort());
     } catch (final IOException e) {
       throw new UncheckedIOException(e);
     }
@@ -130,40 +124,30 @@ public final class NearestSearchServer implements Runnable {
    * @return <tt>True</tt> if the server is running, <tt>false</tt> otherwise
    */
   public boolean isRunning() {
-    return mServerThread.isAlive();
+    return mIsRunning;
   }
 
-  /*
-   * (non-Javadoc)
-   * @see java.lang.Runnable#run()
+  /**
+   * Replaces the snapping and database used to answer nearest search
+   * requests, for example after the routing model was built again from updated
+   * data.<br>
+   * <br>
+   * Requests received afterwards are handled with the given snapping, requests that
+   * are already being handled finish with the previous ones. The server does
+   * not need to be stopped for that.
+   *
+   * @param roadSnapping The snapping used to find the nearest node and road
+   *                     segment
+   * @param database     The database to use for retrieving node data, must
+   *                     match the nodes of the given snapping
    */
-  @Override
-  public void run() {
-    final ExecutorService executor = Executors.newCachedThreadPool();
-    int requestId = -1;
-
-    LOGGER.info("Server ready and waiting for clients");
-    while (mShouldRun) {
-      try {
-        // Accept a client, the handler will close it
-        @SuppressWarnings("resource")
-        final Socket client = mServerSocket.accept();
-
-        // Handle the client
-        requestId++;
-        final ClientHandler handler = new ClientHandler(requestId, client, mNearestNeighborComputation, mDatabase);
-        executor.execute(handler);
-      } catch (final SocketTimeoutException e) {
-        // Ignore the exception. The timeout is used to repeatedly check if the
-        // server should continue running.
-      } catch (final Exception e) {
-        // TODO Implement some limit of repeated exceptions
-        // Log every exception and try to stay alive
-        LOGGER.error("Unknown exception in nearest search server routine", e);
-      }
+  public synchronized void reload(final RoadSnapping roadSnapping, final INearestSearchDatabase database) {
+    mRoadSnapping = roadSnapping;
+    mDatabase = database;
+    if (mIsRunning) {
+      registerHandler();
     }
-
-    LOGGER.info("Nearest search server is shutting down");
+    LOGGER.info("Reloaded nearest search server");
   }
 
   /**
@@ -173,7 +157,9 @@ public final class NearestSearchServer implements Runnable {
    * was shutdown it should not be used anymore, instead create a new one.
    */
   public void shutdown() {
-    mShouldRun = false;
+    mHttpServer.unregister(ClientHandler.API_RESOURCE);
+    mIsRunning = false;
+    mWorkerPool.shutdown();
     LOGGER.info("Set shutdown request to nearest search server");
   }
 
@@ -190,8 +176,16 @@ public final class NearestSearchServer implements Runnable {
       return;
     }
     LOGGER.info("Starting nearest search server");
-    mShouldRun = true;
-    mServerThread.start();
+    registerHandler();
+    mIsRunning = true;
+  }
+
+  /**
+   * Registers a handler answering requests with the current tools at the HTTP
+   * server, running on the pool of the server, replacing the previous one.
+   */
+  private synchronized void registerHandler() {
+    mHttpServer.register(ClientHandler.API_RESOURCE, new ClientHandler(mRoadSnapping, mDatabase), mWorkerPool);
   }
 
 }
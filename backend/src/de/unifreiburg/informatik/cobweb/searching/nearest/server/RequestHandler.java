@@ -1,7 +1,6 @@
 package de.unifreiburg.informatik.cobweb.searching.nearest.server;
 
 import java.io.IOException;
-import java.net.Socket;
 import java.util.Optional;
 
 import org.slf4j.Logger;
@@ -10,15 +9,17 @@ import org.slf4j.LoggerFactory;
 import com.google.gson.Gson;
 
 import de.unifreiburg.informatik.cobweb.db.INearestSearchDatabase;
-import de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.INearestNeighborComputation;
+import de.unifreiburg.informatik.cobweb.routing.model.RoadSnapping;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.EdgePosition;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
-import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadNode;
 import de.unifreiburg.informatik.cobweb.searching.nearest.server.model.NearestSearchRequest;
 import de.unifreiburg.informatik.cobweb.searching.nearest.server.model.NearestSearchResponse;
+import de.unifreiburg.informatik.cobweb.searching.nearest.server.model.SegmentProjection;
 import de.unifreiburg.informatik.cobweb.util.RoutingUtil;
 import de.unifreiburg.informatik.cobweb.util.http.EHttpContentType;
 import de.unifreiburg.informatik.cobweb.util.http.HttpResponseBuilder;
-import de.unifreiburg.informatik.cobweb.util.http.HttpUtil;
+import de.unifreiburg.informatik.cobweb.util.http.IHttpResponder;
 
 /**
  * Class that handles a nearest search request. It parses the request, computes
@@ -33,10 +34,6 @@ public final class RequestHandler {
    * Logger used for logging
    */
   private static final Logger LOGGER = LoggerFactory.getLogger(RequestHandler.class);
-  /**
-   * The client whose request to handle.
-   */
-  private final Socket mClient;
   /**
    * The database to use for retrieving node data.
    */
@@ -46,35 +43,37 @@ public final class RequestHandler {
    */
   private final Gson mGson;
   /**
-   * The nearest neighbor computation algorithm to use.
+   * The responder to send the response to the client with.
+   */
+  private final IHttpResponder mResponder;
+  /**
+   * The snapping used to find the nearest node and road segment.
    */
-  private final INearestNeighborComputation<ICoreNode> mNearestNeighborComputation;
+  private final RoadSnapping mRoadSnapping;
 
   /**
-   * Creates a new handler which handles requests of the given client using the
-   * given algorithm.<br>
+   * Creates a new handler which handles a request using the given snapping.<br>
    * <br>
    * To handle a request call {@link #handleRequest(NearestSearchRequest)}.
    *
-   * @param client                     The client whose request to handle
-   * @param gson                       The GSON object used to format JSON
-   *                                   responses
-   * @param nearestNeighborComputation Nearest neighbor computation algorithm to
-   *                                   use
-   * @param database                   The database to use for retrieving node
-   *                                   data
+   * @param responder    The responder to send the response with
+   * @param gson         The GSON object used to format JSON responses
+   * @param roadSnapping The snapping used to find the nearest node and road
+   *                     segment
+   * @param database     The database to use for retrieving node data
    */
-  public RequestHandler(final Socket client, final Gson gson,
-      final INearestNeighborComputation<ICoreNode> nearestNeighborComputation, final INearestSearchDatabase database) {
-    mClient = client;
+  public RequestHandler(final IHttpResponder responder, final Gson gson, final RoadSnapping roadSnapping,
+      final INearestSearchDatabase database) {
+    mResponder = responder;
     mGson = gson;
-    mNearestNeighborComputation = nearestNeighborComputation;
+    mRoadSnapping = roadSnapping;
     mDatabase = database;
   }
 
   /**
-   * Handles the given nearest search request. It computes the nearest node and
-   * constructs and sends a proper response.
+   * Handles the given nearest search request. It computes the nearest node
+   * which can be used with any of the requested modes and constructs and sends
+   * a proper response.
    *
    * @param request The request to handle
    * @throws IOException If an I/O exception occurred while sending a response
@@ -85,8 +84,8 @@ public final class RequestHandler {
     }
     final long startTime = System.nanoTime();
 
-    final RoadNode wrapperRequestNode = new RoadNode(-1, request.getLatitude(), request.getLongitude());
-    final Optional<ICoreNode> possibleNearestNode = mNearestNeighborComputation.getNearestNeighbor(wrapperRequestNode);
+    final Optional<ICoreNode> possibleNearestNode =
+        mRoadSnapping.getNearestNode(request.getLatitude(), request.getLongitude(), request.getModes());
     if (!possibleNearestNode.isPresent()) {
       sendEmptyResponse(startTime);
       return;
@@ -98,15 +97,41 @@ public final class RequestHandler {
       return;
     }
     final long id = possibleId.get();
+    final SegmentProjection segment = computeSegmentProjection(request).orElse(null);
 
     final long endTime = System.nanoTime();
 
     // Build and send response
     final NearestSearchResponse response = new NearestSearchResponse(RoutingUtil.nanosToMillis(endTime - startTime), id,
-        nearestNode.getLatitude(), nearestNode.getLongitude());
+        nearestNode.getLatitude(), nearestNode.getLongitude(), segment);
     sendResponse(response);
   }
 
+  /**
+   * Projects the requested location onto the nearest road segment which can be
+   * used with any of the requested modes.
+   *
+   * @param request The request to project the location of
+   * @return The projection or empty if no segment index is available or the
+   *         nodes of the segment are unknown to the database
+   */
+  private Optional<SegmentProjection> computeSegmentProjection(final NearestSearchRequest request) {
+    final Optional<EdgePosition<ICoreNode, ICoreEdge<ICoreNode>>> possiblePosition =
+        mRoadSnapping.getNearestEdge(request.getLatitude(), request.getLongitude(), request.getModes());
+    if (!possiblePosition.isPresent()) {
+      return Optional.empty();
+    }
+    final EdgePosition<ICoreNode, ICoreEdge<ICoreNode>> position = possiblePosition.get();
+    final Optional<Long> possibleSource = mDatabase.getOsmNodeByInternal(position.getEdge().getSource().getId());
+    final Optional<Long> possibleDestination =
+        mDatabase.getOsmNodeByInternal(position.getEdge().getDestination().getId());
+    if (!possibleSource.isPresent() || !possibleDestination.isPresent()) {
+      return Optional.empty();
+    }
+    return Optional.of(new SegmentProjection(possibleSource.get(), possibleDestination.get(), position.getFraction(),
+        position.getLatitude(), position.getLongitude()));
+  }
+
   /**
    * Sends an empty nearest search response. This is usually used if no nearest
    * node could be found.
@@ -133,7 +158,6 @@ public final class RequestHandler {
       LOGGER.debug("Sending response: {}", response);
     }
     final String content = mGson.toJson(response);
-    HttpUtil.sendHttpResponse(
-        new HttpResponseBuilder().setContentType(EHttpContentType.JSON).setContent(content).build(), mClient);
+    mResponder.send(new HttpResponseBuilder().setContentType(EHttpContentType.JSON).setContent(content).build());
   }
 }
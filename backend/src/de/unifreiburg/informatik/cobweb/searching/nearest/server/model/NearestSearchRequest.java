@@ -1,9 +1,17 @@
 package de.unifreiburg.informatik.cobweb.searching.nearest.server.model;
 
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+
 /**
  * POJO that models a nearest search request.<br>
  * <br>
- * A request consists of a latitude and longitude.<br>
+ * A request consists of a latitude and longitude and optionally of the
+ * transportation modes to search for. If given, only nodes and segments that
+ * can be used with any of the modes are found.<br>
  * <br>
  * It has the exact structure that is expected as request format for the REST
  * API. It is primarily used to be constructed from the clients JSON request.
@@ -19,9 +27,15 @@ public final class NearestSearchRequest {
    * The longitude to search the nearest node for.
    */
   private float mLongitude;
+  /**
+   * The values of the transportation modes to search for or <tt>null</tt> if
+   * not restricted.
+   */
+  private int[] mModes;
 
   /**
-   * Creates a new nearest search request.
+   * Creates a new nearest search request which is not restricted to
+   * transportation modes.
    *
    * @param latitude  The latitude to search the nearest node for
    * @param longitude The longitude to search the nearest node for
@@ -31,6 +45,19 @@ public final class NearestSearchRequest {
     mLongitude = longitude;
   }
 
+  /**
+   * Creates a new nearest search request which is restricted to the given
+   * transportation modes.
+   *
+   * @param latitude  The latitude to search the nearest node for
+   * @param longitude The longitude to search the nearest node for
+   * @param modes     The transportation modes to search for
+   */
+  public NearestSearchRequest(final float latitude, final float longitude, final Set<ETransportationMode> modes) {
+    this(latitude, longitude);
+    mModes = modes.stream().mapToInt(ETransportationMode::getValue).toArray();
+  }
+
   /**
    * Creates a new empty nearest search request. Is used to construct the
    * element via reflection.
@@ -58,6 +85,25 @@ public final class NearestSearchRequest {
     return mLongitude;
   }
 
+  /**
+   * Gets the transportation modes to search for. Unknown modes are ignored.
+   *
+   * @return The transportation modes to search for, empty if not restricted
+   */
+  public Set<ETransportationMode> getModes() {
+    final Set<ETransportationMode> modes = EnumSet.noneOf(ETransportationMode.class);
+    if (mModes == null) {
+      return modes;
+    }
+    for (final int value : mModes) {
+      final ETransportationMode mode = ETransportationMode.fromValue(value);
+      if (mode != null) {
+        modes.add(mode);
+      }
+    }
+    return modes;
+  }
+
   @Override
   public String toString() {
     final StringBuilder builder = new StringBuilder();
@@ -65,6 +111,8 @@ public final class NearestSearchRequest {
     builder.append(mLatitude);
     builder.append(", longitude=");
     builder.append(mLongitude);
+    builder.append(", modes=");
+    builder.append(Arrays.toString(mModes));
     builder.append("]");
     return builder.toString();
   }
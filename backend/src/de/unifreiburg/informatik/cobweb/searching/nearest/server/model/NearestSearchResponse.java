@@ -5,7 +5,9 @@ package de.unifreiburg.informatik.cobweb.searching.nearest.server.model;
  * <br>
  * A response consists of the nearest OSM node, including its unique OSM ID and
  * its exact latitude and longitude coordinates. It also includes the time it
- * needed to answer the query in milliseconds.<br>
+ * needed to answer the query in milliseconds. If available, it further
+ * includes the projection of the location onto the nearest road segment, which
+ * may be considerably closer than the nearest node.<br>
  * <br>
  * It has the exact structure that is expected as response format for the REST
  * API. It is primarily used to be constructed and then encoded to JSON to be
@@ -27,6 +29,11 @@ public final class NearestSearchResponse {
    * The longitude coordinate of the matched OSM node.
    */
   private float mLongitude;
+  /**
+   * The projection of the requested location onto the nearest road segment or
+   * <tt>null</tt> if not available.
+   */
+  private SegmentProjection mSegment;
   /**
    * The duration answering the query took, in milliseconds.
    */
@@ -49,6 +56,24 @@ public final class NearestSearchResponse {
     mLongitude = longitude;
   }
 
+  /**
+   * Creates a new nearest search response which includes the projection of the
+   * requested location onto the nearest road segment.
+   *
+   * @param time      The duration answering the query took, in milliseconds
+   * @param id        The unique ID of the OSM node which is nearest to the
+   *                  requested location
+   * @param latitude  The latitude coordinate of the matched OSM node
+   * @param longitude The longitude coordinate of the matched OSM node
+   * @param segment   The projection of the requested location onto the
+   *                  nearest road segment
+   */
+  public NearestSearchResponse(final long time, final long id, final float latitude, final float longitude,
+      final SegmentProjection segment) {
+    this(time, id, latitude, longitude);
+    mSegment = segment;
+  }
+
   /**
    * Creates a new empty nearest search response. Is used to construct the
    * element via reflection.
@@ -87,6 +112,16 @@ public final class NearestSearchResponse {
     return mLongitude;
   }
 
+  /**
+   * Gets the projection of the requested location onto the nearest road
+   * segment.
+   *
+   * @return The projection or <tt>null</tt> if not available
+   */
+  public SegmentProjection getSegment() {
+    return mSegment;
+  }
+
   /**
    * Gets the duration answering the query took, in milliseconds.
    *
@@ -109,6 +144,8 @@ public final class NearestSearchResponse {
     builder.append(mLatitude);
     builder.append(", longitude=");
     builder.append(mLongitude);
+    builder.append(", segment=");
+    builder.append(mSegment);
     builder.append("]");
     return builder.toString();
   }
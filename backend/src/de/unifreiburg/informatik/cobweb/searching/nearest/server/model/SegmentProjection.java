@@ -0,0 +1,134 @@
+package de.unifreiburg.informatik.cobweb.searching.nearest.server.model;
+
+/**
+ * POJO that models the projection of a requested location onto the nearest
+ * road segment.<br>
+ * <br>
+ * A projection consists of the OSM nodes of the segment, given by their unique
+ * OSM IDs, the offset of the projected point along the segment and the exact
+ * latitude and longitude coordinates of the projected point.<br>
+ * <br>
+ * It has the exact structure that is expected as response format for the REST
+ * API. It is primarily used to be constructed and then encoded to JSON to be
+ * send to the client as part of a {@link NearestSearchResponse}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class SegmentProjection {
+  /**
+   * The unique ID of the OSM node the segment ends at.
+   */
+  private long mDestination;
+  /**
+   * The fraction of the segment between its source and the projected point,
+   * between <tt>0.0</tt> and <tt>1.0</tt>.
+   */
+  private double mFraction;
+  /**
+   * The latitude coordinate of the projected point.
+   */
+  private float mLatitude;
+  /**
+   * The longitude coordinate of the projected point.
+   */
+  private float mLongitude;
+  /**
+   * The unique ID of the OSM node the segment starts at.
+   */
+  private long mSource;
+
+  /**
+   * Creates a new segment projection.
+   *
+   * @param source      The unique ID of the OSM node the segment starts at
+   * @param destination The unique ID of the OSM node the segment ends at
+   * @param fraction    The fraction of the segment between its source and the
+   *                    projected point, between <tt>0.0</tt> and <tt>1.0</tt>
+   * @param latitude    The latitude coordinate of the projected point
+   * @param longitude   The longitude coordinate of the projected point
+   */
+  public SegmentProjection(final long source, final long destination, final double fraction, final float latitude,
+      final float longitude) {
+    mSource = source;
+    mDestination = destination;
+    mFraction = fraction;
+    mLatitude = latitude;
+    mLongitude = longitude;
+  }
+
+  /**
+   * Creates a new empty segment projection. Is used to construct the element
+   * via reflection.
+   */
+  @SuppressWarnings("unused")
+  private SegmentProjection() {
+    // Empty constructor for construction through reflection
+  }
+
+  /**
+   * Gets the unique ID of the OSM node the segment ends at.
+   *
+   * @return The unique ID of the OSM node
+   */
+  public long getDestination() {
+    return mDestination;
+  }
+
+  /**
+   * Gets the fraction of the segment between its source and the projected
+   * point.
+   *
+   * @return The fraction, between <tt>0.0</tt> and <tt>1.0</tt>
+   */
+  public double getFraction() {
+    return mFraction;
+  }
+
+  /**
+   * Gets the latitude coordinate of the projected point.
+   *
+   * @return The latitude coordinate of the projected point
+   */
+  public float getLatitude() {
+    return mLatitude;
+  }
+
+  /**
+   * Gets the longitude coordinate of the projected point.
+   *
+   * @return The longitude coordinate of the projected point
+   */
+  public float getLongitude() {
+    return mLongitude;
+  }
+
+  /**
+   * Gets the unique ID of the OSM node the segment starts at.
+   *
+   * @return The unique ID of the OSM node
+   */
+  public long getSource() {
+    return mSource;
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder();
+    builder.append("SegmentProjection [source=");
+    builder.append(mSource);
+    builder.append(", destination=");
+    builder.append(mDestination);
+    builder.append(", fraction=");
+    builder.append(mFraction);
+    builder.append(", latitude=");
+    builder.append(mLatitude);
+    builder.append(", longitude=");
+    builder.append(mLongitude);
+    builder.append("]");
+    return builder.toString();
+  }
+}
@@ -0,0 +1,60 @@
+package de.unifreiburg.informatik.cobweb.searching.reverse.model;
+
+/**
+ * Types of named features that can be found by reverse geocoding.<br>
+ * <br>
+ * A feature type has a corresponding value which is used when encoding
+ * features as JSON.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public enum EFeatureType {
+  /**
+   * A named OSM node, like a stop or a point of interest.
+   */
+  NODE(0),
+  /**
+   * A named OSM way, like a street.
+   */
+  WAY(1);
+
+  /**
+   * Gets the feature type that corresponds to the given value.
+   *
+   * @param value The value to get the element from
+   * @return The corresponding feature type or <tt>null</tt> if not present
+   */
+  public static EFeatureType fromValue(final int value) {
+    for (final EFeatureType type : EFeatureType.values()) {
+      if (type.getValue() == value) {
+        return type;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * The value that corresponds to the feature type.
+   */
+  private final int mValue;
+
+  /**
+   * Creates a new feature type with the given corresponding value.
+   *
+   * @param value The value that corresponds to this feature type
+   */
+  private EFeatureType(final int value) {
+    mValue = value;
+  }
+
+  /**
+   * Gets the value this feature type corresponds to.<br>
+   * <br>
+   * It is used when encoding features as JSON.
+   *
+   * @return The value this feature type corresponds to
+   */
+  public int getValue() {
+    return mValue;
+  }
+}
@@ -0,0 +1,137 @@
+package de.unifreiburg.informatik.cobweb.searching.reverse.model;
+
+/**
+ * A named feature found by reverse geocoding. Consists of the type, unique OSM
+ * ID and name of the feature, the position on the feature which is nearest to
+ * the queried location and the distance between both.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class NamedFeature {
+  /**
+   * The distance between the queried location and the feature, in
+   * <tt>metres</tt>.
+   */
+  private final double mDistance;
+  /**
+   * The unique OSM ID of the feature.
+   */
+  private final long mId;
+  /**
+   * The latitude of the position on the feature nearest to the queried
+   * location.
+   */
+  private final float mLatitude;
+  /**
+   * The longitude of the position on the feature nearest to the queried
+   * location.
+   */
+  private final float mLongitude;
+  /**
+   * The name of the feature.
+   */
+  private final String mName;
+  /**
+   * The type of the feature.
+   */
+  private final EFeatureType mType;
+
+  /**
+   * Creates a new named feature.
+   *
+   * @param type      The type of the feature
+   * @param id        The unique OSM ID of the feature
+   * @param name      The name of the feature
+   * @param latitude  The latitude of the position on the feature nearest to the
+   *                  queried location
+   * @param longitude The longitude of the position on the feature nearest to
+   *                  the queried location
+   * @param distance  The distance between the queried location and the
+   *                  feature, in <tt>metres</tt>
+   */
+  public NamedFeature(final EFeatureType type, final long id, final String name, final float latitude,
+      final float longitude, final double distance) {
+    mType = type;
+    mId = id;
+    mName = name;
+    mLatitude = latitude;
+    mLongitude = longitude;
+    mDistance = distance;
+  }
+
+  /**
+   * Gets the distance between the queried location and the feature.
+   *
+   * @return The distance in <tt>metres</tt>
+   */
+  public double getDistance() {
+    return mDistance;
+  }
+
+  /**
+   * Gets the unique OSM ID of the feature. Whether it identifies a node or a
+   * way depends on the type of the feature.
+   *
+   * @return The unique OSM ID
+   */
+  public long getId() {
+    return mId;
+  }
+
+  /**
+   * Gets the latitude of the position on the feature nearest to the queried
+   * location.
+   *
+   * @return The latitude
+   */
+  public float getLatitude() {
+    return mLatitude;
+  }
+
+  /**
+   * Gets the longitude of the position on the feature nearest to the queried
+   * location.
+   *
+   * @return The longitude
+   */
+  public float getLongitude() {
+    return mLongitude;
+  }
+
+  /**
+   * Gets the name of the feature.
+   *
+   * @return The name
+   */
+  public String getName() {
+    return mName;
+  }
+
+  /**
+   * Gets the type of the feature.
+   *
+   * @return The type
+   */
+  public EFeatureType getType() {
+    return mType;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder();
+    builder.append("NamedFeature [type=");
+    builder.append(mType);
+    builder.append(", id=");
+    builder.append(mId);
+    builder.append(", name=");
+    builder.append(mName);
+    builder.append(", latitude=");
+    builder.append(mLatitude);
+    builder.append(", longitude=");
+    builder.append(mLongitude);
+    builder.append(", distance=");
+    builder.append(mDistance);
+    builder.append("]");
+    return builder.toString();
+  }
+}
@@ -0,0 +1,200 @@
+package de.unifreiburg.informatik.cobweb.searching.reverse.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import de.unifreiburg.informatik.cobweb.db.IReverseGeocodingDatabase;
+import de.unifreiburg.informatik.cobweb.db.NamedNodeData;
+import de.unifreiburg.informatik.cobweb.db.WayNameData;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.KdTree;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.SegmentIndex;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.EdgePosition;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
+import de.unifreiburg.informatik.cobweb.util.RoutingUtil;
+
+/**
+ * Spatial index over named features, used to answer reverse geocoding queries
+ * with a single lookup.<br>
+ * <br>
+ * Named nodes are kept in a {@link KdTree}, named ways are found through the
+ * {@link SegmentIndex} of the road graph, restricted to segments whose way has
+ * a name. Names are deduplicated and stored once in an array, nodes and ways
+ * only reference them by their index. The name index and OSM ID of a way are
+ * stored in primitive arrays indexed by the internal way ID, which is the ID of
+ * the road edges of the way.<br>
+ * <br>
+ * The index is built once and can not be modified afterwards. Queries do not
+ * need any synchronization and can be answered by any amount of threads in
+ * parallel.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class NamedFeatureIndex {
+  /**
+   * Name index used for ways which have no name.
+   */
+  private static final int NO_NAME = -1;
+
+  /**
+   * Builds the index of all named nodes and ways provided by the given
+   * database.
+   *
+   * @param database     The database to get the named nodes and ways from
+   * @param segmentIndex The index of the road segments to find named ways with
+   *                     or <tt>null</tt> if only named nodes should be found
+   * @return The built index
+   */
+  public static NamedFeatureIndex build(final IReverseGeocodingDatabase database,
+      final SegmentIndex<ICoreNode, ICoreEdge<ICoreNode>> segmentIndex) {
+    return new NamedFeatureIndex(database.getAllNamedNodeData(), database.getAllWayNameData(), segmentIndex);
+  }
+
+  /**
+   * The deduplicated names of all features.
+   */
+  private final String[] mNames;
+  /**
+   * The named nodes.
+   */
+  private final KdTree<NamedPoint> mNodes;
+  /**
+   * The index of the road segments to find named ways with or <tt>null</tt> if
+   * only named nodes are found.
+   */
+  private final SegmentIndex<ICoreNode, ICoreEdge<ICoreNode>> mSegmentIndex;
+  /**
+   * The index of the name of each way, indexed by internal way ID, or
+   * {@link #NO_NAME} if the way has no name.
+   */
+  private final int[] mWayNames;
+  /**
+   * The unique OSM ID of each named way, indexed by internal way ID.
+   */
+  private final long[] mWayOsmIds;
+
+  /**
+   * Creates a new index of the given named nodes and ways.
+   *
+   * @param nodes        The named nodes to index
+   * @param ways         The named ways to index
+   * @param segmentIndex The index of the road segments to find named ways with
+   *                     or <tt>null</tt> if only named nodes should be found
+   */
+  public NamedFeatureIndex(final Collection<NamedNodeData> nodes, final Collection<WayNameData> ways,
+      final SegmentIndex<ICoreNode, ICoreEdge<ICoreNode>> segmentIndex) {
+    mSegmentIndex = segmentIndex;
+
+    final Map<String, Integer> nameToIndex = new HashMap<>();
+    final List<NamedPoint> points = new ArrayList<>(nodes.size());
+    for (final NamedNodeData node : nodes) {
+      final int nameIndex = nameToIndex.computeIfAbsent(node.getName(), name -> nameToIndex.size());
+      points.add(new NamedPoint(node.getId(), nameIndex, node.getLatitude(), node.getLongitude()));
+    }
+    mNodes = new KdTree<>(points);
+
+    final int amountOfWays = ways.stream().mapToInt(WayNameData::getId).max().orElse(-1) + 1;
+    mWayNames = new int[amountOfWays];
+    mWayOsmIds = new long[amountOfWays];
+    Arrays.fill(mWayNames, NO_NAME);
+    for (final WayNameData way : ways) {
+      mWayNames[way.getId()] = nameToIndex.computeIfAbsent(way.getName(), name -> nameToIndex.size());
+      mWayOsmIds[way.getId()] = way.getOsmId();
+    }
+
+    mNames = new String[nameToIndex.size()];
+    nameToIndex.forEach((name, index) -> mNames[index] = name);
+  }
+
+  /**
+   * Gets the amount of distinct names of all features.
+   *
+   * @return The amount of distinct names
+   */
+  public int getAmountOfNames() {
+    return mNames.length;
+  }
+
+  /**
+   * Gets the amount of named nodes contained in the index.
+   *
+   * @return The amount of named nodes
+   */
+  public int getAmountOfNodes() {
+    return mNodes.size();
+  }
+
+  /**
+   * Gets the named feature nearest to the given location. That is the nearer
+   * one of the nearest named node and the nearest segment of a named way.
+   *
+   * @param latitude    The latitude of the location
+   * @param longitude   The longitude of the location
+   * @param maxDistance The maximal distance of the feature to the location, in
+   *                    <tt>metres</tt>
+   * @return The nearest named feature or empty if there is none within the
+   *         given distance
+   */
+  public Optional<NamedFeature> getNearestFeature(final float latitude, final float longitude,
+      final double maxDistance) {
+    NamedFeature nearest = null;
+
+    final Optional<NamedPoint> possibleNode =
+        mNodes.getNearestNeighbor(new NamedPoint(-1L, NO_NAME, latitude, longitude));
+    if (possibleNode.isPresent()) {
+      final NamedPoint node = possibleNode.get();
+      final double distance =
+          RoutingUtil.distanceEquiRect(latitude, longitude, node.getLatitude(), node.getLongitude());
+      if (distance <= maxDistance) {
+        nearest = new NamedFeature(EFeatureType.NODE, node.getId(), mNames[node.getNameIndex()], node.getLatitude(),
+            node.getLongitude(), distance);
+      }
+    }
+
+    if (mSegmentIndex != null && mWayNames.length != 0) {
+      final double maxWayDistance = nearest == null ? maxDistance : nearest.getDistance();
+      final Optional<EdgePosition<ICoreNode, ICoreEdge<ICoreNode>>> possiblePosition =
+          mSegmentIndex.getNearestEdge(latitude, longitude, maxWayDistance, edge -> hasName(edge.getId()));
+      if (possiblePosition.isPresent()) {
+        final EdgePosition<ICoreNode, ICoreEdge<ICoreNode>> position = possiblePosition.get();
+        final int wayId = position.getEdge().getId();
+        final double distance =
+            RoutingUtil.distanceEquiRect(latitude, longitude, position.getLatitude(), position.getLongitude());
+        if (distance <= maxWayDistance) {
+          nearest = new NamedFeature(EFeatureType.WAY, mWayOsmIds[wayId], mNames[mWayNames[wayId]],
+              position.getLatitude(), position.getLongitude(), distance);
+        }
+      }
+    }
+
+    return Optional.ofNullable(nearest);
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder();
+    builder.append("NamedFeatureIndex [names=");
+    builder.append(mNames.length);
+    builder.append(", nodes=");
+    builder.append(mNodes.size());
+    builder.append(", ways=");
+    builder.append(mWayNames.length);
+    builder.append("]");
+    return builder.toString();
+  }
+
+  /**
+   * Whether the way with the given internal ID has a name.
+   *
+   * @param wayId The internal ID of the way
+   * @return <tt>True</tt> if the way has a name, <tt>false</tt> otherwise
+   */
+  private boolean hasName(final int wayId) {
+    return wayId >= 0 && wayId < mWayNames.length && mWayNames[wayId] != NO_NAME;
+  }
+}
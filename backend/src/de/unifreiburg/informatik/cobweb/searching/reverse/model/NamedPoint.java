@@ -0,0 +1,83 @@
+package de.unifreiburg.informatik.cobweb.searching.reverse.model;
+
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ISpatial;
+
+/**
+ * Position of a named node as stored in the {@link NamedFeatureIndex}. The
+ * name itself is not stored but referenced by its index in the names of the
+ * feature index, such that names shared by many nodes are only kept once.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+final class NamedPoint implements ISpatial {
+  /**
+   * The unique OSM ID of the node.
+   */
+  private final long mId;
+  /**
+   * The latitude of the node.
+   */
+  private float mLatitude;
+  /**
+   * The longitude of the node.
+   */
+  private float mLongitude;
+  /**
+   * The index of the name of the node in the names of the feature index.
+   */
+  private final int mNameIndex;
+
+  /**
+   * Creates a new named point.
+   *
+   * @param id        The unique OSM ID of the node
+   * @param nameIndex The index of the name of the node in the names of the
+   *                  feature index
+   * @param latitude  The latitude of the node
+   * @param longitude The longitude of the node
+   */
+  NamedPoint(final long id, final int nameIndex, final float latitude, final float longitude) {
+    mId = id;
+    mNameIndex = nameIndex;
+    mLatitude = latitude;
+    mLongitude = longitude;
+  }
+
+  /**
+   * Gets the unique OSM ID of the node.
+   *
+   * @return The unique OSM ID
+   */
+  public long getId() {
+    return mId;
+  }
+
+  @Override
+  public float getLatitude() {
+    return mLatitude;
+  }
+
+  @Override
+  public float getLongitude() {
+    return mLongitude;
+  }
+
+  /**
+   * Gets the index of the name of the node in the names of the feature index.
+   *
+   * @return The index of the name
+   */
+  public int getNameIndex() {
+    return mNameIndex;
+  }
+
+  @Override
+  public void setLatitude(final float latitude) {
+    mLatitude = latitude;
+  }
+
+  @Override
+  public void setLongitude(final float longitude) {
+    mLongitude = longitude;
+  }
+}
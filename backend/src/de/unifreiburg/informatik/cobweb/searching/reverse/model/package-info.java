@@ -0,0 +1,7 @@
+/**
+ * The model used for reverse geocoding. Like an index of named features that
+ * offers nearest feature queries.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+package de.unifreiburg.informatik.cobweb.searching.reverse.model;
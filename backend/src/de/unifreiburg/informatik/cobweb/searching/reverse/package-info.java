@@ -0,0 +1,7 @@
+/**
+ * Package containing classes relevant for reverse geocoding. Like finding the
+ * name of the nearest named place or street to a given position.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+package de.unifreiburg.informatik.cobweb.searching.reverse;
@@ -0,0 +1,133 @@
+package de.unifreiburg.informatik.cobweb.searching.reverse.server;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+
+import de.unifreiburg.informatik.cobweb.searching.reverse.model.NamedFeatureIndex;
+import de.unifreiburg.informatik.cobweb.searching.reverse.server.model.ReverseGeocodingRequest;
+import de.unifreiburg.informatik.cobweb.util.JsonUtil;
+import de.unifreiburg.informatik.cobweb.util.http.EHttpContentType;
+import de.unifreiburg.informatik.cobweb.util.http.EHttpStatus;
+import de.unifreiburg.informatik.cobweb.util.http.HttpRequest;
+import de.unifreiburg.informatik.cobweb.util.http.HttpResponseBuilder;
+import de.unifreiburg.informatik.cobweb.util.http.HttpUtil;
+import de.unifreiburg.informatik.cobweb.util.http.IHttpHandler;
+import de.unifreiburg.informatik.cobweb.util.http.IHttpResponder;
+
+/**
+ * Class that handles a reverse geocoding client. It is designed to communicate
+ * with a client via HTTP and serve reverse geocoding requests.<br>
+ * <br>
+ * The handler is registered for its resource at the HTTP server and handles
+ * any amount of requests in parallel.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class ClientHandler implements IHttpHandler {
+  /**
+   * Resource that is to be requested from a client if he submits a reverse
+   * geocoding query.
+   */
+  static final String API_RESOURCE = "/reversegeocoding";
+  /**
+   * Logger used for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(ClientHandler.class);
+  /**
+   * The index of the named features to search in.
+   */
+  private final NamedFeatureIndex mIndex;
+  /**
+   * The maximal distance of a found feature to the requested location, in
+   * <tt>metres</tt>.
+   */
+  private final double mMaxDistance;
+
+  /**
+   * Creates a new handler which handles requests using the given index.
+   *
+   * @param index       The index of the named features to search in
+   * @param maxDistance The maximal distance of a found feature to the
+   *                    requested location, in <tt>metres</tt>
+   */
+  public ClientHandler(final NamedFeatureIndex index, final double maxDistance) {
+    mIndex = index;
+    mMaxDistance = maxDistance;
+  }
+
+  /**
+   * Handles the given HTTP request.
+   *
+   * @param request   The request to handle
+   * @param responder The responder to send the response with
+   * @throws IOException If an I/O exception occurred while sending the response
+   *                     to the client
+   */
+  @Override
+  public void handleRequest(final HttpRequest request, final IHttpResponder responder) throws IOException {
+    LOGGER.debug("Handling reverse geocoding HTTP request");
+
+    // Method not allowed
+    final String type = request.getType().toUpperCase();
+    if (!type.equals("OPTIONS") && !type.equals("POST")) {
+      responder.send(new HttpResponseBuilder().setStatus(EHttpStatus.METHOD_NOT_ALLOWED)
+          .putHeader("Allow", "OPTIONS, POST").build());
+      return;
+    }
+
+    if (type.equals("OPTIONS")) {
+      serveOptionsRequest(responder);
+      return;
+    }
+
+    // Type is a post request
+    servePost(request, responder);
+  }
+
+  /**
+   * Serves a HTTP request of type <tt>OPTIONS</tt>.
+   *
+   * @param responder The responder to send the response with
+   * @throws IOException If an I/O exception occurred while sending the response
+   *                     to the client
+   */
+  private void serveOptionsRequest(final IHttpResponder responder) throws IOException {
+    // Send back the supported methods
+    responder.send(new HttpResponseBuilder().setStatus(EHttpStatus.OK)
+        .putHeader("Access-Control-Allow-Methods", "POST").putHeader("Access-Control-Allow-Headers", "Content-Type")
+        .putHeader("Access-Control-Max-Age", String.valueOf(86400)).build());
+  }
+
+  /**
+   * Serves a HTTP request of type <tt>POST</tt>.
+   *
+   * @param request   The request to serve
+   * @param responder The responder to send the response with
+   * @throws IOException If an I/O exception occurred while sending the response
+   *                     to the client
+   */
+  private void servePost(final HttpRequest request, final IHttpResponder responder) throws IOException {
+    final EHttpContentType contentType = HttpUtil.parseContentType(request.getHeaders().get("Content-Type"));
+    if (contentType == null || contentType != EHttpContentType.JSON) {
+      responder.send(new HttpResponseBuilder().setStatus(EHttpStatus.BAD_REQUEST).build());
+      return;
+    }
+
+    // Parse the JSON request and handle it
+    final Gson gson = JsonUtil.getGson();
+    try {
+      final ReverseGeocodingRequest reverseGeocodingRequest =
+          gson.fromJson(request.getContent(), ReverseGeocodingRequest.class);
+      final RequestHandler handler = new RequestHandler(responder, gson, mIndex, mMaxDistance);
+      handler.handleRequest(reverseGeocodingRequest);
+    } catch (final JsonSyntaxException e) {
+      responder.send(new HttpResponseBuilder().setStatus(EHttpStatus.BAD_REQUEST).build());
+      return;
+    }
+  }
+}
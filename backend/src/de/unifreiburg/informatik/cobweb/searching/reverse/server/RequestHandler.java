@@ -0,0 +1,114 @@
+package de.unifreiburg.informatik.cobweb.searching.reverse.server;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+
+import de.unifreiburg.informatik.cobweb.searching.reverse.model.NamedFeature;
+import de.unifreiburg.informatik.cobweb.searching.reverse.model.NamedFeatureIndex;
+import de.unifreiburg.informatik.cobweb.searching.reverse.server.model.ReverseGeocodingRequest;
+import de.unifreiburg.informatik.cobweb.searching.reverse.server.model.ReverseGeocodingResponse;
+import de.unifreiburg.informatik.cobweb.util.RoutingUtil;
+import de.unifreiburg.informatik.cobweb.util.http.EHttpContentType;
+import de.unifreiburg.informatik.cobweb.util.http.HttpResponseBuilder;
+import de.unifreiburg.informatik.cobweb.util.http.IHttpResponder;
+
+/**
+ * Class that handles a reverse geocoding request. It parses the request,
+ * searches the nearest named feature and builds and sends a proper
+ * response.<br>
+ * <br>
+ * To handle a request call {@link #handleRequest(ReverseGeocodingRequest)}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class RequestHandler {
+  /**
+   * Logger used for logging
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(RequestHandler.class);
+  /**
+   * The GSON object used to format JSON responses.
+   */
+  private final Gson mGson;
+  /**
+   * The index of the named features to search in.
+   */
+  private final NamedFeatureIndex mIndex;
+  /**
+   * The maximal distance of a found feature to the requested location, in
+   * <tt>metres</tt>.
+   */
+  private final double mMaxDistance;
+  /**
+   * The responder to send the response to the client with.
+   */
+  private final IHttpResponder mResponder;
+
+  /**
+   * Creates a new handler which handles a request using the given index.<br>
+   * <br>
+   * To handle a request call {@link #handleRequest(ReverseGeocodingRequest)}.
+   *
+   * @param responder   The responder to send the response with
+   * @param gson        The GSON object used to format JSON responses
+   * @param index       The index of the named features to search in
+   * @param maxDistance The maximal distance of a found feature to the
+   *                    requested location, in <tt>metres</tt>
+   */
+  public RequestHandler(final IHttpResponder responder, final Gson gson, final NamedFeatureIndex index,
+      final double maxDistance) {
+    mResponder = responder;
+    mGson = gson;
+    mIndex = index;
+    mMaxDistance = maxDistance;
+  }
+
+  /**
+   * Handles the given reverse geocoding request. It searches the named feature
+   * nearest to the requested location and constructs and sends a proper
+   * response.
+   *
+   * @param request The request to handle
+   * @throws IOException If an I/O exception occurred while sending a response
+   */
+  public void handleRequest(final ReverseGeocodingRequest request) throws IOException {
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Handling request: {}", request);
+    }
+    final long startTime = System.nanoTime();
+
+    final Optional<NamedFeature> possibleFeature =
+        mIndex.getNearestFeature(request.getLatitude(), request.getLongitude(), mMaxDistance);
+
+    final long endTime = System.nanoTime();
+    final long time = RoutingUtil.nanosToMillis(endTime - startTime);
+
+    // Build and send response
+    if (!possibleFeature.isPresent()) {
+      sendResponse(new ReverseGeocodingResponse(time));
+      return;
+    }
+    final NamedFeature feature = possibleFeature.get();
+    sendResponse(new ReverseGeocodingResponse(time, feature.getType(), feature.getId(), feature.getName(),
+        feature.getLatitude(), feature.getLongitude(), feature.getDistance()));
+  }
+
+  /**
+   * Sends the given reverse geocoding response.
+   *
+   * @param response The response to send
+   * @throws IOException If an I/O exception occurred while sending the response
+   */
+  private void sendResponse(final ReverseGeocodingResponse response) throws IOException {
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Sending response: {}", response);
+    }
+    final String content = mGson.toJson(response);
+    mResponder.send(new HttpResponseBuilder().setContentType(EHttpContentType.JSON).setContent(content).build());
+  }
+}
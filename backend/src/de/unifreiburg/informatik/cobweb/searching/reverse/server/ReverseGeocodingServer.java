@@ -0,0 +1,181 @@
+package de.unifreiburg.informatik.cobweb.searching.reverse.server;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.unifreiburg.informatik.cobweb.config.IReverseGeocodingConfigProvider;
+import de.unifreiburg.informatik.cobweb.searching.reverse.model.NamedFeatureIndex;
+import de.unifreiburg.informatik.cobweb.searching.reverse.server.model.ReverseGeocodingRequest;
+import de.unifreiburg.informatik.cobweb.searching.reverse.server.model.ReverseGeocodingResponse;
+import de.unifreiburg.informatik.cobweb.util.http.HttpServer;
+import de.unifreiburg.informatik.cobweb.util.http.WorkerPool;
+
+/**
+ * A server which offers a REST API that is able to answer reverse geocoding
+ * requests.<br>
+ * <br>
+ * After construction the {@link #initialize()} method should be called.
+ * Afterwards it can be started by using {@link #start()}. Request the server to
+ * shutdown by using {@link #shutdown()}, the current status can be checked with
+ * {@link #isRunning()}. Once a server was shutdown it should not be used
+ * anymore, instead create a new one.<br>
+ * <br>
+ * A request consists of a latitude and longitude. A response consists of the
+ * nearest named feature, which is either a named OSM node or a named OSM way,
+ * including its name, unique OSM ID and the position on the feature nearest to
+ * the requested location. It also includes the time it needed to answer the
+ * query in milliseconds.<br>
+ * <br>
+ * The REST API communicates over HTTP by sending and receiving JSON objects.
+ * Requests are parsed into {@link ReverseGeocodingRequest} and responses into
+ * {@link ReverseGeocodingResponse}. Accepted HTTP methods are <tt>POST</tt> and
+ * <tt>OPTIONS</tt>. The server will send <tt>BAD REQUEST</tt> to invalid
+ * requests.<br>
+ * <br>
+ * The API is served by a {@link HttpServer} shared with the other services.
+ * For construction it wants a configuration, the HTTP server and an index of
+ * the named features.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class ReverseGeocodingServer {
+  /**
+   * Logger used for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(ReverseGeocodingServer.class);
+  /**
+   * Configuration provider which provides the port and the worker limits that
+   * should be used by the server.
+   */
+  private final IReverseGeocodingConfigProvider mConfig;
+  /**
+   * The HTTP server serving the API, shared with the other services.
+   */
+  private final HttpServer mHttpServer;
+  /**
+   * The index of the named features to search in. Guarded by this server, see
+   * {@link #reload(NamedFeatureIndex)}.
+   */
+  private NamedFeatureIndex mIndex;
+  /**
+   * Whether or not the handler of the server is registered.
+   */
+  private volatile boolean mIsRunning;
+  /**
+   * The pool of workers handling the requests of the server.
+   */
+  private final WorkerPool mWorkerPool;
+
+  /**
+   * Creates a new reverse geocoding server with the given configuration that
+   * works with the given index.<br>
+   * <br>
+   * After construction the {@link #initialize()} method should be called.
+   * Afterwards it can be started by using {@link #start()}. Request the server
+   * to shutdown by using {@link #shutdown()}, the current status can be checked
+   * with {@link #isRunning()}. Once a server was shutdown it should not be used
+   * anymore, instead create a new one.
+   *
+   * @param config     Configuration provider which provides the port, the
+   *                   worker limits and the maximal distance that should be
+   *                   used by the server
+   * @param httpServer The HTTP server to serve the API on, shared with the
+   *                   other services
+   * @param index      The index of the named features to search in
+   */
+  public ReverseGeocodingServer(final IReverseGeocodingConfigProvider config, final HttpServer httpServer,
+      final NamedFeatureIndex index) {
+    mConfig = config;
+    mHttpServer = httpServer;
+    mWorkerPool = new WorkerPool("reverseGeocoding", config.getReverseGeocodingServerWorkers(),
+        config.getReverseGeocodingServerQueueLimit(), config.getServerQueueTimeout());
+    mIndex = index;
+  }
+
+  /**
+   * Initializes the server. Call this method prior to starting the server with
+   * {@link #start()}. Do not call it again afterwards.
+   *
+   * @throws UncheckedIOException If an I/O exception occurred while binding
+   *                              the port.
+   */
+  public void initialize() throws UncheckedIOException {
+    try {
+      mHttpServer.bind(mConfig.getReverseGeocodingServerPort());
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Whether or not the server is currently running.<br>
+   * <br>
+   * A request to shutdown can be send using {@link #shutdown()}.
+   *
+   * @return <tt>True</tt> if the server is running, <tt>false</tt> otherwise
+   */
+  public boolean isRunning() {
+    return mIsRunning;
+  }
+
+  /**
+   * Replaces the index used to answer reverse geocoding requests, for example
+   * after the routing model was built again from updated data.<br>
+   * <br>
+   * Requests received afterwards are handled with the given index, requests that
+   * are already being handled finish with the previous one. The server does not
+   * need to be stopped for that.
+   *
+   * @param index The index of the named features to search in
+   */
+  public synchronized void reload(final NamedFeatureIndex index) {
+    mIndex = index;
+    if (mIsRunning) {
+      registerHandler();
+    }
+    LOGGER.info("Reloaded reverse geocoding server");
+  }
+
+  /**
+   * Requests the server to shutdown.<br>
+   * <br>
+   * The current status can be checked with {@link #isRunning()}. Once a server
+   * was shutdown it should not be used anymore, instead create a new one.
+   */
+  public void shutdown() {
+    mHttpServer.unregister(ClientHandler.API_RESOURCE);
+    mIsRunning = false;
+    mWorkerPool.shutdown();
+    LOGGER.info("Set shutdown request to reverse geocoding server");
+  }
+
+  /**
+   * Starts the server.<br>
+   * <br>
+   * Make sure {@link #initialize()} is called before. Request the server to
+   * shutdown by using {@link #shutdown()}, the current status can be checked
+   * with {@link #isRunning()}. Once a server was shutdown it should not be used
+   * anymore, instead create a new one.
+   */
+  public void start() {
+    if (isRunning()) {
+      return;
+    }
+    LOGGER.info("Starting reverse geocoding server");
+    registerHandler();
+    mIsRunning = true;
+  }
+
+  /**
+   * Registers a handler answering requests with the current tools at the HTTP
+   * server, running on the pool of the server, replacing the previous one.
+   */
+  private synchronized void registerHandler() {
+    mHttpServer.register(ClientHandler.API_RESOURCE,
+        new ClientHandler(mIndex, mConfig.getReverseGeocodingMaxDistance()), mWorkerPool);
+  }
+
+}
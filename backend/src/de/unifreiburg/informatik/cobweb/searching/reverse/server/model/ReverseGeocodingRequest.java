@@ -0,0 +1,72 @@
+package de.unifreiburg.informatik.cobweb.searching.reverse.server.model;
+
+/**
+ * POJO that models a reverse geocoding request.<br>
+ * <br>
+ * A request consists of the latitude and longitude of the location to get the
+ * name of.<br>
+ * <br>
+ * It has the exact structure that is expected as request format for the REST
+ * API. It is primarily used to be constructed from the clients JSON request.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class ReverseGeocodingRequest {
+  /**
+   * The latitude of the location to get the name of.
+   */
+  private float mLatitude;
+  /**
+   * The longitude of the location to get the name of.
+   */
+  private float mLongitude;
+
+  /**
+   * Creates a new reverse geocoding request.
+   *
+   * @param latitude  The latitude of the location to get the name of
+   * @param longitude The longitude of the location to get the name of
+   */
+  public ReverseGeocodingRequest(final float latitude, final float longitude) {
+    mLatitude = latitude;
+    mLongitude = longitude;
+  }
+
+  /**
+   * Creates a new empty reverse geocoding request. Is used to construct the
+   * element via reflection.
+   */
+  @SuppressWarnings("unused")
+  private ReverseGeocodingRequest() {
+    // Empty constructor for construction through reflection
+  }
+
+  /**
+   * Gets the latitude of the location to get the name of.
+   *
+   * @return The latitude of the location
+   */
+  public float getLatitude() {
+    return mLatitude;
+  }
+
+  /**
+   * Gets the longitude of the location to get the name of.
+   *
+   * @return The longitude of the location
+   */
+  public float getLongitude() {
+    return mLongitude;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder();
+    builder.append("ReverseGeocodingRequest [latitude=");
+    builder.append(mLatitude);
+    builder.append(", longitude=");
+    builder.append(mLongitude);
+    builder.append("]");
+    return builder.toString();
+  }
+}
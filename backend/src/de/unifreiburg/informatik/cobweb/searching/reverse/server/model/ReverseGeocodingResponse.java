@@ -0,0 +1,189 @@
+package de.unifreiburg.informatik.cobweb.searching.reverse.server.model;
+
+import de.unifreiburg.informatik.cobweb.searching.reverse.model.EFeatureType;
+
+/**
+ * POJO that models a reverse geocoding response.<br>
+ * <br>
+ * A response consists of the named feature nearest to the requested location,
+ * including its name, type, unique OSM ID, the position on the feature nearest
+ * to the location and the distance between both. It also includes the time it
+ * needed to answer the query in milliseconds.<br>
+ * <br>
+ * It has the exact structure that is expected as response format for the REST
+ * API. It is primarily used to be constructed and then encoded to JSON to be
+ * send to the client.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class ReverseGeocodingResponse {
+  /**
+   * The distance between the requested location and the feature, in metres.
+   */
+  private double mDistance;
+  /**
+   * The unique OSM ID of the feature or <tt>-1</tt> to indicate that there is
+   * no named feature near the requested location.
+   */
+  private long mId;
+  /**
+   * The latitude of the position on the feature nearest to the requested
+   * location.
+   */
+  private float mLatitude;
+  /**
+   * The longitude of the position on the feature nearest to the requested
+   * location.
+   */
+  private float mLongitude;
+  /**
+   * The name of the feature or <tt>null</tt> if there is no named feature near
+   * the requested location.
+   */
+  private String mName;
+  /**
+   * The duration answering the query took, in milliseconds.
+   */
+  private long mTime;
+  /**
+   * The value of the type of the feature, see {@link EFeatureType#getValue()}.
+   */
+  private int mType;
+
+  /**
+   * Creates a new empty reverse geocoding response, indicating that there is
+   * no named feature near the requested location.
+   *
+   * @param time The duration answering the query took, in milliseconds
+   */
+  public ReverseGeocodingResponse(final long time) {
+    mTime = time;
+    mId = -1L;
+    mType = -1;
+  }
+
+  /**
+   * Creates a new reverse geocoding response.
+   *
+   * @param time      The duration answering the query took, in milliseconds
+   * @param type      The type of the feature
+   * @param id        The unique OSM ID of the feature
+   * @param name      The name of the feature
+   * @param latitude  The latitude of the position on the feature nearest to the
+   *                  requested location
+   * @param longitude The longitude of the position on the feature nearest to
+   *                  the requested location
+   * @param distance  The distance between the requested location and the
+   *                  feature, in metres
+   */
+  public ReverseGeocodingResponse(final long time, final EFeatureType type, final long id, final String name,
+      final float latitude, final float longitude, final double distance) {
+    mTime = time;
+    mType = type.getValue();
+    mId = id;
+    mName = name;
+    mLatitude = latitude;
+    mLongitude = longitude;
+    mDistance = distance;
+  }
+
+  /**
+   * Creates a new empty reverse geocoding response. Is used to construct the
+   * element via reflection.
+   */
+  @SuppressWarnings("unused")
+  private ReverseGeocodingResponse() {
+    // Empty constructor for construction through reflection
+  }
+
+  /**
+   * Gets the distance between the requested location and the feature.
+   *
+   * @return The distance in metres
+   */
+  public double getDistance() {
+    return mDistance;
+  }
+
+  /**
+   * Gets the unique OSM ID of the feature or <tt>-1</tt> to indicate that
+   * there is no named feature near the requested location.
+   *
+   * @return The unique OSM ID of the feature or <tt>-1</tt>
+   */
+  public long getId() {
+    return mId;
+  }
+
+  /**
+   * Gets the latitude of the position on the feature nearest to the requested
+   * location.
+   *
+   * @return The latitude
+   */
+  public float getLatitude() {
+    return mLatitude;
+  }
+
+  /**
+   * Gets the longitude of the position on the feature nearest to the requested
+   * location.
+   *
+   * @return The longitude
+   */
+  public float getLongitude() {
+    return mLongitude;
+  }
+
+  /**
+   * Gets the name of the feature.
+   *
+   * @return The name or <tt>null</tt> if there is no named feature near the
+   *         requested location
+   */
+  public String getName() {
+    return mName;
+  }
+
+  /**
+   * Gets the duration answering the query took, in milliseconds.
+   *
+   * @return The duration to get
+   */
+  public long getTime() {
+    return mTime;
+  }
+
+  /**
+   * Gets the type of the feature.
+   *
+   * @return The type or <tt>null</tt> if there is no named feature near the
+   *         requested location
+   */
+  public EFeatureType getType() {
+    return EFeatureType.fromValue(mType);
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder();
+    builder.append("ReverseGeocodingResponse [type=");
+    builder.append(mType);
+    builder.append(", id=");
+    builder.append(mId);
+    builder.append(", name=");
+    builder.append(mName);
+    builder.append(", latitude=");
+    builder.append(mLatitude);
+    builder.append(", longitude=");
+    builder.append(mLongitude);
+    builder.append(", distance=");
+    builder.append(mDistance);
+    builder.append("]");
+    return builder.toString();
+  }
+}
@@ -0,0 +1,7 @@
+/**
+ * Offers a server application defining a REST API that answers reverse
+ * geocoding requests.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+package de.unifreiburg.informatik.cobweb.searching.reverse.server;
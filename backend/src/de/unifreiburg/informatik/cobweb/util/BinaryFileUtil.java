@@ -0,0 +1,163 @@
+package de.unifreiburg.informatik.cobweb.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Utility class which provides methods to write and memory map versioned,
+ * checksummed binary files.<br>
+ * <br>
+ * Every file starts with a header consisting of
+ * <ol>
+ * <li>Magic: An <tt>int</tt> identifying the format of the file</li>
+ * <li>Version: An <tt>int</tt> identifying the version of the format</li>
+ * <li>Payload size: A <tt>long</tt> with the amount of bytes following the
+ * header</li>
+ * <li>Checksum: A <tt>long</tt> with the CRC32 checksum of the payload</li>
+ * </ol>
+ * The payload follows directly after the header. Its layout is up to the
+ * format.<br>
+ * <br>
+ * Files are mapped as a single buffer, thus a file including its header can
+ * not exceed {@link Integer#MAX_VALUE} bytes, about 2 GB. Mapping reads the
+ * whole payload once to verify the checksum, formats that need bigger files or
+ * partial loading have to split their data into multiple files.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class BinaryFileUtil {
+  /**
+   * The size of the header in bytes.
+   */
+  public static final int HEADER_SIZE = Integer.BYTES + Integer.BYTES + Long.BYTES + Long.BYTES;
+  /**
+   * The offset of the checksum in the header, in bytes.
+   */
+  private static final int CHECKSUM_OFFSET = Integer.BYTES + Integer.BYTES + Long.BYTES;
+
+  /**
+   * Computes the CRC32 checksum of the remaining bytes of the given buffer. The
+   * position of the buffer is not changed.
+   *
+   * @param buffer The buffer to compute the checksum of
+   * @return The checksum of the remaining bytes
+   */
+  public static long checksum(final ByteBuffer buffer) {
+    final CRC32 crc = new CRC32();
+    crc.update(buffer.duplicate());
+    return crc.getValue();
+  }
+
+  /**
+   * Creates the given file with a header for the given format and maps its
+   * payload into memory for writing.<br>
+   * <br>
+   * The returned buffer is positioned at the start of the payload and has a
+   * capacity of exactly the given payload size. After writing the payload
+   * {@link #finish(MappedByteBuffer)} must be called which computes the
+   * checksum and flushes the file.
+   *
+   * @param path        The file to create, an existing file is overwritten
+   * @param magic       The magic identifying the format
+   * @param version     The version of the format
+   * @param payloadSize The exact amount of bytes of the payload
+   * @return A buffer over the whole file, positioned at the payload
+   * @throws IOException If an I/O exception occurred while creating the file
+   *                     or if the payload is too big to be mapped at once
+   */
+  public static MappedByteBuffer create(final Path path, final int magic, final int version,
+      final long payloadSize) throws IOException {
+    if (payloadSize < 0 || payloadSize + HEADER_SIZE > Integer.MAX_VALUE) {
+      throw new IOException("Payload size not supported: " + payloadSize);
+    }
+    final Path parent = path.toAbsolutePath().getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    Files.deleteIfExists(path);
+
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+        StandardOpenOption.WRITE)) {
+      final MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, 0, HEADER_SIZE + payloadSize);
+      buffer.putInt(magic);
+      buffer.putInt(version);
+      buffer.putLong(payloadSize);
+      // Placeholder, the checksum is written when finishing
+      buffer.putLong(0L);
+      return buffer;
+    }
+  }
+
+  /**
+   * Finishes a file created by {@link #create(Path, int, int, long)}. Computes
+   * the checksum of the payload, writes it into the header and flushes the
+   * content to the file.
+   *
+   * @param buffer The buffer returned by {@link #create(Path, int, int, long)}
+   */
+  public static void finish(final MappedByteBuffer buffer) {
+    final ByteBuffer payload = buffer.duplicate();
+    payload.position(HEADER_SIZE);
+    payload.limit(payload.capacity());
+    buffer.putLong(CHECKSUM_OFFSET, BinaryFileUtil.checksum(payload));
+    buffer.force();
+  }
+
+  /**
+   * Maps the payload of the given file into memory for reading.<br>
+   * <br>
+   * Verifies the magic, the version, the size and the checksum of the file
+   * before returning.
+   *
+   * @param path    The file to map
+   * @param magic   The expected magic of the format
+   * @param version The expected version of the format
+   * @return A read-only buffer over the payload, positioned at its start
+   * @throws IOException If an I/O exception occurred while mapping the file or
+   *                     if the file is not a valid file of the given format
+   *                     and version
+   */
+  public static ByteBuffer map(final Path path, final int magic, final int version) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      final long fileSize = channel.size();
+      if (fileSize < HEADER_SIZE || fileSize > Integer.MAX_VALUE) {
+        throw new IOException("File size not supported: " + fileSize);
+      }
+      final MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, fileSize);
+
+      final int fileMagic = buffer.getInt();
+      if (fileMagic != magic) {
+        throw new IOException("Unknown file format, magic was: " + Integer.toHexString(fileMagic));
+      }
+      final int fileVersion = buffer.getInt();
+      if (fileVersion != version) {
+        throw new IOException("Unsupported format version " + fileVersion + ", expected " + version);
+      }
+      final long payloadSize = buffer.getLong();
+      if (payloadSize != fileSize - HEADER_SIZE) {
+        throw new IOException("File is truncated, expected payload of " + payloadSize + " bytes");
+      }
+      final long expectedChecksum = buffer.getLong();
+
+      final ByteBuffer payload = buffer.slice();
+      if (BinaryFileUtil.checksum(payload) != expectedChecksum) {
+        throw new IOException("Checksum mismatch, file is corrupted");
+      }
+      return payload;
+    }
+  }
+
+  /**
+   * Utility class. No implementation.
+   */
+  private BinaryFileUtil() {
+
+  }
+}
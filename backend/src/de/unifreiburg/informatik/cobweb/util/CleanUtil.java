@@ -1,6 +1,7 @@
 package de.unifreiburg.informatik.cobweb.util;
 
 import java.io.IOException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.sql.DriverManager;
@@ -9,9 +10,13 @@ import java.sql.SQLException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import de.unifreiburg.informatik.cobweb.bundle.EBundleArtifact;
+import de.unifreiburg.informatik.cobweb.bundle.ModelBundle;
 import de.unifreiburg.informatik.cobweb.config.IDatabaseConfigProvider;
+import de.unifreiburg.informatik.cobweb.config.INameSearchConfigProvider;
 import de.unifreiburg.informatik.cobweb.config.IRoutingConfigProvider;
 import de.unifreiburg.informatik.cobweb.db.ScriptExecutor;
+import de.unifreiburg.informatik.cobweb.routing.model.cache.TiledRoadGraphCache;
 
 /**
  * Utility class which provides methods to clean databases, caches and
@@ -31,16 +36,23 @@ public final class CleanUtil {
    * <br>
    * Will only clean if the corresponding flags are set, namely
    * {@link IRoutingConfigProvider#useGraphCache()} and
-   * {@link IDatabaseConfigProvider#useExternalDb()}.
+   * {@link IDatabaseConfigProvider#useExternalDb()}. The model bundle, the
+   * tiled graph and the name search index are always cleaned.
    *
-   * @param routingConfig  The routing configuration providing paths to the
-   *                       graph cache
-   * @param databaseConfig The database configuration providing paths to the
-   *                       external database
+   * @param routingConfig    The routing configuration providing paths to the
+   *                         graph cache
+   * @param databaseConfig   The database configuration providing paths to the
+   *                         external database
+   * @param nameSearchConfig The name search configuration providing the path
+   *                         to the name search index
    */
-  public static void clean(final IRoutingConfigProvider routingConfig, final IDatabaseConfigProvider databaseConfig) {
+  public static void clean(final IRoutingConfigProvider routingConfig, final IDatabaseConfigProvider databaseConfig,
+      final INameSearchConfigProvider nameSearchConfig) {
     LOGGER.info("Starting to clean");
     CleanUtil.cleanGraphCache(routingConfig);
+    CleanUtil.cleanModelBundle(routingConfig);
+    CleanUtil.cleanTiledGraph(routingConfig);
+    CleanUtil.deleteIfPossible(nameSearchConfig.getNameSearchIndex());
     CleanUtil.cleanDatabase(databaseConfig);
   }
 
@@ -72,8 +84,8 @@ public final class CleanUtil {
   /**
    * Cleans the graph cache provided by the given configuration.<br>
    * <br>
-   * This includes the graph cache and its info file, if the flag
-   * {@link IRoutingConfigProvider#useGraphCache()} is set.
+   * This includes the graph and timetable cache and their info files, if the
+   * flag {@link IRoutingConfigProvider#useGraphCache()} is set.
    *
    * @param routingConfig The routing configuration providing paths to the graph
    *                      cache
@@ -85,6 +97,49 @@ public final class CleanUtil {
 
     CleanUtil.deleteIfPossible(routingConfig.getGraphCache());
     CleanUtil.deleteIfPossible(routingConfig.getGraphCacheInfo());
+    CleanUtil.deleteIfPossible(routingConfig.getTimetableCache());
+    CleanUtil.deleteIfPossible(routingConfig.getTimetableCacheInfo());
+  }
+
+  /**
+   * Cleans the model bundle provided by the given configuration. This includes
+   * its manifest, all artifacts and the bundle directory itself.
+   *
+   * @param routingConfig The routing configuration providing the path to the
+   *                      model bundle
+   */
+  private static void cleanModelBundle(final IRoutingConfigProvider routingConfig) {
+    final Path bundle = routingConfig.getModelBundle();
+    // Delete the manifest first such that a partially cleaned bundle is not used
+    CleanUtil.deleteIfPossible(bundle.resolve(ModelBundle.MANIFEST));
+    for (final EBundleArtifact artifact : EBundleArtifact.values()) {
+      CleanUtil.deleteIfPossible(bundle.resolve(artifact.getFileName()));
+    }
+    CleanUtil.deleteIfPossible(bundle);
+  }
+
+  /**
+   * Cleans the tiled graph provided by the given configuration. This includes
+   * its index, all tiles and the directory itself.
+   *
+   * @param routingConfig The routing configuration providing the path to the
+   *                      tiled graph
+   */
+  private static void cleanTiledGraph(final IRoutingConfigProvider routingConfig) {
+    final Path tiledGraph = routingConfig.getTiledGraph();
+    if (!Files.isDirectory(tiledGraph)) {
+      return;
+    }
+    // Delete the index first such that partially cleaned tiles are not used
+    CleanUtil.deleteIfPossible(tiledGraph.resolve(TiledRoadGraphCache.INDEX));
+    try (DirectoryStream<Path> tiles = Files.newDirectoryStream(tiledGraph, "tile*.bin")) {
+      for (final Path tile : tiles) {
+        CleanUtil.deleteIfPossible(tile);
+      }
+    } catch (final IOException e) {
+      // Ignore the problem
+    }
+    CleanUtil.deleteIfPossible(tiledGraph);
   }
 
   /**
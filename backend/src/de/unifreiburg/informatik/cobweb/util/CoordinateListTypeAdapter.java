@@ -0,0 +1,84 @@
+package de.unifreiburg.informatik.cobweb.util;
+
+import java.io.IOException;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import de.unifreiburg.informatik.cobweb.util.collections.CoordinateList;
+
+/**
+ * Type adapter for lists of coordinates, like the geometries of routes.<br>
+ * <br>
+ * A list is written as array of coordinates, each being an array of its
+ * latitude and longitude. Values are written in their shortest float
+ * representation, directly from the primitive values of the list.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class CoordinateListTypeAdapter extends TypeAdapter<CoordinateList> {
+  /**
+   * The initial capacity of lists read from JSON.
+   */
+  private static final int INITIAL_CAPACITY = 2;
+
+  /**
+   * Writes the given value of a coordinate.
+   *
+   * @param out   The writer to write to
+   * @param value The value to write
+   * @throws IOException If an I/O exception occurred while writing
+   */
+  private static void writeValue(final JsonWriter out, final float value) throws IOException {
+    if (Float.isNaN(value) || Float.isInfinite(value)) {
+      throw new IllegalArgumentException("JSON forbids NaN and infinities: " + value);
+    }
+    out.jsonValue(Float.toString(value));
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see com.google.gson.TypeAdapter#read(com.google.gson.stream.JsonReader)
+   */
+  @Override
+  public CoordinateList read(final JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    final CoordinateList coordinates = new CoordinateList(INITIAL_CAPACITY);
+    in.beginArray();
+    while (in.hasNext()) {
+      in.beginArray();
+      final float latitude = (float) in.nextDouble();
+      final float longitude = (float) in.nextDouble();
+      in.endArray();
+      coordinates.add(latitude, longitude);
+    }
+    in.endArray();
+    return coordinates;
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see com.google.gson.TypeAdapter#write(com.google.gson.stream.JsonWriter,
+   * java.lang.Object)
+   */
+  @Override
+  public void write(final JsonWriter out, final CoordinateList coordinates) throws IOException {
+    if (coordinates == null) {
+      out.nullValue();
+      return;
+    }
+    out.beginArray();
+    for (int i = 0; i < coordinates.size(); i++) {
+      out.beginArray();
+      CoordinateListTypeAdapter.writeValue(out, coordinates.getLatitude(i));
+      CoordinateListTypeAdapter.writeValue(out, coordinates.getLongitude(i));
+      out.endArray();
+    }
+    out.endArray();
+  }
+}
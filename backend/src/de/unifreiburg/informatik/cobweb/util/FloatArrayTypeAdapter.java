@@ -0,0 +1,71 @@
+package de.unifreiburg.informatik.cobweb.util;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Type adapter for arrays of primitive floats, like the coordinates of route
+ * geometries.<br>
+ * <br>
+ * Unlike the reflective array adapter of Gson, the values are neither boxed
+ * nor accessed by reflection. Values are written in their shortest float
+ * representation.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class FloatArrayTypeAdapter extends TypeAdapter<float[]> {
+  /**
+   * The initial capacity of arrays read from JSON.
+   */
+  private static final int INITIAL_CAPACITY = 2;
+
+  /*
+   * (non-Javadoc)
+   * @see com.google.gson.TypeAdapter#read(com.google.gson.stream.JsonReader)
+   */
+  @Override
+  public float[] read(final JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    float[] values = new float[INITIAL_CAPACITY];
+    int size = 0;
+    in.beginArray();
+    while (in.hasNext()) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, 2 * size);
+      }
+      values[size] = (float) in.nextDouble();
+      size++;
+    }
+    in.endArray();
+    return size == values.length ? values : Arrays.copyOf(values, size);
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see com.google.gson.TypeAdapter#write(com.google.gson.stream.JsonWriter,
+   * java.lang.Object)
+   */
+  @Override
+  public void write(final JsonWriter out, final float[] values) throws IOException {
+    if (values == null) {
+      out.nullValue();
+      return;
+    }
+    out.beginArray();
+    for (final float value : values) {
+      if (Float.isNaN(value) || Float.isInfinite(value)) {
+        throw new IllegalArgumentException("JSON forbids NaN and infinities: " + value);
+      }
+      out.jsonValue(Float.toString(value));
+    }
+    out.endArray();
+  }
+}
@@ -0,0 +1,182 @@
+package de.unifreiburg.informatik.cobweb.util;
+
+/**
+ * Utility class which offers methods related to geometries, like the
+ * coordinates of routes.<br>
+ * <br>
+ * Geometries are given as primitive arrays of alternating latitudes and
+ * longitudes, in degrees, such that no object needs to be allocated per
+ * coordinate.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class GeometryUtil {
+  /**
+   * The offset added to each group of five bits in the encoded polyline
+   * format, which makes them printable characters.
+   */
+  private static final int POLYLINE_CHARACTER_OFFSET = 63;
+  /**
+   * The factor coordinates are multiplied with before rounding them for the
+   * encoded polyline format, which results in a precision of five decimal
+   * places.
+   */
+  private static final double POLYLINE_PRECISION = 1e5;
+
+  /**
+   * Encodes the given geometry using the encoded polyline algorithm format, as
+   * used by Google Maps and Leaflet plugins. Coordinates are rounded to five
+   * decimal places, each is written as difference to the previous one.
+   *
+   * @param coordinates The geometry, as alternating latitudes and longitudes
+   * @param amount      The amount of coordinates to encode, starting at the
+   *                    beginning of the array
+   * @return The encoded polyline
+   */
+  public static String encodePolyline(final float[] coordinates, final int amount) {
+    // Most differences fit into few characters
+    final StringBuilder polyline = new StringBuilder(amount * 8);
+    long previousLatitude = 0;
+    long previousLongitude = 0;
+    for (int i = 0; i < amount; i++) {
+      final long latitude = Math.round(coordinates[2 * i] * POLYLINE_PRECISION);
+      final long longitude = Math.round(coordinates[2 * i + 1] * POLYLINE_PRECISION);
+      GeometryUtil.encodePolylineValue(latitude - previousLatitude, polyline);
+      GeometryUtil.encodePolylineValue(longitude - previousLongitude, polyline);
+      previousLatitude = latitude;
+      previousLongitude = longitude;
+    }
+    return polyline.toString();
+  }
+
+  /**
+   * Simplifies the given geometry using the Douglas-Peucker algorithm. The
+   * simplified geometry deviates at most by the given tolerance from the
+   * original geometry. The first and last coordinates are always kept.<br>
+   * <br>
+   * The geometry is simplified in place, the kept coordinates are moved to the
+   * beginning of the array in their original order. Distances are
+   * approximated using an equirectangular projection, which is accurate for
+   * the short distances of a tolerance.
+   *
+   * @param coordinates The geometry, as alternating latitudes and longitudes
+   * @param amount      The amount of coordinates of the geometry, starting at
+   *                    the beginning of the array
+   * @param tolerance   The maximal allowed deviation, in <tt>metres</tt>. If
+   *                    not positive, the geometry is not simplified.
+   * @return The amount of kept coordinates
+   */
+  public static int simplify(final float[] coordinates, final int amount, final double tolerance) {
+    if (amount <= 2 || tolerance <= 0.0) {
+      return amount;
+    }
+    final double toleranceDegrees = RoutingUtil.distanceToDegrees(tolerance);
+    final double squaredTolerance = toleranceDegrees * toleranceDegrees;
+
+    final boolean[] isKept = new boolean[amount];
+    isKept[0] = true;
+    isKept[amount - 1] = true;
+    // Ranges still to simplify, as pairs of first and last index. At most one
+    // range per coordinate is pending at the same time.
+    final int[] ranges = new int[2 * amount];
+    int rangesSize = 0;
+    ranges[rangesSize++] = 0;
+    ranges[rangesSize++] = amount - 1;
+
+    while (rangesSize > 0) {
+      final int last = ranges[--rangesSize];
+      final int first = ranges[--rangesSize];
+
+      // Find the coordinate farthest away from the segment between the ends
+      double maxSquaredDistance = squaredTolerance;
+      int farthest = -1;
+      final double cosLatitude =
+          Math.cos(RoutingUtil.degToRad((coordinates[2 * first] + coordinates[2 * last]) / 2.0));
+      for (int i = first + 1; i < last; i++) {
+        final double squaredDistance = GeometryUtil.squaredSegmentDistance(coordinates, i, first, last, cosLatitude);
+        if (squaredDistance > maxSquaredDistance) {
+          maxSquaredDistance = squaredDistance;
+          farthest = i;
+        }
+      }
+      if (farthest == -1) {
+        // All coordinates in between are within the tolerance
+        continue;
+      }
+      isKept[farthest] = true;
+      if (farthest - first > 1) {
+        ranges[rangesSize++] = first;
+        ranges[rangesSize++] = farthest;
+      }
+      if (last - farthest > 1) {
+        ranges[rangesSize++] = farthest;
+        ranges[rangesSize++] = last;
+      }
+    }
+
+    // Move the kept coordinates to the front
+    int keptAmount = 0;
+    for (int i = 0; i < amount; i++) {
+      if (isKept[i]) {
+        coordinates[2 * keptAmount] = coordinates[2 * i];
+        coordinates[2 * keptAmount + 1] = coordinates[2 * i + 1];
+        keptAmount++;
+      }
+    }
+    return keptAmount;
+  }
+
+  /**
+   * Appends the given value in the encoded polyline format.
+   *
+   * @param value    The value to encode
+   * @param polyline The polyline to append the value to
+   */
+  private static void encodePolylineValue(final long value, final StringBuilder polyline) {
+    // Zigzag encode the sign into the lowest bit
+    long remaining = value < 0 ? ~(value << 1) : value << 1;
+    while (remaining >= 0x20) {
+      polyline.append((char) ((0x20 | remaining & 0x1F) + POLYLINE_CHARACTER_OFFSET));
+      remaining >>= 5;
+    }
+    polyline.append((char) (remaining + POLYLINE_CHARACTER_OFFSET));
+  }
+
+  /**
+   * Computes the squared distance of a coordinate to the segment between two
+   * other coordinates, in squared degrees of latitude.
+   *
+   * @param coordinates The geometry, as alternating latitudes and longitudes
+   * @param index       The index of the coordinate to get the distance of
+   * @param first       The index of the coordinate the segment starts at
+   * @param last        The index of the coordinate the segment ends at
+   * @param cosLatitude The cosine of the latitude around the segment, used to
+   *                    scale longitudes
+   * @return The squared distance of the coordinate to the segment
+   */
+  private static double squaredSegmentDistance(final float[] coordinates, final int index, final int first,
+      final int last, final double cosLatitude) {
+    final double startY = coordinates[2 * first];
+    final double startX = coordinates[2 * first + 1] * cosLatitude;
+    final double segmentY = coordinates[2 * last] - startY;
+    final double segmentX = coordinates[2 * last + 1] * cosLatitude - startX;
+    final double pointY = coordinates[2 * index] - startY;
+    final double pointX = coordinates[2 * index + 1] * cosLatitude - startX;
+
+    final double squaredLength = segmentX * segmentX + segmentY * segmentY;
+    double fraction = 0.0;
+    if (squaredLength > 0.0) {
+      fraction = Math.max(0.0, Math.min(1.0, (pointX * segmentX + pointY * segmentY) / squaredLength));
+    }
+    final double offsetX = pointX - fraction * segmentX;
+    final double offsetY = pointY - fraction * segmentY;
+    return offsetX * offsetX + offsetY * offsetY;
+  }
+
+  /**
+   * Utility class. No implementation.
+   */
+  private GeometryUtil() {
+
+  }
+}
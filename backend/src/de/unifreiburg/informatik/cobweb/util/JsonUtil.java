@@ -0,0 +1,43 @@
+package de.unifreiburg.informatik.cobweb.util;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import de.unifreiburg.informatik.cobweb.util.collections.CoordinateList;
+
+/**
+ * Utility class which offers methods related to JSON serialization.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class JsonUtil {
+  /**
+   * The shared Gson instance, see {@link #getGson()}.
+   */
+  private static final Gson GSON = new GsonBuilder().setFieldNamingStrategy(new MemberFieldNamingStrategy())
+      .registerTypeAdapter(float[].class, new FloatArrayTypeAdapter())
+      .registerTypeAdapter(CoordinateList.class, new CoordinateListTypeAdapter()).create();
+
+  /**
+   * Gets the Gson instance shared by all servers to serialize requests and
+   * responses. Fields are named using {@link MemberFieldNamingStrategy}.<br>
+   * <br>
+   * Gson is thread-safe and caches the type adapters it creates for each
+   * class, sharing the instance avoids building them again for every request.
+   * Arrays of floats, as used by geometries, are written using the
+   * {@link FloatArrayTypeAdapter}, lists of coordinates using the
+   * {@link CoordinateListTypeAdapter}.
+   *
+   * @return The shared Gson instance
+   */
+  public static Gson getGson() {
+    return GSON;
+  }
+
+  /**
+   * Utility class. No implementation.
+   */
+  private JsonUtil() {
+
+  }
+}
@@ -0,0 +1,120 @@
+package de.unifreiburg.informatik.cobweb.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical requests into a single computation. The first
+ * request of a key computes the value, requests with the same key arriving
+ * while it is computing wait for it and receive the same value instead of
+ * computing it again.<br>
+ * <br>
+ * Values are not kept once the computation finished, requests arriving
+ * afterwards compute the value again. If the computation throws an exception,
+ * it is thrown to all waiting requests.<br>
+ * <br>
+ * Use {@link #execute(Object, Supplier)} to compute values. The coalescer is
+ * thread-safe.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ * @param <K> Type of the keys identifying requests
+ * @param <V> Type of the computed values
+ */
+public final class RequestCoalescer<K, V> {
+  /**
+   * The amount of requests that waited for the computation of another request
+   * so far.
+   */
+  private final AtomicLong mCoalescedCount;
+  /**
+   * The results of the running computations by the keys of their requests.
+   */
+  private final ConcurrentMap<K, CompletableFuture<V>> mComputations;
+
+  /**
+   * Creates a new coalescer without running computations.
+   */
+  public RequestCoalescer() {
+    mComputations = new ConcurrentHashMap<>();
+    mCoalescedCount = new AtomicLong();
+  }
+
+  /**
+   * Computes the value of the request with the given key. If the value of the
+   * key is already computed by another request, the method waits for it
+   * instead.
+   *
+   * @param key         The key identifying the request
+   * @param computation The computation of the value, only executed if no
+   *                    other request is computing the value
+   * @return The computed value
+   */
+  public V execute(final K key, final Supplier<? extends V> computation) {
+    final CompletableFuture<V> result = new CompletableFuture<>();
+    final CompletableFuture<V> runningResult = mComputations.putIfAbsent(key, result);
+    if (runningResult != null) {
+      mCoalescedCount.incrementAndGet();
+      try {
+        return runningResult.join();
+      } catch (final CompletionException e) {
+        // Throw the exception of the computation itself
+        if (e.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) e.getCause();
+        }
+        if (e.getCause() instanceof Error) {
+          throw (Error) e.getCause();
+        }
+        throw e;
+      }
+    }
+
+    try {
+      final V value = computation.get();
+      result.complete(value);
+      return value;
+    } catch (final RuntimeException | Error e) {
+      result.completeExceptionally(e);
+      throw e;
+    } finally {
+      mComputations.remove(key, result);
+    }
+  }
+
+  /**
+   * Gets the amount of requests that waited for the computation of another
+   * request so far, instead of computing the value themselves.
+   *
+   * @return The amount of coalesced requests
+   */
+  public long getCoalescedCount() {
+    return mCoalescedCount.get();
+  }
+
+  /**
+   * Gets the amount of currently running computations.
+   *
+   * @return The amount of running computations
+   */
+  public int getRunningCount() {
+    return mComputations.size();
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder();
+    builder.append("RequestCoalescer [running=");
+    builder.append(mComputations.size());
+    builder.append(", coalesced=");
+    builder.append(mCoalescedCount.get());
+    builder.append("]");
+    return builder.toString();
+  }
+}
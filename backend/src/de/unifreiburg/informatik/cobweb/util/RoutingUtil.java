@@ -64,6 +64,51 @@ public final class RoutingUtil {
     return deg * Math.PI / HALF_CIRCLE_DEG;
   }
 
+  /**
+   * Converts the given difference in latitude into the corresponding distance
+   * along a meridian.
+   *
+   * @param degrees The difference in latitude, in <tt>degrees</tt>
+   * @return The corresponding distance in <tt>metres</tt>
+   */
+  public static double degreesToDistance(final double degrees) {
+    return RoutingUtil.degToRad(degrees) * EARTH_RADIUS_MEAN;
+  }
+
+  /**
+   * Converts the given distance along a meridian into the corresponding
+   * difference in latitude.
+   *
+   * @param distance The distance in <tt>metres</tt>
+   * @return The corresponding difference in latitude, in <tt>degrees</tt>
+   */
+  public static double distanceToDegrees(final double distance) {
+    return RoutingUtil.radToDeg(distance / EARTH_RADIUS_MEAN);
+  }
+
+  /**
+   * Approximates the distance between the given coordinates by using a model
+   * which represents the earth as equirectangular projection.
+   *
+   * @param firstLatitude   The latitude of the first position, in degrees
+   * @param firstLongitude  The longitude of the first position, in degrees
+   * @param secondLatitude  The latitude of the second position, in degrees
+   * @param secondLongitude The longitude of the second position, in degrees
+   * @return The distance between the given coordinates
+   */
+  public static double distanceEquiRect(final float firstLatitude, final float firstLongitude,
+      final float secondLatitude, final float secondLongitude) {
+    // Convert positions to radians
+    final double firstLat = RoutingUtil.degToRad(firstLatitude);
+    final double firstLong = RoutingUtil.degToRad(firstLongitude);
+    final double secondLat = RoutingUtil.degToRad(secondLatitude);
+    final double secondLong = RoutingUtil.degToRad(secondLongitude);
+
+    final double x = (secondLong - firstLong) * Math.cos((firstLat + secondLat) / 2);
+    final double y = secondLat - firstLat;
+    return Math.sqrt(x * x + y * y) * EARTH_RADIUS_MEAN;
+  }
+
   /**
    * Approximates the distance between the given objects by using a model which
    * represents the earth as equirectangular projection.
@@ -76,16 +121,8 @@ public final class RoutingUtil {
     if (first == second) {
       return 0.0;
     }
-
-    // Convert positions to radians
-    final double firstLat = RoutingUtil.degToRad(first.getLatitude());
-    final double firstLong = RoutingUtil.degToRad(first.getLongitude());
-    final double secondLat = RoutingUtil.degToRad(second.getLatitude());
-    final double secondLong = RoutingUtil.degToRad(second.getLongitude());
-
-    final double x = (secondLong - firstLong) * Math.cos((firstLat + secondLat) / 2);
-    final double y = secondLat - firstLat;
-    return Math.sqrt(x * x + y * y) * EARTH_RADIUS_MEAN;
+    return RoutingUtil.distanceEquiRect(first.getLatitude(), first.getLongitude(), second.getLatitude(),
+        second.getLongitude());
   }
 
   /**
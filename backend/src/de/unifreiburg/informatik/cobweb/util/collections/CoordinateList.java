@@ -0,0 +1,169 @@
+package de.unifreiburg.informatik.cobweb.util.collections;
+
+import java.util.Arrays;
+
+import de.unifreiburg.informatik.cobweb.util.GeometryUtil;
+
+/**
+ * Growable list of latitude and longitude coordinates, like the geometry of a
+ * route.<br>
+ * <br>
+ * All coordinates are stored in one primitive array as alternating latitudes
+ * and longitudes. Unlike a list of arrays, no object is allocated per
+ * coordinate, and the geometry can be simplified and encoded in place.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class CoordinateList {
+  /**
+   * The coordinates as alternating latitudes and longitudes. Only the first
+   * <tt>2 * mSize</tt> values are used.
+   */
+  private float[] mCoordinates;
+  /**
+   * The amount of coordinates in the list.
+   */
+  private int mSize;
+
+  /**
+   * Creates a new list which initially holds the given coordinates.
+   *
+   * @param coordinates The coordinates as alternating latitudes and
+   *                    longitudes, the amount of values must be even. The
+   *                    array is copied.
+   */
+  public CoordinateList(final float... coordinates) {
+    if (coordinates.length % 2 != 0) {
+      throw new IllegalArgumentException("Coordinates must consist of a latitude and a longitude each");
+    }
+    mCoordinates = coordinates.clone();
+    mSize = coordinates.length / 2;
+  }
+
+  /**
+   * Creates a new empty list with room for the given amount of coordinates.
+   *
+   * @param capacity The amount of coordinates to reserve room for
+   */
+  public CoordinateList(final int capacity) {
+    mCoordinates = new float[2 * capacity];
+  }
+
+  /**
+   * Appends the given coordinate to the end of the list.
+   *
+   * @param latitude  The latitude of the coordinate
+   * @param longitude The longitude of the coordinate
+   */
+  public void add(final float latitude, final float longitude) {
+    if (2 * mSize == mCoordinates.length) {
+      mCoordinates = Arrays.copyOf(mCoordinates, Math.max(2, 2 * mCoordinates.length));
+    }
+    mCoordinates[2 * mSize] = latitude;
+    mCoordinates[2 * mSize + 1] = longitude;
+    mSize++;
+  }
+
+  /**
+   * Encodes the coordinates using the encoded polyline algorithm format, see
+   * {@link GeometryUtil#encodePolyline(float[], int)}.
+   *
+   * @return The encoded polyline
+   */
+  public String encodePolyline() {
+    return GeometryUtil.encodePolyline(mCoordinates, mSize);
+  }
+
+  /**
+   * Gets the latitude of the coordinate at the given index.
+   *
+   * @param index The index of the coordinate
+   * @return The latitude of the coordinate
+   * @throws IndexOutOfBoundsException If the index is not in the list
+   */
+  public float getLatitude(final int index) throws IndexOutOfBoundsException {
+    checkIndex(index);
+    return mCoordinates[2 * index];
+  }
+
+  /**
+   * Gets the longitude of the coordinate at the given index.
+   *
+   * @param index The index of the coordinate
+   * @return The longitude of the coordinate
+   * @throws IndexOutOfBoundsException If the index is not in the list
+   */
+  public float getLongitude(final int index) throws IndexOutOfBoundsException {
+    checkIndex(index);
+    return mCoordinates[2 * index + 1];
+  }
+
+  /**
+   * Replaces the coordinate at the given index.
+   *
+   * @param index     The index of the coordinate
+   * @param latitude  The latitude to set
+   * @param longitude The longitude to set
+   * @throws IndexOutOfBoundsException If the index is not in the list
+   */
+  public void set(final int index, final float latitude, final float longitude) throws IndexOutOfBoundsException {
+    checkIndex(index);
+    mCoordinates[2 * index] = latitude;
+    mCoordinates[2 * index + 1] = longitude;
+  }
+
+  /**
+   * Simplifies the coordinates in place such that they deviate at most by the
+   * given tolerance, see {@link GeometryUtil#simplify(float[], int, double)}.
+   * Removed coordinates are dropped from the list.
+   *
+   * @param tolerance The maximal allowed deviation, in <tt>metres</tt>. If not
+   *                  positive, the coordinates are not simplified.
+   */
+  public void simplify(final double tolerance) {
+    mSize = GeometryUtil.simplify(mCoordinates, mSize, tolerance);
+  }
+
+  /**
+   * Gets the amount of coordinates in the list.
+   *
+   * @return The amount of coordinates
+   */
+  public int size() {
+    return mSize;
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder();
+    builder.append("CoordinateList [");
+    for (int i = 0; i < mSize; i++) {
+      if (i > 0) {
+        builder.append(", ");
+      }
+      builder.append("(");
+      builder.append(mCoordinates[2 * i]);
+      builder.append(", ");
+      builder.append(mCoordinates[2 * i + 1]);
+      builder.append(")");
+    }
+    builder.append("]");
+    return builder.toString();
+  }
+
+  /**
+   * Ensures that the given index is in the list.
+   *
+   * @param index The index to check
+   * @throws IndexOutOfBoundsException If the index is not in the list
+   */
+  private void checkIndex(final int index) throws IndexOutOfBoundsException {
+    if (index < 0 || index >= mSize) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + mSize);
+    }
+  }
+}
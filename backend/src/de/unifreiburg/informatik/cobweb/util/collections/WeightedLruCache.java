@@ -0,0 +1,316 @@
+package de.unifreiburg.informatik.cobweb.util.collections;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntFunction;
+
+/**
+ * Bounded cache which evicts the least recently used entries. It is limited in
+ * the amount of entries and in the total weight of its values, whichever limit
+ * is reached first. The weight of a value is determined by a given weigher,
+ * values that are heavier than a segment of the cache are not cached at
+ * all.<br>
+ * <br>
+ * The cache is divided into segments by the hashes of the keys. Each segment
+ * is an access-ordered map with its own lock and an equal share of the
+ * limits, such that operations on different segments do not block each other.
+ * Eviction is thus only approximately least recently used with respect to the
+ * whole cache. Small caches use fewer segments, down to a single one which
+ * evicts exactly.<br>
+ * <br>
+ * The cache is thread-safe. It counts its hits, misses and evictions, which
+ * can be used to monitor it.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ * @param <K> Type of the keys
+ * @param <V> Type of the values
+ */
+public final class WeightedLruCache<K, V> {
+  /**
+   * The amount of segments used by default, see
+   * {@link #WeightedLruCache(int, long, ToIntFunction)}.
+   */
+  private static final int DEFAULT_SEGMENTS = 16;
+  /**
+   * The minimal amount of entries a segment should be able to hold. Caches
+   * with less entries use fewer segments.
+   */
+  private static final int MIN_SEGMENT_SIZE = 64;
+
+  /**
+   * The amount of evicted entries so far.
+   */
+  private final LongAdder mEvictionCount;
+  /**
+   * The amount of lookups that found a value so far.
+   */
+  private final LongAdder mHitCount;
+  /**
+   * The amount of lookups that did not find a value so far.
+   */
+  private final LongAdder mMissCount;
+  /**
+   * The segments of the cache, their amount is a power of two.
+   */
+  private final Segment<K, V>[] mSegments;
+  /**
+   * The weigher which determines the weight of values.
+   */
+  private final ToIntFunction<? super V> mWeigher;
+
+  /**
+   * Creates a new empty cache with the given limits and the default amount of
+   * segments.
+   *
+   * @param maxSize   The maximal amount of entries, if not positive nothing is
+   *                  cached
+   * @param maxWeight The maximal total weight of all values
+   * @param weigher   The weigher which determines the weight of values, must
+   *                  not be negative
+   */
+  public WeightedLruCache(final int maxSize, final long maxWeight, final ToIntFunction<? super V> weigher) {
+    this(maxSize, maxWeight, weigher, DEFAULT_SEGMENTS);
+  }
+
+  /**
+   * Creates a new empty cache with the given limits.
+   *
+   * @param maxSize   The maximal amount of entries, if not positive nothing is
+   *                  cached
+   * @param maxWeight The maximal total weight of all values
+   * @param weigher   The weigher which determines the weight of values, must
+   *                  not be negative
+   * @param segments  The maximal amount of segments to divide the cache into,
+   *                  rounded down to a power of two. Fewer segments are used if
+   *                  a segment could not hold enough entries.
+   */
+  @SuppressWarnings("unchecked")
+  public WeightedLruCache(final int maxSize, final long maxWeight, final ToIntFunction<? super V> weigher,
+      final int segments) {
+    mWeigher = weigher;
+    mHitCount = new LongAdder();
+    mMissCount = new LongAdder();
+    mEvictionCount = new LongAdder();
+
+    final int amount = Integer.highestOneBit(Math.max(1, Math.min(segments, maxSize / MIN_SEGMENT_SIZE)));
+    mSegments = (Segment<K, V>[]) new Segment<?, ?>[amount];
+    for (int i = 0; i < amount; i++) {
+      // Distribute the remainders, such that the limits are reached exactly
+      final int segmentSize = maxSize / amount + (i < maxSize % amount ? 1 : 0);
+      final long segmentWeight = maxWeight / amount + (i < maxWeight % amount ? 1 : 0);
+      mSegments[i] = new Segment<>(segmentSize, segmentWeight);
+    }
+  }
+
+  /**
+   * Removes all entries from the cache. The counters are kept.
+   */
+  public void clear() {
+    for (final Segment<K, V> segment : mSegments) {
+      synchronized (segment) {
+        segment.mEntries.clear();
+        segment.mWeight = 0;
+      }
+    }
+  }
+
+  /**
+   * Gets the value cached for the given key and marks it as most recently used.
+   *
+   * @param key The key to get the value of
+   * @return The cached value or <tt>null</tt> if there is none
+   */
+  public V get(final K key) {
+    final Segment<K, V> segment = getSegment(key);
+    final Pair<V, Integer> entry;
+    synchronized (segment) {
+      entry = segment.mEntries.get(key);
+    }
+    if (entry == null) {
+      mMissCount.increment();
+      return null;
+    }
+    mHitCount.increment();
+    return entry.getFirst();
+  }
+
+  /**
+   * Gets the amount of entries that were evicted to stay within the limits so
+   * far.
+   *
+   * @return The amount of evicted entries
+   */
+  public long getEvictionCount() {
+    return mEvictionCount.sum();
+  }
+
+  /**
+   * Gets the amount of lookups that found a value so far.
+   *
+   * @return The amount of hits
+   */
+  public long getHitCount() {
+    return mHitCount.sum();
+  }
+
+  /**
+   * Gets the amount of lookups that did not find a value so far.
+   *
+   * @return The amount of misses
+   */
+  public long getMissCount() {
+    return mMissCount.sum();
+  }
+
+  /**
+   * Gets the amount of segments the cache is divided into.
+   *
+   * @return The amount of segments
+   */
+  public int getSegmentCount() {
+    return mSegments.length;
+  }
+
+  /**
+   * Gets the total weight of all cached values.
+   *
+   * @return The total weight
+   */
+  public long getWeight() {
+    long weight = 0;
+    for (final Segment<K, V> segment : mSegments) {
+      synchronized (segment) {
+        weight += segment.mWeight;
+      }
+    }
+    return weight;
+  }
+
+  /**
+   * Caches the given value for the given key, replacing the previous value.
+   * Least recently used entries of the segment of the key are evicted until
+   * the segment is within its limits again. If the value is heavier than the
+   * maximal weight of a segment, it is not cached.
+   *
+   * @param key   The key to cache the value for
+   * @param value The value to cache, not <tt>null</tt>
+   */
+  public void put(final K key, final V value) {
+    final Segment<K, V> segment = getSegment(key);
+    final int weight = mWeigher.applyAsInt(value);
+    if (segment.mMaxSize <= 0 || weight > segment.mMaxWeight) {
+      return;
+    }
+
+    int evicted = 0;
+    synchronized (segment) {
+      final Pair<V, Integer> previous = segment.mEntries.put(key, new Pair<>(value, weight));
+      if (previous != null) {
+        segment.mWeight -= previous.getSecond();
+      }
+      segment.mWeight += weight;
+
+      final Iterator<Entry<K, Pair<V, Integer>>> entryIter = segment.mEntries.entrySet().iterator();
+      while (segment.mEntries.size() > segment.mMaxSize || segment.mWeight > segment.mMaxWeight) {
+        // The new entry is the most recently used and fits, it is not reached
+        segment.mWeight -= entryIter.next().getValue().getSecond();
+        entryIter.remove();
+        evicted++;
+      }
+    }
+    mEvictionCount.add(evicted);
+  }
+
+  /**
+   * Gets the amount of cached entries.
+   *
+   * @return The amount of entries
+   */
+  public int size() {
+    int size = 0;
+    for (final Segment<K, V> segment : mSegments) {
+      synchronized (segment) {
+        size += segment.mEntries.size();
+      }
+    }
+    return size;
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder();
+    builder.append("WeightedLruCache [size=");
+    builder.append(size());
+    builder.append(", weight=");
+    builder.append(getWeight());
+    builder.append(", segments=");
+    builder.append(mSegments.length);
+    builder.append(", hits=");
+    builder.append(getHitCount());
+    builder.append(", misses=");
+    builder.append(getMissCount());
+    builder.append(", evictions=");
+    builder.append(getEvictionCount());
+    builder.append("]");
+    return builder.toString();
+  }
+
+  /**
+   * Gets the segment responsible for the given key.
+   *
+   * @param key The key to get the segment of
+   * @return The segment of the key
+   */
+  private Segment<K, V> getSegment(final K key) {
+    final int hash = key.hashCode();
+    // Spread the higher bits, the amount of segments is a power of two
+    return mSegments[(hash ^ hash >>> 16) & mSegments.length - 1];
+  }
+
+  /**
+   * Segment of the cache, an access-ordered map with its own limits. Accesses
+   * are guarded by the segment itself.
+   *
+   * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+   * @param <K> Type of the keys
+   * @param <V> Type of the values
+   */
+  private static final class Segment<K, V> {
+    /**
+     * The entries of the segment together with their weights, ordered from
+     * least to most recently used.
+     */
+    private final LinkedHashMap<K, Pair<V, Integer>> mEntries;
+    /**
+     * The maximal amount of entries.
+     */
+    private final int mMaxSize;
+    /**
+     * The maximal total weight of all values.
+     */
+    private final long mMaxWeight;
+    /**
+     * The total weight of all values.
+     */
+    private long mWeight;
+
+    /**
+     * Creates a new empty segment with the given limits.
+     *
+     * @param maxSize   The maximal amount of entries
+     * @param maxWeight The maximal total weight of all values
+     */
+    public Segment(final int maxSize, final long maxWeight) {
+      mMaxSize = maxSize;
+      mMaxWeight = maxWeight;
+      // Access order, such that the least recently used entry comes first
+      mEntries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package de.unifreiburg.informatik.cobweb.util.http;
+
+/**
+ * Enumeration of supported HTTP content encodings, used to compress the
+ * content of responses.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public enum EHttpContentEncoding {
+  /**
+   * Content compressed using the zlib format.
+   */
+  DEFLATE("deflate"),
+  /**
+   * Content compressed using the gzip format.
+   */
+  GZIP("gzip"),
+  /**
+   * Content that is not compressed.
+   */
+  IDENTITY("identity");
+
+  /**
+   * Gets the content encoding corresponding to the given text value.
+   *
+   * @param textValue The text value to get the encoding of
+   * @return The content encoding that corresponds to the given text or
+   *         <tt>null</tt> if not present
+   */
+  public static EHttpContentEncoding fromTextValue(final String textValue) {
+    for (final EHttpContentEncoding contentEncoding : EHttpContentEncoding.values()) {
+      if (contentEncoding.getTextValue().equals(textValue)) {
+        return contentEncoding;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * The text value of the content encoding.
+   */
+  private final String mTextValue;
+
+  /**
+   * Creates a new HTTP content encoding with the given text value.
+   *
+   * @param textValue The text value corresponding to the given content
+   *                  encoding
+   */
+  private EHttpContentEncoding(final String textValue) {
+    mTextValue = textValue;
+  }
+
+  /**
+   * Gets the text value corresponding to this content encoding.
+   *
+   * @return The corresponding text value
+   */
+  public String getTextValue() {
+    return mTextValue;
+  }
+}
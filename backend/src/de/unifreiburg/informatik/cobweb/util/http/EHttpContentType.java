@@ -6,6 +6,10 @@ package de.unifreiburg.informatik.cobweb.util.http;
  * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
  */
 public enum EHttpContentType {
+  /**
+   * Type used for arbitrary binary data.
+   */
+  BINARY("application/octet-stream"),
   /**
    * Type used for CSS stylesheet files.
    */
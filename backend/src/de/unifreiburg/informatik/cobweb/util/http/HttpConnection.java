@@ -0,0 +1,623 @@
+package de.unifreiburg.informatik.cobweb.util.http;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Queue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A connection of a client to a {@link HttpServer}.<br>
+ * <br>
+ * The connection reads incoming bytes into a reusable buffer, which is parsed
+ * in place by a {@link HttpRequestParser} until a request, including its
+ * content, is complete. Complete requests are queued and handled one after
+ * another by the handler registered for their resource. Responses are queued
+ * by the handlers as buffers and written to the client by the server thread,
+ * using gathering writes.<br>
+ * <br>
+ * All methods except the ones of the responders are called by the server
+ * thread only. The output is guarded by the connection.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+final class HttpConnection {
+  /**
+   * The bytes ending a line, used to end chunks of streamed content.
+   */
+  private static final byte[] LINE_END = "\r\n".getBytes(StandardCharsets.US_ASCII);
+  /**
+   * Logger used for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(HttpConnection.class);
+  /**
+   * The maximal amount of buffers written to the client at once.
+   */
+  private static final int MAX_GATHERED_BUFFERS = 64;
+  /**
+   * The maximal amount of bytes queued for writing, after which handlers
+   * streaming a response wait for the client to catch up.
+   */
+  private static final int MAX_OUTPUT_SIZE = 1 << 20;
+  /**
+   * The maximal amount of complete requests queued, after which the
+   * connection stops reading until they are handled.
+   */
+  private static final int MAX_PIPELINED_REQUESTS = 16;
+  /**
+   * The maximal size of a request in bytes, including its content.
+   */
+  private static final int MAX_REQUEST_SIZE = 1 << 24;
+  /**
+   * The initial size of the buffer used to read from the channel, in bytes.
+   */
+  private static final int READ_BUFFER_SIZE = 1 << 13;
+  /**
+   * The time after which clients should retry rejected requests, in seconds.
+   */
+  private static final int RETRY_AFTER = 1;
+
+  /**
+   * Whether the given request allows to keep the connection alive after its
+   * response.
+   *
+   * @param request The request in question
+   * @return <tt>True</tt> if the connection can be kept alive, <tt>false</tt>
+   *         otherwise
+   */
+  private static boolean isKeepAlive(final HttpRequest request) {
+    final String connection = request.getHeaders().get("Connection");
+    if ("HTTP/1.0".equals(request.getProtocol())) {
+      return "keep-alive".equalsIgnoreCase(connection);
+    }
+    return !"close".equalsIgnoreCase(connection);
+  }
+
+  /**
+   * The channel to the client.
+   */
+  private final SocketChannel mChannel;
+  /**
+   * The exchange whose request is currently handled or whose response is
+   * currently written, <tt>null</tt> if there is none.
+   */
+  private Exchange mExchange;
+  /**
+   * Buffer the bytes of the client are read into, containing the bytes that do
+   * not belong to a complete request yet. The buffer is in write mode, i.e.
+   * the bytes are between the start and its position. Grows for large
+   * requests.
+   */
+  private ByteBuffer mInput;
+  /**
+   * Whether the connection is closed. Guarded by this connection.
+   */
+  private boolean mIsClosed;
+  /**
+   * Whether the client will not send any more bytes.
+   */
+  private boolean mIsInputClosed;
+  /**
+   * Whether the client sent bytes that are no valid request. Requests before
+   * are still answered, the connection is closed afterwards.
+   */
+  private boolean mIsMalformed;
+  /**
+   * The key of the channel at the selector of the server.
+   */
+  private final SelectionKey mKey;
+  /**
+   * The time of the last activity on the connection, in milliseconds since
+   * epoch.
+   */
+  private long mLastActivity;
+  /**
+   * Buffers queued for writing to the client. Guarded by this connection.
+   */
+  private final Queue<ByteBuffer> mOutput;
+  /**
+   * The amount of bytes remaining in {@link #mOutput}. Guarded by this
+   * connection.
+   */
+  private int mOutputSize;
+  /**
+   * The parser parsing the requests out of {@link #mInput}.
+   */
+  private final HttpRequestParser mParser;
+  /**
+   * Complete requests waiting to be handled, in the order they were received.
+   */
+  private final Queue<HttpRequest> mRequests;
+  /**
+   * The server the connection belongs to.
+   */
+  private final HttpServer mServer;
+  /**
+   * Array reused for gathering the buffers written to the client at once.
+   * Guarded by this connection.
+   */
+  private final ByteBuffer[] mWriteBuffers;
+
+  /**
+   * Creates a new connection for the given channel and registers it at the
+   * given selector for reading.
+   *
+   * @param server   The server the connection belongs to
+   * @param channel  The non-blocking channel to the client
+   * @param selector The selector of the server
+   * @throws IOException If an I/O exception occurred while registering the
+   *                     channel
+   */
+  HttpConnection(final HttpServer server, final SocketChannel channel, final Selector selector) throws IOException {
+    mServer = server;
+    mChannel = channel;
+    mInput = ByteBuffer.allocate(READ_BUFFER_SIZE);
+    mParser = new HttpRequestParser(MAX_REQUEST_SIZE);
+    mWriteBuffers = new ByteBuffer[MAX_GATHERED_BUFFERS];
+    mRequests = new ArrayDeque<>();
+    mOutput = new ArrayDeque<>();
+    mLastActivity = System.currentTimeMillis();
+    mKey = channel.register(selector, SelectionKey.OP_READ, this);
+  }
+
+  /**
+   * Closes the connection. Handlers still computing a response fail once they
+   * send it.
+   */
+  void close() {
+    synchronized (this) {
+      mIsClosed = true;
+      mOutput.clear();
+      mOutputSize = 0;
+      // Wake up handlers waiting for the output to be written
+      notifyAll();
+    }
+    mKey.cancel();
+    try {
+      mChannel.close();
+    } catch (final IOException e) {
+      LOGGER.error("Exception while closing the client channel", e);
+    }
+  }
+
+  /**
+   * Whether the connection neither has a request nor a response in progress
+   * and there was no activity since the given time.
+   *
+   * @param time The time in milliseconds since epoch
+   * @return <tt>True</tt> if the connection is idle since the given time,
+   *         <tt>false</tt> otherwise
+   */
+  boolean isIdleSince(final long time) {
+    return mExchange == null && mRequests.isEmpty() && mLastActivity < time;
+  }
+
+  /**
+   * Reads the available bytes from the client and handles complete requests.
+   */
+  void onReadable() {
+    try {
+      if (!mInput.hasRemaining()) {
+        // The parser rejects requests that are too large, bounding the growth
+        final ByteBuffer largerInput = ByteBuffer.allocate(2 * mInput.capacity());
+        mInput.flip();
+        largerInput.put(mInput);
+        mInput = largerInput;
+      }
+      final int amountRead = mChannel.read(mInput);
+      if (amountRead == -1) {
+        mIsInputClosed = true;
+      } else {
+        mLastActivity = System.currentTimeMillis();
+      }
+      parseRequests();
+      startNextExchange();
+    } catch (final IOException e) {
+      close();
+    }
+  }
+
+  /**
+   * Sends the progress made by the handler of the current exchange to the
+   * client.
+   */
+  void onResponseProgress() {
+    if (!mKey.isValid()) {
+      return;
+    }
+    onWritable();
+  }
+
+  /**
+   * Writes the queued output to the client, as much as possible without
+   * blocking, and continues with the next request once a response is
+   * completely written.
+   */
+  void onWritable() {
+    try {
+      final boolean isDrained;
+      final boolean isComplete;
+      synchronized (this) {
+        while (!mOutput.isEmpty()) {
+          int amountOfBuffers = 0;
+          final Iterator<ByteBuffer> buffers = mOutput.iterator();
+          while (amountOfBuffers < mWriteBuffers.length && buffers.hasNext()) {
+            mWriteBuffers[amountOfBuffers] = buffers.next();
+            amountOfBuffers++;
+          }
+          mOutputSize -= mChannel.write(mWriteBuffers, 0, amountOfBuffers);
+          final boolean isChannelFull = mWriteBuffers[amountOfBuffers - 1].hasRemaining();
+          Arrays.fill(mWriteBuffers, 0, amountOfBuffers, null);
+          while (!mOutput.isEmpty() && !mOutput.peek().hasRemaining()) {
+            mOutput.poll();
+          }
+          if (isChannelFull) {
+            break;
+          }
+        }
+        // Wake up handlers waiting for the output to be written
+        notifyAll();
+        isDrained = mOutput.isEmpty();
+        isComplete = mExchange != null && mExchange.mIsComplete;
+      }
+      mLastActivity = System.currentTimeMillis();
+
+      if (isDrained && isComplete) {
+        final boolean keepAlive = mExchange.mKeepAlive;
+        mExchange = null;
+        if (!keepAlive) {
+          close();
+          return;
+        }
+        parseRequests();
+      }
+      startNextExchange();
+    } catch (final IOException e) {
+      close();
+    }
+  }
+
+  /**
+   * Queues the given buffers for writing to the client, they must not be
+   * modified afterwards. Waits while too many bytes are queued already. Can be
+   * called from any thread.
+   *
+   * @param buffers The buffers containing the bytes to write, in order
+   * @throws IOException If the connection is closed
+   */
+  private void enqueue(final ByteBuffer... buffers) throws IOException {
+    synchronized (this) {
+      while (!mIsClosed && mOutputSize > MAX_OUTPUT_SIZE) {
+        try {
+          wait();
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new InterruptedIOException("Interrupted while waiting for the client");
+        }
+      }
+      if (mIsClosed) {
+        throw new IOException("The connection to the client is closed");
+      }
+      for (final ByteBuffer buffer : buffers) {
+        mOutput.add(buffer);
+        mOutputSize += buffer.remaining();
+      }
+    }
+    mServer.notifyProgress(this);
+  }
+
+  /**
+   * Parses all complete requests out of the input buffer and queues them, as
+   * long as the queue is not full.
+   */
+  private void parseRequests() {
+    mInput.flip();
+    try {
+      while (!mIsMalformed && mRequests.size() < MAX_PIPELINED_REQUESTS) {
+        final HttpRequest request = mParser.parse(mInput);
+        if (request == null) {
+          break;
+        }
+        mRequests.add(request);
+      }
+    } catch (final IOException e) {
+      mIsMalformed = true;
+    }
+
+    if (!mInput.hasRemaining() && mInput.capacity() > READ_BUFFER_SIZE) {
+      // Release the memory of a large request
+      mInput = ByteBuffer.allocate(READ_BUFFER_SIZE);
+    } else {
+      mInput.compact();
+    }
+  }
+
+  /**
+   * Hands the next queued request to a worker if there is no exchange in
+   * progress, and updates the events the connection is interested in.
+   */
+  private void startNextExchange() {
+    if (mExchange == null) {
+      final HttpRequest request = mRequests.poll();
+      if (request != null) {
+        mExchange = new Exchange(request, isKeepAlive(request));
+        mServer.dispatch(request, mExchange, mExchange::reject);
+      } else if (mIsMalformed) {
+        mExchange = new Exchange(null, false);
+        mServer.dispatch(null, mExchange, mExchange::reject);
+      } else if (mIsInputClosed) {
+        close();
+        return;
+      }
+    }
+
+    int interestOps = 0;
+    if (!mIsInputClosed && !mIsMalformed && mRequests.size() < MAX_PIPELINED_REQUESTS) {
+      interestOps |= SelectionKey.OP_READ;
+    }
+    synchronized (this) {
+      if (!mOutput.isEmpty()) {
+        interestOps |= SelectionKey.OP_WRITE;
+      }
+    }
+    mKey.interestOps(interestOps);
+  }
+
+  /**
+   * Output stream writing the content of a streamed response to the
+   * connection, optionally using the chunked transfer encoding.
+   *
+   * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+   */
+  private final class ContentOutputStream extends OutputStream {
+    /**
+     * The exchange whose content is written.
+     */
+    private final Exchange mContentExchange;
+    /**
+     * Whether the content is written using the chunked transfer encoding.
+     */
+    private final boolean mIsChunked;
+    /**
+     * Whether the stream was closed already.
+     */
+    private boolean mIsStreamClosed;
+
+    /**
+     * Creates a new stream writing the content of the given exchange.
+     *
+     * @param exchange  The exchange whose content is written
+     * @param isChunked Whether the content is written using the chunked
+     *                  transfer encoding
+     */
+    ContentOutputStream(final Exchange exchange, final boolean isChunked) {
+      mContentExchange = exchange;
+      mIsChunked = isChunked;
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (mIsStreamClosed) {
+        return;
+      }
+      mIsStreamClosed = true;
+      if (mIsChunked) {
+        enqueue(ByteBuffer.wrap("0\r\n\r\n".getBytes(StandardCharsets.US_ASCII)));
+      }
+      mContentExchange.complete();
+    }
+
+    @Override
+    public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+      if (mIsStreamClosed) {
+        throw new IOException("The stream is closed");
+      }
+      if (length == 0) {
+        // An empty chunk would end the content
+        return;
+      }
+      // The bytes are reused by the caller
+      final ByteBuffer data = ByteBuffer.wrap(Arrays.copyOfRange(bytes, offset, offset + length));
+      if (!mIsChunked) {
+        enqueue(data);
+        return;
+      }
+      final byte[] size = (Integer.toHexString(length) + "\r\n").getBytes(StandardCharsets.US_ASCII);
+      enqueue(ByteBuffer.wrap(size), data, ByteBuffer.wrap(LINE_END));
+    }
+
+    @Override
+    public void write(final int value) throws IOException {
+      write(new byte[] { (byte) value }, 0, 1);
+    }
+  }
+
+  /**
+   * A single request of the connection together with its response. Handles
+   * the request on a worker thread, or rejects it if the workers are
+   * saturated, and serves as responder for it. The state of the response is
+   * guarded by the connection.
+   *
+   * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+   */
+  private final class Exchange implements IHttpResponder, Runnable {
+    /**
+     * The stream of the streamed content, <tt>null</tt> if the content is not
+     * streamed.
+     */
+    private ContentOutputStream mContentStream;
+    /**
+     * The encoding to compress the content of the response with, as accepted
+     * by the client.
+     */
+    private final EHttpContentEncoding mEncoding;
+    /**
+     * Whether the response is completely queued.
+     */
+    private boolean mIsComplete;
+    /**
+     * Whether the sending of the response started.
+     */
+    private boolean mIsStarted;
+    /**
+     * Whether the connection is kept alive after the response.
+     */
+    private boolean mKeepAlive;
+    /**
+     * The request to handle or <tt>null</tt> if the client sent a malformed
+     * request.
+     */
+    private final HttpRequest mRequest;
+
+    /**
+     * Creates a new exchange for the given request.
+     *
+     * @param request   The request to handle or <tt>null</tt> if the client
+     *                  sent a malformed request
+     * @param keepAlive Whether the connection is kept alive after the response
+     */
+    Exchange(final HttpRequest request, final boolean keepAlive) {
+      mRequest = request;
+      mKeepAlive = keepAlive;
+      mEncoding = request == null ? EHttpContentEncoding.IDENTITY
+          : HttpUtil.parseAcceptEncoding(request.getHeaders().get("Accept-Encoding"));
+    }
+
+    /**
+     * Handles the request and makes sure a complete response is sent.
+     */
+    @Override
+    public void run() {
+      try {
+        final IHttpHandler handler = mRequest == null ? null : mServer.getHandler(mRequest.getResource());
+        if (mRequest == null) {
+          send(new HttpResponseBuilder().setStatus(EHttpStatus.BAD_REQUEST).build());
+        } else if (handler == null) {
+          send(new HttpResponseBuilder().setStatus(EHttpStatus.NOT_FOUND).build());
+        } else {
+          handler.handleRequest(mRequest, this);
+        }
+      } catch (final Throwable e) {
+        // Log every error
+        LOGGER.error("Unknown error while handling the request: {}", mRequest, e);
+      } finally {
+        finish();
+      }
+    }
+
+    @Override
+    public void send(final HttpResponse response) throws IOException {
+      final boolean keepAlive;
+      synchronized (HttpConnection.this) {
+        startResponse();
+        keepAlive = mKeepAlive;
+      }
+      // Encode outside of the lock, compressing may take a while
+      final ByteBuffer[] responseRaw = HttpUtil.encodeResponse(response, mEncoding, keepAlive);
+      enqueue(responseRaw);
+      complete();
+    }
+
+    @Override
+    public Writer sendHead(final HttpResponse response) throws IOException {
+      return new BufferedWriter(new OutputStreamWriter(sendHeadRaw(response), StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public OutputStream sendHeadRaw(final HttpResponse response) throws IOException {
+      final byte[] headRaw;
+      synchronized (HttpConnection.this) {
+        startResponse();
+        // Without chunks the end of the content is signaled by closing
+        final boolean isChunked = !"HTTP/1.0".equals(mRequest.getProtocol());
+        mKeepAlive &= isChunked;
+        headRaw = HttpUtil.encodeResponseHead(response, mEncoding, isChunked, mKeepAlive);
+        mContentStream = new ContentOutputStream(this, isChunked);
+      }
+      enqueue(ByteBuffer.wrap(headRaw));
+      return HttpUtil.encodeContent(mContentStream, mEncoding);
+    }
+
+    /**
+     * Marks the response as completely queued and notifies the server.
+     */
+    void complete() {
+      synchronized (HttpConnection.this) {
+        mIsComplete = true;
+      }
+      mServer.notifyProgress(HttpConnection.this);
+    }
+
+    /**
+     * Rejects the request without handling it, since the workers are
+     * saturated. Answers with <tt>SERVICE UNAVAILABLE</tt>, asking the client to
+     * retry later.
+     */
+    void reject() {
+      try {
+        send(new HttpResponseBuilder().setStatus(EHttpStatus.SERVICE_UNAVAILABLE)
+            .putHeader("Retry-After", String.valueOf(RETRY_AFTER)).build());
+      } catch (final IOException e) {
+        // The connection is closed already
+        complete();
+      }
+    }
+
+    /**
+     * Makes sure a response is completed after the handler finished. Sends
+     * <tt>INTERNAL SERVER ERROR</tt> if the handler did not respond at all and
+     * closes the connection after an incomplete streamed response.
+     */
+    private void finish() {
+      final boolean isStarted;
+      final boolean isComplete;
+      synchronized (HttpConnection.this) {
+        isStarted = mIsStarted;
+        isComplete = mIsComplete;
+      }
+      if (isComplete) {
+        return;
+      }
+      if (!isStarted) {
+        try {
+          send(new HttpResponseBuilder().setStatus(EHttpStatus.INTERNAL_SERVER_ERROR).build());
+        } catch (final IOException e) {
+          // The connection is closed already
+          complete();
+        }
+        return;
+      }
+      // The client can not know where the content ends
+      synchronized (HttpConnection.this) {
+        mKeepAlive = false;
+      }
+      complete();
+    }
+
+    /**
+     * Marks the response as started. Must be called while holding the lock of
+     * the connection.
+     *
+     * @throws IllegalStateException If the response was started already
+     */
+    private void startResponse() throws IllegalStateException {
+      if (mIsStarted) {
+        throw new IllegalStateException("A response was already sent for the request: " + mRequest);
+      }
+      mIsStarted = true;
+    }
+  }
+}
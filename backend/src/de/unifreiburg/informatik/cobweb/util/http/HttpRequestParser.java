@@ -0,0 +1,396 @@
+package de.unifreiburg.informatik.cobweb.util.http;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Incremental parser for HTTP requests, reading directly from the backing
+ * array of a buffer.<br>
+ * <br>
+ * Bytes of a request can arrive in arbitrary parts. The parser is given the
+ * buffer containing the bytes received so far, using {@link #parse(ByteBuffer)}
+ * whenever more bytes arrived. Once a request is complete it is returned and
+ * its bytes are consumed from the buffer. The head of a request is only parsed
+ * once, even if its content arrives in many parts.<br>
+ * <br>
+ * The content is either delimited by the <tt>Content-Length</tt> header or
+ * sent using the chunked transfer encoding. Parsing works on bytes, strings
+ * are only created for the final parts of the request.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+final class HttpRequestParser {
+  /**
+   * The charset used to decode the head and content of requests.
+   */
+  private static final Charset CHARSET = StandardCharsets.UTF_8;
+
+  /**
+   * Searches the given byte in the given range.
+   *
+   * @param bytes The bytes to search in
+   * @param value The byte to search
+   * @param from  The index to start searching at, inclusive
+   * @param to    The index to end searching at, exclusive
+   * @return The index of the byte or <tt>-1</tt> if there is none
+   */
+  private static int indexOf(final byte[] bytes, final byte value, final int from, final int to) {
+    for (int i = from; i < to; i++) {
+      if (bytes[i] == value) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Searches the end of a request head, i.e. <tt>CRLFCRLF</tt>, in the given
+   * range.
+   *
+   * @param bytes The bytes to search in
+   * @param from  The index to start searching at, inclusive
+   * @param to    The index to end searching at, exclusive
+   * @return The index of the end of the head or <tt>-1</tt> if there is none
+   */
+  private static int indexOfHeadEnd(final byte[] bytes, final int from, final int to) {
+    int lineEnd = HttpRequestParser.indexOfLineEnd(bytes, from, to);
+    while (lineEnd != -1) {
+      if (lineEnd + 3 < to && bytes[lineEnd + 2] == '\r' && bytes[lineEnd + 3] == '\n') {
+        return lineEnd;
+      }
+      lineEnd = HttpRequestParser.indexOfLineEnd(bytes, lineEnd + 2, to);
+    }
+    return -1;
+  }
+
+  /**
+   * Searches the first line end, i.e. <tt>CRLF</tt>, in the given range.
+   *
+   * @param bytes The bytes to search in
+   * @param from  The index to start searching at, inclusive
+   * @param to    The index to end searching at, exclusive
+   * @return The index of the line end or <tt>-1</tt> if there is none
+   */
+  private static int indexOfLineEnd(final byte[] bytes, final int from, final int to) {
+    for (int i = from; i + 1 < to; i++) {
+      if (bytes[i] == '\r' && bytes[i + 1] == '\n') {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Whether the given byte is a whitespace allowed around header values.
+   *
+   * @param value The byte in question
+   * @return <tt>True</tt> if the byte is a space or tab, <tt>false</tt>
+   *         otherwise
+   */
+  private static boolean isWhitespace(final byte value) {
+    return value == ' ' || value == '\t';
+  }
+
+  /**
+   * Parses a non-negative decimal number out of the given string.
+   *
+   * @param text The text to parse
+   * @return The parsed number
+   * @throws IOException If the text is no non-negative number
+   */
+  private static long parseLength(final String text) throws IOException {
+    if (text.isEmpty() || text.length() > 18) {
+      throw new IOException("Invalid content length: " + text);
+    }
+    long length = 0;
+    for (int i = 0; i < text.length(); i++) {
+      final char digit = text.charAt(i);
+      if (digit < '0' || digit > '9') {
+        throw new IOException("Invalid content length: " + text);
+      }
+      length = 10 * length + digit - '0';
+    }
+    return length;
+  }
+
+  /**
+   * The length of the content of the pending request, if it is not chunked.
+   */
+  private int mContentLength;
+  /**
+   * The index the content of the pending request starts at, relative to the
+   * start of the request.
+   */
+  private int mContentStart;
+  /**
+   * The headers of the pending request or <tt>null</tt> if the head of the
+   * pending request is not complete yet.
+   */
+  private Map<String, String> mHeaders;
+  /**
+   * Whether the content of the pending request uses the chunked transfer
+   * encoding.
+   */
+  private boolean mIsChunked;
+  /**
+   * The maximal size of a request in bytes, including its content.
+   */
+  private final int mMaxRequestSize;
+  /**
+   * The protocol of the pending request.
+   */
+  private String mProtocol;
+  /**
+   * The resource of the pending request.
+   */
+  private String mResource;
+  /**
+   * The amount of bytes of the pending request, whose head is not complete
+   * yet, that were already searched for the end of the head.
+   */
+  private int mScanned;
+  /**
+   * The type of the pending request.
+   */
+  private String mType;
+
+  /**
+   * Creates a new parser accepting requests up to the given size.
+   *
+   * @param maxRequestSize The maximal size of a request in bytes, including
+   *                       its content
+   */
+  HttpRequestParser(final int maxRequestSize) {
+    mMaxRequestSize = maxRequestSize;
+  }
+
+  /**
+   * Parses the next request out of the given buffer. The buffer must be backed
+   * by an array and contain the bytes received so far, between its position
+   * and its limit. If the request is complete, its bytes are consumed by
+   * advancing the position of the buffer. Otherwise only empty lines before
+   * the request are consumed and the method should be called again with the
+   * same bytes once more bytes arrived.
+   *
+   * @param input The buffer to parse the request out of
+   * @return The parsed request or <tt>null</tt> if the request is not complete
+   *         yet
+   * @throws IOException If the bytes are no valid request or the request is
+   *                     too large. The parser should not be used anymore
+   *                     afterwards.
+   */
+  HttpRequest parse(final ByteBuffer input) throws IOException {
+    final byte[] bytes = input.array();
+    final int offset = input.arrayOffset();
+    final int limit = offset + input.limit();
+    int start = offset + input.position();
+
+    if (mHeaders == null) {
+      // Skip empty lines before the request
+      if (mScanned == 0) {
+        while (start < limit && (bytes[start] == '\r' || bytes[start] == '\n')) {
+          start++;
+        }
+        input.position(start - offset);
+      }
+
+      final int headEnd = HttpRequestParser.indexOfHeadEnd(bytes, Math.max(start, start + mScanned - 3), limit);
+      if (headEnd == -1) {
+        mScanned = limit - start;
+        if (mScanned > mMaxRequestSize) {
+          throw new IOException("The head of the request is too large");
+        }
+        return null;
+      }
+      parseHead(bytes, start, headEnd);
+      mContentStart = headEnd + 4 - start;
+    }
+
+    final int contentStart = start + mContentStart;
+    final String content;
+    final int end;
+    if (mIsChunked) {
+      final int contentLength = readChunks(bytes, contentStart, limit, null);
+      if (contentLength == -1) {
+        if (limit - start > mMaxRequestSize) {
+          throw new IOException("The request is too large");
+        }
+        return null;
+      }
+      final byte[] contentRaw = new byte[contentLength];
+      end = readChunks(bytes, contentStart, limit, contentRaw);
+      content = new String(contentRaw, CHARSET);
+    } else {
+      end = contentStart + mContentLength;
+      if (end > limit) {
+        return null;
+      }
+      content = new String(bytes, contentStart, mContentLength, CHARSET);
+    }
+
+    final HttpRequest request = new HttpRequest(mType, mResource, mProtocol, mHeaders, content);
+    input.position(end - offset);
+    mHeaders = null;
+    mScanned = 0;
+    return request;
+  }
+
+  /**
+   * Parses the request line and the headers of a request and sets them as the
+   * pending request.
+   *
+   * @param bytes The bytes containing the head
+   * @param start The index the head starts at, inclusive
+   * @param end   The index the head ends at, exclusive, i.e. where the final
+   *              <tt>CRLFCRLF</tt> starts
+   * @throws IOException If the head is malformed or the request is too large
+   */
+  private void parseHead(final byte[] bytes, final int start, final int end) throws IOException {
+    // Request line, like "POST /route HTTP/1.1"
+    int lineEnd = HttpRequestParser.indexOfLineEnd(bytes, start, end);
+    if (lineEnd == -1) {
+      lineEnd = end;
+    }
+    final int typeEnd = HttpRequestParser.indexOf(bytes, (byte) ' ', start, lineEnd);
+    final int resourceEnd = typeEnd == -1 ? -1 : HttpRequestParser.indexOf(bytes, (byte) ' ', typeEnd + 1, lineEnd);
+    if (typeEnd <= start || resourceEnd <= typeEnd + 1 || resourceEnd + 1 >= lineEnd) {
+      throw new IOException("Malformed request line");
+    }
+    final String type = new String(bytes, start, typeEnd - start, CHARSET);
+    final String resource = new String(bytes, typeEnd + 1, resourceEnd - typeEnd - 1, CHARSET);
+    final String protocol = new String(bytes, resourceEnd + 1, lineEnd - resourceEnd - 1, CHARSET).trim();
+
+    // Headers, like "Content-Length: 42"
+    final Map<String, String> headers = new HashMap<>();
+    long contentLength = 0;
+    boolean isChunked = false;
+    int lineStart = lineEnd + 2;
+    while (lineStart < end) {
+      lineEnd = HttpRequestParser.indexOfLineEnd(bytes, lineStart, end);
+      if (lineEnd == -1) {
+        lineEnd = end;
+      }
+      final int nameEnd = HttpRequestParser.indexOf(bytes, (byte) ':', lineStart, lineEnd);
+      if (nameEnd <= lineStart) {
+        throw new IOException("Malformed header");
+      }
+      int valueStart = nameEnd + 1;
+      while (valueStart < lineEnd && HttpRequestParser.isWhitespace(bytes[valueStart])) {
+        valueStart++;
+      }
+      int valueEnd = lineEnd;
+      while (valueEnd > valueStart && HttpRequestParser.isWhitespace(bytes[valueEnd - 1])) {
+        valueEnd--;
+      }
+
+      final String name = new String(bytes, lineStart, nameEnd - lineStart, CHARSET);
+      final String value = new String(bytes, valueStart, valueEnd - valueStart, CHARSET);
+      headers.put(name, value);
+      if (name.equalsIgnoreCase("Content-Length")) {
+        contentLength = HttpRequestParser.parseLength(value);
+      } else if (name.equalsIgnoreCase("Transfer-Encoding")) {
+        isChunked = value.toLowerCase().endsWith("chunked");
+      }
+      lineStart = lineEnd + 2;
+    }
+
+    if (!isChunked && end + 4L - start + contentLength > mMaxRequestSize) {
+      throw new IOException("The request is too large");
+    }
+    mType = type;
+    mResource = resource;
+    mProtocol = protocol;
+    mHeaders = headers;
+    mIsChunked = isChunked;
+    mContentLength = (int) contentLength;
+  }
+
+  /**
+   * Parses the size of a chunk out of its size line, ignoring chunk
+   * extensions.
+   *
+   * @param bytes The bytes containing the size line
+   * @param start The index the line starts at, inclusive
+   * @param end   The index the line ends at, exclusive
+   * @return The size of the chunk
+   * @throws IOException If the line contains no valid size or the size is too
+   *                     large
+   */
+  private int parseChunkSize(final byte[] bytes, final int start, final int end) throws IOException {
+    long size = 0;
+    int i = start;
+    for (; i < end; i++) {
+      final int digit = Character.digit(bytes[i], 16);
+      if (digit == -1) {
+        break;
+      }
+      size = 16 * size + digit;
+      if (size > mMaxRequestSize) {
+        throw new IOException("The chunk is too large");
+      }
+    }
+    if (i == start || i < end && bytes[i] != ';' && !HttpRequestParser.isWhitespace(bytes[i])) {
+      throw new IOException("Malformed chunk size");
+    }
+    return (int) size;
+  }
+
+  /**
+   * Reads the chunks of a content using the chunked transfer encoding,
+   * including the final chunk and the trailers, which are ignored.
+   *
+   * @param bytes  The bytes containing the content
+   * @param start  The index the content starts at, inclusive
+   * @param limit  The index the valid bytes end at, exclusive
+   * @param target The array to copy the data of the chunks to or <tt>null</tt>
+   *               if the data should not be copied
+   * @return If <tt>target</tt> is <tt>null</tt> the length of the data of all
+   *         chunks, otherwise the index the content ends at, exclusive. Returns
+   *         <tt>-1</tt> if the content is not complete yet.
+   * @throws IOException If the content is malformed
+   */
+  private int readChunks(final byte[] bytes, final int start, final int limit, final byte[] target)
+      throws IOException {
+    int position = start;
+    int length = 0;
+    while (true) {
+      final int lineEnd = HttpRequestParser.indexOfLineEnd(bytes, position, limit);
+      if (lineEnd == -1) {
+        return -1;
+      }
+      final int chunkSize = parseChunkSize(bytes, position, lineEnd);
+      position = lineEnd + 2;
+      if (chunkSize == 0) {
+        break;
+      }
+      if ((long) position + chunkSize + 2 > limit) {
+        return -1;
+      }
+      if (bytes[position + chunkSize] != '\r' || bytes[position + chunkSize + 1] != '\n') {
+        throw new IOException("Malformed chunk");
+      }
+      if (target != null) {
+        System.arraycopy(bytes, position, target, length, chunkSize);
+      }
+      length += chunkSize;
+      position += chunkSize + 2;
+    }
+
+    // Trailers up to an empty line
+    while (true) {
+      final int lineEnd = HttpRequestParser.indexOfLineEnd(bytes, position, limit);
+      if (lineEnd == -1) {
+        return -1;
+      }
+      final boolean isEmpty = lineEnd == position;
+      position = lineEnd + 2;
+      if (isEmpty) {
+        return target == null ? length : position;
+      }
+    }
+  }
+}
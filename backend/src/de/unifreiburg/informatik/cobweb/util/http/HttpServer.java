@@ -0,0 +1,449 @@
+package de.unifreiburg.informatik.cobweb.util.http;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A HTTP server shared by all services, which dispatches requests by their
+ * resource to registered handlers.<br>
+ * <br>
+ * After construction the server should be bound to its ports using
+ * {@link #bind(int)}. Afterwards it can be started by using {@link #start()}.
+ * Request the server to shutdown by using {@link #shutdown()}, the current
+ * status can be checked with {@link #isRunning()}. Once a server was shutdown
+ * it should not be used anymore, instead create a new one. Handlers can be
+ * registered and replaced at any time using
+ * {@link #register(String, IHttpHandler, WorkerPool)}.<br>
+ * <br>
+ * A single thread accepts, reads and writes all connections using a
+ * {@link Selector}, no thread is blocked by a slow or idle client. Requests of
+ * all bound ports are dispatched to the same handlers. Handlers run on the
+ * bounded {@link WorkerPool} registered together with them, since they may
+ * block while computing the response. Requests rejected by a saturated pool are
+ * answered with <tt>SERVICE UNAVAILABLE</tt>. Malformed requests, requests of
+ * unknown resources and <tt>OPTIONS</tt> requests are handled by a small
+ * default pool, they are never queued behind expensive requests.
+ * Connections speak HTTP/1.1 and are kept alive between requests, unless the
+ * client asks otherwise. Clients may pipeline requests, the requests of a
+ * connection are handled one after another and answered in order. Idle
+ * connections are closed after {@link #IDLE_TIMEOUT}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class HttpServer implements Runnable {
+  /**
+   * The time after which idle connections are closed, in milliseconds.
+   */
+  static final int IDLE_TIMEOUT = 5_000;
+  /**
+   * The maximal amount of requests waiting for a thread of the default pool.
+   */
+  private static final int DEFAULT_QUEUE_LIMIT = 256;
+  /**
+   * The maximal time requests wait for a thread of the default pool, in
+   * milliseconds.
+   */
+  private static final int DEFAULT_QUEUE_TIMEOUT = 5_000;
+  /**
+   * The amount of threads of the default pool.
+   */
+  private static final int DEFAULT_THREADS = 2;
+  /**
+   * The time to wait after each consecutive failure of the server routine, in
+   * milliseconds. The wait grows linearly with the amount of failures in a
+   * row, up to {@link #MAX_FAILURE_BACKOFF}.
+   */
+  private static final int FAILURE_BACKOFF = 100;
+  /**
+   * Logger used for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(HttpServer.class);
+  /**
+   * The maximal time to wait after a failure of the server routine, in
+   * milliseconds.
+   */
+  private static final int MAX_FAILURE_BACKOFF = 5_000;
+  /**
+   * The maximal time to wait for events of connections, in milliseconds. The
+   * server status and idle connections are checked after each timeout.
+   */
+  private static final int SELECT_TIMEOUT = 1_000;
+
+  /**
+   * Waits after a failure of the server routine, such that a routine which
+   * keeps failing, for example because of a broken selector, does not spin and
+   * flood the log.
+   *
+   * @param failures The amount of consecutive failures of the routine
+   */
+  private static void backOff(final int failures) {
+    try {
+      Thread.sleep(Math.min((long) FAILURE_BACKOFF * failures, MAX_FAILURE_BACKOFF));
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Removes the query string of the given resource, if present.
+   *
+   * @param resource The requested resource
+   * @return The resource without its query string
+   */
+  private static String stripQuery(final String resource) {
+    final int queryStart = resource.indexOf('?');
+    if (queryStart == -1) {
+      return resource;
+    }
+    return resource.substring(0, queryStart);
+  }
+
+  /**
+   * The pool used for requests that have no pool registered.
+   */
+  private final WorkerPool mDefaultPool;
+  /**
+   * The registered handlers by the resource they serve.
+   */
+  private final Map<String, IHttpHandler> mHandlers;
+  /**
+   * The pools running the handlers by the resource they serve.
+   */
+  private final Map<String, WorkerPool> mPools;
+  /**
+   * Connections whose response progressed since they were last processed by
+   * the server thread.
+   */
+  private final Queue<HttpConnection> mProgressedConnections;
+  /**
+   * The selector used to wait for events of all channels.
+   */
+  private final Selector mSelector;
+  /**
+   * The channels accepting connections on the bound ports.
+   */
+  private final List<ServerSocketChannel> mServerChannels;
+  /**
+   * The thread to run this server on.
+   */
+  private final Thread mServerThread;
+  /**
+   * Whether or not the server thread should run.
+   */
+  private volatile boolean mShouldRun;
+
+  /**
+   * Creates a new HTTP server which is not bound to any port yet.<br>
+   * <br>
+   * After construction the server should be bound to its ports using
+   * {@link #bind(int)}. Afterwards it can be started by using {@link #start()}.
+   *
+   * @throws IOException If an I/O exception occurred while opening the
+   *                     selector
+   */
+  public HttpServer() throws IOException {
+    mSelector = Selector.open();
+    mServerThread = new Thread(this);
+    mDefaultPool = new WorkerPool("http", DEFAULT_THREADS, DEFAULT_QUEUE_LIMIT, DEFAULT_QUEUE_TIMEOUT);
+    mHandlers = new ConcurrentHashMap<>();
+    mPools = new ConcurrentHashMap<>();
+    mProgressedConnections = new ConcurrentLinkedQueue<>();
+    mServerChannels = new ArrayList<>();
+  }
+
+  /**
+   * Binds the server to the given port, such that it accepts connections on
+   * it. Binding a port that is already bound has no effect. Call this method
+   * prior to starting the server with {@link #start()}.
+   *
+   * @param port The port to bind
+   * @throws IOException If an I/O exception occurred while binding the port
+   */
+  public synchronized void bind(final int port) throws IOException {
+    for (final ServerSocketChannel serverChannel : mServerChannels) {
+      if (serverChannel.socket().getLocalPort() == port) {
+        return;
+      }
+    }
+
+    final ServerSocketChannel serverChannel = ServerSocketChannel.open();
+    try {
+      serverChannel.configureBlocking(false);
+      serverChannel.bind(new InetSocketAddress(port));
+      serverChannel.register(mSelector, SelectionKey.OP_ACCEPT);
+    } catch (final IOException e) {
+      serverChannel.close();
+      throw e;
+    }
+    mServerChannels.add(serverChannel);
+  }
+
+  /**
+   * Gets the ports the server is bound to.
+   *
+   * @return The bound ports, in the order they were bound
+   */
+  public synchronized List<Integer> getPorts() {
+    final List<Integer> ports = new ArrayList<>(mServerChannels.size());
+    for (final ServerSocketChannel serverChannel : mServerChannels) {
+      ports.add(serverChannel.socket().getLocalPort());
+    }
+    return ports;
+  }
+
+  /**
+   * Whether or not the server is currently running.<br>
+   * <br>
+   * A request to shutdown can be send using {@link #shutdown()}.
+   *
+   * @return <tt>True</tt> if the server is running, <tt>false</tt> otherwise
+   */
+  public boolean isRunning() {
+    return mServerThread.isAlive();
+  }
+
+  /**
+   * Registers the given handler for all requests of the given resource. The
+   * handler runs on the default pool of the server, which is only suited for
+   * cheap requests. A handler already registered for the resource is replaced,
+   * requests that are already being handled finish with it.
+   *
+   * @param resource The resource to serve, for example <tt>/route</tt>
+   * @param handler  The handler to serve the resource with
+   */
+  public void register(final String resource, final IHttpHandler handler) {
+    register(resource, handler, mDefaultPool);
+  }
+
+  /**
+   * Registers the given handler for all requests of the given resource. A
+   * handler already registered for the resource is replaced, requests that are
+   * already being handled finish with it. The pool is not shutdown by the
+   * server.
+   *
+   * @param resource The resource to serve, for example <tt>/route</tt>
+   * @param handler  The handler to serve the resource with
+   * @param pool     The pool to run the handler on
+   */
+  public void register(final String resource, final IHttpHandler handler, final WorkerPool pool) {
+    mPools.put(resource, pool);
+    mHandlers.put(resource, handler);
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see java.lang.Runnable#run()
+   */
+  @Override
+  public void run() {
+    LOGGER.info("Server ready and waiting for clients on ports: {}", getPorts());
+    int consecutiveFailures = 0;
+    while (mShouldRun) {
+      try {
+        mSelector.select(SELECT_TIMEOUT);
+
+        // Responses computed by the handlers
+        HttpConnection progressedConnection = mProgressedConnections.poll();
+        while (progressedConnection != null) {
+          progressedConnection.onResponseProgress();
+          progressedConnection = mProgressedConnections.poll();
+        }
+
+        final Iterator<SelectionKey> keys = mSelector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+          final SelectionKey key = keys.next();
+          keys.remove();
+          if (!key.isValid()) {
+            continue;
+          }
+          if (key.isAcceptable()) {
+            accept((ServerSocketChannel) key.channel());
+            continue;
+          }
+
+          final HttpConnection connection = (HttpConnection) key.attachment();
+          if (key.isReadable()) {
+            connection.onReadable();
+          }
+          if (key.isValid() && key.isWritable()) {
+            connection.onWritable();
+          }
+        }
+
+        closeIdleConnections();
+        consecutiveFailures = 0;
+      } catch (final Exception e) {
+        // Log every exception and try to stay alive, but back off if the
+        // routine keeps failing
+        consecutiveFailures++;
+        LOGGER.error("Unknown exception in HTTP server routine, {} in a row", consecutiveFailures, e);
+        backOff(consecutiveFailures);
+      }
+    }
+
+    LOGGER.info("HTTP server is shutting down");
+    close();
+  }
+
+  /**
+   * Requests the server to shutdown.<br>
+   * <br>
+   * Open connections are closed, requests that are already being handled
+   * finish but their responses are not sent anymore. The current status can be
+   * checked with {@link #isRunning()}. Once a server was shutdown it should not
+   * be used anymore, instead create a new one.
+   */
+  public void shutdown() {
+    mShouldRun = false;
+    mSelector.wakeup();
+    LOGGER.info("Set shutdown request to HTTP server");
+  }
+
+  /**
+   * Starts the server.<br>
+   * <br>
+   * Make sure {@link #bind(int)} is called before. Request the server to
+   * shutdown by using {@link #shutdown()}, the current status can be checked
+   * with {@link #isRunning()}. Once a server was shutdown it should not be used
+   * anymore, instead create a new one.
+   */
+  public void start() {
+    if (isRunning()) {
+      return;
+    }
+    LOGGER.info("Starting HTTP server");
+    mShouldRun = true;
+    mServerThread.start();
+  }
+
+  /**
+   * Removes the handler registered for the given resource, if present.
+   * Requests of the resource are answered with <tt>NOT FOUND</tt>
+   * afterwards.
+   *
+   * @param resource The resource to not serve anymore
+   */
+  public void unregister(final String resource) {
+    mHandlers.remove(resource);
+    mPools.remove(resource);
+  }
+
+  /**
+   * Executes the given task, which handles the given request, on a thread of
+   * the pool registered for the resource of the request. If the pool rejects
+   * the task, the given rejection is executed instead.
+   *
+   * @param request   The request to handle or <tt>null</tt> if the client sent
+   *                  a malformed request
+   * @param task      The task to execute
+   * @param rejection The task to execute instead if the pool is saturated,
+   *                  should be cheap
+   */
+  void dispatch(final HttpRequest request, final Runnable task, final Runnable rejection) {
+    WorkerPool pool = null;
+    if (request != null && !"OPTIONS".equalsIgnoreCase(request.getType())) {
+      pool = mPools.get(stripQuery(request.getResource()));
+    }
+    if (pool == null) {
+      pool = mDefaultPool;
+    }
+    pool.execute(task, rejection);
+  }
+
+  /**
+   * Gets the handler registered for the given resource. A query string of the
+   * resource is ignored.
+   *
+   * @param resource The requested resource
+   * @return The handler or <tt>null</tt> if no handler is registered for the
+   *         resource
+   */
+  IHttpHandler getHandler(final String resource) {
+    return mHandlers.get(stripQuery(resource));
+  }
+
+  /**
+   * Notifies the server thread that the response of the given connection
+   * progressed, such that it is sent to the client. Can be called from any
+   * thread.
+   *
+   * @param connection The connection whose response progressed
+   */
+  void notifyProgress(final HttpConnection connection) {
+    mProgressedConnections.add(connection);
+    mSelector.wakeup();
+  }
+
+  /**
+   * Accepts all pending connections of the given channel.
+   *
+   * @param serverChannel The channel to accept connections of
+   * @throws IOException If an I/O exception occurred while accepting a
+   *                     connection
+   */
+  private void accept(final ServerSocketChannel serverChannel) throws IOException {
+    SocketChannel channel = serverChannel.accept();
+    while (channel != null) {
+      channel.configureBlocking(false);
+      channel.socket().setTcpNoDelay(true);
+      new HttpConnection(this, channel, mSelector);
+      channel = serverChannel.accept();
+    }
+  }
+
+  /**
+   * Closes all channels, the selector and stops the workers.
+   */
+  private void close() {
+    for (final SelectionKey key : mSelector.keys()) {
+      if (key.attachment() instanceof HttpConnection) {
+        ((HttpConnection) key.attachment()).close();
+      }
+    }
+    synchronized (this) {
+      for (final ServerSocketChannel serverChannel : mServerChannels) {
+        try {
+          serverChannel.close();
+        } catch (final IOException e) {
+          LOGGER.error("Exception while closing a server channel", e);
+        }
+      }
+    }
+    try {
+      mSelector.close();
+    } catch (final IOException e) {
+      LOGGER.error("Exception while closing the selector", e);
+    }
+    mDefaultPool.shutdown();
+  }
+
+  /**
+   * Closes all connections which are idle for longer than
+   * {@link #IDLE_TIMEOUT}.
+   */
+  private void closeIdleConnections() {
+    final long idleSince = System.currentTimeMillis() - IDLE_TIMEOUT;
+    for (final SelectionKey key : mSelector.keys()) {
+      if (key.attachment() instanceof HttpConnection) {
+        final HttpConnection connection = (HttpConnection) key.attachment();
+        if (connection.isIdleSince(idleSince)) {
+          connection.close();
+        }
+      }
+    }
+  }
+}
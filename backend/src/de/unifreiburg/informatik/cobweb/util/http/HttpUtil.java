@@ -1,16 +1,22 @@
 package de.unifreiburg.informatik.cobweb.util.http;
 
 import java.io.ByteArrayOutputStream;
-import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.Socket;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Utility class which provides methods related to HTTP communication.
@@ -18,16 +24,196 @@ import java.util.Map.Entry;
  * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
  */
 public final class HttpUtil {
+  /**
+   * The initial size of the buffer used to read requests from streams, in
+   * bytes.
+   */
+  private static final int BUFFER_SIZE = 1 << 13;
+  /**
+   * The size of the buffer used by compressing streams, in bytes.
+   */
+  private static final int COMPRESSION_BUFFER_SIZE = 1 << 13;
   /**
    * Symbol used for new lines in the HTTP standard.
    */
   private static final String HTTP_NEW_LINE = "\r\n";
 
+  /**
+   * The minimal size of content in bytes such that it is compressed. Smaller
+   * content does not benefit from compression.
+   */
+  private static final int MIN_COMPRESSION_SIZE = 1 << 10;
+
   /**
    * Standard charset to use for encoding and decoding of content.
    */
   private static final Charset STANDARD_CHARSET = StandardCharsets.UTF_8;
 
+  /**
+   * Wraps the given stream such that content written to it is compressed using
+   * the given encoding. Compression favors speed over size. Flushing the
+   * returned stream flushes all content written so far, closing it finishes
+   * the compressed content and closes the given stream.
+   *
+   * @param output   The stream to write the compressed content to
+   * @param encoding The encoding to compress with
+   * @return The stream to write the content to, the given stream itself if the
+   *         encoding is {@link EHttpContentEncoding#IDENTITY}
+   * @throws IOException If an I/O exception occurred while writing the header
+   *                     of the compressed format
+   */
+  static OutputStream encodeContent(final OutputStream output, final EHttpContentEncoding encoding)
+      throws IOException {
+    switch (encoding) {
+      case GZIP:
+        return new GZIPOutputStream(output, COMPRESSION_BUFFER_SIZE, true) {
+          {
+            def.setLevel(Deflater.BEST_SPEED);
+          }
+        };
+      case DEFLATE:
+        return new DeflaterOutputStream(output, new Deflater(Deflater.BEST_SPEED), COMPRESSION_BUFFER_SIZE, true) {
+          @Override
+          public void close() throws IOException {
+            try {
+              super.close();
+            } finally {
+              // The deflater is not owned by the stream, release it
+              def.end();
+            }
+          }
+        };
+      default:
+        return output;
+    }
+  }
+
+  /**
+   * Encodes the given response by using the HTTP/1.1 protocol. The head and
+   * the content are encoded into separate buffers, such that they can be
+   * written using a single gathering write without copying them together.
+   *
+   * @param response  The response to encode
+   * @param encoding  The encoding accepted by the client to compress the
+   *                  content with. Small content is not compressed.
+   * @param keepAlive Whether the connection is kept alive after the response
+   * @return The buffers containing the encoded status line and headers and the
+   *         encoded content, in that order
+   */
+  static ByteBuffer[] encodeResponse(final HttpResponse response, final EHttpContentEncoding encoding,
+      final boolean keepAlive) {
+    byte[] contentRaw = response.getContent().getBytes(STANDARD_CHARSET);
+    EHttpContentEncoding usedEncoding = EHttpContentEncoding.IDENTITY;
+    if (encoding != EHttpContentEncoding.IDENTITY && contentRaw.length >= MIN_COMPRESSION_SIZE) {
+      final ByteArrayOutputStream compressed = new ByteArrayOutputStream(contentRaw.length / 4);
+      try (OutputStream output = HttpUtil.encodeContent(compressed, encoding)) {
+        output.write(contentRaw);
+      } catch (final IOException e) {
+        // Can not happen, the stream writes to memory
+        throw new AssertionError(e);
+      }
+      contentRaw = compressed.toByteArray();
+      usedEncoding = encoding;
+    }
+
+    final StringBuilder responseHead = HttpUtil.buildResponseHead(response, usedEncoding, keepAlive);
+    responseHead.append("Content-Length: ").append(contentRaw.length).append(HTTP_NEW_LINE);
+    responseHead.append(HTTP_NEW_LINE);
+
+    final byte[] headRaw = responseHead.toString().getBytes(STANDARD_CHARSET);
+    return new ByteBuffer[] { ByteBuffer.wrap(headRaw), ByteBuffer.wrap(contentRaw) };
+  }
+
+  /**
+   * Encodes the status line and headers of the given response by using the
+   * HTTP/1.1 protocol. The content is not encoded, the response has no content
+   * length.
+   *
+   * @param response  The response whose status and headers to encode, its
+   *                  content is ignored
+   * @param encoding  The encoding the content is compressed with, see
+   *                  {@link #encodeContent(OutputStream, EHttpContentEncoding)}
+   * @param isChunked Whether the content is sent using the chunked transfer
+   *                  encoding. Otherwise the end of the content must be
+   *                  signaled by closing the connection.
+   * @param keepAlive Whether the connection is kept alive after the response,
+   *                  only possible if the content is chunked
+   * @return The encoded status line and headers
+   */
+  static byte[] encodeResponseHead(final HttpResponse response, final EHttpContentEncoding encoding,
+      final boolean isChunked, final boolean keepAlive) {
+    final StringBuilder responseHead = HttpUtil.buildResponseHead(response, encoding, keepAlive);
+    if (isChunked) {
+      responseHead.append("Transfer-Encoding: chunked" + HTTP_NEW_LINE);
+    }
+    responseHead.append(HTTP_NEW_LINE);
+    return responseHead.toString().getBytes(STANDARD_CHARSET);
+  }
+
+  /**
+   * Whether the given content type is explicitly accepted according to the
+   * value of an <tt>Accept</tt> header. Wildcards are not taken into account,
+   * such that formats which are not understood by every client can be offered
+   * only to clients asking for them.
+   *
+   * @param value       The header value of the accept header, may be
+   *                    <tt>null</tt>
+   * @param contentType The content type to check
+   * @return <tt>True</tt> if the content type is listed with a positive
+   *         quality value, <tt>false</tt> otherwise
+   */
+  public static boolean isAccepted(final String value, final EHttpContentType contentType) {
+    if (value == null) {
+      return false;
+    }
+    for (final String entry : value.split(",")) {
+      final int parametersStart = entry.indexOf(';');
+      final String name = (parametersStart == -1 ? entry : entry.substring(0, parametersStart)).trim()
+          .toLowerCase(Locale.ROOT);
+      if (name.equals(contentType.getTextValue())) {
+        return HttpUtil.parseQuality(entry) > 0.0;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Parses the preferred supported content encoding out of the value of an
+   * <tt>Accept-Encoding</tt> header. Encodings are weighted by their quality
+   * value, <tt>gzip</tt> is preferred over <tt>deflate</tt> if they are
+   * weighted equally.
+   *
+   * @param value The header value of the accept encoding header, may be
+   *              <tt>null</tt>
+   * @return The preferred supported encoding,
+   *         {@link EHttpContentEncoding#IDENTITY} if the client does not accept
+   *         any compressing encoding
+   */
+  public static EHttpContentEncoding parseAcceptEncoding(final String value) {
+    if (value == null) {
+      return EHttpContentEncoding.IDENTITY;
+    }
+    EHttpContentEncoding bestEncoding = EHttpContentEncoding.IDENTITY;
+    double bestQuality = 0.0;
+    for (final String entry : value.split(",")) {
+      final int parametersStart = entry.indexOf(';');
+      final String name = (parametersStart == -1 ? entry : entry.substring(0, parametersStart)).trim()
+          .toLowerCase(Locale.ROOT);
+      final double quality = HttpUtil.parseQuality(entry);
+
+      final EHttpContentEncoding encoding = name.equals("*") ? EHttpContentEncoding.GZIP
+          : EHttpContentEncoding.fromTextValue(name);
+      if (encoding == null || encoding == EHttpContentEncoding.IDENTITY) {
+        continue;
+      }
+      if (quality > bestQuality || quality == bestQuality && encoding == EHttpContentEncoding.GZIP) {
+        bestEncoding = encoding;
+        bestQuality = quality;
+      }
+    }
+    return bestEncoding;
+  }
+
   /**
    * Parses the content type out of the header value.
    *
@@ -43,153 +229,146 @@ public final class HttpUtil {
   }
 
   /**
-   * Parses a HTTP request from the given input stream.
+   * Parses the parameters of the query string of the given resource. Names and
+   * values are URL decoded, parameters without value are mapped to an empty
+   * text. If a parameter is given multiple times, the last value is used.
+   *
+   * @param resource The requested resource, including its query string if
+   *                 present
+   * @return The values of the parameters by their name, empty if the resource
+   *         has no query string
+   */
+  public static Map<String, String> parseQuery(final String resource) {
+    final Map<String, String> parameters = new HashMap<>();
+    final int queryStart = resource.indexOf('?');
+    if (queryStart == -1) {
+      return parameters;
+    }
+    for (final String parameter : resource.substring(queryStart + 1).split("&")) {
+      if (parameter.isEmpty()) {
+        continue;
+      }
+      final int valueStart = parameter.indexOf('=');
+      try {
+        if (valueStart == -1) {
+          parameters.put(URLDecoder.decode(parameter, STANDARD_CHARSET.name()), "");
+        } else {
+          parameters.put(URLDecoder.decode(parameter.substring(0, valueStart), STANDARD_CHARSET.name()),
+              URLDecoder.decode(parameter.substring(valueStart + 1), STANDARD_CHARSET.name()));
+        }
+      } catch (final UnsupportedEncodingException | IllegalArgumentException e) {
+        // Ignore malformed parameters, the standard charset is always supported
+      }
+    }
+    return parameters;
+  }
+
+  /**
+   * Parses a HTTP request from the given input stream. The content is either
+   * delimited by the <tt>Content-Length</tt> header or sent using the chunked
+   * transfer encoding.<br>
+   * <br>
+   * The stream is read in blocks, bytes following the request may be read
+   * too.
    *
    * @param input The stream that contains the HTTP request
    * @return The parsed HTTP request
    * @throws IOException If an I/O exception occurred while reading from the
-   *                     stream
+   *                     stream, the stream ended before the request was
+   *                     complete or the request is malformed
    */
   public static HttpRequest parseRequest(final InputStream input) throws IOException {
-    // Read the request
-    String request;
+    final HttpRequestParser parser = new HttpRequestParser(Integer.MAX_VALUE);
+    ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
     while (true) {
-      final String line = HttpUtil.readHttpLine(input);
-      // According to the specification empty lines that appear before any
-      // content need to be rejected
-      if (line.isEmpty()) {
-        continue;
+      if (!buffer.hasRemaining()) {
+        final ByteBuffer largerBuffer = ByteBuffer.allocate(2 * buffer.capacity());
+        buffer.flip();
+        largerBuffer.put(buffer);
+        buffer = largerBuffer;
       }
-
-      request = line;
-      break;
-    }
-    // Parse the request
-    final String[] requestData = request.trim().split(" ");
-    final String type = requestData[0];
-    final String resource = requestData[1];
-    final String protocol = requestData[2];
-
-    // Read and parse the headers
-    final Map<String, String> headers = new HashMap<>();
-    while (true) {
-      final String line = HttpUtil.readHttpLine(input);
-      // Break if content starts
-      if (line.isEmpty()) {
-        break;
+      final int amountRead = input.read(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+      if (amountRead == -1) {
+        throw new EOFException("The stream ended before the request was complete");
       }
+      buffer.position(buffer.position() + amountRead);
 
-      final String[] data = line.split(": ", 2);
-      headers.put(data[0], data[1]);
-    }
-
-    // Read and parse the content
-    final String contentLengthText = headers.get("Content-Length");
-    String content = "";
-    if (contentLengthText != null && !contentLengthText.isEmpty() && contentLengthText != "0") {
-      final int contentLength = Integer.parseInt(contentLengthText);
-      content = HttpUtil.readHttpContent(contentLength, input);
+      buffer.flip();
+      final HttpRequest request = parser.parse(buffer);
+      if (request != null) {
+        return request;
+      }
+      buffer.compact();
     }
-
-    return new HttpRequest(type, resource, protocol, headers, content);
   }
 
   /**
-   * Sends the given response to the given client by using the HTTP/1.0
-   * protocol.
+   * Builds the status line and the common headers of the given response, the
+   * final empty line is not appended.
    *
-   * @param response The response to send
-   * @param client   Client to send to
-   * @throws IOException If an I/O-Exception occurred.
+   * @param response  The response to build the head of
+   * @param encoding  The encoding the content is compressed with
+   * @param keepAlive Whether the connection is kept alive after the response
+   * @return A builder containing the status line and headers
    */
-  public static void sendHttpResponse(final HttpResponse response, final Socket client) throws IOException {
+  private static StringBuilder buildResponseHead(final HttpResponse response, final EHttpContentEncoding encoding,
+      final boolean keepAlive) {
     final String charset = STANDARD_CHARSET.displayName().toLowerCase();
-    final byte[] contentRaw = response.getContent().getBytes(STANDARD_CHARSET);
 
-    // Build response type
-    final String responseType =
-        "HTTP/1.0 " + response.getStatus().getStatusCode() + " " + response.getStatus() + HTTP_NEW_LINE;
-
-    // Build response headers
-    final StringBuilder responseHeaders = new StringBuilder();
-    responseHeaders.append("Content-Length: " + contentRaw.length + HTTP_NEW_LINE);
-    responseHeaders
-        .append("Content-Type: " + response.getContentType().getTextValue() + "; charset=" + charset + HTTP_NEW_LINE);
+    final StringBuilder responseHead = new StringBuilder();
+    responseHead
+        .append("HTTP/1.1 " + response.getStatus().getStatusCode() + " " + response.getStatus() + HTTP_NEW_LINE);
+    if (response.getContentType() == EHttpContentType.BINARY) {
+      // Binary content has no charset
+      responseHead.append("Content-Type: " + response.getContentType().getTextValue() + HTTP_NEW_LINE);
+    } else {
+      responseHead.append(
+          "Content-Type: " + response.getContentType().getTextValue() + "; charset=" + charset + HTTP_NEW_LINE);
+    }
 
     // Set all given headers
     for (final Entry<String, String> entry : response.getHeaders().entrySet()) {
-      responseHeaders.append(entry.getKey() + ": " + entry.getValue() + HTTP_NEW_LINE);
+      responseHead.append(entry.getKey() + ": " + entry.getValue() + HTTP_NEW_LINE);
     }
 
-    // Write headers and content
-    try (final DataOutputStream output = new DataOutputStream(client.getOutputStream())) {
-      output.write(responseType.getBytes(STANDARD_CHARSET));
-      output.write(responseHeaders.toString().getBytes(STANDARD_CHARSET));
-      output.write(HTTP_NEW_LINE.getBytes(STANDARD_CHARSET));
-      output.write(contentRaw);
+    if (encoding != EHttpContentEncoding.IDENTITY) {
+      responseHead.append("Content-Encoding: " + encoding.getTextValue() + HTTP_NEW_LINE);
+      responseHead.append("Vary: Accept-Encoding" + HTTP_NEW_LINE);
     }
-  }
 
-  /**
-   * Reads the content of the given input stream.<br>
-   * <br>
-   * The stream must already be advanced to the point where the content begins.
-   * The method will make sure that only the given amount of bytes is read from
-   * the stream. In particular, it will not read more than desired for buffering
-   * purpose.
-   *
-   * @param contentLength The length of the content in amount of bytes
-   * @param input         The input stream from which to read. The stream must
-   *                      already be advanced to the point where the content
-   *                      begins.
-   * @return The read content, interpreted as string in the standard charset
-   *         represented by {@link #STANDARD_CHARSET}
-   * @throws IOException If an I/O exception occurred while reading from the
-   *                     stream
-   */
-  private static String readHttpContent(final int contentLength, final InputStream input) throws IOException {
-    final byte[] contentRawBuffer = new byte[contentLength];
-    final int amountRead = input.read(contentRawBuffer);
-    if (amountRead == contentRawBuffer.length) {
-      return new String(contentRawBuffer, STANDARD_CHARSET);
+    if (keepAlive) {
+      responseHead.append("Connection: keep-alive" + HTTP_NEW_LINE);
+      responseHead.append("Keep-Alive: timeout=" + HttpServer.IDLE_TIMEOUT / 1_000 + HTTP_NEW_LINE);
+    } else {
+      responseHead.append("Connection: close" + HTTP_NEW_LINE);
     }
-    final byte[] contentRaw = Arrays.copyOf(contentRawBuffer, amountRead);
-    return new String(contentRaw, STANDARD_CHARSET);
+    return responseHead;
   }
 
   /**
-   * Reads one line of the given HTTP stream.<br>
-   * <br>
-   * The method only reads exactly one line. In particular, it does not read
-   * more than desired for buffering purpose.
+   * Parses the quality value out of an entry of an <tt>Accept</tt> or
+   * <tt>Accept-Encoding</tt> header, like <tt>gzip;q=0.5</tt>.
    *
-   * @param input The input stream to read from
-   * @return The read line, interpreted as string in the standard charset
-   *         represented by {@link #STANDARD_CHARSET}
-   * @throws IOException If an I/O exception occurred while reading from the
-   *                     stream
+   * @param entry The entry to parse
+   * @return The quality value of the entry, <tt>1</tt> if not present and
+   *         <tt>0</tt> if malformed
    */
-  private static String readHttpLine(final InputStream input) throws IOException {
-    final ByteArrayOutputStream byteArrayOutput = new ByteArrayOutputStream();
-
-    int valueBefore = 0;
-    int value = 0;
-    while (value != -1 && !(valueBefore == '\r' && value == '\n')) {
-      valueBefore = value;
-      value = input.read();
-
-      if (value == '\r' || value == '\n') {
-        continue;
-      }
-
-      byteArrayOutput.write(value);
+  private static double parseQuality(final String entry) {
+    final int parametersStart = entry.indexOf(';');
+    if (parametersStart == -1) {
+      return 1.0;
     }
-
-    if (value == -1 && byteArrayOutput.size() == 0) {
-      return null;
+    for (final String parameter : entry.substring(parametersStart + 1).split(";")) {
+      final String trimmedParameter = parameter.trim();
+      if (trimmedParameter.startsWith("q=")) {
+        try {
+          return Double.parseDouble(trimmedParameter.substring(2).trim());
+        } catch (final NumberFormatException e) {
+          return 0.0;
+        }
+      }
     }
-
-    return byteArrayOutput.toString(STANDARD_CHARSET.name());
+    return 1.0;
   }
 
   /**
@@ -0,0 +1,22 @@
+package de.unifreiburg.informatik.cobweb.util.http;
+
+import java.io.IOException;
+
+/**
+ * Interface for classes that handle HTTP requests of a resource served by a
+ * {@link HttpServer}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+@FunctionalInterface
+public interface IHttpHandler {
+  /**
+   * Handles the given request and sends exactly one response using the given
+   * responder. The method is called on a worker thread, it may block.
+   *
+   * @param request   The request to handle
+   * @param responder The responder to send the response with
+   * @throws IOException If an I/O exception occurred while sending the response
+   */
+  void handleRequest(HttpRequest request, IHttpResponder responder) throws IOException;
+}
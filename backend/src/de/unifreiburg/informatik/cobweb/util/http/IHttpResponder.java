@@ -0,0 +1,50 @@
+package de.unifreiburg.informatik.cobweb.util.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * Interface for classes that send the response to a single HTTP request.
+ * Exactly one of the methods must be used, and only once. The content is
+ * compressed transparently if the client accepts it.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public interface IHttpResponder {
+  /**
+   * Sends the given response.
+   *
+   * @param response The response to send
+   * @throws IOException If an I/O exception occurred while sending the response
+   */
+  void send(HttpResponse response) throws IOException;
+
+  /**
+   * Sends the status line and headers of the given response. The content is
+   * not sent, it can be streamed to the client using the returned writer
+   * instead. This allows sending content whose length is not known in
+   * advance, while it is still computed. Flushing the writer sends the content
+   * written so far.
+   *
+   * @param response The response whose status and headers to send, its content
+   *                 is ignored
+   * @return A writer to write the content to, in UTF-8. Must be closed once the
+   *         content is written, which ends the response.
+   * @throws IOException If an I/O exception occurred while sending the head
+   */
+  Writer sendHead(HttpResponse response) throws IOException;
+
+  /**
+   * Sends the status line and headers of the given response, like
+   * {@link #sendHead(HttpResponse)}. The content is streamed to the client as
+   * raw bytes using the returned stream instead, as needed for binary content.
+   *
+   * @param response The response whose status and headers to send, its content
+   *                 is ignored
+   * @return A stream to write the content to. Must be closed once the content
+   *         is written, which ends the response.
+   * @throws IOException If an I/O exception occurred while sending the head
+   */
+  OutputStream sendHeadRaw(HttpResponse response) throws IOException;
+}
@@ -0,0 +1,137 @@
+package de.unifreiburg.informatik.cobweb.util.http;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded pool of worker threads handling the requests of one or more
+ * resources of a {@link HttpServer}.<br>
+ * <br>
+ * The pool uses a fixed amount of threads and queues at most a limited amount
+ * of tasks. Tasks exceeding the limit are rejected immediately instead of
+ * being queued. Tasks that waited in the queue longer than the queue timeout
+ * are rejected once they are dequeued, since the client most likely gave up on
+ * them already. This sheds load fast when the pool is saturated, instead of
+ * letting the latency grow for everyone.<br>
+ * <br>
+ * Resources with cheap requests should use a pool of their own, such that they
+ * are never queued behind expensive requests of other resources.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class WorkerPool {
+  /**
+   * Executor used to run the tasks.
+   */
+  private final ThreadPoolExecutor mExecutor;
+  /**
+   * The name of the pool.
+   */
+  private final String mName;
+  /**
+   * The maximal time a task may wait in the queue, in nanoseconds.
+   */
+  private final long mQueueTimeout;
+  /**
+   * The amount of tasks that were rejected so far.
+   */
+  private final AtomicLong mRejectedCount;
+
+  /**
+   * Creates a new pool with the given limits.
+   *
+   * @param name         The name of the pool, used to name its threads
+   * @param threads      The amount of threads, must be positive
+   * @param queueLimit   The maximal amount of tasks waiting for a thread, must
+   *                     be positive
+   * @param queueTimeout The maximal time a task may wait for a thread, in
+   *                     milliseconds
+   */
+  public WorkerPool(final String name, final int threads, final int queueLimit, final int queueTimeout) {
+    mName = name;
+    mQueueTimeout = TimeUnit.MILLISECONDS.toNanos(queueTimeout);
+    mRejectedCount = new AtomicLong();
+
+    final AtomicInteger threadCounter = new AtomicInteger();
+    mExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueLimit),
+        runnable -> new Thread(runnable, name + "-worker-" + threadCounter.incrementAndGet()),
+        new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  /**
+   * Executes the given task on a thread of the pool. If the pool is saturated
+   * or the task waited too long for a thread, the given rejection is executed
+   * instead. The rejection is then either executed on the calling thread or on
+   * a thread of the pool, it should be cheap.
+   *
+   * @param task      The task to execute
+   * @param rejection The task to execute instead if the task is rejected
+   */
+  public void execute(final Runnable task, final Runnable rejection) {
+    final long deadline = System.nanoTime() + mQueueTimeout;
+    try {
+      mExecutor.execute(() -> {
+        if (System.nanoTime() - deadline > 0) {
+          mRejectedCount.incrementAndGet();
+          rejection.run();
+          return;
+        }
+        task.run();
+      });
+    } catch (final RejectedExecutionException e) {
+      mRejectedCount.incrementAndGet();
+      rejection.run();
+    }
+  }
+
+  /**
+   * Gets the name of the pool.
+   *
+   * @return The name of the pool
+   */
+  public String getName() {
+    return mName;
+  }
+
+  /**
+   * Gets the amount of tasks that were rejected so far, either since the pool
+   * was saturated or since they waited too long.
+   *
+   * @return The amount of rejected tasks
+   */
+  public long getRejectedCount() {
+    return mRejectedCount.get();
+  }
+
+  /**
+   * Shuts the pool down. Tasks that are already queued are still executed,
+   * new tasks are rejected.
+   */
+  public void shutdown() {
+    mExecutor.shutdown();
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder();
+    builder.append("WorkerPool [name=");
+    builder.append(mName);
+    builder.append(", threads=");
+    builder.append(mExecutor.getMaximumPoolSize());
+    builder.append(", queued=");
+    builder.append(mExecutor.getQueue().size());
+    builder.append(", rejected=");
+    builder.append(mRejectedCount.get());
+    builder.append("]");
+    return builder.toString();
+  }
+}
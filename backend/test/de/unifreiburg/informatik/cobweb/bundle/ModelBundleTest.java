@@ -0,0 +1,89 @@
+package de.unifreiburg.informatik.cobweb.bundle;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.unifreiburg.informatik.cobweb.routing.model.ERoutingModelMode;
+
+/**
+ * Test for the class {@link ModelBundle}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class ModelBundleTest {
+  /**
+   * The directory used as bundle for testing.
+   */
+  private Path mDirectory;
+
+  /**
+   * Setups a directory for testing.
+   *
+   * @throws IOException If an I/O exception occurred while creating the
+   *                     directory
+   */
+  @Before
+  public void setUp() throws IOException {
+    mDirectory = Files.createTempDirectory("modelBundle");
+  }
+
+  /**
+   * Removes the directory used for testing together with its content.
+   *
+   * @throws IOException If an I/O exception occurred while deleting the files
+   */
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(mDirectory.resolve(ModelBundle.MANIFEST));
+    for (final EBundleArtifact artifact : EBundleArtifact.values()) {
+      Files.deleteIfExists(mDirectory.resolve(artifact.getFileName()));
+    }
+    Files.deleteIfExists(mDirectory);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.bundle.ModelBundle#open(Path, ERoutingModelMode)}.
+   *
+   * @throws IOException If an I/O exception occurred while accessing the files
+   */
+  @Test
+  public void testOpen() throws IOException {
+    Assert.assertFalse(ModelBundle.open(mDirectory, ERoutingModelMode.GRAPH_WITH_TIMETABLE).isPresent());
+
+    final ModelBundle bundle = ModelBundle.create(mDirectory, ERoutingModelMode.GRAPH_WITH_TIMETABLE);
+    for (final EBundleArtifact artifact : EBundleArtifact.values()) {
+      Files.write(bundle.getArtifact(artifact), new byte[] { 1, 2, 3 });
+    }
+    // Not committed yet
+    Assert.assertFalse(ModelBundle.open(mDirectory, ERoutingModelMode.GRAPH_WITH_TIMETABLE).isPresent());
+
+    bundle.commit();
+    Assert.assertTrue(ModelBundle.open(mDirectory, ERoutingModelMode.GRAPH_WITH_TIMETABLE).isPresent());
+    Assert.assertFalse(ModelBundle.open(mDirectory, ERoutingModelMode.LINK_GRAPH).isPresent());
+
+    // Modified artifact
+    Files.write(bundle.getArtifact(EBundleArtifact.NAMES), new byte[] { 1 });
+    Assert.assertFalse(ModelBundle.open(mDirectory, ERoutingModelMode.GRAPH_WITH_TIMETABLE).isPresent());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.bundle.ModelBundle#commit()} with
+   * a missing artifact.
+   *
+   * @throws IOException If an I/O exception occurred while accessing the files
+   */
+  @Test(expected = IOException.class)
+  public void testCommitMissingArtifact() throws IOException {
+    final ModelBundle bundle = ModelBundle.create(mDirectory, ERoutingModelMode.GRAPH_WITH_TIMETABLE);
+    Files.write(bundle.getArtifact(EBundleArtifact.GRAPH), new byte[] { 1 });
+    bundle.commit();
+  }
+}
@@ -159,6 +159,18 @@ public final class MemoryDatabaseTest {
     Assert.assertFalse(mMemoryDatabase.getNodeName(0L).isPresent());
   }
 
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.MemoryDatabase#getNodeNamesByInternal(int[])}.
+   */
+  @Test
+  public final void testGetNodeNamesByInternal() {
+    final String[] names = mMemoryDatabase.getNodeNamesByInternal(new int[] { 0, 1, 10, -1 });
+    Assert.assertArrayEquals(new String[] { "Wall street 2", null, null, null }, names);
+
+    Assert.assertEquals(0, mMemoryDatabase.getNodeNamesByInternal(new int[0]).length);
+  }
+
   /**
    * Test method for
    * {@link de.unifreiburg.informatik.cobweb.db.MemoryDatabase#getOsmNodeByInternal(int)}.
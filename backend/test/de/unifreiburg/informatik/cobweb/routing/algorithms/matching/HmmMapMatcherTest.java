@@ -0,0 +1,224 @@
+package de.unifreiburg.informatik.cobweb.routing.algorithms.matching;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.unifreiburg.informatik.cobweb.parsing.osm.EHighwayType;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.SegmentIndex;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadGraph;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadNode;
+
+/**
+ * Test for the class {@link HmmMapMatcher}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class HmmMapMatcherTest {
+  /**
+   * The amount of columns of the grid used for testing.
+   */
+  private static final int COLUMNS = 4;
+  /**
+   * The longitude difference between two columns of the grid, roughly
+   * <tt>110</tt> metres.
+   */
+  private static final float COLUMN_STEP = 0.0015F;
+  /**
+   * The amount of rows of the grid used for testing.
+   */
+  private static final int ROWS = 4;
+  /**
+   * The latitude difference between two rows of the grid, roughly
+   * <tt>110</tt> metres.
+   */
+  private static final float ROW_STEP = 0.001F;
+
+  /**
+   * Adds measurements along the straight line between the given coordinates to
+   * the given trace. The measurements are shifted alternately to both sides of
+   * the line to simulate measurement noise.
+   *
+   * @param trace          The trace to add the measurements to
+   * @param startLatitude  The latitude to start at
+   * @param startLongitude The longitude to start at
+   * @param endLatitude    The latitude to end at, exclusive
+   * @param endLongitude   The longitude to end at, exclusive
+   * @param amount         The amount of measurements to add
+   */
+  private static void addMeasurements(final List<float[]> trace, final float startLatitude,
+      final float startLongitude, final float endLatitude, final float endLongitude, final int amount) {
+    for (int i = 0; i < amount; i++) {
+      final float fraction = (float) i / amount;
+      final float noise = (i % 2 == 0 ? 1 : -1) * 0.00004F;
+      trace.add(new float[] { startLatitude + fraction * (endLatitude - startLatitude) + noise,
+          startLongitude + fraction * (endLongitude - startLongitude) + noise });
+    }
+  }
+
+  /**
+   * Gets the latitude of the given row of the grid.
+   *
+   * @param row The row
+   * @return The latitude
+   */
+  private static float getLatitude(final int row) {
+    return 48.0F + row * ROW_STEP;
+  }
+
+  /**
+   * Gets the longitude of the given column of the grid.
+   *
+   * @param column The column
+   * @return The longitude
+   */
+  private static float getLongitude(final int column) {
+    return 7.8F + column * COLUMN_STEP;
+  }
+
+  /**
+   * Gets the ID of the node at the given grid position.
+   *
+   * @param row    The row of the node
+   * @param column The column of the node
+   * @return The ID of the node
+   */
+  private static int getNodeId(final int row, final int column) {
+    return row * COLUMNS + column;
+  }
+
+  /**
+   * The graph used for testing, a grid of roads.
+   */
+  private RoadGraph<RoadNode, RoadEdge<RoadNode>> mGraph;
+  /**
+   * The map matcher used for testing.
+   */
+  private HmmMapMatcher<RoadNode, RoadEdge<RoadNode>> mMatcher;
+
+  /**
+   * Setups a map matcher instance for testing.
+   */
+  @Before
+  public void setUp() {
+    mGraph = new RoadGraph<>();
+    for (int row = 0; row < ROWS; row++) {
+      for (int column = 0; column < COLUMNS; column++) {
+        mGraph.addNode(new RoadNode(HmmMapMatcherTest.getNodeId(row, column), HmmMapMatcherTest.getLatitude(row),
+            HmmMapMatcherTest.getLongitude(column)));
+      }
+    }
+
+    int edgeId = 0;
+    for (int row = 0; row < ROWS; row++) {
+      for (int column = 0; column < COLUMNS; column++) {
+        final RoadNode node = mGraph.getNodeById(HmmMapMatcherTest.getNodeId(row, column)).get();
+        if (column + 1 < COLUMNS) {
+          final RoadNode right = mGraph.getNodeById(HmmMapMatcherTest.getNodeId(row, column + 1)).get();
+          addEdge(edgeId++, node, right);
+          addEdge(edgeId++, right, node);
+        }
+        if (row + 1 < ROWS) {
+          final RoadNode up = mGraph.getNodeById(HmmMapMatcherTest.getNodeId(row + 1, column)).get();
+          addEdge(edgeId++, node, up);
+          addEdge(edgeId++, up, node);
+        }
+      }
+    }
+
+    mMatcher = new HmmMapMatcher<>(mGraph, new SegmentIndex<>(mGraph.getEdges().collect(Collectors.toList())));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.algorithms.matching.HmmMapMatcher#match(java.util.List, java.util.function.Consumer)}.
+   */
+  @Test
+  public void testMatch() {
+    // Drive along the first row and then up the last column
+    final float firstRow = HmmMapMatcherTest.getLatitude(0);
+    final float lastColumn = HmmMapMatcherTest.getLongitude(COLUMNS - 1);
+    final List<float[]> trace = new ArrayList<>();
+    HmmMapMatcherTest.addMeasurements(trace, firstRow, HmmMapMatcherTest.getLongitude(0) + COLUMN_STEP / 4, firstRow,
+        lastColumn, 15);
+    HmmMapMatcherTest.addMeasurements(trace, firstRow, lastColumn, firstRow + 1.5F * ROW_STEP, lastColumn, 8);
+
+    final List<RoadEdge<RoadNode>> expectedEdges = Arrays.asList(getEdge(0, 0, 0, 1), getEdge(0, 1, 0, 2),
+        getEdge(0, 2, 0, 3), getEdge(0, 3, 1, 3), getEdge(1, 3, 2, 3));
+    Assert.assertEquals(expectedEdges, match(trace));
+
+    // Outliers far away from any road are skipped
+    trace.add(5, new float[] { firstRow + 1.0F, lastColumn + 1.0F });
+    Assert.assertEquals(expectedEdges, match(trace));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.algorithms.matching.HmmMapMatcher#match(java.util.List, java.util.function.Consumer)}.
+   */
+  @Test
+  public void testMatchShortTraces() {
+    final float firstRow = HmmMapMatcherTest.getLatitude(0);
+    final float firstColumn = HmmMapMatcherTest.getLongitude(0);
+    Assert.assertTrue(match(Collections.emptyList()).isEmpty());
+    Assert.assertTrue(match(Collections.singletonList(new float[] { firstRow + 1.0F, firstColumn + 1.0F })).isEmpty());
+
+    // A single measurement is matched onto the road it lies on, in either
+    // direction
+    final List<RoadEdge<RoadNode>> edges =
+        match(Collections.singletonList(new float[] { firstRow, firstColumn + COLUMN_STEP / 2 }));
+    Assert.assertEquals(1, edges.size());
+    Assert.assertTrue(edges.get(0).equals(getEdge(0, 0, 0, 1)) || edges.get(0).equals(getEdge(0, 1, 0, 0)));
+  }
+
+  /**
+   * Adds an edge with the given ID between the given nodes to the graph.
+   *
+   * @param id          The ID of the edge
+   * @param source      The source of the edge
+   * @param destination The destination of the edge
+   */
+  private void addEdge(final int id, final RoadNode source, final RoadNode destination) {
+    mGraph.addEdge(
+        new RoadEdge<>(id, source, destination, EHighwayType.RESIDENTIAL, 50, EnumSet.of(ETransportationMode.CAR)));
+  }
+
+  /**
+   * Gets the edge between the nodes at the given grid positions.
+   *
+   * @param sourceRow         The row of the source
+   * @param sourceColumn      The column of the source
+   * @param destinationRow    The row of the destination
+   * @param destinationColumn The column of the destination
+   * @return The edge
+   */
+  private RoadEdge<RoadNode> getEdge(final int sourceRow, final int sourceColumn, final int destinationRow,
+      final int destinationColumn) {
+    final RoadNode source = mGraph.getNodeById(HmmMapMatcherTest.getNodeId(sourceRow, sourceColumn)).get();
+    final RoadNode destination =
+        mGraph.getNodeById(HmmMapMatcherTest.getNodeId(destinationRow, destinationColumn)).get();
+    return mGraph.getOutgoingEdges(source).filter(edge -> edge.getDestination().equals(destination)).findFirst()
+        .get();
+  }
+
+  /**
+   * Matches the given trace and collects the matched edges.
+   *
+   * @param trace The trace to match
+   * @return The matched edges in order
+   */
+  private List<RoadEdge<RoadNode>> match(final List<float[]> trace) {
+    final List<RoadEdge<RoadNode>> edges = new ArrayList<>();
+    mMatcher.match(trace, edges::add);
+    return edges;
+  }
+}
@@ -0,0 +1,41 @@
+package de.unifreiburg.informatik.cobweb.routing.algorithms.metrics;
+
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.unifreiburg.informatik.cobweb.routing.model.PlanarProjection;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadNode;
+
+/**
+ * Test for the class {@link PlanarMetric}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class PlanarMetricTest {
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.algorithms.metrics.PlanarMetric#distance(de.unifreiburg.informatik.cobweb.routing.model.graph.ISpatial, de.unifreiburg.informatik.cobweb.routing.model.graph.ISpatial)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public final void testDistance() {
+    final RoadNode first = new RoadNode(1, 47.9F, 7.7F);
+    final RoadNode second = new RoadNode(2, 48.1F, 8.0F);
+    final PlanarMetric<RoadNode> metric = new PlanarMetric<>(PlanarProjection.of(Stream.of(first, second)));
+    final AsTheCrowFliesMetric<RoadNode> exactMetric = new AsTheCrowFliesMetric<>();
+
+    Assert.assertEquals(0.0, metric.distance(first, first), 0.0001);
+    Assert.assertEquals(0.0, metric.distance(second, second), 0.0001);
+    Assert.assertEquals(metric.distance(first, second), metric.distance(second, first), 0.0001);
+
+    // Admissible compared to the exact metric, but close to it
+    final double distance = metric.distance(first, second);
+    final double exactDistance = exactMetric.distance(first, second);
+    Assert.assertTrue(distance <= exactDistance);
+    Assert.assertEquals(exactDistance, distance, exactDistance * 0.01);
+  }
+
+}
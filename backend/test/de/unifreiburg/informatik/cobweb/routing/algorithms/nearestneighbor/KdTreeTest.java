@@ -0,0 +1,227 @@
+package de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+
+import org.eclipse.collections.impl.list.mutable.FastList;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.unifreiburg.informatik.cobweb.routing.algorithms.metrics.IMetric;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.metrics.PlanarMetric;
+import de.unifreiburg.informatik.cobweb.routing.model.PlanarProjection;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.IHasId;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadNode;
+
+/**
+ * Test for the class {@link KdTree}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class KdTreeTest {
+  /**
+   * The amount of random queries to compare against a linear search.
+   */
+  private static final int AMOUNT_OF_QUERIES = 200;
+
+  /**
+   * The elements of the tree used for testing.
+   */
+  private List<RoadNode> mElements;
+  /**
+   * The metric the tree measures distances with.
+   */
+  private IMetric<RoadNode> mMetric;
+  /**
+   * The random generator used for queries.
+   */
+  private Random mRandom;
+  /**
+   * The tree used for testing.
+   */
+  private KdTree<RoadNode> mTree;
+
+  /**
+   * Setups a tree instance for testing.
+   */
+  @Before
+  public void setUp() {
+    mRandom = new Random(42);
+    mElements = FastList.newList();
+    for (int i = 0; i < 500; i++) {
+      mElements.add(new RoadNode(i, 47.9F + mRandom.nextFloat() * 0.2F, 7.7F + mRandom.nextFloat() * 0.3F));
+    }
+    // Duplicates of coordinates
+    for (int i = 500; i < 520; i++) {
+      mElements.add(new RoadNode(i, 48.0F, 7.85F));
+    }
+    mMetric = new PlanarMetric<>(PlanarProjection.of(mElements.stream()));
+    mTree = new KdTree<>(mElements);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.KdTree#getElements()}.
+   */
+  @Test
+  public void testGetElements() {
+    final Set<Integer> expected = mElements.stream().map(IHasId::getId).collect(Collectors.toSet());
+    final Set<Integer> actual = mTree.getElements().stream().map(IHasId::getId).collect(Collectors.toSet());
+    Assert.assertEquals(expected, actual);
+    Assert.assertEquals(mElements.size(), mTree.getElements().size());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.KdTree#getKNearestNeighbors(de.unifreiburg.informatik.cobweb.routing.model.graph.ISpatial, int)}.
+   */
+  @Test
+  public void testGetKNearestNeighbors() {
+    for (int i = 0; i < AMOUNT_OF_QUERIES; i++) {
+      final RoadNode point = createRandomPoint();
+      final int k = 1 + mRandom.nextInt(10);
+      final List<RoadNode> neighbors = FastList.newList(mTree.getKNearestNeighbors(point, k));
+      Assert.assertEquals(k, neighbors.size());
+
+      final List<RoadNode> expected = FastList.newList(mElements);
+      expected.sort(Comparator.comparingDouble(element -> mMetric.distance(element, point)));
+      for (int j = 0; j < k; j++) {
+        // Compare distances since neighbors with equal distance may be ordered
+        // arbitrarily
+        Assert.assertEquals(mMetric.distance(expected.get(j), point), mMetric.distance(neighbors.get(j), point),
+            0.0);
+      }
+    }
+
+    final RoadNode point = createRandomPoint();
+    Assert.assertTrue(mTree.getKNearestNeighbors(point, 0).isEmpty());
+    Assert.assertEquals(mElements.size(), mTree.getKNearestNeighbors(point, mElements.size() + 10).size());
+    Assert.assertTrue(new KdTree<RoadNode>(Collections.emptyList()).getKNearestNeighbors(point, 3).isEmpty());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.KdTree#getNearestNeighbor(de.unifreiburg.informatik.cobweb.routing.model.graph.ISpatial)}.
+   */
+  @Test
+  public void testGetNearestNeighbor() {
+    for (int i = 0; i < AMOUNT_OF_QUERIES; i++) {
+      final RoadNode point = createRandomPoint();
+      final double expected =
+          mElements.stream().mapToDouble(element -> mMetric.distance(element, point)).min().getAsDouble();
+      Assert.assertEquals(expected, mMetric.distance(mTree.getNearestNeighbor(point).get(), point), 0.0);
+    }
+
+    // Element contained in the tree
+    final RoadNode element = mElements.get(123);
+    Assert.assertEquals(element.getId(), mTree.getNearestNeighbor(element).get().getId());
+
+    Assert.assertFalse(new KdTree<RoadNode>(Collections.emptyList()).getNearestNeighbor(element).isPresent());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.KdTree#getNearestNeighbor(de.unifreiburg.informatik.cobweb.routing.model.graph.ISpatial, java.util.function.IntPredicate)}.
+   */
+  @Test
+  public void testGetNearestNeighborFiltered() {
+    // Only accept elements with an even identifier
+    final List<RoadNode> treeOrder = mTree.getElements();
+    final IntPredicate filter = index -> treeOrder.get(index).getId() % 2 == 0;
+    for (int i = 0; i < AMOUNT_OF_QUERIES; i++) {
+      final RoadNode point = createRandomPoint();
+      final double expected = mElements.stream().filter(element -> element.getId() % 2 == 0)
+          .mapToDouble(element -> mMetric.distance(element, point)).min().getAsDouble();
+      final RoadNode nearest = mTree.getNearestNeighbor(point, filter).get();
+      Assert.assertEquals(0, nearest.getId() % 2);
+      Assert.assertEquals(expected, mMetric.distance(nearest, point), 0.0);
+    }
+
+    Assert.assertFalse(mTree.getNearestNeighbor(mElements.get(0), index -> false).isPresent());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.KdTree#getNeighborhood(de.unifreiburg.informatik.cobweb.routing.model.graph.ISpatial, double)}.
+   */
+  @Test
+  public void testGetNeighborhood() {
+    for (int i = 0; i < AMOUNT_OF_QUERIES; i++) {
+      final RoadNode point = createRandomPoint();
+      final double range = mRandom.nextDouble() * 60.0;
+      final Set<Integer> expected = mElements.stream().filter(element -> mMetric.distance(element, point) <= range)
+          .map(IHasId::getId).collect(Collectors.toSet());
+      final List<Integer> neighborhood =
+          mTree.getNeighborhood(point, range).stream().map(IHasId::getId).collect(Collectors.toList());
+      Assert.assertEquals(expected.size(), neighborhood.size());
+      Assert.assertEquals(expected, neighborhood.stream().collect(Collectors.toSet()));
+    }
+
+    // Duplicates are all contained
+    Assert.assertEquals(20, mTree.getNeighborhood(new RoadNode(-1, 48.0F, 7.85F), 0.0).stream()
+        .filter(element -> element.getId() >= 500).count());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.KdTree#KdTree(java.util.Collection)}.
+   */
+  @Test
+  public void testKdTree() {
+    Assert.assertEquals(mElements.size(), mTree.size());
+    Assert.assertEquals(0, new KdTree<RoadNode>(Collections.emptyList()).size());
+    Assert.assertEquals(1, new KdTree<>(Collections.singletonList(mElements.get(0))).size());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.KdTree#KdTree(java.util.Collection)}
+   * with enough elements to be built in parallel.
+   */
+  @Test
+  public void testKdTreeParallel() {
+    final List<RoadNode> elements = FastList.newList();
+    for (int i = 0; i < 5 * KdTreeBuildTask.SEQUENTIAL_THRESHOLD; i++) {
+      elements.add(new RoadNode(i, 47.9F + mRandom.nextFloat() * 0.2F, 7.7F + mRandom.nextFloat() * 0.3F));
+    }
+    final KdTree<RoadNode> tree = new KdTree<>(elements);
+    Assert.assertEquals(elements.size(), tree.size());
+    final IMetric<RoadNode> metric = new PlanarMetric<>(PlanarProjection.of(elements.stream()));
+
+    for (int i = 0; i < AMOUNT_OF_QUERIES; i++) {
+      final RoadNode point = createRandomPoint();
+      final double expected =
+          elements.stream().mapToDouble(element -> metric.distance(element, point)).min().getAsDouble();
+      Assert.assertEquals(expected, metric.distance(tree.getNearestNeighbor(point).get(), point), 0.0);
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.KdTree#restore(java.util.List)}.
+   */
+  @Test
+  public void testRestore() {
+    final KdTree<RoadNode> tree = KdTree.restore(mTree.getElements());
+    Assert.assertEquals(mTree.getElements(), tree.getElements());
+    for (int i = 0; i < AMOUNT_OF_QUERIES; i++) {
+      final RoadNode point = createRandomPoint();
+      Assert.assertEquals(mTree.getNearestNeighbor(point).get().getId(), tree.getNearestNeighbor(point).get().getId());
+    }
+  }
+
+  /**
+   * Creates a random point in the area of the elements used for testing.
+   *
+   * @return The random point
+   */
+  private RoadNode createRandomPoint() {
+    return new RoadNode(-1, 47.85F + mRandom.nextFloat() * 0.3F, 7.65F + mRandom.nextFloat() * 0.4F);
+  }
+}
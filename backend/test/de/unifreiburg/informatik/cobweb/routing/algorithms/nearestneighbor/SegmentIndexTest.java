@@ -0,0 +1,261 @@
+package de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import org.eclipse.collections.impl.list.mutable.FastList;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.unifreiburg.informatik.cobweb.parsing.osm.EHighwayType;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.EdgePosition;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadNode;
+import de.unifreiburg.informatik.cobweb.util.RoutingUtil;
+
+/**
+ * Test for the class {@link SegmentIndex}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class SegmentIndexTest {
+  /**
+   * The amount of random queries to compare against a linear search.
+   */
+  private static final int AMOUNT_OF_QUERIES = 200;
+
+  /**
+   * Computes the squared distance of the given coordinates to the given edge,
+   * in the same projection the index uses.
+   *
+   * @param edge      The edge to compute the distance to
+   * @param latitude  The latitude of the query
+   * @param longitude The longitude of the query
+   * @return The squared distance
+   */
+  private static double distanceToEdge(final RoadEdge<RoadNode> edge, final float latitude, final float longitude) {
+    final double longitudeScale = Math.cos(Math.toRadians(latitude));
+    final RoadNode source = edge.getSource();
+    final RoadNode destination = edge.getDestination();
+    final double segmentY = destination.getLatitude() - source.getLatitude();
+    final double segmentX = (destination.getLongitude() - source.getLongitude()) * longitudeScale;
+    final double queryY = latitude - source.getLatitude();
+    final double queryX = (longitude - source.getLongitude()) * longitudeScale;
+    final double squaredLength = segmentX * segmentX + segmentY * segmentY;
+    double fraction = 0.0;
+    if (squaredLength > 0.0) {
+      fraction = Math.max(0.0, Math.min(1.0, (queryX * segmentX + queryY * segmentY) / squaredLength));
+    }
+    final double diffY = queryY - fraction * segmentY;
+    final double diffX = queryX - fraction * segmentX;
+    return diffX * diffX + diffY * diffY;
+  }
+
+  /**
+   * The edges of the index used for testing.
+   */
+  private List<RoadEdge<RoadNode>> mEdges;
+  /**
+   * The index used for testing.
+   */
+  private SegmentIndex<RoadNode, RoadEdge<RoadNode>> mIndex;
+  /**
+   * The random generator used for queries.
+   */
+  private Random mRandom;
+
+  /**
+   * Setups an index instance for testing.
+   */
+  @Before
+  public void setUp() {
+    mRandom = new Random(42);
+    mEdges = FastList.newList();
+    for (int i = 0; i < 2_000; i++) {
+      final RoadNode source =
+          new RoadNode(2 * i, 47.9F + mRandom.nextFloat() * 0.2F, 7.7F + mRandom.nextFloat() * 0.3F);
+      final RoadNode destination = new RoadNode(2 * i + 1, source.getLatitude() + (mRandom.nextFloat() - 0.5F) * 0.01F,
+          source.getLongitude() + (mRandom.nextFloat() - 0.5F) * 0.01F);
+      mEdges.add(new RoadEdge<>(i, source, destination, EHighwayType.RESIDENTIAL, 50,
+          EnumSet.of(ETransportationMode.CAR)));
+    }
+    mIndex = new SegmentIndex<>(mEdges);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.SegmentIndex#getNearestEdge(float, float)}.
+   */
+  @Test
+  public void testGetNearestEdge() {
+    for (int i = 0; i < AMOUNT_OF_QUERIES; i++) {
+      final float latitude = 47.85F + mRandom.nextFloat() * 0.3F;
+      final float longitude = 7.65F + mRandom.nextFloat() * 0.4F;
+
+      double expectedDistance = Double.POSITIVE_INFINITY;
+      for (final RoadEdge<RoadNode> edge : mEdges) {
+        expectedDistance = Math.min(expectedDistance, SegmentIndexTest.distanceToEdge(edge, latitude, longitude));
+      }
+
+      final Optional<EdgePosition<RoadNode, RoadEdge<RoadNode>>> position = mIndex.getNearestEdge(latitude, longitude);
+      Assert.assertTrue(position.isPresent());
+      Assert.assertFalse(position.get().isAtNode());
+      Assert.assertEquals(expectedDistance,
+          SegmentIndexTest.distanceToEdge(position.get().getEdge(), latitude, longitude), 1e-12);
+      Assert.assertTrue(position.get().getFraction() >= 0.0 && position.get().getFraction() <= 1.0);
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.SegmentIndex#getNearestEdge(float, float, java.util.function.Predicate)}.
+   */
+  @Test
+  public void testGetNearestEdgeFiltered() {
+    for (int i = 0; i < AMOUNT_OF_QUERIES; i++) {
+      final float latitude = 47.85F + mRandom.nextFloat() * 0.3F;
+      final float longitude = 7.65F + mRandom.nextFloat() * 0.4F;
+
+      double expectedDistance = Double.POSITIVE_INFINITY;
+      for (final RoadEdge<RoadNode> edge : mEdges) {
+        if (edge.getId() % 2 == 0) {
+          expectedDistance = Math.min(expectedDistance, SegmentIndexTest.distanceToEdge(edge, latitude, longitude));
+        }
+      }
+
+      final Optional<EdgePosition<RoadNode, RoadEdge<RoadNode>>> position =
+          mIndex.getNearestEdge(latitude, longitude, edge -> edge.getId() % 2 == 0);
+      Assert.assertTrue(position.isPresent());
+      Assert.assertEquals(0, position.get().getEdge().getId() % 2);
+      Assert.assertEquals(expectedDistance,
+          SegmentIndexTest.distanceToEdge(position.get().getEdge(), latitude, longitude), 1e-12);
+    }
+
+    // No accepted edge
+    Assert.assertFalse(mIndex.getNearestEdge(48.0F, 7.8F, edge -> false).isPresent());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.SegmentIndex#getNearestEdge(float, float, double, java.util.function.Predicate)}.
+   */
+  @Test
+  public void testGetNearestEdgeWithinDistance() {
+    final double maxDistance = 300.0;
+    final double maxDegrees = RoutingUtil.distanceToDegrees(maxDistance);
+    for (int i = 0; i < AMOUNT_OF_QUERIES; i++) {
+      final float latitude = 47.85F + mRandom.nextFloat() * 0.3F;
+      final float longitude = 7.65F + mRandom.nextFloat() * 0.4F;
+
+      double expectedDistance = Double.POSITIVE_INFINITY;
+      for (final RoadEdge<RoadNode> edge : mEdges) {
+        if (edge.getId() % 2 == 0) {
+          expectedDistance = Math.min(expectedDistance, SegmentIndexTest.distanceToEdge(edge, latitude, longitude));
+        }
+      }
+
+      final Optional<EdgePosition<RoadNode, RoadEdge<RoadNode>>> position =
+          mIndex.getNearestEdge(latitude, longitude, maxDistance, edge -> edge.getId() % 2 == 0);
+      if (expectedDistance >= maxDegrees * maxDegrees) {
+        Assert.assertFalse(position.isPresent());
+        continue;
+      }
+      Assert.assertTrue(position.isPresent());
+      Assert.assertEquals(expectedDistance,
+          SegmentIndexTest.distanceToEdge(position.get().getEdge(), latitude, longitude), 1e-12);
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.SegmentIndex#getNearestEdge(float, float)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testGetNearestEdgeProjection() {
+    final RoadNode source = new RoadNode(1, 48.0F, 7.8F);
+    final RoadNode destination = new RoadNode(2, 48.0F, 7.9F);
+    final RoadEdge<RoadNode> edge =
+        new RoadEdge<>(1, source, destination, EHighwayType.RESIDENTIAL, 50, EnumSet.of(ETransportationMode.CAR));
+    final SegmentIndex<RoadNode, RoadEdge<RoadNode>> index = new SegmentIndex<>(Collections.singletonList(edge));
+
+    // Projection onto the inside of the segment
+    EdgePosition<RoadNode, RoadEdge<RoadNode>> position = index.getNearestEdge(48.01F, 7.825F).get();
+    Assert.assertEquals(edge, position.getEdge());
+    Assert.assertEquals(0.25, position.getFraction(), 0.0001);
+    Assert.assertEquals(48.0F, position.getLatitude(), 0.0001F);
+    Assert.assertEquals(7.825F, position.getLongitude(), 0.0001F);
+
+    // Projections beyond the endpoints are clamped
+    position = index.getNearestEdge(48.0F, 7.7F).get();
+    Assert.assertEquals(0.0, position.getFraction(), 0.0);
+    Assert.assertEquals(7.8F, position.getLongitude(), 0.0001F);
+    position = index.getNearestEdge(48.1F, 8.0F).get();
+    Assert.assertEquals(1.0, position.getFraction(), 0.0);
+    Assert.assertEquals(7.9F, position.getLongitude(), 0.0001F);
+
+    // Empty index
+    Assert.assertFalse(new SegmentIndex<RoadNode, RoadEdge<RoadNode>>(Collections.emptyList())
+        .getNearestEdge(48.0F, 7.8F).isPresent());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.SegmentIndex#getNearestEdges(float, float, int, double)}.
+   */
+  @Test
+  public void testGetNearestEdges() {
+    final int amount = 5;
+    final double maxDistance = 300.0;
+    final double maxDegrees = RoutingUtil.distanceToDegrees(maxDistance);
+    for (int i = 0; i < AMOUNT_OF_QUERIES; i++) {
+      final float latitude = 47.85F + mRandom.nextFloat() * 0.3F;
+      final float longitude = 7.65F + mRandom.nextFloat() * 0.4F;
+
+      final double[] expectedDistances = mEdges.stream()
+          .mapToDouble(edge -> SegmentIndexTest.distanceToEdge(edge, latitude, longitude))
+          .filter(distance -> distance < maxDegrees * maxDegrees).sorted().limit(amount).toArray();
+
+      final List<EdgePosition<RoadNode, RoadEdge<RoadNode>>> positions =
+          mIndex.getNearestEdges(latitude, longitude, amount, maxDistance);
+      Assert.assertEquals(expectedDistances.length, positions.size());
+      for (int j = 0; j < expectedDistances.length; j++) {
+        Assert.assertEquals(expectedDistances[j],
+            SegmentIndexTest.distanceToEdge(positions.get(j).getEdge(), latitude, longitude), 1e-12);
+      }
+    }
+
+    // Empty index
+    Assert.assertTrue(new SegmentIndex<RoadNode, RoadEdge<RoadNode>>(Collections.emptyList())
+        .getNearestEdges(48.0F, 7.8F, amount, maxDistance).isEmpty());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.SegmentIndex#SegmentIndex(java.util.Collection)}.
+   */
+  @SuppressWarnings({ "unused", "static-method" })
+  @Test
+  public void testSegmentIndex() {
+    try {
+      new SegmentIndex<RoadNode, RoadEdge<RoadNode>>(Collections.emptyList());
+    } catch (final Exception e) {
+      Assert.fail();
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.SegmentIndex#size()}.
+   */
+  @Test
+  public void testSize() {
+    Assert.assertEquals(mEdges.size(), mIndex.size());
+    Assert.assertEquals(0, new SegmentIndex<RoadNode, RoadEdge<RoadNode>>(Collections.emptyList()).size());
+  }
+}
@@ -14,10 +14,12 @@ import org.junit.Before;
 import org.junit.Test;
 
 import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.IHasPathCost;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.PartialEdgePath;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.BasicEdge;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.BasicGraph;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.BasicNode;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.EdgeCost;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.EdgePosition;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.IHasId;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.IPath;
 
@@ -110,6 +112,71 @@ public final class DijkstraTest {
     Assert.assertFalse(nodeIter.hasNext());
   }
 
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.dijkstra.Dijkstra#computeShortestPath(de.unifreiburg.informatik.cobweb.routing.model.graph.EdgePosition, de.unifreiburg.informatik.cobweb.routing.model.graph.EdgePosition)}.
+   */
+  @Test
+  public void testComputeShortestPathEdgePositionEdgePosition() {
+    final BasicNode first = mGraph.getNodeById(1).get();
+    final BasicNode second = mGraph.getNodeById(2).get();
+    final BasicNode fourth = mGraph.getNodeById(4).get();
+    final BasicEdge<BasicNode> firstToFourth = getEdge(first, fourth);
+    final BasicEdge<BasicNode> fourthToFirst = getEdge(fourth, first);
+
+    // From an edge to a node, leaving along the edge
+    PartialEdgePath<BasicNode, BasicEdge<BasicNode>> path =
+        mDijkstra.computeShortestPath(position(firstToFourth, 0.5), new EdgePosition<>(fourth, 0.0F, 0.0F)).get();
+    Assert.assertEquals(5.0, path.getTotalCost(), 0.0001);
+    Assert.assertEquals(1, path.length());
+    Assert.assertEquals(firstToFourth, path.iterator().next().getEdge());
+
+    // From an edge to a node, continuing from the nearer endpoint
+    path = mDijkstra.computeShortestPath(position(firstToFourth, 0.9), new EdgePosition<>(second, 0.0F, 0.0F)).get();
+    Assert.assertEquals(3.0, path.getTotalCost(), 0.0001);
+    Assert.assertEquals(3, path.length());
+    Assert.assertEquals(2, path.getDestination().getId());
+
+    // Directly along the same edge, forwards and backwards
+    path = mDijkstra.computeShortestPath(position(firstToFourth, 0.2), position(fourthToFirst, 0.3)).get();
+    Assert.assertEquals(5.0, path.getTotalCost(), 0.0001);
+    Assert.assertEquals(1, path.length());
+    Assert.assertEquals(firstToFourth, path.iterator().next().getEdge());
+    path = mDijkstra.computeShortestPath(position(firstToFourth, 0.7), position(firstToFourth, 0.2)).get();
+    Assert.assertEquals(5.0, path.getTotalCost(), 0.0001);
+    Assert.assertEquals(1, path.length());
+    Assert.assertEquals(fourthToFirst, path.iterator().next().getEdge());
+
+    // A detour over the graph is cheaper than the same edge
+    path = mDijkstra.computeShortestPath(position(firstToFourth, 0.1), position(firstToFourth, 0.9)).get();
+    Assert.assertEquals(5.0, path.getTotalCost(), 0.0001);
+    Assert.assertEquals(5, path.length());
+    final Iterator<EdgeCost<BasicNode, BasicEdge<BasicNode>>> edgeIter = path.iterator();
+    EdgeCost<BasicNode, BasicEdge<BasicNode>> edgeCost = edgeIter.next();
+    Assert.assertEquals(fourthToFirst, edgeCost.getEdge());
+    Assert.assertEquals(1.0, edgeCost.getCost(), 0.0001);
+    for (int i = 0; i < 3; i++) {
+      edgeCost = edgeIter.next();
+    }
+    edgeCost = edgeIter.next();
+    Assert.assertEquals(fourthToFirst, edgeCost.getEdge());
+    Assert.assertEquals(1.0, edgeCost.getCost(), 0.0001);
+    Assert.assertFalse(edgeIter.hasNext());
+
+    // Positions at nodes behave like nodes
+    path = mDijkstra.computeShortestPath(new EdgePosition<>(first, 0.0F, 0.0F), new EdgePosition<>(fourth, 0.0F, 0.0F))
+        .get();
+    Assert.assertEquals(3.0, path.getTotalCost(), 0.0001);
+    Assert.assertEquals(3, path.length());
+
+    // Unreachable positions
+    mGraph.addNode(new BasicNode(7));
+    final BasicNode seventh = mGraph.getNodeById(7).get();
+    Assert.assertFalse(
+        mDijkstra.computeShortestPath(position(firstToFourth, 0.5), new EdgePosition<>(seventh, 0.0F, 0.0F))
+            .isPresent());
+  }
+
   /**
    * Test method for
    * {@link de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.dijkstra.Dijkstra#computeShortestPathCost(java.util.Collection, de.unifreiburg.informatik.cobweb.routing.model.graph.INode)}.
@@ -198,6 +265,32 @@ public final class DijkstraTest {
     addEdgeInOneDirection(graph, second, first, cost);
   }
 
+  /**
+   * Gets the edge of the graph that goes from the first to the second node.
+   *
+   * @param first  The first node
+   * @param second The second node
+   * @return The edge
+   */
+  private BasicEdge<BasicNode> getEdge(final BasicNode first, final BasicNode second) {
+    return mGraph.getOutgoingEdges(first).filter(edge -> edge.getDestination().equals(second)).findAny().get();
+  }
+
+  /**
+   * Creates a position on the given edge. The coordinates of the position are
+   * irrelevant for the tests.
+   *
+   * @param edge     The edge the position lies on
+   * @param fraction The fraction of the edge between its source and the
+   *                 position
+   * @return The position
+   */
+  @SuppressWarnings("static-method")
+  private EdgePosition<BasicNode, BasicEdge<BasicNode>> position(final BasicEdge<BasicNode> edge,
+      final double fraction) {
+    return new EdgePosition<>(edge, fraction, 0.0F, 0.0F);
+  }
+
   /**
    * Adds the edge to the given graph. It goes from the first to the second
    * node.
@@ -0,0 +1,67 @@
+package de.unifreiburg.informatik.cobweb.routing.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadNode;
+import de.unifreiburg.informatik.cobweb.util.RoutingUtil;
+
+/**
+ * Test for the class {@link PlanarProjection}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class PlanarProjectionTest {
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.PlanarProjection#distance(de.unifreiburg.informatik.cobweb.routing.model.graph.ISpatial, de.unifreiburg.informatik.cobweb.routing.model.graph.ISpatial)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testDistance() {
+    final Random random = new Random(42);
+    final List<RoadNode> nodes = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      nodes.add(new RoadNode(i, 47.5F + random.nextFloat() * 1.5F, 7.5F + random.nextFloat() * 2.0F));
+    }
+    final PlanarProjection projection = PlanarProjection.of(nodes.stream());
+
+    // Never exceeds the equirectangular distance of nodes of the model
+    for (int i = 0; i < 1_000; i++) {
+      final RoadNode first = nodes.get(random.nextInt(nodes.size()));
+      final RoadNode second = nodes.get(random.nextInt(nodes.size()));
+      final double exactDistance = RoutingUtil.distanceEquiRect(first, second);
+      final double distance = projection.distance(first, second);
+      Assert.assertTrue(distance <= exactDistance + 1e-6);
+      Assert.assertEquals(exactDistance, distance, exactDistance * 0.05);
+      Assert.assertEquals(distance * distance, projection.squaredDistance(first, second), 1e-3);
+    }
+
+    // Latitudes are not scaled
+    final RoadNode first = new RoadNode(1, 48.0F, 7.8F);
+    final RoadNode second = new RoadNode(2, 48.1F, 7.8F);
+    Assert.assertEquals(RoutingUtil.distanceEquiRect(first, second), projection.distance(first, second), 0.001);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.PlanarProjection#of(java.util.stream.Stream)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testOf() {
+    final List<RoadNode> nodes = new ArrayList<>();
+    nodes.add(new RoadNode(1, 47.9F, 7.7F));
+    nodes.add(new RoadNode(2, -50.2F, 7.7F));
+    nodes.add(new RoadNode(3, 48.1F, 8.0F));
+    Assert.assertEquals(50.2F, PlanarProjection.of(nodes.stream()).getMaxAbsoluteLatitude(), 0.0F);
+    Assert.assertEquals(0.0F, PlanarProjection.of(Collections.<RoadNode> emptyList().stream()).getMaxAbsoluteLatitude(),
+        0.0F);
+  }
+}
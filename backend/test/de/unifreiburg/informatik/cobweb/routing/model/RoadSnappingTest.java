@@ -0,0 +1,162 @@
+package de.unifreiburg.informatik.cobweb.routing.model;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.unifreiburg.informatik.cobweb.parsing.osm.EHighwayType;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.KdTree;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.SegmentIndex;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadGraph;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadNode;
+
+/**
+ * Test for the class {@link RoadSnapping}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class RoadSnappingTest {
+  /**
+   * The edge of the graph used for testing which can only be used by car.
+   */
+  private RoadEdge<ICoreNode> mCarEdge;
+  /**
+   * The first node of the edge which can only be used by car.
+   */
+  private RoadNode mCarNode;
+  /**
+   * The edge of the graph used for testing which can only be used by foot.
+   */
+  private RoadEdge<ICoreNode> mFootEdge;
+  /**
+   * The first node of the edge which can only be used by foot.
+   */
+  private RoadNode mFootNode;
+  /**
+   * The graph used for testing.
+   */
+  private RoadGraph<ICoreNode, ICoreEdge<ICoreNode>> mGraph;
+  /**
+   * The node of the graph used for testing without incident edges.
+   */
+  private RoadNode mIsolatedNode;
+  /**
+   * The snapping used for testing, with an index over the edges.
+   */
+  private RoadSnapping mSnapping;
+
+  /**
+   * Setups a graph and a snapping instance for testing. The graph consists of
+   * a motorway, a parallel street for pedestrians further north and a node
+   * without edges between them, closest to the queries.
+   */
+  @Before
+  public void setUp() {
+    mGraph = new RoadGraph<>();
+    mCarNode = new RoadNode(mGraph.generateUniqueNodeId(), 48.0F, 7.8F);
+    final RoadNode carDestination = new RoadNode(mGraph.generateUniqueNodeId(), 48.0F, 7.82F);
+    mFootNode = new RoadNode(mGraph.generateUniqueNodeId(), 48.01F, 7.8F);
+    final RoadNode footDestination = new RoadNode(mGraph.generateUniqueNodeId(), 48.01F, 7.82F);
+    mIsolatedNode = new RoadNode(mGraph.generateUniqueNodeId(), 48.004F, 7.799F);
+    mGraph.addNode(mCarNode);
+    mGraph.addNode(carDestination);
+    mGraph.addNode(mFootNode);
+    mGraph.addNode(footDestination);
+    mGraph.addNode(mIsolatedNode);
+
+    mCarEdge = new RoadEdge<>(mGraph.generateUniqueWayId(), mCarNode, carDestination, EHighwayType.MOTORWAY, 120,
+        EnumSet.of(ETransportationMode.CAR));
+    mFootEdge = new RoadEdge<>(mGraph.generateUniqueWayId(), mFootNode, footDestination,
+        EHighwayType.LIVING_STREET, 7, EnumSet.of(ETransportationMode.FOOT));
+    mGraph.addEdge(mCarEdge);
+    mGraph.addEdge(mFootEdge);
+
+    mSnapping = new RoadSnapping(new KdTree<>(mGraph.getNodes()), mGraph,
+        new SegmentIndex<>(mGraph.getEdges().collect(Collectors.toList())));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.RoadSnapping#getNearestEdge(float, float, Set)}.
+   */
+  @Test
+  public void testGetNearestEdge() {
+    final float latitude = 48.003F;
+    final float longitude = 7.81F;
+    Assert.assertEquals(mCarEdge,
+        mSnapping.getNearestEdge(latitude, longitude, EnumSet.of(ETransportationMode.CAR)).get().getEdge());
+    Assert.assertEquals(mFootEdge,
+        mSnapping.getNearestEdge(latitude, longitude, EnumSet.of(ETransportationMode.FOOT)).get().getEdge());
+    Assert.assertEquals(mFootEdge, mSnapping
+        .getNearestEdge(latitude, longitude, EnumSet.of(ETransportationMode.FOOT, ETransportationMode.TRAM)).get()
+        .getEdge());
+    Assert.assertEquals(mCarEdge, mSnapping
+        .getNearestEdge(latitude, longitude, EnumSet.of(ETransportationMode.FOOT, ETransportationMode.CAR)).get()
+        .getEdge());
+
+    final RoadSnapping withoutSegments = new RoadSnapping(new KdTree<>(mGraph.getNodes()), mGraph, null);
+    Assert.assertFalse(withoutSegments.hasSegmentIndex());
+    Assert.assertFalse(
+        withoutSegments.getNearestEdge(latitude, longitude, EnumSet.of(ETransportationMode.CAR)).isPresent());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.RoadSnapping#getNearestEdge(float, float, Set)}
+   * with modes that are not used by the road graph.
+   */
+  @Test
+  public void testGetNearestEdgeFallback() {
+    final float latitude = 48.003F;
+    final float longitude = 7.81F;
+    Assert.assertEquals(mCarEdge,
+        mSnapping.getNearestEdge(latitude, longitude, EnumSet.noneOf(ETransportationMode.class)).get().getEdge());
+    Assert.assertEquals(mCarEdge,
+        mSnapping.getNearestEdge(latitude, longitude, EnumSet.of(ETransportationMode.TRAM)).get().getEdge());
+    Assert.assertEquals(mCarEdge,
+        mSnapping.getNearestEdge(latitude, longitude, EnumSet.of(ETransportationMode.BIKE)).get().getEdge());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.RoadSnapping#getNearestNode(float, float, Set)}.
+   */
+  @Test
+  public void testGetNearestNode() {
+    final float latitude = 48.004F;
+    final float longitude = 7.8F;
+    Assert.assertEquals(mCarNode,
+        mSnapping.getNearestNode(latitude, longitude, EnumSet.of(ETransportationMode.CAR)).get());
+    Assert.assertEquals(mFootNode,
+        mSnapping.getNearestNode(latitude, longitude, EnumSet.of(ETransportationMode.FOOT)).get());
+    Assert.assertEquals(mFootNode, mSnapping
+        .getNearestNode(latitude, longitude, EnumSet.of(ETransportationMode.FOOT, ETransportationMode.TRAM)).get());
+    Assert.assertEquals(mCarNode, mSnapping
+        .getNearestNode(latitude, longitude, EnumSet.of(ETransportationMode.FOOT, ETransportationMode.CAR)).get());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.RoadSnapping#getNearestNode(float, float, Set)}
+   * with modes that are not used by the road graph.
+   */
+  @Test
+  public void testGetNearestNodeFallback() {
+    final float latitude = 48.004F;
+    final float longitude = 7.8F;
+    Assert.assertEquals(mIsolatedNode,
+        mSnapping.getNearestNode(latitude, longitude, EnumSet.noneOf(ETransportationMode.class)).get());
+    Assert.assertEquals(mIsolatedNode,
+        mSnapping.getNearestNode(latitude, longitude, EnumSet.of(ETransportationMode.TRAM)).get());
+    Assert.assertEquals(mIsolatedNode,
+        mSnapping.getNearestNode(latitude, longitude, EnumSet.of(ETransportationMode.BIKE)).get());
+  }
+}
@@ -0,0 +1,98 @@
+package de.unifreiburg.informatik.cobweb.routing.model;
+
+import java.util.List;
+
+import org.eclipse.collections.impl.list.mutable.FastList;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.KdTree;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadNode;
+import de.unifreiburg.informatik.cobweb.routing.model.timetable.Stop;
+
+/**
+ * Test for the class {@link SpatialIndexRegistry}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class SpatialIndexRegistryTest {
+  /**
+   * The nodes used for testing.
+   */
+  private List<RoadNode> mNodes;
+  /**
+   * The registry used for testing.
+   */
+  private SpatialIndexRegistry mRegistry;
+  /**
+   * The stops used for testing.
+   */
+  private List<Stop> mStops;
+
+  /**
+   * Setups a registry instance for testing.
+   */
+  @Before
+  public void setUp() {
+    mRegistry = new SpatialIndexRegistry();
+    mNodes = FastList.newList();
+    for (int i = 0; i < 100; i++) {
+      mNodes.add(new RoadNode(i, 48.0F + (i % 10) * 0.01F, 7.8F + (i / 10) * 0.01F));
+    }
+    mStops = FastList.newList();
+    for (int i = 0; i < 10; i++) {
+      mStops.add(new Stop(i, 48.005F + i * 0.01F, 7.805F));
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.SpatialIndexRegistry#buildAll()}.
+   */
+  @Test
+  public void testBuildAll() {
+    mRegistry.register(ESpatialIndex.ROAD_NODES, mNodes);
+    mRegistry.register(ESpatialIndex.TRANSIT_STOPS, mStops);
+    Assert.assertFalse(mRegistry.has(ESpatialIndex.ROAD_NODES));
+    mRegistry.buildAll();
+
+    final KdTree<RoadNode> nodeIndex = mRegistry.get(ESpatialIndex.ROAD_NODES);
+    final KdTree<Stop> stopIndex = mRegistry.get(ESpatialIndex.TRANSIT_STOPS);
+    Assert.assertEquals(mNodes.size(), nodeIndex.size());
+    Assert.assertEquals(mStops.size(), stopIndex.size());
+    Assert.assertEquals(3, stopIndex.getNearestNeighbor(new Stop(-1, 48.036F, 7.806F)).get().getId());
+
+    // Indices are built once and shared
+    mRegistry.buildAll();
+    Assert.assertSame(nodeIndex, mRegistry.get(ESpatialIndex.ROAD_NODES));
+    Assert.assertSame(stopIndex, mRegistry.get(ESpatialIndex.TRANSIT_STOPS));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.SpatialIndexRegistry#get(ESpatialIndex)}
+   * with an index that is not built.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testGetNotBuilt() {
+    mRegistry.register(ESpatialIndex.ROAD_NODES, mNodes);
+    mRegistry.get(ESpatialIndex.ROAD_NODES);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.SpatialIndexRegistry#put(ESpatialIndex, de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.KdTree)}.
+   */
+  @Test
+  public void testPut() {
+    final KdTree<RoadNode> tree = new KdTree<>(mNodes);
+    mRegistry.register(ESpatialIndex.ROAD_NODES, mNodes);
+    mRegistry.put(ESpatialIndex.ROAD_NODES, tree);
+    Assert.assertTrue(mRegistry.has(ESpatialIndex.ROAD_NODES));
+
+    // The put index is not built again
+    mRegistry.buildAll();
+    Assert.assertSame(tree, mRegistry.get(ESpatialIndex.ROAD_NODES));
+  }
+}
@@ -0,0 +1,115 @@
+package de.unifreiburg.informatik.cobweb.routing.model.cache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.eclipse.collections.impl.list.mutable.FastList;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.unifreiburg.informatik.cobweb.routing.algorithms.metrics.AsTheCrowFliesMetric;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.CoverTree;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadGraph;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadNode;
+
+/**
+ * Test for the class {@link CoverTreeCache}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class CoverTreeCacheTest {
+  /**
+   * The file used as cache for testing.
+   */
+  private Path mCache;
+  /**
+   * The graph providing the nodes of the tree.
+   */
+  private RoadGraph<ICoreNode, ICoreEdge<ICoreNode>> mGraph;
+  /**
+   * The tree used for testing.
+   */
+  private CoverTree<ICoreNode> mTree;
+
+  /**
+   * Setups a tree instance and a cache file for testing.
+   *
+   * @throws IOException If an I/O exception occurred while creating the cache
+   *                     file
+   */
+  @Before
+  public void setUp() throws IOException {
+    mCache = Files.createTempFile("coverTreeCache", ".bin");
+    mGraph = new RoadGraph<>();
+    mTree = new CoverTree<>(new AsTheCrowFliesMetric<>());
+    for (int i = 0; i < 50; i++) {
+      final RoadNode node =
+          new RoadNode(mGraph.generateUniqueNodeId(), 48.0F + (i % 7) * 0.01F, 7.8F + (i / 7) * 0.013F);
+      mGraph.addNode(node);
+      mTree.insert(node);
+    }
+  }
+
+  /**
+   * Removes the cache file used for testing.
+   *
+   * @throws IOException If an I/O exception occurred while deleting the file
+   */
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(mCache);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.cache.CoverTreeCache#materialize(de.unifreiburg.informatik.cobweb.routing.model.graph.IGetNodeById, de.unifreiburg.informatik.cobweb.routing.algorithms.metrics.IMetric)}
+   * with a node that is unknown to the provider.
+   *
+   * @throws IOException If an I/O exception occurred while accessing the file
+   */
+  @Test(expected = IOException.class)
+  public void testMaterializeUnknownNode() throws IOException {
+    CoverTreeCache.write(mTree, mCache);
+    CoverTreeCache.map(mCache).materialize(new RoadGraph<>(), new AsTheCrowFliesMetric<>());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.cache.CoverTreeCache#materialize(de.unifreiburg.informatik.cobweb.routing.model.graph.IGetNodeById, de.unifreiburg.informatik.cobweb.routing.algorithms.metrics.IMetric)}.
+   *
+   * @throws IOException If an I/O exception occurred while accessing the file
+   */
+  @Test
+  public void testWriteAndMaterialize() throws IOException {
+    CoverTreeCache.write(mTree, mCache);
+    final CoverTreeCache cache = CoverTreeCache.map(mCache);
+    Assert.assertTrue(cache.getAmountOfTreeNodes() >= mTree.size());
+
+    final CoverTree<ICoreNode> tree = cache.materialize(mGraph, new AsTheCrowFliesMetric<>());
+    Assert.assertEquals(mTree.size(), tree.size());
+    Assert.assertEquals(mTree.maxLevel(), tree.maxLevel());
+    Assert.assertEquals(mTree.minLevel(), tree.minLevel());
+    Assert.assertArrayEquals(mTree.getLevelSizes(), tree.getLevelSizes());
+
+    final List<Integer> expectedPreOrder = FastList.newList();
+    mTree.visitPreOrder((element, children) -> expectedPreOrder.add(element.getId()));
+    final List<Integer> preOrder = FastList.newList();
+    tree.visitPreOrder((element, children) -> preOrder.add(element.getId()));
+    Assert.assertEquals(expectedPreOrder, preOrder);
+
+    final RoadNode point = new RoadNode(-1, 48.031F, 7.842F);
+    Assert.assertEquals(mTree.getNearestNeighbor(point).get().getId(), tree.getNearestNeighbor(point).get().getId());
+    final List<Integer> expectedNeighbors =
+        mTree.getKNearestNeighbors(point, 5).stream().map(ICoreNode::getId).sorted().collect(Collectors.toList());
+    final List<Integer> neighbors =
+        tree.getKNearestNeighbors(point, 5).stream().map(ICoreNode::getId).sorted().collect(Collectors.toList());
+    Assert.assertEquals(expectedNeighbors, neighbors);
+  }
+}
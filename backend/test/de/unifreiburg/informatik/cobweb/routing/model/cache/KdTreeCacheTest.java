@@ -0,0 +1,103 @@
+package de.unifreiburg.informatik.cobweb.routing.model.cache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.KdTree;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadGraph;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadNode;
+
+/**
+ * Test for the class {@link KdTreeCache}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class KdTreeCacheTest {
+  /**
+   * The file used as cache for testing.
+   */
+  private Path mCache;
+  /**
+   * The graph providing the nodes of the tree.
+   */
+  private RoadGraph<ICoreNode, ICoreEdge<ICoreNode>> mGraph;
+  /**
+   * The tree used for testing.
+   */
+  private KdTree<ICoreNode> mTree;
+
+  /**
+   * Setups a tree instance and a cache file for testing.
+   *
+   * @throws IOException If an I/O exception occurred while creating the cache
+   *                     file
+   */
+  @Before
+  public void setUp() throws IOException {
+    mCache = Files.createTempFile("kdTreeCache", ".bin");
+    mGraph = new RoadGraph<>();
+    for (int i = 0; i < 50; i++) {
+      mGraph.addNode(new RoadNode(mGraph.generateUniqueNodeId(), 48.0F + (i % 7) * 0.01F, 7.8F + (i / 7) * 0.013F));
+    }
+    mTree = new KdTree<>(mGraph.getNodes());
+  }
+
+  /**
+   * Removes the cache file used for testing.
+   *
+   * @throws IOException If an I/O exception occurred while deleting the file
+   */
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(mCache);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.cache.KdTreeCache#materialize(de.unifreiburg.informatik.cobweb.routing.model.graph.IGetNodeById)}
+   * with a node that is unknown to the provider.
+   *
+   * @throws IOException If an I/O exception occurred while accessing the file
+   */
+  @Test(expected = IOException.class)
+  public void testMaterializeUnknownNode() throws IOException {
+    KdTreeCache.write(mTree, mCache);
+    KdTreeCache.map(mCache).materialize(new RoadGraph<>());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.cache.KdTreeCache#materialize(de.unifreiburg.informatik.cobweb.routing.model.graph.IGetNodeById)}.
+   *
+   * @throws IOException If an I/O exception occurred while accessing the file
+   */
+  @Test
+  public void testWriteAndMaterialize() throws IOException {
+    KdTreeCache.write(mTree, mCache);
+    final KdTreeCache cache = KdTreeCache.map(mCache);
+    Assert.assertEquals(mTree.size(), cache.getAmountOfElements());
+
+    final KdTree<ICoreNode> tree = cache.materialize(mGraph);
+    Assert.assertEquals(mTree.size(), tree.size());
+    Assert.assertEquals(mTree.getElements().stream().map(ICoreNode::getId).collect(Collectors.toList()),
+        tree.getElements().stream().map(ICoreNode::getId).collect(Collectors.toList()));
+
+    final RoadNode point = new RoadNode(-1, 48.031F, 7.842F);
+    Assert.assertEquals(mTree.getNearestNeighbor(point).get().getId(), tree.getNearestNeighbor(point).get().getId());
+    final List<Integer> expectedNeighbors =
+        mTree.getKNearestNeighbors(point, 5).stream().map(ICoreNode::getId).collect(Collectors.toList());
+    final List<Integer> neighbors =
+        tree.getKNearestNeighbors(point, 5).stream().map(ICoreNode::getId).collect(Collectors.toList());
+    Assert.assertEquals(expectedNeighbors, neighbors);
+  }
+}
@@ -0,0 +1,107 @@
+package de.unifreiburg.informatik.cobweb.routing.model.cache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.eclipse.collections.impl.list.mutable.FastList;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.unifreiburg.informatik.cobweb.parsing.osm.EHighwayType;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.metrics.landmark.LandmarkMetric;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.metrics.landmark.RandomLandmarks;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.IGraph;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadGraph;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadNode;
+
+/**
+ * Test for the class {@link LandmarkCache}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class LandmarkCacheTest {
+  /**
+   * The file used as cache for testing.
+   */
+  private Path mCache;
+  /**
+   * The graph used for testing.
+   */
+  private RoadGraph<ICoreNode, ICoreEdge<ICoreNode>> mGraph;
+  /**
+   * The metric used for testing.
+   */
+  private LandmarkMetric<ICoreNode, ICoreEdge<ICoreNode>, IGraph<ICoreNode, ICoreEdge<ICoreNode>>> mMetric;
+  /**
+   * The nodes of the graph.
+   */
+  private List<RoadNode> mNodes;
+
+  /**
+   * Setups a metric instance and a cache file for testing.
+   *
+   * @throws IOException If an I/O exception occurred while creating the cache
+   *                     file
+   */
+  @Before
+  public void setUp() throws IOException {
+    mCache = Files.createTempFile("landmarkCache", ".bin");
+    mGraph = new RoadGraph<>();
+    mNodes = FastList.newList();
+    for (int i = 0; i < 6; i++) {
+      final RoadNode node = new RoadNode(mGraph.generateUniqueNodeId(), 48.0F + i * 0.01F, 7.8F);
+      mGraph.addNode(node);
+      mNodes.add(node);
+    }
+    // A one-way chain with a shortcut back to the start
+    for (int i = 0; i < mNodes.size() - 1; i++) {
+      mGraph.addEdge(new RoadEdge<>(mGraph.generateUniqueWayId(), mNodes.get(i), mNodes.get(i + 1),
+          EHighwayType.RESIDENTIAL, 30, EnumSet.of(ETransportationMode.CAR)));
+    }
+    mGraph.addEdge(new RoadEdge<>(mGraph.generateUniqueWayId(), mNodes.get(mNodes.size() - 1), mNodes.get(0),
+        EHighwayType.MOTORWAY, 120, EnumSet.of(ETransportationMode.CAR)));
+    mMetric = new LandmarkMetric<>(2, mGraph, new RandomLandmarks<>(mGraph));
+  }
+
+  /**
+   * Removes the cache file used for testing.
+   *
+   * @throws IOException If an I/O exception occurred while deleting the file
+   */
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(mCache);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.cache.LandmarkCache#materialize(de.unifreiburg.informatik.cobweb.routing.model.graph.IGetNodeById)}.
+   *
+   * @throws IOException If an I/O exception occurred while accessing the file
+   */
+  @Test
+  public void testWriteAndMaterialize() throws IOException {
+    LandmarkCache.write(mMetric, mCache);
+    final LandmarkCache cache = LandmarkCache.map(mCache);
+    Assert.assertEquals(mMetric.getLandmarks().size(), cache.getAmountOfLandmarks());
+
+    final LandmarkMetric<ICoreNode, ICoreEdge<ICoreNode>, IGraph<ICoreNode, ICoreEdge<ICoreNode>>> metric =
+        cache.materialize(mGraph);
+    Assert.assertEquals(mMetric.getLandmarks().size(), metric.getLandmarks().size());
+    Assert.assertTrue(metric.getLandmarks().containsAll(mMetric.getLandmarks()));
+    for (final RoadNode first : mNodes) {
+      for (final RoadNode second : mNodes) {
+        Assert.assertEquals(mMetric.distance(first, second), metric.distance(first, second), 0.0);
+      }
+    }
+  }
+}
@@ -0,0 +1,197 @@
+package de.unifreiburg.informatik.cobweb.routing.model.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.unifreiburg.informatik.cobweb.parsing.osm.EHighwayType;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadGraph;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadNode;
+import de.unifreiburg.informatik.cobweb.util.BinaryFileUtil;
+
+/**
+ * Test for the class {@link RoadGraphCache}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class RoadGraphCacheTest {
+  /**
+   * The file used as cache for testing.
+   */
+  private Path mCache;
+  /**
+   * The first node of the graph used for testing.
+   */
+  private RoadNode mFirst;
+  /**
+   * The graph used for testing.
+   */
+  private RoadGraph<ICoreNode, ICoreEdge<ICoreNode>> mGraph;
+  /**
+   * The third node of the graph used for testing, it has no outgoing edges.
+   */
+  private RoadNode mThird;
+
+  /**
+   * Setups a graph instance and a cache file for testing.
+   *
+   * @throws IOException If an I/O exception occurred while creating the cache
+   *                     file
+   */
+  @Before
+  public void setUp() throws IOException {
+    mCache = Files.createTempFile("graphCache", ".bin");
+    mGraph = new RoadGraph<>();
+    final RoadNode first = new RoadNode(mGraph.generateUniqueNodeId(), 48.0F, 7.8F);
+    final RoadNode second = new RoadNode(mGraph.generateUniqueNodeId(), 48.1F, 7.9F);
+    final RoadNode third = new RoadNode(mGraph.generateUniqueNodeId(), 48.2F, 7.7F);
+    mGraph.addNode(first);
+    mGraph.addNode(second);
+    mGraph.addNode(third);
+    mFirst = first;
+    mThird = third;
+
+    final int wayId = mGraph.generateUniqueWayId();
+    mGraph.addEdge(new RoadEdge<>(wayId, first, second, EHighwayType.MOTORWAY, 120,
+        EnumSet.of(ETransportationMode.CAR)));
+    mGraph.addEdge(new RoadEdge<>(wayId, second, first, EHighwayType.MOTORWAY, 120,
+        EnumSet.of(ETransportationMode.CAR)));
+    mGraph.addEdge(new RoadEdge<>(mGraph.generateUniqueWayId(), second, third, EHighwayType.RESIDENTIAL, 30,
+        EnumSet.of(ETransportationMode.CAR, ETransportationMode.BIKE, ETransportationMode.FOOT)));
+  }
+
+  /**
+   * Removes the cache file used for testing.
+   *
+   * @throws IOException If an I/O exception occurred while deleting the file
+   */
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(mCache);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.cache.RoadGraphCache#encodeModes(Set)}.
+   */
+  @Test
+  public void testEncodeModes() {
+    Assert.assertEquals(0, RoadGraphCache.encodeModes(EnumSet.noneOf(ETransportationMode.class)));
+    final Set<ETransportationMode> modes = EnumSet.of(ETransportationMode.BIKE, ETransportationMode.TRAM);
+    Assert.assertEquals(modes, RoadGraphCache.decodeModes(RoadGraphCache.encodeModes(modes)));
+    final Set<ETransportationMode> allModes = EnumSet.allOf(ETransportationMode.class);
+    Assert.assertEquals(allModes, RoadGraphCache.decodeModes(RoadGraphCache.encodeModes(allModes)));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.cache.RoadGraphCache#map(Path)}
+   * with a corrupted file.
+   *
+   * @throws IOException If an I/O exception occurred while accessing the file
+   */
+  @Test(expected = IOException.class)
+  public void testMapCorrupted() throws IOException {
+    RoadGraphCache.write(mGraph, mCache);
+    try (FileChannel channel = FileChannel.open(mCache, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[] { 42 }), BinaryFileUtil.HEADER_SIZE + 2);
+    }
+    RoadGraphCache.map(mCache);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.cache.RoadGraphCache#map(Path)}
+   * with a file of an unknown format.
+   *
+   * @throws IOException If an I/O exception occurred while accessing the file
+   */
+  @Test(expected = IOException.class)
+  public void testMapUnknownFormat() throws IOException {
+    Files.write(mCache, new byte[BinaryFileUtil.HEADER_SIZE + 16]);
+    RoadGraphCache.map(mCache);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.cache.RoadGraphCache#materialize()}
+   * with an edge without highway type.
+   *
+   * @throws IOException If an I/O exception occurred while accessing the file
+   */
+  @Test
+  public void testWriteAndMaterializeWithoutType() throws IOException {
+    mGraph.addEdge(new RoadEdge<>(mGraph.generateUniqueWayId(), mThird, mFirst, null, 50,
+        EnumSet.of(ETransportationMode.FOOT)));
+    RoadGraphCache.write(mGraph, mCache);
+
+    final RoadGraph<ICoreNode, ICoreEdge<ICoreNode>> graph = RoadGraphCache.map(mCache).materialize();
+    Assert.assertEquals(4, graph.getAmountOfEdges());
+    final RoadEdge<ICoreNode> edge =
+        (RoadEdge<ICoreNode>) graph.getOutgoingEdges(graph.getNodeById(mThird.getId()).get()).findAny().get();
+    Assert.assertNull(edge.getType());
+    Assert.assertEquals(mFirst.getId(), edge.getDestination().getId());
+    Assert.assertEquals(EnumSet.of(ETransportationMode.FOOT), edge.getTransportationModes());
+
+    // The types of the other edges are kept
+    final RoadEdge<ICoreNode> typedEdge =
+        (RoadEdge<ICoreNode>) graph.getOutgoingEdges(graph.getNodeById(mFirst.getId()).get()).findAny().get();
+    Assert.assertEquals(EHighwayType.MOTORWAY, typedEdge.getType());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.cache.RoadGraphCache#materialize()}.
+   *
+   * @throws IOException If an I/O exception occurred while accessing the file
+   */
+  @Test
+  public void testWriteAndMaterialize() throws IOException {
+    RoadGraphCache.write(mGraph, mCache);
+    final RoadGraphCache cache = RoadGraphCache.map(mCache);
+    Assert.assertEquals(3, cache.getAmountOfNodes());
+    Assert.assertEquals(3, cache.getAmountOfEdges());
+
+    final RoadGraph<ICoreNode, ICoreEdge<ICoreNode>> graph = cache.materialize();
+    Assert.assertEquals(mGraph.size(), graph.size());
+    Assert.assertEquals(mGraph.getAmountOfEdges(), graph.getAmountOfEdges());
+    Assert.assertEquals(mGraph.getLastUsedNodeId(), graph.getLastUsedNodeId());
+    Assert.assertEquals(mGraph.getLastUsedWayId(), graph.getLastUsedWayId());
+    Assert.assertEquals(mGraph.generateUniqueNodeId(), graph.generateUniqueNodeId());
+
+    for (final ICoreNode node : mGraph.getNodes()) {
+      final Optional<ICoreNode> possibleNode = graph.getNodeById(node.getId());
+      Assert.assertTrue(possibleNode.isPresent());
+      Assert.assertEquals(node.getLatitude(), possibleNode.get().getLatitude(), 0.0F);
+      Assert.assertEquals(node.getLongitude(), possibleNode.get().getLongitude(), 0.0F);
+    }
+
+    final Set<ICoreEdge<ICoreNode>> expectedEdges = mGraph.getEdges().collect(Collectors.toSet());
+    final Set<ICoreEdge<ICoreNode>> edges = graph.getEdges().collect(Collectors.toSet());
+    Assert.assertEquals(expectedEdges, edges);
+    for (final ICoreEdge<ICoreNode> edge : edges) {
+      final RoadEdge<ICoreNode> roadEdge = (RoadEdge<ICoreNode>) edge;
+      final RoadEdge<ICoreNode> expectedEdge = (RoadEdge<ICoreNode>) mGraph.getOutgoingEdges(edge.getSource())
+          .filter(edge::equals).findAny().get();
+      Assert.assertEquals(expectedEdge.getCost(), roadEdge.getCost(), 0.0);
+      Assert.assertEquals(expectedEdge.getMaxSpeed(), roadEdge.getMaxSpeed());
+      Assert.assertEquals(expectedEdge.getTransportationModes(), roadEdge.getTransportationModes());
+    }
+  }
+}
@@ -0,0 +1,146 @@
+package de.unifreiburg.informatik.cobweb.routing.model.cache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.unifreiburg.informatik.cobweb.parsing.osm.EHighwayType;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadGraph;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadNode;
+import de.unifreiburg.informatik.cobweb.util.BinaryFileUtil;
+
+/**
+ * Test for the class {@link TiledRoadGraphCache}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class TiledRoadGraphCacheTest {
+  /**
+   * The directory used as cache for testing.
+   */
+  private Path mDirectory;
+  /**
+   * The graph used for testing.
+   */
+  private RoadGraph<ICoreNode, ICoreEdge<ICoreNode>> mGraph;
+
+  /**
+   * Setups a graph instance spanning two tiles and a cache directory for
+   * testing.
+   *
+   * @throws IOException If an I/O exception occurred while creating the cache
+   *                     directory
+   */
+  @Before
+  public void setUp() throws IOException {
+    mDirectory = Files.createTempDirectory("tiledGraph");
+    mGraph = new RoadGraph<>();
+    final RoadNode first = new RoadNode(mGraph.generateUniqueNodeId(), 48.01F, 7.81F);
+    final RoadNode second = new RoadNode(mGraph.generateUniqueNodeId(), 48.02F, 7.82F);
+    final RoadNode third = new RoadNode(mGraph.generateUniqueNodeId(), 48.51F, 7.81F);
+    mGraph.addNode(first);
+    mGraph.addNode(second);
+    mGraph.addNode(third);
+
+    mGraph.addEdge(new RoadEdge<>(mGraph.generateUniqueWayId(), first, second, EHighwayType.RESIDENTIAL, 30,
+        EnumSet.of(ETransportationMode.CAR)));
+    mGraph.addEdge(new RoadEdge<>(mGraph.generateUniqueWayId(), second, third, EHighwayType.PRIMARY, 80,
+        EnumSet.of(ETransportationMode.CAR)));
+  }
+
+  /**
+   * Removes the cache directory used for testing.
+   *
+   * @throws IOException If an I/O exception occurred while deleting the files
+   */
+  @After
+  public void tearDown() throws IOException {
+    try (Stream<Path> files = Files.list(mDirectory)) {
+      for (final Path file : files.collect(Collectors.toList())) {
+        Files.delete(file);
+      }
+    }
+    Files.delete(mDirectory);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.cache.TiledRoadGraphCache#computeTileKey(float, float, double)}.
+   */
+  @Test
+  public void testComputeTileKey() {
+    Assert.assertEquals(0, TiledRoadGraphCache.computeTileKey(-90.0F, -180.0F, 1.0));
+    Assert.assertEquals(1, TiledRoadGraphCache.computeTileKey(-90.0F, -179.0F, 1.0));
+    Assert.assertEquals(360, TiledRoadGraphCache.computeTileKey(-89.0F, -180.0F, 1.0));
+    Assert.assertEquals(180 * 360 - 1, TiledRoadGraphCache.computeTileKey(90.0F, 180.0F, 1.0));
+    Assert.assertEquals(TiledRoadGraphCache.computeTileKey(48.01F, 7.81F, 0.25),
+        TiledRoadGraphCache.computeTileKey(48.02F, 7.82F, 0.25));
+    Assert.assertNotEquals(TiledRoadGraphCache.computeTileKey(48.01F, 7.81F, 0.25),
+        TiledRoadGraphCache.computeTileKey(48.51F, 7.81F, 0.25));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.cache.TiledRoadGraphCache#map(Path)}
+   * with an index of an unknown format.
+   *
+   * @throws IOException If an I/O exception occurred while accessing the file
+   */
+  @Test(expected = IOException.class)
+  public void testMapUnknownFormat() throws IOException {
+    Files.write(mDirectory.resolve(TiledRoadGraphCache.INDEX), new byte[BinaryFileUtil.HEADER_SIZE + 16]);
+    TiledRoadGraphCache.map(mDirectory);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.cache.TiledRoadGraphCache#write(RoadGraph, Path, double)}.
+   *
+   * @throws IOException If an I/O exception occurred while accessing the files
+   */
+  @Test
+  public void testWriteAndMap() throws IOException {
+    TiledRoadGraphCache.write(mGraph, mDirectory, 0.25);
+    final TiledRoadGraphCache cache = TiledRoadGraphCache.map(mDirectory);
+    Assert.assertEquals(0.25, cache.getTileSize(), 0.0);
+    Assert.assertEquals(3, cache.getAmountOfNodes());
+    Assert.assertEquals(2, cache.getAmountOfEdges());
+    Assert.assertEquals(2, cache.getAmountOfTiles());
+    Assert.assertEquals(mGraph.getLastUsedNodeId(), cache.getLastUsedNodeId());
+    Assert.assertEquals(mGraph.getLastUsedWayId(), cache.getLastUsedWayId());
+
+    final int firstTile = cache.getTileOfNode(0);
+    Assert.assertEquals(firstTile, cache.getTileOfNode(1));
+    Assert.assertNotEquals(firstTile, cache.getTileOfNode(2));
+    Assert.assertEquals(-1, cache.getTileOfNode(3));
+    Assert.assertEquals(-1, cache.getTileOfNode(-1));
+
+    // The first tile also contains the foreign destination of the edge leaving
+    // it, the second tile the foreign source of the edge entering it
+    final RoadGraphCache firstTileCache = RoadGraphCache.map(cache.getTilePath(firstTile));
+    Assert.assertEquals(3, firstTileCache.getAmountOfNodes());
+    Assert.assertEquals(2, firstTileCache.getAmountOfEdges());
+    final RoadGraphCache secondTileCache = RoadGraphCache.map(cache.getTilePath(cache.getTileOfNode(2)));
+    Assert.assertEquals(2, secondTileCache.getAmountOfNodes());
+    Assert.assertEquals(1, secondTileCache.getAmountOfEdges());
+
+    // Writing again with bigger tiles removes the tiles of the previous cache
+    TiledRoadGraphCache.write(mGraph, mDirectory, 1.0);
+    Assert.assertEquals(1, TiledRoadGraphCache.map(mDirectory).getAmountOfTiles());
+    try (Stream<Path> files = Files.list(mDirectory)) {
+      Assert.assertEquals(2L, files.count());
+    }
+  }
+}
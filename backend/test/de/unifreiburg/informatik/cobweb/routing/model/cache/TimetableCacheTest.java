@@ -0,0 +1,144 @@
+package de.unifreiburg.informatik.cobweb.routing.model.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.unifreiburg.informatik.cobweb.routing.model.timetable.Connection;
+import de.unifreiburg.informatik.cobweb.routing.model.timetable.Footpath;
+import de.unifreiburg.informatik.cobweb.routing.model.timetable.Stop;
+import de.unifreiburg.informatik.cobweb.routing.model.timetable.Timetable;
+import de.unifreiburg.informatik.cobweb.routing.model.timetable.Trip;
+import de.unifreiburg.informatik.cobweb.util.BinaryFileUtil;
+
+/**
+ * Test for the class {@link TimetableCache}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class TimetableCacheTest {
+  /**
+   * The file used as cache for testing.
+   */
+  private Path mCache;
+  /**
+   * The timetable used for testing.
+   */
+  private Timetable mTable;
+
+  /**
+   * Setups a timetable instance and a cache file for testing.
+   *
+   * @throws IOException If an I/O exception occurred while creating the cache
+   *                     file
+   */
+  @Before
+  public void setUp() throws IOException {
+    mCache = Files.createTempFile("timetableCache", ".bin");
+    mTable = new Timetable();
+    final Stop first = new Stop(mTable.generateUniqueStopId(), 48.0F, 7.8F);
+    final Stop second = new Stop(mTable.generateUniqueStopId(), 48.1F, 7.9F);
+    final Stop third = new Stop(mTable.generateUniqueStopId(), 48.2F, 7.7F);
+    mTable.addStop(first);
+    mTable.addStop(second);
+    mTable.addStop(third);
+
+    final Trip trip = new Trip(mTable.generateUniqueTripId());
+    final Connection firstConnection = new Connection(trip.getId(), 0, first.getId(), second.getId(), 100, 200);
+    final Connection secondConnection = new Connection(trip.getId(), 1, second.getId(), third.getId(), 250, 300);
+    trip.addConnectionToSequence(firstConnection);
+    trip.addConnectionToSequence(secondConnection);
+    mTable.addTrip(trip);
+    final Trip otherTrip = new Trip(mTable.generateUniqueTripId());
+    final Connection otherConnection = new Connection(otherTrip.getId(), 0, third.getId(), first.getId(), 50, 150);
+    otherTrip.addConnectionToSequence(otherConnection);
+    mTable.addTrip(otherTrip);
+    mTable.addConnections(Arrays.asList(firstConnection, secondConnection, otherConnection));
+
+    mTable.addFootpath(new Footpath(first.getId(), second.getId(), 60));
+  }
+
+  /**
+   * Removes the cache file used for testing.
+   *
+   * @throws IOException If an I/O exception occurred while deleting the file
+   */
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(mCache);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.cache.TimetableCache#map(Path)}
+   * with a corrupted file.
+   *
+   * @throws IOException If an I/O exception occurred while accessing the file
+   */
+  @Test(expected = IOException.class)
+  public void testMapCorrupted() throws IOException {
+    TimetableCache.write(mTable, mCache);
+    try (FileChannel channel = FileChannel.open(mCache, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[] { 42 }), BinaryFileUtil.HEADER_SIZE + 2);
+    }
+    TimetableCache.map(mCache);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.cache.TimetableCache#materialize()}.
+   *
+   * @throws IOException If an I/O exception occurred while accessing the file
+   */
+  @Test
+  public void testWriteAndMaterialize() throws IOException {
+    TimetableCache.write(mTable, mCache);
+    final TimetableCache cache = TimetableCache.map(mCache);
+    Assert.assertEquals(3, cache.getAmountOfStops());
+    Assert.assertEquals(2, cache.getAmountOfTrips());
+    Assert.assertEquals(3, cache.getAmountOfConnections());
+    Assert.assertEquals(1, cache.getAmountOfFootpaths());
+
+    final Timetable table = cache.materialize();
+    Assert.assertEquals(mTable.toString(), table.toString());
+    Assert.assertEquals(mTable.getLastUsedStopId(), table.getLastUsedStopId());
+    Assert.assertEquals(mTable.getLastUsedTripId(), table.getLastUsedTripId());
+    Assert.assertEquals(mTable.getGreatestStopId(), table.getGreatestStopId());
+    Assert.assertEquals(mTable.generateUniqueTripId(), table.generateUniqueTripId());
+
+    for (final Stop stop : mTable.getStops()) {
+      final Stop restoredStop = table.getStop(stop.getId());
+      Assert.assertNotNull(restoredStop);
+      Assert.assertEquals(stop.getLatitude(), restoredStop.getLatitude(), 0.0F);
+      Assert.assertEquals(stop.getLongitude(), restoredStop.getLongitude(), 0.0F);
+    }
+
+    final List<String> expectedConnections =
+        mTable.getConnections().stream().map(Connection::toString).collect(Collectors.toList());
+    final List<String> connections =
+        table.getConnections().stream().map(Connection::toString).collect(Collectors.toList());
+    Assert.assertEquals(expectedConnections, connections);
+
+    for (final Trip trip : mTable.getTrips()) {
+      final List<String> expectedSequence =
+          trip.getSequence().stream().map(Connection::toString).collect(Collectors.toList());
+      final List<String> sequence =
+          table.getTrip(trip.getId()).getSequence().stream().map(Connection::toString).collect(Collectors.toList());
+      Assert.assertEquals(expectedSequence, sequence);
+    }
+
+    final List<String> footpaths = table.getFootpaths().map(Footpath::toString).collect(Collectors.toList());
+    Assert.assertEquals(Arrays.asList("Footpath [0 -> 1, duration=60]"), footpaths);
+  }
+}
@@ -0,0 +1,295 @@
+package de.unifreiburg.informatik.cobweb.routing.model.graph.tiled;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.unifreiburg.informatik.cobweb.parsing.osm.EHighwayType;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.dijkstra.Dijkstra;
+import de.unifreiburg.informatik.cobweb.routing.model.cache.TiledRoadGraphCache;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadGraph;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadNode;
+
+/**
+ * Test for the class {@link TiledRoadGraph}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class TiledRoadGraphTest {
+  /**
+   * The amount of nodes per row and column of the grid graph used for testing.
+   */
+  private static final int GRID_SIZE = 6;
+  /**
+   * The maximal amount of resident tiles used for testing.
+   */
+  private static final int MAX_RESIDENT_TILES = 2;
+  /**
+   * The size of the tiles used for testing, in degrees.
+   */
+  private static final double TILE_SIZE = 0.1;
+
+  /**
+   * Deletes the given directory of a tiled graph together with its content.
+   *
+   * @param directory The directory to delete
+   * @throws IOException If an I/O exception occurred while deleting
+   */
+  private static void deleteDirectory(final Path directory) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      for (final Path file : files.collect(Collectors.toList())) {
+        Files.delete(file);
+      }
+    }
+    Files.delete(directory);
+  }
+
+  /**
+   * The directory used for the tiled graph.
+   */
+  private Path mDirectory;
+  /**
+   * The fully materialized graph used for testing.
+   */
+  private RoadGraph<ICoreNode, ICoreEdge<ICoreNode>> mGraph;
+  /**
+   * The tiled graph used for testing, built from {@link #mGraph}.
+   */
+  private TiledRoadGraph mTiledGraph;
+
+  /**
+   * Setups a grid graph which spans multiple tiles and its tiled counterpart.
+   *
+   * @throws IOException If an I/O exception occurred while writing the tiles
+   */
+  @Before
+  public void setUp() throws IOException {
+    mDirectory = Files.createTempDirectory("tiledGraph");
+    mGraph = new RoadGraph<>();
+    final RoadNode[][] grid = new RoadNode[GRID_SIZE][GRID_SIZE];
+    for (int row = 0; row < GRID_SIZE; row++) {
+      for (int column = 0; column < GRID_SIZE; column++) {
+        grid[row][column] =
+            new RoadNode(mGraph.generateUniqueNodeId(), 48.0F + 0.07F * row, 7.8F + 0.07F * column);
+        mGraph.addNode(grid[row][column]);
+      }
+    }
+    for (int row = 0; row < GRID_SIZE; row++) {
+      for (int column = 0; column < GRID_SIZE; column++) {
+        if (column + 1 < GRID_SIZE) {
+          // Horizontal roads are one-way
+          addEdge(grid[row][column], grid[row][column + 1], EHighwayType.RESIDENTIAL, 30);
+        }
+        if (row + 1 < GRID_SIZE) {
+          addEdge(grid[row][column], grid[row + 1][column], EHighwayType.PRIMARY, 50 + 10 * column);
+          addEdge(grid[row + 1][column], grid[row][column], EHighwayType.PRIMARY, 50 + 10 * column);
+        }
+      }
+    }
+
+    TiledRoadGraphCache.write(mGraph, mDirectory, TILE_SIZE);
+    mTiledGraph = new TiledRoadGraph(TiledRoadGraphCache.map(mDirectory), MAX_RESIDENT_TILES);
+  }
+
+  /**
+   * Removes the tiled graph used for testing.
+   *
+   * @throws IOException If an I/O exception occurred while deleting the files
+   */
+  @After
+  public void tearDown() throws IOException {
+    TiledRoadGraphTest.deleteDirectory(mDirectory);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.graph.tiled.TiledRoadGraph#getEdges()}.
+   */
+  @Test
+  public void testGetEdges() {
+    final Set<ICoreEdge<ICoreNode>> expectedEdges = mGraph.getEdges().collect(Collectors.toSet());
+    final Set<ICoreEdge<ICoreNode>> edges = mTiledGraph.getEdges().collect(Collectors.toSet());
+    Assert.assertEquals(mGraph.getAmountOfEdges(), mTiledGraph.getEdges().count());
+    Assert.assertEquals(expectedEdges, edges);
+    Assert.assertEquals(mGraph.getAmountOfEdges(), mTiledGraph.getAmountOfEdges());
+    Assert.assertTrue(mTiledGraph.getAmountOfResidentTiles() <= MAX_RESIDENT_TILES);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.graph.tiled.TiledRoadGraph#getIncomingEdges(ICoreNode)}
+   * and
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.graph.tiled.TiledRoadGraph#getOutgoingEdges(ICoreNode)}.
+   */
+  @Test
+  public void testGetIncomingAndOutgoingEdges() {
+    for (final ICoreNode node : mGraph.getNodes()) {
+      Assert.assertEquals(mGraph.getOutgoingEdges(node).collect(Collectors.toSet()),
+          mTiledGraph.getOutgoingEdges(node).collect(Collectors.toSet()));
+      Assert.assertEquals(mGraph.getIncomingEdges(node).collect(Collectors.toSet()),
+          mTiledGraph.getIncomingEdges(node).collect(Collectors.toSet()));
+    }
+    Assert.assertFalse(mTiledGraph.getOutgoingEdges(new RoadNode(-1, 48.0F, 7.8F)).findAny().isPresent());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.graph.tiled.TiledRoadGraph#getNodeById(int)}.
+   */
+  @Test
+  public void testGetNodeById() {
+    for (final ICoreNode node : mGraph.getNodes()) {
+      final Optional<ICoreNode> possibleNode = mTiledGraph.getNodeById(node.getId());
+      Assert.assertTrue(possibleNode.isPresent());
+      Assert.assertEquals(node, possibleNode.get());
+      Assert.assertEquals(node.getLatitude(), possibleNode.get().getLatitude(), 0.0F);
+      Assert.assertEquals(node.getLongitude(), possibleNode.get().getLongitude(), 0.0F);
+      Assert.assertTrue(mTiledGraph.containsNodeWithId(node.getId()));
+    }
+    Assert.assertFalse(mTiledGraph.getNodeById(-1).isPresent());
+    Assert.assertFalse(mTiledGraph.containsNodeWithId(GRID_SIZE * GRID_SIZE + 1));
+    Assert.assertEquals(mGraph.size(), mTiledGraph.size());
+    Assert.assertEquals(mGraph.size(), mTiledGraph.getNodes().size());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.graph.tiled.TiledRoadGraph#getOutgoingEdges(ICoreNode)}
+   * with concurrent accesses which load and evict tiles.
+   *
+   * @throws InterruptedException If interrupted while waiting for the accesses
+   * @throws ExecutionException   If an access failed
+   */
+  @Test
+  public void testConcurrentAccess() throws InterruptedException, ExecutionException {
+    final int threads = 4;
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      final List<Future<Long>> results = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        results.add(executor.submit(() -> {
+          long edges = 0;
+          for (int round = 0; round < 20; round++) {
+            for (final ICoreNode node : mGraph.getNodes()) {
+              edges += mTiledGraph.getOutgoingEdges(node).count();
+            }
+          }
+          return edges;
+        }));
+      }
+      for (final Future<Long> result : results) {
+        Assert.assertEquals(20L * mGraph.getAmountOfEdges(), result.get().longValue());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    Assert.assertTrue(mTiledGraph.getAmountOfResidentTiles() <= MAX_RESIDENT_TILES);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.graph.tiled.TiledRoadGraph#getAmountOfResidentTiles()}.
+   */
+  @Test
+  public void testLeastRecentlyUsedEviction() {
+    Assert.assertTrue(mTiledGraph.getAmountOfTiles() > MAX_RESIDENT_TILES);
+    Assert.assertEquals(0, mTiledGraph.getAmountOfResidentTiles());
+
+    final ICoreNode first = mGraph.getNodes().iterator().next();
+    mTiledGraph.getOutgoingEdges(first).count();
+    mTiledGraph.getOutgoingEdges(first).count();
+    Assert.assertEquals(1, mTiledGraph.getAmountOfResidentTiles());
+    Assert.assertEquals(1, mTiledGraph.getAmountOfLoadedTiles());
+
+    ICoreNode last = first;
+    for (final ICoreNode node : mGraph.getNodes()) {
+      mTiledGraph.getOutgoingEdges(node).count();
+      Assert.assertTrue(mTiledGraph.getAmountOfResidentTiles() <= MAX_RESIDENT_TILES);
+      last = node;
+    }
+    final long loadedTiles = mTiledGraph.getAmountOfLoadedTiles();
+    Assert.assertTrue(loadedTiles >= mTiledGraph.getAmountOfTiles());
+    // The most recently used tile is still resident
+    mTiledGraph.getOutgoingEdges(last).count();
+    Assert.assertEquals(loadedTiles, mTiledGraph.getAmountOfLoadedTiles());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.graph.tiled.TiledRoadGraph#reverse()}.
+   */
+  @Test
+  public void testReverse() {
+    final ICoreNode node = mGraph.getNodes().stream().skip(GRID_SIZE + 1).findFirst().get();
+    final Set<ICoreEdge<ICoreNode>> outgoingEdges = mTiledGraph.getOutgoingEdges(node).collect(Collectors.toSet());
+    final Set<ICoreEdge<ICoreNode>> incomingEdges = mTiledGraph.getIncomingEdges(node).collect(Collectors.toSet());
+
+    Assert.assertFalse(mTiledGraph.isReversed());
+    mTiledGraph.reverse();
+    Assert.assertTrue(mTiledGraph.isReversed());
+    Assert.assertEquals(incomingEdges.size(), mTiledGraph.getOutgoingEdges(node).count());
+    Assert.assertEquals(outgoingEdges.size(), mTiledGraph.getIncomingEdges(node).count());
+    mTiledGraph.getOutgoingEdges(node).forEach(edge -> Assert.assertEquals(node, edge.getSource()));
+    mTiledGraph.getIncomingEdges(node).forEach(edge -> Assert.assertEquals(node, edge.getDestination()));
+
+    mTiledGraph.reverse();
+    Assert.assertFalse(mTiledGraph.isReversed());
+    Assert.assertEquals(outgoingEdges, mTiledGraph.getOutgoingEdges(node).collect(Collectors.toSet()));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.dijkstra.Dijkstra#computeShortestPathCost(de.unifreiburg.informatik.cobweb.routing.model.graph.INode, de.unifreiburg.informatik.cobweb.routing.model.graph.INode)}
+   * on a tiled graph, with paths crossing tile boundaries.
+   */
+  @Test
+  public void testShortestPathAcrossTiles() {
+    final Dijkstra<ICoreNode, ICoreEdge<ICoreNode>> expectedComputation = new Dijkstra<>(mGraph);
+    final Dijkstra<ICoreNode, ICoreEdge<ICoreNode>> computation = new Dijkstra<>(mTiledGraph);
+    for (final ICoreNode source : mGraph.getNodes()) {
+      for (final ICoreNode destination : mGraph.getNodes()) {
+        final Optional<Double> expectedCost = expectedComputation.computeShortestPathCost(source, destination);
+        final Optional<Double> cost = computation.computeShortestPathCost(source, destination);
+        Assert.assertEquals(expectedCost.isPresent(), cost.isPresent());
+        if (expectedCost.isPresent()) {
+          Assert.assertEquals(expectedCost.get(), cost.get(), 1E-6);
+        }
+      }
+    }
+    Assert.assertTrue(mTiledGraph.getAmountOfResidentTiles() <= MAX_RESIDENT_TILES);
+  }
+
+  /**
+   * Adds an edge between the given nodes to the graph used for testing.
+   *
+   * @param source      The source of the edge
+   * @param destination The destination of the edge
+   * @param type        The highway type of the edge
+   * @param maxSpeed    The maximal speed on the edge
+   */
+  private void addEdge(final RoadNode source, final RoadNode destination, final EHighwayType type,
+      final int maxSpeed) {
+    mGraph.addEdge(new RoadEdge<>(mGraph.generateUniqueWayId(), source, destination, type, maxSpeed,
+        EnumSet.of(ETransportationMode.CAR)));
+  }
+}
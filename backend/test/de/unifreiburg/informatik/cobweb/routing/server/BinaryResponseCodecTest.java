@@ -0,0 +1,116 @@
+package de.unifreiburg.informatik.cobweb.routing.server;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.routing.server.model.ERouteElementType;
+import de.unifreiburg.informatik.cobweb.routing.server.model.Journey;
+import de.unifreiburg.informatik.cobweb.routing.server.model.RouteElement;
+import de.unifreiburg.informatik.cobweb.routing.server.model.RoutingResponse;
+import de.unifreiburg.informatik.cobweb.util.JsonUtil;
+import de.unifreiburg.informatik.cobweb.util.collections.CoordinateList;
+
+/**
+ * Test for the class {@link BinaryResponseCodec}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class BinaryResponseCodecTest {
+  /**
+   * Creates a response used for testing.
+   *
+   * @return The response
+   */
+  private static RoutingResponse createResponse() {
+    final RouteElement first =
+        new RouteElement(ERouteElementType.NODE, "Main street", new CoordinateList(47.99f, 7.84f));
+    final RouteElement second = new RouteElement(ERouteElementType.PATH, ETransportationMode.CAR, "Main street",
+        new CoordinateList(47.99f, 7.84f, 47.9912f, 7.8425f, -33.8688f, 151.2093f));
+    final RouteElement third =
+        new RouteElement(ERouteElementType.NODE, "Königstraße", new CoordinateList(-33.8688f, 151.2093f));
+    final Journey journey = new Journey(1_500_000_000_000L, 1_500_000_360_000L, Arrays.asList(first, second, third));
+    return new RoutingResponse(12L, 5L, -1L, 42L, Arrays.asList(journey, journey));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.BinaryResponseCodec#decode(ByteBuffer)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testDecode() {
+    final RoutingResponse expected = BinaryResponseCodecTest.createResponse();
+    final RoutingResponse actual = BinaryResponseCodec.decode(ByteBuffer.wrap(BinaryResponseCodec.encode(expected)));
+
+    Assert.assertEquals(expected.getTime(), actual.getTime());
+    Assert.assertEquals(expected.getCompTime(), actual.getCompTime());
+    Assert.assertEquals(expected.getFrom(), actual.getFrom());
+    Assert.assertEquals(expected.getTo(), actual.getTo());
+    Assert.assertEquals(expected.getJourneys().size(), actual.getJourneys().size());
+    for (int i = 0; i < expected.getJourneys().size(); i++) {
+      final Journey expectedJourney = expected.getJourneys().get(i);
+      final Journey actualJourney = actual.getJourneys().get(i);
+      Assert.assertEquals(expectedJourney.getDepTime(), actualJourney.getDepTime());
+      Assert.assertEquals(expectedJourney.getArrTime(), actualJourney.getArrTime());
+      Assert.assertEquals(expectedJourney.getRoute().size(), actualJourney.getRoute().size());
+      for (int j = 0; j < expectedJourney.getRoute().size(); j++) {
+        final RouteElement expectedElement = expectedJourney.getRoute().get(j);
+        final RouteElement actualElement = actualJourney.getRoute().get(j);
+        Assert.assertEquals(expectedElement.getType(), actualElement.getType());
+        Assert.assertEquals(expectedElement.getMode(), actualElement.getMode());
+        Assert.assertEquals(expectedElement.getName(), actualElement.getName());
+        final CoordinateList expectedGeom = expectedElement.getGeom();
+        final CoordinateList actualGeom = actualElement.getGeom();
+        Assert.assertEquals(expectedGeom.size(), actualGeom.size());
+        for (int k = 0; k < expectedGeom.size(); k++) {
+          Assert.assertEquals(expectedGeom.getLatitude(k), actualGeom.getLatitude(k), 0.000_01f);
+          Assert.assertEquals(expectedGeom.getLongitude(k), actualGeom.getLongitude(k), 0.000_01f);
+        }
+      }
+    }
+
+    final RoutingResponse empty = new RoutingResponse(0L, 0L, 1L, 2L, Collections.emptyList());
+    Assert.assertTrue(
+        BinaryResponseCodec.decode(ByteBuffer.wrap(BinaryResponseCodec.encode(empty))).getJourneys().isEmpty());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.BinaryResponseCodec#decode(ByteBuffer)}
+   * with invalid input.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testDecodeInvalid() {
+    final byte[] encoded = BinaryResponseCodec.encode(BinaryResponseCodecTest.createResponse());
+    final byte[][] inputs = { new byte[0], "JSON".getBytes(), Arrays.copyOf(encoded, encoded.length - 1),
+        Arrays.copyOf(encoded, 4) };
+    for (final byte[] input : inputs) {
+      try {
+        BinaryResponseCodec.decode(ByteBuffer.wrap(input));
+        Assert.fail();
+      } catch (final IllegalArgumentException e) {
+        // Expected
+      }
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.BinaryResponseCodec#encode(RoutingResponse)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testEncode() {
+    final RoutingResponse response = BinaryResponseCodecTest.createResponse();
+    final byte[] encoded = BinaryResponseCodec.encode(response);
+    Assert.assertArrayEquals("CWRB".getBytes(), Arrays.copyOf(encoded, 4));
+    Assert.assertEquals(BinaryResponseCodec.VERSION, encoded[4]);
+    Assert.assertTrue(encoded.length < JsonUtil.getGson().toJson(response).length() / 3);
+  }
+}
@@ -0,0 +1,113 @@
+package de.unifreiburg.informatik.cobweb.routing.server;
+
+import java.util.EnumSet;
+import java.util.Optional;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.unifreiburg.informatik.cobweb.parsing.osm.EHighwayType;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.EdgePath;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.IPath;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadNode;
+import de.unifreiburg.informatik.cobweb.routing.server.model.RoutingRequest;
+
+/**
+ * Test for the class {@link CachedRoute}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class CachedRouteTest {
+  /**
+   * Transportation modes which do not depend on the departure time.
+   */
+  private static final EnumSet<ETransportationMode> CAR = EnumSet.of(ETransportationMode.CAR);
+  /**
+   * Transportation modes which depend on the departure time.
+   */
+  private static final EnumSet<ETransportationMode> TRAM =
+      EnumSet.of(ETransportationMode.FOOT, ETransportationMode.TRAM);
+
+  /**
+   * A path of one edge which takes two minutes.
+   */
+  private Optional<IPath<ICoreNode, ICoreEdge<ICoreNode>>> mPath;
+
+  /**
+   * Setups a path for testing.
+   */
+  @Before
+  public void setUp() {
+    final RoadNode source = new RoadNode(1, 48.0F, 7.8F);
+    final RoadNode destination = new RoadNode(2, 48.0F, 7.82F);
+    final EdgePath<ICoreNode, ICoreEdge<ICoreNode>> path = new EdgePath<>();
+    path.addEdge(new RoadEdge<>(1, source, destination, EHighwayType.MOTORWAY, 120, CAR), 120.0);
+    mPath = Optional.of(path);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.CachedRoute#getArrTime(RoutingRequest)}.
+   */
+  @Test
+  public void testGetArrTime() {
+    final CachedRoute route = CachedRoute.of(new RoutingRequest(1L, 2L, 60_000L, CAR), mPath);
+    Assert.assertEquals(180_000L, route.getArrTime(new RoutingRequest(1L, 2L, 60_000L, CAR)));
+    Assert.assertEquals(1_120_000L, route.getArrTime(new RoutingRequest(1L, 2L, 1_000_000L, CAR)));
+
+    // Time-dependent journeys keep their absolute times
+    final CachedRoute tramRoute = CachedRoute.of(new RoutingRequest(1L, 2L, 60_000L, TRAM), mPath);
+    Assert.assertEquals(180_000L, tramRoute.getArrTime(new RoutingRequest(1L, 2L, 30_000L, TRAM)));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.CachedRoute#getDepTime(RoutingRequest)}.
+   */
+  @Test
+  public void testGetDepTime() {
+    final CachedRoute route = CachedRoute.of(new RoutingRequest(1L, 2L, 60_000L, CAR), mPath);
+    Assert.assertEquals(1_000_000L, route.getDepTime(new RoutingRequest(1L, 2L, 1_000_000L, CAR)));
+
+    final CachedRoute tramRoute = CachedRoute.of(new RoutingRequest(1L, 2L, 60_000L, TRAM), mPath);
+    Assert.assertEquals(60_000L, tramRoute.getDepTime(new RoutingRequest(1L, 2L, 30_000L, TRAM)));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.CachedRoute#getWeight()}.
+   */
+  @Test
+  public void testGetWeight() {
+    Assert.assertEquals(2, CachedRoute.of(new RoutingRequest(1L, 2L, 0L, CAR), mPath).getWeight());
+    Assert.assertEquals(1, CachedRoute.of(new RoutingRequest(1L, 2L, 0L, CAR), Optional.empty()).getWeight());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.CachedRoute#isValidFor(RoutingRequest)}.
+   */
+  @Test
+  public void testIsValidFor() {
+    final CachedRoute route = CachedRoute.of(new RoutingRequest(1L, 2L, 60_000L, CAR), mPath);
+    Assert.assertTrue(route.isValidFor(new RoutingRequest(1L, 2L, 0L, CAR)));
+    Assert.assertTrue(route.isValidFor(new RoutingRequest(1L, 2L, 90_000L, CAR)));
+
+    // Time-dependent journeys must not depart before the request
+    final CachedRoute tramRoute = CachedRoute.of(new RoutingRequest(1L, 2L, 60_000L, TRAM), mPath);
+    Assert.assertTrue(tramRoute.isValidFor(new RoutingRequest(1L, 2L, 30_000L, TRAM)));
+    Assert.assertTrue(tramRoute.isValidFor(new RoutingRequest(1L, 2L, 60_000L, TRAM)));
+    Assert.assertFalse(tramRoute.isValidFor(new RoutingRequest(1L, 2L, 90_000L, TRAM)));
+
+    // Unreachable destinations stay unreachable when departing later
+    final CachedRoute unreachable = CachedRoute.of(new RoutingRequest(1L, 2L, 60_000L, TRAM), Optional.empty());
+    Assert.assertFalse(unreachable.getPath().isPresent());
+    Assert.assertFalse(unreachable.isValidFor(new RoutingRequest(1L, 2L, 30_000L, TRAM)));
+    Assert.assertTrue(unreachable.isValidFor(new RoutingRequest(1L, 2L, 90_000L, TRAM)));
+  }
+}
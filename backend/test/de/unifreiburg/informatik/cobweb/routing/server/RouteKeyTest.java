@@ -0,0 +1,42 @@
+package de.unifreiburg.informatik.cobweb.routing.server;
+
+import java.util.EnumSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.routing.server.model.RoutingRequest;
+
+/**
+ * Test for the class {@link RouteKey}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class RouteKeyTest {
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.RouteKey#of(RoutingRequest, long)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testOf() {
+    final EnumSet<ETransportationMode> car = EnumSet.of(ETransportationMode.CAR);
+    final EnumSet<ETransportationMode> tram = EnumSet.of(ETransportationMode.FOOT, ETransportationMode.TRAM);
+
+    final RouteKey key = RouteKey.of(new RoutingRequest(1L, 2L, 1_000L, car), 60_000L);
+    Assert.assertEquals(key, RouteKey.of(new RoutingRequest(1L, 2L, 1_000L, car), 60_000L));
+    Assert.assertEquals(key.hashCode(), RouteKey.of(new RoutingRequest(1L, 2L, 1_000L, car), 60_000L).hashCode());
+    Assert.assertNotEquals(key, RouteKey.of(new RoutingRequest(2L, 1L, 1_000L, car), 60_000L));
+    Assert.assertNotEquals(key,
+        RouteKey.of(new RoutingRequest(1L, 2L, 1_000L, EnumSet.of(ETransportationMode.FOOT)), 60_000L));
+
+    // The departure time only matters for time-dependent modes
+    Assert.assertEquals(key, RouteKey.of(new RoutingRequest(1L, 2L, 500_000L, car), 60_000L));
+    final RouteKey tramKey = RouteKey.of(new RoutingRequest(1L, 2L, 1_000L, tram), 60_000L);
+    Assert.assertEquals(tramKey, RouteKey.of(new RoutingRequest(1L, 2L, 59_000L, tram), 60_000L));
+    Assert.assertNotEquals(tramKey, RouteKey.of(new RoutingRequest(1L, 2L, 61_000L, tram), 60_000L));
+    Assert.assertNotEquals(RouteKey.of(new RoutingRequest(1L, 2L, 1_000L, tram), 0L),
+        RouteKey.of(new RoutingRequest(1L, 2L, 1_001L, tram), 0L));
+  }
+}
@@ -10,6 +10,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.util.collections.CoordinateList;
 
 /**
  * Test for the class {@link Journey}.
@@ -27,11 +28,11 @@ public final class JourneyTest {
    */
   @Before
   public void setUp() {
-    final RouteElement first = new RouteElement(ERouteElementType.NODE, "", Arrays.asList(new float[] { 1.0F, 1.0F }));
+    final RouteElement first = new RouteElement(ERouteElementType.NODE, "", new CoordinateList(1.0F, 1.0F));
     final RouteElement second = new RouteElement(ERouteElementType.PATH, ETransportationMode.BIKE, "Main street",
-        Arrays.asList(new float[] { 1.0F, 1.0F }, new float[] { 2.0F, 2.0F }, new float[] { 4.0F, 4.0F }));
+        new CoordinateList(1.0F, 1.0F, 2.0F, 2.0F, 4.0F, 4.0F));
     final RouteElement third =
-        new RouteElement(ERouteElementType.NODE, "Wall street 5", Arrays.asList(new float[] { 4.0F, 4.0F }));
+        new RouteElement(ERouteElementType.NODE, "Wall street 5", new CoordinateList(4.0F, 4.0F));
     mJourney = new Journey(100L, 200L, Arrays.asList(first, second, third));
   }
 
@@ -78,11 +79,11 @@ public final class JourneyTest {
   @SuppressWarnings({ "unused", "static-method" })
   @Test
   public void testJourney() {
-    final RouteElement first = new RouteElement(ERouteElementType.NODE, "", Arrays.asList(new float[] { 1.0F, 1.0F }));
+    final RouteElement first = new RouteElement(ERouteElementType.NODE, "", new CoordinateList(1.0F, 1.0F));
     final RouteElement second = new RouteElement(ERouteElementType.PATH, "Main street",
-        Arrays.asList(new float[] { 1.0F, 1.0F }, new float[] { 2.0F, 2.0F }, new float[] { 4.0F, 4.0F }));
+        new CoordinateList(1.0F, 1.0F, 2.0F, 2.0F, 4.0F, 4.0F));
     final RouteElement third =
-        new RouteElement(ERouteElementType.NODE, "Wall street 5", Arrays.asList(new float[] { 4.0F, 4.0F }));
+        new RouteElement(ERouteElementType.NODE, "Wall street 5", new CoordinateList(4.0F, 4.0F));
     try {
       new Journey(100L, 200L, Arrays.asList(first, second, third));
       new Journey(0, 0, Collections.emptyList());
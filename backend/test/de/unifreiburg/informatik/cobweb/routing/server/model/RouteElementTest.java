@@ -1,14 +1,11 @@
 package de.unifreiburg.informatik.cobweb.routing.server.model;
 
-import java.util.Arrays;
-import java.util.Iterator;
-import java.util.List;
-
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
 import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.util.collections.CoordinateList;
 
 /**
  * Test for the class {@link RouteElement}.
@@ -27,7 +24,7 @@ public final class RouteElementTest {
   @Before
   public void setUp() {
     mElement = new RouteElement(ERouteElementType.PATH, ETransportationMode.BIKE, "Main street",
-        Arrays.asList(new float[] { 1.0F, 1.0F }, new float[] { 2.0F, 2.0F }, new float[] { 4.0F, 4.0F }));
+        new CoordinateList(1.0F, 1.0F, 2.0F, 2.0F, 4.0F, 4.0F));
   }
 
   /**
@@ -36,16 +33,15 @@ public final class RouteElementTest {
    */
   @Test
   public void testGetGeom() {
-    final List<float[]> geom = mElement.getGeom();
+    final CoordinateList geom = mElement.getGeom();
     Assert.assertEquals(3, geom.size());
-    final Iterator<float[]> geomIter = geom.iterator();
 
-    final float[] first = geomIter.next();
-    Assert.assertArrayEquals(new float[] { 1.0F, 1.0F }, first, 0.0001F);
-    final float[] second = geomIter.next();
-    Assert.assertArrayEquals(new float[] { 2.0F, 2.0F }, second, 0.0001F);
-    final float[] third = geomIter.next();
-    Assert.assertArrayEquals(new float[] { 4.0F, 4.0F }, third, 0.0001F);
+    Assert.assertEquals(1.0F, geom.getLatitude(0), 0.0001F);
+    Assert.assertEquals(1.0F, geom.getLongitude(0), 0.0001F);
+    Assert.assertEquals(2.0F, geom.getLatitude(1), 0.0001F);
+    Assert.assertEquals(2.0F, geom.getLongitude(1), 0.0001F);
+    Assert.assertEquals(4.0F, geom.getLatitude(2), 0.0001F);
+    Assert.assertEquals(4.0F, geom.getLongitude(2), 0.0001F);
   }
 
   /**
@@ -65,7 +61,21 @@ public final class RouteElementTest {
   public void testGetName() {
     Assert.assertEquals("Main street", mElement.getName());
     Assert.assertEquals("",
-        new RouteElement(ERouteElementType.NODE, "", Arrays.asList(new float[] { 0.0F, 0.0F })).getName());
+        new RouteElement(ERouteElementType.NODE, "", new CoordinateList(0.0F, 0.0F)).getName());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.model.RouteElement#getPolyline()}.
+   */
+  @Test
+  public void testGetPolyline() {
+    Assert.assertFalse(mElement.getPolyline().isPresent());
+    final RouteElement element =
+        new RouteElement(ERouteElementType.PATH, ETransportationMode.CAR, "Main street", "_p~iF~ps|U_ulLnnqC");
+    Assert.assertEquals("_p~iF~ps|U_ulLnnqC", element.getPolyline().get());
+    Assert.assertNull(element.getGeom());
+    Assert.assertEquals(ETransportationMode.CAR, element.getMode());
   }
 
   /**
@@ -79,18 +89,18 @@ public final class RouteElementTest {
 
   /**
    * Test method for
-   * {@link de.unifreiburg.informatik.cobweb.routing.server.model.RouteElement#RouteElement(de.unifreiburg.informatik.cobweb.routing.server.model.ERouteElementType, de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode, java.lang.String, java.util.List)}.
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.model.RouteElement#RouteElement(de.unifreiburg.informatik.cobweb.routing.server.model.ERouteElementType, de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode, java.lang.String, de.unifreiburg.informatik.cobweb.util.collections.CoordinateList)}.
    */
   @SuppressWarnings({ "unused", "static-method" })
   @Test
   public void testRouteElementERouteElementTypeETransportationModeStringListOfdouble() {
     try {
       new RouteElement(ERouteElementType.PATH, ETransportationMode.BIKE, "Main street",
-          Arrays.asList(new float[] { 1.0F, 1.0F }, new float[] { 2.0F, 2.0F }, new float[] { 4.0F, 4.0F }));
+          new CoordinateList(1.0F, 1.0F, 2.0F, 2.0F, 4.0F, 4.0F));
       new RouteElement(ERouteElementType.PATH, ETransportationMode.CAR, "",
-          Arrays.asList(new float[] { -1.0F, -1.0F }, new float[] { 4.0F, 4.0F }, new float[] { 0.0F, 0.0F }));
+          new CoordinateList(-1.0F, -1.0F, 4.0F, 4.0F, 0.0F, 0.0F));
       new RouteElement(ERouteElementType.NODE, ETransportationMode.BIKE, "Main street 5",
-          Arrays.asList(new float[] { 1.0F, 1.0F }));
+          new CoordinateList(1.0F, 1.0F));
     } catch (final Exception e) {
       Assert.fail();
     }
@@ -98,17 +108,17 @@ public final class RouteElementTest {
 
   /**
    * Test method for
-   * {@link de.unifreiburg.informatik.cobweb.routing.server.model.RouteElement#RouteElement(de.unifreiburg.informatik.cobweb.routing.server.model.ERouteElementType, java.lang.String, java.util.List)}.
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.model.RouteElement#RouteElement(de.unifreiburg.informatik.cobweb.routing.server.model.ERouteElementType, java.lang.String, de.unifreiburg.informatik.cobweb.util.collections.CoordinateList)}.
    */
   @SuppressWarnings({ "unused", "static-method" })
   @Test
   public void testRouteElementERouteElementTypeStringListOfdouble() {
     try {
-      new RouteElement(ERouteElementType.NODE, "Main street 5", Arrays.asList(new float[] { 1.0F, 1.0F }));
-      new RouteElement(ERouteElementType.NODE, "", Arrays.asList(new float[] { 0.0F, 0.0F }));
-      new RouteElement(ERouteElementType.NODE, "", Arrays.asList(new float[] { -5.0F, -5.0F }));
+      new RouteElement(ERouteElementType.NODE, "Main street 5", new CoordinateList(1.0F, 1.0F));
+      new RouteElement(ERouteElementType.NODE, "", new CoordinateList(0.0F, 0.0F));
+      new RouteElement(ERouteElementType.NODE, "", new CoordinateList(-5.0F, -5.0F));
       new RouteElement(ERouteElementType.PATH, "Main street",
-          Arrays.asList(new float[] { 1.0F, 1.0F }, new float[] { 2.0F, 2.0F }, new float[] { 4.0F, 4.0F }));
+          new CoordinateList(1.0F, 1.0F, 2.0F, 2.0F, 4.0F, 4.0F));
     } catch (final Exception e) {
       Assert.fail();
     }
@@ -10,6 +10,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.util.collections.CoordinateList;
 
 /**
  * Test for the class {@link RoutingResponse}.
@@ -27,11 +28,11 @@ public final class RoutingResponseTest {
    */
   @Before
   public void setUp() {
-    final RouteElement first = new RouteElement(ERouteElementType.NODE, "", Arrays.asList(new float[] { 1.0F, 1.0F }));
+    final RouteElement first = new RouteElement(ERouteElementType.NODE, "", new CoordinateList(1.0F, 1.0F));
     final RouteElement second = new RouteElement(ERouteElementType.PATH, ETransportationMode.BIKE, "Main street",
-        Arrays.asList(new float[] { 1.0F, 1.0F }, new float[] { 2.0F, 2.0F }, new float[] { 4.0F, 4.0F }));
+        new CoordinateList(1.0F, 1.0F, 2.0F, 2.0F, 4.0F, 4.0F));
     final RouteElement third =
-        new RouteElement(ERouteElementType.NODE, "Wall street 5", Arrays.asList(new float[] { 4.0F, 4.0F }));
+        new RouteElement(ERouteElementType.NODE, "Wall street 5", new CoordinateList(4.0F, 4.0F));
     final Journey journey = new Journey(100L, 200L, Arrays.asList(first, second, third));
     mResponse = new RoutingResponse(10L, 8L, 5L, 10L, Arrays.asList(journey, journey));
   }
@@ -95,11 +96,11 @@ public final class RoutingResponseTest {
   @SuppressWarnings({ "unused", "static-method" })
   @Test
   public void testRoutingResponse() {
-    final RouteElement first = new RouteElement(ERouteElementType.NODE, "", Arrays.asList(new float[] { 1.0F, 1.0F }));
+    final RouteElement first = new RouteElement(ERouteElementType.NODE, "", new CoordinateList(1.0F, 1.0F));
     final RouteElement second = new RouteElement(ERouteElementType.PATH, ETransportationMode.BIKE, "Main street",
-        Arrays.asList(new float[] { 1.0F, 1.0F }, new float[] { 2.0F, 2.0F }, new float[] { 4.0F, 4.0F }));
+        new CoordinateList(1.0F, 1.0F, 2.0F, 2.0F, 4.0F, 4.0F));
     final RouteElement third =
-        new RouteElement(ERouteElementType.NODE, "Wall street 5", Arrays.asList(new float[] { 4.0F, 4.0F }));
+        new RouteElement(ERouteElementType.NODE, "Wall street 5", new CoordinateList(4.0F, 4.0F));
     final Journey journey = new Journey(100L, 200L, Arrays.asList(first, second, third));
     try {
       new RoutingResponse(10L, 8L, 5L, 10L, Arrays.asList(journey, journey));
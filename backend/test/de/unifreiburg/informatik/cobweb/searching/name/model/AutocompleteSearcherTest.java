@@ -0,0 +1,192 @@
+package de.unifreiburg.informatik.cobweb.searching.name.model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.unifreiburg.informatik.cobweb.db.NodeNameData;
+import de.zabuza.lexisearch.indexing.Posting;
+
+/**
+ * Test for the class {@link AutocompleteSearcher}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class AutocompleteSearcherTest {
+  /**
+   * The index used for testing.
+   */
+  private QGramIndex mIndex;
+  /**
+   * The file of the index used for testing.
+   */
+  private Path mIndexFile;
+
+  /**
+   * Setups an index for testing.
+   *
+   * @throws IOException If an I/O exception occurred while creating the index
+   */
+  @Before
+  public void setUp() throws IOException {
+    mIndexFile = Files.createTempFile("qGramIndex", ".bin");
+    final List<NodeNameData> nodeNames =
+        Arrays.asList(new NodeNameData(10L, "Freiburg Hauptbahnhof", 47.998F, 7.842F),
+            new NodeNameData(11L, "Freiburg Messe", 48.016F, 7.834F),
+            new NodeNameData(12L, "Freudenstadt", 48.463F, 8.411F), new NodeNameData(13L, "Frankfurt", 50.110F, 8.682F),
+            new NodeNameData(14L, "Hamburg", 53.551F, 9.994F));
+    QGramIndex.write(nodeNames, 3, 0L, mIndexFile);
+    mIndex = QGramIndex.map(mIndexFile);
+  }
+
+  /**
+   * Removes the index file used for testing.
+   *
+   * @throws IOException If an I/O exception occurred while deleting the file
+   */
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(mIndexFile);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.searching.name.model.AutocompleteSearcher#AutocompleteSearcher(QGramIndex, int, int, int)}.
+   */
+  @Test
+  public void testAutocompleteSearcher() {
+    try {
+      new AutocompleteSearcher(mIndex, 10, 0, 1);
+      Assert.fail();
+    } catch (final IllegalArgumentException e) {
+      // Expected
+    }
+    Assert.assertEquals(mIndex, new AutocompleteSearcher(mIndex, 10, 1, 1).getIndex());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.searching.name.model.AutocompleteSearcher#search(String, String)}.
+   */
+  @Test
+  public void testSearch() {
+    final AutocompleteSearcher searcher = new AutocompleteSearcher(mIndex, 10, 2, 2);
+
+    // Typing keystroke by keystroke yields the same as full searches
+    AutocompleteResult result = searcher.search("F", null);
+    final String token = result.getSessionToken();
+    Assert.assertNotNull(token);
+    for (final String query : Arrays.asList("Fr", "Fre", "Frei", "Freib", "Freibu", "Freiburg M")) {
+      result = searcher.search(query, token);
+      Assert.assertEquals(token, result.getSessionToken());
+      assertSamePostings(mIndex.searchFuzzyPrefix(query), result.getMatches());
+    }
+
+    // Results of cached prefixes are served to other sessions as well
+    result = searcher.search("Freiburg M", null);
+    Assert.assertNotEquals(token, result.getSessionToken());
+    assertSamePostings(mIndex.searchFuzzyPrefix("Freiburg M"), result.getMatches());
+
+    // Unknown tokens start a new session
+    result = searcher.search("Ham", "unknown");
+    Assert.assertNotEquals("unknown", result.getSessionToken());
+    assertSamePostings(mIndex.searchFuzzyPrefix("Ham"), result.getMatches());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.searching.name.model.AutocompleteSearcher#search(String, String)}
+   * with a match limit.
+   */
+  @Test
+  public void testSearchMatchLimit() {
+    final AutocompleteSearcher searcher = new AutocompleteSearcher(mIndex, 2, 2, 2);
+    final List<Posting> expected = mIndex.searchFuzzyPrefix("Fr");
+    Assert.assertTrue(expected.size() > 2);
+    assertSamePostings(expected.subList(0, 2), searcher.search("Fr", null).getMatches());
+    // From the cache
+    assertSamePostings(expected.subList(0, 2), searcher.search("Fr", null).getMatches());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.searching.name.model.AutocompleteSearcher#search(String, String, SearchRegion, int)}.
+   */
+  @Test
+  public void testSearchCompletions() {
+    // Nodes with a higher ID are more important
+    final PrefixCompletionIndex completionIndex =
+        PrefixCompletionIndex.build(mIndex, recordId -> (int) mIndex.getNodeId(recordId));
+    final AutocompleteSearcher searcher = new AutocompleteSearcher(mIndex, completionIndex, 10, 2, 2);
+
+    // Enough exact completions, ranked by importance
+    AutocompleteResult result = searcher.search("Fr", null, SearchRegion.UNRESTRICTED, 2);
+    Assert.assertNotNull(result.getSessionToken());
+    assertSamePostings(completionIndex.complete("Fr", 2, SearchRegion.UNRESTRICTED), result.getMatches());
+    Assert.assertEquals(13L, mIndex.getNodeId(result.getMatches().get(0).getId()));
+
+    // Too few exact completions, filled up with fuzzy matches
+    result = searcher.search("Frei", result.getSessionToken(), SearchRegion.UNRESTRICTED, 3);
+    final List<Posting> completions = completionIndex.complete("Frei", 3, SearchRegion.UNRESTRICTED);
+    Assert.assertEquals(2, completions.size());
+    final List<Posting> fuzzyMatches = mIndex.searchFuzzyPrefix("Frei");
+    Assert.assertTrue(fuzzyMatches.size() > completions.size());
+    Assert.assertEquals(fuzzyMatches.size(), result.getMatches().size());
+    assertSamePostings(completions, result.getMatches().subList(0, 2));
+
+    // Without a completion index only the fuzzy search is used
+    result = new AutocompleteSearcher(mIndex, 10, 2, 2).search("Fr", null, SearchRegion.UNRESTRICTED, 2);
+    assertSamePostings(mIndex.searchFuzzyPrefix("Fr"), result.getMatches());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.searching.name.model.AutocompleteSearcher#search(String, String, SearchRegion)}.
+   */
+  @Test
+  public void testSearchRegion() {
+    final AutocompleteSearcher searcher = new AutocompleteSearcher(mIndex, 10, 2, 2);
+    final SearchRegion freiburg = new SearchRegion(new float[] { 47.9F, 7.7F, 48.1F, 7.9F }, null);
+
+    // Refinements within the same viewport
+    AutocompleteResult result = searcher.search("Fre", null, freiburg);
+    final String token = result.getSessionToken();
+    assertSamePostings(mIndex.searchFuzzyPrefix("Fre", freiburg), result.getMatches());
+    Assert.assertEquals(2, result.getMatches().size());
+    result = searcher.search("Frei", token, freiburg);
+    assertSamePostings(mIndex.searchFuzzyPrefix("Frei", freiburg), result.getMatches());
+
+    // Leaving the viewport must not reuse the candidates of the session
+    result = searcher.search("Frei", token, SearchRegion.UNRESTRICTED);
+    Assert.assertEquals(token, result.getSessionToken());
+    assertSamePostings(mIndex.searchFuzzyPrefix("Frei"), result.getMatches());
+    Assert.assertEquals(3, result.getMatches().size());
+
+    // A bias changes the order but not the matches
+    final SearchRegion nearFreudenstadt = new SearchRegion(null, new float[] { 48.46F, 8.41F });
+    result = searcher.search("Fre", token, nearFreudenstadt);
+    assertSamePostings(mIndex.searchFuzzyPrefix("Fre", nearFreudenstadt), result.getMatches());
+    Assert.assertEquals(12L, mIndex.getNodeId(result.getMatches().get(0).getId()));
+  }
+
+  /**
+   * Asserts that both given lists contain the same postings in the same order.
+   *
+   * @param expected The expected postings
+   * @param actual   The actual postings
+   */
+  private static void assertSamePostings(final List<Posting> expected, final List<Posting> actual) {
+    Assert.assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      Assert.assertEquals(expected.get(i).getId(), actual.get(i).getId());
+      Assert.assertEquals(expected.get(i).getScore(), actual.get(i).getScore(), 0.0);
+    }
+  }
+}
@@ -0,0 +1,92 @@
+package de.unifreiburg.informatik.cobweb.searching.name.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.unifreiburg.informatik.cobweb.db.NodeNameData;
+import de.unifreiburg.informatik.cobweb.util.BinaryFileUtil;
+
+/**
+ * Test for the class {@link NodeNameCache}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class NodeNameCacheTest {
+  /**
+   * The file used as cache for testing.
+   */
+  private Path mCache;
+
+  /**
+   * Setups a cache file for testing.
+   *
+   * @throws IOException If an I/O exception occurred while creating the cache
+   *                     file
+   */
+  @Before
+  public void setUp() throws IOException {
+    mCache = Files.createTempFile("nodeNameCache", ".bin");
+  }
+
+  /**
+   * Removes the cache file used for testing.
+   *
+   * @throws IOException If an I/O exception occurred while deleting the file
+   */
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(mCache);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.searching.name.model.NodeNameCache#map(Path)}
+   * with a corrupted file.
+   *
+   * @throws IOException If an I/O exception occurred while accessing the file
+   */
+  @Test(expected = IOException.class)
+  public void testMapCorrupted() throws IOException {
+    NodeNameCache.write(Collections.singletonList(new NodeNameData(1L, "Freiburg")), mCache);
+    try (FileChannel channel = FileChannel.open(mCache, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[] { 42 }), BinaryFileUtil.HEADER_SIZE + 2);
+    }
+    NodeNameCache.map(mCache);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.searching.name.model.NodeNameCache#materialize()}.
+   *
+   * @throws IOException If an I/O exception occurred while accessing the file
+   */
+  @Test
+  public void testWriteAndMaterialize() throws IOException {
+    final List<NodeNameData> nodeNames = Arrays.asList(new NodeNameData(1L, "Freiburg Hauptbahnhof"),
+        new NodeNameData(Long.MAX_VALUE, "Straße", 47.99F, 7.84F), new NodeNameData(-3L, ""));
+    NodeNameCache.write(nodeNames, mCache);
+    final NodeNameCache cache = NodeNameCache.map(mCache);
+    Assert.assertEquals(3, cache.getAmountOfNames());
+
+    final List<NodeNameData> restoredNames = cache.materialize();
+    Assert.assertEquals(nodeNames.size(), restoredNames.size());
+    for (int i = 0; i < nodeNames.size(); i++) {
+      Assert.assertEquals(nodeNames.get(i).getId(), restoredNames.get(i).getId());
+      Assert.assertEquals(nodeNames.get(i).getName(), restoredNames.get(i).getName());
+      Assert.assertEquals(nodeNames.get(i).getLatitude(), restoredNames.get(i).getLatitude(), 0.0F);
+      Assert.assertEquals(nodeNames.get(i).getLongitude(), restoredNames.get(i).getLongitude(), 0.0F);
+    }
+  }
+}
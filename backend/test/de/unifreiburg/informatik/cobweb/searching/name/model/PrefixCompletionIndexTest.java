@@ -0,0 +1,134 @@
+package de.unifreiburg.informatik.cobweb.searching.name.model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.unifreiburg.informatik.cobweb.db.NodeNameData;
+import de.zabuza.lexisearch.indexing.Posting;
+
+/**
+ * Test for the class {@link PrefixCompletionIndex}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class PrefixCompletionIndexTest {
+  /**
+   * The index used for testing.
+   */
+  private PrefixCompletionIndex mCompletionIndex;
+  /**
+   * The file of the index the completions are built on.
+   */
+  private Path mIndexFile;
+
+  /**
+   * Setups an index for testing. The importance of a node is its ID modulo
+   * <tt>10</tt>.
+   *
+   * @throws IOException If an I/O exception occurred while creating the index
+   */
+  @Before
+  public void setUp() throws IOException {
+    mIndexFile = Files.createTempFile("qGramIndex", ".bin");
+    final List<NodeNameData> nodeNames = Arrays.asList(new NodeNameData(11L, "Hauptstraße", 47.99F, 7.84F),
+        new NodeNameData(15L, "Hauptbahnhof", 47.99F, 7.84F), new NodeNameData(23L, "Haupt-Straße"),
+        new NodeNameData(27L, "Hauptstraße", 48.14F, 11.58F), new NodeNameData(33L, "Hamburg", 53.55F, 9.99F),
+        new NodeNameData(34L, "Bertoldsbrunnen", 47.99F, 7.85F), new NodeNameData(35L, "Hauptstraße", 48.00F, 7.85F));
+    QGramIndex.write(nodeNames, 3, 0L, mIndexFile);
+    final QGramIndex index = QGramIndex.map(mIndexFile);
+    mCompletionIndex = PrefixCompletionIndex.build(index, recordId -> (int) (index.getNodeId(recordId) % 10));
+  }
+
+  /**
+   * Removes the index file used for testing.
+   *
+   * @throws IOException If an I/O exception occurred while deleting the file
+   */
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(mIndexFile);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.searching.name.model.PrefixCompletionIndex#complete(String, int, SearchRegion)}.
+   */
+  @Test
+  public void testComplete() {
+    // Most important first, equally important ones by their name
+    Assert.assertEquals(Arrays.asList(27L, 15L, 35L, 23L, 11L),
+        completedNodes(mCompletionIndex.complete("Haupt", 10, SearchRegion.UNRESTRICTED)));
+    Assert.assertEquals(Arrays.asList(27L, 15L),
+        completedNodes(mCompletionIndex.complete("haupt", 2, SearchRegion.UNRESTRICTED)));
+    // Normalized like the fuzzy search
+    Assert.assertEquals(Arrays.asList(27L, 35L, 23L, 11L),
+        completedNodes(mCompletionIndex.complete("Haupt Str", 10, SearchRegion.UNRESTRICTED)));
+    Assert.assertEquals(Collections.singletonList(33L),
+        completedNodes(mCompletionIndex.complete("Ham", 10, SearchRegion.UNRESTRICTED)));
+
+    // Exact prefix edit distance
+    for (final Posting posting : mCompletionIndex.complete("Haupt", 10, SearchRegion.UNRESTRICTED)) {
+      Assert.assertEquals(0.0, posting.getScore(), 0.0);
+    }
+
+    // No completion
+    Assert.assertTrue(mCompletionIndex.complete("Hauptstrasse", 10, SearchRegion.UNRESTRICTED).isEmpty());
+    Assert.assertTrue(mCompletionIndex.complete("Zürich", 10, SearchRegion.UNRESTRICTED).isEmpty());
+    Assert.assertTrue(mCompletionIndex.complete("Z", 10, SearchRegion.UNRESTRICTED).isEmpty());
+    Assert.assertTrue(mCompletionIndex.complete("", 10, SearchRegion.UNRESTRICTED).isEmpty());
+    Assert.assertTrue(mCompletionIndex.complete("Haupt", 0, SearchRegion.UNRESTRICTED).isEmpty());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.searching.name.model.PrefixCompletionIndex#complete(String, int, SearchRegion)}
+   * with a region.
+   */
+  @Test
+  public void testCompleteRegion() {
+    final SearchRegion freiburg = new SearchRegion(new float[] { 47.9F, 7.7F, 48.1F, 7.9F }, null);
+    Assert.assertEquals(Arrays.asList(15L, 35L, 11L), completedNodes(mCompletionIndex.complete("Haupt", 10, freiburg)));
+    Assert.assertEquals(Arrays.asList(15L, 35L), completedNodes(mCompletionIndex.complete("Haupt", 2, freiburg)));
+
+    // Equally important completions are ranked by their distance to the bias
+    final SearchRegion nearMunich = new SearchRegion(null, new float[] { 48.1F, 11.5F });
+    Assert.assertEquals(Arrays.asList(27L, 35L, 15L, 23L, 11L),
+        completedNodes(mCompletionIndex.complete("Haupt", 10, nearMunich)));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.searching.name.model.PrefixCompletionIndex#getImportance(int)}.
+   */
+  @Test
+  public void testGetImportance() {
+    final QGramIndex index = mCompletionIndex.getIndex();
+    for (int recordId = 0; recordId < index.getAmountOfRecords(); recordId++) {
+      Assert.assertEquals(index.getNodeId(recordId) % 10, mCompletionIndex.getImportance(recordId));
+    }
+  }
+
+  /**
+   * Gets the IDs of the nodes of the given completions.
+   *
+   * @param completions The completions to get the nodes of
+   * @return The IDs of the nodes, in the same order
+   */
+  private List<Long> completedNodes(final List<Posting> completions) {
+    final List<Long> nodes = new ArrayList<>(completions.size());
+    for (final Posting completion : completions) {
+      nodes.add(mCompletionIndex.getIndex().getNodeId(completion.getId()));
+    }
+    return nodes;
+  }
+}
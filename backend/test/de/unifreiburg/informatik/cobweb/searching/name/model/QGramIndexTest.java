@@ -0,0 +1,259 @@
+package de.unifreiburg.informatik.cobweb.searching.name.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.unifreiburg.informatik.cobweb.db.NodeNameData;
+import de.unifreiburg.informatik.cobweb.util.BinaryFileUtil;
+import de.zabuza.lexisearch.indexing.Posting;
+
+/**
+ * Test for the class {@link QGramIndex}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class QGramIndexTest {
+  /**
+   * The file used as index for testing.
+   */
+  private Path mIndexFile;
+
+  /**
+   * Setups an index file for testing.
+   *
+   * @throws IOException If an I/O exception occurred while creating the index
+   *                     file
+   */
+  @Before
+  public void setUp() throws IOException {
+    mIndexFile = Files.createTempFile("qGramIndex", ".bin");
+  }
+
+  /**
+   * Removes the index file used for testing.
+   *
+   * @throws IOException If an I/O exception occurred while deleting the file
+   */
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(mIndexFile);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.searching.name.model.QGramIndex#fingerprint(java.util.Collection)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testFingerprint() {
+    final List<NodeNameData> nodeNames =
+        Arrays.asList(new NodeNameData(1L, "Freiburg"), new NodeNameData(2L, "Hamburg"));
+    Assert.assertEquals(QGramIndex.fingerprint(nodeNames),
+        QGramIndex.fingerprint(Arrays.asList(new NodeNameData(1L, "Freiburg"), new NodeNameData(2L, "Hamburg"))));
+    Assert.assertNotEquals(QGramIndex.fingerprint(nodeNames),
+        QGramIndex.fingerprint(Arrays.asList(new NodeNameData(1L, "Freiburg"), new NodeNameData(3L, "Hamburg"))));
+    Assert.assertNotEquals(QGramIndex.fingerprint(nodeNames),
+        QGramIndex.fingerprint(Arrays.asList(new NodeNameData(1L, "Freiburg"), new NodeNameData(2L, "Homburg"))));
+    Assert.assertNotEquals(QGramIndex.fingerprint(nodeNames), QGramIndex.fingerprint(
+        Arrays.asList(new NodeNameData(1L, "Freiburg"), new NodeNameData(2L, "Hamburg", 53.55F, 9.99F))));
+    Assert.assertNotEquals(QGramIndex.fingerprint(nodeNames),
+        QGramIndex.fingerprint(Collections.singletonList(new NodeNameData(1L, "Freiburg"))));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.searching.name.model.QGramIndex#isRefinement(String, String)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testIsRefinement() {
+    Assert.assertTrue(QGramIndex.isRefinement("Fr", "Fre"));
+    Assert.assertTrue(QGramIndex.isRefinement("Frei", "Freib"));
+    Assert.assertTrue(QGramIndex.isRefinement("Frei", "frei-b"));
+    Assert.assertTrue(QGramIndex.isRefinement("Frei", "Frei"));
+    // The allowed distance grows
+    Assert.assertFalse(QGramIndex.isRefinement("Fre", "Frei"));
+    Assert.assertFalse(QGramIndex.isRefinement("Frei", "Freiburg"));
+    // Not an extension
+    Assert.assertFalse(QGramIndex.isRefinement("Frei", "Frie"));
+    Assert.assertFalse(QGramIndex.isRefinement("Freib", "Frei"));
+    // Empty queries match nothing
+    Assert.assertFalse(QGramIndex.isRefinement(" ", "F"));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.searching.name.model.QGramIndex#map(Path)}
+   * with a corrupted file.
+   *
+   * @throws IOException If an I/O exception occurred while accessing the file
+   */
+  @Test(expected = IOException.class)
+  public void testMapCorrupted() throws IOException {
+    QGramIndex.write(Collections.singletonList(new NodeNameData(1L, "Freiburg")), 3, 0L, mIndexFile);
+    try (FileChannel channel = FileChannel.open(mIndexFile, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[] { 42 }), BinaryFileUtil.HEADER_SIZE + 2);
+    }
+    QGramIndex.map(mIndexFile);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.searching.name.model.QGramIndex#searchFuzzyPrefix(String)}.
+   *
+   * @throws IOException If an I/O exception occurred while accessing the file
+   */
+  @Test
+  public void testSearchFuzzyPrefix() throws IOException {
+    final List<NodeNameData> nodeNames = new ArrayList<>();
+    nodeNames.add(new NodeNameData(10L, "Freiburg Hauptbahnhof"));
+    nodeNames.add(new NodeNameData(11L, "Freiburg Messe"));
+    nodeNames.add(new NodeNameData(12L, "Bertoldsbrunnen"));
+    // Enough records in between such that record ID gaps need multiple bytes
+    for (int i = 0; i < 300; i++) {
+      nodeNames.add(new NodeNameData(1_000L + i, "Filler"));
+    }
+    nodeNames.add(new NodeNameData(13L, "Hamburg"));
+    QGramIndex.write(nodeNames, 3, 0L, mIndexFile);
+    final QGramIndex index = QGramIndex.map(mIndexFile);
+
+    // Exact prefix
+    List<Posting> postings = index.searchFuzzyPrefix("Freib");
+    Assert.assertEquals(2, postings.size());
+    Assert.assertEquals(0, postings.get(0).getId());
+    Assert.assertEquals(1, postings.get(1).getId());
+    Assert.assertEquals(0.0, postings.get(0).getScore(), 0.0);
+
+    // Typo, the exact match is ranked first
+    postings = index.searchFuzzyPrefix("Freiburg Mese");
+    Assert.assertEquals(1, postings.size());
+    Assert.assertEquals(11L, index.getNodeId(postings.get(0).getId()));
+    Assert.assertEquals(1.0, postings.get(0).getScore(), 0.0);
+
+    // Record after the filler
+    postings = index.searchFuzzyPrefix("hambur");
+    Assert.assertEquals(1, postings.size());
+    Assert.assertEquals(303, postings.get(0).getId());
+    Assert.assertEquals(13L, index.getNodeId(303));
+    Assert.assertEquals("Hamburg", index.getName(303));
+
+    // No match
+    Assert.assertTrue(index.searchFuzzyPrefix("Zürich").isEmpty());
+    Assert.assertTrue(index.searchFuzzyPrefix("").isEmpty());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.searching.name.model.QGramIndex#searchFuzzyPrefix(String, int[])}.
+   *
+   * @throws IOException If an I/O exception occurred while accessing the file
+   */
+  @Test
+  public void testSearchFuzzyPrefixCandidates() throws IOException {
+    final List<NodeNameData> nodeNames = Arrays.asList(new NodeNameData(10L, "Freiburg Hauptbahnhof"),
+        new NodeNameData(11L, "Freiburg Messe"), new NodeNameData(12L, "Freudenstadt"),
+        new NodeNameData(13L, "Frankfurt"), new NodeNameData(14L, "Hamburg"));
+    QGramIndex.write(nodeNames, 3, 0L, mIndexFile);
+    final QGramIndex index = QGramIndex.map(mIndexFile);
+
+    // Refining the matches of a previous query yields the same as a full search
+    final int[] candidates =
+        index.searchFuzzyPrefix("Frei").stream().mapToInt(Posting::getId).sorted().toArray();
+    for (final String query : Arrays.asList("Freib", "Freid", "Freibu", "Freibur")) {
+      Assert.assertTrue(QGramIndex.isRefinement("Frei", query));
+      final List<Posting> expected = index.searchFuzzyPrefix(query);
+      final List<Posting> actual = index.searchFuzzyPrefix(query, candidates);
+      Assert.assertEquals(expected.size(), actual.size());
+      for (int i = 0; i < expected.size(); i++) {
+        Assert.assertEquals(expected.get(i).getId(), actual.get(i).getId());
+        Assert.assertEquals(expected.get(i).getTermFrequency(), actual.get(i).getTermFrequency());
+        Assert.assertEquals(expected.get(i).getScore(), actual.get(i).getScore(), 0.0);
+      }
+    }
+
+    // Only candidates are searched
+    Assert.assertTrue(index.searchFuzzyPrefix("Hamburg", candidates).isEmpty());
+    Assert.assertTrue(index.searchFuzzyPrefix("Freiburg", new int[0]).isEmpty());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.searching.name.model.QGramIndex#searchFuzzyPrefix(String, SearchRegion)}.
+   *
+   * @throws IOException If an I/O exception occurred while accessing the file
+   */
+  @Test
+  public void testSearchFuzzyPrefixRegion() throws IOException {
+    final List<NodeNameData> nodeNames = Arrays.asList(new NodeNameData(10L, "Hauptstraße", 52.52F, 13.40F),
+        new NodeNameData(11L, "Hauptstraße", 48.00F, 7.85F), new NodeNameData(12L, "Hauptstraße"),
+        new NodeNameData(13L, "Hauptstrasse", 47.99F, 7.84F), new NodeNameData(14L, "Hauptstraße", 48.14F, 11.58F));
+    QGramIndex.write(nodeNames, 3, 0L, mIndexFile);
+    final QGramIndex index = QGramIndex.map(mIndexFile);
+
+    // Without region all records match, equally distant ones sorted by ID
+    Assert.assertEquals(5, index.searchFuzzyPrefix("Hauptstr", SearchRegion.UNRESTRICTED).size());
+
+    // Records outside of the viewport and unknown positions are dropped
+    final SearchRegion freiburg = new SearchRegion(new float[] { 47.9F, 7.7F, 48.1F, 7.9F }, null);
+    List<Posting> postings = index.searchFuzzyPrefix("Hauptstr", freiburg);
+    Assert.assertEquals(2, postings.size());
+    Assert.assertEquals(11L, index.getNodeId(postings.get(0).getId()));
+    Assert.assertEquals(13L, index.getNodeId(postings.get(1).getId()));
+
+    // Equally distant records are ranked by their distance to the bias
+    final SearchRegion nearMunich = new SearchRegion(null, new float[] { 48.1F, 11.5F });
+    postings = index.searchFuzzyPrefix("Hauptstraße", nearMunich);
+    Assert.assertEquals(5, postings.size());
+    Assert.assertEquals(14L, index.getNodeId(postings.get(0).getId()));
+    Assert.assertEquals(11L, index.getNodeId(postings.get(1).getId()));
+    Assert.assertEquals(10L, index.getNodeId(postings.get(2).getId()));
+    // Unknown positions are ranked last, worse matches stay behind
+    Assert.assertEquals(12L, index.getNodeId(postings.get(3).getId()));
+    Assert.assertEquals(13L, index.getNodeId(postings.get(4).getId()));
+
+    // Searching candidates respects the region as well
+    final int[] candidates = index.searchFuzzyPrefix("Haupt").stream().mapToInt(Posting::getId).sorted().toArray();
+    postings = index.searchFuzzyPrefix("Hauptstr", candidates, freiburg);
+    Assert.assertEquals(2, postings.size());
+    Assert.assertEquals(11L, index.getNodeId(postings.get(0).getId()));
+    Assert.assertEquals(13L, index.getNodeId(postings.get(1).getId()));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.searching.name.model.QGramIndex#write(java.util.Collection, int, long, Path)}.
+   *
+   * @throws IOException If an I/O exception occurred while accessing the file
+   */
+  @Test
+  public void testWriteAndMap() throws IOException {
+    final List<NodeNameData> nodeNames = Arrays.asList(new NodeNameData(1L, "Freiburg Hauptbahnhof", 47.99F, 7.84F),
+        new NodeNameData(Long.MAX_VALUE, "Straße"), new NodeNameData(-3L, ""));
+    QGramIndex.write(nodeNames, 3, 42L, mIndexFile);
+    final QGramIndex index = QGramIndex.map(mIndexFile);
+
+    Assert.assertEquals(3, index.getAmountOfRecords());
+    Assert.assertEquals(3, index.getQParameter());
+    Assert.assertEquals(42L, index.getFingerprint());
+    Assert.assertTrue(index.getAmountOfKeys() > 0);
+    for (int i = 0; i < nodeNames.size(); i++) {
+      Assert.assertEquals(nodeNames.get(i).getId(), index.getNodeId(i));
+      Assert.assertEquals(nodeNames.get(i).getName(), index.getName(i));
+      Assert.assertEquals(nodeNames.get(i).getLatitude(), index.getLatitude(i), 0.0F);
+      Assert.assertEquals(nodeNames.get(i).getLongitude(), index.getLongitude(i), 0.0F);
+    }
+  }
+}
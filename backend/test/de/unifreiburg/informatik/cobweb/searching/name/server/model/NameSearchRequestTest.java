@@ -23,6 +23,18 @@ public final class NameSearchRequestTest {
     Assert.assertEquals(0, new NameSearchRequest("", 0).getAmount());
   }
 
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.searching.name.server.model.NameSearchRequest#getBias()}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testGetBias() {
+    Assert.assertNull(new NameSearchRequest("Wall street 5", 1).getBias());
+    Assert.assertArrayEquals(new float[] { 48.0F, 7.8F },
+        new NameSearchRequest("Wall street 5", 1, null, null, new float[] { 48.0F, 7.8F }).getBias(), 0.0F);
+  }
+
   /**
    * Test method for
    * {@link de.unifreiburg.informatik.cobweb.searching.name.server.model.NameSearchRequest#getName()}.
@@ -36,6 +48,30 @@ public final class NameSearchRequestTest {
     Assert.assertEquals("", new NameSearchRequest("", 1).getName());
   }
 
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.searching.name.server.model.NameSearchRequest#getSession()}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testGetSession() {
+    Assert.assertNull(new NameSearchRequest("Wall street 5", 1).getSession());
+    Assert.assertEquals("abc", new NameSearchRequest("Wall street 5", 1, "abc").getSession());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.searching.name.server.model.NameSearchRequest#getViewport()}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testGetViewport() {
+    Assert.assertNull(new NameSearchRequest("Wall street 5", 1).getViewport());
+    final float[] viewport = { 47.9F, 7.7F, 48.1F, 7.9F };
+    Assert.assertArrayEquals(viewport,
+        new NameSearchRequest("Wall street 5", 1, null, viewport, null).getViewport(), 0.0F);
+  }
+
   /**
    * Test method for
    * {@link de.unifreiburg.informatik.cobweb.searching.name.server.model.NameSearchRequest#NameSearchRequest(String, int)}.
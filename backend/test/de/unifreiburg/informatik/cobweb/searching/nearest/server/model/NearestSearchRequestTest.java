@@ -1,8 +1,15 @@
 package de.unifreiburg.informatik.cobweb.searching.nearest.server.model;
 
+import java.util.EnumSet;
+
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.google.gson.Gson;
+
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.util.JsonUtil;
+
 /**
  * Test for the class {@link NearestSearchRequest}.
  *
@@ -30,6 +37,30 @@ public final class NearestSearchRequestTest {
     Assert.assertEquals(1.0F, new NearestSearchRequest(1.0F, 1.0F).getLongitude(), 0.0001);
   }
 
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.searching.nearest.server.model.NearestSearchRequest#getModes()}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testGetModes() {
+    Assert.assertTrue(new NearestSearchRequest(1.0F, 1.0F).getModes().isEmpty());
+    final EnumSet<ETransportationMode> modes = EnumSet.of(ETransportationMode.FOOT, ETransportationMode.BIKE);
+    Assert.assertEquals(modes, new NearestSearchRequest(1.0F, 1.0F, modes).getModes());
+
+    // Parsed from the JSON request, unknown modes are ignored
+    final Gson gson = JsonUtil.getGson();
+    final NearestSearchRequest request =
+        gson.fromJson("{\"latitude\":48.0,\"longitude\":7.8,\"modes\":[2,3,42]}", NearestSearchRequest.class);
+    Assert.assertEquals(48.0F, request.getLatitude(), 0.0001);
+    Assert.assertEquals(7.8F, request.getLongitude(), 0.0001);
+    Assert.assertEquals(modes, request.getModes());
+    Assert.assertTrue(
+        gson.fromJson("{\"latitude\":48.0,\"longitude\":7.8}", NearestSearchRequest.class).getModes().isEmpty());
+    Assert.assertTrue(gson.fromJson("{\"latitude\":48.0,\"longitude\":7.8,\"modes\":[]}", NearestSearchRequest.class)
+        .getModes().isEmpty());
+  }
+
   /**
    * Test method for
    * {@link de.unifreiburg.informatik.cobweb.searching.nearest.server.model.NearestSearchRequest#NearestSearchRequest(float, float)}.
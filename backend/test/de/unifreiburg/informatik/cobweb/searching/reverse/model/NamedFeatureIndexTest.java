@@ -0,0 +1,123 @@
+package de.unifreiburg.informatik.cobweb.searching.reverse.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.unifreiburg.informatik.cobweb.db.NamedNodeData;
+import de.unifreiburg.informatik.cobweb.db.WayNameData;
+import de.unifreiburg.informatik.cobweb.parsing.osm.EHighwayType;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.SegmentIndex;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadNode;
+
+/**
+ * Test for the class {@link NamedFeatureIndex}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class NamedFeatureIndexTest {
+  /**
+   * The maximal distance used for queries, in metres.
+   */
+  private static final double MAX_DISTANCE = 250.0;
+
+  /**
+   * The index used for testing.
+   */
+  private NamedFeatureIndex mIndex;
+
+  /**
+   * Setups an index instance for testing. It contains two named nodes, one
+   * named way consisting of two edges and an unnamed way.
+   */
+  @Before
+  public void setUp() {
+    final List<NamedNodeData> nodes = Arrays.asList(new NamedNodeData(100L, "Bertoldsbrunnen", 47.9955F, 7.8494F),
+        new NamedNodeData(101L, "Hauptbahnhof", 47.9977F, 7.8421F));
+
+    // Way 0 is named, way 1 is not
+    final ICoreNode first = new RoadNode(0, 48.0100F, 7.8300F);
+    final ICoreNode second = new RoadNode(1, 48.0100F, 7.8400F);
+    final ICoreNode third = new RoadNode(2, 48.0100F, 7.8500F);
+    final ICoreNode fourth = new RoadNode(3, 48.0200F, 7.8300F);
+    final ICoreNode fifth = new RoadNode(4, 48.0200F, 7.8500F);
+    final List<ICoreEdge<ICoreNode>> edges = new ArrayList<>();
+    edges.add(new RoadEdge<>(0, first, second, EHighwayType.RESIDENTIAL, 50, EnumSet.of(ETransportationMode.CAR)));
+    edges.add(new RoadEdge<>(0, second, third, EHighwayType.RESIDENTIAL, 50, EnumSet.of(ETransportationMode.CAR)));
+    edges.add(new RoadEdge<>(1, fourth, fifth, EHighwayType.RESIDENTIAL, 50, EnumSet.of(ETransportationMode.CAR)));
+    final List<WayNameData> ways = Collections.singletonList(new WayNameData(0, 200L, "Hauptbahnhof"));
+
+    mIndex = new NamedFeatureIndex(nodes, ways, new SegmentIndex<>(edges));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.searching.reverse.model.NamedFeatureIndex#getAmountOfNames()}.
+   */
+  @Test
+  public void testGetAmountOfNames() {
+    // The name shared by a node and a way is only stored once
+    Assert.assertEquals(2, mIndex.getAmountOfNames());
+    Assert.assertEquals(2, mIndex.getAmountOfNodes());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.searching.reverse.model.NamedFeatureIndex#getNearestFeature(float, float, double)}.
+   */
+  @Test
+  public void testGetNearestFeature() {
+    // Next to a named node
+    Optional<NamedFeature> feature = mIndex.getNearestFeature(47.9956F, 7.8495F, MAX_DISTANCE);
+    Assert.assertTrue(feature.isPresent());
+    Assert.assertEquals(EFeatureType.NODE, feature.get().getType());
+    Assert.assertEquals(100L, feature.get().getId());
+    Assert.assertEquals("Bertoldsbrunnen", feature.get().getName());
+
+    // Next to the named way, the position is projected onto it
+    feature = mIndex.getNearestFeature(48.0105F, 7.8450F, MAX_DISTANCE);
+    Assert.assertTrue(feature.isPresent());
+    Assert.assertEquals(EFeatureType.WAY, feature.get().getType());
+    Assert.assertEquals(200L, feature.get().getId());
+    Assert.assertEquals("Hauptbahnhof", feature.get().getName());
+    Assert.assertEquals(48.0100F, feature.get().getLatitude(), 1e-4);
+    Assert.assertEquals(7.8450F, feature.get().getLongitude(), 1e-4);
+    Assert.assertEquals(55.6, feature.get().getDistance(), 1.0);
+
+    // The unnamed way is skipped
+    feature = mIndex.getNearestFeature(48.0195F, 7.8400F, MAX_DISTANCE);
+    Assert.assertFalse(feature.isPresent());
+    feature = mIndex.getNearestFeature(48.0195F, 7.8400F, 2_000.0);
+    Assert.assertTrue(feature.isPresent());
+    Assert.assertEquals(200L, feature.get().getId());
+
+    // Too far away from everything
+    Assert.assertFalse(mIndex.getNearestFeature(48.1F, 7.9F, MAX_DISTANCE).isPresent());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.searching.reverse.model.NamedFeatureIndex#NamedFeatureIndex(java.util.Collection, java.util.Collection, SegmentIndex)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testNamedFeatureIndex() {
+    try {
+      final NamedFeatureIndex index = new NamedFeatureIndex(Collections.emptyList(), Collections.emptyList(), null);
+      Assert.assertFalse(index.getNearestFeature(48.0F, 7.8F, MAX_DISTANCE).isPresent());
+    } catch (final Exception e) {
+      Assert.fail();
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package de.unifreiburg.informatik.cobweb.util;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.unifreiburg.informatik.cobweb.util.collections.CoordinateList;
+
+/**
+ * Test for the class {@link CoordinateListTypeAdapter}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class CoordinateListTypeAdapterTest {
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.CoordinateListTypeAdapter#read(com.google.gson.stream.JsonReader)}.
+   *
+   * @throws IOException If the JSON could not be read
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testRead() throws IOException {
+    final CoordinateListTypeAdapter adapter = new CoordinateListTypeAdapter();
+    Assert.assertNull(adapter.fromJson("null"));
+    Assert.assertEquals(0, adapter.fromJson("[]").size());
+
+    final CoordinateList coordinates = adapter.fromJson("[[48.1, 7.85], [-1, 3.0], [1e-5, 0]]");
+    Assert.assertEquals(3, coordinates.size());
+    Assert.assertEquals(48.1F, coordinates.getLatitude(0), 0.0F);
+    Assert.assertEquals(7.85F, coordinates.getLongitude(0), 0.0F);
+    Assert.assertEquals(-1.0F, coordinates.getLatitude(1), 0.0F);
+    Assert.assertEquals(3.0F, coordinates.getLongitude(1), 0.0F);
+    Assert.assertEquals(1e-5F, coordinates.getLatitude(2), 0.0F);
+    Assert.assertEquals(0.0F, coordinates.getLongitude(2), 0.0F);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.CoordinateListTypeAdapter#write(com.google.gson.stream.JsonWriter, CoordinateList)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testWrite() {
+    final CoordinateListTypeAdapter adapter = new CoordinateListTypeAdapter();
+    Assert.assertEquals("null", adapter.toJson(null));
+    Assert.assertEquals("[]", adapter.toJson(new CoordinateList(0)));
+    Assert.assertEquals("[[48.1,7.85],[-1.0,3.0]]", adapter.toJson(new CoordinateList(48.1F, 7.85F, -1.0F, 3.0F)));
+    Assert.assertEquals("{\"geom\":[[0.5,1.5]]}",
+        JsonUtil.getGson().toJson(Collections.singletonMap("geom", new CoordinateList(0.5F, 1.5F))));
+    try {
+      adapter.toJson(new CoordinateList(Float.NaN, 0.0F));
+      Assert.fail();
+    } catch (final IllegalArgumentException e) {
+      // Expected
+    }
+  }
+}
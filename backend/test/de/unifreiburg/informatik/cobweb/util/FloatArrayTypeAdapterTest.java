@@ -0,0 +1,51 @@
+package de.unifreiburg.informatik.cobweb.util;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for the class {@link FloatArrayTypeAdapter}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class FloatArrayTypeAdapterTest {
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.FloatArrayTypeAdapter#read(com.google.gson.stream.JsonReader)}.
+   *
+   * @throws IOException If the JSON could not be read
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testRead() throws IOException {
+    final FloatArrayTypeAdapter adapter = new FloatArrayTypeAdapter();
+    Assert.assertNull(adapter.fromJson("null"));
+    Assert.assertArrayEquals(new float[0], adapter.fromJson("[]"), 0.0f);
+    Assert.assertArrayEquals(new float[] { 48.1f, 7.85f, -1.0f, 3.0f, 1e-5f },
+        adapter.fromJson("[48.1, 7.85, -1, 3.0, 1e-5]"), 0.0f);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.FloatArrayTypeAdapter#write(com.google.gson.stream.JsonWriter, float[])}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testWrite() {
+    final FloatArrayTypeAdapter adapter = new FloatArrayTypeAdapter();
+    Assert.assertEquals("null", adapter.toJson(null));
+    Assert.assertEquals("[]", adapter.toJson(new float[0]));
+    Assert.assertEquals("[48.1,7.85,-1.0]", adapter.toJson(new float[] { 48.1f, 7.85f, -1.0f }));
+    Assert.assertEquals("{\"values\":[0.5]}",
+        JsonUtil.getGson().toJson(Collections.singletonMap("values", new float[] { 0.5f })));
+    try {
+      adapter.toJson(new float[] { Float.NaN });
+      Assert.fail();
+    } catch (final IllegalArgumentException e) {
+      // Expected
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package de.unifreiburg.informatik.cobweb.util;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for the class {@link GeometryUtil}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class GeometryUtilTest {
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.GeometryUtil#encodePolyline(float[], int)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testEncodePolyline() {
+    // Example of the format specification
+    final float[] coordinates = { 38.5f, -120.2f, 40.7f, -120.95f, 43.252f, -126.453f, 0.0f, 0.0f };
+    Assert.assertEquals("_p~iF~ps|U_ulLnnqC_mqNvxq`@", GeometryUtil.encodePolyline(coordinates, 3));
+    Assert.assertEquals("", GeometryUtil.encodePolyline(coordinates, 0));
+    Assert.assertEquals("??", GeometryUtil.encodePolyline(new float[] { 0.0f, 0.0f }, 1));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.GeometryUtil#simplify(float[], int, double)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testSimplify() {
+    // A straight line with a small and a large detour, about 100 metres apart
+    final float[] coordinates = { 48.0f, 7.0f, 48.0009f, 7.00001f, 48.0018f, 7.0f, 48.0027f, 7.002f, 48.0036f, 7.0f,
+        48.0045f, 7.0f };
+    final float[] original = coordinates.clone();
+
+    Assert.assertEquals(6, GeometryUtil.simplify(coordinates, 6, 0.0));
+    Assert.assertArrayEquals(original, coordinates, 0.0f);
+    Assert.assertEquals(2, GeometryUtil.simplify(coordinates, 2, 1_000.0));
+
+    // The small detour is below a metre, the large one about 150 metres. The
+    // coordinates around the large detour are needed to stay within the
+    // tolerance, the small detour is not.
+    Assert.assertEquals(6, GeometryUtil.simplify(coordinates, 6, 0.5));
+    final int amount = GeometryUtil.simplify(coordinates, 6, 10.0);
+    Assert.assertEquals(5, amount);
+    Assert.assertArrayEquals(
+        new float[] { 48.0f, 7.0f, 48.0018f, 7.0f, 48.0027f, 7.002f, 48.0036f, 7.0f, 48.0045f, 7.0f },
+        Arrays.copyOf(coordinates, 2 * amount), 0.0f);
+
+    final float[] line = original.clone();
+    Assert.assertEquals(2, GeometryUtil.simplify(line, 6, 1_000.0));
+    Assert.assertArrayEquals(new float[] { 48.0f, 7.0f, 48.0045f, 7.0f }, Arrays.copyOf(line, 4), 0.0f);
+  }
+}
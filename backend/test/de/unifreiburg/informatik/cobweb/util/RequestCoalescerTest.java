@@ -0,0 +1,92 @@
+package de.unifreiburg.informatik.cobweb.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for the class {@link RequestCoalescer}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class RequestCoalescerTest {
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.RequestCoalescer#execute(Object, java.util.function.Supplier)}.
+   *
+   * @throws InterruptedException If interrupted while waiting for the requests
+   * @throws ExecutionException   If a request failed
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testExecute() throws InterruptedException, ExecutionException {
+    final RequestCoalescer<String, Integer> coalescer = new RequestCoalescer<>();
+    final int requests = 5;
+    final ExecutorService executor = Executors.newFixedThreadPool(requests);
+    try {
+      final CountDownLatch release = new CountDownLatch(1);
+      final AtomicInteger computations = new AtomicInteger();
+
+      final List<Future<Integer>> results = new ArrayList<>();
+      for (int i = 0; i < requests; i++) {
+        results.add(executor.submit(() -> coalescer.execute("a", () -> {
+          try {
+            release.await();
+          } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          return computations.incrementAndGet();
+        })));
+      }
+      // Wait until all but the computing request joined the computation
+      final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+      while (coalescer.getCoalescedCount() < requests - 1 && System.nanoTime() < deadline) {
+        Thread.sleep(1);
+      }
+      Assert.assertEquals(1, coalescer.getRunningCount());
+      release.countDown();
+
+      for (final Future<Integer> result : results) {
+        Assert.assertEquals(1, result.get().intValue());
+      }
+      Assert.assertEquals(1, computations.get());
+      Assert.assertEquals(requests - 1, coalescer.getCoalescedCount());
+      Assert.assertEquals(0, coalescer.getRunningCount());
+
+      // Finished computations are not kept
+      Assert.assertEquals(2, coalescer.execute("a", computations::incrementAndGet).intValue());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.RequestCoalescer#execute(Object, java.util.function.Supplier)}
+   * with a computation throwing an exception.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testExecuteException() {
+    final RequestCoalescer<String, Integer> coalescer = new RequestCoalescer<>();
+    try {
+      coalescer.execute("a", () -> {
+        throw new IllegalStateException();
+      });
+      Assert.fail();
+    } catch (final IllegalStateException e) {
+      // Expected
+    }
+    Assert.assertEquals(0, coalescer.getRunningCount());
+    Assert.assertEquals(1, coalescer.execute("a", () -> 1).intValue());
+  }
+}
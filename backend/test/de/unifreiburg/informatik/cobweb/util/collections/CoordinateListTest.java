@@ -0,0 +1,155 @@
+package de.unifreiburg.informatik.cobweb.util.collections;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test for the class {@link CoordinateList}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class CoordinateListTest {
+  /**
+   * The list used for testing.
+   */
+  private CoordinateList mList;
+
+  /**
+   * Setups a list for testing.
+   */
+  @Before
+  public void setUp() {
+    mList = new CoordinateList(1);
+    mList.add(1.0F, 2.0F);
+    mList.add(3.0F, 4.0F);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.collections.CoordinateList#add(float, float)}.
+   */
+  @Test
+  public void testAdd() {
+    mList.add(5.0F, 6.0F);
+    Assert.assertEquals(3, mList.size());
+    Assert.assertEquals(5.0F, mList.getLatitude(2), 0.0F);
+    Assert.assertEquals(6.0F, mList.getLongitude(2), 0.0F);
+
+    final CoordinateList empty = new CoordinateList(0);
+    empty.add(7.0F, 8.0F);
+    Assert.assertEquals(1, empty.size());
+    Assert.assertEquals(7.0F, empty.getLatitude(0), 0.0F);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.collections.CoordinateList#CoordinateList(float[])}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testCoordinateListFloatArray() {
+    final float[] coordinates = { 1.0F, 2.0F, 3.0F, 4.0F };
+    final CoordinateList list = new CoordinateList(coordinates);
+    coordinates[0] = 0.0F;
+    Assert.assertEquals(2, list.size());
+    Assert.assertEquals(1.0F, list.getLatitude(0), 0.0F);
+    Assert.assertEquals(4.0F, list.getLongitude(1), 0.0F);
+
+    try {
+      new CoordinateList(1.0F, 2.0F, 3.0F);
+      Assert.fail();
+    } catch (final IllegalArgumentException e) {
+      // Expected
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.collections.CoordinateList#encodePolyline()}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testEncodePolyline() {
+    final CoordinateList list = new CoordinateList(38.5F, -120.2F, 40.7F, -120.95F, 43.252F, -126.453F);
+    Assert.assertEquals("_p~iF~ps|U_ulLnnqC_mqNvxq`@", list.encodePolyline());
+    Assert.assertEquals("", new CoordinateList(0).encodePolyline());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.collections.CoordinateList#getLatitude(int)}.
+   */
+  @Test
+  public void testGetLatitude() {
+    Assert.assertEquals(1.0F, mList.getLatitude(0), 0.0F);
+    Assert.assertEquals(3.0F, mList.getLatitude(1), 0.0F);
+    try {
+      mList.getLatitude(2);
+      Assert.fail();
+    } catch (final IndexOutOfBoundsException e) {
+      // Expected
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.collections.CoordinateList#getLongitude(int)}.
+   */
+  @Test
+  public void testGetLongitude() {
+    Assert.assertEquals(2.0F, mList.getLongitude(0), 0.0F);
+    Assert.assertEquals(4.0F, mList.getLongitude(1), 0.0F);
+    try {
+      mList.getLongitude(-1);
+      Assert.fail();
+    } catch (final IndexOutOfBoundsException e) {
+      // Expected
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.collections.CoordinateList#set(int, float, float)}.
+   */
+  @Test
+  public void testSet() {
+    mList.set(1, 5.0F, 6.0F);
+    Assert.assertEquals(2, mList.size());
+    Assert.assertEquals(5.0F, mList.getLatitude(1), 0.0F);
+    Assert.assertEquals(6.0F, mList.getLongitude(1), 0.0F);
+    try {
+      mList.set(2, 0.0F, 0.0F);
+      Assert.fail();
+    } catch (final IndexOutOfBoundsException e) {
+      // Expected
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.collections.CoordinateList#simplify(double)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testSimplify() {
+    // The middle coordinate deviates by about 1 metre from the straight line
+    final CoordinateList list = new CoordinateList(48.0F, 7.8F, 48.000_01F, 7.801F, 48.0F, 7.802F);
+    list.simplify(0.0);
+    Assert.assertEquals(3, list.size());
+    list.simplify(10.0);
+    Assert.assertEquals(2, list.size());
+    Assert.assertEquals(48.0F, list.getLatitude(1), 0.0F);
+    Assert.assertEquals(7.802F, list.getLongitude(1), 0.0F);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.collections.CoordinateList#size()}.
+   */
+  @Test
+  public void testSize() {
+    Assert.assertEquals(2, mList.size());
+    Assert.assertEquals(0, new CoordinateList(5).size());
+  }
+}
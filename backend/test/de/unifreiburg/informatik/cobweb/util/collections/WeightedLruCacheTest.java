@@ -0,0 +1,120 @@
+package de.unifreiburg.informatik.cobweb.util.collections;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test for the class {@link WeightedLruCache}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class WeightedLruCacheTest {
+  /**
+   * The cache used for testing, it holds at most three strings with ten
+   * characters in total.
+   */
+  private WeightedLruCache<Integer, String> mCache;
+
+  /**
+   * Setups a cache instance for testing.
+   */
+  @Before
+  public void setUp() {
+    mCache = new WeightedLruCache<>(3, 10, String::length);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.collections.WeightedLruCache#clear()}.
+   */
+  @Test
+  public void testClear() {
+    mCache.put(1, "a");
+    mCache.put(2, "bb");
+    mCache.clear();
+    Assert.assertEquals(0, mCache.size());
+    Assert.assertEquals(0L, mCache.getWeight());
+    Assert.assertNull(mCache.get(1));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.collections.WeightedLruCache#get(java.lang.Object)}.
+   */
+  @Test
+  public void testGet() {
+    Assert.assertNull(mCache.get(1));
+    mCache.put(1, "a");
+    Assert.assertEquals("a", mCache.get(1));
+    Assert.assertEquals("a", mCache.get(1));
+    Assert.assertNull(mCache.get(2));
+
+    Assert.assertEquals(2L, mCache.getHitCount());
+    Assert.assertEquals(2L, mCache.getMissCount());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.collections.WeightedLruCache#put(java.lang.Object, java.lang.Object)}.
+   */
+  @Test
+  public void testPut() {
+    mCache.put(1, "a");
+    mCache.put(2, "b");
+    mCache.put(3, "c");
+    // Use the first entry, such that the second is the least recently used
+    mCache.get(1);
+    mCache.put(4, "d");
+    Assert.assertEquals(3, mCache.size());
+    Assert.assertNull(mCache.get(2));
+    Assert.assertEquals("a", mCache.get(1));
+    Assert.assertEquals(1L, mCache.getEvictionCount());
+
+    // Replacing a value updates the weight
+    mCache.put(1, "aaa");
+    Assert.assertEquals(5L, mCache.getWeight());
+
+    // Evicts until the weight fits
+    mCache.put(5, "eeeeeee");
+    Assert.assertEquals(2, mCache.size());
+    Assert.assertEquals(10L, mCache.getWeight());
+    Assert.assertEquals("aaa", mCache.get(1));
+    Assert.assertEquals("eeeeeee", mCache.get(5));
+
+    // Values heavier than the cache are not cached
+    mCache.put(6, "fffffffffff");
+    Assert.assertNull(mCache.get(6));
+    Assert.assertEquals(2, mCache.size());
+
+    final WeightedLruCache<Integer, String> disabled = new WeightedLruCache<>(0, 10, String::length);
+    disabled.put(1, "a");
+    Assert.assertNull(disabled.get(1));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.collections.WeightedLruCache#WeightedLruCache(int, long, java.util.function.ToIntFunction, int)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testWeightedLruCacheIntLongToIntFunctionInt() {
+    // Small caches use a single segment
+    Assert.assertEquals(1, new WeightedLruCache<Integer, String>(3, 10, String::length).getSegmentCount());
+    Assert.assertEquals(1, new WeightedLruCache<Integer, String>(100, 1_000, String::length, 0).getSegmentCount());
+
+    // The amount is rounded down to a power of two
+    final WeightedLruCache<Integer, String> cache = new WeightedLruCache<>(1_000, 2_000, String::length, 10);
+    Assert.assertEquals(8, cache.getSegmentCount());
+
+    // The limits hold for the whole cache
+    for (int i = 0; i < 5_000; i++) {
+      cache.put(i, "ab");
+      Assert.assertEquals("ab", cache.get(i));
+    }
+    Assert.assertTrue(cache.size() <= 1_000);
+    Assert.assertEquals(2L * cache.size(), cache.getWeight());
+    Assert.assertEquals(5_000L - cache.size(), cache.getEvictionCount());
+    Assert.assertEquals(1_000, cache.size());
+  }
+}
@@ -0,0 +1,119 @@
+package de.unifreiburg.informatik.cobweb.util.http;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for the class {@link HttpRequestParser}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class HttpRequestParserTest {
+  /**
+   * Feeds the given text to the given parser in parts of the given size, like
+   * a connection receiving it.
+   *
+   * @param parser   The parser to use
+   * @param text     The text to feed
+   * @param partSize The amount of bytes to feed at once
+   * @return The parsed request or <tt>null</tt> if it was not complete
+   * @throws IOException If the parser rejected the request
+   */
+  private static HttpRequest feed(final HttpRequestParser parser, final String text, final int partSize)
+      throws IOException {
+    final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+    final ByteBuffer input = ByteBuffer.allocate(bytes.length);
+    for (int i = 0; i < bytes.length; i += partSize) {
+      input.put(bytes, i, Math.min(partSize, bytes.length - i));
+      input.flip();
+      final HttpRequest request = parser.parse(input);
+      if (request != null) {
+        return request;
+      }
+      input.compact();
+    }
+    return null;
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.http.HttpRequestParser#parse(ByteBuffer)}.
+   *
+   * @throws IOException If the parser rejected a request
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testParse() throws IOException {
+    final String text = "\r\nPOST /route?x=1 HTTP/1.1\r\nContent-Type:  text/plain \r\nContent-Length: 12\r\n\r\n"
+        + "Hello World!";
+    for (final int partSize : new int[] { 1, 3, 7, text.length() }) {
+      final HttpRequest request = HttpRequestParserTest.feed(new HttpRequestParser(1_000), text, partSize);
+      Assert.assertNotNull(request);
+      Assert.assertEquals("POST", request.getType());
+      Assert.assertEquals("/route?x=1", request.getResource());
+      Assert.assertEquals("HTTP/1.1", request.getProtocol());
+      Assert.assertEquals(2, request.getHeaders().size());
+      Assert.assertEquals("text/plain", request.getHeaders().get("Content-Type"));
+      Assert.assertEquals("Hello World!", request.getContent());
+    }
+
+    // Pipelined requests, only the first is consumed
+    final HttpRequestParser parser = new HttpRequestParser(1_000);
+    final ByteBuffer input = ByteBuffer
+        .wrap("GET /a HTTP/1.1\r\n\r\nGET /b HTTP/1.0\r\nHost: c\r\n\r\nGET".getBytes(StandardCharsets.UTF_8));
+    Assert.assertEquals("/a", parser.parse(input).getResource());
+    final HttpRequest second = parser.parse(input);
+    Assert.assertEquals("/b", second.getResource());
+    Assert.assertEquals("HTTP/1.0", second.getProtocol());
+    Assert.assertEquals("c", second.getHeaders().get("Host"));
+    Assert.assertEquals("", second.getContent());
+    Assert.assertNull(parser.parse(input));
+    Assert.assertEquals(3, input.remaining());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.http.HttpRequestParser#parse(ByteBuffer)}
+   * with content using the chunked transfer encoding.
+   *
+   * @throws IOException If the parser rejected a request
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testParseChunked() throws IOException {
+    final String text = "POST /route HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n"
+        + "5\r\nHello\r\n7;name=value\r\n World!\r\n0\r\nTrailer: ignored\r\n\r\n";
+    for (final int partSize : new int[] { 1, 5, text.length() }) {
+      final HttpRequest request = HttpRequestParserTest.feed(new HttpRequestParser(1_000), text, partSize);
+      Assert.assertNotNull(request);
+      Assert.assertEquals("Hello World!", request.getContent());
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.http.HttpRequestParser#parse(ByteBuffer)}
+   * with requests that must be rejected.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testParseInvalid() {
+    final String[] texts = { "GARBAGE\r\n\r\n", "GET /\r\n\r\n", "GET / HTTP/1.1\r\nNoColon\r\n\r\n",
+        "GET / HTTP/1.1\r\nContent-Length: -1\r\n\r\n", "GET / HTTP/1.1\r\nContent-Length: 2000\r\n\r\n",
+        "GET / HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\nxyz\r\n",
+        "GET / HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n2\r\nabc\r\n", "GET / HTTP/1.1\r\nHost: "
+            + new String(new char[2_000]).replace('\0', 'a') };
+    for (final String text : texts) {
+      try {
+        HttpRequestParserTest.feed(new HttpRequestParser(1_000), text, text.length());
+        Assert.fail(text);
+      } catch (final IOException e) {
+        // Expected
+      }
+    }
+  }
+}
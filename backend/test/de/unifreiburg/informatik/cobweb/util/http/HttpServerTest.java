@@ -0,0 +1,349 @@
+package de.unifreiburg.informatik.cobweb.util.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test for the class {@link HttpServer}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class HttpServerTest {
+  /**
+   * Reads a response from the given stream. Compressed content is
+   * decompressed.
+   *
+   * @param input The stream to read from
+   * @return The status line, the headers by their name and the content under
+   *         the empty name
+   * @throws IOException If an I/O exception occurred while reading
+   */
+  private static Map<String, String> readResponse(final InputStream input) throws IOException {
+    final Map<String, String> response = new HashMap<>();
+    response.put("Status", HttpServerTest.readLine(input));
+    String line = HttpServerTest.readLine(input);
+    while (!line.isEmpty()) {
+      final String[] data = line.split(": ", 2);
+      response.put(data[0], data[1]);
+      line = HttpServerTest.readLine(input);
+    }
+
+    final ByteArrayOutputStream content = new ByteArrayOutputStream();
+    if ("chunked".equals(response.get("Transfer-Encoding"))) {
+      int chunkSize = Integer.parseInt(HttpServerTest.readLine(input), 16);
+      while (chunkSize > 0) {
+        for (int i = 0; i < chunkSize; i++) {
+          content.write(input.read());
+        }
+        HttpServerTest.readLine(input);
+        chunkSize = Integer.parseInt(HttpServerTest.readLine(input), 16);
+      }
+      HttpServerTest.readLine(input);
+    } else {
+      final int contentLength = Integer.parseInt(response.get("Content-Length"));
+      for (int i = 0; i < contentLength; i++) {
+        content.write(input.read());
+      }
+    }
+
+    InputStream contentInput = new ByteArrayInputStream(content.toByteArray());
+    if ("gzip".equals(response.get("Content-Encoding"))) {
+      contentInput = new GZIPInputStream(contentInput);
+    } else if ("deflate".equals(response.get("Content-Encoding"))) {
+      contentInput = new InflaterInputStream(contentInput);
+    }
+    final ByteArrayOutputStream decodedContent = new ByteArrayOutputStream();
+    int value = contentInput.read();
+    while (value != -1) {
+      decodedContent.write(value);
+      value = contentInput.read();
+    }
+    response.put("", new String(decodedContent.toByteArray(), StandardCharsets.UTF_8));
+    return response;
+  }
+
+  /**
+   * Reads a line, terminated by <tt>CRLF</tt>, from the given stream.
+   *
+   * @param input The stream to read from
+   * @return The line without its terminator
+   * @throws IOException If an I/O exception occurred while reading
+   */
+  private static String readLine(final InputStream input) throws IOException {
+    final StringBuilder line = new StringBuilder();
+    int value = input.read();
+    while (value != '\n') {
+      if (value == -1) {
+        throw new IOException("Unexpected end of stream");
+      }
+      if (value != '\r') {
+        line.append((char) value);
+      }
+      value = input.read();
+    }
+    return line.toString();
+  }
+
+  /**
+   * Builds a <tt>POST</tt> request with the given content.
+   *
+   * @param resource The requested resource
+   * @param protocol The protocol of the request
+   * @param content  The content of the request
+   * @return The request
+   */
+  private static byte[] request(final String resource, final String protocol, final String content) {
+    final byte[] contentRaw = content.getBytes(StandardCharsets.UTF_8);
+    return ("POST " + resource + " " + protocol + "\r\nContent-Type: text/plain\r\nContent-Length: " + contentRaw.length
+        + "\r\n\r\n" + content).getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * The server used for testing.
+   */
+  private HttpServer mServer;
+
+  /**
+   * Setups a running server on a free port, with handlers echoing the content
+   * of the request either as a whole or streamed in parts.
+   *
+   * @throws IOException If an I/O exception occurred while binding the port
+   */
+  @Before
+  public void setUp() throws IOException {
+    mServer = new HttpServer();
+    mServer.bind(0);
+    mServer.register("/echo", (request, responder) -> responder
+        .send(new HttpResponseBuilder().setStatus(EHttpStatus.OK).setContent(request.getContent()).build()));
+    mServer.register("/stream", (request, responder) -> {
+      try (Writer writer = responder.sendHead(new HttpResponseBuilder().setStatus(EHttpStatus.OK).build())) {
+        for (final String part : request.getContent().split(" ")) {
+          writer.write(part);
+          writer.flush();
+        }
+      }
+    });
+    mServer.register("/fail", (request, responder) -> {
+      throw new IllegalStateException();
+    });
+    mServer.start();
+  }
+
+  /**
+   * Shuts the server used for testing down.
+   */
+  @After
+  public void tearDown() {
+    mServer.shutdown();
+  }
+
+  /**
+   * Test method for {@link de.unifreiburg.informatik.cobweb.util.http.HttpServer}
+   * with clients accepting compressed content.
+   *
+   * @throws IOException If an I/O exception occurred while communicating with
+   *                     the server
+   */
+  @Test
+  public void testCompression() throws IOException {
+    final StringBuilder contentBuilder = new StringBuilder();
+    for (int i = 0; i < 500; i++) {
+      contentBuilder.append("word").append(i).append(' ');
+    }
+    final String content = contentBuilder.toString();
+    final byte[] contentRaw = content.getBytes(StandardCharsets.UTF_8);
+
+    try (Socket client = new Socket("localhost", mServer.getPorts().get(0))) {
+      final OutputStream output = client.getOutputStream();
+      final InputStream input = client.getInputStream();
+      for (final String encoding : new String[] { "gzip", "deflate" }) {
+        for (final String resource : new String[] { "/echo", "/stream" }) {
+          output.write(("POST " + resource + " HTTP/1.1\r\nAccept-Encoding: " + encoding + ", br;q=0.5\r\n"
+              + "Content-Length: " + contentRaw.length + "\r\n\r\n" + content).getBytes(StandardCharsets.UTF_8));
+          final Map<String, String> response = HttpServerTest.readResponse(input);
+          Assert.assertEquals(encoding, response.get("Content-Encoding"));
+          Assert.assertEquals(resource.equals("/echo") ? content : content.replace(" ", ""), response.get(""));
+        }
+      }
+
+      // Small content is not compressed
+      output.write(("POST /echo HTTP/1.1\r\nAccept-Encoding: gzip\r\nContent-Length: 5\r\n\r\nHello")
+          .getBytes(StandardCharsets.UTF_8));
+      final Map<String, String> response = HttpServerTest.readResponse(input);
+      Assert.assertNull(response.get("Content-Encoding"));
+      Assert.assertEquals("Hello", response.get(""));
+    }
+  }
+
+  /**
+   * Test method for {@link de.unifreiburg.informatik.cobweb.util.http.HttpServer}
+   * with connections that are not kept alive.
+   *
+   * @throws IOException If an I/O exception occurred while communicating with
+   *                     the server
+   */
+  @Test
+  public void testConnectionClose() throws IOException {
+    try (Socket client = new Socket("localhost", mServer.getPorts().get(0))) {
+      client.getOutputStream().write(HttpServerTest.request("/echo", "HTTP/1.0", "Hello"));
+      final InputStream input = client.getInputStream();
+      final Map<String, String> response = HttpServerTest.readResponse(input);
+      Assert.assertEquals("close", response.get("Connection"));
+      Assert.assertEquals("Hello", response.get(""));
+      Assert.assertEquals(-1, input.read());
+    }
+
+    // Streamed content without chunks ends with the connection
+    try (Socket client = new Socket("localhost", mServer.getPorts().get(0))) {
+      client.getOutputStream().write(HttpServerTest.request("/stream", "HTTP/1.0", "Hello World"));
+      final InputStream input = client.getInputStream();
+      Assert.assertEquals("HTTP/1.1 200 OK", HttpServerTest.readLine(input));
+      final ByteArrayOutputStream rest = new ByteArrayOutputStream();
+      int value = input.read();
+      while (value != -1) {
+        rest.write(value);
+        value = input.read();
+      }
+      final String restText = new String(rest.toByteArray(), StandardCharsets.UTF_8);
+      Assert.assertTrue(restText.contains("Connection: close"));
+      Assert.assertTrue(restText.endsWith("\r\n\r\nHelloWorld"));
+    }
+  }
+
+  /**
+   * Test method for {@link de.unifreiburg.informatik.cobweb.util.http.HttpServer}
+   * with requests that are not answered normally.
+   *
+   * @throws IOException If an I/O exception occurred while communicating with
+   *                     the server
+   */
+  @Test
+  public void testErrors() throws IOException {
+    try (Socket client = new Socket("localhost", mServer.getPorts().get(0))) {
+      final OutputStream output = client.getOutputStream();
+      final InputStream input = client.getInputStream();
+
+      output.write(HttpServerTest.request("/unknown", "HTTP/1.1", ""));
+      Assert.assertEquals("HTTP/1.1 404 NOT_FOUND", HttpServerTest.readResponse(input).get("Status"));
+
+      output.write(HttpServerTest.request("/fail", "HTTP/1.1", ""));
+      Assert.assertEquals("HTTP/1.1 500 INTERNAL_SERVER_ERROR", HttpServerTest.readResponse(input).get("Status"));
+
+      // The connection is still usable
+      output.write(HttpServerTest.request("/echo", "HTTP/1.1", "Hello"));
+      Assert.assertEquals("Hello", HttpServerTest.readResponse(input).get(""));
+
+      output.write("GARBAGE\r\n\r\n".getBytes(StandardCharsets.UTF_8));
+      final Map<String, String> response = HttpServerTest.readResponse(input);
+      Assert.assertEquals("HTTP/1.1 400 BAD_REQUEST", response.get("Status"));
+      Assert.assertEquals("close", response.get("Connection"));
+      Assert.assertEquals(-1, input.read());
+    }
+  }
+
+  /**
+   * Test method for {@link de.unifreiburg.informatik.cobweb.util.http.HttpServer}
+   * with a saturated worker pool.
+   *
+   * @throws IOException          If an I/O exception occurred while
+   *                              communicating with the server
+   * @throws InterruptedException If interrupted while waiting for the handler
+   */
+  @Test
+  public void testServiceUnavailable() throws IOException, InterruptedException {
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final WorkerPool pool = new WorkerPool("test", 1, 1, 10_000);
+    mServer.register("/slow", (request, responder) -> {
+      started.countDown();
+      try {
+        release.await();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      responder.send(new HttpResponseBuilder().setStatus(EHttpStatus.OK).setContent(request.getContent()).build());
+    }, pool);
+
+    try (Socket first = new Socket("localhost", mServer.getPorts().get(0));
+        Socket second = new Socket("localhost", mServer.getPorts().get(0));
+        Socket third = new Socket("localhost", mServer.getPorts().get(0))) {
+      // Occupies the only worker
+      first.getOutputStream().write(HttpServerTest.request("/slow", "HTTP/1.1", "first"));
+      started.await();
+      // Fills the queue
+      second.getOutputStream().write(HttpServerTest.request("/slow", "HTTP/1.1", "second"));
+      Thread.sleep(200);
+
+      third.getOutputStream().write(HttpServerTest.request("/slow", "HTTP/1.1", "third"));
+      final Map<String, String> response = HttpServerTest.readResponse(third.getInputStream());
+      Assert.assertEquals("HTTP/1.1 503 SERVICE_UNAVAILABLE", response.get("Status"));
+      Assert.assertNotNull(response.get("Retry-After"));
+
+      // Other resources are not affected
+      third.getOutputStream().write(HttpServerTest.request("/echo", "HTTP/1.1", "Hello"));
+      Assert.assertEquals("Hello", HttpServerTest.readResponse(third.getInputStream()).get(""));
+
+      release.countDown();
+      Assert.assertEquals("first", HttpServerTest.readResponse(first.getInputStream()).get(""));
+      Assert.assertEquals("second", HttpServerTest.readResponse(second.getInputStream()).get(""));
+    } finally {
+      release.countDown();
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Test method for {@link de.unifreiburg.informatik.cobweb.util.http.HttpServer}
+   * with a connection that is kept alive and pipelined requests.
+   *
+   * @throws IOException If an I/O exception occurred while communicating with
+   *                     the server
+   */
+  @Test
+  public void testKeepAlive() throws IOException {
+    try (Socket client = new Socket("localhost", mServer.getPorts().get(0))) {
+      final OutputStream output = client.getOutputStream();
+      final InputStream input = client.getInputStream();
+
+      output.write(HttpServerTest.request("/echo", "HTTP/1.1", "first"));
+      Map<String, String> response = HttpServerTest.readResponse(input);
+      Assert.assertEquals("HTTP/1.1 200 OK", response.get("Status"));
+      Assert.assertEquals("keep-alive", response.get("Connection"));
+      Assert.assertEquals("first", response.get(""));
+
+      // Pipelined requests, answered in order
+      final ByteArrayOutputStream requests = new ByteArrayOutputStream();
+      requests.write(HttpServerTest.request("/stream", "HTTP/1.1", "Hello streamed World"));
+      requests.write(HttpServerTest.request("/echo", "HTTP/1.1", "second"));
+      requests.write(HttpServerTest.request("/echo?query", "HTTP/1.1", "third"));
+      output.write(requests.toByteArray());
+
+      response = HttpServerTest.readResponse(input);
+      Assert.assertEquals("chunked", response.get("Transfer-Encoding"));
+      Assert.assertEquals("HellostreamedWorld", response.get(""));
+      Assert.assertEquals("second", HttpServerTest.readResponse(input).get(""));
+      Assert.assertEquals("third", HttpServerTest.readResponse(input).get(""));
+
+      // Content using the chunked transfer encoding
+      output.write(("POST /echo HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n4\r\nfour\r\n2\r\nth\r\n0\r\n\r\n")
+          .getBytes(StandardCharsets.UTF_8));
+      Assert.assertEquals("fourth", HttpServerTest.readResponse(input).get(""));
+    }
+  }
+}
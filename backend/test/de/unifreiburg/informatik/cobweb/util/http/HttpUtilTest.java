@@ -30,6 +30,56 @@ public final class HttpUtilTest {
     Assert.assertNull(HttpUtil.parseContentType(""));
   }
 
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.http.HttpUtil#isAccepted(String, EHttpContentType)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testIsAccepted() {
+    Assert.assertFalse(HttpUtil.isAccepted(null, EHttpContentType.BINARY));
+    Assert.assertFalse(HttpUtil.isAccepted("*/*", EHttpContentType.BINARY));
+    Assert.assertFalse(HttpUtil.isAccepted("application/json", EHttpContentType.BINARY));
+    Assert.assertFalse(HttpUtil.isAccepted("application/octet-stream;q=0", EHttpContentType.BINARY));
+    Assert.assertTrue(HttpUtil.isAccepted("application/octet-stream", EHttpContentType.BINARY));
+    Assert.assertTrue(
+        HttpUtil.isAccepted("application/json;q=0.9, Application/Octet-Stream; q=1", EHttpContentType.BINARY));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.http.HttpUtil#parseAcceptEncoding(String)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testParseAcceptEncoding() {
+    Assert.assertEquals(EHttpContentEncoding.IDENTITY, HttpUtil.parseAcceptEncoding(null));
+    Assert.assertEquals(EHttpContentEncoding.IDENTITY, HttpUtil.parseAcceptEncoding(""));
+    Assert.assertEquals(EHttpContentEncoding.IDENTITY, HttpUtil.parseAcceptEncoding("br, identity"));
+    Assert.assertEquals(EHttpContentEncoding.GZIP, HttpUtil.parseAcceptEncoding("gzip, deflate, br"));
+    Assert.assertEquals(EHttpContentEncoding.GZIP, HttpUtil.parseAcceptEncoding("deflate, GZIP"));
+    Assert.assertEquals(EHttpContentEncoding.DEFLATE, HttpUtil.parseAcceptEncoding("gzip;q=0.5, deflate"));
+    Assert.assertEquals(EHttpContentEncoding.DEFLATE, HttpUtil.parseAcceptEncoding("gzip; q=0, deflate;q=0.1"));
+    Assert.assertEquals(EHttpContentEncoding.GZIP, HttpUtil.parseAcceptEncoding("*"));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.http.HttpUtil#parseQuery(String)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testParseQuery() {
+    Assert.assertTrue(HttpUtil.parseQuery("/route").isEmpty());
+    Assert.assertTrue(HttpUtil.parseQuery("/route?").isEmpty());
+    final Map<String, String> parameters = HttpUtil.parseQuery("/route?format=binary&flag&name=K%C3%B6nig+str&&a=1&a=2");
+    Assert.assertEquals(4, parameters.size());
+    Assert.assertEquals("binary", parameters.get("format"));
+    Assert.assertEquals("", parameters.get("flag"));
+    Assert.assertEquals("König str", parameters.get("name"));
+    Assert.assertEquals("2", parameters.get("a"));
+  }
+
   /**
    * Test method for
    * {@link de.unifreiburg.informatik.cobweb.util.http.HttpUtil#parseRequest(java.io.InputStream)}.
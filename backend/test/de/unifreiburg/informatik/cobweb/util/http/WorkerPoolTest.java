@@ -0,0 +1,93 @@
+package de.unifreiburg.informatik.cobweb.util.http;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for the class {@link WorkerPool}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class WorkerPoolTest {
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.http.WorkerPool#execute(Runnable, Runnable)}.
+   *
+   * @throws InterruptedException If interrupted while waiting for the tasks
+   */
+  @Test
+  public void testExecute() throws InterruptedException {
+    final WorkerPool pool = new WorkerPool("test", 1, 1, 10_000);
+    try {
+      final CountDownLatch release = new CountDownLatch(1);
+      final CountDownLatch done = new CountDownLatch(2);
+      final AtomicInteger executed = new AtomicInteger();
+      final AtomicInteger rejected = new AtomicInteger();
+
+      // Occupies the only thread
+      pool.execute(() -> {
+        try {
+          release.await();
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        executed.incrementAndGet();
+        done.countDown();
+      }, rejected::incrementAndGet);
+      // Fills the queue
+      pool.execute(() -> {
+        executed.incrementAndGet();
+        done.countDown();
+      }, rejected::incrementAndGet);
+      // Rejected immediately on the calling thread
+      pool.execute(executed::incrementAndGet, rejected::incrementAndGet);
+      Assert.assertEquals(1, rejected.get());
+      Assert.assertEquals(1L, pool.getRejectedCount());
+
+      release.countDown();
+      Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+      Assert.assertEquals(2, executed.get());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.http.WorkerPool#execute(Runnable, Runnable)}
+   * with tasks that wait too long in the queue.
+   *
+   * @throws InterruptedException If interrupted while waiting for the tasks
+   */
+  @Test
+  public void testExecuteTimeout() throws InterruptedException {
+    final WorkerPool pool = new WorkerPool("test", 1, 1, 50);
+    try {
+      final CountDownLatch release = new CountDownLatch(1);
+      final CountDownLatch done = new CountDownLatch(1);
+      final AtomicInteger executed = new AtomicInteger();
+
+      pool.execute(() -> {
+        try {
+          release.await();
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }, Assert::fail);
+      // Waits longer than allowed and is rejected once dequeued
+      pool.execute(executed::incrementAndGet, done::countDown);
+
+      Thread.sleep(200);
+      release.countDown();
+      Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+      Assert.assertEquals(0, executed.get());
+      Assert.assertEquals(1L, pool.getRejectedCount());
+    } finally {
+      pool.shutdown();
+    }
+  }
+}